@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.function.DoubleSupplier;
 
 import org.apache.asterix.active.message.ActiveManagerMessage;
 import org.apache.asterix.active.message.ActiveStatsRequestMessage;
@@ -51,27 +52,102 @@ public class ActiveManager {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int SHUTDOWN_TIMEOUT_SECS = 60;
+    private static final long PRESSURE_SAMPLE_INTERVAL_NS = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final double MIN_FRAME_POOL_FRACTION = 0.1;
 
     private final ExecutorService executor;
     private final ConcurrentMap<ActiveRuntimeId, IActiveRuntime> runtimes;
+    private final ConcurrentMap<ActiveRuntimeId, IActiveIngestionBuffer> ingestionBuffers;
     private final ConcurrentFramePool activeFramePool;
     private final String nodeId;
     private final INCServiceContext serviceCtx;
+    private final DoubleSupplier storagePressureSupplier;
     private volatile boolean shutdown;
+    private volatile double storagePressure;
+    private volatile long storagePressureSampleTime;
 
+    /**
+     * @param storagePressureSupplier
+     *            supplies how close the storage of the node is to stalling ingestion, from 0 (no pressure) to 1 (the
+     *            memory components are full and their flushes and merges are falling behind)
+     */
     public ActiveManager(ExecutorService executor, String nodeId, long activeMemoryBudget, int frameSize,
-            INCServiceContext serviceCtx) throws HyracksDataException {
+            INCServiceContext serviceCtx, DoubleSupplier storagePressureSupplier) throws HyracksDataException {
         this.executor = executor;
         this.nodeId = nodeId;
         this.activeFramePool = new ConcurrentFramePool(nodeId, activeMemoryBudget, frameSize);
         this.runtimes = new ConcurrentHashMap<>();
+        this.ingestionBuffers = new ConcurrentHashMap<>();
         this.serviceCtx = serviceCtx;
+        this.storagePressureSupplier = storagePressureSupplier;
+        this.storagePressureSampleTime = System.nanoTime() - PRESSURE_SAMPLE_INTERVAL_NS;
     }
 
     public ConcurrentFramePool getFramePool() {
         return activeFramePool;
     }
 
+    /**
+     * Returns the storage pressure of this node. The pressure is sampled at most every
+     * {@link #PRESSURE_SAMPLE_INTERVAL_NS} nanoseconds and every sample resizes the active frame pool: the higher the
+     * pressure, the fewer frames the feeds can buffer in memory before they fall back to their congestion policy
+     * (spill, discard or stall) which pushes back on the intake.
+     *
+     * @return the storage pressure, from 0 to 1
+     * @throws HyracksDataException
+     */
+    public double getStoragePressure() throws HyracksDataException {
+        if (System.nanoTime() - storagePressureSampleTime >= PRESSURE_SAMPLE_INTERVAL_NS) {
+            sampleStoragePressure();
+        }
+        return storagePressure;
+    }
+
+    private synchronized void sampleStoragePressure() throws HyracksDataException {
+        long now = System.nanoTime();
+        if (now - storagePressureSampleTime < PRESSURE_SAMPLE_INTERVAL_NS) {
+            return;
+        }
+        storagePressureSampleTime = now;
+        double pressure = Math.max(0.0, Math.min(1.0, storagePressureSupplier.getAsDouble()));
+        storagePressure = pressure;
+        int budget = activeFramePool.getBudget();
+        int minFrames = (int) Math.ceil(budget * MIN_FRAME_POOL_FRACTION);
+        activeFramePool.setLimit(budget - (int) ((budget - minFrames) * pressure));
+    }
+
+    public void registerIngestionBuffer(IActiveIngestionBuffer buffer) {
+        ingestionBuffers.put(buffer.getRuntimeId(), buffer);
+    }
+
+    public void deregisterIngestionBuffer(ActiveRuntimeId id) {
+        ingestionBuffers.remove(id);
+    }
+
+    /**
+     * @return the stats of the ingestion buffers of the entity on this node as a JSON object
+     */
+    public String getIngestionStats(EntityId entityId) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"node\": \"").append(nodeId).append("\", \"storage-pressure\": ").append(storagePressure)
+                .append(", \"frame-pool-limit\": ").append(activeFramePool.getLimit())
+                .append(", \"frame-pool-budget\": ").append(activeFramePool.getBudget())
+                .append(", \"buffers\": [");
+        boolean first = true;
+        for (IActiveIngestionBuffer buffer : ingestionBuffers.values()) {
+            if (buffer.getRuntimeId().getEntityId().equals(entityId)) {
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append("{\"runtime\": \"").append(buffer.getRuntimeId().getRuntimeName())
+                        .append("\", \"partition\": ").append(buffer.getRuntimeId().getPartition())
+                        .append(", \"stats\": ").append(buffer.getStats()).append('}');
+            }
+        }
+        return sb.append("]}").toString();
+    }
+
     public void registerRuntime(IActiveRuntime runtime) throws HyracksDataException {
         NodeControllerService controllerService = (NodeControllerService) serviceCtx.getControllerService();
         if (controllerService.getNodeStatus() != NodeStatus.ACTIVE) {
@@ -0,0 +1,37 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.active;
+
+/**
+ * An input side buffer of an active job, e.g., the buffer that absorbs the congestion in front of the operators of
+ * a feed pipeline. Buffers register with the {@link ActiveManager} of their node so that their state is reported
+ * with the stats of the active runtimes of the same entity.
+ */
+public interface IActiveIngestionBuffer {
+
+    /**
+     * @return the id of the runtime the buffer belongs to
+     */
+    ActiveRuntimeId getRuntimeId();
+
+    /**
+     * @return the buffer stats as a JSON object
+     */
+    String getStats();
+}
@@ -21,6 +21,7 @@ package org.apache.asterix.algebra.operators.physical;
 import static org.apache.asterix.common.utils.IdentifierUtil.dataset;
 
 import org.apache.asterix.common.config.OptimizationConfUtil;
+import org.apache.asterix.dataflow.data.nontagged.ScoreWriterFactory;
 import org.apache.asterix.metadata.MetadataManager;
 import org.apache.asterix.metadata.declared.DataSourceId;
 import org.apache.asterix.metadata.declared.MetadataProvider;
@@ -59,11 +60,13 @@ import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
 import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
 import org.apache.hyracks.api.job.JobSpecification;
 import org.apache.hyracks.dataflow.std.file.IFileSplitProvider;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.dataflow.IndexDataflowHelperFactory;
 import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearchModifierFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.LSMInvertedIndexSearchOperatorDescriptor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.dataflow.LSMInvertedIndexTopKSearchOperatorDescriptor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluatorFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
 
@@ -142,7 +145,8 @@ public class InvertedIndexPOperator extends IndexSearchPOperator {
                         jobGenParams.getDatasetName(), dataset, jobGenParams.getIndexName(),
                         jobGenParams.getSearchKeyType(), keyIndexes, jobGenParams.getSearchModifierType(),
                         jobGenParams.getSimilarityThreshold(), propagateIndexFilter, nonFilterWriterFactory,
-                        minFilterFieldIndexes, maxFilterFieldIndexes, jobGenParams.getIsFullTextSearch(), frameLimit);
+                        minFilterFieldIndexes, maxFilterFieldIndexes, jobGenParams.getIsFullTextSearch(), frameLimit,
+                        jobGenParams.getTopKLimit(), jobGenParams.getNumDocuments());
         IOperatorDescriptor opDesc = invIndexSearch.first;
         opDesc.setSourceLocation(unnestMapOp.getSourceLocation());
 
@@ -160,7 +164,8 @@ public class InvertedIndexPOperator extends IndexSearchPOperator {
             ATypeTag searchKeyType, int[] keyFields, SearchModifierType searchModifierType,
             IAlgebricksConstantValue similarityThreshold, boolean propagateIndexFilter,
             IMissingWriterFactory nonFilterWriterFactory, int[] minFilterFieldIndexes, int[] maxFilterFieldIndexes,
-            boolean isFullTextSearchQuery, int frameLimit) throws AlgebricksException {
+            boolean isFullTextSearchQuery, int frameLimit, int topKLimit, long numDocuments)
+            throws AlgebricksException {
         IAObject simThresh = ((AsterixConstantValue) similarityThreshold).getObject();
         int numPrimaryKeys = dataset.getPrimaryKeys().size();
         Index secondaryIndex = MetadataManager.INSTANCE.getIndex(metadataProvider.getMetadataTxnContext(),
@@ -169,6 +174,10 @@ public class InvertedIndexPOperator extends IndexSearchPOperator {
             throw new AlgebricksException(
                     "Code generation error: no index " + indexName + " for " + dataset() + " " + datasetName);
         }
+        if (topKLimit >= 0 && (isPartitioned || minFilterFieldIndexes != null)) {
+            throw new AlgebricksException("Code generation error: top-k search of index " + indexName
+                    + " is only supported as an unfiltered search of a non length-partitioned index");
+        }
         IVariableTypeEnvironment typeEnv = context.getTypeEnvironment(unnestMap);
         RecordDescriptor outputRecDesc = JobGenHelper.mkRecordDescriptor(typeEnv, opSchema, context);
         Pair<IFileSplitProvider, AlgebricksPartitionConstraint> secondarySplitsAndConstraint =
@@ -186,14 +195,21 @@ public class InvertedIndexPOperator extends IndexSearchPOperator {
         IIndexDataflowHelperFactory dataflowHelperFactory = new IndexDataflowHelperFactory(
                 metadataProvider.getStorageComponentProvider().getStorageManager(), secondarySplitsAndConstraint.first);
 
-        LSMInvertedIndexSearchOperatorDescriptor invIndexSearchOp = new LSMInvertedIndexSearchOperatorDescriptor(
-                jobSpec, outputRecDesc, queryField, dataflowHelperFactory, queryTokenizerFactory,
-                fullTextConfigEvaluatorFactory, searchModifierFactory, retainInput, retainMissing,
-                nonMatchWriterFactory,
-                dataset.getSearchCallbackFactory(metadataProvider.getStorageComponentProvider(), secondaryIndex,
-                        IndexOperation.SEARCH, null),
-                minFilterFieldIndexes, maxFilterFieldIndexes, isFullTextSearchQuery, numPrimaryKeys,
-                propagateIndexFilter, nonFilterWriterFactory, frameLimit);
+        ISearchOperationCallbackFactory searchCallbackFactory = dataset.getSearchCallbackFactory(
+                metadataProvider.getStorageComponentProvider(), secondaryIndex, IndexOperation.SEARCH, null);
+        IOperatorDescriptor invIndexSearchOp;
+        if (topKLimit >= 0) {
+            invIndexSearchOp = new LSMInvertedIndexTopKSearchOperatorDescriptor(jobSpec, outputRecDesc, queryField,
+                    topKLimit, numDocuments, dataflowHelperFactory, queryTokenizerFactory,
+                    fullTextConfigEvaluatorFactory, ScoreWriterFactory.INSTANCE, retainInput, retainMissing,
+                    nonMatchWriterFactory, searchCallbackFactory, numPrimaryKeys, frameLimit);
+        } else {
+            invIndexSearchOp = new LSMInvertedIndexSearchOperatorDescriptor(jobSpec, outputRecDesc, queryField,
+                    dataflowHelperFactory, queryTokenizerFactory, fullTextConfigEvaluatorFactory,
+                    searchModifierFactory, retainInput, retainMissing, nonMatchWriterFactory, searchCallbackFactory,
+                    minFilterFieldIndexes, maxFilterFieldIndexes, isFullTextSearchQuery, numPrimaryKeys,
+                    propagateIndexFilter, nonFilterWriterFactory, frameLimit);
+        }
         return new Pair<>(invIndexSearchOp, secondarySplitsAndConstraint.second);
     }
 }
@@ -109,7 +109,8 @@ public class RTreeSearchPOperator extends IndexSearchPOperator {
                 mp.buildRtreeRuntime(builder.getJobSpec(), outputVars, opSchema, typeEnv, context,
                         jobGenParams.getRetainInput(), retainMissing, nonMatchWriterFactory, dataset,
                         jobGenParams.getIndexName(), keyIndexes, propagateIndexFilter, nonFilterWriterFactory,
-                        minFilterFieldIndexes, maxFilterFieldIndexes, unnestMap.getGenerateCallBackProceedResultVar());
+                        minFilterFieldIndexes, maxFilterFieldIndexes, unnestMap.getGenerateCallBackProceedResultVar(),
+                        jobGenParams.getKNNLimit());
         IOperatorDescriptor opDesc = rtreeSearch.first;
         opDesc.setSourceLocation(unnestMap.getSourceLocation());
 
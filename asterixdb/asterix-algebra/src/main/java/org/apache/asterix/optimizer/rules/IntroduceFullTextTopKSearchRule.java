@@ -0,0 +1,335 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.typecomputer.impl.TypeComputeUtils;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.optimizer.rules.am.AccessMethodAnalysisContext;
+import org.apache.asterix.optimizer.rules.am.AccessMethodUtils;
+import org.apache.asterix.optimizer.rules.am.InvertedIndexAccessMethod.SearchModifierType;
+import org.apache.asterix.optimizer.rules.am.InvertedIndexJobGenParams;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractUnnestMapOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LimitOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorManipulationUtil;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+
+/**
+ * Pattern:
+ * SCAN -> (ASSIGN)* -> ORDER (DESC ftscore($$field, string constant)) -> (ASSIGN | PROJECT)* -> LIMIT
+ * where $$field is a string field of an internal dataset having a (non length-partitioned) keyword or full-text index
+ * on it. The scan is replaced with a top-k search of the inverted index, k being the limit plus the offset, which
+ * returns the primary keys of the best scored records along with their score, followed by a primary index lookup:
+ * ASSIGN (query) -> UNNEST_MAP (top-k search) -> ORDER (PK) -> UNNEST_MAP (primary) -> (ASSIGN)* -> ORDER -> ...
+ * The ftscore() calls of the ORDER and of the assigns between the LIMIT and the scan are replaced with the score
+ * variable. Every partition returns its k best scored records and the ORDER and LIMIT on top, which are kept, pick
+ * them. Since the score is only defined by the index search, records not containing any query token are not returned.
+ * The number of records of a partition that the inverse document frequencies are based on is estimated from the
+ * statistics of the primary index, if any (see {@link IndexStatistics}).
+ */
+public class IntroduceFullTextTopKSearchRule implements IAlgebraicRewriteRule {
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.LIMIT) {
+            return false;
+        }
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+
+        Integer k = PushLimitIntoOrderByRule.getOutputLimit((LimitOperator) op);
+        if (k == null) {
+            return false;
+        }
+        // the operators whose ftscore() calls are replaced with the score
+        List<ILogicalOperator> scoreUsers = new ArrayList<>();
+        ILogicalOperator child = op.getInputs().get(0).getValue();
+        while (child.getOperatorTag() == LogicalOperatorTag.ASSIGN
+                || child.getOperatorTag() == LogicalOperatorTag.PROJECT) {
+            scoreUsers.add(child);
+            child = child.getInputs().get(0).getValue();
+        }
+        if (child.getOperatorTag() != LogicalOperatorTag.ORDER) {
+            return false;
+        }
+        OrderOperator orderOp = (OrderOperator) child;
+        if (orderOp.getOrderExpressions().size() != 1) {
+            return false;
+        }
+        Pair<IOrder, Mutable<ILogicalExpression>> orderExpr = orderOp.getOrderExpressions().get(0);
+        if (orderExpr.first.getKind() != OrderKind.DESC) {
+            return false;
+        }
+        scoreUsers.add(orderOp);
+
+        // the assigns between the ORDER and the scan
+        Map<LogicalVariable, ILogicalExpression> assignments = new HashMap<>();
+        Mutable<ILogicalOperator> scanRef = orderOp.getInputs().get(0);
+        while (scanRef.getValue().getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+            AssignOperator assign = (AssignOperator) scanRef.getValue();
+            for (int i = 0; i < assign.getVariables().size(); i++) {
+                assignments.put(assign.getVariables().get(i), assign.getExpressions().get(i).getValue());
+            }
+            scoreUsers.add(assign);
+            scanRef = assign.getInputs().get(0);
+        }
+        if (scanRef.getValue().getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            return false;
+        }
+        DataSourceScanOperator scan = (DataSourceScanOperator) scanRef.getValue();
+        if (!isScanRewritable(scan)) {
+            return false;
+        }
+        Dataset dataset = ((DatasetDataSource) scan.getDataSource()).getDataset();
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        ARecordType recordType = (ARecordType) metadataProvider.findType(dataset);
+        LogicalVariable recordVar = scan.getVariables().get(scan.getVariables().size() - 1);
+
+        ILogicalExpression scoreExpr = resolve(orderExpr.second.getValue(), assignments);
+        String fieldName = getScoredFieldName(scoreExpr, assignments, recordVar, recordType);
+        if (fieldName == null) {
+            return false;
+        }
+        ILogicalExpression query = ((AbstractFunctionCallExpression) scoreExpr).getArguments().get(1).getValue();
+        String queryString = ConstantExpressionUtil.getStringConstant(query);
+        Index index = findTextIndex(metadataProvider, dataset, fieldName);
+        if (index == null) {
+            return false;
+        }
+
+        LogicalVariable scoreVar = context.newVar();
+        scanRef.setValue(
+                createTopKSearchPlan(scan, dataset, recordType, index, query, scoreVar, k, metadataProvider, context));
+        for (ILogicalOperator scoreUser : scoreUsers) {
+            if (scoreUser.getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+                for (Mutable<ILogicalExpression> exprRef : ((AssignOperator) scoreUser).getExpressions()) {
+                    replaceScore(exprRef, fieldName, queryString, scoreVar, assignments, recordVar, recordType);
+                }
+            } else if (scoreUser.getOperatorTag() == LogicalOperatorTag.ORDER) {
+                replaceScore(orderExpr.second, fieldName, queryString, scoreVar, assignments, recordVar, recordType);
+            }
+        }
+        OperatorPropertiesUtil.typeOpRec(opRef, context);
+        return true;
+    }
+
+    private static boolean isScanRewritable(DataSourceScanOperator scan) {
+        if (scan.getSelectCondition() != null || scan.getOutputLimit() >= 0) {
+            return false;
+        }
+        if (!scan.getInputs().isEmpty()
+                && scan.getInputs().get(0).getValue().getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE) {
+            return false;
+        }
+        DataSource dataSource = (DataSource) scan.getDataSource();
+        return dataSource.getDatasourceType() == DataSource.Type.INTERNAL_DATASET
+                && !((DatasetDataSource) dataSource).getDataset().hasMetaPart();
+    }
+
+    private static ILogicalExpression resolve(ILogicalExpression expr,
+            Map<LogicalVariable, ILogicalExpression> assignments) {
+        ILogicalExpression resolved = expr;
+        while (resolved.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            ILogicalExpression assigned =
+                    assignments.get(((VariableReferenceExpression) resolved).getVariableReference());
+            if (assigned == null) {
+                break;
+            }
+            resolved = assigned;
+        }
+        return resolved;
+    }
+
+    /**
+     * @return the name of the record field that the expression, an ftscore() call with a string constant query, scores
+     *         or {@code null} if the expression is not such a call
+     */
+    private static String getScoredFieldName(ILogicalExpression expr,
+            Map<LogicalVariable, ILogicalExpression> assignments, LogicalVariable recordVar, ARecordType recordType) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression scoreFunc = (AbstractFunctionCallExpression) expr;
+        if (!scoreFunc.getFunctionIdentifier().equals(BuiltinFunctions.FULLTEXT_SCORE)
+                || ConstantExpressionUtil.getStringConstant(scoreFunc.getArguments().get(1).getValue()) == null) {
+            return null;
+        }
+        ILogicalExpression field = resolve(scoreFunc.getArguments().get(0).getValue(), assignments);
+        if (field.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) field;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        ILogicalExpression record = f.getArguments().get(0).getValue();
+        if (record.getExpressionTag() != LogicalExpressionTag.VARIABLE
+                || !((VariableReferenceExpression) record).getVariableReference().equals(recordVar)) {
+            return null;
+        }
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            return ConstantExpressionUtil.getStringArgument(f, 1);
+        } else if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(f, 1);
+            return fieldIndex == null || fieldIndex >= recordType.getFieldNames().length ? null
+                    : recordType.getFieldNames()[fieldIndex];
+        }
+        return null;
+    }
+
+    private static Index findTextIndex(MetadataProvider metadataProvider, Dataset dataset, String fieldName)
+            throws AlgebricksException {
+        List<String> keyFieldName = Collections.singletonList(fieldName);
+        for (Index index : metadataProvider.getDatasetIndexes(dataset.getDataverseName(), dataset.getDatasetName())) {
+            if (index.getIndexType() != IndexType.SINGLE_PARTITION_WORD_INVIX) {
+                continue;
+            }
+            Index.TextIndexDetails indexDetails = (Index.TextIndexDetails) index.getIndexDetails();
+            List<Integer> sourceIndicators = indexDetails.getKeyFieldSourceIndicators();
+            // keyword indexes on lists of strings index whole elements rather than words
+            if (indexDetails.getKeyFieldNames().size() == 1
+                    && keyFieldName.equals(indexDetails.getKeyFieldNames().get(0))
+                    && (sourceIndicators == null || sourceIndicators.get(0) == Index.RECORD_INDICATOR)
+                    && TypeComputeUtils.getActualType(indexDetails.getKeyFieldTypes().get(0))
+                            .getTypeTag() == ATypeTag.STRING) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static void replaceScore(Mutable<ILogicalExpression> exprRef, String fieldName, String queryString,
+            LogicalVariable scoreVar, Map<LogicalVariable, ILogicalExpression> assignments, LogicalVariable recordVar,
+            ARecordType recordType) {
+        ILogicalExpression expr = exprRef.getValue();
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return;
+        }
+        if (fieldName.equals(getScoredFieldName(expr, assignments, recordVar, recordType)) && queryString.equals(
+                ConstantExpressionUtil.getStringArgument((AbstractFunctionCallExpression) expr, 1))) {
+            VariableReferenceExpression scoreVarRef = new VariableReferenceExpression(scoreVar);
+            scoreVarRef.setSourceLocation(expr.getSourceLocation());
+            exprRef.setValue(scoreVarRef);
+            return;
+        }
+        for (Mutable<ILogicalExpression> argRef : ((AbstractFunctionCallExpression) expr).getArguments()) {
+            replaceScore(argRef, fieldName, queryString, scoreVar, assignments, recordVar, recordType);
+        }
+    }
+
+    /**
+     * @return the estimated number of records of a partition of the dataset or 0 if there are no statistics
+     */
+    private static long getNumDocumentsPerPartition(MetadataProvider metadataProvider, Dataset dataset)
+            throws AlgebricksException {
+        IndexStatistics statistics = metadataProvider.getApplicationContext().getStatisticsManager()
+                .getStatistics(dataset.getDatasetId(), dataset.getDatasetName());
+        if (statistics == null) {
+            return 0;
+        }
+        long numRecords = statistics.getCardinality();
+        // the old versions of updated records are counted as well, unlike distinct keys
+        if (dataset.getPrimaryKeys().size() == 1 && statistics.getDistinctValues(0) >= 0) {
+            numRecords = Math.min(numRecords, statistics.getDistinctValues(0));
+        }
+        int numPartitions = metadataProvider.getSplitProviderAndConstraints(dataset).first.getFileSplits().length;
+        return numRecords / Math.max(numPartitions, 1);
+    }
+
+    private static ILogicalOperator createTopKSearchPlan(DataSourceScanOperator scan, Dataset dataset,
+            ARecordType recordType, Index index, ILogicalExpression query, LogicalVariable scoreVar, int k,
+            MetadataProvider metadataProvider, IOptimizationContext context) throws AlgebricksException {
+        SourceLocation sourceLoc = scan.getSourceLocation();
+        InvertedIndexJobGenParams jobGenParams = new InvertedIndexJobGenParams(index.getIndexName(),
+                index.getIndexType(), dataset.getDataverseName(), dataset.getDatasetName(), false, false);
+        // the search modifier is not used by the top-k search, which scores the records containing any query token
+        jobGenParams.setSearchModifierType(SearchModifierType.DISJUNCTIVE);
+        jobGenParams.setSimilarityThreshold(new AsterixConstantValue(ANull.NULL));
+        jobGenParams.setSearchKeyType(ATypeTag.STRING);
+        jobGenParams.setTopKLimit(k);
+        jobGenParams.setNumDocuments(getNumDocumentsPerPartition(metadataProvider, dataset));
+        LogicalVariable queryVar = context.newVar();
+        jobGenParams.setKeyVarList(Collections.singletonList(queryVar));
+        AssignOperator assignSearchKey =
+                new AssignOperator(queryVar, new MutableObject<>(query.cloneExpression()));
+        assignSearchKey.setSourceLocation(sourceLoc);
+        assignSearchKey.getInputs()
+                .add(new MutableObject<>(OperatorManipulationUtil.deepCopy(scan.getInputs().get(0).getValue())));
+        assignSearchKey.setExecutionMode(scan.getExecutionMode());
+        context.computeAndSetTypeEnvironmentForOperator(assignSearchKey);
+
+        // The top-k search outputs the score of a record after its primary key.
+        AbstractUnnestMapOperator secondaryIndexUnnestOp =
+                (AbstractUnnestMapOperator) AccessMethodUtils.createSecondaryIndexUnnestMap(dataset, recordType, null,
+                        index, assignSearchKey, jobGenParams, context, false, false, false, null);
+        secondaryIndexUnnestOp.getVariables().add(scoreVar);
+        secondaryIndexUnnestOp.getVariableTypes().add(BuiltinType.ADOUBLE);
+        context.computeAndSetTypeEnvironmentForOperator(secondaryIndexUnnestOp);
+        // the primary index lookup retains its input to carry the score
+        return AccessMethodUtils.createRestOfIndexSearchPlan(null, null, null, null, scan, dataset, recordType, null,
+                secondaryIndexUnnestOp, context, true, true, false, false, index, new AccessMethodAnalysisContext(),
+                null, null, null, null, false);
+    }
+}
@@ -0,0 +1,289 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.lang.common.util.FunctionUtil;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.optimizer.rules.am.AccessMethodAnalysisContext;
+import org.apache.asterix.optimizer.rules.am.AccessMethodUtils;
+import org.apache.asterix.optimizer.rules.am.RTreeJobGenParams;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.common.utils.Pair;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.LimitOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.OrderOperator.IOrder.OrderKind;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorManipulationUtil;
+import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Pattern:
+ * SCAN -> (ASSIGN)* -> ORDER (ASC spatial-distance($$field, point constant)) -> (ASSIGN | PROJECT)* -> LIMIT
+ * where $$field is a declared, non optional, point field of an internal dataset having an R-tree index on it.
+ * The scan is replaced with a k-nearest-neighbor search of the R-tree, k being the limit plus the offset, followed by
+ * a primary index lookup:
+ * ASSIGN (query point) -> UNNEST_MAP (R-tree kNN) -> ORDER (PK) -> UNNEST_MAP (primary) -> (ASSIGN)* -> ORDER -> ...
+ * Every partition returns its k nearest points, which include the k nearest points of the dataset, and the ORDER and
+ * LIMIT on top, which are kept, pick them. The MINDIST of a point is its distance, so the result is exact. Missing or
+ * null fields would be ordered first, which is why optional fields are not rewritten.
+ */
+public class IntroduceRTreeKNNSearchRule implements IAlgebraicRewriteRule {
+
+    private static final int NUM_DIMENSIONS = 2;
+
+    @Override
+    public boolean rewritePost(Mutable<ILogicalOperator> opRef, IOptimizationContext context) {
+        return false;
+    }
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.LIMIT) {
+            return false;
+        }
+        if (context.checkIfInDontApplySet(this, op)) {
+            return false;
+        }
+        context.addToDontApplySet(this, op);
+
+        Integer k = PushLimitIntoOrderByRule.getOutputLimit((LimitOperator) op);
+        if (k == null) {
+            return false;
+        }
+        ILogicalOperator child = op.getInputs().get(0).getValue();
+        while (child.getOperatorTag() == LogicalOperatorTag.ASSIGN
+                || child.getOperatorTag() == LogicalOperatorTag.PROJECT) {
+            child = child.getInputs().get(0).getValue();
+        }
+        if (child.getOperatorTag() != LogicalOperatorTag.ORDER) {
+            return false;
+        }
+        OrderOperator orderOp = (OrderOperator) child;
+        if (orderOp.getOrderExpressions().size() != 1) {
+            return false;
+        }
+        Pair<IOrder, Mutable<ILogicalExpression>> orderExpr = orderOp.getOrderExpressions().get(0);
+        if (orderExpr.first.getKind() != OrderKind.ASC) {
+            return false;
+        }
+
+        // the assigns between the ORDER and the scan
+        Map<LogicalVariable, ILogicalExpression> assignments = new HashMap<>();
+        Mutable<ILogicalOperator> scanRef = orderOp.getInputs().get(0);
+        while (scanRef.getValue().getOperatorTag() == LogicalOperatorTag.ASSIGN) {
+            AssignOperator assign = (AssignOperator) scanRef.getValue();
+            for (int i = 0; i < assign.getVariables().size(); i++) {
+                assignments.put(assign.getVariables().get(i), assign.getExpressions().get(i).getValue());
+            }
+            scanRef = assign.getInputs().get(0);
+        }
+        if (scanRef.getValue().getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            return false;
+        }
+        DataSourceScanOperator scan = (DataSourceScanOperator) scanRef.getValue();
+        if (!isScanRewritable(scan)) {
+            return false;
+        }
+        Dataset dataset = ((DatasetDataSource) scan.getDataSource()).getDataset();
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        ARecordType recordType = (ARecordType) metadataProvider.findType(dataset);
+
+        ILogicalExpression distanceExpr = resolve(orderExpr.second.getValue(), assignments);
+        if (distanceExpr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return false;
+        }
+        AbstractFunctionCallExpression distanceFunc = (AbstractFunctionCallExpression) distanceExpr;
+        if (!distanceFunc.getFunctionIdentifier().equals(BuiltinFunctions.SPATIAL_DISTANCE)) {
+            return false;
+        }
+        // one argument is the indexed field and the other one is the query point
+        LogicalVariable recordVar = scan.getVariables().get(scan.getVariables().size() - 1);
+        Index index = null;
+        ILogicalExpression queryPoint = null;
+        for (int i = 0; i < 2 && index == null; i++) {
+            ILogicalExpression pointArg = distanceFunc.getArguments().get(1 - i).getValue();
+            if (ConstantExpressionUtil.getConstantIaObject(pointArg, ATypeTag.POINT) == null) {
+                continue;
+            }
+            String fieldName =
+                    getPointFieldName(resolve(distanceFunc.getArguments().get(i).getValue(), assignments), recordVar,
+                            recordType);
+            if (fieldName != null) {
+                index = findPointIndex(metadataProvider, dataset, fieldName);
+                queryPoint = pointArg;
+            }
+        }
+        if (index == null) {
+            return false;
+        }
+
+        scanRef.setValue(createKNNSearchPlan(scan, dataset, recordType, index, queryPoint, k, context));
+        OperatorPropertiesUtil.typeOpRec(opRef, context);
+        return true;
+    }
+
+    private static boolean isScanRewritable(DataSourceScanOperator scan) {
+        if (scan.getSelectCondition() != null || scan.getOutputLimit() >= 0) {
+            return false;
+        }
+        if (!scan.getInputs().isEmpty()
+                && scan.getInputs().get(0).getValue().getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE) {
+            return false;
+        }
+        DataSource dataSource = (DataSource) scan.getDataSource();
+        return dataSource.getDatasourceType() == DataSource.Type.INTERNAL_DATASET
+                && !((DatasetDataSource) dataSource).getDataset().hasMetaPart();
+    }
+
+    private static ILogicalExpression resolve(ILogicalExpression expr,
+            Map<LogicalVariable, ILogicalExpression> assignments) {
+        ILogicalExpression resolved = expr;
+        while (resolved.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            ILogicalExpression assigned =
+                    assignments.get(((VariableReferenceExpression) resolved).getVariableReference());
+            if (assigned == null) {
+                break;
+            }
+            resolved = assigned;
+        }
+        return resolved;
+    }
+
+    /**
+     * @return the name of the declared, non optional, point field of the record that the expression accesses or
+     *         {@code null} if the expression is not such an access
+     */
+    private static String getPointFieldName(ILogicalExpression expr, LogicalVariable recordVar,
+            ARecordType recordType) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        ILogicalExpression record = f.getArguments().get(0).getValue();
+        if (record.getExpressionTag() != LogicalExpressionTag.VARIABLE
+                || !((VariableReferenceExpression) record).getVariableReference().equals(recordVar)) {
+            return null;
+        }
+        String fieldName;
+        if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_NAME)) {
+            fieldName = ConstantExpressionUtil.getStringArgument(f, 1);
+        } else if (fid.equals(BuiltinFunctions.FIELD_ACCESS_BY_INDEX)) {
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(f, 1);
+            fieldName = fieldIndex == null || fieldIndex >= recordType.getFieldNames().length ? null
+                    : recordType.getFieldNames()[fieldIndex];
+        } else {
+            return null;
+        }
+        IAType fieldType = fieldName == null ? null : recordType.getFieldType(fieldName);
+        return fieldType != null && fieldType.getTypeTag() == ATypeTag.POINT ? fieldName : null;
+    }
+
+    private static Index findPointIndex(MetadataProvider metadataProvider, Dataset dataset, String fieldName)
+            throws AlgebricksException {
+        List<String> keyFieldName = Collections.singletonList(fieldName);
+        for (Index index : metadataProvider.getDatasetIndexes(dataset.getDataverseName(), dataset.getDatasetName())) {
+            if (index.getIndexType() != IndexType.RTREE) {
+                continue;
+            }
+            Index.ValueIndexDetails indexDetails = (Index.ValueIndexDetails) index.getIndexDetails();
+            List<Integer> sourceIndicators = indexDetails.getKeyFieldSourceIndicators();
+            if (indexDetails.getKeyFieldNames().size() == 1
+                    && keyFieldName.equals(indexDetails.getKeyFieldNames().get(0))
+                    && (sourceIndicators == null || sourceIndicators.get(0) == Index.RECORD_INDICATOR)) {
+                return index;
+            }
+        }
+        return null;
+    }
+
+    private static ILogicalOperator createKNNSearchPlan(DataSourceScanOperator scan, Dataset dataset,
+            ARecordType recordType, Index index, ILogicalExpression queryPoint, int k, IOptimizationContext context)
+            throws AlgebricksException {
+        SourceLocation sourceLoc = scan.getSourceLocation();
+        RTreeJobGenParams jobGenParams = new RTreeJobGenParams(index.getIndexName(), IndexType.RTREE,
+                dataset.getDataverseName(), dataset.getDatasetName(), false, false);
+        jobGenParams.setKNNLimit(k);
+        // The R-tree expects the query point as one field per dimension, i.e. the low corner of its MBR.
+        List<LogicalVariable> keyVarList = new ArrayList<>(NUM_DIMENSIONS);
+        List<Mutable<ILogicalExpression>> keyExprList = new ArrayList<>(NUM_DIMENSIONS);
+        for (int i = 0; i < NUM_DIMENSIONS; i++) {
+            AbstractFunctionCallExpression createMBR =
+                    new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.CREATE_MBR));
+            createMBR.setSourceLocation(sourceLoc);
+            createMBR.getArguments().add(new MutableObject<>(queryPoint.cloneExpression()));
+            createMBR.getArguments().add(new MutableObject<>(
+                    new ConstantExpression(new AsterixConstantValue(new AInt32(NUM_DIMENSIONS)))));
+            createMBR.getArguments()
+                    .add(new MutableObject<>(new ConstantExpression(new AsterixConstantValue(new AInt32(i)))));
+            keyVarList.add(context.newVar());
+            keyExprList.add(new MutableObject<>(createMBR));
+        }
+        jobGenParams.setKeyVarList(keyVarList);
+        AssignOperator assignSearchKeys = new AssignOperator(keyVarList, keyExprList);
+        assignSearchKeys.setSourceLocation(sourceLoc);
+        assignSearchKeys.getInputs()
+                .add(new MutableObject<>(OperatorManipulationUtil.deepCopy(scan.getInputs().get(0).getValue())));
+        assignSearchKeys.setExecutionMode(scan.getExecutionMode());
+        context.computeAndSetTypeEnvironmentForOperator(assignSearchKeys);
+
+        ILogicalOperator secondaryIndexUnnestOp = AccessMethodUtils.createSecondaryIndexUnnestMap(dataset, recordType,
+                null, index, assignSearchKeys, jobGenParams, context, false, false, false, null);
+        return AccessMethodUtils.createRestOfIndexSearchPlan(null, null, null, null, scan, dataset, recordType, null,
+                secondaryIndexUnnestOp, context, true, false, false, false, index, new AccessMethodAnalysisContext(),
+                null, null, null, null, false);
+    }
+}
@@ -51,6 +51,7 @@ import org.apache.asterix.metadata.utils.IndexUtil;
 import org.apache.asterix.metadata.utils.KeyFieldTypeUtil;
 import org.apache.asterix.om.base.ABoolean;
 import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
 import org.apache.asterix.om.base.AOrderedList;
 import org.apache.asterix.om.base.AString;
 import org.apache.asterix.om.base.IACursor;
@@ -168,6 +169,10 @@ public class AccessMethodUtils {
         return new ConstantExpression(new AsterixConstantValue(new AInt32(i)));
     }
 
+    public static ConstantExpression createInt64Constant(long l) {
+        return new ConstantExpression(new AsterixConstantValue(new AInt64(l)));
+    }
+
     public static ConstantExpression createBooleanConstant(boolean b) {
         return new ConstantExpression(new AsterixConstantValue(ABoolean.valueOf(b)));
     }
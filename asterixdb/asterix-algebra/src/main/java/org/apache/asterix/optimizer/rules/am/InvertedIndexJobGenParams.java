@@ -39,6 +39,11 @@ import org.apache.hyracks.algebricks.core.algebra.expressions.IAlgebricksConstan
  */
 public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
 
+    /**
+     * No top-k limit: the search returns all the entries matching the search modifier.
+     */
+    public static final int NO_TOP_K_LIMIT = -1;
+
     protected SearchModifierType searchModifierType;
     protected IAlgebricksConstantValue similarityThreshold;
     protected ATypeTag searchKeyType;
@@ -49,11 +54,17 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
     // if a query predicate contains a phrase, we need to generate an exception.
     // The following variable serves this purpose. i.e. Checks whether the query is a full-text search query or not.
     protected boolean isFullTextSearchQuery = false;
+    // the number of best scored entries to return, if this is a top-k search
+    protected int topKLimit = NO_TOP_K_LIMIT;
+    // the number of documents of an index partition that the scores of a top-k search are based on, or 0 if unknown
+    protected long numDocuments = 0;
     protected static final int SEARCH_MODIFIER_INDEX = 0;
     protected static final int SIM_THRESHOLD_INDEX = 1;
     protected static final int SEARCH_KEY_TYPE_INDEX = 2;
     protected static final int IS_FULLTEXT_SEARCH_INDEX = 3;
-    protected static final int KEY_VAR_INDEX = 4;
+    protected static final int TOP_K_LIMIT_INDEX = 4;
+    protected static final int NUM_DOCUMENTS_INDEX = 5;
+    protected static final int KEY_VAR_INDEX = 6;
 
     public InvertedIndexJobGenParams() {
     }
@@ -83,6 +94,14 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         this.keyVarList = keyVarList;
     }
 
+    public void setTopKLimit(int topKLimit) {
+        this.topKLimit = topKLimit;
+    }
+
+    public void setNumDocuments(long numDocuments) {
+        this.numDocuments = numDocuments;
+    }
+
     @Override
     public void writeToFuncArgs(List<Mutable<ILogicalExpression>> funcArgs) {
         super.writeToFuncArgs(funcArgs);
@@ -97,6 +116,9 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         // Write full-text search information.
         funcArgs.add(
                 new MutableObject<ILogicalExpression>(AccessMethodUtils.createBooleanConstant(isFullTextSearchQuery)));
+        // Write top-k search information.
+        funcArgs.add(new MutableObject<>(AccessMethodUtils.createInt32Constant(topKLimit)));
+        funcArgs.add(new MutableObject<>(AccessMethodUtils.createInt64Constant(numDocuments)));
         // Write key var list.
         writeVarList(keyVarList, funcArgs);
         // Write non-key var list.
@@ -119,6 +141,9 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         searchKeyType = ATypeTag.values()[typeTagOrdinal];
         // Read full-text search information.
         isFullTextSearchQuery = AccessMethodUtils.getBooleanConstant(funcArgs.get(index + IS_FULLTEXT_SEARCH_INDEX));
+        // Read top-k search information.
+        topKLimit = AccessMethodUtils.getInt32Constant(funcArgs.get(index + TOP_K_LIMIT_INDEX));
+        numDocuments = AccessMethodUtils.getInt64Constant(funcArgs.get(index + NUM_DOCUMENTS_INDEX));
         // Read key var list.
         keyVarList = new ArrayList<>();
         readVarList(funcArgs, index + KEY_VAR_INDEX, keyVarList);
@@ -147,6 +172,14 @@ public class InvertedIndexJobGenParams extends AccessMethodJobGenParams {
         return keyVarList;
     }
 
+    public int getTopKLimit() {
+        return topKLimit;
+    }
+
+    public long getNumDocuments() {
+        return numDocuments;
+    }
+
     public List<LogicalVariable> getNonKeyVarList() {
         return nonKeyVarList;
     }
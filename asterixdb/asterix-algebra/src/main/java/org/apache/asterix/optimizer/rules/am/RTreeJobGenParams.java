@@ -24,6 +24,7 @@ import java.util.List;
 import org.apache.asterix.common.config.DatasetConfig.IndexType;
 import org.apache.asterix.common.metadata.DataverseName;
 import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
 import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
@@ -34,7 +35,14 @@ import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
  */
 public class RTreeJobGenParams extends AccessMethodJobGenParams {
 
+    /**
+     * No k-nearest-neighbor limit: the search returns the entries intersecting the search key MBR.
+     */
+    public static final int NO_KNN_LIMIT = -1;
+
     protected List<LogicalVariable> keyVarList;
+    // the number of nearest neighbors of the search key point to return, if this is a k-nearest-neighbor search
+    protected int knnLimit = NO_KNN_LIMIT;
 
     public RTreeJobGenParams() {
     }
@@ -47,13 +55,15 @@ public class RTreeJobGenParams extends AccessMethodJobGenParams {
     public void writeToFuncArgs(List<Mutable<ILogicalExpression>> funcArgs) {
         super.writeToFuncArgs(funcArgs);
         writeVarList(keyVarList, funcArgs);
+        funcArgs.add(new MutableObject<>(AccessMethodUtils.createInt32Constant(knnLimit)));
     }
 
     public void readFromFuncArgs(List<Mutable<ILogicalExpression>> funcArgs) throws AlgebricksException {
         super.readFromFuncArgs(funcArgs);
         int index = super.getNumParams();
         keyVarList = new ArrayList<LogicalVariable>();
-        readVarList(funcArgs, index, keyVarList);
+        int nextIndex = readVarList(funcArgs, index, keyVarList);
+        knnLimit = AccessMethodUtils.getInt32Constant(funcArgs.get(nextIndex));
     }
 
     public void setKeyVarList(List<LogicalVariable> keyVarList) {
@@ -63,4 +73,12 @@ public class RTreeJobGenParams extends AccessMethodJobGenParams {
     public List<LogicalVariable> getKeyVarList() {
         return keyVarList;
     }
+
+    public void setKNNLimit(int knnLimit) {
+        this.knnLimit = knnLimit;
+    }
+
+    public int getKNNLimit() {
+        return knnLimit;
+    }
 }
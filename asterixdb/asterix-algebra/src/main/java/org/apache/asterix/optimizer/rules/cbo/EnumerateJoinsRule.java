@@ -0,0 +1,555 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.asterix.common.config.DatasetConfig.DatasetType;
+import org.apache.asterix.common.config.DatasetConfig.IndexType;
+import org.apache.asterix.common.storage.IStatisticsManager;
+import org.apache.asterix.formats.nontagged.BinaryComparatorFactoryProvider;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.metadata.declared.DataSource;
+import org.apache.asterix.metadata.declared.DatasetDataSource;
+import org.apache.asterix.metadata.declared.MetadataProvider;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.metadata.entities.InternalDatasetDetails;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.typecomputer.impl.TypeComputeUtils;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.commons.lang3.mutable.MutableObject;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.IOptimizationContext;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation;
+import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation.BroadcastSide;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
+import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.InnerJoinOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.SelectOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.visitors.VariableUtilities;
+import org.apache.hyracks.algebricks.core.algebra.properties.INodeDomain;
+import org.apache.hyracks.algebricks.core.rewriter.base.IAlgebraicRewriteRule;
+import org.apache.hyracks.algebricks.core.rewriter.base.PhysicalOptimizationConfig;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+
+/**
+ * Reorders a tree of inner joins over scans of internal datasets using the statistics of the indexes of the datasets
+ * (see {@link IStatisticsManager}) when {@code compiler.cbo} is enabled. The inputs of the joins are estimated from
+ * the statistics and their local predicates, the selectivity of an equi-join predicate is estimated from the number of
+ * distinct values of its columns and {@link JoinEnumerator} picks the join order, the build side and whether to
+ * broadcast the build side of every join. The joins are left alone if any input is not a scan of an internal dataset
+ * having statistics or if the query has join hints.
+ */
+public class EnumerateJoinsRule implements IAlgebraicRewriteRule {
+    private static final double DEFAULT_EQ_SELECTIVITY = 0.1;
+    private static final double DEFAULT_RANGE_SELECTIVITY = 1.0 / 3;
+    private static final double DEFAULT_SELECTIVITY = 0.5;
+    private static final double DEFAULT_TUPLE_SIZE = 100;
+    private static final int DEFAULT_PARTITIONS = 1;
+
+    @Override
+    public boolean rewritePre(Mutable<ILogicalOperator> opRef, IOptimizationContext context)
+            throws AlgebricksException {
+        ILogicalOperator op = opRef.getValue();
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN || context.checkIfInDontApplySet(this, op)
+                || !context.getPhysicalOptimizationConfig().isCboEnabled()) {
+            return false;
+        }
+        List<ILogicalOperator> leaves = new ArrayList<>();
+        List<Mutable<ILogicalExpression>> conjuncts = new ArrayList<>();
+        if (!collectJoins(op, leaves, conjuncts, context) || leaves.size() > JoinEnumerator.MAX_INPUTS) {
+            return false;
+        }
+        MetadataProvider metadataProvider = (MetadataProvider) context.getMetadataProvider();
+        IStatisticsManager statisticsManager = metadataProvider.getApplicationContext().getStatisticsManager();
+        List<JoinInput> inputs = new ArrayList<>(leaves.size());
+        for (ILogicalOperator leaf : leaves) {
+            JoinInput input = estimateInput(leaf, metadataProvider, statisticsManager);
+            if (input == null) {
+                return false;
+            }
+            inputs.add(input);
+        }
+
+        double[] cardinalities = new double[inputs.size()];
+        double[] tupleSizes = new double[inputs.size()];
+        for (int i = 0; i < inputs.size(); i++) {
+            cardinalities[i] = inputs.get(i).cardinality;
+            tupleSizes[i] = inputs.get(i).tupleSize;
+        }
+        PhysicalOptimizationConfig physicalConfig = context.getPhysicalOptimizationConfig();
+        INodeDomain domain = context.getComputationNodeDomain();
+        Integer numPartitions = domain == null ? null : domain.cardinality();
+        long joinMemory = (long) physicalConfig.getMaxFramesForJoin() * physicalConfig.getFrameSize();
+        JoinEnumerator enumerator = new JoinEnumerator(cardinalities, tupleSizes,
+                numPartitions == null ? DEFAULT_PARTITIONS : numPartitions, joinMemory);
+        List<JoinPredicate> predicates = new ArrayList<>(conjuncts.size());
+        for (Mutable<ILogicalExpression> conjunct : conjuncts) {
+            JoinPredicate predicate = estimatePredicate(conjunct.getValue(), inputs);
+            enumerator.addPredicate(predicate.inputs, predicate.selectivity, predicate.equiJoin);
+            predicates.add(predicate);
+        }
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+
+        opRef.setValue(buildJoins(plan, inputs, predicates, op, true, context));
+        return true;
+    }
+
+    /**
+     * Collects the inputs and the conjuncts of the tree of inner joins rooted at the given join.
+     *
+     * @return false if the joins should not be reordered
+     */
+    private boolean collectJoins(ILogicalOperator op, List<ILogicalOperator> leaves,
+            List<Mutable<ILogicalExpression>> conjuncts, IOptimizationContext context) {
+        if (op.getOperatorTag() != LogicalOperatorTag.INNERJOIN) {
+            leaves.add(op);
+            return true;
+        }
+        InnerJoinOperator join = (InnerJoinOperator) op;
+        context.addToDontApplySet(this, join);
+        if (join.getPhysicalOperator() != null) {
+            return false;
+        }
+        List<Mutable<ILogicalExpression>> joinConjuncts = new ArrayList<>();
+        ILogicalExpression condition = join.getCondition().getValue();
+        if (!condition.splitIntoConjuncts(joinConjuncts)) {
+            joinConjuncts.add(join.getCondition());
+        }
+        for (Mutable<ILogicalExpression> conjunct : joinConjuncts) {
+            ILogicalExpression expr = conjunct.getValue();
+            if (expr.getExpressionTag() == LogicalExpressionTag.FUNCTION_CALL
+                    && ((AbstractFunctionCallExpression) expr).hasAnnotations()) {
+                // respect the join hints
+                return false;
+            }
+            if (!expr.equals(ConstantExpression.TRUE)) {
+                conjuncts.add(conjunct);
+            }
+        }
+        for (Mutable<ILogicalOperator> input : join.getInputs()) {
+            if (!collectJoins(input.getValue(), leaves, conjuncts, context)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Estimates an input made of selects, assigns and projects over the scan of an internal dataset.
+     *
+     * @return the estimated input or {@code null} if the input is not such a scan or there are no statistics
+     */
+    private JoinInput estimateInput(ILogicalOperator leaf, MetadataProvider metadataProvider,
+            IStatisticsManager statisticsManager) throws AlgebricksException {
+        List<ILogicalExpression> localConjuncts = new ArrayList<>();
+        Map<LogicalVariable, ILogicalExpression> assignments = new HashMap<>();
+        ILogicalOperator op = leaf;
+        while (op.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            switch (op.getOperatorTag()) {
+                case SELECT:
+                    List<Mutable<ILogicalExpression>> selectConjuncts = new ArrayList<>();
+                    ILogicalExpression condition = ((SelectOperator) op).getCondition().getValue();
+                    if (condition.splitIntoConjuncts(selectConjuncts)) {
+                        selectConjuncts.forEach(conjunct -> localConjuncts.add(conjunct.getValue()));
+                    } else {
+                        localConjuncts.add(condition);
+                    }
+                    break;
+                case ASSIGN:
+                    AssignOperator assign = (AssignOperator) op;
+                    for (int i = 0; i < assign.getVariables().size(); i++) {
+                        assignments.put(assign.getVariables().get(i), assign.getExpressions().get(i).getValue());
+                    }
+                    break;
+                case PROJECT:
+                    break;
+                default:
+                    return null;
+            }
+            op = op.getInputs().get(0).getValue();
+        }
+        DataSourceScanOperator scan = (DataSourceScanOperator) op;
+        if (scan.getInputs().get(0).getValue().getOperatorTag() != LogicalOperatorTag.EMPTYTUPLESOURCE
+                || !(scan.getDataSource() instanceof DatasetDataSource)) {
+            return null;
+        }
+        DatasetDataSource dataSource = (DatasetDataSource) scan.getDataSource();
+        Dataset dataset = dataSource.getDataset();
+        if (dataSource.getDatasourceType() != DataSource.Type.INTERNAL_DATASET
+                || dataset.getDatasetType() != DatasetType.INTERNAL) {
+            return null;
+        }
+        IndexStatistics primaryStatistics =
+                statisticsManager.getStatistics(dataset.getDatasetId(), dataset.getDatasetName());
+        if (primaryStatistics == null) {
+            return null;
+        }
+
+        JoinInput input = new JoinInput();
+        VariableUtilities.getLiveVariables(leaf, input.liveVars);
+        List<List<String>> primaryKeys = dataset.getPrimaryKeys();
+        List<Integer> keySourceIndicators =
+                ((InternalDatasetDetails) dataset.getDatasetDetails()).getKeySourceIndicator();
+        Map<List<String>, Column> columns = new HashMap<>();
+        for (int i = 0; i < primaryKeys.size(); i++) {
+            Column column = new Column(primaryStatistics, i);
+            input.columns.put(scan.getVariables().get(i), column);
+            if (keySourceIndicators == null || keySourceIndicators.get(i) == 0) {
+                columns.put(primaryKeys.get(i), column);
+            }
+        }
+        for (Index index : metadataProvider.getDatasetIndexes(dataset.getDataverseName(),
+                dataset.getDatasetName())) {
+            if (index.getIndexType() != IndexType.BTREE || index.isPrimaryIndex()
+                    || !(index.getIndexDetails() instanceof Index.ValueIndexDetails)) {
+                continue;
+            }
+            Index.ValueIndexDetails details = (Index.ValueIndexDetails) index.getIndexDetails();
+            List<String> keyField = details.getKeyFieldNames().get(0);
+            if (details.getKeyFieldSourceIndicators().get(0) != 0 || columns.containsKey(keyField)) {
+                continue;
+            }
+            IndexStatistics statistics = statisticsManager.getStatistics(dataset.getDatasetId(), index.getIndexName());
+            if (statistics != null) {
+                columns.put(keyField, new Column(statistics, 0));
+            }
+        }
+        LogicalVariable recordVar = scan.getVariables().get(primaryKeys.size());
+        ARecordType recordType = TypeComputeUtils.extractRecordType(dataSource.getItemType());
+        Map<LogicalVariable, FieldPath> paths = new HashMap<>();
+        paths.put(recordVar, new FieldPath(new ArrayList<>(), recordType));
+        for (LogicalVariable var : assignments.keySet()) {
+            FieldPath path = resolvePath(var, assignments, paths);
+            Column column = path == null ? null : columns.get(path.names);
+            if (column != null) {
+                input.columns.put(var, column);
+            }
+        }
+
+        double cardinality = primaryStatistics.getCardinality();
+        if (primaryKeys.size() == 1 && primaryStatistics.getDistinctValues(0) >= 0) {
+            // the old versions of updated records are counted as tuples but not as distinct keys
+            cardinality = Math.min(cardinality, primaryStatistics.getDistinctValues(0));
+        }
+        cardinality = Math.max(cardinality, 1);
+        input.baseCardinality = cardinality;
+        for (ILogicalExpression conjunct : localConjuncts) {
+            cardinality *= estimateLocalSelectivity(conjunct, input);
+        }
+        input.cardinality = Math.max(cardinality, 1);
+        double tupleSize = primaryStatistics.getAverageTupleSize();
+        input.tupleSize = tupleSize > 0 ? tupleSize : DEFAULT_TUPLE_SIZE;
+        input.op = leaf;
+        return input;
+    }
+
+    private static FieldPath resolvePath(LogicalVariable var, Map<LogicalVariable, ILogicalExpression> assignments,
+            Map<LogicalVariable, FieldPath> paths) {
+        if (paths.containsKey(var)) {
+            return paths.get(var);
+        }
+        // mark the variable as unresolved first in case of cycles
+        paths.put(var, null);
+        ILogicalExpression expr = assignments.get(var);
+        if (expr == null || expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = f.getFunctionIdentifier();
+        if (fid != BuiltinFunctions.FIELD_ACCESS_BY_NAME && fid != BuiltinFunctions.FIELD_ACCESS_BY_INDEX) {
+            return null;
+        }
+        ILogicalExpression arg = f.getArguments().get(0).getValue();
+        if (arg.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+            return null;
+        }
+        FieldPath parent =
+                resolvePath(((VariableReferenceExpression) arg).getVariableReference(), assignments, paths);
+        if (parent == null) {
+            return null;
+        }
+        String fieldName;
+        if (fid == BuiltinFunctions.FIELD_ACCESS_BY_NAME) {
+            fieldName = ConstantExpressionUtil.getStringArgument(f, 1);
+        } else {
+            Integer fieldIndex = ConstantExpressionUtil.getIntArgument(f, 1);
+            fieldName = fieldIndex == null || parent.type == null || fieldIndex >= parent.type.getFieldNames().length
+                    ? null : parent.type.getFieldNames()[fieldIndex];
+        }
+        if (fieldName == null) {
+            return null;
+        }
+        IAType fieldType = parent.type == null ? null : parent.type.getFieldType(fieldName);
+        List<String> names = new ArrayList<>(parent.names);
+        names.add(fieldName);
+        FieldPath path = new FieldPath(names, fieldType == null ? null : TypeComputeUtils.extractRecordType(fieldType));
+        paths.put(var, path);
+        return path;
+    }
+
+    private static double estimateLocalSelectivity(ILogicalExpression expr, JoinInput input)
+            throws AlgebricksException {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return DEFAULT_SELECTIVITY;
+        }
+        AbstractFunctionCallExpression f = (AbstractFunctionCallExpression) expr;
+        ComparisonKind kind = AlgebricksBuiltinFunctions.getComparisonType(f.getFunctionIdentifier());
+        if (kind == null || f.getArguments().size() != 2) {
+            return DEFAULT_SELECTIVITY;
+        }
+        ILogicalExpression left = f.getArguments().get(0).getValue();
+        ILogicalExpression right = f.getArguments().get(1).getValue();
+        if (left.getExpressionTag() == LogicalExpressionTag.CONSTANT) {
+            ILogicalExpression tmp = left;
+            left = right;
+            right = tmp;
+            kind = flip(kind);
+        }
+        Column column = left.getExpressionTag() == LogicalExpressionTag.VARIABLE
+                ? input.columns.get(((VariableReferenceExpression) left).getVariableReference()) : null;
+        if (right.getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+            return DEFAULT_SELECTIVITY;
+        }
+        double selectivity;
+        switch (kind) {
+            case EQ:
+                selectivity = equalitySelectivity(column);
+                break;
+            case NEQ:
+                selectivity = 1 - equalitySelectivity(column);
+                break;
+            default:
+                selectivity = rangeSelectivity(column, kind, (ConstantExpression) right);
+                break;
+        }
+        return Math.min(Math.max(selectivity, 1 / input.baseCardinality), 1);
+    }
+
+    private static double equalitySelectivity(Column column) {
+        long distinctValues = column == null ? -1 : column.statistics.getDistinctValues(column.field);
+        return distinctValues > 0 ? 1.0 / distinctValues : DEFAULT_EQ_SELECTIVITY;
+    }
+
+    private static double rangeSelectivity(Column column, ComparisonKind kind, ConstantExpression constant)
+            throws AlgebricksException {
+        if (column == null || column.field != 0 || !(constant.getValue() instanceof AsterixConstantValue)) {
+            return DEFAULT_RANGE_SELECTIVITY;
+        }
+        IAObject value = ((AsterixConstantValue) constant.getValue()).getObject();
+        IBinaryComparator cmp = BinaryComparatorFactoryProvider.INSTANCE
+                .getBinaryComparatorFactory(BuiltinType.ANY, true).createBinaryComparator();
+        ArrayBackedValueStorage serialized = new ArrayBackedValueStorage();
+        IndexStatistics statistics = column.statistics;
+        double selectivity;
+        try {
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(value.getType()).serialize(value,
+                    serialized.getDataOutput());
+            byte[] bytes = new byte[serialized.getLength()];
+            System.arraycopy(serialized.getByteArray(), serialized.getStartOffset(), bytes, 0, bytes.length);
+            if (kind == ComparisonKind.LT || kind == ComparisonKind.LE) {
+                selectivity = statistics.estimateRangeSelectivity(cmp, null, false, bytes, kind == ComparisonKind.LE);
+            } else {
+                selectivity = statistics.estimateRangeSelectivity(cmp, bytes, kind == ComparisonKind.GE, null, false);
+            }
+        } catch (HyracksDataException e) {
+            throw new AlgebricksException(e);
+        }
+        return selectivity < 0 ? DEFAULT_RANGE_SELECTIVITY : selectivity;
+    }
+
+    private static ComparisonKind flip(ComparisonKind kind) {
+        switch (kind) {
+            case LT:
+                return ComparisonKind.GT;
+            case LE:
+                return ComparisonKind.GE;
+            case GT:
+                return ComparisonKind.LT;
+            case GE:
+                return ComparisonKind.LE;
+            default:
+                return kind;
+        }
+    }
+
+    private static JoinPredicate estimatePredicate(ILogicalExpression expr, List<JoinInput> inputs)
+            throws AlgebricksException {
+        JoinPredicate predicate = new JoinPredicate(expr);
+        Set<LogicalVariable> usedVars = new HashSet<>();
+        expr.getUsedVariables(usedVars);
+        predicate.inputs = inputsOf(usedVars, inputs);
+        if (Integer.bitCount(predicate.inputs) == 1) {
+            predicate.selectivity =
+                    estimateLocalSelectivity(expr, inputs.get(Integer.numberOfTrailingZeros(predicate.inputs)));
+            return predicate;
+        }
+        predicate.selectivity = DEFAULT_RANGE_SELECTIVITY;
+        if (Integer.bitCount(predicate.inputs) != 2 || expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL
+                || ((AbstractFunctionCallExpression) expr).getFunctionIdentifier() != AlgebricksBuiltinFunctions.EQ) {
+            return predicate;
+        }
+        List<Mutable<ILogicalExpression>> args = ((AbstractFunctionCallExpression) expr).getArguments();
+        double[] distinctValues = new double[2];
+        for (int i = 0; i < 2; i++) {
+            Set<LogicalVariable> argVars = new HashSet<>();
+            args.get(i).getValue().getUsedVariables(argVars);
+            int argInputs = inputsOf(argVars, inputs);
+            if (Integer.bitCount(argInputs) != 1) {
+                return predicate;
+            }
+            JoinInput input = inputs.get(Integer.numberOfTrailingZeros(argInputs));
+            ILogicalExpression arg = args.get(i).getValue();
+            Column column = arg.getExpressionTag() == LogicalExpressionTag.VARIABLE
+                    ? input.columns.get(((VariableReferenceExpression) arg).getVariableReference()) : null;
+            long columnDistinctValues = column == null ? -1 : column.statistics.getDistinctValues(column.field);
+            distinctValues[i] = columnDistinctValues > 0 ? columnDistinctValues : input.baseCardinality;
+        }
+        predicate.selectivity = 1 / Math.max(Math.max(distinctValues[0], distinctValues[1]), 1);
+        predicate.equiJoin = true;
+        return predicate;
+    }
+
+    private static int inputsOf(Set<LogicalVariable> vars, List<JoinInput> inputs) {
+        int mask = 0;
+        for (int i = 0; i < inputs.size(); i++) {
+            for (LogicalVariable var : vars) {
+                if (inputs.get(i).liveVars.contains(var)) {
+                    mask |= 1 << i;
+                    break;
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the joins of the plan. Every predicate is evaluated by the lowest join having all its inputs, the
+     * predicates using no input by the root join.
+     */
+    private ILogicalOperator buildJoins(JoinEnumerator.Plan plan, List<JoinInput> inputs,
+            List<JoinPredicate> predicates, ILogicalOperator originalJoin, boolean root, IOptimizationContext context)
+            throws AlgebricksException {
+        if (plan.isLeaf()) {
+            return inputs.get(plan.getInput()).op;
+        }
+        ILogicalOperator left = buildJoins(plan.getLeft(), inputs, predicates, originalJoin, false, context);
+        ILogicalOperator right = buildJoins(plan.getRight(), inputs, predicates, originalJoin, false, context);
+        List<Mutable<ILogicalExpression>> joinConjuncts = new ArrayList<>();
+        boolean broadcast = plan.isBroadcast();
+        for (JoinPredicate predicate : predicates) {
+            boolean place = predicate.inputs == 0 ? root : (predicate.inputs & plan.getInputs()) == predicate.inputs;
+            if (predicate.placed || !place) {
+                continue;
+            }
+            if (broadcast && predicate.equiJoin) {
+                ((AbstractFunctionCallExpression) predicate.expr)
+                        .putAnnotation(new BroadcastExpressionAnnotation(BroadcastSide.RIGHT));
+                broadcast = false;
+            }
+            joinConjuncts.add(new MutableObject<>(predicate.expr));
+            predicate.placed = true;
+        }
+        InnerJoinOperator join = new InnerJoinOperator(new MutableObject<>(and(joinConjuncts)),
+                new MutableObject<>(left), new MutableObject<>(right));
+        join.setSourceLocation(originalJoin.getSourceLocation());
+        context.computeAndSetTypeEnvironmentForOperator(join);
+        context.addToDontApplySet(this, join);
+        return join;
+    }
+
+    private static ILogicalExpression and(List<Mutable<ILogicalExpression>> conjuncts) {
+        if (conjuncts.isEmpty()) {
+            return ConstantExpression.TRUE;
+        }
+        if (conjuncts.size() == 1) {
+            return conjuncts.get(0).getValue();
+        }
+        return new ScalarFunctionCallExpression(BuiltinFunctions.getBuiltinFunctionInfo(BuiltinFunctions.AND),
+                conjuncts);
+    }
+
+    private static class JoinInput {
+        private final Set<LogicalVariable> liveVars = new HashSet<>();
+        private final Map<LogicalVariable, Column> columns = new HashMap<>();
+        private ILogicalOperator op;
+        private double baseCardinality;
+        private double cardinality;
+        private double tupleSize;
+    }
+
+    private static class Column {
+        private final IndexStatistics statistics;
+        private final int field;
+
+        private Column(IndexStatistics statistics, int field) {
+            this.statistics = statistics;
+            this.field = field;
+        }
+    }
+
+    private static class FieldPath {
+        private final List<String> names;
+        private final ARecordType type;
+
+        private FieldPath(List<String> names, ARecordType type) {
+            this.names = names;
+            this.type = type;
+        }
+    }
+
+    private static class JoinPredicate {
+        private final ILogicalExpression expr;
+        private int inputs;
+        private double selectivity;
+        private boolean equiJoin;
+        private boolean placed;
+
+        private JoinPredicate(ILogicalExpression expr) {
+            this.expr = expr;
+        }
+    }
+}
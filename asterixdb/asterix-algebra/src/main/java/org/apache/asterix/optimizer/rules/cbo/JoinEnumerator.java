@@ -0,0 +1,246 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Chooses the cheapest bushy join tree over a set of inputs by dynamic programming over the subsets of the inputs.
+ * Each join is an (optionally broadcast) hash join whose right input is the build input. Splits of a subset that are
+ * not connected by a predicate are only considered when the subset has no connected split.
+ * <p>
+ * The cost of a join is the cost of its inputs plus the tuples it probes, builds (weighted) and outputs plus the
+ * tuples it moves over the network: both inputs for a hash partitioned join, the build input once per partition for
+ * a broadcast join. A join is broadcast when this is cheaper and the build input fits in the memory of the join.
+ */
+public class JoinEnumerator {
+    public static final int MAX_INPUTS = 12;
+    private static final double BUILD_COST_FACTOR = 2.0;
+
+    private final double[] cardinalities;
+    private final double[] tupleSizes;
+    private final int numPartitions;
+    private final long joinMemory;
+    private final List<Predicate> predicates = new ArrayList<>();
+
+    /**
+     * @param cardinalities
+     *            the estimated cardinality of every input, after its local predicates
+     * @param tupleSizes
+     *            the estimated size in bytes of the tuples of every input
+     * @param numPartitions
+     *            the number of partitions joins are executed on
+     * @param joinMemory
+     *            the memory budget in bytes of a join in a partition
+     */
+    public JoinEnumerator(double[] cardinalities, double[] tupleSizes, int numPartitions, long joinMemory) {
+        if (cardinalities.length > MAX_INPUTS) {
+            throw new IllegalArgumentException("Too many join inputs: " + cardinalities.length);
+        }
+        this.cardinalities = cardinalities;
+        this.tupleSizes = tupleSizes;
+        this.numPartitions = Math.max(numPartitions, 1);
+        this.joinMemory = joinMemory;
+    }
+
+    /**
+     * @param inputs
+     *            the bit set of the inputs whose variables the predicate uses
+     * @param selectivity
+     *            the estimated fraction of the tuples of the cross product of the inputs that satisfy the predicate
+     * @param equiJoin
+     *            whether the predicate can be evaluated by a hash join
+     */
+    public void addPredicate(int inputs, double selectivity, boolean equiJoin) {
+        predicates.add(new Predicate(inputs, selectivity, equiJoin));
+    }
+
+    public Plan enumerate() {
+        int n = cardinalities.length;
+        int all = (1 << n) - 1;
+        Plan[] best = new Plan[all + 1];
+        for (int i = 0; i < n; i++) {
+            best[1 << i] = new Plan(1 << i, cardinalities[i], tupleSizes[i]);
+        }
+        for (int size = 2; size <= n; size++) {
+            for (int set = 1; set <= all; set++) {
+                if (Integer.bitCount(set) != size) {
+                    continue;
+                }
+                double cardinality = estimateCardinality(set);
+                Plan plan = enumerateSplits(best, set, cardinality, true);
+                best[set] = plan != null ? plan : enumerateSplits(best, set, cardinality, false);
+            }
+        }
+        return best[all];
+    }
+
+    private Plan enumerateSplits(Plan[] best, int set, double cardinality, boolean connectedOnly) {
+        Plan bestPlan = null;
+        for (int left = (set - 1) & set; left > 0; left = (left - 1) & set) {
+            int right = set ^ left;
+            boolean connected = false;
+            boolean equiJoin = false;
+            for (Predicate predicate : predicates) {
+                if ((predicate.inputs & set) == predicate.inputs && (predicate.inputs & left) != 0
+                        && (predicate.inputs & right) != 0) {
+                    connected = true;
+                    equiJoin |= predicate.equiJoin;
+                }
+            }
+            if (connectedOnly && !connected) {
+                continue;
+            }
+            Plan plan = join(best[left], best[right], cardinality, equiJoin);
+            if (bestPlan == null || plan.cost < bestPlan.cost) {
+                bestPlan = plan;
+            }
+        }
+        return bestPlan;
+    }
+
+    private Plan join(Plan probe, Plan build, double cardinality, boolean equiJoin) {
+        double inputCost = probe.cost + build.cost;
+        double broadcastCost = build.cardinality * numPartitions;
+        if (!equiJoin) {
+            // a nested loop join always broadcasts its right input
+            double cost = inputCost + probe.cardinality * build.cardinality + broadcastCost + cardinality;
+            return new Plan(probe, build, cardinality, cost, false);
+        }
+        double localCost = probe.cardinality + BUILD_COST_FACTOR * build.cardinality + cardinality;
+        double partitionCost = probe.cardinality + build.cardinality;
+        boolean broadcast =
+                broadcastCost < partitionCost && build.cardinality * build.tupleSize <= joinMemory;
+        double cost = inputCost + localCost + (broadcast ? broadcastCost : partitionCost);
+        return new Plan(probe, build, cardinality, cost, broadcast);
+    }
+
+    private double estimateCardinality(int set) {
+        double cardinality = 1;
+        for (int i = 0; i < cardinalities.length; i++) {
+            if ((set & (1 << i)) != 0) {
+                cardinality *= cardinalities[i];
+            }
+        }
+        for (Predicate predicate : predicates) {
+            if (predicate.inputs != 0 && (predicate.inputs & set) == predicate.inputs) {
+                cardinality *= predicate.selectivity;
+            }
+        }
+        return Math.max(cardinality, 1);
+    }
+
+    private static class Predicate {
+        private final int inputs;
+        private final double selectivity;
+        private final boolean equiJoin;
+
+        private Predicate(int inputs, double selectivity, boolean equiJoin) {
+            this.inputs = inputs;
+            this.selectivity = selectivity;
+            this.equiJoin = equiJoin;
+        }
+    }
+
+    /**
+     * A join tree over the subset of the inputs given by {@link #getInputs()}. A leaf plan is a single input.
+     */
+    public static class Plan {
+        private final int inputs;
+        private final double cardinality;
+        private final double tupleSize;
+        private final double cost;
+        private final Plan left;
+        private final Plan right;
+        private final boolean broadcast;
+
+        private Plan(int input, double cardinality, double tupleSize) {
+            this.inputs = input;
+            this.cardinality = cardinality;
+            this.tupleSize = tupleSize;
+            this.cost = 0;
+            this.left = null;
+            this.right = null;
+            this.broadcast = false;
+        }
+
+        private Plan(Plan left, Plan right, double cardinality, double cost, boolean broadcast) {
+            this.inputs = left.inputs | right.inputs;
+            this.cardinality = cardinality;
+            this.tupleSize = left.tupleSize + right.tupleSize;
+            this.cost = cost;
+            this.left = left;
+            this.right = right;
+            this.broadcast = broadcast;
+        }
+
+        public boolean isLeaf() {
+            return left == null;
+        }
+
+        public int getInputs() {
+            return inputs;
+        }
+
+        /**
+         * @return the position of the input of a leaf plan
+         */
+        public int getInput() {
+            return Integer.numberOfTrailingZeros(inputs);
+        }
+
+        public double getCardinality() {
+            return cardinality;
+        }
+
+        public double getCost() {
+            return cost;
+        }
+
+        /**
+         * @return the probe input of the join
+         */
+        public Plan getLeft() {
+            return left;
+        }
+
+        /**
+         * @return the build input of the join
+         */
+        public Plan getRight() {
+            return right;
+        }
+
+        /**
+         * @return whether the build input of the join should be broadcast
+         */
+        public boolean isBroadcast() {
+            return broadcast;
+        }
+
+        @Override
+        public String toString() {
+            if (isLeaf()) {
+                return String.valueOf(getInput());
+            }
+            return "(" + left + (broadcast ? " *B " : " * ") + right + ")";
+        }
+    }
+}
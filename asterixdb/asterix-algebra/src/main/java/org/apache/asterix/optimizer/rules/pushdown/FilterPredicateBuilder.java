@@ -0,0 +1,393 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.pushdown;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADate;
+import org.apache.asterix.om.base.ADateTime;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AFloat;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IACollection;
+import org.apache.asterix.om.base.IACursor;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.constants.AsterixConstantValue;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.utils.ConstantExpressionUtil;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate.Kind;
+import org.apache.commons.lang3.mutable.Mutable;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalExpression;
+import org.apache.hyracks.algebricks.core.algebra.base.ILogicalOperator;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalExpressionTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalOperatorTag;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.ConstantExpression;
+import org.apache.hyracks.algebricks.core.algebra.expressions.IAlgebricksConstantValue;
+import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.AssignOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.DataSourceScanOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.logical.UnnestOperator;
+
+/**
+ * This class translates the conditions that filter the records of an external dataset into an
+ * {@link ExternalFilterPredicate}, which the dataset's reader can use to skip data (e.g., Parquet row groups).
+ * Example:
+ * select (and(ge($$d, datetime("2021-01-01T00:00:00")), lt($$d, datetime("2021-02-01T00:00:00"))))
+ * assign [$$d] <- [$$r.getField("created")]
+ * data-scan []<-[$$r] <- ParquetDataverse.ParquetDataset
+ * <p>
+ * The filter is and(ge(created, 1609459200000), lt(created, 1612137600000)). A condition is only considered if the
+ * operators between it and the data-scan do not change the scanned records (i.e., SELECT, ASSIGN, PROJECT and
+ * EXCHANGE). Also, the conditions are not removed from the plan.
+ */
+class FilterPredicateBuilder {
+    private static final Map<FunctionIdentifier, Kind> COMPARISONS = createComparisons();
+    //Variables that are assigned to a value of a field. The record variables are assigned to their own (empty) paths
+    private final Map<LogicalVariable, FieldPath> varToPath;
+    //Collected filters of each record variable
+    private final Map<LogicalVariable, List<ExternalFilterPredicate>> filters;
+
+    FilterPredicateBuilder() {
+        varToPath = new HashMap<>();
+        filters = new HashMap<>();
+    }
+
+    public void registerDataset(LogicalVariable recordVar) {
+        varToPath.put(recordVar, new FieldPath(recordVar, Collections.emptyList()));
+        filters.put(recordVar, new ArrayList<>());
+    }
+
+    public void registerAssign(AssignOperator op) {
+        List<LogicalVariable> variables = op.getVariables();
+        List<Mutable<ILogicalExpression>> expressions = op.getExpressions();
+        for (int i = 0; i < variables.size(); i++) {
+            FieldPath path = getPath(expressions.get(i).getValue());
+            if (path != null) {
+                varToPath.put(variables.get(i), path);
+            }
+        }
+    }
+
+    /**
+     * Add the pushable parts of a SELECT's condition
+     *
+     * @param condition the select condition
+     * @param input     the SELECT's input operator
+     */
+    public void addSelectCondition(ILogicalExpression condition, ILogicalOperator input) {
+        LogicalVariable recordVar = getScannedRecordVariable(input);
+        if (recordVar != null) {
+            addFilter(recordVar, translate(condition, recordVar));
+        }
+    }
+
+    /**
+     * Add the pushable parts of an inner join's condition. Disjunctions of equalities (and IN predicates) on constants
+     * are rewritten as joins with the unnested constants. Those joins are as selective as the disjunctions.
+     *
+     * @param condition the join's condition
+     * @param left      the join's left input
+     * @param right     the join's right input
+     */
+    public void addJoinCondition(ILogicalExpression condition, ILogicalOperator left, ILogicalOperator right) {
+        addJoinCondition(condition, getScannedRecordVariable(left), right);
+        addJoinCondition(condition, getScannedRecordVariable(right), left);
+    }
+
+    public ExternalFilterPredicate createFilterPredicate(LogicalVariable recordVar) {
+        List<ExternalFilterPredicate> recordFilters = filters.get(recordVar);
+        if (recordFilters == null || recordFilters.isEmpty()) {
+            return null;
+        }
+        return ExternalFilterPredicate.and(recordFilters);
+    }
+
+    private void addJoinCondition(ILogicalExpression condition, LogicalVariable recordVar,
+            ILogicalOperator otherInput) {
+        if (recordVar == null) {
+            return;
+        }
+        for (ILogicalExpression conjunct : getConjuncts(condition)) {
+            AbstractFunctionCallExpression funcExpr = asFunctionCall(conjunct, BuiltinFunctions.EQ);
+            if (funcExpr == null) {
+                continue;
+            }
+            ILogicalExpression left = funcExpr.getArguments().get(0).getValue();
+            ILogicalExpression right = funcExpr.getArguments().get(1).getValue();
+            List<String> path = getPath(left, recordVar);
+            IACollection constants = getUnnestedConstants(right, otherInput);
+            if (path == null) {
+                path = getPath(right, recordVar);
+                constants = getUnnestedConstants(left, otherInput);
+            }
+            if (path != null && constants != null) {
+                addFilter(recordVar, createIn(path, constants));
+            }
+        }
+    }
+
+    private void addFilter(LogicalVariable recordVar, ExternalFilterPredicate predicate) {
+        if (predicate != null) {
+            filters.get(recordVar).add(predicate);
+        }
+    }
+
+    private ExternalFilterPredicate translate(ILogicalExpression expr, LogicalVariable recordVar) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression funcExpr = (AbstractFunctionCallExpression) expr;
+        FunctionIdentifier fid = funcExpr.getFunctionIdentifier();
+        List<Mutable<ILogicalExpression>> args = funcExpr.getArguments();
+        if (BuiltinFunctions.AND.equals(fid) || BuiltinFunctions.OR.equals(fid)) {
+            boolean isAnd = BuiltinFunctions.AND.equals(fid);
+            List<ExternalFilterPredicate> children = new ArrayList<>();
+            for (Mutable<ILogicalExpression> arg : args) {
+                ExternalFilterPredicate child = translate(arg.getValue(), recordVar);
+                if (child != null) {
+                    children.add(child);
+                } else if (!isAnd) {
+                    //A disjunct cannot be pushed: the disjunction cannot be pushed either
+                    return null;
+                }
+            }
+            if (children.isEmpty()) {
+                return null;
+            }
+            return isAnd ? ExternalFilterPredicate.and(children) : ExternalFilterPredicate.or(children);
+        } else if (BuiltinFunctions.IS_NULL.equals(fid) || BuiltinFunctions.IS_MISSING.equals(fid)
+                || BuiltinFunctions.IS_UNKNOWN.equals(fid)) {
+            //A value is either NULL or MISSING if it is unknown
+            List<String> path = getPath(args.get(0).getValue(), recordVar);
+            return path == null ? null : ExternalFilterPredicate.isUnknown(path, false);
+        } else if (BuiltinFunctions.NOT.equals(fid)) {
+            //A value is neither NULL nor MISSING if it is known
+            AbstractFunctionCallExpression argExpr =
+                    asFunctionCall(args.get(0).getValue(), BuiltinFunctions.IS_UNKNOWN);
+            List<String> path = argExpr == null ? null : getPath(argExpr.getArguments().get(0).getValue(), recordVar);
+            return path == null ? null : ExternalFilterPredicate.isUnknown(path, true);
+        } else if (COMPARISONS.containsKey(fid)) {
+            Kind kind = COMPARISONS.get(fid);
+            ILogicalExpression left = args.get(0).getValue();
+            ILogicalExpression right = args.get(1).getValue();
+            List<String> path = getPath(left, recordVar);
+            IAObject constant = getConstant(right);
+            if (path == null) {
+                //The constant could be on the left side (e.g., 5 < $$x)
+                kind = ExternalFilterPredicate.flip(kind);
+                path = getPath(right, recordVar);
+                constant = getConstant(left);
+            }
+            return path == null || constant == null ? null : createComparison(kind, path, constant);
+        }
+        return null;
+    }
+
+    private static ExternalFilterPredicate createIn(List<String> path, IACollection constants) {
+        List<ExternalFilterPredicate> equalities = new ArrayList<>();
+        IACursor cursor = constants.getCursor();
+        while (cursor.next()) {
+            ExternalFilterPredicate equality = createComparison(Kind.EQ, path, cursor.get());
+            if (equality == null) {
+                return null;
+            }
+            equalities.add(equality);
+        }
+        return equalities.isEmpty() ? null : ExternalFilterPredicate.or(equalities);
+    }
+
+    private static ExternalFilterPredicate createComparison(Kind kind, List<String> path, IAObject constant) {
+        ATypeTag typeTag = constant.getType().getTypeTag();
+        Serializable value;
+        switch (typeTag) {
+            case TINYINT:
+                value = (long) ((AInt8) constant).getByteValue();
+                typeTag = ATypeTag.BIGINT;
+                break;
+            case SMALLINT:
+                value = (long) ((AInt16) constant).getShortValue();
+                typeTag = ATypeTag.BIGINT;
+                break;
+            case INTEGER:
+                value = (long) ((AInt32) constant).getIntegerValue();
+                typeTag = ATypeTag.BIGINT;
+                break;
+            case BIGINT:
+                value = ((AInt64) constant).getLongValue();
+                break;
+            case FLOAT:
+                value = (double) ((AFloat) constant).getFloatValue();
+                typeTag = ATypeTag.DOUBLE;
+                break;
+            case DOUBLE:
+                value = ((ADouble) constant).getDoubleValue();
+                break;
+            case STRING:
+                value = ((AString) constant).getStringValue();
+                break;
+            case BOOLEAN:
+                value = ((ABoolean) constant).getBoolean();
+                break;
+            case DATE:
+                value = ((ADate) constant).getChrononTimeInDays();
+                break;
+            case DATETIME:
+                value = ((ADateTime) constant).getChrononTime();
+                break;
+            default:
+                return null;
+        }
+        return ExternalFilterPredicate.compare(kind, path, typeTag, value);
+    }
+
+    /**
+     * @return the record variable of the data-scan that produces the input's records (if any)
+     */
+    private LogicalVariable getScannedRecordVariable(ILogicalOperator input) {
+        ILogicalOperator op = input;
+        while (op.getOperatorTag() == LogicalOperatorTag.SELECT || op.getOperatorTag() == LogicalOperatorTag.ASSIGN
+                || op.getOperatorTag() == LogicalOperatorTag.PROJECT
+                || op.getOperatorTag() == LogicalOperatorTag.EXCHANGE) {
+            op = op.getInputs().get(0).getValue();
+        }
+        if (op.getOperatorTag() != LogicalOperatorTag.DATASOURCESCAN) {
+            return null;
+        }
+        for (LogicalVariable variable : ((DataSourceScanOperator) op).getVariables()) {
+            if (filters.containsKey(variable)) {
+                return variable;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return the constants of the list if the variable is produced by unnesting a constant list in the input
+     */
+    private static IACollection getUnnestedConstants(ILogicalExpression expr, ILogicalOperator input) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.VARIABLE) {
+            return null;
+        }
+        ILogicalOperator op = input;
+        while (op.getOperatorTag() == LogicalOperatorTag.EXCHANGE
+                || op.getOperatorTag() == LogicalOperatorTag.PROJECT) {
+            op = op.getInputs().get(0).getValue();
+        }
+        if (op.getOperatorTag() != LogicalOperatorTag.UNNEST) {
+            return null;
+        }
+        UnnestOperator unnest = (UnnestOperator) op;
+        if (!unnest.getVariable().equals(((VariableReferenceExpression) expr).getVariableReference())
+                || unnest.getPositionalVariable() != null) {
+            return null;
+        }
+        AbstractFunctionCallExpression unnestExpr =
+                asFunctionCall(unnest.getExpressionRef().getValue(), BuiltinFunctions.SCAN_COLLECTION);
+        IAObject list = unnestExpr == null ? null : getConstant(unnestExpr.getArguments().get(0).getValue());
+        return list instanceof IACollection ? (IACollection) list : null;
+    }
+
+    private List<String> getPath(ILogicalExpression expr, LogicalVariable recordVar) {
+        FieldPath path = getPath(expr);
+        return path != null && path.recordVar.equals(recordVar) && !path.fieldNames.isEmpty() ? path.fieldNames
+                : null;
+    }
+
+    private FieldPath getPath(ILogicalExpression expr) {
+        if (expr.getExpressionTag() == LogicalExpressionTag.VARIABLE) {
+            return varToPath.get(((VariableReferenceExpression) expr).getVariableReference());
+        }
+        AbstractFunctionCallExpression funcExpr = asFunctionCall(expr, BuiltinFunctions.FIELD_ACCESS_BY_NAME);
+        if (funcExpr == null) {
+            return null;
+        }
+        FieldPath parent = getPath(funcExpr.getArguments().get(0).getValue());
+        String fieldName = ConstantExpressionUtil.getStringArgument(funcExpr, 1);
+        if (parent == null || fieldName == null) {
+            return null;
+        }
+        List<String> fieldNames = new ArrayList<>(parent.fieldNames);
+        fieldNames.add(fieldName);
+        return new FieldPath(parent.recordVar, fieldNames);
+    }
+
+    private static IAObject getConstant(ILogicalExpression expr) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.CONSTANT) {
+            return null;
+        }
+        IAlgebricksConstantValue value = ((ConstantExpression) expr).getValue();
+        return value instanceof AsterixConstantValue ? ((AsterixConstantValue) value).getObject() : null;
+    }
+
+    private static AbstractFunctionCallExpression asFunctionCall(ILogicalExpression expr, FunctionIdentifier fid) {
+        if (expr.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL
+                || !fid.equals(((AbstractFunctionCallExpression) expr).getFunctionIdentifier())) {
+            return null;
+        }
+        return (AbstractFunctionCallExpression) expr;
+    }
+
+    private static List<ILogicalExpression> getConjuncts(ILogicalExpression condition) {
+        AbstractFunctionCallExpression andExpr = asFunctionCall(condition, BuiltinFunctions.AND);
+        if (andExpr == null) {
+            return Collections.singletonList(condition);
+        }
+        List<ILogicalExpression> conjuncts = new ArrayList<>();
+        for (Mutable<ILogicalExpression> arg : andExpr.getArguments()) {
+            conjuncts.add(arg.getValue());
+        }
+        return conjuncts;
+    }
+
+    private static Map<FunctionIdentifier, Kind> createComparisons() {
+        Map<FunctionIdentifier, Kind> comparisons = new HashMap<>();
+        comparisons.put(BuiltinFunctions.EQ, Kind.EQ);
+        comparisons.put(BuiltinFunctions.NEQ, Kind.NEQ);
+        comparisons.put(BuiltinFunctions.LT, Kind.LT);
+        comparisons.put(BuiltinFunctions.LE, Kind.LE);
+        comparisons.put(BuiltinFunctions.GT, Kind.GT);
+        comparisons.put(BuiltinFunctions.GE, Kind.GE);
+        return comparisons;
+    }
+
+    private static class FieldPath {
+        private final LogicalVariable recordVar;
+        private final List<String> fieldNames;
+
+        FieldPath(LogicalVariable recordVar, List<String> fieldNames) {
+            this.recordVar = recordVar;
+            this.fieldNames = fieldNames;
+        }
+    }
+}
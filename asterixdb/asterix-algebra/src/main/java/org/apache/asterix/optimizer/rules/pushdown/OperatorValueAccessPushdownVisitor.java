@@ -34,6 +34,7 @@ import org.apache.asterix.metadata.declared.DatasetDataSource;
 import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.metadata.entities.Dataset;
 import org.apache.asterix.metadata.entities.ExternalDatasetDetails;
+import org.apache.asterix.metadata.utils.DatasetUtil;
 import org.apache.asterix.om.base.AGeometry;
 import org.apache.asterix.om.base.IAObject;
 import org.apache.asterix.om.constants.AsterixConstantValue;
@@ -108,6 +109,8 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
     private final ExpectedSchemaBuilder builder;
     //To visit every expression in each operator
     private final ExpressionValueAccessPushdownVisitor pushdownVisitor;
+    //Filters of the datasets that allow filter pushdowns
+    private final FilterPredicateBuilder filterPredicateBuilder;
     //Datasets that allow pushdowns
     private final Map<LogicalVariable, DataSourceScanOperator> registeredDatasets;
     //visitedOperators so we do not visit the same operator twice (in case of REPLICATE)
@@ -124,6 +127,7 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         builder = new ExpectedSchemaBuilder();
         registeredDatasets = new HashMap<>();
         pushdownVisitor = new ExpressionValueAccessPushdownVisitor(builder);
+        filterPredicateBuilder = new FilterPredicateBuilder();
         visitedOperators = new HashSet<>();
         hasFilterPushdown = false;
 
@@ -132,8 +136,9 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
     public void finish() throws AlgebricksException {
         for (Map.Entry<LogicalVariable, DataSourceScanOperator> scan : registeredDatasets.entrySet()) {
             scan.getValue().setProjectionInfo(builder.createProjectionInfo(scan.getKey()));
+            DataProjectionInfo projectionInfo = (DataProjectionInfo) scan.getValue().getProjectionInfo();
+            projectionInfo.setFilterPredicate(filterPredicateBuilder.createFilterPredicate(scan.getKey()));
             if (hasFilterPushdown) {
-                DataProjectionInfo projectionInfo = (DataProjectionInfo) scan.getValue().getProjectionInfo();
                 projectionInfo.setFilterMBR(xMin, yMin, xMax, yMax);
             }
         }
@@ -195,6 +200,9 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
                  */
                 builder.registerDataset(recordVar, RootExpectedSchemaNode.ALL_FIELDS_ROOT_NODE);
                 registeredDatasets.put(recordVar, op);
+                if (supportsFilterPushdown(datasetDataSource.getDataset())) {
+                    filterPredicateBuilder.registerDataset(recordVar);
+                }
             }
         }
         return null;
@@ -236,8 +244,9 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         String datasetName = dataSource.getId().getDatasourceName();
         Dataset dataset = mp.findDataset(dataverse, datasetName);
 
-        //Only external dataset can have pushed down expressions
-        if (dataset == null || dataset.getDatasetType() == DatasetConfig.DatasetType.INTERNAL
+        //Only external and columnar datasets can have pushed down expressions
+        if (dataset == null
+                || dataset.getDatasetType() == DatasetConfig.DatasetType.INTERNAL && !DatasetUtil.isColumnar(dataset)
                 || dataset.getDatasetType() == DatasetConfig.DatasetType.EXTERNAL && !ExternalDataUtils
                         .supportsPushdown(((ExternalDatasetDetails) dataset.getDatasetDetails()).getProperties())) {
             return null;
@@ -269,6 +278,18 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
         }
     }
 
+    /**
+     * Only Parquet readers and partitioned datasets can use the pushed down filters to skip data
+     * (see {@link FilterPredicateBuilder})
+     */
+    private static boolean supportsFilterPushdown(Dataset dataset) {
+        if (dataset.getDatasetType() != DatasetConfig.DatasetType.EXTERNAL) {
+            return false;
+        }
+        Map<String, String> properties = ((ExternalDatasetDetails) dataset.getDatasetDetails()).getProperties();
+        return ExternalDataUtils.isParquetFormat(properties) || ExternalDataUtils.isHivePartitioned(properties);
+    }
+
     private boolean isCountConstant(List<Mutable<ILogicalExpression>> expressions) {
         if (expressions.size() != 1) {
             return false;
@@ -300,12 +321,17 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
     @Override
     public Void visitAssignOperator(AssignOperator op, Void arg) throws AlgebricksException {
         visitInputs(op, op.getVariables());
+        filterPredicateBuilder.registerAssign(op);
         return null;
     }
 
     @Override
     public Void visitSelectOperator(SelectOperator op, Void arg) throws AlgebricksException {
+        boolean visited = visitedOperators.contains(op);
         visitInputs(op);
+        if (!visited) {
+            filterPredicateBuilder.addSelectCondition(op.getCondition().getValue(), op.getInputs().get(0).getValue());
+        }
 
         if (isShapeFileFormat()) {
             ArrayList<String> acceptedFunctionNames = new ArrayList<String>(Arrays.asList("st-intersects",
@@ -398,7 +424,12 @@ public class OperatorValueAccessPushdownVisitor implements ILogicalOperatorVisit
 
     @Override
     public Void visitInnerJoinOperator(InnerJoinOperator op, Void arg) throws AlgebricksException {
+        boolean visited = visitedOperators.contains(op);
         visitInputs(op);
+        if (!visited) {
+            filterPredicateBuilder.addJoinCondition(op.getCondition().getValue(), op.getInputs().get(0).getValue(),
+                    op.getInputs().get(1).getValue());
+        }
         return null;
     }
 
@@ -33,6 +33,7 @@ import org.apache.asterix.om.constants.AsterixConstantValue;
 import org.apache.asterix.om.functions.BuiltinFunctions;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.evaluators.common.SpatialGrid;
 import org.apache.asterix.runtime.operators.joins.spatial.utils.ISpatialJoinUtilFactory;
 import org.apache.asterix.runtime.operators.joins.spatial.utils.IntersectSpatialJoinUtilFactory;
 import org.apache.commons.lang3.mutable.Mutable;
@@ -54,6 +55,7 @@ import org.apache.hyracks.algebricks.core.algebra.expressions.IVariableTypeEnvir
 import org.apache.hyracks.algebricks.core.algebra.expressions.ScalarFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.UnnestingFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.core.algebra.functions.IFunctionInfo;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
@@ -80,8 +82,9 @@ import org.apache.hyracks.api.exceptions.SourceLocation;
 
 public class SpatialJoinUtils {
 
-    private static final int DEFAULT_ROWS = 100;
-    private static final int DEFAULT_COLUMNS = 100;
+    // the spatial samples of the inputs are sized for grids of this size
+    private static final int DEFAULT_ROWS = SpatialGrid.DEFAULT_ROWS;
+    private static final int DEFAULT_COLUMNS = SpatialGrid.DEFAULT_COLUMNS;
 
     protected static boolean trySpatialJoinAssignment(AbstractBinaryJoinOperator op, IOptimizationContext context,
             ILogicalExpression joinCondition, int left, int right) throws AlgebricksException {
@@ -274,6 +277,7 @@ public class SpatialJoinUtils {
         List<LogicalVariable> leftGlobalAggResultVars = leftMBRCalculator.second;
         MutableObject<ILogicalOperator> leftExchToJoinOpRef = leftMBRCalculator.third;
         LogicalVariable leftMBRVar = leftGlobalAggResultVars.get(0);
+        LogicalVariable leftSampleVar = leftGlobalAggResultVars.get(1);
 
         // Add a dynamic workflow to compute MBR of the right branch
         Triple<MutableObject<ILogicalOperator>, List<LogicalVariable>, MutableObject<ILogicalOperator>> rightMBRCalculator =
@@ -282,6 +286,7 @@ public class SpatialJoinUtils {
         List<LogicalVariable> rightGlobalAggResultVars = rightMBRCalculator.second;
         MutableObject<ILogicalOperator> rightExchToJoinOpRef = rightMBRCalculator.third;
         LogicalVariable rightMBRVar = rightGlobalAggResultVars.get(0);
+        LogicalVariable rightSampleVar = rightGlobalAggResultVars.get(1);
 
         // Join the left and right union MBR
         Mutable<ILogicalExpression> trueCondition =
@@ -303,7 +308,18 @@ public class SpatialJoinUtils {
                 getIntersectionFuncInputExprs);
         getIntersectionFuncExpr.setSourceLocation(op.getSourceLocation());
 
-        Mutable<ILogicalExpression> intersectionMBRExpr = new MutableObject<>(getIntersectionFuncExpr);
+        // Build a data-driven grid over the intersection rectangle out of the samples of both inputs, so that dense
+        // regions are cut into smaller tiles. The grid is used in place of the intersection MBR from here on.
+        ScalarFunctionCallExpression spatialGridFuncExpr = new ScalarFunctionCallExpression(
+                BuiltinFunctions.getBuiltinFunctionInfo(BuiltinFunctions.SPATIAL_GRID),
+                new MutableObject<>(getIntersectionFuncExpr),
+                new MutableObject<>(new VariableReferenceExpression(leftSampleVar)),
+                new MutableObject<>(new VariableReferenceExpression(rightSampleVar)),
+                new MutableObject<>(new ConstantExpression(new AsterixConstantValue(new AInt64(DEFAULT_ROWS)))),
+                new MutableObject<>(new ConstantExpression(new AsterixConstantValue(new AInt64(DEFAULT_COLUMNS)))));
+        spatialGridFuncExpr.setSourceLocation(op.getSourceLocation());
+
+        Mutable<ILogicalExpression> intersectionMBRExpr = new MutableObject<>(spatialGridFuncExpr);
         LogicalVariable intersectionMBR = context.newVar();
         AbstractLogicalOperator intersectionMBRAssignOperator =
                 new AssignOperator(intersectionMBR, intersectionMBRExpr);
@@ -549,45 +565,52 @@ public class SpatialJoinUtils {
     private static Pair<MutableObject<ILogicalOperator>, List<LogicalVariable>> createLocalAndGlobalAggregateOperators(
             AbstractBinaryJoinOperator op, IOptimizationContext context, LogicalVariable inputVar,
             MutableObject<ILogicalOperator> exchToLocalAggRef) throws AlgebricksException {
-        AbstractLogicalExpression inputVarRef = new VariableReferenceExpression(inputVar, op.getSourceLocation());
-        List<Mutable<ILogicalExpression>> fields = new ArrayList<>(1);
-        fields.add(new MutableObject<>(inputVarRef));
-
-        // Create local aggregate operator
-        IFunctionInfo localAggFunc = context.getMetadataProvider().lookupFunction(BuiltinFunctions.LOCAL_UNION_MBR);
-        AggregateFunctionCallExpression localAggExpr = new AggregateFunctionCallExpression(localAggFunc, false, fields);
-        localAggExpr.setSourceLocation(op.getSourceLocation());
-        localAggExpr.setOpaqueParameters(new Object[] {});
-        List<LogicalVariable> localAggResultVars = new ArrayList<>(1);
-        List<Mutable<ILogicalExpression>> localAggFuncs = new ArrayList<>(1);
-        LogicalVariable localOutVariable = context.newVar();
-        localAggResultVars.add(localOutVariable);
-        localAggFuncs.add(new MutableObject<>(localAggExpr));
+        // Create local aggregate operator computing the MBR and a sample of the input
+        List<LogicalVariable> localAggResultVars = new ArrayList<>(2);
+        List<Mutable<ILogicalExpression>> localAggFuncs = new ArrayList<>(2);
+        for (FunctionIdentifier localAggFuncId : new FunctionIdentifier[] { BuiltinFunctions.LOCAL_UNION_MBR,
+                BuiltinFunctions.LOCAL_SPATIAL_SAMPLE }) {
+            AbstractLogicalExpression inputVarRef = new VariableReferenceExpression(inputVar, op.getSourceLocation());
+            List<Mutable<ILogicalExpression>> fields = new ArrayList<>(1);
+            fields.add(new MutableObject<>(inputVarRef));
+            IFunctionInfo localAggFunc = context.getMetadataProvider().lookupFunction(localAggFuncId);
+            AggregateFunctionCallExpression localAggExpr =
+                    new AggregateFunctionCallExpression(localAggFunc, false, fields);
+            localAggExpr.setSourceLocation(op.getSourceLocation());
+            localAggExpr.setOpaqueParameters(new Object[] {});
+            localAggResultVars.add(context.newVar());
+            localAggFuncs.add(new MutableObject<>(localAggExpr));
+        }
         AggregateOperator localAggOperator = createAggregate(localAggResultVars, false, localAggFuncs,
                 exchToLocalAggRef, context, op.getSourceLocation());
         MutableObject<ILogicalOperator> localAgg = new MutableObject<>(localAggOperator);
 
         // Output of local aggregate operator is the input of global aggregate operator
-        return createGlobalAggregateOperator(op, context, localOutVariable, localAgg);
+        return createGlobalAggregateOperator(op, context, localAggResultVars, localAgg);
     }
 
     private static Pair<MutableObject<ILogicalOperator>, List<LogicalVariable>> createGlobalAggregateOperator(
-            AbstractBinaryJoinOperator op, IOptimizationContext context, LogicalVariable inputVar,
+            AbstractBinaryJoinOperator op, IOptimizationContext context, List<LogicalVariable> inputVars,
             MutableObject<ILogicalOperator> inputOperator) throws AlgebricksException {
-        List<Mutable<ILogicalExpression>> globalAggFuncArgs = new ArrayList<>(1);
-        AbstractLogicalExpression inputVarRef = new VariableReferenceExpression(inputVar, op.getSourceLocation());
-        globalAggFuncArgs.add(new MutableObject<>(inputVarRef));
-        IFunctionInfo globalAggFunc = context.getMetadataProvider().lookupFunction(BuiltinFunctions.GLOBAL_UNION_MBR);
-        AggregateFunctionCallExpression globalAggExpr =
-                new AggregateFunctionCallExpression(globalAggFunc, true, globalAggFuncArgs);
-        globalAggExpr.setStepOneAggregate(globalAggFunc);
-        globalAggExpr.setStepTwoAggregate(globalAggFunc);
-        globalAggExpr.setSourceLocation(op.getSourceLocation());
-        globalAggExpr.setOpaqueParameters(new Object[] {});
-        List<LogicalVariable> globalAggResultVars = new ArrayList<>(1);
-        globalAggResultVars.add(context.newVar());
-        List<Mutable<ILogicalExpression>> globalAggFuncs = new ArrayList<>(1);
-        globalAggFuncs.add(new MutableObject<>(globalAggExpr));
+        FunctionIdentifier[] globalAggFuncIds =
+                { BuiltinFunctions.GLOBAL_UNION_MBR, BuiltinFunctions.GLOBAL_SPATIAL_SAMPLE };
+        List<LogicalVariable> globalAggResultVars = new ArrayList<>(globalAggFuncIds.length);
+        List<Mutable<ILogicalExpression>> globalAggFuncs = new ArrayList<>(globalAggFuncIds.length);
+        for (int i = 0; i < globalAggFuncIds.length; i++) {
+            List<Mutable<ILogicalExpression>> globalAggFuncArgs = new ArrayList<>(1);
+            AbstractLogicalExpression inputVarRef =
+                    new VariableReferenceExpression(inputVars.get(i), op.getSourceLocation());
+            globalAggFuncArgs.add(new MutableObject<>(inputVarRef));
+            IFunctionInfo globalAggFunc = context.getMetadataProvider().lookupFunction(globalAggFuncIds[i]);
+            AggregateFunctionCallExpression globalAggExpr =
+                    new AggregateFunctionCallExpression(globalAggFunc, true, globalAggFuncArgs);
+            globalAggExpr.setStepOneAggregate(globalAggFunc);
+            globalAggExpr.setStepTwoAggregate(globalAggFunc);
+            globalAggExpr.setSourceLocation(op.getSourceLocation());
+            globalAggExpr.setOpaqueParameters(new Object[] {});
+            globalAggResultVars.add(context.newVar());
+            globalAggFuncs.add(new MutableObject<>(globalAggExpr));
+        }
         AggregateOperator globalAggOperator = createAggregate(globalAggResultVars, true, globalAggFuncs, inputOperator,
                 context, op.getSourceLocation());
         globalAggOperator.recomputeSchema();
@@ -60,6 +60,12 @@ import com.fasterxml.jackson.databind.node.ObjectNode;
  */
 public interface IStatementExecutor {
 
+    /**
+     * The statement parameter which assigns the jobs of a request to a class of the job queue, e.g.
+     * {@code SET job_class "reporting";}
+     */
+    String JOB_CLASS_OPTION = "job_class";
+
     /**
      * Specifies result delivery of executed statements
      */
@@ -155,14 +155,25 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
     public static final String REWRITE_IN_AS_OR_OPTION = "rewrite_in_as_or";
     private static final boolean REWRITE_IN_AS_OR_OPTION_DEFAULT = true;
 
+    /**
+     * When set, external variables are not folded into the plan as constants. Each reference is instead translated
+     * into a lookup of the job parameter named after the variable, so the compiled job can be re-run with different
+     * parameter values of the same types. Set internally by the query plan cache.
+     */
+    public static final String BIND_EXTERNAL_VARIABLES_AT_RUNTIME_OPTION =
+            "_internal_bind_external_variables_at_runtime";
+
     private final Map<VarIdentifier, IAObject> externalVars;
     private final boolean translateInAsOr;
+    private final boolean bindExternalVarsAtRuntime;
 
     public SqlppExpressionToPlanTranslator(MetadataProvider metadataProvider, int currentVarCounter,
             Map<VarIdentifier, IAObject> externalVars) throws AlgebricksException {
         super(metadataProvider, currentVarCounter);
         this.externalVars = externalVars != null ? externalVars : Collections.emptyMap();
         translateInAsOr = metadataProvider.getBooleanProperty(REWRITE_IN_AS_OR_OPTION, REWRITE_IN_AS_OR_OPTION_DEFAULT);
+        bindExternalVarsAtRuntime =
+                metadataProvider.getBooleanProperty(BIND_EXTERNAL_VARIABLES_AT_RUNTIME_OPTION, false);
     }
 
     @Override
@@ -717,12 +728,42 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
         if (SqlppVariableUtil.isExternalVariableIdentifier(varId)) {
             SourceLocation sourceLoc = varExpr.getSourceLocation();
             IAObject value = getExternalVariableValue(varId, sourceLoc);
-            return translateConstantValue(value, sourceLoc);
+            return bindExternalVarsAtRuntime ? translateJobParameterValue(varId, value, sourceLoc)
+                    : translateConstantValue(value, sourceLoc);
         }
 
         return super.translateVariableRef(varExpr);
     }
 
+    /**
+     * Translates a reference to an external variable into {@code cast-type(get-job-param(name))}. The cast carries
+     * the type of the value used at compile time so the rest of the plan is typed as if the value was a constant.
+     */
+    private ILogicalExpression translateJobParameterValue(VarIdentifier varId, IAObject value,
+            SourceLocation sourceLoc) throws CompilationException {
+        ConstantExpression nameExpr =
+                new ConstantExpression(new AsterixConstantValue(new AString(getJobParameterName(varId))));
+        nameExpr.setSourceLocation(sourceLoc);
+        ScalarFunctionCallExpression paramExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.GET_JOB_PARAMETER));
+        paramExpr.setSourceLocation(sourceLoc);
+        paramExpr.getArguments().add(new MutableObject<>(nameExpr));
+        ScalarFunctionCallExpression castExpr =
+                new ScalarFunctionCallExpression(FunctionUtil.getFunctionInfo(BuiltinFunctions.CAST_TYPE));
+        castExpr.setSourceLocation(sourceLoc);
+        castExpr.getArguments().add(new MutableObject<>(paramExpr));
+        TypeCastUtils.setRequiredAndInputTypes(castExpr, value.getType(), BuiltinType.ANY);
+        return castExpr;
+    }
+
+    /**
+     * @return the name of the job parameter which carries the value of the given external variable when external
+     *         variables are bound at runtime
+     */
+    public static String getJobParameterName(VarIdentifier varId) {
+        return varId.getValue();
+    }
+
     private IAObject getExternalVariableValue(VarIdentifier varId, SourceLocation sourceLoc)
             throws CompilationException {
         IAObject value = externalVars.get(varId);
@@ -1076,7 +1117,7 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
                 }
                 for (Expression itemExpr : itemExprs) {
                     boolean isConst = itemExpr.getKind() == Kind.LITERAL_EXPRESSION
-                            || (itemExpr.getKind() == Kind.VARIABLE_EXPRESSION
+                            || (itemExpr.getKind() == Kind.VARIABLE_EXPRESSION && !bindExternalVarsAtRuntime
                                     && SqlppVariableUtil.isExternalVariableReference((VariableExpr) itemExpr));
                     if (!isConst) {
                         return false;
@@ -1085,7 +1126,7 @@ public class SqlppExpressionToPlanTranslator extends LangExpressionToPlanTransla
                 return true;
             case VARIABLE_EXPRESSION:
                 VarIdentifier inVarId = ((VariableExpr) inExpr).getVar();
-                if (!SqlppVariableUtil.isExternalVariableIdentifier(inVarId)) {
+                if (bindExternalVarsAtRuntime || !SqlppVariableUtil.isExternalVariableIdentifier(inVarId)) {
                     return false;
                 }
                 IAObject inValue = externalVars.get(inVarId);
@@ -46,8 +46,16 @@ import org.apache.logging.log4j.Logger;
 
 import io.netty.handler.codec.http.HttpResponseStatus;
 
+/**
+ * Returns the result of a query given its handle. If the {@value #PARTITION_PARAMETER} parameter is set, only the
+ * given partition of the result is returned. The number of partitions of the result is returned in the
+ * {@value #RESULT_PARTITIONS_HEADER} header, so that clients can fetch the partitions of a large result concurrently
+ * (e.g. from different nodes).
+ */
 public class QueryResultApiServlet extends AbstractQueryApiServlet {
     private static final Logger LOGGER = LogManager.getLogger();
+    static final String PARTITION_PARAMETER = "partition";
+    static final String RESULT_PARTITIONS_HEADER = "X-Result-Partitions";
 
     public QueryResultApiServlet(ConcurrentMap<String, Object> ctx, IApplicationContext appCtx, String... paths) {
         super(appCtx, ctx, paths);
@@ -63,8 +71,17 @@ public class QueryResultApiServlet extends AbstractQueryApiServlet {
             response.setStatus(HttpResponseStatus.BAD_REQUEST);
             return;
         }
+        final int partition;
+        try {
+            partition = getPartition(request);
+        } catch (NumberFormatException e) {
+            response.setStatus(HttpResponseStatus.BAD_REQUEST);
+            return;
+        }
         IResultSet resultSet = getResultSet();
-        ResultReader resultReader = new ResultReader(resultSet, handle.getJobId(), handle.getResultSetId());
+        ResultReader resultReader = partition < 0
+                ? new ResultReader(resultSet, handle.getJobId(), handle.getResultSetId())
+                : new ResultReader(resultSet, handle.getJobId(), handle.getResultSetId(), partition);
         try {
             ResultJobRecord.Status status = resultReader.getStatus();
 
@@ -86,10 +103,17 @@ public class QueryResultApiServlet extends AbstractQueryApiServlet {
                         break;
                 }
             }
-            response.setStatus(httpStatus);
             if (httpStatus != HttpResponseStatus.OK) {
+                response.setStatus(httpStatus);
                 return;
             }
+            int numPartitions = resultReader.getNumPartitions();
+            if (partition >= numPartitions) {
+                response.setStatus(HttpResponseStatus.BAD_REQUEST);
+                return;
+            }
+            response.setStatus(httpStatus);
+            response.setHeader(RESULT_PARTITIONS_HEADER, numPartitions);
             ResultMetadata metadata = (ResultMetadata) resultReader.getMetadata();
             SessionOutput sessionOutput = initResponse(request, response, metadata.getFormat());
             ResponsePrinter printer = new ResponsePrinter(sessionOutput);
@@ -130,6 +154,18 @@ public class QueryResultApiServlet extends AbstractQueryApiServlet {
         }
     }
 
+    private static int getPartition(IServletRequest request) {
+        String partition = request.getParameter(PARTITION_PARAMETER);
+        if (partition == null) {
+            return -1;
+        }
+        int value = Integer.parseInt(partition);
+        if (value < 0) {
+            throw new NumberFormatException("Negative partition: " + partition);
+        }
+        return value;
+    }
+
     /**
      * Initialize the Content-Type of the response, and construct a
      * SessionConfig with the appropriate output writer and output-format
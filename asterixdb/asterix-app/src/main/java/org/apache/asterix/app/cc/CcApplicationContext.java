@@ -52,10 +52,12 @@ import org.apache.asterix.common.metadata.IMetadataBootstrap;
 import org.apache.asterix.common.metadata.IMetadataLockUtil;
 import org.apache.asterix.common.replication.INcLifecycleCoordinator;
 import org.apache.asterix.common.storage.ICompressionManager;
+import org.apache.asterix.common.storage.IStatisticsManager;
 import org.apache.asterix.common.transactions.IResourceIdManager;
 import org.apache.asterix.common.transactions.ITxnIdFactory;
 import org.apache.asterix.runtime.compression.CompressionManager;
 import org.apache.asterix.runtime.job.listener.NodeJobTracker;
+import org.apache.asterix.runtime.statistics.StatisticsManager;
 import org.apache.asterix.runtime.transaction.ResourceIdManager;
 import org.apache.asterix.runtime.utils.BulkTxnIdFactory;
 import org.apache.asterix.runtime.utils.ClusterStateManager;
@@ -107,6 +109,7 @@ public class CcApplicationContext implements ICcApplicationContext {
     private final INodeJobTracker nodeJobTracker;
     private final ITxnIdFactory txnIdFactory;
     private final ICompressionManager compressionManager;
+    private final IStatisticsManager statisticsManager;
     private final IReceptionist receptionist;
     private final IRequestTracker requestTracker;
     private final IConfigValidator configValidator;
@@ -150,6 +153,7 @@ public class CcApplicationContext implements ICcApplicationContext {
         nodeJobTracker = new NodeJobTracker();
         txnIdFactory = new BulkTxnIdFactory();
         compressionManager = new CompressionManager(storageProperties);
+        statisticsManager = new StatisticsManager();
         receptionist = receptionistFactory.create();
         requestTracker = new RequestTracker(this);
         configValidator = configValidatorFactory.create();
@@ -228,7 +232,7 @@ public class CcApplicationContext implements ICcApplicationContext {
                 if (rs == null) {
                     try {
                         resultSet = rs = ResultReader.createResultSet(getHcc(), ccServiceCtx.getControllerService(),
-                                compilerProperties);
+                                compilerProperties, externalProperties);
                     } catch (Exception e) {
                         throw HyracksDataException.create(e);
                     }
@@ -333,6 +337,11 @@ public class CcApplicationContext implements ICcApplicationContext {
         return compressionManager;
     }
 
+    @Override
+    public IStatisticsManager getStatisticsManager() {
+        return statisticsManager;
+    }
+
     @Override
     public IReceptionist getReceptionist() {
         return receptionist;
@@ -65,6 +65,7 @@ import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.AUnionType;
 import org.apache.asterix.om.types.AUnorderedListType;
 import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.column.ColumnManagerFactory;
 import org.apache.asterix.runtime.compression.CompressionManager;
 import org.apache.asterix.runtime.utils.RuntimeComponentsProvider;
 import org.apache.asterix.transaction.management.opcallbacks.PrimaryIndexOperationTrackerFactory;
@@ -103,6 +104,7 @@ import org.apache.hyracks.data.std.primitive.VarLengthTypeTrait;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.storage.am.common.data.PointablePrimitiveValueProviderFactory;
 import org.apache.hyracks.storage.am.common.freepage.AppendOnlyLinkedMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.dataflow.ColumnLSMBTreeLocalResource;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeLocalResource;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeWithBuddyLocalResource;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.LSMBTreeLocalResource;
@@ -156,6 +158,7 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
         registeredClasses.put("LocalResource", LocalResource.class);
         registeredClasses.put("DatasetLocalResource", DatasetLocalResource.class);
         registeredClasses.put("LSMBTreeLocalResource", LSMBTreeLocalResource.class);
+        registeredClasses.put("ColumnLSMBTreeLocalResource", ColumnLSMBTreeLocalResource.class);
         registeredClasses.put("LSMRTreeLocalResource", LSMRTreeLocalResource.class);
         registeredClasses.put("LSMRTreeWithAntiMatterLocalResource", LSMRTreeWithAntiMatterLocalResource.class);
         registeredClasses.put("LSMInvertedIndexLocalResource", LSMInvertedIndexLocalResource.class);
@@ -200,6 +203,9 @@ public class PersistedResourceRegistry implements IPersistedResourceRegistry {
         registeredClasses.put("AppendOnlyLinkedMetadataPageManagerFactory",
                 AppendOnlyLinkedMetadataPageManagerFactory.class);
 
+        // IColumnManagerFactory
+        registeredClasses.put("ColumnManagerFactory", ColumnManagerFactory.class);
+
         // ILSMIOOperationSchedulerProvider
         registeredClasses.put("AsterixVirtualBufferCacheProvider", AsterixVirtualBufferCacheProvider.class);
 
@@ -56,7 +56,9 @@ import org.apache.asterix.common.replication.IReplicationChannel;
 import org.apache.asterix.common.replication.IReplicationManager;
 import org.apache.asterix.common.replication.IReplicationStrategyFactory;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IIndexStatisticsReporter;
 import org.apache.asterix.common.storage.IReplicaManager;
+import org.apache.asterix.common.storage.StorageIOStats;
 import org.apache.asterix.common.transactions.IRecoveryManager;
 import org.apache.asterix.common.transactions.IRecoveryManager.SystemState;
 import org.apache.asterix.common.transactions.IRecoveryManagerFactory;
@@ -72,6 +74,7 @@ import org.apache.asterix.metadata.api.IMetadataNode;
 import org.apache.asterix.metadata.bootstrap.MetadataBootstrap;
 import org.apache.asterix.replication.management.ReplicationChannel;
 import org.apache.asterix.replication.management.ReplicationManager;
+import org.apache.asterix.runtime.statistics.IndexStatisticsReporter;
 import org.apache.asterix.runtime.transaction.GlobalResourceIdFactoryProvider;
 import org.apache.asterix.runtime.utils.NoOpCoordinationService;
 import org.apache.asterix.transaction.management.resource.PersistentLocalResourceRepository;
@@ -103,6 +106,7 @@ import org.apache.hyracks.storage.common.buffercache.BufferCache;
 import org.apache.hyracks.storage.common.buffercache.ClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
 import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.HotColdClockPageReplacementStrategy;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
 import org.apache.hyracks.storage.common.buffercache.ICacheMemoryAllocator;
 import org.apache.hyracks.storage.common.buffercache.IPageCleanerPolicy;
@@ -120,6 +124,8 @@ import org.apache.logging.log4j.Logger;
 
 public class NCAppRuntimeContext implements INcApplicationContext {
     private static final Logger LOGGER = LogManager.getLogger();
+    // number of pending flushes and merges per partition past the first one at which ingestion is fully throttled
+    private static final int MAX_PENDING_IO_PER_PARTITION = 4;
 
     private ILSMMergePolicyFactory metadataMergePolicyFactory;
     private final INCServiceContext ncServiceContext;
@@ -151,6 +157,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
     private final NCExtensionManager ncExtensionManager;
     private final IStorageComponentProvider componentProvider;
     private final IPersistedResourceRegistry persistedResourceRegistry;
+    private final IIndexStatisticsReporter indexStatisticsReporter;
     private volatile HyracksConnection hcc;
     private volatile ResultSet resultSet;
     private IIndexCheckpointManagerProvider indexCheckpointManagerProvider;
@@ -178,6 +185,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         resourceIdFactory = new GlobalResourceIdFactoryProvider(ncServiceContext).createResourceIdFactory();
         persistedResourceRegistry = ncServiceContext.getPersistedResourceRegistry();
         cacheManager = new CacheManager();
+        indexStatisticsReporter = new IndexStatisticsReporter(ncServiceContext);
     }
 
     @Override
@@ -190,8 +198,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 MaintainedThreadNameExecutorService.newCachedThreadPool(getServiceContext().getThreadFactory());
         ICacheMemoryAllocator allocator = new HeapBufferAllocator();
         IPageCleanerPolicy pcp = new DelayPageCleanerPolicy(600000);
-        IPageReplacementStrategy prs = new ClockPageReplacementStrategy(allocator,
-                storageProperties.getBufferCachePageSize(), storageProperties.getBufferCacheNumPages());
+        IPageReplacementStrategy prs = createPageReplacementStrategy(allocator);
         lsmIOScheduler = createIoScheduler(storageProperties);
         metadataMergePolicyFactory = new ConcurrentMergePolicyFactory();
         indexCheckpointManagerProvider = new IndexCheckpointManagerProvider(ioManager);
@@ -234,7 +241,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         isShuttingdown = false;
         activeManager = new ActiveManager(threadExecutor, getServiceContext().getNodeId(),
                 activeProperties.getMemoryComponentGlobalBudget(), compilerProperties.getFrameSize(),
-                this.ncServiceContext);
+                this.ncServiceContext, this::getStoragePressure);
         receptionist = receptionistFactory.create();
 
         if (replicationProperties.isReplicationEnabled()) {
@@ -553,7 +560,7 @@ public class NCAppRuntimeContext implements INcApplicationContext {
                 if (rs == null) {
                     try {
                         resultSet = rs = ResultReader.createResultSet(getHcc(), ncServiceContext.getControllerService(),
-                                compilerProperties);
+                                compilerProperties, externalProperties);
                     } catch (Exception e) {
                         throw HyracksDataException.create(e);
                     }
@@ -573,6 +580,11 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return indexCheckpointManagerProvider;
     }
 
+    @Override
+    public IIndexStatisticsReporter getIndexStatisticsReporter() {
+        return indexStatisticsReporter;
+    }
+
     @Override
     public ICoordinationService getCoordinationService() {
         return NoOpCoordinationService.INSTANCE;
@@ -608,6 +620,34 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         return configValidator;
     }
 
+    /**
+     * @return how close the storage is to stalling the writers: the usage of the memory components past the flush
+     *         threshold or the backlog of flushes and merges, whichever is higher (from 0 to 1)
+     */
+    private double getStoragePressure() {
+        double threshold = storageProperties.getMemoryComponentFlushThreshold();
+        double usage = (double) virtualBufferCache.getUsage() / virtualBufferCache.getPageBudget();
+        double memoryPressure = threshold < 1.0 ? (usage - threshold) / (1.0 - threshold) : 0.0;
+        StorageIOStats ioStats = datasetLifecycleManager.getDatasetsIOStats();
+        int numPartitions = ioManager.getIODevices().size();
+        int backlog = ioStats.getPendingFlushes() + ioStats.getPendingMerges() - numPartitions;
+        double ioPressure = (double) backlog / (MAX_PENDING_IO_PER_PARTITION * numPartitions);
+        return Math.max(0.0, Math.min(1.0, Math.max(memoryPressure, ioPressure)));
+    }
+
+    private IPageReplacementStrategy createPageReplacementStrategy(ICacheMemoryAllocator allocator) {
+        String policy = storageProperties.getBufferCacheReplacement();
+        int pageSize = storageProperties.getBufferCachePageSize();
+        int numPages = storageProperties.getBufferCacheNumPages();
+        if ("hotcold".equalsIgnoreCase(policy)) {
+            return new HotColdClockPageReplacementStrategy(allocator, pageSize, numPages);
+        }
+        if (!"clock".equalsIgnoreCase(policy) && LOGGER.isWarnEnabled()) {
+            LOGGER.log(Level.WARN, "Unknown buffer cache replacement policy: " + policy + "; defaulting to clock.");
+        }
+        return new ClockPageReplacementStrategy(allocator, pageSize, numPages);
+    }
+
     private ILSMIOOperationScheduler createIoScheduler(StorageProperties properties) {
         String schedulerName = storageProperties.getIoScheduler();
         int numPartitions = ioManager.getIODevices().size();
@@ -615,21 +655,25 @@ public class NCAppRuntimeContext implements INcApplicationContext {
         int maxConcurrentFlushes = storageProperties.geMaxConcurrentFlushes(numPartitions);
         int maxScheduledMerges = storageProperties.getMaxScheduledMerges(numPartitions);
         int maxConcurrentMerges = storageProperties.getMaxConcurrentMerges(numPartitions);
+        int mergeParallelism = storageProperties.getMergeParallelism();
 
         ILSMIOOperationScheduler ioScheduler = null;
         if (AsynchronousScheduler.FACTORY.getName().equalsIgnoreCase(schedulerName)) {
             ioScheduler = AsynchronousScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges);
+                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges,
+                    mergeParallelism);
         } else if (GreedyScheduler.FACTORY.getName().equalsIgnoreCase(schedulerName)) {
             ioScheduler = GreedyScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges);
+                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges,
+                    mergeParallelism);
         } else {
             if (LOGGER.isWarnEnabled()) {
                 LOGGER.log(Level.WARN,
                         "Unknown storage I/O scheduler: " + schedulerName + "; defaulting to greedy I/O scheduler.");
             }
             ioScheduler = GreedyScheduler.FACTORY.createIoScheduler(getServiceContext().getThreadFactory(),
-                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges);
+                    HaltCallback.INSTANCE, maxConcurrentFlushes, maxScheduledMerges, maxConcurrentMerges,
+                    mergeParallelism);
         }
         return ioScheduler;
     }
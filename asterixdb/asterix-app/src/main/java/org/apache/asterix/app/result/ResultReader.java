@@ -19,6 +19,7 @@
 package org.apache.asterix.app.result;
 
 import org.apache.asterix.common.config.CompilerProperties;
+import org.apache.asterix.common.config.ExternalProperties;
 import org.apache.hyracks.api.client.IHyracksClientConnection;
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
@@ -46,6 +47,15 @@ public class ResultReader {
         frameTupleAccessor = new ResultFrameTupleAccessor();
     }
 
+    /**
+     * Creates a reader of a single partition of the result set
+     */
+    public ResultReader(IResultSet resultSet, JobId jobId, ResultSetId resultSetId, int partition)
+            throws HyracksDataException {
+        reader = resultSet.createReader(jobId, resultSetId, partition);
+        frameTupleAccessor = new ResultFrameTupleAccessor();
+    }
+
     public Status getStatus() {
         return reader.getResultStatus();
     }
@@ -62,9 +72,14 @@ public class ResultReader {
         return reader.getResultMetadata();
     }
 
+    public int getNumPartitions() throws HyracksDataException {
+        return reader.getNumPartitions();
+    }
+
     public static ResultSet createResultSet(IHyracksClientConnection hcc, IControllerService srv,
-            CompilerProperties compilerProperties) throws Exception {
+            CompilerProperties compilerProperties, ExternalProperties externalProperties) throws Exception {
         return new ResultSet(hcc, srv.getNetworkSecurityManager().getSocketChannelFactory(),
-                compilerProperties.getFrameSize(), ResultReader.NUM_READERS);
+                compilerProperties.getFrameSize(), ResultReader.NUM_READERS,
+                externalProperties.getResultPrefetchPartitions());
     }
 }
@@ -35,6 +35,7 @@ import org.apache.hyracks.control.common.utils.HyracksThreadFactory;
 public class DefaultStatementExecutorFactory implements IStatementExecutorFactory {
 
     protected final ExecutorService executorService;
+    private volatile QueryPlanCache planCache;
 
     /*
      * @deprecated use other constructor
@@ -52,6 +53,25 @@ public class DefaultStatementExecutorFactory implements IStatementExecutorFactor
     public IStatementExecutor create(ICcApplicationContext appCtx, List<Statement> statements, SessionOutput output,
             ILangCompilationProvider compilationProvider, IStorageComponentProvider storageComponentProvider,
             IResponsePrinter responsePrinter) {
-        return new QueryTranslator(appCtx, statements, output, compilationProvider, executorService, responsePrinter);
+        return new QueryTranslator(appCtx, statements, output, compilationProvider, executorService, responsePrinter,
+                getPlanCache(appCtx));
+    }
+
+    protected QueryPlanCache getPlanCache(ICcApplicationContext appCtx) {
+        int planCacheSize = appCtx.getCompilerProperties().getPlanCacheSize();
+        if (planCacheSize <= 0) {
+            return null;
+        }
+        QueryPlanCache cache = planCache;
+        if (cache == null) {
+            synchronized (this) {
+                cache = planCache;
+                if (cache == null) {
+                    cache = new QueryPlanCache(planCacheSize, id -> appCtx.getHcc().undeployJobSpec(id));
+                    planCache = cache;
+                }
+            }
+        }
+        return cache;
     }
 }
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.translator;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.asterix.common.metadata.IMetadataLock;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * A bounded LRU cache of compiled query plans. Each cached plan is kept deployed to the cluster so a later execution
+ * of the same query text with parameters of the same types only has to start the deployed job with the new parameter
+ * values, skipping rewriting, optimization and job generation.
+ * <p>
+ * A cached plan records the metadata locks that were held while it was compiled together with their versions. A user
+ * of an entry must re-acquire these locks and check {@link Entry#isStale()} before running the plan. An entry is
+ * undeployed only once it has been removed from the cache and all its users have released it.
+ */
+public class QueryPlanCache {
+
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    @FunctionalInterface
+    public interface IUndeployer {
+        void undeploy(DeployedJobSpecId deployedJobSpecId) throws Exception;
+    }
+
+    private final int capacity;
+    private final IUndeployer undeployer;
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long epoch;
+
+    public QueryPlanCache(int capacity, IUndeployer undeployer) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.undeployer = undeployer;
+    }
+
+    /**
+     * @return the current epoch of the cache. The epoch is advanced by {@link #invalidateAll()}; plans compiled
+     *         while the epoch changed are not admitted to the cache.
+     */
+    public synchronized long getEpoch() {
+        return epoch;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Looks up a cached plan. The returned entry must be released with {@link #release(Entry)} once it's no longer
+     * used.
+     *
+     * @return the entry or {@code null} if there is no cached plan for the key
+     */
+    public synchronized Entry acquire(Key key) {
+        Entry entry = entries.get(key);
+        if (entry != null) {
+            entry.refCount++;
+        }
+        return entry;
+    }
+
+    /**
+     * Adds a newly deployed plan to the cache. The returned entry is acquired and must be released with
+     * {@link #release(Entry)} once it's no longer used. If the cache was invalidated since {@code compileEpoch}, the
+     * entry is not cached and its job is undeployed once released.
+     *
+     * @param key
+     *            the key of the query
+     * @param compileEpoch
+     *            the epoch of the cache when compilation of the plan started
+     * @param deployedJobSpecId
+     *            the id of the deployed job
+     * @param jobSpec
+     *            the job that was deployed
+     * @param locks
+     *            the metadata locks held while the plan was compiled. They must still be held.
+     * @return the acquired entry
+     */
+    public Entry add(Key key, long compileEpoch, DeployedJobSpecId deployedJobSpecId, JobSpecification jobSpec,
+            List<IMetadataLock> locks) {
+        Entry entry = new Entry(deployedJobSpecId, jobSpec, locks);
+        entry.refCount = 1;
+        List<Entry> toUndeploy = new ArrayList<>();
+        synchronized (this) {
+            if (compileEpoch != epoch) {
+                entry.evicted = true;
+                return entry;
+            }
+            evict(entries.put(key, entry), toUndeploy);
+            Iterator<Entry> it = entries.values().iterator();
+            while (entries.size() > capacity && it.hasNext()) {
+                Entry eldest = it.next();
+                it.remove();
+                evict(eldest, toUndeploy);
+            }
+        }
+        undeploy(toUndeploy);
+        return entry;
+    }
+
+    /**
+     * Creates an entry for a deployed plan which must not be reused by other queries. The returned entry is acquired
+     * and its job is undeployed once it's released.
+     */
+    public Entry addTransient(DeployedJobSpecId deployedJobSpecId, JobSpecification jobSpec) {
+        Entry entry = new Entry(deployedJobSpecId, jobSpec, Collections.emptyList());
+        entry.refCount = 1;
+        entry.evicted = true;
+        return entry;
+    }
+
+    /**
+     * Releases an entry acquired by {@link #acquire(Key)} or {@link #add}.
+     */
+    public void release(Entry entry) {
+        boolean undeploy;
+        synchronized (this) {
+            entry.refCount--;
+            undeploy = entry.refCount == 0 && entry.evicted;
+        }
+        if (undeploy) {
+            undeploy(entry);
+        }
+    }
+
+    /**
+     * Removes an entry from the cache, e.g. because it became stale. Its job is undeployed once all users have
+     * released it.
+     */
+    public void invalidate(Entry entry) {
+        List<Entry> toUndeploy = new ArrayList<>(1);
+        synchronized (this) {
+            entries.values().removeIf(e -> e == entry);
+            evict(entry, toUndeploy);
+        }
+        undeploy(toUndeploy);
+    }
+
+    /**
+     * Removes all entries from the cache. Used when metadata changes in ways which are not tracked by lock versions.
+     */
+    public void invalidateAll() {
+        List<Entry> toUndeploy = new ArrayList<>();
+        synchronized (this) {
+            epoch++;
+            for (Entry entry : entries.values()) {
+                evict(entry, toUndeploy);
+            }
+            entries.clear();
+        }
+        undeploy(toUndeploy);
+    }
+
+    private static void evict(Entry entry, List<Entry> toUndeploy) {
+        if (entry == null || entry.evicted) {
+            return;
+        }
+        entry.evicted = true;
+        if (entry.refCount == 0) {
+            toUndeploy.add(entry);
+        }
+    }
+
+    private void undeploy(List<Entry> toUndeploy) {
+        for (Entry entry : toUndeploy) {
+            undeploy(entry);
+        }
+    }
+
+    private void undeploy(Entry entry) {
+        try {
+            undeployer.undeploy(entry.deployedJobSpecId);
+        } catch (Exception e) {
+            LOGGER.warn("failed to undeploy cached query plan {}", entry.deployedJobSpecId, e);
+        }
+    }
+
+    /**
+     * Collapses each run of whitespace outside of quoted literals and identifiers into a single space so that
+     * formatting differences do not cause cache misses.
+     */
+    public static String normalize(String statement) {
+        StringBuilder sb = new StringBuilder(statement.length());
+        char quote = 0;
+        boolean pendingSpace = false;
+        for (int i = 0, n = statement.length(); i < n; i++) {
+            char c = statement.charAt(i);
+            if (quote == 0 && Character.isWhitespace(c)) {
+                pendingSpace = sb.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                sb.append(' ');
+                pendingSpace = false;
+            }
+            sb.append(c);
+            if (quote == 0) {
+                if (c == '\'' || c == '"' || c == '`') {
+                    quote = c;
+                }
+            } else if (c == '\\' && i + 1 < n) {
+                sb.append(statement.charAt(++i));
+            } else if (c == quote) {
+                quote = 0;
+            }
+        }
+        return sb.toString();
+    }
+
+    public static final class Key {
+        private final String statement;
+        private final String dataverse;
+        private final Map<String, ATypeTag> parameterTypes;
+        private final List<Object> settings;
+
+        /**
+         * @param statement
+         *            the normalized statement text
+         * @param dataverse
+         *            the active dataverse
+         * @param parameterTypes
+         *            the types of the statement parameters
+         * @param settings
+         *            any other request settings which affect the compiled job
+         */
+        public Key(String statement, String dataverse, Map<String, ATypeTag> parameterTypes, List<Object> settings) {
+            this.statement = statement;
+            this.dataverse = dataverse;
+            this.parameterTypes = parameterTypes;
+            this.settings = settings;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            Key key = (Key) o;
+            return statement.equals(key.statement) && Objects.equals(dataverse, key.dataverse)
+                    && parameterTypes.equals(key.parameterTypes) && settings.equals(key.settings);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(statement, dataverse, parameterTypes, settings);
+        }
+    }
+
+    public static final class Entry {
+        private final DeployedJobSpecId deployedJobSpecId;
+        private final JobSpecification jobSpec;
+        private final List<IMetadataLock> locks;
+        private final long[] versions;
+        // guarded by the cache
+        private int refCount;
+        private boolean evicted;
+
+        private Entry(DeployedJobSpecId deployedJobSpecId, JobSpecification jobSpec, List<IMetadataLock> locks) {
+            this.deployedJobSpecId = deployedJobSpecId;
+            this.jobSpec = jobSpec;
+            this.locks = locks;
+            this.versions = new long[locks.size()];
+            for (int i = 0; i < versions.length; i++) {
+                versions[i] = locks.get(i).getVersion();
+            }
+        }
+
+        public DeployedJobSpecId getDeployedJobSpecId() {
+            return deployedJobSpecId;
+        }
+
+        public JobSpecification getJobSpec() {
+            return jobSpec;
+        }
+
+        /**
+         * @return the metadata locks which need to be held in read mode while the plan is validated and run
+         */
+        public List<IMetadataLock> getLocks() {
+            return locks;
+        }
+
+        /**
+         * @return whether any of the metadata entities the plan depends on were modified since the plan was compiled.
+         *         Must be called while holding the locks returned by {@link #getLocks()}.
+         */
+        public boolean isStale() {
+            for (int i = 0; i < versions.length; i++) {
+                if (locks.get(i).getVersion() != versions[i]) {
+                    return true;
+                }
+            }
+            return false;
+        }
+    }
+}
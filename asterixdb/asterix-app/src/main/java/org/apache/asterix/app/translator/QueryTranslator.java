@@ -28,6 +28,7 @@ import java.io.FileInputStream;
 import java.io.InputStream;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
@@ -90,7 +91,9 @@ import org.apache.asterix.common.functions.ExternalFunctionLanguage;
 import org.apache.asterix.common.functions.FunctionSignature;
 import org.apache.asterix.common.metadata.DatasetFullyQualifiedName;
 import org.apache.asterix.common.metadata.DataverseName;
+import org.apache.asterix.common.metadata.IMetadataLock;
 import org.apache.asterix.common.metadata.IMetadataLockUtil;
+import org.apache.asterix.common.transactions.TxnId;
 import org.apache.asterix.common.utils.JobUtils;
 import org.apache.asterix.common.utils.JobUtils.ProgressState;
 import org.apache.asterix.common.utils.StorageConstants;
@@ -101,6 +104,8 @@ import org.apache.asterix.external.indexing.IndexingConstants;
 import org.apache.asterix.external.operators.FeedIntakeOperatorNodePushable;
 import org.apache.asterix.external.util.ExternalDataConstants;
 import org.apache.asterix.external.util.ExternalDataUtils;
+import org.apache.asterix.external.util.ExternalFileListingCache;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
 import org.apache.asterix.lang.common.base.IQueryRewriter;
 import org.apache.asterix.lang.common.base.IReturningStatement;
 import org.apache.asterix.lang.common.base.IRewriterFactory;
@@ -211,6 +216,7 @@ import org.apache.asterix.runtime.fulltext.AbstractFullTextFilterDescriptor;
 import org.apache.asterix.runtime.fulltext.FullTextConfigDescriptor;
 import org.apache.asterix.runtime.fulltext.IFullTextFilterDescriptor;
 import org.apache.asterix.runtime.fulltext.StopwordsFullTextFilterDescriptor;
+import org.apache.asterix.runtime.job.listener.JobEventListenerFactory;
 import org.apache.asterix.runtime.operators.StreamStats;
 import org.apache.asterix.transaction.management.service.transaction.DatasetIdFactory;
 import org.apache.asterix.translator.AbstractLangTranslator;
@@ -227,6 +233,7 @@ import org.apache.asterix.translator.IStatementExecutor;
 import org.apache.asterix.translator.SchedulableClientRequest;
 import org.apache.asterix.translator.SessionConfig;
 import org.apache.asterix.translator.SessionOutput;
+import org.apache.asterix.translator.SqlppExpressionToPlanTranslator;
 import org.apache.asterix.translator.TypeTranslator;
 import org.apache.asterix.translator.util.ValidateUtil;
 import org.apache.asterix.utils.DataverseUtil;
@@ -246,12 +253,14 @@ import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
 import org.apache.hyracks.algebricks.data.IAWriterFactory;
 import org.apache.hyracks.api.client.IClusterInfoCollector;
 import org.apache.hyracks.api.client.IHyracksClientConnection;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.exceptions.Warning;
 import org.apache.hyracks.api.io.FileSplit;
 import org.apache.hyracks.api.io.UnmanagedFileSplit;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
 import org.apache.hyracks.api.job.JobFlag;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobSpecification;
@@ -260,11 +269,13 @@ import org.apache.hyracks.api.result.IResultSet;
 import org.apache.hyracks.api.result.ResultSetId;
 import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.storage.am.common.dataflow.IndexDropOperatorDescriptor.DropOption;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMMergePolicyFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.TokenizerCategory;
 import org.apache.hyracks.util.LogRedactionUtil;
 import org.apache.hyracks.util.OptionalBoolean;
+import org.apache.hyracks.util.string.UTF8StringUtil;
 import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
@@ -297,10 +308,17 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
     protected final IResponsePrinter responsePrinter;
     protected final WarningCollector warningCollector;
     protected final ReentrantReadWriteLock compilationLock;
+    protected final QueryPlanCache planCache;
 
     public QueryTranslator(ICcApplicationContext appCtx, List<Statement> statements, SessionOutput output,
             ILangCompilationProvider compilationProvider, ExecutorService executorService,
             IResponsePrinter responsePrinter) {
+        this(appCtx, statements, output, compilationProvider, executorService, responsePrinter, null);
+    }
+
+    public QueryTranslator(ICcApplicationContext appCtx, List<Statement> statements, SessionOutput output,
+            ILangCompilationProvider compilationProvider, ExecutorService executorService,
+            IResponsePrinter responsePrinter, QueryPlanCache planCache) {
         this.appCtx = appCtx;
         this.lockManager = appCtx.getMetadataLockManager();
         this.lockUtil = appCtx.getMetadataLockUtil();
@@ -316,6 +334,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         this.responsePrinter = responsePrinter;
         this.warningCollector = new WarningCollector();
         this.compilationLock = appCtx.getCompilationLock();
+        this.planCache = planCache;
         if (appCtx.getServiceContext().getAppConfig().getBoolean(CCConfig.Option.ENFORCE_FRAME_WRITER_PROTOCOL)) {
             this.jobFlags.add(JobFlag.ENFORCE_CONTRACT);
         }
@@ -347,6 +366,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         final ResultMetadata outMetadata = requestParameters.getOutMetadata();
         final Map<String, IAObject> stmtParams = requestParameters.getStatementParameters();
         warningCollector.setMaxWarnings(sessionConfig.getMaxWarnings());
+        boolean metadataChanged = false;
         try {
             for (Statement stmt : statements) {
                 if (sessionConfig.is(SessionConfig.FORMAT_HTML)) {
@@ -360,6 +380,10 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 rewriteStatement(stmt, stmtRewriter, metadataProvider); // Rewrite the statement's AST.
                 Statement.Kind kind = stmt.getKind();
                 statementProperties.setKind(kind);
+                if (planCache != null && invalidatesQueryPlans(stmt)) {
+                    planCache.invalidateAll();
+                    metadataChanged = true;
+                }
                 switch (kind) {
                     case SET:
                         handleSetStatement(stmt, config);
@@ -520,6 +544,10 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 }
             }
         } finally {
+            if (metadataChanged) {
+                // plans compiled while the metadata was being changed might be based on the old metadata
+                planCache.invalidateAll();
+            }
             // async queries are completed after their job completes
             if (ResultDelivery.ASYNC != resultDelivery) {
                 appCtx.getRequestTracker().complete(requestParameters.getRequestReference().getUuid());
@@ -528,6 +556,10 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         }
     }
 
+    protected boolean invalidatesQueryPlans(Statement stmt) {
+        return (stmt.getCategory() & (Statement.Category.DDL | Statement.Category.PROCEDURE)) != 0;
+    }
+
     protected void configureMetadataProvider(MetadataProvider metadataProvider, Map<String, String> config,
             Counter resultSetIdCounter, FileSplit outputFile, IRequestParameters requestParameters,
             Statement statement) {
@@ -1027,6 +1059,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
         ExternalDetailsDecl externalDetails = (ExternalDetailsDecl) dd.getDatasetDetailsDecl();
         Map<String, String> properties = externalDetails.getProperties();
         ExternalDataUtils.validateParquetTypeAndConfiguration(properties, (ARecordType) itemType.getDatatype());
+        ExternalDataUtils.validateHivePartitioningType(properties, (ARecordType) itemType.getDatatype());
         return properties;
     }
 
@@ -4501,12 +4534,19 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
 
     private interface IStatementCompiler {
         JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException;
+
+        default JobId start(IHyracksClientConnection hcc, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+                throws Exception {
+            return JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+        }
     }
 
     protected void handleQuery(MetadataProvider metadataProvider, Query query, IHyracksClientConnection hcc,
             IResultSet resultSet, ResultDelivery resultDelivery, ResultMetadata outMetadata, Stats stats,
             IRequestParameters requestParameters, Map<String, IAObject> stmtParams, IStatementRewriter stmtRewriter)
             throws Exception {
+        final CachedQueryCompiler cachedCompiler =
+                createCachedQueryCompiler(metadataProvider, query, resultDelivery, requestParameters, stmtParams);
         final IMetadataLocker locker = new IMetadataLocker() {
             @Override
             public void lock() {
@@ -4519,6 +4559,9 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 // release external datasets' locks acquired during compilation of the query
                 ExternalDatasetsRegistry.INSTANCE.releaseAcquiredLocks(metadataProvider);
                 compilationLock.readLock().unlock();
+                if (cachedCompiler != null) {
+                    cachedCompiler.release();
+                }
             }
         };
         final IStatementCompiler compiler = () -> {
@@ -4542,8 +4585,162 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
                 throw e;
             }
         };
-        deliverResult(hcc, resultSet, compiler, metadataProvider, locker, resultDelivery, outMetadata, stats,
-                requestParameters, true);
+        if (cachedCompiler != null) {
+            cachedCompiler.setCompiler(compiler);
+        }
+        deliverResult(hcc, resultSet, cachedCompiler != null ? cachedCompiler : compiler, metadataProvider, locker,
+                resultDelivery, outMetadata, stats, requestParameters, true);
+    }
+
+    /**
+     * @return a compiler which goes through the query plan cache, or {@code null} if the query can't use the cache
+     */
+    private CachedQueryCompiler createCachedQueryCompiler(MetadataProvider metadataProvider, Query query,
+            ResultDelivery resultDelivery, IRequestParameters requestParameters, Map<String, IAObject> stmtParams)
+            throws CompilationException {
+        String statementText = requestParameters.getStatement();
+        if (planCache == null || statementText == null || query.isExplain() || isCompileOnly() || !jobFlags.isEmpty()
+                || !isCacheableRequest() || requestParameters.isPrintSignature()
+                || metadataProvider.getProperty("output-record-type") != null) {
+            return null;
+        }
+        Map<VarIdentifier, IAObject> externalVars = createExternalVariables(query, stmtParams);
+        Map<String, ATypeTag> parameterTypes = new HashMap<>();
+        for (Map.Entry<VarIdentifier, IAObject> me : externalVars.entrySet()) {
+            ATypeTag typeTag = me.getValue().getType().getTypeTag();
+            if (typeTag.isDerivedType()) {
+                // the cached plan would be specific to the type of the object or collection
+                return null;
+            }
+            parameterTypes.put(me.getKey().getValue(), typeTag);
+        }
+        List<Object> settings = Arrays.asList(sessionConfig.fmt(), sessionConfig.is(SessionConfig.FORMAT_HTML),
+                sessionConfig.is(SessionConfig.FORMAT_CSV_HEADER), sessionConfig.is(SessionConfig.FORMAT_WRAPPER_ARRAY),
+                sessionConfig.is(SessionConfig.FORMAT_INDENT_JSON), sessionConfig.is(SessionConfig.FORMAT_QUOTE_RECORD),
+                resultDelivery, requestParameters.getResultProperties().getMaxReads(),
+                requestParameters.isSQLCompatMode(), requestParameters.isSkipAdmissionPolicy(),
+                requestParameters.getOptionalParameters());
+        QueryPlanCache.Key key = new QueryPlanCache.Key(QueryPlanCache.normalize(statementText),
+                activeDataverse.getDataverseName().getCanonicalForm(), parameterTypes, settings);
+        return new CachedQueryCompiler(metadataProvider, key, externalVars);
+    }
+
+    private boolean isCacheableRequest() {
+        if (sessionConfig.getClientType() == SessionConfig.ClientType.JDBC
+                || sessionConfig.is(SessionConfig.OOB_EXPR_TREE)
+                || sessionConfig.is(SessionConfig.OOB_REWRITTEN_EXPR_TREE)
+                || sessionConfig.is(SessionConfig.OOB_LOGICAL_PLAN)
+                || sessionConfig.is(SessionConfig.OOB_OPTIMIZED_LOGICAL_PLAN)
+                || sessionConfig.is(SessionConfig.OOB_HYRACKS_JOB)) {
+            return false;
+        }
+        // the statement text is the cache key, so it must not contain anything but the query and its settings
+        int queries = 0;
+        for (Statement stmt : statements) {
+            switch (stmt.getKind()) {
+                case QUERY:
+                    queries++;
+                    break;
+                case SET:
+                case DATAVERSE_DECL:
+                    break;
+                default:
+                    return false;
+            }
+        }
+        return queries == 1;
+    }
+
+    /**
+     * Compiles a query through the query plan cache. On a miss, the query is compiled with its statement parameters
+     * bound at runtime and the job is deployed and cached. On a hit, the deployed job is reused once the metadata it
+     * was compiled against is verified to be unchanged.
+     */
+    private class CachedQueryCompiler implements IStatementCompiler {
+        private final MetadataProvider metadataProvider;
+        private final QueryPlanCache.Key key;
+        private final Map<VarIdentifier, IAObject> externalVars;
+        private IStatementCompiler compiler;
+        private long compileEpoch;
+        private QueryPlanCache.Entry entry;
+
+        private CachedQueryCompiler(MetadataProvider metadataProvider, QueryPlanCache.Key key,
+                Map<VarIdentifier, IAObject> externalVars) {
+            this.metadataProvider = metadataProvider;
+            this.key = key;
+            this.externalVars = externalVars;
+        }
+
+        private void setCompiler(IStatementCompiler compiler) {
+            this.compiler = compiler;
+        }
+
+        @Override
+        public JobSpecification compile() throws AlgebricksException, RemoteException, ACIDException {
+            entry = planCache.acquire(key);
+            if (entry != null) {
+                for (IMetadataLock lock : entry.getLocks()) {
+                    metadataProvider.getLocks().add(IMetadataLock.Mode.READ, lock);
+                }
+                if (!entry.isStale()) {
+                    return entry.getJobSpec();
+                }
+                planCache.invalidate(entry);
+                release();
+            }
+            compileEpoch = planCache.getEpoch();
+            metadataProvider.getConfig().put(SqlppExpressionToPlanTranslator.BIND_EXTERNAL_VARIABLES_AT_RUNTIME_OPTION,
+                    Boolean.TRUE.toString());
+            return compiler.compile();
+        }
+
+        @Override
+        public JobId start(IHyracksClientConnection hcc, JobSpecification jobSpec, EnumSet<JobFlag> jobFlags)
+                throws Exception {
+            if (entry == null) {
+                DeployedJobSpecId deployedJobSpecId = hcc.deployJobSpec(jobSpec);
+                Map<String, Integer> externalDataLocks = metadataProvider.getExternalDataLocks();
+                if (externalDataLocks == null || externalDataLocks.isEmpty()) {
+                    entry = planCache.add(key, compileEpoch, deployedJobSpecId, jobSpec,
+                            metadataProvider.getLocks().getLocks());
+                } else {
+                    // external dataset versions are not tracked by the cache
+                    entry = planCache.addTransient(deployedJobSpecId, jobSpec);
+                }
+            }
+            try {
+                return hcc.startJob(entry.getDeployedJobSpecId(), createJobParameters());
+            } catch (Exception e) {
+                planCache.invalidate(entry);
+                throw e;
+            }
+        }
+
+        private Map<byte[], byte[]> createJobParameters() throws HyracksDataException, AlgebricksException {
+            Map<byte[], byte[]> jobParameters = new HashMap<>();
+            ISerializerDeserializer serde =
+                    SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+            ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+            for (Map.Entry<VarIdentifier, IAObject> me : externalVars.entrySet()) {
+                storage.reset();
+                serde.serialize(me.getValue(), storage.getDataOutput());
+                String name = SqlppExpressionToPlanTranslator.getJobParameterName(me.getKey());
+                jobParameters.put(UTF8StringUtil.writeStringToBytes(name),
+                        Arrays.copyOf(storage.getByteArray(), storage.getLength()));
+            }
+            // each execution of a deployed job needs its own transaction id
+            TxnId txnId = metadataProvider.getTxnIdFactory().create();
+            jobParameters.put(JobEventListenerFactory.TRANSACTION_ID_PARAMETER_NAME,
+                    String.valueOf(txnId.getId()).getBytes());
+            return jobParameters;
+        }
+
+        private void release() {
+            if (entry != null) {
+                planCache.release(entry);
+                entry = null;
+            }
+        }
     }
 
     private void deliverResult(IHyracksClientConnection hcc, IResultSet resultSet, IStatementCompiler compiler,
@@ -4675,7 +4872,7 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             final SchedulableClientRequest schedulableRequest =
                     SchedulableClientRequest.of(clientRequest, requestParameters, metadataProvider, jobSpec);
             appCtx.getReceptionist().ensureSchedulable(schedulableRequest);
-            final JobId jobId = JobUtils.runJob(hcc, jobSpec, jobFlags, false);
+            final JobId jobId = compiler.start(hcc, jobSpec, jobFlags);
             clientRequest.setJobId(jobId);
             if (jId != null) {
                 jId.setValue(jobId);
@@ -4777,6 +4974,15 @@ public class QueryTranslator extends AbstractLangTranslator implements IStatemen
             }
             // Dataset has indexes ?
             indexes = MetadataManager.INSTANCE.getDatasetIndexes(mdTxnCtx, dataverseName, datasetName);
+            Map<String, String> properties = ((ExternalDatasetDetails) ds.getDatasetDetails()).getProperties();
+            if (indexes.isEmpty() && ExternalFileListingCache.isEnabled(properties)) {
+                // Refreshing a dataset without indexes drops the cached listings of its files
+                ExternalFileListingCache.INSTANCE
+                        .invalidate(properties.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME));
+                MetadataManager.INSTANCE.commitTransaction(mdTxnCtx);
+                // latch will be released in the finally clause
+                return;
+            }
             if (indexes.isEmpty()) {
                 throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc, "External " + dataset() + " "
                         + datasetName + " in " + dataverse() + " " + dataverseName + " doesn't have any index");
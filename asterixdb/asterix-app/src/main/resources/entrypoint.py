@@ -20,10 +20,12 @@ from os import pathsep
 addr = str(sys.argv[1])
 port = str(sys.argv[2])
 paths = sys.argv[3]
+shm_path = sys.argv[4] if len(sys.argv) > 4 else None
 for p in paths.split(pathsep):
     sys.path.append(p)
 from struct import *
 import signal
+import mmap
 import msgpack
 import socket
 import traceback
@@ -35,6 +37,7 @@ from io import BytesIO
 PROTO_VERSION = 1
 HEADER_SZ = 8 + 8 + 1
 REAL_HEADER_SZ = 4 + 8 + 8 + 1
+SHM_BODY_SZ = 4 + 4 + 4 + 4
 FRAMESZ = 32768
 
 
@@ -46,6 +49,7 @@ class MessageType(IntEnum):
     CALL = 4
     CALL_RSP = 5
     ERROR = 6
+    CALL_RSP_SHM = 7
 
 
 class MessageFlags(IntEnum):
@@ -53,6 +57,7 @@ class MessageFlags(IntEnum):
     INITIAL_REQ = 1
     INITIAL_ACK = 2
     ERROR = 3
+    SHARED_MEMORY = 4
 
 
 class Wrapper(object):
@@ -74,6 +79,8 @@ class Wrapper(object):
     alive = True
     readbuf = bytearray(FRAMESZ)
     readview = memoryview(readbuf)
+    shm = None
+    shm_rsp = None
 
 
     def init(self, module_name, class_name, fn_name):
@@ -185,10 +192,19 @@ class Wrapper(object):
         self.response_buf.seek(0)
         body = msgpack.packb(result)
         dlen = len(body) + 1  # 1 for tag
-        resp_len = self.write_header(self.response_buf, dlen)
-        self.packer.pack(int(MessageType.CALL_RSP))
-        self.response_buf.write(self.packer.bytes())
-        self.response_buf.write(body)
+        if self.shm_rsp is not None and dlen <= self.shm_rsp[1]:
+            # put the response into its slot and only send its length
+            offset = self.shm_rsp[0]
+            self.shm[offset] = int(MessageType.CALL_RSP)
+            self.shm[offset + 1:offset + dlen] = body
+            resp_len = self.write_header(self.response_buf, 5)
+            self.response_buf.write(
+                pack("!Bi", int(MessageType.CALL_RSP_SHM), dlen))
+        else:
+            resp_len = self.write_header(self.response_buf, dlen)
+            self.packer.pack(int(MessageType.CALL_RSP))
+            self.response_buf.write(self.packer.bytes())
+            self.response_buf.write(body)
         self.resp = self.response_buf.getbuffer()[0:resp_len]
         self.send_msg()
         self.packer.reset()
@@ -225,36 +241,40 @@ class Wrapper(object):
         self.sock.shutdown(socket.SHUT_RDWR)
         self.sock.close()
 
+    def map_shm(self, path):
+        with open(path, "r+b") as f:
+            self.shm = mmap.mmap(f.fileno(), 0)
+
+    def read_fully(self, start, end):
+        # requests may be pipelined, so never read past the end of this one
+        while start < end:
+            read = sys.stdin.buffer.readinto(self.readview[start:end])
+            if not read:
+                self.alive = False
+                return False
+            start += read
+        return True
+
     def recv_msg(self):
         while self.alive:
-            pos = sys.stdin.buffer.readinto1(self.readbuf)
-            if pos <= 0:
-                self.alive = False
+            if not self.read_fully(0, REAL_HEADER_SZ):
                 return
             try:
-                while pos < REAL_HEADER_SZ:
-                    read = sys.stdin.buffer.readinto1(self.readview[pos:])
-                    if read <= 0:
-                        self.alive = False
-                        return
-                    pos += read
                 self.read_header(self.readview)
-                while pos < self.sz and len(self.readbuf) - pos > 0:
-                    read = sys.stdin.buffer.readinto1(self.readview[pos:])
-                    if read <= 0:
-                        self.alive = False
-                        return
-                    pos += read
-                while pos < self.sz:
-                    vszchunk = sys.stdin.buffer.read1(FRAMESZ)
-                    if len(vszchunk) == 0:
-                        self.alive = False
-                        return
+                if self.sz > len(self.readbuf):
                     self.readview.release()
-                    self.readbuf.extend(vszchunk)
+                    self.readbuf.extend(bytearray(self.sz - len(self.readbuf)))
                     self.readview = memoryview(self.readbuf)
-                    pos += len(vszchunk)
-                self.unpacker.feed(self.readview[REAL_HEADER_SZ:self.sz])
+                if not self.read_fully(REAL_HEADER_SZ, self.sz):
+                    return
+                if self.flag == MessageFlags.SHARED_MEMORY:
+                    req_off, req_len, rsp_off, rsp_cap = unpack(
+                        "!iiii", self.readview[REAL_HEADER_SZ:REAL_HEADER_SZ + SHM_BODY_SZ])
+                    self.shm_rsp = (rsp_off, rsp_cap)
+                    self.unpacker.feed(self.shm[req_off:req_off + req_len])
+                else:
+                    self.shm_rsp = None
+                    self.unpacker.feed(self.readview[REAL_HEADER_SZ:self.sz])
                 self.unpacked_msg = list(self.unpacker)
                 self.msg_type = MessageType(self.unpacked_msg[0])
                 self.type_handler[self.msg_type](self)
@@ -273,6 +293,8 @@ class Wrapper(object):
 
 
 wrap = Wrapper()
+if shm_path is not None:
+    wrap.map_shm(shm_path)
 wrap.connect_sock(addr, port)
 signal.signal(signal.SIGTERM, wrap.disconnect_sock)
 wrap.recv_loop()
@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.api.http.servlet;
+
+import static org.apache.hyracks.util.StorageUtil.StorageUnit.KILOBYTE;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.asterix.api.http.server.QueryResultApiServlet;
+import org.apache.asterix.api.http.server.ServletConstants;
+import org.apache.asterix.common.config.CompilerProperties;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.translator.ResultMetadata;
+import org.apache.asterix.translator.SessionConfig;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.result.IResultSet;
+import org.apache.hyracks.api.result.IResultSetReader;
+import org.apache.hyracks.api.result.ResultJobRecord;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.http.api.IServletRequest;
+import org.apache.hyracks.http.api.IServletResponse;
+import org.apache.hyracks.util.StorageUtil;
+import org.junit.Before;
+import org.junit.Test;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+
+public class QueryResultApiServletTest {
+
+    private static final String PARTITION_PARAMETER = "partition";
+    private static final String RESULT_PARTITIONS_HEADER = "X-Result-Partitions";
+    private static final JobId JOB_ID = new JobId(1);
+    private static final ResultSetId RESULT_SET_ID = new ResultSetId(0);
+    private static final int NUM_PARTITIONS = 2;
+
+    private QueryResultApiServlet servlet;
+    private IResultSet resultSet;
+    private IResultSetReader reader;
+    private IServletResponse response;
+
+    @Before
+    public void setUp() throws Exception {
+        ICcApplicationContext appCtx = mock(ICcApplicationContext.class);
+        CompilerProperties compilerProperties = mock(CompilerProperties.class);
+        when(appCtx.getCompilerProperties()).thenReturn(compilerProperties);
+        when(compilerProperties.getFrameSize()).thenReturn(StorageUtil.getIntSizeInBytes(32, KILOBYTE));
+        servlet = new QueryResultApiServlet(new ConcurrentHashMap<>(), appCtx, "/query/service/result/*");
+
+        ResultJobRecord.Status status = mock(ResultJobRecord.Status.class);
+        when(status.getState()).thenReturn(ResultJobRecord.State.SUCCESS);
+        reader = mock(IResultSetReader.class);
+        when(reader.getResultStatus()).thenReturn(status);
+        when(reader.getNumPartitions()).thenReturn(NUM_PARTITIONS);
+        when(reader.getResultMetadata()).thenReturn(new ResultMetadata(SessionConfig.OutputFormat.CSV));
+        resultSet = mock(IResultSet.class);
+        when(resultSet.createReader(any(), any())).thenReturn(reader);
+        when(resultSet.createReader(any(), any(), anyInt())).thenReturn(reader);
+        servlet.ctx().put(ServletConstants.RESULTSET_ATTR, resultSet);
+
+        response = mock(IServletResponse.class);
+        when(response.writer()).thenReturn(new PrintWriter(new StringWriter()));
+    }
+
+    @Test
+    public void testAllPartitions() throws Exception {
+        servlet.handle(mockRequest(null), response);
+        verify(resultSet).createReader(JOB_ID, RESULT_SET_ID);
+        verify(resultSet, never()).createReader(any(), any(), anyInt());
+        verify(response).setStatus(HttpResponseStatus.OK);
+        verify(response).setHeader(RESULT_PARTITIONS_HEADER, NUM_PARTITIONS);
+        verify(response, never()).setStatus(HttpResponseStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void testSinglePartition() throws Exception {
+        servlet.handle(mockRequest("1"), response);
+        verify(resultSet).createReader(JOB_ID, RESULT_SET_ID, 1);
+        verify(resultSet, never()).createReader(any(), any());
+        verify(response).setStatus(HttpResponseStatus.OK);
+        verify(response).setHeader(RESULT_PARTITIONS_HEADER, NUM_PARTITIONS);
+        verify(response, never()).setStatus(HttpResponseStatus.BAD_REQUEST);
+    }
+
+    @Test
+    public void testOutOfRangePartition() throws Exception {
+        servlet.handle(mockRequest(String.valueOf(NUM_PARTITIONS)), response);
+        verify(resultSet).createReader(JOB_ID, RESULT_SET_ID, NUM_PARTITIONS);
+        verify(response).setStatus(HttpResponseStatus.BAD_REQUEST);
+        verify(response, never()).setStatus(HttpResponseStatus.OK);
+        verify(response, never()).setHeader(RESULT_PARTITIONS_HEADER, NUM_PARTITIONS);
+    }
+
+    @Test
+    public void testNegativePartition() throws Exception {
+        servlet.handle(mockRequest("-1"), response);
+        verify(response).setStatus(HttpResponseStatus.BAD_REQUEST);
+        verify(resultSet, never()).createReader(any(), any());
+        verify(resultSet, never()).createReader(any(), any(), anyInt());
+    }
+
+    @Test
+    public void testNonNumericPartition() throws Exception {
+        servlet.handle(mockRequest("first"), response);
+        verify(response).setStatus(HttpResponseStatus.BAD_REQUEST);
+        verify(resultSet, never()).createReader(any(), any());
+        verify(resultSet, never()).createReader(any(), any(), anyInt());
+    }
+
+    private static IServletRequest mockRequest(String partition) {
+        IServletRequest request = mock(IServletRequest.class);
+        FullHttpRequest httpRequest = mock(FullHttpRequest.class);
+        when(request.getHttpRequest()).thenReturn(httpRequest);
+        when(httpRequest.method()).thenReturn(HttpMethod.GET);
+        when(httpRequest.uri()).thenReturn("/query/service/result/" + JOB_ID.getId() + "-" + RESULT_SET_ID.getId()
+                + (partition != null ? "?" + PARTITION_PARAMETER + "=" + partition : ""));
+        when(request.getParameter(PARTITION_PARAMETER)).thenReturn(partition);
+        return request;
+    }
+}
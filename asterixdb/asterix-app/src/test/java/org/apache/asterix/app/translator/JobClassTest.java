@@ -0,0 +1,104 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.translator;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.api.java.AsterixJavaClient;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.compiler.provider.SqlppCompilationProvider;
+import org.apache.asterix.file.StorageComponentProvider;
+import org.apache.hyracks.api.job.IJobLifecycleListener;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.control.cc.scheduler.FairShareJobQueue;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks that the job class requested by a statement parameter reaches the job specifications that the job queue
+ * classifies jobs by.
+ */
+public class JobClassTest {
+
+    private static final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+    private static final List<Object> jobClasses = Collections.synchronizedList(new ArrayList<>());
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        integrationUtil.init(true, AsterixHyracksIntegrationUtil.DEFAULT_CONF_FILE);
+        integrationUtil.cc.getContext().addJobLifecycleListener(new IJobLifecycleListener() {
+            @Override
+            public void notifyJobCreation(JobId jobId, JobSpecification spec) {
+                jobClasses.add(spec.getProperty(FairShareJobQueue.JOB_CLASS_PROPERTY));
+            }
+
+            @Override
+            public void notifyJobStart(JobId jobId) {
+                // no op
+            }
+
+            @Override
+            public void notifyJobFinish(JobId jobId, JobStatus jobStatus, List<Exception> exceptions) {
+                // no op
+            }
+        });
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        integrationUtil.deinit(true);
+    }
+
+    @Before
+    public void clear() {
+        jobClasses.clear();
+    }
+
+    @Test
+    public void requestedJobClassTest() throws Exception {
+        execute("SET job_class \"reporting\"; SELECT VALUE 1;");
+        Assert.assertEquals(Collections.singletonList("reporting"), jobClasses);
+    }
+
+    @Test
+    public void defaultJobClassTest() throws Exception {
+        execute("SELECT VALUE 1;");
+        Assert.assertEquals(Collections.singletonList(null), jobClasses);
+    }
+
+    private static void execute(String statements) throws Exception {
+        AsterixJavaClient client =
+                new AsterixJavaClient((ICcApplicationContext) integrationUtil.cc.getApplicationContext(),
+                        integrationUtil.getHyracksClientConnection(), new StringReader(statements),
+                        new PrintWriter(new StringWriter()), new SqlppCompilationProvider(),
+                        new DefaultStatementExecutorFactory(), new StorageComponentProvider());
+        client.compile(true, false, false, false, false, true, false);
+    }
+}
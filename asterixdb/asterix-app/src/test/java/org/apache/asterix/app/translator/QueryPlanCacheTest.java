@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.app.translator;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.common.metadata.IMetadataLock;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.job.DeployedJobSpecId;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class QueryPlanCacheTest {
+
+    private final List<DeployedJobSpecId> undeployed = new ArrayList<>();
+
+    @Test
+    public void normalizeTest() {
+        Assert.assertEquals("SELECT * FROM ds WHERE a = $1",
+                QueryPlanCache.normalize("  SELECT *\n\tFROM ds   WHERE a = $1\n"));
+        Assert.assertEquals("SELECT 'a  b' AS `x  y`",
+                QueryPlanCache.normalize("SELECT   'a  b'  AS\n`x  y`"));
+        Assert.assertEquals("SELECT \"a\\\"  b\"", QueryPlanCache.normalize("SELECT  \"a\\\"  b\""));
+    }
+
+    @Test
+    public void hitAndMissTest() {
+        QueryPlanCache cache = new QueryPlanCache(2, undeployed::add);
+        Assert.assertNull(cache.acquire(key("q1", ATypeTag.BIGINT)));
+        QueryPlanCache.Entry entry = cache.add(key("q1", ATypeTag.BIGINT), cache.getEpoch(), id(1), null,
+                Collections.emptyList());
+        cache.release(entry);
+        Assert.assertSame(entry, cache.acquire(key("q1", ATypeTag.BIGINT)));
+        cache.release(entry);
+        // a different parameter type must not match
+        Assert.assertNull(cache.acquire(key("q1", ATypeTag.STRING)));
+        Assert.assertNull(cache.acquire(key("q2", ATypeTag.BIGINT)));
+        Assert.assertTrue(undeployed.isEmpty());
+    }
+
+    @Test
+    public void evictionTest() {
+        QueryPlanCache cache = new QueryPlanCache(2, undeployed::add);
+        cache.release(cache.add(key("q1", ATypeTag.BIGINT), cache.getEpoch(), id(1), null, Collections.emptyList()));
+        cache.release(cache.add(key("q2", ATypeTag.BIGINT), cache.getEpoch(), id(2), null, Collections.emptyList()));
+        // q1 becomes the most recently used entry
+        QueryPlanCache.Entry q1 = cache.acquire(key("q1", ATypeTag.BIGINT));
+        cache.release(cache.add(key("q3", ATypeTag.BIGINT), cache.getEpoch(), id(3), null, Collections.emptyList()));
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(Collections.singletonList(id(2)), undeployed);
+        Assert.assertNull(cache.acquire(key("q2", ATypeTag.BIGINT)));
+        // an evicted entry which is still in use is undeployed only once released
+        cache.release(cache.add(key("q4", ATypeTag.BIGINT), cache.getEpoch(), id(4), null, Collections.emptyList()));
+        Assert.assertEquals(Collections.singletonList(id(2)), undeployed);
+        cache.release(q1);
+        Assert.assertEquals(Arrays.asList(id(2), id(1)), undeployed);
+    }
+
+    @Test
+    public void invalidationTest() {
+        QueryPlanCache cache = new QueryPlanCache(4, undeployed::add);
+        TestLock lock = new TestLock();
+        QueryPlanCache.Entry entry = cache.add(key("q1", ATypeTag.BIGINT), cache.getEpoch(), id(1), null,
+                Collections.singletonList(lock));
+        Assert.assertFalse(entry.isStale());
+        lock.version++;
+        Assert.assertTrue(entry.isStale());
+        cache.invalidate(entry);
+        Assert.assertNull(cache.acquire(key("q1", ATypeTag.BIGINT)));
+        Assert.assertTrue(undeployed.isEmpty());
+        cache.release(entry);
+        Assert.assertEquals(Collections.singletonList(id(1)), undeployed);
+
+        // plans compiled before a metadata change are not cached
+        long epoch = cache.getEpoch();
+        cache.release(cache.add(key("q2", ATypeTag.BIGINT), epoch, id(2), null, Collections.emptyList()));
+        cache.invalidateAll();
+        Assert.assertEquals(Arrays.asList(id(1), id(2)), undeployed);
+        cache.release(cache.add(key("q3", ATypeTag.BIGINT), epoch, id(3), null, Collections.emptyList()));
+        Assert.assertEquals(0, cache.size());
+        Assert.assertEquals(Arrays.asList(id(1), id(2), id(3)), undeployed);
+    }
+
+    private static QueryPlanCache.Key key(String statement, ATypeTag parameterType) {
+        Map<String, ATypeTag> parameterTypes = Collections.singletonMap("1", parameterType);
+        return new QueryPlanCache.Key(statement, "Default", parameterTypes, Collections.emptyList());
+    }
+
+    private static DeployedJobSpecId id(long id) {
+        return new DeployedJobSpecId(id);
+    }
+
+    private static class TestLock implements IMetadataLock {
+        private long version;
+
+        @Override
+        public void lock(Mode mode) {
+        }
+
+        @Override
+        public void unlock(Mode mode) {
+        }
+
+        @Override
+        public LockKey getKey() {
+            return null;
+        }
+
+        @Override
+        public long getVersion() {
+            return version;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.optimizer.rules.cbo;
+
+import java.util.Arrays;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+public class JoinEnumeratorTest {
+
+    private static final int NUM_PARTITIONS = 4;
+    private static final long JOIN_MEMORY = 32L * 1024 * 1024;
+    private static final double TUPLE_SIZE = 100;
+
+    @Test
+    public void smallerInputIsBuiltTest() {
+        for (int big = 0; big < 2; big++) {
+            double[] cardinalities = new double[2];
+            cardinalities[big] = 1_000_000;
+            cardinalities[1 - big] = 50_000;
+            JoinEnumerator enumerator = create(cardinalities);
+            enumerator.addPredicate(0b11, 1.0 / 50_000, true);
+            JoinEnumerator.Plan plan = enumerator.enumerate();
+            Assert.assertEquals(big, plan.getLeft().getInput());
+            Assert.assertEquals(1 - big, plan.getRight().getInput());
+            Assert.assertEquals(1_000_000, plan.getCardinality(), 1e-3);
+        }
+    }
+
+    @Test
+    public void selectiveJoinFirstTest() {
+        // r and s only have a few matches while s and t match one to one
+        JoinEnumerator enumerator = create(new double[] { 100_000, 100_000, 100_000 });
+        enumerator.addPredicate(0b011, 1e-9, true);
+        enumerator.addPredicate(0b110, 1e-5, true);
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+        Assert.assertEquals(0b111, plan.getInputs());
+        Assert.assertEquals(0b100, plan.getLeft().getInputs());
+        Assert.assertEquals(0b011, plan.getRight().getInputs());
+        Assert.assertEquals(10, plan.getRight().getCardinality(), 0);
+    }
+
+    @Test
+    public void noCrossProductTest() {
+        // the chain r - s - t is joined along its predicates rather than through the cross product of r and t
+        JoinEnumerator enumerator = create(new double[] { 10_000, 1_000_000, 10_000 });
+        enumerator.addPredicate(0b011, 1.0 / 10_000, true);
+        enumerator.addPredicate(0b110, 1.0 / 10_000, true);
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+        Assert.assertEquals(0b111, plan.getInputs());
+        Assert.assertNotEquals(0b101, plan.getLeft().getInputs());
+        Assert.assertNotEquals(0b101, plan.getRight().getInputs());
+    }
+
+    @Test
+    public void crossProductTest() {
+        JoinEnumerator enumerator = create(new double[] { 10, 20 });
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+        Assert.assertEquals(0b11, plan.getInputs());
+        Assert.assertEquals(200, plan.getCardinality(), 0);
+        Assert.assertFalse(plan.isBroadcast());
+    }
+
+    @Test
+    public void broadcastSmallBuildTest() {
+        JoinEnumerator enumerator = create(new double[] { 1_000_000, 100 });
+        enumerator.addPredicate(0b11, 1.0 / 100, true);
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+        Assert.assertEquals(1, plan.getRight().getInput());
+        Assert.assertTrue(plan.isBroadcast());
+    }
+
+    @Test
+    public void noBroadcastOfComparableInputsTest() {
+        // broadcasting moves the build input once per partition, more than partitioning both inputs
+        JoinEnumerator enumerator = create(new double[] { 1_000, 1_000 });
+        enumerator.addPredicate(0b11, 1.0 / 1_000, true);
+        Assert.assertFalse(enumerator.enumerate().isBroadcast());
+    }
+
+    @Test
+    public void noBroadcastOfLargeBuildTest() {
+        // the build input is small relative to the probe input but does not fit in the memory of the join
+        double[] cardinalities = { 100_000_000, 100_000 };
+        JoinEnumerator enumerator =
+                new JoinEnumerator(cardinalities, new double[] { TUPLE_SIZE, TUPLE_SIZE }, NUM_PARTITIONS, 1_000_000);
+        enumerator.addPredicate(0b11, 1.0 / 100_000, true);
+        JoinEnumerator.Plan plan = enumerator.enumerate();
+        Assert.assertEquals(1, plan.getRight().getInput());
+        Assert.assertFalse(plan.isBroadcast());
+        // with enough memory, the same join is broadcast
+        enumerator = new JoinEnumerator(cardinalities, new double[] { TUPLE_SIZE, TUPLE_SIZE }, NUM_PARTITIONS,
+                JOIN_MEMORY);
+        enumerator.addPredicate(0b11, 1.0 / 100_000, true);
+        Assert.assertTrue(enumerator.enumerate().isBroadcast());
+    }
+
+    @Test
+    public void nonEquiJoinIsNotBroadcastTest() {
+        JoinEnumerator enumerator = create(new double[] { 1_000_000, 100 });
+        enumerator.addPredicate(0b11, 1.0 / 3, false);
+        Assert.assertFalse(enumerator.enumerate().isBroadcast());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void tooManyInputsTest() {
+        create(new double[JoinEnumerator.MAX_INPUTS + 1]);
+    }
+
+    private static JoinEnumerator create(double[] cardinalities) {
+        double[] tupleSizes = new double[cardinalities.length];
+        Arrays.fill(tupleSizes, TUPLE_SIZE);
+        return new JoinEnumerator(cardinalities, tupleSizes, NUM_PARTITIONS, JOIN_MEMORY);
+    }
+}
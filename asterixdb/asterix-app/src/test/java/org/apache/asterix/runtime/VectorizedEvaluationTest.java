@@ -0,0 +1,397 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime;
+
+import java.io.DataOutput;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.asterix.dataflow.data.nontagged.MissingWriterFactory;
+import org.apache.asterix.dataflow.data.nontagged.serde.AObjectSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.BinaryBooleanInspector;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt16;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AInt8;
+import org.apache.asterix.om.base.AMissing;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.evaluators.comparisons.AbstractComparisonDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.EqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.GreaterThanDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.LessThanOrEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.comparisons.NotEqualsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.AndDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NotDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericAddDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericDivDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericDivideDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericModuloDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericMultiplyDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.NumericSubDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.OrDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.StringContainsDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.StringEndsWithDescriptor;
+import org.apache.asterix.runtime.evaluators.functions.StringStartsWithDescriptor;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.evaluators.ColumnAccessEvalFactory;
+import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
+import org.apache.hyracks.algebricks.runtime.operators.std.AssignRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.operators.std.StreamSelectRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.IWarningCollector;
+import org.apache.hyracks.api.exceptions.Warning;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+
+/**
+ * Checks that evaluating the expressions of assignments and selections a frame at a time gives the same results,
+ * warnings and errors as evaluating them tuple-at-a-time.
+ */
+@RunWith(value = Parameterized.class)
+public class VectorizedEvaluationTest {
+
+    private static final int FRAME_SIZE = 32768;
+
+    // the two input fields of each tuple, mixing types, NULL, MISSING, mismatching types and edge values
+    private static final IAObject[][] ROWS = { { new AInt32(1), new AInt32(2) }, { new AInt64(5), new AInt32(5) },
+            { new ADouble(2.5), new AInt8((byte) 3) }, { new AInt32(Integer.MAX_VALUE), new AInt32(1) },
+            { new AInt64(Long.MAX_VALUE), new AInt64(1) }, { new ADouble(Double.NaN), new ADouble(1) },
+            { new AInt16((short) 0), new AInt32(0) }, { new AInt32(-7), new ADouble(0) },
+            { new AString("abc"), new AString("b") }, { new AString("abc"), new AString("abc") },
+            { new AString(""), new AString("") }, { ABoolean.TRUE, ABoolean.FALSE }, { ABoolean.FALSE, ANull.NULL },
+            { ABoolean.TRUE, AMissing.MISSING }, { ANull.NULL, new AInt32(1) }, { AMissing.MISSING, new AInt32(1) },
+            { new AInt32(1), ANull.NULL }, { AMissing.MISSING, ANull.NULL }, { ANull.NULL, ABoolean.FALSE } };
+
+    // rows whose types do not match the ones expected by the functions
+    private static final IAObject[][] MISMATCHING_ROWS = { { new AInt32(1), new AInt32(2) },
+            { new AInt32(7), new AString("7") }, { new AString("a"), ABoolean.TRUE }, { ABoolean.TRUE, new AInt32(1) },
+            { new AInt32(2), new AInt32(3) } };
+
+    private static final RecordDescriptor INPUT_RECORD_DESC = new RecordDescriptor(
+            new ISerializerDeserializer[] { AObjectSerializerDeserializer.INSTANCE,
+                    AObjectSerializerDeserializer.INSTANCE });
+
+    private final String name;
+    private final IFunctionDescriptorFactory functionFactory;
+    private final int arity;
+    private final boolean isPredicate;
+
+    public VectorizedEvaluationTest(String name, IFunctionDescriptorFactory functionFactory, int arity,
+            boolean isPredicate) {
+        this.name = name;
+        this.functionFactory = functionFactory;
+        this.arity = arity;
+        this.isPredicate = isPredicate;
+    }
+
+    @Parameterized.Parameters(name = "VectorizedEvaluationTest {index}: {0}")
+    public static Collection<Object[]> tests() {
+        List<Object[]> tests = new ArrayList<>();
+        tests.add(new Object[] { "eq", EqualsDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "neq", NotEqualsDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "gt", GreaterThanDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "le", LessThanOrEqualsDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "add", NumericAddDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "subtract", NumericSubDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "multiply", NumericMultiplyDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "divide", NumericDivideDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "div", NumericDivDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "modulo", NumericModuloDescriptor.FACTORY, 2, false });
+        tests.add(new Object[] { "and", AndDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "or", OrDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "not", NotDescriptor.FACTORY, 1, true });
+        tests.add(new Object[] { "contains", StringContainsDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "starts-with", StringStartsWithDescriptor.FACTORY, 2, true });
+        tests.add(new Object[] { "ends-with", StringEndsWithDescriptor.FACTORY, 2, true });
+        return tests;
+    }
+
+    @Test
+    public void testEvaluator() throws Exception {
+        checkEvaluator(ROWS);
+        checkEvaluator(MISMATCHING_ROWS);
+    }
+
+    @Test
+    public void testAssign() throws Exception {
+        checkAssign(ROWS);
+        checkAssign(MISMATCHING_ROWS);
+    }
+
+    @Test
+    public void testSelect() throws Exception {
+        if (isPredicate) {
+            checkSelect(ROWS);
+            checkSelect(MISMATCHING_ROWS);
+        }
+    }
+
+    private void checkEvaluator(IAObject[][] rows) throws Exception {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        FrameTupleAccessor accessor = createFrame(ctx, rows);
+        IScalarEvaluatorFactory evalFactory = createEvaluatorFactory();
+        Assert.assertTrue(name, VectorEvaluatorUtil.isVectorizable(evalFactory));
+
+        CountingWarningCollector scalarWarnings = new CountingWarningCollector();
+        IScalarEvaluator eval = evalFactory.createScalarEvaluator(new EvaluatorContext(ctx, scalarWarnings));
+        List<byte[]> expected = new ArrayList<>();
+        String expectedError = null;
+        FrameTupleReference tuple = new FrameTupleReference();
+        IPointable result = VoidPointable.FACTORY.createPointable();
+        for (int i = 0; i < rows.length && expectedError == null; i++) {
+            tuple.reset(accessor, i);
+            try {
+                eval.evaluate(tuple, result);
+                expected.add(Arrays.copyOfRange(result.getByteArray(), result.getStartOffset(),
+                        result.getStartOffset() + result.getLength()));
+            } catch (HyracksDataException e) {
+                expectedError = getError(e);
+            }
+        }
+
+        CountingWarningCollector vectorWarnings = new CountingWarningCollector();
+        IVectorScalarEvaluator vectorEval =
+                VectorEvaluatorUtil.createVectorEvaluator(evalFactory, new EvaluatorContext(ctx, vectorWarnings));
+        SelectionVector selection = new SelectionVector();
+        selection.selectAll(rows.length);
+        ValueVector values = new ValueVector();
+        try {
+            vectorEval.evaluate(accessor, selection, values);
+            Assert.assertNull(name + " did not fail with " + expectedError, expectedError);
+        } catch (HyracksDataException e) {
+            Assert.assertEquals(name, expectedError, getError(e));
+            return;
+        }
+        for (int i = 0; i < rows.length; i++) {
+            values.getValue(i, result);
+            Assert.assertArrayEquals(name + " of " + Arrays.toString(rows[i]), expected.get(i),
+                    Arrays.copyOfRange(result.getByteArray(), result.getStartOffset(),
+                            result.getStartOffset() + result.getLength()));
+        }
+        Assert.assertEquals(name, scalarWarnings.count, vectorWarnings.count);
+    }
+
+    private void checkAssign(IAObject[][] rows) throws Exception {
+        Assert.assertEquals(name, runAssign(rows, false), runAssign(rows, true));
+    }
+
+    private void checkSelect(IAObject[][] rows) throws Exception {
+        Assert.assertEquals(name, runSelect(rows, false), runSelect(rows, true));
+    }
+
+    /**
+     * Assigns the function of the two fields along with a non-vectorizable expression that counts its evaluations,
+     * which must be evaluated once per tuple in both modes
+     */
+    private List<String> runAssign(IAObject[][] rows, boolean vectorized) throws Exception {
+        IScalarEvaluatorFactory[] evalFactories = { createEvaluatorFactory(), new CountingEvaluatorFactory() };
+        AssignRuntimeFactory factory = new AssignRuntimeFactory(new int[] { 2, 3 }, evalFactories,
+                new int[] { 0, 1, 2, 3 });
+        factory.setVectorizedEvaluation(vectorized);
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        return run(ctx, factory.createOneOutputPushRuntime(ctx), rows, 4);
+    }
+
+    private List<String> runSelect(IAObject[][] rows, boolean vectorized) throws Exception {
+        StreamSelectRuntimeFactory factory = new StreamSelectRuntimeFactory(createEvaluatorFactory(), null,
+                BinaryBooleanInspector.FACTORY, false, -1, MissingWriterFactory.INSTANCE);
+        factory.setVectorizedEvaluation(vectorized);
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        return run(ctx, factory.createOneOutputPushRuntime(ctx), rows, 2);
+    }
+
+    /**
+     * @return the output tuples, or the error, of the runtime for the rows
+     */
+    private List<String> run(IHyracksTaskContext ctx, AbstractOneInputOneOutputOneFramePushRuntime runtime,
+            IAObject[][] rows, int numOutputFields) throws Exception {
+        ISerializerDeserializer[] outputSerdes = new ISerializerDeserializer[numOutputFields];
+        Arrays.fill(outputSerdes, AObjectSerializerDeserializer.INSTANCE);
+        RecordDescriptor outputRecordDesc = new RecordDescriptor(outputSerdes);
+        List<String> output = new ArrayList<>();
+        runtime.setInputRecordDescriptor(0, INPUT_RECORD_DESC);
+        runtime.setOutputFrameWriter(0, new IFrameWriter() {
+            private final FrameTupleAccessor accessor = new FrameTupleAccessor(outputRecordDesc);
+
+            @Override
+            public void open() {
+                // no op
+            }
+
+            @Override
+            public void nextFrame(ByteBuffer buffer) {
+                accessor.reset(buffer);
+                for (int t = 0; t < accessor.getTupleCount(); t++) {
+                    StringBuilder sb = new StringBuilder();
+                    for (int f = 0; f < numOutputFields; f++) {
+                        int start = accessor.getAbsoluteFieldStartOffset(t, f);
+                        sb.append(Arrays.toString(Arrays.copyOfRange(buffer.array(), start,
+                                start + accessor.getFieldLength(t, f))));
+                    }
+                    output.add(sb.toString());
+                }
+            }
+
+            @Override
+            public void fail() {
+                // no op
+            }
+
+            @Override
+            public void close() {
+                // no op
+            }
+        }, outputRecordDesc);
+        FrameTupleAccessor input = createFrame(ctx, rows);
+        runtime.open();
+        try {
+            runtime.nextFrame(input.getBuffer());
+        } catch (HyracksDataException e) {
+            // the tuples produced before the failure are discarded with the failed job
+            runtime.fail();
+            runtime.close();
+            return Collections.singletonList(getError(e));
+        }
+        runtime.close();
+        return output;
+    }
+
+    private IScalarEvaluatorFactory createEvaluatorFactory() throws Exception {
+        IFunctionDescriptor function = functionFactory.createFunctionDescriptor();
+        if (function instanceof AbstractComparisonDescriptor) {
+            function.setImmutableStates(BuiltinType.ANY, BuiltinType.ANY);
+        }
+        IScalarEvaluatorFactory[] args = new IScalarEvaluatorFactory[arity];
+        for (int i = 0; i < arity; i++) {
+            args[i] = new ColumnAccessEvalFactory(i);
+        }
+        return function.createEvaluatorFactory(args);
+    }
+
+    private static FrameTupleAccessor createFrame(IHyracksTaskContext ctx, IAObject[][] rows) throws Exception {
+        FrameTupleAppender appender = new FrameTupleAppender(new VSizeFrame(ctx), true);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+        for (IAObject[] row : rows) {
+            tb.reset();
+            for (IAObject value : row) {
+                AObjectSerializerDeserializer.INSTANCE.serialize(value, tb.getDataOutput());
+                tb.addFieldEndOffset();
+            }
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        FrameTupleAccessor accessor = new FrameTupleAccessor(INPUT_RECORD_DESC);
+        accessor.reset(appender.getBuffer());
+        return accessor;
+    }
+
+    /**
+     * @return the code of the error, ignoring the tuple-at-a-time wrapping that tells which tuple failed
+     */
+    private static String getError(Throwable e) {
+        Throwable cause = e;
+        while (cause instanceof HyracksDataException
+                && ((HyracksDataException) cause).getErrorCode() == ErrorCode.ERROR_PROCESSING_TUPLE.intValue()
+                && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        if (cause instanceof HyracksDataException) {
+            HyracksDataException hde = (HyracksDataException) cause;
+            return hde.getComponent() + hde.getErrorCode();
+        }
+        return cause.toString();
+    }
+
+    private static class CountingWarningCollector implements IWarningCollector {
+        private int count;
+
+        @Override
+        public void warn(Warning warning) {
+            count++;
+        }
+
+        @Override
+        public boolean shouldWarn() {
+            return true;
+        }
+
+        @Override
+        public long getTotalWarningsCount() {
+            return count;
+        }
+    }
+
+    /**
+     * A stateful, non-vectorizable expression returning the number of times it was evaluated
+     */
+    private static class CountingEvaluatorFactory implements IScalarEvaluatorFactory {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) {
+            AtomicInteger count = new AtomicInteger();
+            ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+            return (tuple, result) -> {
+                tb.reset();
+                DataOutput out = tb.getDataOutput();
+                try {
+                    out.writeByte(ATypeTag.SERIALIZED_INT64_TYPE_TAG);
+                    out.writeLong(count.incrementAndGet());
+                } catch (java.io.IOException e) {
+                    throw HyracksDataException.create(e);
+                }
+                result.set(tb.getByteArray(), 0, tb.getSize());
+            };
+        }
+    }
+}
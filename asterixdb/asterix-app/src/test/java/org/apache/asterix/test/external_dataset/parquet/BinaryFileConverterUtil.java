@@ -66,6 +66,8 @@ public class BinaryFileConverterUtil {
         }
         //Write parquet example that contains the specialized types
         ParquetFileExampleGeneratorUtil.writeExample();
+        //Write parquet example with several row groups and pages to test the filter pushdown
+        ParquetFileExampleGeneratorUtil.writeFilterPushdownExample();
     }
 
     private static void writeParquetFile(File jsonInputPath, Path parquetOutputPath) throws IOException {
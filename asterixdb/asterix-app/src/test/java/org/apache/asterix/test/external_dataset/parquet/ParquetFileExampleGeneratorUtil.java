@@ -40,6 +40,7 @@ import org.apache.parquet.column.ParquetProperties.WriterVersion;
 import org.apache.parquet.example.data.Group;
 import org.apache.parquet.example.data.simple.NanoTime;
 import org.apache.parquet.example.data.simple.SimpleGroupFactory;
+import org.apache.parquet.hadoop.ParquetFileWriter;
 import org.apache.parquet.hadoop.ParquetWriter;
 import org.apache.parquet.hadoop.example.ExampleParquetWriter;
 import org.apache.parquet.hadoop.example.GroupWriteSupport;
@@ -69,6 +70,15 @@ public class ParquetFileExampleGeneratorUtil {
 
     private static final String FILE_NAME = "parquetTypes.parquet";
 
+    public static final String FILTER_PUSHDOWN_FILE_NAME = "parquetFilterPushdown.parquet";
+    public static final int FILTER_PUSHDOWN_NUM_RECORDS = 10000;
+    public static final int FILTER_PUSHDOWN_PAGE_ROW_COUNT = 100;
+    //The category of the records with an id in that range is 'b'. Otherwise, it is 'a' or 'c' (even or odd ids)
+    public static final int FILTER_PUSHDOWN_B_START = 5000;
+    public static final int FILTER_PUSHDOWN_B_END = 5010;
+    private static final String FILTER_PUSHDOWN_SCHEMA = "message test { \n" + "   required int64 id;\n"
+            + "   required binary category (UTF8);\n" + "}";
+
     private static final String SCHEMA = "message test { \n" + "   required boolean boolean_field;\n"
             + "   required int32 int8_field (INTEGER(8,true));\n"
             + "   required int32 int16_field (INTEGER(16,true));\n" + "   required int32 int32_field;\n"
@@ -144,6 +154,36 @@ public class ParquetFileExampleGeneratorUtil {
         writer.close();
     }
 
+    /**
+     * Write a file with several row groups and several pages per row group. The ids are sorted, so that the
+     * statistics and the column indexes of the id column are selective. Every row group has the categories 'a' and
+     * 'c' so that only its dictionary tells whether it has the category 'b'.
+     */
+    public static void writeFilterPushdownExample() throws IOException {
+        Configuration conf = new Configuration();
+        Path root = new Path(BinaryFileConverterUtil.BINARY_GEN_BASEDIR);
+        MessageType schema = parseMessageType(FILTER_PUSHDOWN_SCHEMA);
+        GroupWriteSupport.setSchema(schema, conf);
+        Path file = new Path(root, FILTER_PUSHDOWN_FILE_NAME);
+        try (ParquetWriter<Group> writer = ExampleParquetWriter.builder(new TestOutputFile(file, conf))
+                .withCompressionCodec(UNCOMPRESSED).withRowGroupSize(8 * 1024).withPageSize(1024)
+                .withPageRowCountLimit(FILTER_PUSHDOWN_PAGE_ROW_COUNT).withDictionaryPageSize(512)
+                .enableDictionaryEncoding().withValidation(false).withWriterVersion(WriterVersion.PARQUET_2_0)
+                .withWriteMode(ParquetFileWriter.Mode.OVERWRITE).withConf(conf).build()) {
+            SimpleGroupFactory groupFactory = new SimpleGroupFactory(schema);
+            for (int i = 0; i < FILTER_PUSHDOWN_NUM_RECORDS; i++) {
+                writer.write(groupFactory.newGroup().append("id", (long) i).append("category", getCategory(i)));
+            }
+        }
+    }
+
+    public static String getCategory(int id) {
+        if (id >= FILTER_PUSHDOWN_B_START && id < FILTER_PUSHDOWN_B_END) {
+            return "b";
+        }
+        return id % 2 == 0 ? "a" : "c";
+    }
+
     private static int getSecondsSinceMidnight() {
         Instant instant = Instant.ofEpochMilli(TIME_MILLIS);
         Instant midnight = LocalDate.ofInstant(instant, ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC);
@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.external_dataset.parquet;
+
+import static org.apache.asterix.test.external_dataset.parquet.ParquetFileExampleGeneratorUtil.FILTER_PUSHDOWN_B_END;
+import static org.apache.asterix.test.external_dataset.parquet.ParquetFileExampleGeneratorUtil.FILTER_PUSHDOWN_B_START;
+import static org.apache.asterix.test.external_dataset.parquet.ParquetFileExampleGeneratorUtil.FILTER_PUSHDOWN_NUM_RECORDS;
+import static org.apache.asterix.test.external_dataset.parquet.ParquetFileExampleGeneratorUtil.FILTER_PUSHDOWN_PAGE_ROW_COUNT;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.external.input.record.reader.hdfs.parquet.MapredParquetInputFormat;
+import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.HDFSUtils;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate.Kind;
+import org.apache.commons.lang3.SerializationUtils;
+import org.apache.hadoop.fs.Path;
+import org.apache.hadoop.mapred.InputSplit;
+import org.apache.hadoop.mapred.JobConf;
+import org.apache.hadoop.mapred.RecordReader;
+import org.apache.hadoop.mapred.Reporter;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.parquet.hadoop.ParquetFileReader;
+import org.apache.parquet.hadoop.ParquetInputFormat;
+import org.apache.parquet.hadoop.metadata.BlockMetaData;
+import org.apache.parquet.hadoop.util.HadoopInputFile;
+import org.junit.Assert;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Reads a generated Parquet file with a pushed down filter. The reader does not filter the records of the row groups
+ * and pages it reads. Thus, the number of records it returns tells which row groups and pages were skipped.
+ */
+public class ParquetFilterPushdownTest {
+    private static final File FILE = new File(BinaryFileConverterUtil.BINARY_GEN_BASEDIR,
+            ParquetFileExampleGeneratorUtil.FILTER_PUSHDOWN_FILE_NAME);
+    private static final long ID = 4321L;
+    private static List<BlockMetaData> rowGroups;
+
+    @BeforeClass
+    public static void setUp() throws IOException {
+        Files.createDirectories(Paths.get(BinaryFileConverterUtil.BINARY_GEN_BASEDIR));
+        ParquetFileExampleGeneratorUtil.writeFilterPushdownExample();
+        Path path = new Path(FILE.getAbsolutePath());
+        try (ParquetFileReader reader = ParquetFileReader.open(HadoopInputFile.fromPath(path, new JobConf()))) {
+            rowGroups = reader.getFooter().getBlocks();
+        }
+        //Several row groups with several pages each
+        Assert.assertTrue(rowGroups.size() > 2);
+        Assert.assertTrue(rowGroups.get(0).getRowCount() > FILTER_PUSHDOWN_PAGE_ROW_COUNT);
+    }
+
+    @Test
+    public void noFilter() throws IOException {
+        Assert.assertEquals(FILTER_PUSHDOWN_NUM_RECORDS, countRecords(null, true, true, true));
+    }
+
+    @Test
+    public void rowGroupPruning() throws IOException {
+        //Only the row group of the id is read. The ids are the rows' positions
+        long expected = getRowCount(ID, ID + 1);
+        Assert.assertTrue(expected < FILTER_PUSHDOWN_NUM_RECORDS);
+        Assert.assertEquals(expected, countRecords(compare("id", ATypeTag.BIGINT, ID), true, false, false));
+    }
+
+    @Test
+    public void dictionaryPruning() throws IOException {
+        ExternalFilterPredicate predicate = compare("category", ATypeTag.STRING, "b");
+        //The statistics of every row group include 'b' (between 'a' and 'c')
+        Assert.assertEquals(FILTER_PUSHDOWN_NUM_RECORDS, countRecords(predicate, true, false, false));
+        //Only the dictionaries of the row groups with the ids in [B_START, B_END) have 'b'
+        long expected = getRowCount(FILTER_PUSHDOWN_B_START, FILTER_PUSHDOWN_B_END);
+        Assert.assertTrue(expected < FILTER_PUSHDOWN_NUM_RECORDS);
+        Assert.assertEquals(expected, countRecords(predicate, false, true, false));
+    }
+
+    @Test
+    public void pageIndexPruning() throws IOException {
+        //Only the page of the id is read
+        long count = countRecords(compare("id", ATypeTag.BIGINT, ID), false, false, true);
+        Assert.assertTrue(count > 0);
+        Assert.assertTrue(count <= FILTER_PUSHDOWN_PAGE_ROW_COUNT);
+    }
+
+    @Test
+    public void missingColumn() throws IOException {
+        //Comparing a MISSING value is never true: the whole file is skipped
+        ExternalFilterPredicate predicate = compare("missing_field", ATypeTag.BIGINT, ID);
+        Assert.assertEquals(0, countRecords(predicate, true, false, false));
+    }
+
+    /**
+     * @return the number of rows of the row groups that contain a row in [start, end)
+     */
+    private static long getRowCount(long start, long end) {
+        long rowCount = 0;
+        long firstRow = 0;
+        for (BlockMetaData rowGroup : rowGroups) {
+            long lastRow = firstRow + rowGroup.getRowCount();
+            if (firstRow < end && start < lastRow) {
+                rowCount += rowGroup.getRowCount();
+            }
+            firstRow = lastRow;
+        }
+        return rowCount;
+    }
+
+    private static ExternalFilterPredicate compare(String fieldName, ATypeTag typeTag, Serializable constant) {
+        return ExternalFilterPredicate.compare(Kind.EQ, Collections.singletonList(fieldName), typeTag,
+                constant);
+    }
+
+    private static long countRecords(ExternalFilterPredicate predicate, boolean statistics, boolean dictionary,
+            boolean columnIndex) throws IOException {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.KEY_PATH, FILE.getAbsolutePath());
+        configuration.put(ExternalDataConstants.KEY_INPUT_FORMAT, ExternalDataConstants.INPUT_FORMAT_PARQUET);
+        if (predicate != null) {
+            configuration.put(ExternalDataConstants.KEY_FILTER_PREDICATE,
+                    Base64.getEncoder().encodeToString(SerializationUtils.serialize(predicate)));
+        }
+        JobConf conf = HDFSUtils.configureHDFSJobConf(configuration);
+        conf.setBoolean(ParquetInputFormat.STATS_FILTERING_ENABLED, statistics);
+        conf.setBoolean(ParquetInputFormat.DICTIONARY_FILTERING_ENABLED, dictionary);
+        conf.setBoolean(ParquetInputFormat.COLUMN_INDEX_FILTERING_ENABLED, columnIndex);
+
+        MapredParquetInputFormat inputFormat = new MapredParquetInputFormat();
+        long count = 0;
+        for (InputSplit split : inputFormat.getSplits(conf, 1)) {
+            RecordReader<Void, VoidPointable> reader = inputFormat.getRecordReader(split, conf, Reporter.NULL);
+            try {
+                VoidPointable value = reader.createValue();
+                while (reader.next(null, value)) {
+                    count++;
+                }
+            } finally {
+                reader.close();
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.test.optimizer;
+
+import java.io.PrintWriter;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.api.common.AsterixHyracksIntegrationUtil;
+import org.apache.asterix.api.java.AsterixJavaClient;
+import org.apache.asterix.app.translator.DefaultStatementExecutorFactory;
+import org.apache.asterix.common.dataflow.ICcApplicationContext;
+import org.apache.asterix.common.metadata.DataverseName;
+import org.apache.asterix.common.storage.IStatisticsManager;
+import org.apache.asterix.compiler.provider.SqlppCompilationProvider;
+import org.apache.asterix.file.StorageComponentProvider;
+import org.apache.asterix.metadata.MetadataManager;
+import org.apache.asterix.metadata.MetadataTransactionContext;
+import org.apache.asterix.metadata.entities.Dataset;
+import org.apache.hyracks.storage.am.lsm.common.statistics.HyperLogLog;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+import org.junit.AfterClass;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+/**
+ * Checks the plans of a star join chosen with {@code compiler.cbo} enabled from injected index statistics: the small
+ * inputs are built and broadcast, the large one is probed and never moved, and without statistics the plan is the
+ * one of the heuristic optimizer.
+ */
+public class CostBasedJoinPlanTest {
+
+    private static final AsterixHyracksIntegrationUtil integrationUtil = new AsterixHyracksIntegrationUtil();
+    private static final String DATAVERSE = "cbo";
+    private static final String[] DATASETS = { "Big", "Mid", "Small" };
+    private static final long[] CARDINALITIES = { 1_000_000, 10_000, 100 };
+    private static final int TUPLE_SIZE = 100;
+    private static final String QUERY = "USE " + DATAVERSE + "; SELECT b.id AS b, m.id AS m, s.id AS s "
+            + "FROM Big b, Mid m, Small s WHERE b.mid = m.id AND b.sid = s.id;";
+    private static final String CBO_QUERY = "SET `compiler.cbo` \"true\"; " + QUERY;
+
+    private static ICcApplicationContext appCtx;
+    private static int[] datasetIds;
+
+    @BeforeClass
+    public static void setUp() throws Exception {
+        integrationUtil.init(true, AsterixHyracksIntegrationUtil.DEFAULT_CONF_FILE);
+        appCtx = (ICcApplicationContext) integrationUtil.cc.getApplicationContext();
+        StringBuilder ddl = new StringBuilder();
+        ddl.append("DROP DATAVERSE ").append(DATAVERSE).append(" IF EXISTS; CREATE DATAVERSE ").append(DATAVERSE)
+                .append("; USE ").append(DATAVERSE).append("; CREATE TYPE T AS { id: int };");
+        for (String dataset : DATASETS) {
+            ddl.append(" CREATE DATASET ").append(dataset).append("(T) PRIMARY KEY id;");
+        }
+        compile(ddl.toString(), true);
+
+        datasetIds = new int[DATASETS.length];
+        MetadataTransactionContext mdTxn = MetadataManager.INSTANCE.beginTransaction();
+        for (int i = 0; i < DATASETS.length; i++) {
+            Dataset dataset = MetadataManager.INSTANCE.getDataset(mdTxn,
+                    DataverseName.createSinglePartName(DATAVERSE), DATASETS[i]);
+            datasetIds[i] = dataset.getDatasetId();
+        }
+        MetadataManager.INSTANCE.commitTransaction(mdTxn);
+    }
+
+    @AfterClass
+    public static void tearDown() throws Exception {
+        integrationUtil.deinit(true);
+    }
+
+    @Before
+    public void reportStatistics() {
+        IStatisticsManager statisticsManager = appCtx.getStatisticsManager();
+        for (int i = 0; i < DATASETS.length; i++) {
+            // the distinct values of the keys are left unknown, they are then estimated by the cardinalities
+            statisticsManager.update(datasetIds[i], DATASETS[i], 0, new IndexStatistics(CARDINALITIES[i], 0,
+                    CARDINALITIES[i] * TUPLE_SIZE, new HyperLogLog[1], new ArrayList<>()));
+        }
+    }
+
+    @Test
+    public void broadcastSmallInputsTest() throws Exception {
+        List<String> plan = compile(CBO_QUERY, false);
+        List<String> broadcastScans = getBroadcastScans(plan);
+        Assert.assertFalse(plan.toString(), broadcastScans.isEmpty());
+        for (String scan : broadcastScans) {
+            Assert.assertFalse(plan.toString(), scan.contains(DATAVERSE + ".Big"));
+        }
+        Assert.assertTrue(plan.toString(),
+                broadcastScans.stream().anyMatch(scan -> scan.contains(DATAVERSE + ".Small")));
+    }
+
+    @Test
+    public void heuristicPlanTest() throws Exception {
+        List<String> plan = compile(QUERY, false);
+        Assert.assertTrue(plan.toString(), getBroadcastScans(plan).isEmpty());
+    }
+
+    @Test
+    public void missingStatisticsTest() throws Exception {
+        appCtx.getStatisticsManager().remove(datasetIds[DATASETS.length - 1]);
+        Assert.assertEquals(compile(QUERY, false), compile(CBO_QUERY, false));
+    }
+
+    /**
+     * @return the first scan found below every broadcast exchange of the plan
+     */
+    private static List<String> getBroadcastScans(List<String> plan) {
+        List<String> scans = new ArrayList<>();
+        for (int i = 0; i < plan.size(); i++) {
+            if (!plan.get(i).contains("BROADCAST_EXCHANGE")) {
+                continue;
+            }
+            for (int j = i + 1; j < plan.size(); j++) {
+                if (plan.get(j).contains("data-scan")) {
+                    scans.add(plan.get(j));
+                    break;
+                }
+            }
+        }
+        return scans;
+    }
+
+    private static List<String> compile(String statements, boolean execute) throws Exception {
+        StringWriter output = new StringWriter();
+        try (PrintWriter writer = new PrintWriter(output)) {
+            AsterixJavaClient client = new AsterixJavaClient(appCtx, integrationUtil.getHyracksClientConnection(),
+                    new StringReader(statements), writer, new SqlppCompilationProvider(),
+                    new DefaultStatementExecutorFactory(), new StorageComponentProvider());
+            client.compile(true, false, false, !execute, false, execute, false);
+        }
+        // the variable ids differ between compilations
+        List<String> plan = new ArrayList<>(Arrays.asList(output.toString().split("\n")));
+        plan.replaceAll(line -> line.replaceAll("\\$\\$\\d+", "\\$\\$"));
+        return plan;
+    }
+}
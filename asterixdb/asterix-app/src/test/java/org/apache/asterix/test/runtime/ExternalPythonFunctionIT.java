@@ -72,7 +72,7 @@ public class ExternalPythonFunctionIT {
         LangExecutionUtil.test(tcCtx);
     }
 
-    private static void setNcEndpoints(TestExecutor testExecutor) {
+    static void setNcEndpoints(TestExecutor testExecutor) {
         final NodeControllerService[] ncs = ExecutionTestUtil.integrationUtil.ncs;
         final Map<String, InetSocketAddress> ncEndPoints = new HashMap<>();
         final String ip = InetAddress.getLoopbackAddress().getHostAddress();
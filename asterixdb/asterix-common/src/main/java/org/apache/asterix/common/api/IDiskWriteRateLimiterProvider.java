@@ -20,9 +20,15 @@ package org.apache.asterix.common.api;
 
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
 import org.apache.hyracks.storage.common.IResource;
 import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
 
 public interface IDiskWriteRateLimiterProvider {
-    IRateLimiter getRateLimiter(INCServiceContext serviceCtx, IResource resource) throws HyracksDataException;
+    /**
+     * @return the limiter of the disk writes of the given type of IO operation on the storage partition of the
+     *         resource
+     */
+    IRateLimiter getRateLimiter(INCServiceContext serviceCtx, IResource resource, LSMIOOperationType ioOperationType)
+            throws HyracksDataException;
 }
@@ -28,6 +28,7 @@ import org.apache.asterix.common.replication.IReplicationChannel;
 import org.apache.asterix.common.replication.IReplicationManager;
 import org.apache.asterix.common.replication.IReplicationStrategyFactory;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IIndexStatisticsReporter;
 import org.apache.asterix.common.storage.IReplicaManager;
 import org.apache.asterix.common.transactions.IRecoveryManagerFactory;
 import org.apache.asterix.common.transactions.ITransactionSubsystem;
@@ -125,6 +126,8 @@ public interface INcApplicationContext extends IApplicationContext {
 
     IIndexCheckpointManagerProvider getIndexCheckpointManagerProvider();
 
+    IIndexStatisticsReporter getIndexStatisticsReporter();
+
     IReplicaManager getReplicaManager();
 
     long getMaxTxnId();
@@ -107,7 +107,27 @@ public class CompilerProperties extends AbstractProperties {
         COMPILER_BATCH_LOOKUP(
                 BOOLEAN,
                 AlgebricksConfig.BATCH_LOOKUP_DEFAULT,
-                "Enable/disable batch point-lookups when running queries with secondary indexes");
+                "Enable/disable batch point-lookups when running queries with secondary indexes"),
+        COMPILER_PLAN_CACHE_SIZE(
+                INTEGER,
+                0,
+                "The maximum number of compiled job plans of parameterized queries which are kept deployed for reuse "
+                        + "by later executions of the same query with parameters of the same types (0 disables "
+                        + "plan caching)"),
+        COMPILER_VECTORIZED_EVALUATION(
+                BOOLEAN,
+                AlgebricksConfig.VECTORIZED_EVALUATION_DEFAULT,
+                "Enable/disable evaluating the expressions of selections and assignments a frame at a time"),
+        COMPILER_RUNTIME_JOIN_FILTER(
+                BOOLEAN,
+                AlgebricksConfig.RUNTIME_JOIN_FILTER_DEFAULT,
+                "Enable/disable discarding the probe tuples of hash joins that cannot match any build tuple using a "
+                        + "bloom filter and the min/max of the build keys"),
+        COMPILER_CBO(
+                BOOLEAN,
+                AlgebricksConfig.CBO_DEFAULT,
+                "Enable/disable choosing the join order, the build sides and the broadcast joins using the "
+                        + "statistics of the indexes collected when storage.lsm.statistics is enabled");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -179,6 +199,12 @@ public class CompilerProperties extends AbstractProperties {
 
     public static final String COMPILER_BATCHED_LOOKUP_KEY = Option.COMPILER_BATCH_LOOKUP.ini();
 
+    public static final String COMPILER_VECTORIZED_EVALUATION_KEY = Option.COMPILER_VECTORIZED_EVALUATION.ini();
+
+    public static final String COMPILER_RUNTIME_JOIN_FILTER_KEY = Option.COMPILER_RUNTIME_JOIN_FILTER.ini();
+
+    public static final String COMPILER_CBO_KEY = Option.COMPILER_CBO.ini();
+
     public static final int COMPILER_PARALLELISM_AS_STORAGE = 0;
 
     public CompilerProperties(PropertiesAccessor accessor) {
@@ -256,4 +282,20 @@ public class CompilerProperties extends AbstractProperties {
     public boolean isBatchLookup() {
         return accessor.getBoolean(Option.COMPILER_BATCH_LOOKUP);
     }
+
+    public boolean isVectorizedEvaluation() {
+        return accessor.getBoolean(Option.COMPILER_VECTORIZED_EVALUATION);
+    }
+
+    public boolean isRuntimeJoinFilter() {
+        return accessor.getBoolean(Option.COMPILER_RUNTIME_JOIN_FILTER);
+    }
+
+    public boolean isCbo() {
+        return accessor.getBoolean(Option.COMPILER_CBO);
+    }
+
+    public int getPlanCacheSize() {
+        return accessor.getInt(Option.COMPILER_PLAN_CACHE_SIZE);
+    }
 }
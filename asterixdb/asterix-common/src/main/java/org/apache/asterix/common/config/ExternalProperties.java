@@ -52,7 +52,12 @@ public class ExternalProperties extends AbstractProperties {
                 "The maximum accepted web request size in bytes"),
         REQUESTS_ARCHIVE_SIZE(NONNEGATIVE_INTEGER, 50, "The maximum number of archived requests to maintain"),
         LIBRARY_DEPLOY_TIMEOUT(POSITIVE_INTEGER, 1800, "Timeout to upload a UDF in seconds"),
-        AZURE_REQUEST_TIMEOUT(POSITIVE_INTEGER, 120, "Timeout for Azure client requests in seconds");
+        AZURE_REQUEST_TIMEOUT(POSITIVE_INTEGER, 120, "Timeout for Azure client requests in seconds"),
+        RESULT_PREFETCH_PARTITIONS(
+                NONNEGATIVE_INTEGER,
+                4,
+                "The number of result partitions to fetch in parallel ahead of the partition being returned to the "
+                        + "client");
 
         private final IOptionType type;
         private final Object defaultValue;
@@ -80,6 +85,7 @@ public class ExternalProperties extends AbstractProperties {
                 case MAX_WEB_REQUEST_SIZE:
                 case LIBRARY_DEPLOY_TIMEOUT:
                 case AZURE_REQUEST_TIMEOUT:
+                case RESULT_PREFETCH_PARTITIONS:
                     return Section.COMMON;
                 case CC_JAVA_OPTS:
                 case NC_JAVA_OPTS:
@@ -160,4 +166,8 @@ public class ExternalProperties extends AbstractProperties {
     public int getAzureRequestTimeout() {
         return accessor.getInt(Option.AZURE_REQUEST_TIMEOUT);
     }
+
+    public int getResultPrefetchPartitions() {
+        return accessor.getInt(Option.RESULT_PREFETCH_PARTITIONS);
+    }
 }
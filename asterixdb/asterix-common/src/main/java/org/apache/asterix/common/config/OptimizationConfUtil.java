@@ -79,6 +79,11 @@ public class OptimizationConfUtil {
                 compilerProperties.getExternalScanMemorySize(), sourceLoc);
         boolean batchLookup = getBoolean(querySpecificConfig, CompilerProperties.COMPILER_BATCHED_LOOKUP_KEY,
                 compilerProperties.isBatchLookup());
+        boolean vectorizedEvaluation = getBoolean(querySpecificConfig,
+                CompilerProperties.COMPILER_VECTORIZED_EVALUATION_KEY, compilerProperties.isVectorizedEvaluation());
+        boolean runtimeJoinFilter = getBoolean(querySpecificConfig,
+                CompilerProperties.COMPILER_RUNTIME_JOIN_FILTER_KEY, compilerProperties.isRuntimeJoinFilter());
+        boolean cbo = getBoolean(querySpecificConfig, CompilerProperties.COMPILER_CBO_KEY, compilerProperties.isCbo());
 
         PhysicalOptimizationConfig physOptConf = new PhysicalOptimizationConfig();
         physOptConf.setFrameSize(frameSize);
@@ -98,6 +103,9 @@ public class OptimizationConfUtil {
         physOptConf.setArrayIndexEnabled(arrayIndex);
         physOptConf.setExternalScanBufferSize(externalScanBufferSize);
         physOptConf.setBatchLookup(batchLookup);
+        physOptConf.setVectorizedEvaluation(vectorizedEvaluation);
+        physOptConf.setRuntimeJoinFilter(runtimeJoinFilter);
+        physOptConf.setCbo(cbo);
         return physOptConf;
     }
 
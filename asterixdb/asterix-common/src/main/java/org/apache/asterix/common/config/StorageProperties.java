@@ -46,6 +46,7 @@ public class StorageProperties extends AbstractProperties {
         // By default, uses 1/4 of the maximum heap size for read cache, i.e., disk buffer cache.
         STORAGE_BUFFERCACHE_SIZE(LONG_BYTE_UNIT, MAX_HEAP_BYTES / 4),
         STORAGE_BUFFERCACHE_MAXOPENFILES(NONNEGATIVE_INTEGER, Integer.MAX_VALUE),
+        STORAGE_BUFFERCACHE_REPLACEMENT(STRING, "clock"),
         STORAGE_MEMORYCOMPONENT_GLOBALBUDGET(LONG_BYTE_UNIT, MAX_HEAP_BYTES / 4),
         STORAGE_MEMORYCOMPONENT_PAGESIZE(INTEGER_BYTE_UNIT, StorageUtil.getIntSizeInBytes(128, KILOBYTE)),
         STORAGE_MEMORYCOMPONENT_NUMCOMPONENTS(POSITIVE_INTEGER, 2),
@@ -53,10 +54,15 @@ public class StorageProperties extends AbstractProperties {
         STORAGE_MEMORYCOMPONENT_MAX_SCHEDULED_FLUSHES(NONNEGATIVE_INTEGER, 0),
         STORAGE_FILTERED_MEMORYCOMPONENT_MAX_SIZE(LONG_BYTE_UNIT, 0L),
         STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE(DOUBLE, 0.01d),
+        STORAGE_LSM_STATISTICS(BOOLEAN, false),
+        STORAGE_LSM_COMPRESSED_INVERTEDLISTS(BOOLEAN, false),
         STORAGE_COMPRESSION_BLOCK(STRING, "snappy"),
         STORAGE_DISK_FORCE_BYTES(LONG_BYTE_UNIT, StorageUtil.getLongSizeInBytes(16, MEGABYTE)),
         STORAGE_IO_SCHEDULER(STRING, "greedy"),
         STORAGE_WRITE_RATE_LIMIT(LONG_BYTE_UNIT, 0l),
+        STORAGE_WRITE_RATE_QUERY_RESERVE(DOUBLE, 0d),
+        STORAGE_WRITE_RATE_FLUSH_SHARE(DOUBLE, 0.5d),
+        STORAGE_MERGE_PARALLELISM(POSITIVE_INTEGER, 1),
         STORAGE_MAX_CONCURRENT_FLUSHES_PER_PARTITION(NONNEGATIVE_INTEGER, 2),
         STORAGE_MAX_SCHEDULED_MERGES_PER_PARTITION(NONNEGATIVE_INTEGER, 8),
         STORAGE_MAX_CONCURRENT_MERGES_PER_PARTITION(NONNEGATIVE_INTEGER, 2),
@@ -76,6 +82,8 @@ public class StorageProperties extends AbstractProperties {
             switch (this) {
                 case STORAGE_COMPRESSION_BLOCK:
                 case STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE:
+                case STORAGE_LSM_STATISTICS:
+                case STORAGE_LSM_COMPRESSED_INVERTEDLISTS:
                 case STORAGE_GLOBAL_CLEANUP:
                 case STORAGE_GLOBAL_CLEANUP_TIMEOUT:
                     return Section.COMMON;
@@ -94,6 +102,9 @@ public class StorageProperties extends AbstractProperties {
                             + " of the buffer cache page size.";
                 case STORAGE_BUFFERCACHE_MAXOPENFILES:
                     return "The maximum number of open files in the buffer cache";
+                case STORAGE_BUFFERCACHE_REPLACEMENT:
+                    return "The page replacement policy of the buffer cache: clock or hotcold (a scan resistant clock "
+                            + "that only caches pages for long once they are accessed repeatedly)";
                 case STORAGE_MEMORYCOMPONENT_GLOBALBUDGET:
                     return "The size of memory allocated to the memory components.  The value should be a multiple "
                             + "of the memory component page size";
@@ -111,10 +122,25 @@ public class StorageProperties extends AbstractProperties {
                             + "does not have a maximum size";
                 case STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE:
                     return "The maximum acceptable false positive rate for bloom filters associated with LSM indexes";
+                case STORAGE_LSM_STATISTICS:
+                    return "Enable/disable collecting the statistics (cardinality, distinct keys and histograms) of "
+                            + "newly created B-tree indexes in every disk component for cost-based optimization";
+                case STORAGE_LSM_COMPRESSED_INVERTEDLISTS:
+                    return "Enable/disable storing the inverted lists of newly created inverted indexes with "
+                            + "fixed-size primary keys as delta encoded, bit-packed blocks";
                 case STORAGE_COMPRESSION_BLOCK:
                     return "The default compression scheme for the storage";
                 case STORAGE_WRITE_RATE_LIMIT:
                     return "The maximum disk write rate (bytes/s) for each storage partition (disabled if the provided value <= 0)";
+                case STORAGE_WRITE_RATE_QUERY_RESERVE:
+                    return "The fraction of the write rate limit of each storage partition that is not used by flushes "
+                            + "and merges, leaving disk bandwidth to queries";
+                case STORAGE_WRITE_RATE_FLUSH_SHARE:
+                    return "The fraction of the write rate of flushes and merges that is guaranteed to flushes, the rest "
+                            + "being guaranteed to merges";
+                case STORAGE_MERGE_PARALLELISM:
+                    return "The number of key ranges of a large B-tree merge that are merged concurrently (1 disables "
+                            + "partitioned merges)";
                 case STORAGE_DISK_FORCE_BYTES:
                     return "The number of bytes before each disk force (fsync)";
                 case STORAGE_IO_SCHEDULER:
@@ -199,6 +225,14 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getDouble(Option.STORAGE_LSM_BLOOMFILTER_FALSEPOSITIVERATE);
     }
 
+    public boolean isStatisticsEnabled() {
+        return accessor.getBoolean(Option.STORAGE_LSM_STATISTICS);
+    }
+
+    public boolean isCompressedInvertedListsEnabled() {
+        return accessor.getBoolean(Option.STORAGE_LSM_COMPRESSED_INVERTEDLISTS);
+    }
+
     public int getBufferCacheNumPages() {
         return (int) (getBufferCacheSize() / (getBufferCachePageSize() + IBufferCache.RESERVED_HEADER_BYTES));
     }
@@ -223,6 +257,10 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getString(Option.STORAGE_COMPRESSION_BLOCK);
     }
 
+    public String getBufferCacheReplacement() {
+        return accessor.getString(Option.STORAGE_BUFFERCACHE_REPLACEMENT);
+    }
+
     public String getIoScheduler() {
         return accessor.getString(Option.STORAGE_IO_SCHEDULER);
     }
@@ -262,6 +300,18 @@ public class StorageProperties extends AbstractProperties {
         return accessor.getLong(Option.STORAGE_WRITE_RATE_LIMIT);
     }
 
+    public double getWriteRateQueryReserve() {
+        return accessor.getDouble(Option.STORAGE_WRITE_RATE_QUERY_RESERVE);
+    }
+
+    public double getWriteRateFlushShare() {
+        return accessor.getDouble(Option.STORAGE_WRITE_RATE_FLUSH_SHARE);
+    }
+
+    public int getMergeParallelism() {
+        return accessor.getInt(Option.STORAGE_MERGE_PARALLELISM);
+    }
+
     public int getDiskForcePages() {
         return (int) (accessor.getLong(Option.STORAGE_DISK_FORCE_BYTES) / getBufferCachePageSize());
     }
@@ -65,6 +65,11 @@ public class TransactionProperties extends AbstractProperties {
                 "The frequency (in seconds) the checkpoint thread should check to see if a checkpoint should be "
                         + "written"),
         TXN_LOG_CHECKPOINT_HISTORY(NONNEGATIVE_INTEGER, 2, "The number of checkpoints to keep in the transaction log"),
+        TXN_LOG_GROUPCOMMIT_WINDOW(
+                NONNEGATIVE_INTEGER,
+                0,
+                "The maximum time (in microseconds) the log flusher waits for more log records before forcing a "
+                        + "partially filled log page to disk"),
         TXN_LOCK_ESCALATIONTHRESHOLD(
                 NONNEGATIVE_INTEGER,
                 1000,
@@ -153,6 +158,10 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getTransactionLogDirs();
     }
 
+    public String[] getLogStripeDirectories(String nodeId) {
+        return accessor.getTransactionLogStripeDirs().getOrDefault(nodeId, new String[0]);
+    }
+
     public int getLogBufferNumPages() {
         return accessor.getInt(Option.TXN_LOG_BUFFER_NUMPAGES);
     }
@@ -177,6 +186,10 @@ public class TransactionProperties extends AbstractProperties {
         return accessor.getInt(Option.TXN_LOG_CHECKPOINT_HISTORY);
     }
 
+    public int getLogGroupCommitWindow() {
+        return accessor.getInt(Option.TXN_LOG_GROUPCOMMIT_WINDOW);
+    }
+
     public int getEntityToDatasetLockEscalationThreshold() {
         return accessor.getInt(Option.TXN_LOCK_ESCALATIONTHRESHOLD);
     }
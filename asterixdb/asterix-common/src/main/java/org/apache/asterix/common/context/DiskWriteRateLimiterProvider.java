@@ -24,29 +24,37 @@ import java.util.Map;
 
 import org.apache.asterix.common.api.IDiskWriteRateLimiterProvider;
 import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.StorageProperties;
 import org.apache.asterix.common.utils.StoragePathUtil;
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.impls.IoBandwidthAllocator;
 import org.apache.hyracks.storage.common.IResource;
 import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
-import org.apache.hyracks.storage.common.buffercache.SleepRateLimiter;
+import org.apache.hyracks.storage.common.buffercache.NoOpRateLimiter;
 
 public class DiskWriteRateLimiterProvider implements IDiskWriteRateLimiterProvider {
-    // stores the write rate limiter for each NC partition
-    private final Map<Integer, IRateLimiter> limiters = new HashMap<>();
+    // stores the write bandwidth allocator for each NC partition
+    private final Map<Integer, IoBandwidthAllocator> allocators = new HashMap<>();
 
     @Override
-    public synchronized IRateLimiter getRateLimiter(INCServiceContext serviceCtx, IResource resource)
-            throws HyracksDataException {
+    public synchronized IRateLimiter getRateLimiter(INCServiceContext serviceCtx, IResource resource,
+            LSMIOOperationType ioOperationType) throws HyracksDataException {
+        INcApplicationContext appCtx = (INcApplicationContext) serviceCtx.getApplicationContext();
+        StorageProperties storageProperties = appCtx.getStorageProperties();
+        long writeRateLimit = storageProperties.getWriteRateLimit();
+        if (writeRateLimit <= 0) {
+            return NoOpRateLimiter.INSTANCE;
+        }
         int partition = StoragePathUtil.getPartitionNumFromRelativePath(resource.getPath());
-        IRateLimiter limiter = limiters.get(partition);
-        if (limiter == null) {
-            INcApplicationContext appCtx = (INcApplicationContext) serviceCtx.getApplicationContext();
-            long writeRateLimit = appCtx.getStorageProperties().getWriteRateLimit();
-            limiter = SleepRateLimiter.create(writeRateLimit);
-            limiters.put(partition, limiter);
+        IoBandwidthAllocator allocator = allocators.get(partition);
+        if (allocator == null) {
+            allocator = new IoBandwidthAllocator(writeRateLimit, storageProperties.getWriteRateQueryReserve(),
+                    storageProperties.getWriteRateFlushShare());
+            allocators.put(partition, allocator);
         }
-        return limiter;
+        return allocator.getRateLimiter(ioOperationType);
     }
 
 }
@@ -34,6 +34,7 @@ import org.apache.asterix.common.metadata.IMetadataBootstrap;
 import org.apache.asterix.common.metadata.IMetadataLockUtil;
 import org.apache.asterix.common.replication.INcLifecycleCoordinator;
 import org.apache.asterix.common.storage.ICompressionManager;
+import org.apache.asterix.common.storage.IStatisticsManager;
 import org.apache.asterix.common.transactions.IResourceIdManager;
 import org.apache.asterix.common.transactions.ITxnIdFactory;
 import org.apache.hyracks.api.application.ICCServiceContext;
@@ -131,6 +132,11 @@ public interface ICcApplicationContext extends IApplicationContext {
      */
     ICompressionManager getCompressionManager();
 
+    /**
+     * @return the statistics manager
+     */
+    IStatisticsManager getStatisticsManager();
+
     /**
      * Gets the request tracker.
      *
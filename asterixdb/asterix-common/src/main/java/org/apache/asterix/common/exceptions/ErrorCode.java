@@ -264,6 +264,8 @@ public enum ErrorCode implements IError {
     COMPILATION_SET_OPERATION_ERROR(1171),
     INVALID_TIMEZONE(1172),
     INVALID_PARAM_VALUE_ALLOWED_VALUE(1173),
+    UNSUPPORTED_TYPE_FOR_HIVE_PARTITIONING(1174),
+    FULL_TEXT_SCORE_REQUIRES_INDEX_SEARCH(1175),
 
     // Feed errors
     DATAFLOW_ILLEGAL_STATE(3001),
@@ -381,6 +383,7 @@ public enum ErrorCode implements IError {
     PARSER_DATA_PARSER_UNEXPECTED_TOKEN(3120),
     REQUIRED_PARAM_OR_PARAM_IF_PARAM_IS_PRESENT(3121),
     PARAM_NOT_ALLOWED_IF_PARAM_IS_PRESENT(3122),
+    PARTITION_KEY_IS_DECLARED_FIELD(3123),
 
     // Lifecycle management errors
     DUPLICATE_PARTITION_ID(4000),
@@ -31,6 +31,7 @@ import java.util.Map;
 
 import org.apache.asterix.common.context.DatasetInfo;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IIndexStatisticsReporter;
 import org.apache.asterix.common.storage.ResourceReference;
 import org.apache.asterix.common.utils.StorageConstants;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -72,6 +73,7 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
     public static final long INVALID_LSN = -1L;
     private final ArrayBackedValueStorage buffer = new ArrayBackedValueStorage(Long.BYTES);
     private final IIndexCheckpointManagerProvider indexCheckpointManagerProvider;
+    private final IIndexStatisticsReporter statisticsReporter;
     protected final DatasetInfo dsInfo;
     protected final ILSMIndex lsmIndex;
     private long firstLsnForCurrentMemoryComponent = 0L;
@@ -81,9 +83,16 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
 
     public LSMIOOperationCallback(DatasetInfo dsInfo, ILSMIndex lsmIndex, ILSMComponentId componentId,
             IIndexCheckpointManagerProvider indexCheckpointManagerProvider) {
+        this(dsInfo, lsmIndex, componentId, indexCheckpointManagerProvider, null);
+    }
+
+    public LSMIOOperationCallback(DatasetInfo dsInfo, ILSMIndex lsmIndex, ILSMComponentId componentId,
+            IIndexCheckpointManagerProvider indexCheckpointManagerProvider,
+            IIndexStatisticsReporter statisticsReporter) {
         this.dsInfo = dsInfo;
         this.lsmIndex = lsmIndex;
         this.indexCheckpointManagerProvider = indexCheckpointManagerProvider;
+        this.statisticsReporter = statisticsReporter;
         componentIds.add(componentId);
     }
 
@@ -138,6 +147,10 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
         } else if (isMerge(operation)) {
             IoUtil.delete(getOperationMaskFilePath(operation));
         }
+        if (operation.getIOOpertionType() == LSMIOOperationType.LOAD) {
+            // a loaded component is added to the disk components after the load completes
+            reportStatistics(operation.getNewComponent());
+        }
     }
 
     private void addComponentToCheckpoint(ILSMIOOperation operation) throws HyracksDataException {
@@ -273,16 +286,29 @@ public class LSMIOOperationCallback implements ILSMIOOperationCallback {
     }
 
     @Override
-    public synchronized void completed(ILSMIOOperation operation) {
-        if (operation.getIOOpertionType() == LSMIOOperationType.FLUSH) {
-            pendingFlushes--;
-            if (operation.getStatus() == LSMIOOperationStatus.SUCCESS) {
-                Map<String, Object> map = operation.getAccessor().getOpContext().getParameters();
-                persistenceLsn =
-                        pendingFlushes == 0 ? firstLsnForCurrentMemoryComponent : (Long) map.get(KEY_FLUSH_LOG_LSN);
+    public void completed(ILSMIOOperation operation) {
+        synchronized (this) {
+            if (operation.getIOOpertionType() == LSMIOOperationType.FLUSH) {
+                pendingFlushes--;
+                if (operation.getStatus() == LSMIOOperationStatus.SUCCESS) {
+                    Map<String, Object> map = operation.getAccessor().getOpContext().getParameters();
+                    persistenceLsn = pendingFlushes == 0 ? firstLsnForCurrentMemoryComponent
+                            : (Long) map.get(KEY_FLUSH_LOG_LSN);
+                }
             }
+            dsInfo.undeclareActiveIOOperation(operation.getIOOpertionType());
+        }
+        if (operation.getStatus() == LSMIOOperationStatus.SUCCESS
+                && operation.getIOOpertionType() != LSMIOOperationType.LOAD) {
+            // the disk components of the index have been replaced by now
+            reportStatistics(null);
+        }
+    }
+
+    private void reportStatistics(ILSMDiskComponent newComponent) {
+        if (statisticsReporter != null && lsmIndex.getStatisticsFields() != null) {
+            statisticsReporter.report(dsInfo.getDatasetID(), lsmIndex, newComponent);
         }
-        dsInfo.undeclareActiveIOOperation(operation.getIOOpertionType());
     }
 
     public synchronized boolean hasPendingFlush() {
@@ -23,6 +23,7 @@ import org.apache.asterix.common.api.IDatasetInfoProvider;
 import org.apache.asterix.common.api.ILSMComponentIdGeneratorFactory;
 import org.apache.asterix.common.api.INcApplicationContext;
 import org.apache.asterix.common.storage.IIndexCheckpointManagerProvider;
+import org.apache.asterix.common.storage.IIndexStatisticsReporter;
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IJsonSerializable;
@@ -68,10 +69,14 @@ public class LSMIndexIOOperationCallbackFactory implements ILSMIOOperationCallba
         return ((INcApplicationContext) ncCtx.getApplicationContext()).getIndexCheckpointManagerProvider();
     }
 
+    protected IIndexStatisticsReporter getIndexStatisticsReporter() {
+        return ((INcApplicationContext) ncCtx.getApplicationContext()).getIndexStatisticsReporter();
+    }
+
     @Override
     public ILSMIOOperationCallback createIoOpCallback(ILSMIndex index) throws HyracksDataException {
         return new LSMIOOperationCallback(datasetInfoProvider.getDatasetInfo(ncCtx), index,
-                getComponentIdGenerator().getId(), getIndexCheckpointManagerProvider());
+                getComponentIdGenerator().getId(), getIndexCheckpointManagerProvider(), getIndexStatisticsReporter());
     }
 
     @Override
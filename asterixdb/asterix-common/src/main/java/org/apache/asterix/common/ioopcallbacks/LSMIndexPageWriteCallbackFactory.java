@@ -19,11 +19,13 @@
 
 package org.apache.asterix.common.ioopcallbacks;
 
+import org.apache.asterix.common.api.IDiskWriteRateLimiterProvider;
 import org.apache.asterix.common.api.INcApplicationContext;
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IJsonSerializable;
 import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMPageWriteCallbackFactory;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexPageWriteCallback;
 import org.apache.hyracks.storage.common.IResource;
@@ -41,6 +43,8 @@ public class LSMIndexPageWriteCallbackFactory implements ILSMPageWriteCallbackFa
 
     protected transient IRateLimiter rateLimiter;
 
+    protected transient IRateLimiter flushRateLimiter;
+
     public LSMIndexPageWriteCallbackFactory() {
     }
 
@@ -48,7 +52,9 @@ public class LSMIndexPageWriteCallbackFactory implements ILSMPageWriteCallbackFa
     public void initialize(INCServiceContext ncCtx, IResource resource) throws HyracksDataException {
         INcApplicationContext appCtx = (INcApplicationContext) ncCtx.getApplicationContext();
         pagesPerForce = appCtx.getStorageProperties().getDiskForcePages();
-        rateLimiter = appCtx.getDiskWriteRateLimiterProvider().getRateLimiter(ncCtx, resource);
+        IDiskWriteRateLimiterProvider rateLimiterProvider = appCtx.getDiskWriteRateLimiterProvider();
+        rateLimiter = rateLimiterProvider.getRateLimiter(ncCtx, resource, LSMIOOperationType.MERGE);
+        flushRateLimiter = rateLimiterProvider.getRateLimiter(ncCtx, resource, LSMIOOperationType.FLUSH);
     }
 
     @Override
@@ -56,6 +62,17 @@ public class LSMIndexPageWriteCallbackFactory implements ILSMPageWriteCallbackFa
         return new LSMIndexPageWriteCallback(rateLimiter, pagesPerForce);
     }
 
+    @Override
+    public IPageWriteCallback createPageWriteCallback(LSMIOOperationType ioOperationType)
+            throws HyracksDataException {
+        return new LSMIndexPageWriteCallback(getRateLimiter(ioOperationType), pagesPerForce);
+    }
+
+    @Override
+    public IRateLimiter getRateLimiter(LSMIOOperationType ioOperationType) {
+        return ioOperationType == LSMIOOperationType.FLUSH ? flushRateLimiter : rateLimiter;
+    }
+
     @Override
     public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
         final ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
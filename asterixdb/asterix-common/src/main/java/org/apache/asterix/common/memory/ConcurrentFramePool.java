@@ -46,11 +46,13 @@ public class ConcurrentFramePool {
     private final Map<Integer, ArrayDeque<ByteBuffer>> largeFramesPools;
     private int handedOut;
     private int created;
+    private int limit;
 
     public ConcurrentFramePool(String nodeId, long budgetInBytes, int frameSize) {
         this.nodeId = nodeId;
         this.defaultFrameSize = frameSize;
         this.budget = (int) (budgetInBytes / frameSize);
+        this.limit = budget;
         this.pool = new ArrayDeque<>(budget);
         this.largeFramesPools = new HashMap<>();
     }
@@ -72,7 +74,7 @@ public class ConcurrentFramePool {
     }
 
     private ByteBuffer doGet() {
-        if (handedOut < budget) {
+        if (handedOut < limit) {
             handedOut++;
             return allocate();
         }
@@ -83,8 +85,37 @@ public class ConcurrentFramePool {
         return null;
     }
 
-    public int remaining() {
-        return budget - handedOut;
+    public int getBudget() {
+        return budget;
+    }
+
+    public synchronized int remaining() {
+        return Math.max(0, limit - handedOut);
+    }
+
+    /**
+     * @return the number of frames that can currently be handed out. The limit never exceeds the budget.
+     */
+    public synchronized int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Shrinks or grows the number of frames that can be handed out without changing the budget of the pool. Frames
+     * that are already handed out are not reclaimed, a lower limit only blocks new allocations until enough frames are
+     * released. Growing the limit answers the waiting subscribers.
+     *
+     * @param limit
+     *            the new limit in frames. It is capped to [1, budget]
+     * @throws HyracksDataException
+     */
+    public synchronized void setLimit(int limit) throws HyracksDataException {
+        int newLimit = Math.max(1, Math.min(limit, budget));
+        boolean grown = newLimit > this.limit;
+        this.limit = newLimit;
+        if (grown) {
+            serveSubscribers();
+        }
     }
 
     private ByteBuffer doGet(int bufferSize) throws HyracksDataException {
@@ -96,7 +127,8 @@ public class ConcurrentFramePool {
         if (multiplier > budget) {
             throw new HyracksDataException(ERROR_LARGER_THAN_BUDGET_REQUEST);
         }
-        if (handedOut + multiplier <= budget) {
+        // a frame larger than the current limit is still handed out when the pool is otherwise idle
+        if (handedOut + multiplier <= Math.max(limit, handedOut == 0 ? multiplier : 0)) {
             handedOut += multiplier;
             ArrayDeque<ByteBuffer> largeFramesPool = largeFramesPools.get(multiplier);
             if (largeFramesPool == null || largeFramesPool.isEmpty()) {
@@ -175,7 +207,7 @@ public class ConcurrentFramePool {
     }
 
     public synchronized boolean get(Collection<ByteBuffer> buffers, int count) {
-        if (handedOut + count <= budget) {
+        if (handedOut + count <= limit) {
             handedOut += count;
             for (int i = 0; i < count; i++) {
                 buffers.add(allocate());
@@ -187,7 +219,7 @@ public class ConcurrentFramePool {
 
     @Override
     public String toString() {
-        return "ConcurrentFramePool  [" + nodeId + "]" + "(consumed:" + handedOut + "/" + budget + ")";
+        return "ConcurrentFramePool  [" + nodeId + "]" + "(consumed:" + handedOut + "/" + limit + "/" + budget + ")";
     }
 
     public synchronized void release(Collection<ByteBuffer> buffers) throws HyracksDataException {
@@ -212,7 +244,10 @@ public class ConcurrentFramePool {
             }
             largeFramesPool.push(buffer);
         }
-        // check subscribers
+        serveSubscribers();
+    }
+
+    private void serveSubscribers() throws HyracksDataException {
         while (!subscribers.isEmpty()) {
             FrameAction frameAction = subscribers.peek();
             ByteBuffer freeBuffer;
@@ -80,6 +80,15 @@ public interface IMetadataLock {
      */
     LockKey getKey();
 
+    /**
+     * Get the version of the locked entity. The version is advanced whenever the lock is acquired in a mode that
+     * allows the entity's metadata to change, so state derived from the entity under a read lock can be checked for
+     * staleness by comparing versions under a later read lock.
+     *
+     * @return the current version
+     */
+    long getVersion();
+
     /**
      * upgrade the lock
      *
@@ -100,6 +100,17 @@ public class LockList {
         pair.setRight(mode);
     }
 
+    /**
+     * @return the currently held locks, in acquisition order
+     */
+    public List<IMetadataLock> getLocks() {
+        List<IMetadataLock> result = new ArrayList<>(locks.size());
+        for (MutablePair<IMetadataLock, Mode> pair : locks) {
+            result.add(pair.getLeft());
+        }
+        return result;
+    }
+
     /**
      * Once unlock() is called, no caller can call add(IMetadataLock.Mode mode, IMetadataLock lock),
      * except that reset() is called.
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+
+/**
+ * Reports the statistics of an index partition to the {@link IStatisticsManager} of the cluster controller.
+ */
+public interface IIndexStatisticsReporter {
+
+    /**
+     * Reports the combined statistics of the disk components of the index. Failing to report is not an error of the
+     * operation that changed the disk components, so implementations must not throw.
+     *
+     * @param datasetId
+     *            the id of the dataset of the index
+     * @param index
+     *            the index
+     * @param newComponent
+     *            a component that is not part of the disk components of the index yet or {@code null}
+     */
+    void report(int datasetId, ILSMIndex index, ILSMDiskComponent newComponent);
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.common.storage;
+
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+
+/**
+ * The catalog of the statistics of the indexes that collect them, kept by the cluster controller. The statistics of
+ * every partition of an index are reported by the node controllers after each flush, merge and load of the partition.
+ * The catalog is not persisted: after a restart, the statistics of an index are unknown until its next report.
+ */
+public interface IStatisticsManager {
+
+    /**
+     * Replaces the statistics of a partition of an index
+     *
+     * @param datasetId
+     *            the id of the dataset of the index
+     * @param indexName
+     *            the name of the index
+     * @param partition
+     *            the storage partition
+     * @param statistics
+     *            the statistics of all the disk components of the partition
+     */
+    void update(int datasetId, String indexName, int partition, IndexStatistics statistics);
+
+    /**
+     * @return the statistics of all the reported partitions of an index or {@code null} if none was reported
+     */
+    IndexStatistics getStatistics(int datasetId, String indexName);
+
+    /**
+     * Discards the statistics of all the indexes of a dataset
+     */
+    void remove(int datasetId);
+}
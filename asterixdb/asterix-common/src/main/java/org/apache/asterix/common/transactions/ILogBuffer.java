@@ -23,7 +23,17 @@ import java.nio.channels.FileChannel;
 public interface ILogBuffer {
 
     /**
-     * append a log record
+     * reserve space for a log record. Reservations may be made concurrently by multiple threads.
+     *
+     * @param logSize
+     *            the size of the log record
+     * @return the lsn of the reserved space or a negative value if the buffer cannot fit the log record
+     */
+    long reserve(int logSize);
+
+    /**
+     * append a log record to space previously obtained through {@link #reserve(int)}. If the record cannot be
+     * written, the space is filled with a record that recovery skips and the failure is rethrown.
      *
      * @param logRecord
      *            the log record to be appended
@@ -45,7 +55,8 @@ public interface ILogBuffer {
     boolean hasSpace(int logSize);
 
     /**
-     * Set buffer to be full
+     * Set buffer to be full. No further space can be reserved and the call returns once all appends to
+     * previously reserved space are complete.
      */
     void setFull();
 
@@ -58,8 +69,21 @@ public interface ILogBuffer {
 
     /**
      * reset the buffer for re-use
+     *
+     * @param previousEndLsn
+     *            the lsn following the last byte of the preceding buffer. The content of this buffer is only
+     *            considered flushed once everything before previousEndLsn is flushed.
+     * @param firstLsn
+     *            the lsn of the first byte in the buffer
+     * @param capacity
+     *            the number of bytes that may be reserved in the buffer
+     */
+    void reset(long previousEndLsn, long firstLsn, int capacity);
+
+    /**
+     * @return the lsn following the last reserved byte in the buffer
      */
-    void reset();
+    long getAppendLSN();
 
     /**
      * stops the log buffer
@@ -19,6 +19,7 @@
 package org.apache.asterix.common.transactions;
 
 import java.io.Serializable;
+import java.util.Arrays;
 
 import org.apache.asterix.common.config.TransactionProperties;
 
@@ -32,6 +33,8 @@ public class LogManagerProperties implements Serializable {
     // follow the naming convention <logFilePrefix>_<number> where number starts from 0
     private final String logFilePrefix;
     private final String logDir;
+    // the log directory followed by the directories across which log files are striped
+    private final String[] logDirs;
 
     // number of log pages in the log buffer
     private final int logPageSize;
@@ -39,16 +42,28 @@ public class LogManagerProperties implements Serializable {
     private final int numLogPages;
     // maximum size of each log file
     private final long logPartitionSize;
+    // maximum time (in microseconds) to wait for more log records before forcing a partially filled page
+    private final int groupCommitWindow;
 
     public LogManagerProperties(TransactionProperties txnProperties, String nodeId) {
         this.logPageSize = txnProperties.getLogBufferPageSize();
         this.numLogPages = txnProperties.getLogBufferNumPages();
         long logPartitionSize = txnProperties.getLogPartitionSize();
+        this.groupCommitWindow = txnProperties.getLogGroupCommitWindow();
         this.logDir = txnProperties.getLogDirectory(nodeId);
+        final String[] stripeDirs = txnProperties.getLogStripeDirectories(nodeId);
+        this.logDirs = new String[stripeDirs.length + 1];
+        this.logDirs[0] = logDir;
+        System.arraycopy(stripeDirs, 0, logDirs, 1, stripeDirs.length);
         this.logFilePrefix = DEFAULT_LOG_FILE_PREFIX;
-        int logBufferSize = logPageSize * numLogPages;
-        //make sure that the log partition size is the multiple of log buffer size.
-        this.logPartitionSize = (logPartitionSize / logBufferSize) * logBufferSize;
+        if (logDirs.length > 1) {
+            // when striped, log files are made of whole pages so that consecutive pages can go to different stripes
+            this.logPartitionSize = Math.max((logPartitionSize / logPageSize) * logPageSize, logPageSize);
+        } else {
+            //make sure that the log partition size is the multiple of log buffer size.
+            int logBufferSize = logPageSize * numLogPages;
+            this.logPartitionSize = (logPartitionSize / logBufferSize) * logBufferSize;
+        }
     }
 
     public long getLogPartitionSize() {
@@ -63,6 +78,10 @@ public class LogManagerProperties implements Serializable {
         return logDir;
     }
 
+    public String[] getLogDirs() {
+        return logDirs;
+    }
+
     public int getLogPageSize() {
         return logPageSize;
     }
@@ -71,14 +90,20 @@ public class LogManagerProperties implements Serializable {
         return numLogPages;
     }
 
+    public int getGroupCommitWindow() {
+        return groupCommitWindow;
+    }
+
     @Override
     public String toString() {
         StringBuilder builder = new StringBuilder();
         builder.append("log_dir_ : " + logDir + lineSeparator);
+        builder.append("log_dirs : " + Arrays.toString(logDirs) + lineSeparator);
         builder.append("log_file_prefix" + logFilePrefix + lineSeparator);
         builder.append("log_page_size : " + logPageSize + lineSeparator);
         builder.append("num_log_pages : " + numLogPages + lineSeparator);
         builder.append("log_partition_size : " + logPartitionSize + lineSeparator);
+        builder.append("group_commit_window : " + groupCommitWindow + lineSeparator);
         return builder.toString();
     }
 }
@@ -197,6 +197,36 @@ public class LogRecord implements ILogRecord {
         buffer.putLong(checksum);
     }
 
+    /**
+     * Writes a record of exactly {@code size} bytes in place of a log record that could not be written to the space
+     * reserved for it. Fillers are remote records of no transaction, dataset or partition, so neither the log flusher
+     * nor recovery act on them.
+     *
+     * @throws IllegalArgumentException
+     *             if no log record has the given size
+     */
+    public static void writeFiller(ByteBuffer buffer, int size) {
+        final boolean wait = size == WAIT_LOG_SIZE;
+        if (!wait && size <= ENTITY_COMMIT_LOG_BASE_SIZE) {
+            throw new IllegalArgumentException("No log record has size " + size);
+        }
+        final int beginOffset = buffer.position();
+        buffer.put((byte) (V_CURRENT << 2 | LogSource.REMOTE));
+        buffer.put(wait ? LogType.WAIT : LogType.ENTITY_COMMIT);
+        buffer.putLong(-1);
+        if (!wait) {
+            final int pKValueSize = size - ENTITY_COMMIT_LOG_BASE_SIZE;
+            buffer.putInt(-1);
+            buffer.putInt(-1);
+            buffer.putInt(-1);
+            buffer.putInt(pKValueSize);
+            buffer.put(new byte[pKValueSize]);
+        }
+        final CRC32 checksumGen = new CRC32();
+        checksumGen.update(buffer.array(), beginOffset, size - CHKSUM_LEN);
+        buffer.putLong(checksumGen.getValue());
+    }
+
     @Override
     public void writeRemoteLogRecord(ByteBuffer buffer) {
         doWriteLogRecord(buffer);
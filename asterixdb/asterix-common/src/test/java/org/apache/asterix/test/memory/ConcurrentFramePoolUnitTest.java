@@ -394,6 +394,49 @@ public class ConcurrentFramePoolUnitTest extends TestCase {
         Assert.assertNull(cause);
     }
 
+    @org.junit.Test
+    public void testLimitMemoryManager() {
+        try {
+            ActiveProperties afp = Mockito.mock(ActiveProperties.class);
+            Mockito.when(afp.getMemoryComponentGlobalBudget()).thenReturn(FEED_MEM_BUDGET);
+            ConcurrentFramePool fmm =
+                    new ConcurrentFramePool("TestNode", afp.getMemoryComponentGlobalBudget(), DEFAULT_FRAME_SIZE);
+            LinkedBlockingDeque<ByteBuffer> buffers = new LinkedBlockingDeque<>();
+            // Shrink the pool to a quarter of its budget and consume it
+            fmm.setLimit(NUM_FRAMES / 4);
+            Assert.assertEquals(NUM_FRAMES / 4, fmm.getLimit());
+            ByteBuffer buffer = fmm.get();
+            while (buffer != null) {
+                buffers.put(buffer);
+                buffer = fmm.get();
+            }
+            Assert.assertEquals(NUM_FRAMES / 4, buffers.size());
+            Assert.assertEquals(0, fmm.remaining());
+            // Shrinking below the handed out frames doesn't reclaim them but blocks new allocations
+            fmm.setLimit(NUM_FRAMES / 8);
+            fmm.release(buffers.take());
+            Assert.assertEquals(0, fmm.remaining());
+            Assert.assertNull(fmm.get());
+            Assert.assertNull(fmm.get(2 * DEFAULT_FRAME_SIZE));
+            // Subscribe and grow the limit. The subscriber should be answered right away
+            FrameAction frameAction = new FrameAction();
+            frameAction.setFrame(ByteBuffer.allocate(DEFAULT_FRAME_SIZE));
+            Assert.assertEquals(true, fmm.subscribe(frameAction));
+            fmm.setLimit(NUM_FRAMES * 2);
+            Assert.assertEquals(NUM_FRAMES, fmm.getLimit());
+            Assert.assertEquals(true, fmm.getSubscribers().isEmpty());
+            buffers.put(frameAction.retrieve());
+            Assert.assertEquals(NUM_FRAMES - buffers.size(), fmm.remaining());
+            fmm.release(buffers);
+            Assert.assertEquals(NUM_FRAMES, fmm.remaining());
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail(th.getMessage());
+        } finally {
+            Assert.assertNull(cause);
+        }
+    }
+
     @org.junit.Test
     public void testgetWhileSubscribersExist() {
         try {
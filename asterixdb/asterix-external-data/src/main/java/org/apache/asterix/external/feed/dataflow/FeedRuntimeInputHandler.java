@@ -21,8 +21,11 @@ package org.apache.asterix.external.feed.dataflow;
 import java.nio.ByteBuffer;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
+import org.apache.asterix.active.ActiveManager;
 import org.apache.asterix.active.ActiveRuntimeId;
+import org.apache.asterix.active.IActiveIngestionBuffer;
 import org.apache.asterix.common.memory.ConcurrentFramePool;
 import org.apache.asterix.common.memory.FrameAction;
 import org.apache.asterix.external.feed.management.FeedConnectionId;
@@ -47,11 +50,19 @@ import org.apache.logging.log4j.Logger;
  * ^^^^^^^^^^^^|______|............
  * .Input Side.
  * ..Handler...
+ * When created with the {@link ActiveManager} of the node, the handler registers itself as an ingestion buffer
+ * for monitoring and samples the storage pressure of the manager on every frame, which resizes the shared frame
+ * pool whatever the mode of the handler. While frames are spilled, it also holds the intake back as long as the
+ * pressure is critical instead of adding spill I/O next to the pending flushes and merges.
  **/
-public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperatorNodePushable {
+public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperatorNodePushable
+        implements IActiveIngestionBuffer {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final double MAX_SPILL_USED_BEFORE_RESUME = 0.8;
+    private static final double MAX_STORAGE_PRESSURE_BEFORE_THROTTLE = 0.9;
+    private static final double MAX_STORAGE_PRESSURE_BEFORE_RESUME = 0.7;
+    private static final long THROTTLE_WAIT_MS = 10;
     private static final boolean DEBUG = false;
     private static final ByteBuffer POISON_PILL = ByteBuffer.allocate(0);
     private static final ByteBuffer SPILLED = ByteBuffer.allocate(0);
@@ -66,16 +77,32 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
     private final Thread consumerThread;
     private final BlockingQueue<ByteBuffer> inbox;
     private final ConcurrentFramePool framePool;
-    private Mode mode = Mode.PROCESS;
-    private int total = 0;
-    private int numDiscarded = 0;
-    private int numSpilled = 0;
-    private int numProcessedInMemory = 0;
-    private int numStalled = 0;
+    private final ActiveRuntimeId runtimeId;
+    private final ActiveManager activeManager;
+    private volatile Mode mode = Mode.PROCESS;
+    private volatile int total = 0;
+    private volatile int numDiscarded = 0;
+    private volatile int numSpilled = 0;
+    private volatile int numProcessedInMemory = 0;
+    private volatile int numStalled = 0;
+    private volatile int numThrottled = 0;
+    private volatile long throttledTime = 0;
+
+    public FeedRuntimeInputHandler(IHyracksTaskContext ctx, FeedConnectionId connectionId, ActiveRuntimeId runtimeId,
+            IFrameWriter writer, FeedPolicyAccessor fpa, FrameTupleAccessor fta, ActiveManager activeManager)
+            throws HyracksDataException {
+        this(ctx, connectionId, runtimeId, writer, fpa, fta, activeManager.getFramePool(), activeManager);
+    }
 
     public FeedRuntimeInputHandler(IHyracksTaskContext ctx, FeedConnectionId connectionId, ActiveRuntimeId runtimeId,
             IFrameWriter writer, FeedPolicyAccessor fpa, FrameTupleAccessor fta, ConcurrentFramePool framePool)
             throws HyracksDataException {
+        this(ctx, connectionId, runtimeId, writer, fpa, fta, framePool, null);
+    }
+
+    private FeedRuntimeInputHandler(IHyracksTaskContext ctx, FeedConnectionId connectionId,
+            ActiveRuntimeId runtimeId, IFrameWriter writer, FeedPolicyAccessor fpa, FrameTupleAccessor fta,
+            ConcurrentFramePool framePool, ActiveManager activeManager) throws HyracksDataException {
         this.writer = writer;
         this.spiller = fpa.spillToDiskOnCongestion() ? new FrameSpiller(ctx,
                 connectionId.getFeedId() + "_" + connectionId.getDatasetName() + "_" + runtimeId.getPartition(),
@@ -88,12 +115,17 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         this.consumerThread = new Thread(consumer, "FeedRuntimeInputHandler-FrameTransporter");
         this.initialFrameSize = ctx.getInitialFrameSize();
         this.frameAction = new FrameAction();
+        this.runtimeId = runtimeId;
+        this.activeManager = activeManager;
     }
 
     @Override
     public void open() throws HyracksDataException {
         writer.open();
         consumerThread.start();
+        if (activeManager != null) {
+            activeManager.registerIngestionBuffer(this);
+        }
     }
 
     @Override
@@ -133,6 +165,9 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         } catch (Throwable th) {
             LOGGER.log(Level.WARN, "exception closing spiller", th);
         } finally {
+            if (activeManager != null) {
+                activeManager.deregisterIngestionBuffer(runtimeId);
+            }
             writer.close();
         }
     }
@@ -147,6 +182,13 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
             if (DEBUG) {
                 LOGGER.info("nextFrame() called. inputHandler is in mode: " + mode.toString());
             }
+            if (activeManager != null) {
+                // sampling the pressure resizes the frame pool in every mode, not only while frames are spilled
+                double storagePressure = activeManager.getStoragePressure();
+                if (mode == Mode.SPILL && storagePressure >= MAX_STORAGE_PRESSURE_BEFORE_THROTTLE) {
+                    throttle();
+                }
+            }
             switch (mode) {
                 case PROCESS:
                     process(frame);
@@ -295,6 +337,21 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         }
     }
 
+    private void throttle() throws HyracksDataException, InterruptedException {
+        if (DEBUG) {
+            LOGGER.info("in throttle(). Storage pressure is critical. We will wait for the spilled frames to drain");
+        }
+        numThrottled++;
+        long start = System.nanoTime();
+        synchronized (spiller) {
+            while (consumer.cause() == null && !spiller.switchToMemory()
+                    && activeManager.getStoragePressure() > MAX_STORAGE_PRESSURE_BEFORE_RESUME) {
+                spiller.wait(THROTTLE_WAIT_MS);
+            }
+        }
+        throttledTime += System.nanoTime() - start;
+    }
+
     private void process(ByteBuffer frame) throws HyracksDataException, InterruptedException {
         // Get a page from frame pool
         ByteBuffer next = (frame.capacity() <= framePool.getMaxFrameSize()) ? getFreeBuffer(frame.capacity()) : null;
@@ -363,9 +420,40 @@ public class FeedRuntimeInputHandler extends AbstractUnaryInputUnaryOutputOperat
         return numStalled;
     }
 
+    public int getNumThrottled() {
+        return numThrottled;
+    }
+
+    @Override
+    public ActiveRuntimeId getRuntimeId() {
+        return runtimeId;
+    }
+
+    @Override
+    public String getStats() {
+        // frames that were accepted and not yet pushed to the next operator
+        int lag = total - numDiscarded - consumer.consumed;
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"mode\": \"").append(mode).append("\", \"total-frames\": ").append(total)
+                .append(", \"lag-frames\": ").append(Math.max(0, lag))
+                .append(", \"processed-in-memory-frames\": ").append(numProcessedInMemory)
+                .append(", \"spilled-frames\": ").append(numSpilled)
+                .append(", \"discarded-frames\": ").append(numDiscarded)
+                .append(", \"stalled-frames\": ").append(numStalled)
+                .append(", \"throttled-frames\": ").append(numThrottled)
+                .append(", \"throttled-time-ms\": ").append(TimeUnit.NANOSECONDS.toMillis(throttledTime));
+        if (spiller != null) {
+            sb.append(", \"spill-pending-frames\": ").append(spiller.remaining())
+                    .append(", \"spill-used-budget\": ").append(spiller.usedBudget())
+                    .append(", \"spill-bytes\": ").append(spiller.getSpilledBytes())
+                    .append(", \"spill-frame-bytes\": ").append(spiller.getSpilledFrameBytes());
+        }
+        return sb.append('}').toString();
+    }
+
     private class FrameTransporter implements Runnable {
         private volatile Throwable cause;
-        private int consumed = 0;
+        private volatile int consumed = 0;
 
         public Throwable cause() {
             return cause;
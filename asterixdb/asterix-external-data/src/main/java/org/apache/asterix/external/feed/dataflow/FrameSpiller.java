@@ -18,20 +18,21 @@
  */
 package org.apache.asterix.external.feed.dataflow;
 
-import java.io.BufferedInputStream;
-import java.io.BufferedOutputStream;
 import java.io.File;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.RandomAccessFile;
 import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.util.ArrayDeque;
 
 import org.apache.asterix.common.utils.StoragePathUtil;
 import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.compression.ICompressorDecompressor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.compression.SnappyCompressorDecompressorFactory;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
@@ -41,25 +42,33 @@ import org.apache.logging.log4j.Logger;
  * cannot process incoming data at its arrival rate. The maximum size of data (tuples) that can be spilled to disk is
  * configured using the property
  * "max.spill.size.on.disk"
+ * <p>
+ * Frames are compressed and appended to segment files of {@link #FRAMES_PER_FILE} frames each as
+ * [compressed length][frame size][compressed frame]. Once a segment is full, it is sealed and replayed from a
+ * read-only memory mapping. Frames are replayed strictly in the order they were spilled. The writer and the reader
+ * only synchronize to exchange the segment bookkeeping, the I/O and the (de)compression of a frame happen outside of
+ * the lock so that replaying does not block spilling.
  */
 public class FrameSpiller {
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int FRAMES_PER_FILE = 1024;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES;
     public static final double MAX_SPILL_USED_BEFORE_RESUME = 0.8;
 
     private final String fileNamePrefix;
-    private final ArrayDeque<File> files = new ArrayDeque<>();
+    private final ArrayDeque<Segment> segments = new ArrayDeque<>(); // Segments that were not fully read yet
     private final VSizeFrame frame;
     private final int budget; // Max current frames in disk allowed
-    private BufferedOutputStream bos; // Current output stream
-    private BufferedInputStream bis; // Current input stream
-    private File currentWriteFile; // Current write file
-    private File currentReadFile; // Current read file
-    private int currentWriteCount = 0; // Current file write count
-    private int currentReadCount = 0; // Current file read count
-    private int totalWriteCount = 0; // Total frames spilled
-    private int totalReadCount = 0; // Total frames read
+    private final ICompressorDecompressor compressor;
+    private final ByteBuffer readHeader = ByteBuffer.allocate(HEADER_SIZE);
+    private ByteBuffer writeBuffer; // Compressed frame to be written
+    private ByteBuffer readBuffer; // Compressed frame to be read
+    private Segment writeSegment; // Current write segment
+    private volatile int totalWriteCount = 0; // Total frames spilled
+    private volatile int totalReadCount = 0; // Total frames read
     private int fileCount = 0; // How many spill files?
+    private long spilledBytes = 0; // Total compressed bytes spilled
+    private long spilledFrameBytes = 0; // Total uncompressed bytes spilled
 
     public FrameSpiller(IHyracksTaskContext ctx, String fileNamePrefix, long budgetInBytes)
             throws HyracksDataException {
@@ -69,14 +78,15 @@ public class FrameSpiller {
         if (budget <= 0) {
             throw new HyracksDataException("Invalid budget " + budgetInBytes + ". Budget must be larger than 0");
         }
+        this.compressor = new SnappyCompressorDecompressorFactory().createInstance();
+        this.writeBuffer = allocateCompressedBuffer(ctx.getInitialFrameSize());
+        this.readBuffer = ByteBuffer.allocate(writeBuffer.capacity());
     }
 
-    public void open() throws HyracksDataException {
+    public synchronized void open() throws HyracksDataException {
         try {
-            this.currentWriteFile = StoragePathUtil.createFile(fileNamePrefix, fileCount++);
-            this.currentReadFile = currentWriteFile;
-            this.bos = new BufferedOutputStream(new FileOutputStream(currentWriteFile));
-            this.bis = new BufferedInputStream(new FileInputStream(currentReadFile));
+            writeSegment = new Segment(StoragePathUtil.createFile(fileNamePrefix, fileCount++));
+            segments.add(writeSegment);
         } catch (Exception e) {
             LOGGER.fatal("Unable to create spill file", e);
             throw HyracksDataException.create(e);
@@ -91,44 +101,53 @@ public class FrameSpiller {
         return totalWriteCount - totalReadCount;
     }
 
-    public synchronized ByteBuffer next() throws HyracksDataException {
+    public ByteBuffer next() throws HyracksDataException {
         frame.reset();
-        if (totalReadCount == totalWriteCount) {
-            return null;
+        Segment segment;
+        boolean sealed;
+        synchronized (this) {
+            if (totalReadCount == totalWriteCount || segments.isEmpty()) {
+                return null;
+            }
+            segment = segments.peek();
+            while (segment != writeSegment && segment.readCount == segment.frameCount) {
+                // the segment was sealed after its last frame was read
+                segments.pop().delete();
+                segment = segments.peek();
+            }
+            sealed = segment != writeSegment;
         }
         try {
-            if (currentReadFile == null) {
-                if (!files.isEmpty()) {
-                    currentReadFile = files.pop();
-                    bis = new BufferedInputStream(new FileInputStream(currentReadFile));
-                } else {
-                    return null;
-                }
+            // the record was fully written before it was counted, the rest happens outside of the lock
+            ByteBuffer source = sealed ? segment.map() : null;
+            readHeader.clear();
+            read(segment, source, readHeader, HEADER_SIZE);
+            int compressedLength = readHeader.getInt(0);
+            int frameSize = readHeader.getInt(Integer.BYTES);
+            if (readBuffer.capacity() < compressedLength) {
+                readBuffer = ByteBuffer.allocate(compressedLength);
             }
-            // read first frame
-            bis.read(frame.getBuffer().array(), 0, frame.getFrameSize());
-            byte frameCount = frame.getBuffer().array()[0];
-            if (frameCount > 1) {
-                // expand the frame keeping existing data
-                frame.ensureFrameSize(frame.getMinSize() * frameCount);
-                bis.read(frame.getBuffer().array(), frame.getMinSize(), frame.getFrameSize() - frame.getMinSize());
-            }
-            currentReadCount++;
-            totalReadCount++;
-            if (currentReadCount >= FRAMES_PER_FILE) {
-                currentReadCount = 0;
+            readBuffer.clear();
+            read(segment, source, readBuffer, compressedLength);
+            readBuffer.flip();
+            frame.ensureFrameSize(frameSize);
+            ByteBuffer buffer = frame.getBuffer();
+            buffer.clear();
+            compressor.uncompress(readBuffer, buffer);
+            buffer.clear();
+            segment.readCount++;
+            if (sealed && segment.readCount == segment.frameCount) {
                 // done with the file
-                bis.close();
-                Files.delete(currentReadFile.toPath());
-                if (!files.isEmpty()) {
-                    currentReadFile = files.pop();
-                    bis = new BufferedInputStream(new FileInputStream(currentReadFile));
-                } else {
-                    currentReadFile = null;
+                synchronized (this) {
+                    segments.remove(segment);
                 }
+                segment.delete();
             }
-            return frame.getBuffer();
-        } catch (Exception e) {
+            synchronized (this) {
+                totalReadCount++;
+            }
+            return buffer;
+        } catch (IOException e) {
             throw HyracksDataException.create(e);
         } finally {
             synchronized (this) {
@@ -141,21 +160,46 @@ public class FrameSpiller {
         return (double) (totalWriteCount - totalReadCount) / (double) budget;
     }
 
+    /**
+     * @return the compressed size of all the frames spilled so far
+     */
+    public synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    /**
+     * @return the uncompressed size of all the frames spilled so far
+     */
+    public synchronized long getSpilledFrameBytes() {
+        return spilledFrameBytes;
+    }
+
     public synchronized boolean spill(ByteBuffer frame) throws HyracksDataException {
         try {
             if (totalWriteCount - totalReadCount >= budget) {
                 return false;
             }
-            currentWriteCount++;
+            int frameSize = frame.capacity();
+            int required = HEADER_SIZE + compressor.computeCompressedBufferSize(frameSize);
+            if (writeBuffer.capacity() < required) {
+                writeBuffer = ByteBuffer.allocate(required);
+            }
+            ByteBuffer uncompressed = frame.duplicate();
+            uncompressed.clear();
+            writeBuffer.clear();
+            writeBuffer.position(HEADER_SIZE);
+            compressor.compress(uncompressed, writeBuffer);
+            writeBuffer.putInt(0, writeBuffer.limit() - HEADER_SIZE);
+            writeBuffer.putInt(Integer.BYTES, frameSize);
+            writeBuffer.position(0);
+            writeSegment.append(writeBuffer);
+            spilledBytes += writeBuffer.limit();
+            spilledFrameBytes += frameSize;
             totalWriteCount++;
-            bos.write(frame.array());
-            bos.flush();
-            if (currentWriteCount >= FRAMES_PER_FILE) {
-                bos.close();
-                currentWriteCount = 0;
-                currentWriteFile = StoragePathUtil.createFile(fileNamePrefix, fileCount++);
-                files.add(currentWriteFile);
-                bos = new BufferedOutputStream(new FileOutputStream(currentWriteFile));
+            if (writeSegment.frameCount >= FRAMES_PER_FILE) {
+                // seal the segment, it will be read from a memory mapping
+                writeSegment = new Segment(StoragePathUtil.createFile(fileNamePrefix, fileCount++));
+                segments.add(writeSegment);
             }
             return true;
         } catch (IOException e) {
@@ -166,40 +210,81 @@ public class FrameSpiller {
 
     public synchronized void close() {
         // Do proper cleanup
-        if (bos != null) {
-            try {
-                bos.flush();
-                bos.close();
-            } catch (IOException e) {
-                LOGGER.warn(e.getMessage(), e);
+        while (!segments.isEmpty()) {
+            segments.pop().delete();
+        }
+        writeSegment = null;
+        totalWriteCount = 0;
+        totalReadCount = 0;
+    }
+
+    private ByteBuffer allocateCompressedBuffer(int frameSize) {
+        return ByteBuffer.allocate(HEADER_SIZE + compressor.computeCompressedBufferSize(frameSize));
+    }
+
+    private static void read(Segment segment, ByteBuffer source, ByteBuffer target, int length) throws IOException {
+        if (source != null) {
+            ByteBuffer slice = source.duplicate();
+            slice.position((int) segment.readPosition).limit((int) segment.readPosition + length);
+            target.put(slice);
+        } else {
+            int end = target.position() + length;
+            target.limit(end);
+            long position = segment.readPosition;
+            while (target.position() < end) {
+                int read = segment.channel.read(target, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of spill file " + segment.file);
+                }
+                position += read;
             }
         }
-        if (bis != null) {
-            try {
-                bis.close();
-            } catch (IOException e) {
-                LOGGER.warn(e.getMessage(), e);
+        segment.readPosition += length;
+    }
+
+    private static class Segment {
+        private final File file;
+        private final RandomAccessFile raf;
+        private final FileChannel channel;
+        private MappedByteBuffer mapped;
+        private long writePosition; // only accessed by the writer while holding the spiller's lock
+        private int frameCount; // only accessed by the writer while holding the spiller's lock
+        private long readPosition; // only accessed by the reader
+        private int readCount; // only accessed by the reader
+
+        Segment(File file) throws IOException {
+            this.file = file;
+            this.raf = new RandomAccessFile(file, "rw");
+            this.channel = raf.getChannel();
+        }
+
+        void append(ByteBuffer record) throws IOException {
+            while (record.hasRemaining()) {
+                writePosition += channel.write(record, writePosition);
             }
+            frameCount++;
         }
-        if (currentReadFile != null) {
+
+        MappedByteBuffer map() throws IOException {
+            if (mapped == null) {
+                mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, writePosition);
+            }
+            return mapped;
+        }
+
+        void delete() {
             try {
-                Files.deleteIfExists(currentReadFile.toPath());
-            } catch (Exception e) {
+                channel.close();
+                raf.close();
+            } catch (IOException e) {
                 LOGGER.warn(e.getMessage(), e);
             }
-            currentReadFile = null;
-        }
-        while (!files.isEmpty()) {
-            File file = files.pop();
+            mapped = null;
             try {
                 Files.deleteIfExists(file.toPath());
             } catch (Exception e) {
                 LOGGER.warn(e.getMessage(), e);
             }
         }
-        currentWriteCount = 0;
-        currentReadCount = 0;
-        totalWriteCount = 0;
-        totalReadCount = 0;
     }
 }
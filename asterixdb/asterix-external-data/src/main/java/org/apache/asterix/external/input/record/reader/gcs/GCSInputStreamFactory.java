@@ -36,6 +36,8 @@ import org.apache.asterix.external.api.AsterixInputStream;
 import org.apache.asterix.external.input.record.reader.abstracts.AbstractExternalInputStreamFactory;
 import org.apache.asterix.external.util.ExternalDataConstants;
 import org.apache.asterix.external.util.ExternalDataUtils;
+import org.apache.asterix.external.util.ExternalFileListingCache;
+import org.apache.asterix.external.util.HivePartitionUtils;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.api.application.IServiceContext;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
@@ -65,6 +67,24 @@ public class GCSInputStreamFactory extends AbstractExternalInputStreamFactory {
         // Ensure the validity of include/exclude
         ExternalDataUtils.validateIncludeExclude(configuration);
 
+        // Retrieve the objects (or reuse a cached listing)
+        List<Blob> filesOnly =
+                ExternalFileListingCache.INSTANCE.getFiles(configuration, () -> listFiles(configuration));
+
+        // Warn if no files are returned
+        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
+            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
+            warningCollector.warn(warning);
+        }
+
+        // Skip the objects of the partitions that do not satisfy the query's filter
+        filesOnly = HivePartitionUtils.prune(configuration, filesOnly, Blob::getName);
+
+        // Distribute work load amongst the partitions
+        distributeWorkLoad(filesOnly, getPartitionsCount());
+    }
+
+    private List<Blob> listFiles(Map<String, String> configuration) throws CompilationException {
         // Prepare to retrieve the objects
         List<Blob> filesOnly = new ArrayList<>();
         String container = configuration.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME);
@@ -82,15 +102,7 @@ public class GCSInputStreamFactory extends AbstractExternalInputStreamFactory {
         IncludeExcludeMatcher includeExcludeMatcher = getIncludeExcludeMatchers(configuration);
         collectAndFilterFiles(items, includeExcludeMatcher.getPredicate(), includeExcludeMatcher.getMatchersList(),
                 filesOnly);
-
-        // Warn if no files are returned
-        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
-            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
-            warningCollector.warn(warning);
-        }
-
-        // Distribute work load amongst the partitions
-        distributeWorkLoad(filesOnly, getPartitionsCount());
+        return filesOnly;
     }
 
     /**
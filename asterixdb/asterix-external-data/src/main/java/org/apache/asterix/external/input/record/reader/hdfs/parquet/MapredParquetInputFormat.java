@@ -23,8 +23,14 @@ import static java.util.Arrays.asList;
 import java.io.DataInput;
 import java.io.DataOutput;
 import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.FileSplit;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
@@ -33,10 +39,24 @@ import org.apache.hadoop.mapred.Reporter;
 import org.apache.hyracks.data.std.api.IValueReference;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.parquet.column.page.PageReadStore;
+import org.apache.parquet.filter2.compat.FilterCompat;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.format.converter.ParquetMetadataConverter;
+import org.apache.parquet.format.converter.ParquetMetadataConverter.MetadataFilter;
 import org.apache.parquet.hadoop.Footer;
+import org.apache.parquet.hadoop.ParquetFileReader;
 import org.apache.parquet.hadoop.ParquetInputFormat;
 import org.apache.parquet.hadoop.ParquetInputSplit;
-import org.apache.parquet.hadoop.ParquetRecordReader;
+import org.apache.parquet.hadoop.api.InitContext;
+import org.apache.parquet.hadoop.api.ReadSupport;
+import org.apache.parquet.hadoop.api.ReadSupport.ReadContext;
+import org.apache.parquet.hadoop.metadata.FileMetaData;
+import org.apache.parquet.hadoop.metadata.ParquetMetadata;
+import org.apache.parquet.io.ColumnIOFactory;
+import org.apache.parquet.io.MessageColumnIO;
+import org.apache.parquet.io.api.RecordMaterializer;
+import org.apache.parquet.schema.MessageType;
 
 /**
  * For the Original implementation, see {@code DeprecatedParquetInputFormat}
@@ -54,7 +74,7 @@ public class MapredParquetInputFormat extends org.apache.hadoop.mapred.FileInput
     @Override
     public RecordReader<Void, VoidPointable> getRecordReader(InputSplit split, JobConf job, Reporter reporter)
             throws IOException {
-        return new RecordReaderWrapper(split, job, reporter);
+        return new RecordReaderWrapper(split, job);
     }
 
     @Override
@@ -80,51 +100,72 @@ public class MapredParquetInputFormat extends org.apache.hadoop.mapred.FileInput
         return realInputFormat.getFooters(job, asList(super.listStatus(job)));
     }
 
+    /**
+     * Reads the records of a split. The split's footer is read once: it is used to translate the pushed down filter
+     * (see {@link ParquetFilterPredicateConverter}) against the file's schema and to read the split's row groups.
+     * Row groups and pages that cannot contain a matching record are skipped using the statistics, the dictionary
+     * pages, and the column and offset indexes. The remaining records are not filtered.
+     */
     private static class RecordReaderWrapper implements RecordReader<Void, VoidPointable> {
 
-        private final ParquetRecordReader<IValueReference> realReader;
+        private final ParquetFileReader fileReader;
+        private final MessageColumnIO columnIO;
+        private final RecordMaterializer<IValueReference> recordMaterializer;
         private final long splitLen; // for getPos()
+        private final long total;
 
         private final VoidPointable valueContainer;
 
-        private boolean firstRecord;
-        private boolean eof;
+        private org.apache.parquet.io.RecordReader<IValueReference> recordReader;
+        private long current;
+        private long totalLoaded;
 
-        public RecordReaderWrapper(InputSplit oldSplit, JobConf oldJobConf, Reporter reporter) throws IOException {
+        @SuppressWarnings("deprecation")
+        public RecordReaderWrapper(InputSplit oldSplit, JobConf oldJobConf) throws IOException {
             splitLen = oldSplit.getLength();
 
+            ParquetInputSplit split = toParquetSplit(oldSplit);
+            Path path = split.getPath();
+            long[] rowGroupOffsets = split.getRowGroupOffsets();
+            MetadataFilter metadataFilter = rowGroupOffsets != null ? ParquetMetadataConverter.offsets(rowGroupOffsets)
+                    : ParquetMetadataConverter.range(split.getStart(), split.getStart() + split.getLength());
+            ParquetMetadata footer = ParquetFileReader.readFooter(oldJobConf, path, metadataFilter);
+            FileMetaData fileMetaData = footer.getFileMetaData();
+            MessageType fileSchema = fileMetaData.getSchema();
+
+            Configuration readerConf = oldJobConf;
+            FilterPredicate filterPredicate =
+                    ParquetFilterPredicateConverter.getFilterPredicate(oldJobConf, path, fileSchema);
+            if (filterPredicate != null) {
+                //Parquet takes the row groups and pages filter from the configuration, which other readers can share
+                readerConf = new Configuration(oldJobConf);
+                ParquetInputFormat.setFilterPredicate(readerConf, filterPredicate);
+            }
+            fileReader = new ParquetFileReader(readerConf, path, footer);
+
             try {
-                realReader = new ParquetRecordReader<>(
-                        ParquetInputFormat.<IValueReference> getReadSupportInstance(oldJobConf),
-                        ParquetInputFormat.getFilter(oldJobConf));
-
-                if (oldSplit instanceof ParquetInputSplitWrapper) {
-                    realReader.initialize(((ParquetInputSplitWrapper) oldSplit).realSplit, oldJobConf, reporter);
-                } else if (oldSplit instanceof FileSplit) {
-                    realReader.initialize((FileSplit) oldSplit, oldJobConf, reporter);
-                } else {
-                    throw new IllegalArgumentException(
-                            "Invalid split (not a FileSplit or ParquetInputSplitWrapper): " + oldSplit);
-                }
-                valueContainer = new VoidPointable();
-                firstRecord = false;
-                eof = false;
-                // read once to gain access to key and value objects
-                if (realReader.nextKeyValue()) {
-                    firstRecord = true;
-                    valueContainer.set(realReader.getCurrentValue());
-
-                } else {
-                    eof = true;
-                }
-            } catch (InterruptedException e) {
-                throw new IOException(e);
+                //The read support reports its warnings through the job configuration
+                ReadSupport<IValueReference> readSupport = ParquetInputFormat.getReadSupportInstance(oldJobConf);
+                Map<String, String> keyValueMetaData = fileMetaData.getKeyValueMetaData();
+                ReadContext readContext =
+                        readSupport.init(new InitContext(oldJobConf, toSetMultiMap(keyValueMetaData), fileSchema));
+                MessageType requestedSchema = readContext.getRequestedSchema();
+                fileReader.setRequestedSchema(requestedSchema);
+                recordMaterializer = readSupport.prepareForRead(oldJobConf, keyValueMetaData, fileSchema, readContext);
+                boolean strictTypeChecking = oldJobConf.getBoolean(ParquetInputFormat.STRICT_TYPE_CHECKING, true);
+                columnIO = new ColumnIOFactory(fileMetaData.getCreatedBy()).getColumnIO(requestedSchema, fileSchema,
+                        strictTypeChecking);
+                total = fileReader.getFilteredRecordCount();
+            } catch (IOException | RuntimeException e) {
+                fileReader.close();
+                throw e;
             }
+            valueContainer = new VoidPointable();
         }
 
         @Override
         public void close() throws IOException {
-            realReader.close();
+            fileReader.close();
         }
 
         @Override
@@ -144,39 +185,58 @@ public class MapredParquetInputFormat extends org.apache.hadoop.mapred.FileInput
 
         @Override
         public float getProgress() throws IOException {
-            try {
-                return realReader.getProgress();
-            } catch (InterruptedException e) {
-                throw new IOException(e);
-            }
+            return total == 0 ? 1.0f : (float) current / total;
         }
 
         @Override
         public boolean next(Void key, VoidPointable value) throws IOException {
-            if (eof) {
+            if (current == total) {
                 return false;
             }
 
-            if (firstRecord) { // key & value are already read.
-                firstRecord = false;
-                value.set(valueContainer);
-                return true;
+            while (current == totalLoaded) {
+                PageReadStore pages = fileReader.readNextFilteredRowGroup();
+                if (pages == null) {
+                    throw new IOException("Expecting more rows but reached the last row group. Read " + current
+                            + " out of " + total);
+                }
+                recordReader = columnIO.getRecordReader(pages, recordMaterializer, FilterCompat.NOOP);
+                totalLoaded += pages.getRowCount();
+            }
+            IValueReference record = recordReader.read();
+            current++;
+            if (value != null) {
+                value.set(record);
+            }
+            return true;
+        }
+
+        private static ParquetInputSplit toParquetSplit(InputSplit split) throws IOException {
+            if (split instanceof ParquetInputSplitWrapper) {
+                return ((ParquetInputSplitWrapper) split).realSplit;
+            } else if (split instanceof FileSplit) {
+                return ParquetInputSplit.from((FileSplit) split);
             }
+            throw new IllegalArgumentException("Invalid split (not a FileSplit or ParquetInputSplitWrapper): " + split);
+        }
 
-            try {
-                if (realReader.nextKeyValue()) {
-                    if (value != null) {
-                        value.set(realReader.getCurrentValue());
-                    }
-                    return true;
-                }
-            } catch (InterruptedException e) {
-                throw new IOException(e);
+        private static Map<String, Set<String>> toSetMultiMap(Map<String, String> map) {
+            Map<String, Set<String>> setMultiMap = new HashMap<>();
+            for (Map.Entry<String, String> entry : map.entrySet()) {
+                setMultiMap.put(entry.getKey(), Collections.singleton(entry.getValue()));
             }
+            return setMultiMap;
+        }
+    }
 
-            eof = true; // strictly not required, just for consistency
-            return false;
+    /**
+     * @return the path of the split's file or null if unknown
+     */
+    static Path getPath(InputSplit split) {
+        if (split instanceof ParquetInputSplitWrapper) {
+            return ((ParquetInputSplitWrapper) split).realSplit.getPath();
         }
+        return split instanceof FileSplit ? ((FileSplit) split).getPath() : null;
     }
 
     public static boolean isTaskSideMetaData(JobConf job) {
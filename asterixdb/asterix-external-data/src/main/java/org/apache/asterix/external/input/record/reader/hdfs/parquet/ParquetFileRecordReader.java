@@ -19,10 +19,12 @@
 package org.apache.asterix.external.input.record.reader.hdfs.parquet;
 
 import java.io.IOException;
+import java.util.function.Supplier;
 
 import org.apache.asterix.external.input.record.ValueReferenceRecord;
 import org.apache.asterix.external.input.record.reader.hdfs.AbstractHDFSRecordReader;
 import org.apache.asterix.external.util.HDFSUtils;
+import org.apache.hadoop.fs.Path;
 import org.apache.hadoop.mapred.InputSplit;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hadoop.mapred.RecordReader;
@@ -36,11 +38,20 @@ import org.apache.hyracks.data.std.api.IValueReference;
  */
 public class ParquetFileRecordReader<V extends IValueReference> extends AbstractHDFSRecordReader<Void, V> {
     private final IWarningCollector warningCollector;
+    private final Supplier<String> dataSourceName;
+    private String currentPath;
 
     public ParquetFileRecordReader(boolean[] read, InputSplit[] inputSplits, String[] readSchedule, String nodeName,
             JobConf conf, IWarningCollector warningCollector) {
         super(read, inputSplits, readSchedule, nodeName, new ValueReferenceRecord<>(), conf);
         this.warningCollector = warningCollector;
+        dataSourceName = () -> currentPath;
+        currentPath = "";
+    }
+
+    @Override
+    public Supplier<String> getDataSourceName() {
+        return dataSourceName;
     }
 
     @Override
@@ -66,6 +77,8 @@ public class ParquetFileRecordReader<V extends IValueReference> extends Abstract
         if (value == null) {
             value = reader.createValue();
         }
+        Path path = MapredParquetInputFormat.getPath(inputSplits[splitIndex]);
+        currentPath = path == null ? "" : path.toString();
         return reader;
     }
 }
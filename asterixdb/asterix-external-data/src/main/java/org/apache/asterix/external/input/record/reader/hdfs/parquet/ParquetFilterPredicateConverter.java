@@ -0,0 +1,488 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.input.record.reader.hdfs.parquet;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.TimeZone;
+
+import org.apache.asterix.external.input.record.reader.hdfs.parquet.converter.primitve.PrimitiveConverterProvider;
+import org.apache.asterix.external.util.ExternalDataConstants.ParquetOptions;
+import org.apache.asterix.external.util.HDFSUtils;
+import org.apache.asterix.external.util.HivePartitionUtils;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate.Kind;
+import org.apache.hadoop.conf.Configuration;
+import org.apache.hadoop.fs.Path;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.filter2.predicate.FilterPredicate;
+import org.apache.parquet.filter2.predicate.Operators.Column;
+import org.apache.parquet.filter2.predicate.Operators.SupportsEqNotEq;
+import org.apache.parquet.filter2.predicate.Operators.SupportsLtGt;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.GroupType;
+import org.apache.parquet.schema.LogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.DateLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.IntLogicalTypeAnnotation;
+import org.apache.parquet.schema.LogicalTypeAnnotation.TimestampLogicalTypeAnnotation;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.PrimitiveType;
+import org.apache.parquet.schema.Type;
+
+/**
+ * Translates a pushed down {@link ExternalFilterPredicate} into a Parquet {@link FilterPredicate} for a specific
+ * file. Parquet uses the resulting predicate to skip row groups (using the footer's statistics and the dictionary
+ * pages) and pages (using the column and offset indexes) that cannot contain a matching record.
+ * <p>
+ * The translation is conservative: the resulting predicate must be satisfied by (at least) every value that satisfies
+ * the original SQL++ condition once converted to ADM (see {@link PrimitiveConverterProvider}). Any part of the
+ * condition that cannot be translated safely (e.g., unsupported types, repeated fields or lossy conversions) is
+ * considered to be always true.
+ */
+public class ParquetFilterPredicateConverter {
+    //Any long with an absolute value below this bound has an exact double representation
+    private static final long MAX_EXACT_DOUBLE_LONG = 1L << 53;
+    private static final long MICROS_PER_MILLIS = 1000L;
+    private static final long NANOS_PER_MILLIS = 1000000L;
+
+    private final MessageType schema;
+    private final int timeZoneOffset;
+    private final Set<String> partitionKeys;
+
+    ParquetFilterPredicateConverter(MessageType schema, int timeZoneOffset) {
+        this(schema, timeZoneOffset, Collections.emptySet());
+    }
+
+    /**
+     * @param partitionKeys the keys of the Hive-style partitions of the file. Their values are not read from the file
+     */
+    ParquetFilterPredicateConverter(MessageType schema, int timeZoneOffset, Set<String> partitionKeys) {
+        this.schema = schema;
+        this.timeZoneOffset = timeZoneOffset;
+        this.partitionKeys = partitionKeys;
+    }
+
+    /**
+     * Translate the pushed down filter against the schema of a Parquet file
+     *
+     * @param conf       job configuration
+     * @param path       the path of the Parquet file
+     * @param fileSchema the schema in the footer of the file
+     * @return the translated filter or null if no filter was pushed down or it cannot be (safely) translated
+     */
+    public static FilterPredicate getFilterPredicate(Configuration conf, Path path, MessageType fileSchema) {
+        ExternalFilterPredicate filterPredicate = HDFSUtils.getFilterPredicate(conf);
+        if (filterPredicate == null) {
+            return null;
+        }
+
+        String timeZoneId = conf.get(ParquetOptions.HADOOP_TIMEZONE, "");
+        int offset = timeZoneId.isEmpty() ? 0 : TimeZone.getTimeZone(timeZoneId).getRawOffset();
+        Set<String> partitionKeys = HDFSUtils.isHivePartitioned(conf)
+                ? HivePartitionUtils.getPartitionValues(path.toString()).keySet() : Collections.emptySet();
+        return new ParquetFilterPredicateConverter(fileSchema, offset, partitionKeys).convert(filterPredicate);
+    }
+
+    /**
+     * @param predicate pushed down filter
+     * @return the translated predicate or null if the filter cannot be (safely) translated
+     */
+    FilterPredicate convert(ExternalFilterPredicate predicate) {
+        switch (predicate.getKind()) {
+            case AND:
+                FilterPredicate conjunction = null;
+                for (ExternalFilterPredicate child : predicate.getChildren()) {
+                    FilterPredicate converted = convert(child);
+                    if (converted != null) {
+                        conjunction = conjunction == null ? converted : FilterApi.and(conjunction, converted);
+                    }
+                }
+                return conjunction;
+            case OR:
+                FilterPredicate disjunction = null;
+                for (ExternalFilterPredicate child : predicate.getChildren()) {
+                    FilterPredicate converted = convert(child);
+                    if (converted == null) {
+                        //One of the disjuncts is always true
+                        return null;
+                    }
+                    disjunction = disjunction == null ? converted : FilterApi.or(disjunction, converted);
+                }
+                return disjunction;
+            case IS_UNKNOWN:
+            case IS_KNOWN:
+                return convertNullCheck(predicate);
+            default:
+                return convertComparison(predicate);
+        }
+    }
+
+    private FilterPredicate convertNullCheck(ExternalFilterPredicate predicate) {
+        PrimitiveType type = getColumnType(predicate.getPath());
+        boolean isKnown = predicate.getKind() == Kind.IS_KNOWN;
+        String columnPath = String.join(".", predicate.getPath());
+        if (type == null) {
+            return null;
+        } else if (type == PrimitiveConverterProvider.MISSING) {
+            //All values are MISSING: IS_UNKNOWN is always true and IS_KNOWN is always false
+            return isKnown ? FilterApi.notEq(FilterApi.longColumn(columnPath), null) : null;
+        } else if (!isKnown && !isSupported(type)) {
+            //A non-null Parquet value could still be converted to NULL or MISSING (e.g., JSON strings)
+            return null;
+        }
+
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                return nullCheck(FilterApi.booleanColumn(columnPath), isKnown);
+            case INT32:
+                return nullCheck(FilterApi.intColumn(columnPath), isKnown);
+            case INT64:
+                return nullCheck(FilterApi.longColumn(columnPath), isKnown);
+            case FLOAT:
+                return nullCheck(FilterApi.floatColumn(columnPath), isKnown);
+            case DOUBLE:
+                return nullCheck(FilterApi.doubleColumn(columnPath), isKnown);
+            case BINARY:
+            case FIXED_LEN_BYTE_ARRAY:
+                return nullCheck(FilterApi.binaryColumn(columnPath), isKnown);
+            default:
+                return null;
+        }
+    }
+
+    private FilterPredicate convertComparison(ExternalFilterPredicate predicate) {
+        PrimitiveType type = getColumnType(predicate.getPath());
+        String columnPath = String.join(".", predicate.getPath());
+        if (type == null) {
+            return null;
+        } else if (type == PrimitiveConverterProvider.MISSING) {
+            //Comparing MISSING values is never true. Parquet considers a column that is not in the file as all nulls
+            return FilterApi.notEq(FilterApi.longColumn(columnPath), null);
+        }
+
+        Kind kind = predicate.getKind();
+        ATypeTag constantTypeTag = predicate.getConstantTypeTag();
+        Object constant = predicate.getConstant();
+        LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+                if (constantTypeTag != ATypeTag.BOOLEAN || kind != Kind.EQ && kind != Kind.NEQ) {
+                    return null;
+                }
+                return kind == Kind.EQ ? FilterApi.eq(FilterApi.booleanColumn(columnPath), (Boolean) constant)
+                        : FilterApi.notEq(FilterApi.booleanColumn(columnPath), (Boolean) constant);
+            case INT32:
+                if (logicalType instanceof DateLogicalTypeAnnotation) {
+                    return constantTypeTag == ATypeTag.DATE
+                            ? compare(kind, FilterApi.intColumn(columnPath), (Integer) constant) : null;
+                }
+                return isSignedInteger(logicalType) ? compareInteger(kind, columnPath, true, constantTypeTag, constant)
+                        : null;
+            case INT64:
+                if (logicalType instanceof TimestampLogicalTypeAnnotation) {
+                    return constantTypeTag == ATypeTag.DATETIME ? compareTimestamp(kind, columnPath,
+                            (TimestampLogicalTypeAnnotation) logicalType, (Long) constant) : null;
+                }
+                return isSignedInteger(logicalType) ? compareInteger(kind, columnPath, false, constantTypeTag, constant)
+                        : null;
+            case FLOAT:
+            case DOUBLE:
+                boolean isFloat = type.getPrimitiveTypeName() == PrimitiveType.PrimitiveTypeName.FLOAT;
+                return compareFloatingPoint(kind, columnPath, isFloat, constantTypeTag, constant);
+            case BINARY:
+                if (!isString(logicalType) || constantTypeTag != ATypeTag.STRING) {
+                    return null;
+                }
+                String value = (String) constant;
+                if (kind != Kind.EQ && kind != Kind.NEQ && !hasSameOrderInUTF8AndUTF16(value)) {
+                    return null;
+                }
+                return compare(kind, FilterApi.binaryColumn(columnPath), Binary.fromString(value));
+            default:
+                return null;
+        }
+    }
+
+    /**
+     * Find the type of a column
+     *
+     * @param path field names from the root
+     * @return the column's type, {@link PrimitiveConverterProvider#MISSING} if the field does not exist in the file,
+     * or null if the field is a partition key or not a non-repeated primitive reachable through non-repeated groups
+     */
+    private PrimitiveType getColumnType(List<String> path) {
+        if (partitionKeys.contains(path.get(0))) {
+            return null;
+        }
+        GroupType parent = schema;
+        for (int i = 0; i < path.size(); i++) {
+            String fieldName = path.get(i);
+            if (fieldName.indexOf('.') >= 0) {
+                //Filter column paths are dot-separated
+                return null;
+            } else if (!parent.containsField(fieldName)) {
+                return PrimitiveConverterProvider.MISSING;
+            }
+            Type type = parent.getType(fieldName);
+            if (type.isRepetition(Type.Repetition.REPEATED)) {
+                return null;
+            } else if (i == path.size() - 1) {
+                return type.isPrimitive() ? type.asPrimitiveType() : null;
+            } else if (type.isPrimitive() || type.getLogicalTypeAnnotation() != null) {
+                //Only objects can be accessed by field names
+                return null;
+            }
+            parent = type.asGroupType();
+        }
+        return null;
+    }
+
+    /**
+     * @return true if a non-null value of the given type is never converted to NULL or MISSING
+     */
+    private static boolean isSupported(PrimitiveType type) {
+        LogicalTypeAnnotation logicalType = type.getLogicalTypeAnnotation();
+        switch (type.getPrimitiveTypeName()) {
+            case BOOLEAN:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            case INT32:
+                return logicalType instanceof DateLogicalTypeAnnotation || isSignedInteger(logicalType);
+            case INT64:
+                return logicalType instanceof TimestampLogicalTypeAnnotation || isSignedInteger(logicalType);
+            case BINARY:
+                return isString(logicalType);
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isSignedInteger(LogicalTypeAnnotation logicalType) {
+        if (logicalType instanceof IntLogicalTypeAnnotation) {
+            return ((IntLogicalTypeAnnotation) logicalType).isSigned();
+        }
+        return logicalType == null;
+    }
+
+    private static boolean isString(LogicalTypeAnnotation logicalType) {
+        return logicalType == LogicalTypeAnnotation.stringType() || logicalType == LogicalTypeAnnotation.enumType();
+    }
+
+    /**
+     * Parquet compares strings as unsigned bytes (i.e., by code points) while SQL++ compares UTF-16 characters. Both
+     * orders agree when comparing against a string that has no character in the surrogates range or above.
+     */
+    private static boolean hasSameOrderInUTF8AndUTF16(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) >= Character.MIN_SURROGATE) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static FilterPredicate compareInteger(Kind kind, String columnPath, boolean int32,
+            ATypeTag constantTypeTag, Object constant) {
+        long value;
+        boolean exact;
+        if (constantTypeTag == ATypeTag.BIGINT) {
+            value = (Long) constant;
+            exact = true;
+        } else if (constantTypeTag == ATypeTag.DOUBLE) {
+            double doubleValue = (Double) constant;
+            if (Double.isNaN(doubleValue) || Math.abs(doubleValue) >= MAX_EXACT_DOUBLE_LONG) {
+                return null;
+            }
+            exact = Math.floor(doubleValue) == doubleValue;
+            value = (long) (kind == Kind.GT || kind == Kind.GE ? Math.ceil(doubleValue) : Math.floor(doubleValue));
+        } else {
+            return null;
+        }
+
+        long min = int32 ? Integer.MIN_VALUE : Long.MIN_VALUE;
+        long max = int32 ? Integer.MAX_VALUE : Long.MAX_VALUE;
+        switch (kind) {
+            case EQ:
+            case NEQ:
+                if (!exact || value < min || value > max) {
+                    return null;
+                }
+                return int32 ? compare(kind, FilterApi.intColumn(columnPath), (int) value)
+                        : compare(kind, FilterApi.longColumn(columnPath), value);
+            case LT:
+            case LE:
+                //Largest integer that satisfies the condition
+                if (kind == Kind.LT && exact) {
+                    if (value == Long.MIN_VALUE) {
+                        return null;
+                    }
+                    value--;
+                }
+                if (value < min || value >= max) {
+                    return null;
+                }
+                return int32 ? FilterApi.ltEq(FilterApi.intColumn(columnPath), (int) value)
+                        : FilterApi.ltEq(FilterApi.longColumn(columnPath), value);
+            case GT:
+            case GE:
+                //Smallest integer that satisfies the condition
+                if (kind == Kind.GT && exact) {
+                    if (value == Long.MAX_VALUE) {
+                        return null;
+                    }
+                    value++;
+                }
+                if (value <= min || value > max) {
+                    return null;
+                }
+                return int32 ? FilterApi.gtEq(FilterApi.intColumn(columnPath), (int) value)
+                        : FilterApi.gtEq(FilterApi.longColumn(columnPath), value);
+            default:
+                return null;
+        }
+    }
+
+    private static FilterPredicate compareFloatingPoint(Kind kind, String columnPath, boolean isFloat,
+            ATypeTag constantTypeTag, Object constant) {
+        double value;
+        if (constantTypeTag == ATypeTag.BIGINT) {
+            long longValue = (Long) constant;
+            if (Math.abs(longValue) >= MAX_EXACT_DOUBLE_LONG) {
+                return null;
+            }
+            value = longValue;
+        } else if (constantTypeTag == ATypeTag.DOUBLE) {
+            value = (Double) constant;
+        } else {
+            return null;
+        }
+
+        if (Double.isNaN(value) || value == 0.0d) {
+            //-0.0 and 0.0 are equal in SQL++ but not in Parquet's order
+            return null;
+        } else if (!isFloat) {
+            return compare(kind, FilterApi.doubleColumn(columnPath), value);
+        }
+
+        float floatValue = (float) value;
+        if (floatValue == value) {
+            return compare(kind, FilterApi.floatColumn(columnPath), floatValue);
+        }
+        switch (kind) {
+            case LT:
+            case LE:
+                //Smallest float that is greater than the value
+                return FilterApi.ltEq(FilterApi.floatColumn(columnPath),
+                        floatValue > value ? floatValue : Math.nextUp(floatValue));
+            case GT:
+            case GE:
+                //Largest float that is smaller than the value
+                return FilterApi.gtEq(FilterApi.floatColumn(columnPath),
+                        floatValue < value ? floatValue : Math.nextDown(floatValue));
+            default:
+                //No float is equal to the value
+                return null;
+        }
+    }
+
+    /**
+     * A timestamp is converted to milliseconds by truncation (see {@code TimestampConverter}). Hence, a range of raw
+     * values is converted to the same datetime if the timestamp's unit is finer than milliseconds.
+     */
+    private FilterPredicate compareTimestamp(Kind kind, String columnPath, TimestampLogicalTypeAnnotation logicalType,
+            long millis) {
+        long factor;
+        switch (logicalType.getUnit()) {
+            case MICROS:
+                factor = MICROS_PER_MILLIS;
+                break;
+            case NANOS:
+                factor = NANOS_PER_MILLIS;
+                break;
+            default:
+                factor = 1;
+        }
+        try {
+            long value = Math.subtractExact(millis, logicalType.isAdjustedToUTC() ? timeZoneOffset : 0);
+            if (factor == 1) {
+                return compare(kind, FilterApi.longColumn(columnPath), value);
+            }
+            switch (kind) {
+                case EQ:
+                    return FilterApi.and(FilterApi.gtEq(FilterApi.longColumn(columnPath), lowest(value, factor)),
+                            FilterApi.ltEq(FilterApi.longColumn(columnPath), highest(value, factor)));
+                case LT:
+                    return FilterApi.ltEq(FilterApi.longColumn(columnPath), highest(value - 1, factor));
+                case LE:
+                    return FilterApi.ltEq(FilterApi.longColumn(columnPath), highest(value, factor));
+                case GT:
+                    return FilterApi.gtEq(FilterApi.longColumn(columnPath), lowest(value + 1, factor));
+                case GE:
+                    return FilterApi.gtEq(FilterApi.longColumn(columnPath), lowest(value, factor));
+                default:
+                    return null;
+            }
+        } catch (ArithmeticException e) {
+            //The value cannot be represented in the column's unit
+            return null;
+        }
+    }
+
+    /**
+     * @return the smallest raw value that could be truncated to the given milliseconds
+     */
+    private static long lowest(long millis, long factor) {
+        return Math.addExact(Math.multiplyExact(Math.subtractExact(millis, 1), factor), 1);
+    }
+
+    /**
+     * @return the largest raw value that could be truncated to the given milliseconds
+     */
+    private static long highest(long millis, long factor) {
+        return Math.subtractExact(Math.multiplyExact(Math.addExact(millis, 1), factor), 1);
+    }
+
+    private static <T extends Comparable<T>, C extends Column<T> & SupportsLtGt> FilterPredicate compare(Kind kind,
+            C column, T value) {
+        switch (kind) {
+            case EQ:
+                return FilterApi.eq(column, value);
+            case NEQ:
+                return FilterApi.notEq(column, value);
+            case LT:
+                return FilterApi.lt(column, value);
+            case LE:
+                return FilterApi.ltEq(column, value);
+            case GT:
+                return FilterApi.gt(column, value);
+            case GE:
+                return FilterApi.gtEq(column, value);
+            default:
+                return null;
+        }
+    }
+
+    private static <T extends Comparable<T>, C extends Column<T> & SupportsEqNotEq> FilterPredicate nullCheck(
+            C column, boolean isKnown) {
+        return isKnown ? FilterApi.notEq(column, null) : FilterApi.eq(column, null);
+    }
+}
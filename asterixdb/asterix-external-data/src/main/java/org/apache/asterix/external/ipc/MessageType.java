@@ -24,7 +24,8 @@ public enum MessageType {
     INIT_RSP,
     CALL,
     CALL_RSP,
-    ERROR;
+    ERROR,
+    CALL_RSP_SHM;
 
     static MessageType[] messageTypes;
     static {
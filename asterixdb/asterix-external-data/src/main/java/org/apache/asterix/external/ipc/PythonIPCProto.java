@@ -23,6 +23,8 @@ import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
@@ -45,12 +47,26 @@ import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessageUnpacker;
 import org.msgpack.core.buffer.ArrayBufferInput;
 
+/**
+ * The protocol spoken with a Python worker. Requests are written to the stdin of the worker and responses are routed
+ * back by the {@link ExternalFunctionResultRouter}. Besides the synchronous calls, batches of calls can be pipelined:
+ * up to {@code pipelineDepth} batches can be in flight at a time, each one with its own route, and their responses
+ * are received in the order they were sent in. If a {@link PythonSharedMemoryChannel} is given, batches and their
+ * responses are exchanged through its slots instead whenever they fit.
+ */
 public class PythonIPCProto {
 
+    /**
+     * Marks a request whose message is in shared memory. Its body consists of the offset and the length of the
+     * message, followed by the offset and the capacity of the slot to put the response into
+     */
+    public static final byte SHARED_MEMORY = 4;
+    private static final int SHARED_MEMORY_BODY_SIZE = 4 * Integer.BYTES;
+
     private final PythonMessageBuilder messageBuilder;
     private final DataOutputStream sockOut;
-    private final ByteBuffer headerBuffer = ByteBuffer.allocate(21);
-    private ByteBuffer recvBuffer = ByteBuffer.allocate(32768);
+    private final ByteBuffer headerBuffer = ByteBuffer.allocate(HEADER_SIZE + Integer.BYTES + SHARED_MEMORY_BODY_SIZE);
+    private ByteBuffer recvBuffer;
     private final ExternalFunctionResultRouter router;
     private long routeId;
     private Pair<ByteBuffer, Exception> bufferBox;
@@ -61,8 +77,21 @@ public class PythonIPCProto {
     private final ArrayBackedValueStorage argsStorage;
     private final PointableAllocator pointableAllocator;
     private final MsgPackPointableVisitor pointableVisitor;
+    private final PythonSharedMemoryChannel sharedMemory;
+    private final int pipelineDepth;
+    private final long[] routeIds;
+    private final List<Pair<ByteBuffer, Exception>> bufferBoxes;
+    private int slot;
+    private int sendSlot;
+    private int receiveSlot;
+    private int inFlight;
 
     public PythonIPCProto(OutputStream sockOut, ExternalFunctionResultRouter router, Process pythonProc) {
+        this(sockOut, router, pythonProc, 1, null);
+    }
+
+    public PythonIPCProto(OutputStream sockOut, ExternalFunctionResultRouter router, Process pythonProc,
+            int pipelineDepth, PythonSharedMemoryChannel sharedMemory) {
         this.sockOut = new DataOutputStream(sockOut);
         messageBuilder = new PythonMessageBuilder();
         this.router = router;
@@ -73,18 +102,23 @@ public class PythonIPCProto {
         this.argsStorage = new ArrayBackedValueStorage();
         this.pointableAllocator = new PointableAllocator();
         this.pointableVisitor = new MsgPackPointableVisitor();
+        this.pipelineDepth = pipelineDepth;
+        this.sharedMemory = sharedMemory;
+        routeIds = new long[pipelineDepth];
+        bufferBoxes = new ArrayList<>(pipelineDepth);
     }
 
     public void start() {
-        Pair<Long, Pair<ByteBuffer, Exception>> keyAndBufferBox = router.insertRoute(recvBuffer);
-        this.routeId = keyAndBufferBox.getFirst();
-        this.bufferBox = keyAndBufferBox.getSecond();
+        for (int i = 0; i < pipelineDepth; i++) {
+            Pair<Long, Pair<ByteBuffer, Exception>> keyAndBufferBox = router.insertRoute(ByteBuffer.allocate(32768));
+            routeIds[i] = keyAndBufferBox.getFirst();
+            bufferBoxes.add(keyAndBufferBox.getSecond());
+        }
+        selectSlot(0);
     }
 
     public void helo() throws IOException, AsterixException {
-        recvBuffer.clear();
-        recvBuffer.position(0);
-        recvBuffer.limit(0);
+        beginSyncRequest();
         messageBuilder.reset();
         messageBuilder.hello();
         sendHeader(routeId, messageBuilder.getLength());
@@ -98,9 +132,7 @@ public class PythonIPCProto {
 
     public long init(String module, String clazz, String fn) throws IOException, AsterixException {
         long functionId = maxFunctionId++;
-        recvBuffer.clear();
-        recvBuffer.position(0);
-        recvBuffer.limit(0);
+        beginSyncRequest();
         messageBuilder.reset();
         messageBuilder.init(module, clazz, fn);
         sendHeader(functionId, messageBuilder.getLength());
@@ -115,9 +147,7 @@ public class PythonIPCProto {
 
     public ByteBuffer call(long functionId, IAType[] argTypes, IValueReference[] argValues, boolean nullCall)
             throws IOException, AsterixException {
-        recvBuffer.clear();
-        recvBuffer.position(0);
-        recvBuffer.limit(0);
+        beginSyncRequest();
         messageBuilder.reset();
         argsStorage.reset();
         for (int i = 0; i < argTypes.length; i++) {
@@ -138,14 +168,8 @@ public class PythonIPCProto {
 
     public ByteBuffer callMulti(long key, ArrayBackedValueStorage args, int numTuples)
             throws IOException, AsterixException {
-        recvBuffer.clear();
-        recvBuffer.position(0);
-        recvBuffer.limit(0);
-        messageBuilder.reset();
-        int len = args.getLength() + 4;
-        sendHeader(key, len);
-        messageBuilder.callMulti(0, numTuples);
-        sendMsg(args);
+        beginSyncRequest();
+        sendCallMulti(key, args, numTuples);
         receiveMsg();
         if (getResponseType() != MessageType.CALL_RSP) {
             throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
@@ -154,10 +178,89 @@ public class PythonIPCProto {
         return recvBuffer;
     }
 
+    /**
+     * Sends a batch of calls without waiting for its response, which is received by
+     * {@link #receiveCallMulti()} once all the batches sent before it have been received.
+     */
+    public void sendCallMultiAsync(long key, ArrayBackedValueStorage args, int numTuples) throws IOException {
+        if (inFlight == pipelineDepth) {
+            throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
+                    "All " + pipelineDepth + " pipelined batches are in flight");
+        }
+        selectSlot(sendSlot);
+        resetRecvBuffer();
+        sendCallMulti(key, args, numTuples);
+        sendSlot = (sendSlot + 1) % pipelineDepth;
+        inFlight++;
+    }
+
+    /**
+     * Receives the response of the oldest batch in flight
+     */
+    public ByteBuffer receiveCallMulti() throws IOException, AsterixException {
+        if (inFlight == 0) {
+            throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
+                    "No pipelined batch is in flight");
+        }
+        selectSlot(receiveSlot);
+        receiveSlot = (receiveSlot + 1) % pipelineDepth;
+        inFlight--;
+        receiveMsg();
+        if (getResponseType() != MessageType.CALL_RSP) {
+            throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
+                    "Expected CALL_RSP, recieved " + getResponseType().name());
+        }
+        return recvBuffer;
+    }
+
+    public boolean canSend() {
+        return inFlight < pipelineDepth;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    private void sendCallMulti(long key, ArrayBackedValueStorage args, int numTuples) throws IOException {
+        messageBuilder.reset();
+        messageBuilder.callMulti(0, numTuples);
+        int len = args.getLength() + 4;
+        if (sharedMemory != null && sharedMemory.writeRequest(slot, messageBuilder.getBuf(), args)) {
+            sendSharedMemoryHeader(key, len);
+        } else {
+            sendHeader(key, len);
+            sendMsg(args);
+        }
+    }
+
+    private void beginSyncRequest() throws HyracksDataException {
+        if (inFlight > 0) {
+            throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
+                    inFlight + " pipelined batches are still in flight");
+        }
+        selectSlot(sendSlot);
+        resetRecvBuffer();
+    }
+
+    private void selectSlot(int slot) {
+        this.slot = slot;
+        routeId = routeIds[slot];
+        bufferBox = bufferBoxes.get(slot);
+        recvBuffer = bufferBox.getFirst();
+    }
+
+    private void resetRecvBuffer() {
+        recvBuffer.clear();
+        recvBuffer.position(0);
+        recvBuffer.limit(0);
+    }
+
     //For future use with interpreter reuse between jobs.
     public void quit() throws HyracksDataException {
         messageBuilder.quit();
-        router.removeRoute(routeId);
+        for (long id : routeIds) {
+            router.removeRoute(id);
+        }
     }
 
     public void receiveMsg() throws IOException, AsterixException {
@@ -183,6 +286,15 @@ public class PythonIPCProto {
             recvBuffer = bufferBox.getFirst();
         }
         messageBuilder.readHead(recvBuffer);
+        if (messageBuilder.type == MessageType.CALL_RSP_SHM) {
+            if (sharedMemory == null) {
+                throw HyracksDataException.create(org.apache.hyracks.api.exceptions.ErrorCode.ILLEGAL_STATE,
+                        "Received a response in shared memory without sharing memory");
+            }
+            recvBuffer = sharedMemory.readResponse(slot, recvBuffer.getInt(), recvBuffer);
+            bufferBox.setFirst(recvBuffer);
+            messageBuilder.readHead(recvBuffer);
+        }
         if (messageBuilder.type == MessageType.ERROR) {
             unpackerInput.reset(recvBuffer.array(), recvBuffer.position() + recvBuffer.arrayOffset(),
                     recvBuffer.remaining());
@@ -198,7 +310,22 @@ public class PythonIPCProto {
         headerBuffer.putLong(key);
         headerBuffer.putLong(routeId);
         headerBuffer.put(Message.NORMAL);
+        //flushed along with the message that follows
         sockOut.write(headerBuffer.array(), 0, HEADER_SIZE + Integer.BYTES);
+    }
+
+    private void sendSharedMemoryHeader(long key, int msgLen) throws IOException {
+        headerBuffer.clear();
+        headerBuffer.position(0);
+        headerBuffer.putInt(HEADER_SIZE + Integer.BYTES + SHARED_MEMORY_BODY_SIZE);
+        headerBuffer.putLong(key);
+        headerBuffer.putLong(routeId);
+        headerBuffer.put(SHARED_MEMORY);
+        headerBuffer.putInt(sharedMemory.getRequestOffset(slot));
+        headerBuffer.putInt(msgLen);
+        headerBuffer.putInt(sharedMemory.getResponseOffset(slot));
+        headerBuffer.putInt(sharedMemory.getSlotSize());
+        sockOut.write(headerBuffer.array(), 0, headerBuffer.position());
         sockOut.flush();
     }
 
@@ -219,8 +346,8 @@ public class PythonIPCProto {
         return messageBuilder.type;
     }
 
-    public long getRouteId() {
-        return routeId;
+    public long[] getRouteIds() {
+        return routeIds;
     }
 
     public DataOutputStream getSockOut() {
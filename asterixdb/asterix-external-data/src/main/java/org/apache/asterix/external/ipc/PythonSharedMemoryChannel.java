@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.ipc;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hyracks.data.std.api.IValueReference;
+
+/**
+ * A memory-mapped file shared with a Python worker on the same host. The file is divided into a ring of request slots
+ * followed by a ring of response slots, one of each per batch that can be in flight. A message is written into its
+ * slot and only its location is sent through the pipe (or socket), which saves copying large batches through the
+ * kernel. Messages that do not fit into a slot are sent through the pipe (or socket) as usual.
+ */
+public class PythonSharedMemoryChannel implements Closeable {
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final int numSlots;
+    private final int slotSize;
+
+    public PythonSharedMemoryChannel(Path path, int numSlots, int slotSize) throws IOException {
+        this.path = path;
+        this.numSlots = numSlots;
+        this.slotSize = slotSize;
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, 2L * numSlots * slotSize);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    public int getRequestOffset(int slot) {
+        return slot * slotSize;
+    }
+
+    public int getResponseOffset(int slot) {
+        return (numSlots + slot) * slotSize;
+    }
+
+    /**
+     * Writes the message header followed by its content into the request slot
+     *
+     * @return false if the message does not fit into the slot
+     */
+    public boolean writeRequest(int slot, ByteBuffer head, IValueReference content) {
+        int headLength = head.position();
+        if (headLength + content.getLength() > slotSize) {
+            return false;
+        }
+        ByteBuffer slotBuffer = buffer.duplicate();
+        slotBuffer.position(getRequestOffset(slot));
+        slotBuffer.put(head.array(), head.arrayOffset(), headLength);
+        slotBuffer.put(content.getByteArray(), content.getStartOffset(), content.getLength());
+        return true;
+    }
+
+    /**
+     * Copies a response of the given length out of the response slot. The copy is laid out the way
+     * {@link ExternalFunctionResultRouter} lays out responses received through the socket.
+     *
+     * @return the given buffer or a larger one, if the response does not fit into the given buffer
+     */
+    public ByteBuffer readResponse(int slot, int length, ByteBuffer dest) throws IOException {
+        if (length < 0 || length > slotSize) {
+            throw new IOException("Invalid response length " + length + " in shared memory slot " + slot);
+        }
+        ByteBuffer target = dest;
+        if (target.capacity() < length + 1) {
+            target = ByteBuffer.allocate(ExternalFunctionResultRouter.closestPow2(length + 1));
+        }
+        ByteBuffer slotBuffer = buffer.duplicate();
+        slotBuffer.position(getResponseOffset(slot));
+        slotBuffer.get(target.array(), target.arrayOffset(), length);
+        target.position(0);
+        target.limit(length + 1);
+        return target;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.close();
+        } finally {
+            Files.deleteIfExists(path);
+        }
+    }
+}
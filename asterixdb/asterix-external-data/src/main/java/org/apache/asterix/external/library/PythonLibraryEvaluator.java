@@ -34,6 +34,7 @@ import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.library.ILibraryManager;
 import org.apache.asterix.external.ipc.ExternalFunctionResultRouter;
 import org.apache.asterix.external.ipc.PythonIPCProto;
+import org.apache.asterix.external.ipc.PythonSharedMemoryChannel;
 import org.apache.asterix.external.library.msgpack.MessagePackUtils;
 import org.apache.asterix.om.functions.IExternalFunctionInfo;
 import org.apache.asterix.om.types.ATypeTag;
@@ -46,6 +47,8 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
 import org.apache.hyracks.api.exceptions.SourceLocation;
 import org.apache.hyracks.api.exceptions.Warning;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IIOManager;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.resources.IDeallocatable;
 import org.apache.hyracks.data.std.api.IValueReference;
@@ -53,15 +56,25 @@ import org.apache.hyracks.data.std.primitive.TaggedValuePointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.std.base.AbstractStateObject;
 import org.apache.hyracks.ipc.impl.IPCSystem;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 
+/**
+ * Evaluates the functions of a Python library on a pool of Python workers. The first worker serves the synchronous
+ * calls, while batches of calls can be sent to any worker and be pipelined (see {@link PythonIPCProto}).
+ */
 public class PythonLibraryEvaluator extends AbstractStateObject implements IDeallocatable {
 
+    private static final Logger LOGGER = LogManager.getLogger();
     public static final String ENTRYPOINT = "entrypoint.py";
     public static final String SITE_PACKAGES = "site-packages";
+    private static final String SHARED_MEMORY_FILE_PREFIX = "python-udf-shm";
 
-    private Process p;
+    private final List<Process> processes;
+    private final List<PythonSharedMemoryChannel> sharedMemoryChannels;
     private ILibraryManager libMgr;
     private File pythonHome;
+    private PythonIPCProto[] protos;
     private PythonIPCProto proto;
     private ExternalFunctionResultRouter router;
     private IPCSystem ipcSys;
@@ -71,11 +84,20 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
     private TaskAttemptId task;
     private IWarningCollector warningCollector;
     private SourceLocation sourceLoc;
+    private final int numWorkers;
+    private final int pipelineDepth;
+    private final int sharedMemorySlotSize;
+    private final IIOManager ioManager;
 
+    /**
+     * @param sharedMemorySlotSize the size of the slots of the memory shared with each worker or 0, if batches should
+     *                             only be exchanged through the pipe and socket of the worker
+     */
     public PythonLibraryEvaluator(JobId jobId, PythonLibraryEvaluatorId evaluatorId, ILibraryManager libMgr,
             File pythonHome, String sitePkgs, List<String> pythonArgs, Map<String, String> pythonEnv,
             ExternalFunctionResultRouter router, IPCSystem ipcSys, TaskAttemptId task,
-            IWarningCollector warningCollector, SourceLocation sourceLoc) {
+            IWarningCollector warningCollector, SourceLocation sourceLoc, int numWorkers, int pipelineDepth,
+            int sharedMemorySlotSize, IIOManager ioManager) {
         super(jobId, evaluatorId);
         this.libMgr = libMgr;
         this.pythonHome = pythonHome;
@@ -87,6 +109,12 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
         this.ipcSys = ipcSys;
         this.warningCollector = warningCollector;
         this.sourceLoc = sourceLoc;
+        this.numWorkers = numWorkers;
+        this.pipelineDepth = pipelineDepth;
+        this.sharedMemorySlotSize = sharedMemorySlotSize;
+        this.ioManager = ioManager;
+        processes = new ArrayList<>(numWorkers);
+        sharedMemoryChannels = new ArrayList<>(numWorkers);
     }
 
     private void initialize() throws IOException, AsterixException {
@@ -94,6 +122,20 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
         PythonLibrary library =
                 (PythonLibrary) libMgr.getLibrary(fnId.getLibraryDataverseName(), fnId.getLibraryName());
         String wd = library.getFile().getAbsolutePath();
+        protos = new PythonIPCProto[numWorkers];
+        for (int i = 0; i < numWorkers; i++) {
+            protos[i] = startWorker(wd);
+        }
+        proto = protos[0];
+    }
+
+    private PythonIPCProto startWorker(String wd) throws IOException, AsterixException {
+        PythonSharedMemoryChannel sharedMemory = null;
+        if (sharedMemorySlotSize > 0) {
+            FileReference file = ioManager.createWorkspaceFile(SHARED_MEMORY_FILE_PREFIX);
+            sharedMemory = new PythonSharedMemoryChannel(file.getFile().toPath(), pipelineDepth, sharedMemorySlotSize);
+            sharedMemoryChannels.add(sharedMemory);
+        }
         int port = ipcSys.getSocketAddress().getPort();
         List<String> args = new ArrayList<>();
         args.add(pythonHome.getAbsolutePath());
@@ -102,13 +144,19 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
         args.add(InetAddress.getLoopbackAddress().getHostAddress());
         args.add(Integer.toString(port));
         args.add(sitePkgs);
+        if (sharedMemory != null) {
+            args.add(sharedMemory.getPath().toString());
+        }
         ProcessBuilder pb = new ProcessBuilder(args.toArray(new String[0]));
         pb.environment().putAll(pythonEnv);
         pb.directory(new File(wd));
-        p = pb.start();
-        proto = new PythonIPCProto(p.getOutputStream(), router, p);
-        proto.start();
-        proto.helo();
+        Process p = pb.start();
+        processes.add(p);
+        PythonIPCProto workerProto =
+                new PythonIPCProto(p.getOutputStream(), router, p, pipelineDepth, sharedMemory);
+        workerProto.start();
+        workerProto.helo();
+        return workerProto;
     }
 
     public long initialize(IExternalFunctionInfo finfo) throws IOException, AsterixException {
@@ -125,7 +173,12 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
             clazz = null;
             fn = externalIdent1;
         }
-        return proto.init(packageModule, clazz, fn);
+        long functionId = proto.init(packageModule, clazz, fn);
+        for (int i = 1; i < numWorkers; i++) {
+            //every worker initializes the functions in the same order and thus assigns them the same ids
+            protos[i].init(packageModule, clazz, fn);
+        }
+        return functionId;
     }
 
     public ByteBuffer callPython(long id, IAType[] argTypes, IValueReference[] valueReferences, boolean nullCall)
@@ -153,9 +206,43 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
         return ret;
     }
 
+    public int getNumWorkers() {
+        return numWorkers;
+    }
+
+    public int getPipelineDepth() {
+        return pipelineDepth;
+    }
+
+    /**
+     * Sends a batch of calls to a worker without waiting for its response. At most {@link #getPipelineDepth()}
+     * batches can be in flight per worker.
+     */
+    public void sendCallPythonMulti(int worker, long id, ArrayBackedValueStorage arguments, int numTuples)
+            throws IOException {
+        protos[worker].sendCallMultiAsync(id, arguments, numTuples);
+    }
+
+    /**
+     * Receives the response of the oldest batch in flight on a worker
+     *
+     * @return the response or null, if the batch failed
+     */
+    public ByteBuffer receiveCallPythonMulti(int worker) throws IOException {
+        ByteBuffer ret = null;
+        try {
+            ret = protos[worker].receiveCallMulti();
+        } catch (AsterixException e) {
+            if (warningCollector.shouldWarn()) {
+                warningCollector.warn(Warning.of(sourceLoc, EXTERNAL_UDF_EXCEPTION, e.getMessage()));
+            }
+        }
+        return ret;
+    }
+
     @Override
     public void deallocate() {
-        if (p != null) {
+        for (Process p : processes) {
             boolean dead = false;
             try {
                 p.destroy();
@@ -167,7 +254,22 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
                 p.destroyForcibly();
             }
         }
-        router.removeRoute(proto.getRouteId());
+        if (protos != null) {
+            for (PythonIPCProto workerProto : protos) {
+                if (workerProto != null) {
+                    for (long routeId : workerProto.getRouteIds()) {
+                        router.removeRoute(routeId);
+                    }
+                }
+            }
+        }
+        for (PythonSharedMemoryChannel sharedMemory : sharedMemoryChannels) {
+            try {
+                sharedMemory.close();
+            } catch (IOException e) {
+                LOGGER.warn("Failed to remove Python shared memory file {}", sharedMemory.getPath(), e);
+            }
+        }
     }
 
     public static ATypeTag peekArgument(IAType type, IValueReference valueReference) throws HyracksDataException {
@@ -191,14 +293,15 @@ public class PythonLibraryEvaluator extends AbstractStateObject implements IDeal
     public static PythonLibraryEvaluator getInstance(IExternalFunctionInfo finfo, ILibraryManager libMgr,
             ExternalFunctionResultRouter router, IPCSystem ipcSys, File pythonHome, IHyracksTaskContext ctx,
             String sitePkgs, List<String> pythonArgs, Map<String, String> pythonEnv, IWarningCollector warningCollector,
-            SourceLocation sourceLoc) throws IOException, AsterixException {
+            SourceLocation sourceLoc, int numWorkers, int pipelineDepth, int sharedMemorySlotSize)
+            throws IOException, AsterixException {
         PythonLibraryEvaluatorId evaluatorId = new PythonLibraryEvaluatorId(finfo.getLibraryDataverseName(),
                 finfo.getLibraryName(), Thread.currentThread());
         PythonLibraryEvaluator evaluator = (PythonLibraryEvaluator) ctx.getStateObject(evaluatorId);
         if (evaluator == null) {
             evaluator = new PythonLibraryEvaluator(ctx.getJobletContext().getJobId(), evaluatorId, libMgr, pythonHome,
                     sitePkgs, pythonArgs, pythonEnv, router, ipcSys, ctx.getTaskAttemptId(), warningCollector,
-                    sourceLoc);
+                    sourceLoc, numWorkers, pipelineDepth, sharedMemorySlotSize, ctx.getIoManager());
             ctx.getJobletContext().registerDeallocatable(evaluator);
             evaluator.initialize();
             ctx.setStateObject(evaluator);
@@ -48,6 +48,9 @@ public class PythonLibraryEvaluatorFactory {
     private final String sitePackagesPath;
     private final List<String> pythonArgs;
     private final Map<String, String> pythonEnv;
+    private final int numWorkers;
+    private final int pipelineDepth;
+    private final int sharedMemorySlotSize;
 
     public PythonLibraryEvaluatorFactory(IHyracksTaskContext ctx) throws AsterixException {
         this.ctx = ctx;
@@ -112,11 +115,16 @@ public class PythonLibraryEvaluatorFactory {
         }
         sitePackagesPathBuilder.append(sitePkgs.get(sitePkgs.size() - 1));
         sitePackagesPath = sitePackagesPathBuilder.toString();
+        numWorkers = appCfg.getInt(NCConfig.Option.PYTHON_WORKERS);
+        pipelineDepth = appCfg.getInt(NCConfig.Option.PYTHON_PIPELINE_DEPTH);
+        sharedMemorySlotSize = appCfg.getBoolean(NCConfig.Option.PYTHON_SHARED_MEMORY)
+                ? appCfg.getInt(NCConfig.Option.PYTHON_SHARED_MEMORY_SLOT_SIZE) : 0;
     }
 
     public PythonLibraryEvaluator getEvaluator(IExternalFunctionInfo fnInfo, SourceLocation sourceLoc)
             throws IOException, AsterixException {
         return PythonLibraryEvaluator.getInstance(fnInfo, libraryManager, router, ipcSys, pythonPath, ctx,
-                sitePackagesPath, pythonArgs, pythonEnv, ctx.getWarningCollector(), sourceLoc);
+                sitePackagesPath, pythonArgs, pythonEnv, ctx.getWarningCollector(), sourceLoc, numWorkers,
+                pipelineDepth, sharedMemorySlotSize);
     }
 }
@@ -29,6 +29,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import org.apache.asterix.common.exceptions.AsterixException;
 import org.apache.asterix.common.exceptions.ErrorCode;
@@ -50,18 +51,27 @@ import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneO
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.Warning;
+import org.apache.hyracks.api.job.profiling.counters.ICounter;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
 import org.msgpack.core.MessagePack;
 import org.msgpack.core.MessagePackException;
 import org.msgpack.core.MessageUnpacker;
 import org.msgpack.core.buffer.ArrayBufferInput;
 
+/**
+ * Evaluates Python functions a frame at a time. A frame is split into chunks that are spread over the pool of Python
+ * workers of each function, and up to the pipeline depth of chunks are in flight per worker. The number of batches,
+ * tuples and the total batch latency of each function are kept in the counters of the task.
+ */
 public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactory {
 
     private static final long serialVersionUID = 1L;
+    private static final Logger LOGGER = LogManager.getLogger();
     private final int[] outColumns;
     private final IExternalFunctionDescriptor[] fnDescs;
     private final int[][] fnArgColumns;
@@ -85,15 +95,24 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
         return new AbstractOneInputOneOutputOneFramePushRuntime() {
 
             private ArrayBackedValueStorage outputWrapper;
-            private List<ArrayBackedValueStorage> argHolders;
+            //arguments of each function per chunk of the frame
+            private List<List<ArrayBackedValueStorage>> argHolders;
             ArrayTupleBuilder tupleBuilder;
             private List<Pair<Long, PythonLibraryEvaluator>> libraryEvaluators;
+            //the distinct evaluators (pools of workers) of the functions and the batches in flight on their workers
+            private List<PythonLibraryEvaluator> workerPools;
+            private int[] fnWorkerPools;
+            private InFlightBatches[][] inFlightBatches;
+            private int maxChunks;
             private ATypeTag[][] nullCalls;
-            private int[] numCalls;
+            private int[][] numCalls;
             private VoidPointable ref;
             private MessageUnpacker unpacker;
             private ArrayBufferInput unpackerInput;
-            private List<Pair<ByteBuffer, Counter>> batchResults;
+            private List<List<Pair<ByteBuffer, Counter>>> batchResults;
+            private ICounter[] batchCounters;
+            private ICounter[] tupleCounters;
+            private ICounter[] latencyCounters;
             private MessageUnpackerToADM unpackerToADM;
             private PointableAllocator pointableAllocator;
             private MsgPackPointableVisitor pointableVisitor;
@@ -106,27 +125,60 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                 tRef = new FrameTupleReference();
                 ref = VoidPointable.FACTORY.createPointable();
                 libraryEvaluators = new ArrayList<>();
+                workerPools = new ArrayList<>();
+                fnWorkerPools = new int[fnDescs.length];
                 try {
                     PythonLibraryEvaluatorFactory evalFactory = new PythonLibraryEvaluatorFactory(ctx);
-                    for (IExternalFunctionDescriptor fnDesc : fnDescs) {
+                    for (int func = 0; func < fnDescs.length; func++) {
+                        IExternalFunctionDescriptor fnDesc = fnDescs[func];
                         PythonLibraryEvaluator eval = evalFactory.getEvaluator(fnDesc.getFunctionInfo(), sourceLoc);
                         long id = eval.initialize(fnDesc.getFunctionInfo());
                         libraryEvaluators.add(new Pair<>(id, eval));
+                        int pool = workerPools.indexOf(eval);
+                        if (pool < 0) {
+                            pool = workerPools.size();
+                            workerPools.add(eval);
+                        }
+                        fnWorkerPools[func] = pool;
                     }
                 } catch (IOException | AsterixException e) {
                     throw RuntimeDataException.create(ErrorCode.EXTERNAL_UDF_EXCEPTION, e, sourceLoc, e.getMessage());
                 }
+                //split a frame into enough chunks to keep all the workers busy
+                maxChunks = 1;
+                inFlightBatches = new InFlightBatches[workerPools.size()][];
+                for (int pool = 0; pool < workerPools.size(); pool++) {
+                    PythonLibraryEvaluator eval = workerPools.get(pool);
+                    maxChunks = Math.max(maxChunks, eval.getNumWorkers() * eval.getPipelineDepth());
+                    inFlightBatches[pool] = new InFlightBatches[eval.getNumWorkers()];
+                    for (int worker = 0; worker < eval.getNumWorkers(); worker++) {
+                        inFlightBatches[pool][worker] = new InFlightBatches(eval.getPipelineDepth());
+                    }
+                }
                 argHolders = new ArrayList<>(fnArgColumns.length);
+                batchResults = new ArrayList<>(fnArgColumns.length);
                 for (int i = 0; i < fnArgColumns.length; i++) {
-                    argHolders.add(new ArrayBackedValueStorage());
+                    List<ArrayBackedValueStorage> fnArgHolders = new ArrayList<>(maxChunks);
+                    List<Pair<ByteBuffer, Counter>> fnBatchResults = new ArrayList<>(maxChunks);
+                    for (int chunk = 0; chunk < maxChunks; chunk++) {
+                        fnArgHolders.add(new ArrayBackedValueStorage());
+                        fnBatchResults.add(new Pair<>(ByteBuffer.allocate(ExternalDataConstants.DEFAULT_BUFFER_SIZE),
+                                new Counter(-1)));
+                    }
+                    argHolders.add(fnArgHolders);
+                    batchResults.add(fnBatchResults);
                 }
                 outputWrapper = new ArrayBackedValueStorage();
-                nullCalls = new ATypeTag[argHolders.size()][0];
-                numCalls = new int[fnArgColumns.length];
-                batchResults = new ArrayList<>(argHolders.size());
-                for (int i = 0; i < argHolders.size(); i++) {
-                    batchResults.add(new Pair<>(ByteBuffer.allocate(ExternalDataConstants.DEFAULT_BUFFER_SIZE),
-                            new Counter(-1)));
+                nullCalls = new ATypeTag[fnArgColumns.length][0];
+                numCalls = new int[fnArgColumns.length][maxChunks];
+                batchCounters = new ICounter[fnDescs.length];
+                tupleCounters = new ICounter[fnDescs.length];
+                latencyCounters = new ICounter[fnDescs.length];
+                for (int func = 0; func < fnDescs.length; func++) {
+                    String fnName = fnDescs[func].getFunctionInfo().getFunctionIdentifier().toString();
+                    batchCounters[func] = ctx.getCounterContext().getCounter(fnName + ".python.batches", true);
+                    tupleCounters[func] = ctx.getCounterContext().getCounter(fnName + ".python.tuples", true);
+                    latencyCounters[func] = ctx.getCounterContext().getCounter(fnName + ".python.latency-ns", true);
                 }
                 unpackerInput = new ArrayBufferInput(new byte[0]);
                 unpacker = MessagePack.newDefaultUnpacker(unpackerInput);
@@ -135,15 +187,16 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                 pointableVisitor = new MsgPackPointableVisitor();
             }
 
-            private void resetBuffers(int numTuples, int[] numCalls) {
+            private void resetBuffers(int numTuples, int chunkSize, int numChunks) {
                 for (int func = 0; func < fnArgColumns.length; func++) {
-                    argHolders.get(func).reset();
                     if (nullCalls[func].length < numTuples) {
                         nullCalls[func] = new ATypeTag[numTuples];
                     }
-                    numCalls[func] = numTuples;
                     Arrays.fill(nullCalls[func], ATypeTag.TYPE);
-                    for (Pair<ByteBuffer, Counter> batch : batchResults) {
+                    for (int chunk = 0; chunk < numChunks; chunk++) {
+                        argHolders.get(func).get(chunk).reset();
+                        numCalls[func][chunk] = Math.min(chunkSize, numTuples - chunk * chunkSize);
+                        Pair<ByteBuffer, Counter> batch = batchResults.get(func).get(chunk);
                         batch.getFirst().clear();
                         batch.getFirst().position(0);
                         batch.getSecond().set(-1);
@@ -166,8 +219,10 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                 return argumentPresence;
             }
 
-            private void collectFunctionWarnings(List<Pair<ByteBuffer, Counter>> batchResults) throws IOException {
-                for (Pair<ByteBuffer, Counter> result : batchResults) {
+            private void collectFunctionWarnings(List<Pair<ByteBuffer, Counter>> batchResults, int numChunks)
+                    throws IOException {
+                for (int chunk = 0; chunk < numChunks; chunk++) {
+                    Pair<ByteBuffer, Counter> result = batchResults.get(chunk);
                     if (result.getSecond().get() > -1) {
                         ByteBuffer resBuf = result.getFirst();
                         unpackerInput.reset(resBuf.array(), resBuf.position() + resBuf.arrayOffset(),
@@ -199,72 +254,57 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                 tupleBuilder.reset();
                 try {
                     int numTuples = tAccess.getTupleCount();
-                    resetBuffers(numTuples, numCalls);
-                    //build columns of arguments for each function
-                    for (int t = 0; t < numTuples; t++) {
-                        for (int func = 0; func < fnArgColumns.length; func++) {
-                            tRef.reset(tAccess, t);
-                            int[] cols = fnArgColumns[func];
-                            //TODO: switch between fixarray/array16/array32 where appropriate
-                            ATypeTag argumentStatus = ATypeTag.TYPE;
-                            if (!fnDescs[func].getFunctionInfo().getNullCall()) {
-                                for (int colIdx = 0; colIdx < cols.length; colIdx++) {
-                                    ref.set(buffer.array(), tRef.getFieldStart(cols[colIdx]),
-                                            tRef.getFieldLength(cols[colIdx]));
-                                    ATypeTag argumentPresence = PythonLibraryEvaluator
-                                            .peekArgument(fnDescs[func].getArgumentTypes()[colIdx], ref);
-                                    argumentStatus = handleNullMatrix(func, t, argumentPresence, argumentStatus);
+                    int chunkSize = Math.max(1, (numTuples + maxChunks - 1) / maxChunks);
+                    int numChunks = (numTuples + chunkSize - 1) / chunkSize;
+                    resetBuffers(numTuples, chunkSize, numChunks);
+                    //build columns of arguments for each function a chunk at a time, and send each chunk to the
+                    //workers before building the next one so that Python evaluates it in the meantime
+                    for (int chunk = 0; chunk < numChunks; chunk++) {
+                        int chunkEnd = Math.min(numTuples, (chunk + 1) * chunkSize);
+                        for (int t = chunk * chunkSize; t < chunkEnd; t++) {
+                            for (int func = 0; func < fnArgColumns.length; func++) {
+                                ArrayBackedValueStorage argHolder = argHolders.get(func).get(chunk);
+                                tRef.reset(tAccess, t);
+                                int[] cols = fnArgColumns[func];
+                                //TODO: switch between fixarray/array16/array32 where appropriate
+                                ATypeTag argumentStatus = ATypeTag.TYPE;
+                                if (!fnDescs[func].getFunctionInfo().getNullCall()) {
+                                    for (int colIdx = 0; colIdx < cols.length; colIdx++) {
+                                        ref.set(buffer.array(), tRef.getFieldStart(cols[colIdx]),
+                                                tRef.getFieldLength(cols[colIdx]));
+                                        ATypeTag argumentPresence = PythonLibraryEvaluator
+                                                .peekArgument(fnDescs[func].getArgumentTypes()[colIdx], ref);
+                                        argumentStatus = handleNullMatrix(func, t, argumentPresence, argumentStatus);
+                                    }
                                 }
-                            }
-                            if (argumentStatus == ATypeTag.TYPE) {
-                                if (cols.length > 0) {
-                                    argHolders.get(func).getDataOutput().writeByte(ARRAY16);
-                                    argHolders.get(func).getDataOutput().writeShort((short) cols.length);
+                                if (argumentStatus == ATypeTag.TYPE) {
+                                    if (cols.length > 0) {
+                                        argHolder.getDataOutput().writeByte(ARRAY16);
+                                        argHolder.getDataOutput().writeShort((short) cols.length);
+                                    }
+                                    for (int colIdx = 0; colIdx < cols.length; colIdx++) {
+                                        ref.set(buffer.array(), tRef.getFieldStart(cols[colIdx]),
+                                                tRef.getFieldLength(cols[colIdx]));
+                                        PythonIPCProto.visitValueRef(fnDescs[func].getArgumentTypes()[colIdx],
+                                                argHolder.getDataOutput(), ref, pointableAllocator, pointableVisitor,
+                                                fnDescs[func].getFunctionInfo().getNullCall());
+                                    }
+                                } else {
+                                    numCalls[func][chunk]--;
                                 }
-                                for (int colIdx = 0; colIdx < cols.length; colIdx++) {
-                                    ref.set(buffer.array(), tRef.getFieldStart(cols[colIdx]),
-                                            tRef.getFieldLength(cols[colIdx]));
-                                    PythonIPCProto.visitValueRef(fnDescs[func].getArgumentTypes()[colIdx],
-                                            argHolders.get(func).getDataOutput(), ref, pointableAllocator,
-                                            pointableVisitor, fnDescs[func].getFunctionInfo().getNullCall());
+                                if (cols.length == 0) {
+                                    PythonLibraryEvaluator.setVoidArgument(argHolder);
                                 }
-                            } else {
-                                numCalls[func]--;
-                            }
-                            if (cols.length == 0) {
-                                PythonLibraryEvaluator.setVoidArgument(argHolders.get(func));
                             }
                         }
+                        for (int func = 0; func < fnArgColumns.length; func++) {
+                            sendBatch(func, chunk);
+                        }
                     }
-
-                    //TODO: maybe this could be done in parallel for each unique library evaluator?
-                    for (int argHolderIdx = 0; argHolderIdx < argHolders.size(); argHolderIdx++) {
-                        Pair<Long, PythonLibraryEvaluator> fnEval = libraryEvaluators.get(argHolderIdx);
-                        ByteBuffer columnResult = fnEval.getSecond().callPythonMulti(fnEval.getFirst(),
-                                argHolders.get(argHolderIdx), numCalls[argHolderIdx]);
-                        if (columnResult != null) {
-                            Pair<ByteBuffer, Counter> resultholder = batchResults.get(argHolderIdx);
-                            if (resultholder.getFirst().capacity() < columnResult.capacity()) {
-                                ByteBuffer realloc = ctx.reallocateFrame(resultholder.getFirst(),
-                                        columnResult.capacity() * 2, false);
-                                resultholder.setFirst(realloc);
-                            }
-                            ByteBuffer resultBuf = resultholder.getFirst();
-                            //offset 1 to skip message type
-                            System.arraycopy(columnResult.array(), 1, resultBuf.array(), 0,
-                                    columnResult.remaining() - 1);
-                            //wrapper for results and warnings arrays. always length 2
-                            consumeAndGetBatchLength(resultBuf);
-                            int numResults = (int) consumeAndGetBatchLength(resultBuf);
-                            resultholder.getSecond().set(numResults);
-                        } else {
-                            if (ctx.getWarningCollector().shouldWarn()) {
-                                ctx.getWarningCollector()
-                                        .warn(Warning.of(sourceLoc, ErrorCode.EXTERNAL_UDF_EXCEPTION,
-                                                "Function "
-                                                        + fnDescs[argHolderIdx].getFunctionInfo()
-                                                                .getFunctionIdentifier().toString()
-                                                        + " failed to execute"));
+                    for (int pool = 0; pool < inFlightBatches.length; pool++) {
+                        for (int worker = 0; worker < inFlightBatches[pool].length; worker++) {
+                            while (!inFlightBatches[pool][worker].isEmpty()) {
+                                receiveBatch(pool, worker);
                             }
                         }
                     }
@@ -276,7 +316,7 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                             int k = projectionToOutColumns[f];
                             if (k >= 0) {
                                 outputWrapper.reset();
-                                Pair<ByteBuffer, Counter> result = batchResults.get(k);
+                                Pair<ByteBuffer, Counter> result = batchResults.get(k).get(i / chunkSize);
                                 ATypeTag functionCalled = nullCalls[k][i];
                                 if (functionCalled == ATypeTag.TYPE) {
                                     if (result.getSecond().get() > 0) {
@@ -298,12 +338,61 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
                         }
                         appendToFrameFromTupleBuilder(tupleBuilder);
                     }
-                    collectFunctionWarnings(batchResults);
+                    for (List<Pair<ByteBuffer, Counter>> fnBatchResults : batchResults) {
+                        collectFunctionWarnings(fnBatchResults, numChunks);
+                    }
                 } catch (IOException e) {
                     throw HyracksDataException.create(e);
                 }
             }
 
+            private void sendBatch(int func, int chunk) throws IOException {
+                int pool = fnWorkerPools[func];
+                PythonLibraryEvaluator eval = workerPools.get(pool);
+                //spread the chunks over the workers, which evaluate them in parallel
+                int worker = chunk % eval.getNumWorkers();
+                InFlightBatches batches = inFlightBatches[pool][worker];
+                if (batches.isFull()) {
+                    receiveBatch(pool, worker);
+                }
+                eval.sendCallPythonMulti(worker, libraryEvaluators.get(func).getFirst(),
+                        argHolders.get(func).get(chunk), numCalls[func][chunk]);
+                batches.add(func, chunk, System.nanoTime());
+            }
+
+            private void receiveBatch(int pool, int worker) throws IOException {
+                InFlightBatches batches = inFlightBatches[pool][worker];
+                int func = batches.getFunction();
+                int chunk = batches.getChunk();
+                long startTime = batches.getStartTime();
+                batches.remove();
+                ByteBuffer columnResult = workerPools.get(pool).receiveCallPythonMulti(worker);
+                batchCounters[func].update(1);
+                tupleCounters[func].update(numCalls[func][chunk]);
+                latencyCounters[func].update(System.nanoTime() - startTime);
+                if (columnResult != null) {
+                    Pair<ByteBuffer, Counter> resultholder = batchResults.get(func).get(chunk);
+                    if (resultholder.getFirst().capacity() < columnResult.capacity()) {
+                        ByteBuffer realloc =
+                                ctx.reallocateFrame(resultholder.getFirst(), columnResult.capacity() * 2, false);
+                        resultholder.setFirst(realloc);
+                    }
+                    ByteBuffer resultBuf = resultholder.getFirst();
+                    //offset 1 to skip message type
+                    System.arraycopy(columnResult.array(), 1, resultBuf.array(), 0, columnResult.remaining() - 1);
+                    //wrapper for results and warnings arrays. always length 2
+                    consumeAndGetBatchLength(resultBuf);
+                    int numResults = (int) consumeAndGetBatchLength(resultBuf);
+                    resultholder.getSecond().set(numResults);
+                } else {
+                    if (ctx.getWarningCollector().shouldWarn()) {
+                        ctx.getWarningCollector().warn(Warning.of(sourceLoc, ErrorCode.EXTERNAL_UDF_EXCEPTION,
+                                "Function " + fnDescs[func].getFunctionInfo().getFunctionIdentifier().toString()
+                                        + " failed to execute"));
+                    }
+                }
+            }
+
             private long consumeAndGetBatchLength(ByteBuffer buf) {
                 byte tag = buf.get();
                 if (isFixedArray(tag)) {
@@ -320,6 +409,71 @@ public final class ExternalAssignBatchRuntimeFactory extends AbstractOneInputOne
             public void flush() throws HyracksDataException {
                 appender.flush(writer);
             }
+
+            @Override
+            public void close() throws HyracksDataException {
+                if (LOGGER.isDebugEnabled()) {
+                    for (int func = 0; func < fnDescs.length; func++) {
+                        long latency = latencyCounters[func].get();
+                        LOGGER.debug("Python function {} evaluated {} tuples in {} batches, {} ms total batch "
+                                + "latency, {} tuples/s", fnDescs[func].getFunctionInfo().getFunctionIdentifier(),
+                                tupleCounters[func].get(), batchCounters[func].get(),
+                                TimeUnit.NANOSECONDS.toMillis(latency),
+                                latency > 0 ? tupleCounters[func].get() * TimeUnit.SECONDS.toNanos(1) / latency : 0);
+                    }
+                }
+                super.close();
+            }
         };
     }
+
+    /**
+     * The batches in flight on a Python worker, in the order they were sent in
+     */
+    private static final class InFlightBatches {
+        private final int[] functions;
+        private final int[] chunks;
+        private final long[] startTimes;
+        private int head;
+        private int size;
+
+        InFlightBatches(int capacity) {
+            functions = new int[capacity];
+            chunks = new int[capacity];
+            startTimes = new long[capacity];
+        }
+
+        boolean isFull() {
+            return size == functions.length;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(int function, int chunk, long startTime) {
+            int tail = (head + size) % functions.length;
+            functions[tail] = function;
+            chunks[tail] = chunk;
+            startTimes[tail] = startTime;
+            size++;
+        }
+
+        int getFunction() {
+            return functions[head];
+        }
+
+        int getChunk() {
+            return chunks[head];
+        }
+
+        long getStartTime() {
+            return startTimes[head];
+        }
+
+        void remove() {
+            head = (head + 1) % functions.length;
+            size--;
+        }
+    }
 }
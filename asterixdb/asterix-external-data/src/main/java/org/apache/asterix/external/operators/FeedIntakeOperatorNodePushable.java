@@ -149,7 +149,8 @@ public class FeedIntakeOperatorNodePushable extends ActiveSourceOperatorNodePush
     @Override
     public String getStats() {
         if (adapter != null) {
-            return "{\"adapter-stats\": " + adapter.getStats() + "}";
+            return "{\"adapter-stats\": " + adapter.getStats() + ", \"ingestion-stats\": "
+                    + activeManager.getIngestionStats(runtimeId.getEntityId()) + "}";
         } else {
             return "\"Runtime stats is not available.\"";
         }
@@ -154,7 +154,7 @@ public class FeedMetaStoreNodePushable extends AbstractUnaryInputUnaryOutputOper
         }
         if (policyAccessor.flowControlEnabled()) {
             writer = new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, insertOperator, policyAccessor, fta,
-                    feedManager.getFramePool());
+                    feedManager);
         } else {
             writer = new SyncFeedRuntimeInputHandler(ctx, insertOperator, fta);
         }
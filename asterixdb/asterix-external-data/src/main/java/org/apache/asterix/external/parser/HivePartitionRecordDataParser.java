@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.parser;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.common.exceptions.RuntimeDataException;
+import org.apache.asterix.external.api.IRawRecord;
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.util.HivePartitionUtils;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.pointables.nonvisitor.ARecordPointable;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * Adds the partition values of the file of a record (see {@link HivePartitionUtils}) to the record parsed by another
+ * parser. The partition values are added as open fields and take precedence over the record's fields of the same
+ * names, so the records agree with the partition values used to prune the files at compile time.
+ */
+public class HivePartitionRecordDataParser<T> implements IRecordDataParser<T> {
+    private final IRecordDataParser<T> parser;
+    private final ARecordType recordType;
+    private final ArrayBackedValueStorage parsedRecord;
+    private final ARecordPointable recordPointable;
+    private final RecordBuilder recordBuilder;
+    private final ArrayBackedValueStorage fieldName;
+    private final ArrayBackedValueStorage fieldValue;
+    private final List<ArrayBackedValueStorage> partitionFields;
+    @SuppressWarnings("unchecked")
+    private final ISerializerDeserializer<IAObject> serde =
+            SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+    private Supplier<String> dataSourceName;
+    private String currentDataSource;
+    private int numberOfPartitionFields;
+
+    public HivePartitionRecordDataParser(IRecordDataParser<T> parser, ARecordType recordType) {
+        this.parser = parser;
+        this.recordType = recordType;
+        parsedRecord = new ArrayBackedValueStorage();
+        recordPointable = ARecordPointable.FACTORY.createPointable();
+        recordBuilder = new RecordBuilder();
+        fieldName = new ArrayBackedValueStorage();
+        fieldValue = new ArrayBackedValueStorage();
+        partitionFields = new ArrayList<>();
+    }
+
+    @Override
+    public void configure(Supplier<String> dataSourceName, LongSupplier lineNumber) {
+        this.dataSourceName = dataSourceName;
+        parser.configure(dataSourceName, lineNumber);
+    }
+
+    @Override
+    public boolean parse(IRawRecord<? extends T> record, DataOutput out) throws HyracksDataException {
+        setPartitionFields(dataSourceName == null ? "" : dataSourceName.get());
+        if (numberOfPartitionFields == 0) {
+            return parser.parse(record, out);
+        }
+        parsedRecord.reset();
+        if (!parser.parse(record, parsedRecord.getDataOutput())) {
+            return false;
+        }
+        if (parsedRecord.getByteArray()[parsedRecord.getStartOffset()] != ATypeTag.SERIALIZED_RECORD_TYPE_TAG) {
+            out.write(parsedRecord.getByteArray(), parsedRecord.getStartOffset(), parsedRecord.getLength());
+            return true;
+        }
+        try {
+            writeRecord(out);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        return true;
+    }
+
+    private void writeRecord(DataOutput out) throws IOException {
+        recordPointable.set(parsedRecord);
+        recordBuilder.reset(recordType);
+        recordBuilder.init();
+        //The builder ignores duplicate open fields. Hence, adding the partition values first makes them win
+        for (int i = 0; i < numberOfPartitionFields; i += 2) {
+            recordBuilder.addField(partitionFields.get(i), partitionFields.get(i + 1));
+        }
+        int numberOfClosedFields = recordPointable.getSchemeFieldCount(recordType);
+        for (int i = 0; i < numberOfClosedFields; i++) {
+            fieldValue.reset();
+            recordPointable.getClosedFieldValue(recordType, i, fieldValue.getDataOutput());
+            recordBuilder.addField(i, fieldValue);
+        }
+        int numberOfOpenFields = recordPointable.getOpenFieldCount(recordType);
+        for (int i = 0; i < numberOfOpenFields; i++) {
+            fieldName.reset();
+            fieldValue.reset();
+            recordPointable.getOpenFieldName(recordType, i, fieldName.getDataOutput());
+            recordPointable.getOpenFieldValue(recordType, i, fieldValue.getDataOutput());
+            recordBuilder.addField(fieldName, fieldValue);
+        }
+        recordBuilder.write(out, true);
+    }
+
+    private void setPartitionFields(String source) throws HyracksDataException {
+        if (source.equals(currentDataSource)) {
+            return;
+        }
+        currentDataSource = source;
+        numberOfPartitionFields = 0;
+        for (Map.Entry<String, Serializable> partition : HivePartitionUtils.getPartitionValues(source).entrySet()) {
+            String key = partition.getKey();
+            if (recordType.isClosedField(key)) {
+                throw new RuntimeDataException(ErrorCode.PARTITION_KEY_IS_DECLARED_FIELD, key, source,
+                        recordType.getTypeName());
+            }
+            Serializable value = partition.getValue();
+            serialize(new AString(key));
+            if (value instanceof Long) {
+                serialize(new AInt64((Long) value));
+            } else if (value instanceof String) {
+                serialize(new AString((String) value));
+            } else {
+                serialize(ANull.NULL);
+            }
+        }
+    }
+
+    private void serialize(IAObject value) throws HyracksDataException {
+        if (partitionFields.size() == numberOfPartitionFields) {
+            partitionFields.add(new ArrayBackedValueStorage());
+        }
+        ArrayBackedValueStorage storage = partitionFields.get(numberOfPartitionFields++);
+        storage.reset();
+        serde.serialize(value, storage.getDataOutput());
+    }
+}
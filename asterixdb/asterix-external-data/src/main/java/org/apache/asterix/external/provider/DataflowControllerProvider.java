@@ -46,6 +46,7 @@ import org.apache.asterix.external.dataflow.FeedWithMetaDataFlowController;
 import org.apache.asterix.external.dataflow.IndexingDataFlowController;
 import org.apache.asterix.external.dataflow.RecordDataFlowController;
 import org.apache.asterix.external.dataflow.StreamDataFlowController;
+import org.apache.asterix.external.parser.HivePartitionRecordDataParser;
 import org.apache.asterix.external.util.ExternalDataUtils;
 import org.apache.asterix.external.util.FeedLogManager;
 import org.apache.asterix.om.types.ARecordType;
@@ -70,6 +71,9 @@ public class DataflowControllerProvider {
                     IRecordReader<?> recordReader = recordReaderFactory.createRecordReader(ctx, partition);
                     IRecordDataParserFactory<?> recordParserFactory = (IRecordDataParserFactory<?>) dataParserFactory;
                     IRecordDataParser<?> dataParser = recordParserFactory.createRecordParser(ctx);
+                    if (!indexingOp && !isFeed && ExternalDataUtils.isHivePartitioned(configuration)) {
+                        dataParser = addPartitionFields(dataParser, recordType);
+                    }
                     // TODO(ali): revisit to think about passing data source name via setter or via createRecordParser
                     dataParser.configure(recordReader.getDataSourceName(), recordReader.getLineNumber());
                     if (indexingOp) {
@@ -117,4 +121,8 @@ public class DataflowControllerProvider {
             throw HyracksDataException.create(e);
         }
     }
+
+    private static <T> IRecordDataParser<T> addPartitionFields(IRecordDataParser<T> parser, ARecordType recordType) {
+        return new HivePartitionRecordDataParser<>(parser, recordType);
+    }
 }
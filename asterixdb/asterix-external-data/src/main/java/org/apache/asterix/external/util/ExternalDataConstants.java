@@ -129,6 +129,11 @@ public class ExternalDataConstants {
     public static final String KEY_REQUESTED_FIELDS = "requested-fields";
     public static final String KEY_EXTERNAL_SCAN_BUFFER_SIZE = "external-scan-buffer-size";
     public static final String KEY_FILTER_PUSHDOWN_MBR = "filter-mbr";
+    public static final String KEY_FILTER_PREDICATE = "filter-predicate";
+    // expose the key=value directories of the files as fields and prune the files using the pushed down predicates
+    public static final String KEY_HIVE_PARTITIONING = "hive-partitioning";
+    // number of seconds a listing of the files of an external dataset is reused by subsequent queries (0 = disabled)
+    public static final String KEY_LISTING_CACHE_TTL = "listing-cache-ttl";
     /**
      * Keys for adapter name
      **/
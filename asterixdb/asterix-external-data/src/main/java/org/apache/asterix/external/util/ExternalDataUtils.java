@@ -69,7 +69,9 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.AUnionType;
 import org.apache.asterix.runtime.evaluators.common.NumberUtils;
 import org.apache.asterix.runtime.projection.DataProjectionInfo;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
+import org.apache.commons.lang3.SerializationUtils;
 import org.apache.hyracks.algebricks.common.exceptions.NotImplementedException;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
@@ -474,6 +476,24 @@ public class ExternalDataUtils {
             throw new RuntimeDataException(ErrorCode.INVALID_REQ_PARAM_VAL, ExternalDataConstants.KEY_REDACT_WARNINGS,
                     value);
         }
+        value = configuration.get(ExternalDataConstants.KEY_HIVE_PARTITIONING);
+        if (value != null && !isBoolean(value)) {
+            throw new RuntimeDataException(ErrorCode.INVALID_REQ_PARAM_VAL, ExternalDataConstants.KEY_HIVE_PARTITIONING,
+                    value);
+        }
+        value = configuration.get(ExternalDataConstants.KEY_LISTING_CACHE_TTL);
+        if (value != null && !isNonNegativeInteger(value)) {
+            throw new RuntimeDataException(ErrorCode.INVALID_REQ_PARAM_VAL, ExternalDataConstants.KEY_LISTING_CACHE_TTL,
+                    value);
+        }
+    }
+
+    private static boolean isNonNegativeInteger(String value) {
+        try {
+            return Long.parseLong(value) >= 0;
+        } catch (NumberFormatException e) {
+            return false;
+        }
     }
 
     private static boolean isHeaderRequiredFor(String format) {
@@ -742,8 +762,34 @@ public class ExternalDataUtils {
     }
 
     public static boolean supportsPushdown(Map<String, String> properties) {
-        //Currently, only Apache Parquet format is supported
-        return isParquetFormat(properties) || isShapeFileFormat(properties);
+        //Currently, only Apache Parquet format is supported. Partitioned datasets use the pushed down filters to prune
+        return isParquetFormat(properties) || isShapeFileFormat(properties) || isHivePartitioned(properties);
+    }
+
+    public static boolean isHivePartitioned(Map<String, String> properties) {
+        return isTrue(properties, ExternalDataConstants.KEY_HIVE_PARTITIONING);
+    }
+
+    /**
+     * Partition values are added to the records as open fields. Hence, partitioned datasets require an open type.
+     */
+    public static void validateHivePartitioningType(Map<String, String> properties, ARecordType datasetRecordType)
+            throws CompilationException {
+        if (isHivePartitioned(properties) && !datasetRecordType.isOpen()) {
+            throw new CompilationException(ErrorCode.UNSUPPORTED_TYPE_FOR_HIVE_PARTITIONING,
+                    datasetRecordType.getTypeName());
+        }
+    }
+
+    public static ExternalFilterPredicate getFilterPredicate(Map<String, String> properties) {
+        return decodeFilterPredicate(properties.get(ExternalDataConstants.KEY_FILTER_PREDICATE));
+    }
+
+    public static ExternalFilterPredicate decodeFilterPredicate(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            return null;
+        }
+        return SerializationUtils.deserialize(Base64.getDecoder().decode(encoded));
     }
 
     /**
@@ -808,6 +854,11 @@ public class ExternalDataUtils {
                     serializeExpectedTypeToString(projectionInfo.getProjectionInfo()));
             properties.put(ExternalDataConstants.KEY_HADOOP_ASTERIX_FUNCTION_CALL_INFORMATION,
                     serializeFunctionCallInfoToString(projectionInfo.getFunctionCallInfoMap()));
+            ExternalFilterPredicate filterPredicate = projectionInfo.getFilterPredicate();
+            if (filterPredicate != null && (isParquetFormat(properties) || isHivePartitioned(properties))) {
+                properties.put(ExternalDataConstants.KEY_FILTER_PREDICATE,
+                        Base64.getEncoder().encodeToString(SerializationUtils.serialize(filterPredicate)));
+            }
         }
     }
 
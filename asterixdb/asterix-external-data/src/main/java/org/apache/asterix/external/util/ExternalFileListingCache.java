@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.util;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+
+/**
+ * A (CC-side) cache of the listings of the files of external datasets. A listing is reused by the queries that are
+ * compiled within {@value ExternalDataConstants#KEY_LISTING_CACHE_TTL} seconds from the time it was taken. Listings of
+ * a container can be invalidated explicitly by refreshing the external dataset.
+ */
+public class ExternalFileListingCache {
+    public static final ExternalFileListingCache INSTANCE = new ExternalFileListingCache(System::nanoTime);
+    private static final int MAX_ENTRIES = 256;
+    //Query specific properties that do not change the listing
+    private static final Set<String> IGNORED_KEYS = Set.of(ExternalDataConstants.KEY_REQUESTED_FIELDS,
+            ExternalDataConstants.KEY_HADOOP_ASTERIX_FUNCTION_CALL_INFORMATION,
+            ExternalDataConstants.KEY_FILTER_PUSHDOWN_MBR, ExternalDataConstants.KEY_FILTER_PREDICATE);
+
+    private final LongSupplier nanoClock;
+    private final Map<String, Entry> entries;
+
+    ExternalFileListingCache(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+        entries = new LinkedHashMap<>();
+    }
+
+    /**
+     * Returns the cached listing of the files described by the configuration or lists the files if the listing is not
+     * cached or has expired
+     *
+     * @param configuration external dataset configuration
+     * @param lister lists the files
+     * @return the listed files (unmodifiable)
+     */
+    public <T> List<T> getFiles(Map<String, String> configuration, IFileLister<T> lister)
+            throws CompilationException {
+        long ttl = getTimeToLive(configuration);
+        if (ttl == 0) {
+            return lister.list();
+        }
+        String key = getKey(configuration);
+        synchronized (this) {
+            Entry entry = entries.get(key);
+            if (entry != null && !entry.isExpired(nanoClock.getAsLong())) {
+                @SuppressWarnings("unchecked")
+                List<T> files = (List<T>) entry.files;
+                return files;
+            }
+        }
+        //List outside of the lock as listing a container can take a while
+        long listingTime = nanoClock.getAsLong();
+        List<T> files = Collections.unmodifiableList(lister.list());
+        String container = configuration.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME);
+        put(key, new Entry(container, files, listingTime + TimeUnit.SECONDS.toNanos(ttl)));
+        return files;
+    }
+
+    /**
+     * Invalidates all the cached listings of a container
+     *
+     * @param container container name
+     */
+    public synchronized void invalidate(String container) {
+        entries.values().removeIf(entry -> Objects.equals(entry.container, container));
+    }
+
+    public synchronized void invalidateAll() {
+        entries.clear();
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    private synchronized void put(String key, Entry entry) {
+        long now = nanoClock.getAsLong();
+        entries.values().removeIf(e -> e.isExpired(now));
+        entries.remove(key);
+        if (entries.size() == MAX_ENTRIES) {
+            //Evict the oldest listing
+            Iterator<Entry> iterator = entries.values().iterator();
+            iterator.next();
+            iterator.remove();
+        }
+        entries.put(key, entry);
+    }
+
+    public static boolean isEnabled(Map<String, String> configuration) {
+        return getTimeToLive(configuration) > 0;
+    }
+
+    private static long getTimeToLive(Map<String, String> configuration) {
+        String ttl = configuration.get(ExternalDataConstants.KEY_LISTING_CACHE_TTL);
+        return ttl == null ? 0 : Long.parseLong(ttl);
+    }
+
+    private static String getKey(Map<String, String> configuration) {
+        Map<String, String> keyProperties = new TreeMap<>(configuration);
+        keyProperties.keySet().removeAll(IGNORED_KEYS);
+        return keyProperties.toString();
+    }
+
+    @FunctionalInterface
+    public interface IFileLister<T> {
+        List<T> list() throws CompilationException;
+    }
+
+    private static class Entry {
+        private final String container;
+        private final List<?> files;
+        private final long expirationTime;
+
+        Entry(String container, List<?> files, long expirationTime) {
+            this.container = container;
+            this.files = files;
+            this.expirationTime = expirationTime;
+        }
+
+        boolean isExpired(long now) {
+            return now - expirationTime >= 0;
+        }
+    }
+}
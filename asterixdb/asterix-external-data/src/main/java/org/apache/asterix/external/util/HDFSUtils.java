@@ -43,6 +43,7 @@ import org.apache.asterix.external.input.stream.HDFSInputStream;
 import org.apache.asterix.external.util.ExternalDataConstants.ParquetOptions;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.runtime.projection.DataProjectionInfo;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
 import org.apache.asterix.runtime.projection.FunctionCallInformation;
 import org.apache.hadoop.conf.Configuration;
 import org.apache.hadoop.fs.BlockLocation;
@@ -259,6 +260,20 @@ public class HDFSUtils {
         //Re-adjust the time zone for UTC-adjusted values
         conf.set(ParquetOptions.HADOOP_TIMEZONE, configuration.getOrDefault(ParquetOptions.TIMEZONE, ""));
 
+        //Pushed down filter: used to skip row groups and pages (see ParquetFilterPredicateConverter)
+        String filterPredicate = configuration.get(ExternalDataConstants.KEY_FILTER_PREDICATE);
+        if (filterPredicate != null) {
+            conf.set(ExternalDataConstants.KEY_FILTER_PREDICATE, filterPredicate);
+            //The filter is not exact. The records are filtered (again) by the query's condition
+            conf.setBoolean(ParquetInputFormat.RECORD_FILTERING_ENABLED, false);
+            //The values of the partition keys are taken from the files' paths and not from the files
+            conf.setBoolean(ExternalDataConstants.KEY_HIVE_PARTITIONING,
+                    ExternalDataUtils.isHivePartitioned(configuration));
+        }
+    }
+
+    public static boolean isHivePartitioned(Configuration conf) {
+        return conf.getBoolean(ExternalDataConstants.KEY_HIVE_PARTITIONING, false);
     }
 
     public static AlgebricksAbsolutePartitionConstraint getPartitionConstraints(IApplicationContext appCtx,
@@ -297,6 +312,10 @@ public class HDFSUtils {
         return DataProjectionInfo.createTypeField(dataInputStream);
     }
 
+    public static ExternalFilterPredicate getFilterPredicate(Configuration conf) {
+        return ExternalDataUtils.decodeFilterPredicate(conf.get(ExternalDataConstants.KEY_FILTER_PREDICATE));
+    }
+
     public static void setFunctionCallInformationMap(Map<String, FunctionCallInformation> funcCallInfoMap,
             Configuration conf) throws IOException {
         String stringFunctionCallInfoMap = ExternalDataUtils.serializeFunctionCallInfoToString(funcCallInfoMap);
@@ -0,0 +1,233 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.util;
+
+import java.io.Serializable;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+
+/**
+ * Utilities for external datasets partitioned in the Hive style, where the directories of the files are named
+ * {@code key=value} (e.g., {@code sales/year=2021/month=11/part-0.json}). The partition keys are exposed as fields of
+ * the records of a file and the pushed down {@link ExternalFilterPredicate} is evaluated against the partition values
+ * of each file to prune the files that cannot contain a matching record.
+ * <p>
+ * Partition values that are integers are exposed as {@code bigint}, the value
+ * {@value #DEFAULT_PARTITION_NAME} as {@code null} and any other value as {@code string}.
+ */
+public class HivePartitionUtils {
+    public static final String DEFAULT_PARTITION_NAME = "__HIVE_DEFAULT_PARTITION__";
+
+    private HivePartitionUtils() {
+    }
+
+    /**
+     * Parse the partition values of a file
+     *
+     * @param path the file's path (or URI)
+     * @return the partition values (as {@link Long}, {@link String} or {@code null}) in the order of the directories
+     */
+    public static Map<String, Serializable> getPartitionValues(String path) {
+        int end = path.lastIndexOf('/');
+        if (end < 0) {
+            return Collections.emptyMap();
+        }
+        Map<String, Serializable> partitionValues = new LinkedHashMap<>();
+        int start = 0;
+        while (start < end) {
+            int next = path.indexOf('/', start);
+            int separator = path.indexOf('=', start);
+            if (separator > start && separator < next - 1) {
+                String key = unescape(path.substring(start, separator));
+                partitionValues.put(key, parseValue(unescape(path.substring(separator + 1, next))));
+            }
+            start = next + 1;
+        }
+        return partitionValues;
+    }
+
+    /**
+     * Prune the files of the partitions that cannot satisfy the pushed down filter (if any)
+     *
+     * @param configuration external dataset configuration
+     * @param files listed files
+     * @param pathOf returns the path of a listed file
+     * @return the files that may contain a matching record
+     */
+    public static <T> List<T> prune(Map<String, String> configuration, List<T> files, Function<T, String> pathOf) {
+        ExternalFilterPredicate filterPredicate = ExternalDataUtils.getFilterPredicate(configuration);
+        if (!ExternalDataUtils.isHivePartitioned(configuration) || filterPredicate == null) {
+            return files;
+        }
+        List<T> remaining = new ArrayList<>();
+        for (T file : files) {
+            if (mayMatch(filterPredicate, getPartitionValues(pathOf.apply(file)))) {
+                remaining.add(file);
+            }
+        }
+        return remaining;
+    }
+
+    /**
+     * @return false if no record with the given partition values can satisfy the predicate, true otherwise
+     */
+    public static boolean mayMatch(ExternalFilterPredicate predicate, Map<String, Serializable> partitionValues) {
+        return partitionValues.isEmpty() || evaluate(predicate, partitionValues) != Boolean.FALSE;
+    }
+
+    /**
+     * @return the result of the predicate or null if it cannot be determined using the partition values only
+     */
+    private static Boolean evaluate(ExternalFilterPredicate predicate, Map<String, Serializable> partitionValues) {
+        switch (predicate.getKind()) {
+            case AND:
+                Boolean andResult = Boolean.TRUE;
+                for (ExternalFilterPredicate child : predicate.getChildren()) {
+                    Boolean result = evaluate(child, partitionValues);
+                    if (result == Boolean.FALSE) {
+                        return Boolean.FALSE;
+                    } else if (result == null) {
+                        andResult = null;
+                    }
+                }
+                return andResult;
+            case OR:
+                Boolean orResult = Boolean.FALSE;
+                for (ExternalFilterPredicate child : predicate.getChildren()) {
+                    Boolean result = evaluate(child, partitionValues);
+                    if (result == Boolean.TRUE) {
+                        return Boolean.TRUE;
+                    } else if (result == null) {
+                        orResult = null;
+                    }
+                }
+                return orResult;
+            default:
+                return evaluateLeaf(predicate, partitionValues);
+        }
+    }
+
+    private static Boolean evaluateLeaf(ExternalFilterPredicate predicate, Map<String, Serializable> partitionValues) {
+        List<String> path = predicate.getPath();
+        if (path.size() != 1 || !partitionValues.containsKey(path.get(0))) {
+            //Not a partition key: the value is in the file
+            return null;
+        }
+        Serializable value = partitionValues.get(path.get(0));
+        switch (predicate.getKind()) {
+            case IS_UNKNOWN:
+                return value == null;
+            case IS_KNOWN:
+                return value != null;
+            default:
+                if (value == null) {
+                    //Comparing NULL is never true. The predicate has no negations, so this part can be false
+                    return Boolean.FALSE;
+                }
+                Integer result = compare(value, predicate.getConstant());
+                return result == null ? null : satisfies(predicate.getKind(), result);
+        }
+    }
+
+    private static Integer compare(Serializable value, Serializable constant) {
+        if (value instanceof String && constant instanceof String) {
+            return ((String) value).compareTo((String) constant);
+        } else if (value instanceof Long && constant instanceof Long) {
+            return Long.compare((Long) value, (Long) constant);
+        } else if (value instanceof Long && constant instanceof Double) {
+            double doubleConstant = (Double) constant;
+            if (Double.isNaN(doubleConstant)) {
+                return null;
+            } else if (Double.isInfinite(doubleConstant)) {
+                return doubleConstant > 0 ? -1 : 1;
+            }
+            return BigDecimal.valueOf((Long) value).compareTo(new BigDecimal(doubleConstant));
+        }
+        //Incompatible types or types that are not produced by partition values (e.g., dates)
+        return null;
+    }
+
+    private static boolean satisfies(ExternalFilterPredicate.Kind kind, int result) {
+        switch (kind) {
+            case EQ:
+                return result == 0;
+            case NEQ:
+                return result != 0;
+            case LT:
+                return result < 0;
+            case LE:
+                return result <= 0;
+            case GT:
+                return result > 0;
+            case GE:
+                return result >= 0;
+            default:
+                throw new IllegalArgumentException("Unsupported comparison " + kind);
+        }
+    }
+
+    static Serializable parseValue(String value) {
+        if (DEFAULT_PARTITION_NAME.equals(value)) {
+            return null;
+        }
+        int start = value.startsWith("-") ? 1 : 0;
+        if (value.length() == start || value.length() - start > 18) {
+            //Not an integer or possibly larger than a bigint
+            return value;
+        }
+        for (int i = start; i < value.length(); i++) {
+            if (!Character.isDigit(value.charAt(i)) || value.charAt(i) > '9') {
+                return value;
+            }
+        }
+        return Long.parseLong(value);
+    }
+
+    /**
+     * Hive escapes special characters in partition directories as %XX
+     */
+    static String unescape(String value) {
+        if (value.indexOf('%') < 0) {
+            return value;
+        }
+        StringBuilder builder = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '%' && i + 2 < value.length() && isHexDigit(value.charAt(i + 1))
+                    && isHexDigit(value.charAt(i + 2))) {
+                builder.append((char) Integer.parseInt(value.substring(i + 1, i + 3), 16));
+                i += 2;
+            } else {
+                builder.append(c);
+            }
+        }
+        return builder.toString();
+    }
+
+    private static boolean isHexDigit(char c) {
+        return Character.digit(c, 16) >= 0 && c < 128;
+    }
+}
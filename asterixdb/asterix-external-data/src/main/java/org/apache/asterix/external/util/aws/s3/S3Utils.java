@@ -38,7 +38,9 @@ import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.external.input.record.reader.abstracts.AbstractExternalInputStreamFactory;
 import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalFileListingCache;
 import org.apache.asterix.external.util.HDFSUtils;
+import org.apache.asterix.external.util.HivePartitionUtils;
 import org.apache.hadoop.fs.s3a.Constants;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
@@ -288,7 +290,8 @@ public class S3Utils {
     }
 
     /**
-     * Returns the lists of S3 objects.
+     * Returns the lists of S3 objects (see {@link ExternalFileListingCache}) excluding the objects of the partitions
+     * that do not satisfy the pushed down filter (see {@link HivePartitionUtils}).
      *
      * @param configuration         properties
      * @param includeExcludeMatcher include/exclude matchers to apply
@@ -296,6 +299,22 @@ public class S3Utils {
     public static List<S3Object> listS3Objects(Map<String, String> configuration,
             AbstractExternalInputStreamFactory.IncludeExcludeMatcher includeExcludeMatcher,
             IWarningCollector warningCollector) throws CompilationException {
+        List<S3Object> filesOnly = ExternalFileListingCache.INSTANCE.getFiles(configuration,
+                () -> listS3Objects(configuration, includeExcludeMatcher));
+
+        // Warn if no files are returned
+        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
+            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
+            warningCollector.warn(warning);
+        }
+
+        // Skip the objects of the partitions that do not satisfy the query's filter
+        return HivePartitionUtils.prune(configuration, filesOnly, S3Object::key);
+    }
+
+    private static List<S3Object> listS3Objects(Map<String, String> configuration,
+            AbstractExternalInputStreamFactory.IncludeExcludeMatcher includeExcludeMatcher)
+            throws CompilationException {
         // Prepare to retrieve the objects
         List<S3Object> filesOnly;
         String container = configuration.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME);
@@ -324,12 +343,6 @@ public class S3Utils {
             }
         }
 
-        // Warn if no files are returned
-        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
-            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
-            warningCollector.warn(warning);
-        }
-
         return filesOnly;
     }
 
@@ -60,7 +60,9 @@ import org.apache.asterix.common.exceptions.CompilationException;
 import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.external.input.record.reader.abstracts.AbstractExternalInputStreamFactory;
 import org.apache.asterix.external.util.ExternalDataConstants;
+import org.apache.asterix.external.util.ExternalFileListingCache;
 import org.apache.asterix.external.util.HDFSUtils;
+import org.apache.asterix.external.util.HivePartitionUtils;
 import org.apache.hadoop.mapred.JobConf;
 import org.apache.hyracks.api.exceptions.IWarningCollector;
 import org.apache.hyracks.api.exceptions.SourceLocation;
@@ -400,34 +402,36 @@ public class AzureUtils {
             IWarningCollector warningCollector) throws CompilationException {
         String container = configuration.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME);
 
-        List<BlobItem> filesOnly = new ArrayList<>();
-
         // Ensure the validity of include/exclude
         validateIncludeExclude(configuration);
 
-        BlobContainerClient blobContainer;
-        try {
-            blobContainer = blobServiceClient.getBlobContainerClient(container);
-
-            // Get all objects in a container and extract the paths to files
-            ListBlobsOptions listBlobsOptions = new ListBlobsOptions();
-            listBlobsOptions.setPrefix(getPrefix(configuration));
-            Iterable<BlobItem> blobItems = blobContainer.listBlobs(listBlobsOptions, null);
-
-            // Collect the paths to files only
-            collectAndFilterBlobFiles(blobItems, includeExcludeMatcher.getPredicate(),
-                    includeExcludeMatcher.getMatchersList(), filesOnly);
-
-            // Warn if no files are returned
-            if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
-                Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
-                warningCollector.warn(warning);
+        List<BlobItem> filesOnly = ExternalFileListingCache.INSTANCE.getFiles(configuration, () -> {
+            List<BlobItem> listedFiles = new ArrayList<>();
+            try {
+                BlobContainerClient blobContainer = blobServiceClient.getBlobContainerClient(container);
+
+                // Get all objects in a container and extract the paths to files
+                ListBlobsOptions listBlobsOptions = new ListBlobsOptions();
+                listBlobsOptions.setPrefix(getPrefix(configuration));
+                Iterable<BlobItem> blobItems = blobContainer.listBlobs(listBlobsOptions, null);
+
+                // Collect the paths to files only
+                collectAndFilterBlobFiles(blobItems, includeExcludeMatcher.getPredicate(),
+                        includeExcludeMatcher.getMatchersList(), listedFiles);
+            } catch (Exception ex) {
+                throw new CompilationException(ErrorCode.EXTERNAL_SOURCE_ERROR, getMessageOrToString(ex));
             }
-        } catch (Exception ex) {
-            throw new CompilationException(ErrorCode.EXTERNAL_SOURCE_ERROR, getMessageOrToString(ex));
+            return listedFiles;
+        });
+
+        // Warn if no files are returned
+        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
+            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
+            warningCollector.warn(warning);
         }
 
-        return filesOnly;
+        // Skip the blobs of the partitions that do not satisfy the query's filter
+        return HivePartitionUtils.prune(configuration, filesOnly, BlobItem::getName);
     }
 
     /**
@@ -460,36 +464,38 @@ public class AzureUtils {
             IWarningCollector warningCollector) throws CompilationException {
         String container = configuration.get(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME);
 
-        List<PathItem> filesOnly = new ArrayList<>();
-
         // Ensure the validity of include/exclude
         validateIncludeExclude(configuration);
 
-        DataLakeFileSystemClient fileSystemClient;
-        try {
-            fileSystemClient = client.getFileSystemClient(container);
-
-            // Get all objects in a container and extract the paths to files
-            ListPathsOptions listOptions = new ListPathsOptions();
-            boolean recursive = Boolean.parseBoolean(configuration.get(RECURSIVE_FIELD_NAME));
-            listOptions.setRecursive(recursive);
-            listOptions.setPath(getPrefix(configuration, false));
-            PagedIterable<PathItem> pathItems = fileSystemClient.listPaths(listOptions, null);
-
-            // Collect the paths to files only
-            collectAndFilterDatalakeFiles(pathItems, includeExcludeMatcher.getPredicate(),
-                    includeExcludeMatcher.getMatchersList(), filesOnly);
-
-            // Warn if no files are returned
-            if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
-                Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
-                warningCollector.warn(warning);
+        List<PathItem> filesOnly = ExternalFileListingCache.INSTANCE.getFiles(configuration, () -> {
+            List<PathItem> listedFiles = new ArrayList<>();
+            try {
+                DataLakeFileSystemClient fileSystemClient = client.getFileSystemClient(container);
+
+                // Get all objects in a container and extract the paths to files
+                ListPathsOptions listOptions = new ListPathsOptions();
+                boolean recursive = Boolean.parseBoolean(configuration.get(RECURSIVE_FIELD_NAME));
+                listOptions.setRecursive(recursive);
+                listOptions.setPath(getPrefix(configuration, false));
+                PagedIterable<PathItem> pathItems = fileSystemClient.listPaths(listOptions, null);
+
+                // Collect the paths to files only
+                collectAndFilterDatalakeFiles(pathItems, includeExcludeMatcher.getPredicate(),
+                        includeExcludeMatcher.getMatchersList(), listedFiles);
+            } catch (Exception ex) {
+                throw new CompilationException(ErrorCode.EXTERNAL_SOURCE_ERROR, getMessageOrToString(ex));
             }
-        } catch (Exception ex) {
-            throw new CompilationException(ErrorCode.EXTERNAL_SOURCE_ERROR, getMessageOrToString(ex));
+            return listedFiles;
+        });
+
+        // Warn if no files are returned
+        if (filesOnly.isEmpty() && warningCollector.shouldWarn()) {
+            Warning warning = Warning.of(null, ErrorCode.EXTERNAL_SOURCE_CONFIGURATION_RETURNED_NO_FILES);
+            warningCollector.warn(warning);
         }
 
-        return filesOnly;
+        // Skip the files of the partitions that do not satisfy the query's filter
+        return HivePartitionUtils.prune(configuration, filesOnly, PathItem::getName);
     }
 
     /**
@@ -20,6 +20,7 @@ package org.apache.asterix.external.feed.test;
 
 import java.io.FilenameFilter;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 
@@ -172,4 +173,52 @@ public class FeedSpillerUnitTest extends TestCase {
             Assert.fail(th.getMessage());
         }
     }
+
+    /*
+     * 3. Test the content and the order of the replayed frames
+     * Write 2500 frames of different sizes and contents while reading half of them.
+     * Check that the frames are read in the order they were written with their sizes and contents.
+     * Check that the spill files are compressed.
+     * Close the spiller.
+     * Check files were deleted.
+     */
+    @org.junit.Test
+    public void testWriteReadContentSpill() {
+        try {
+            removeSpillFiles();
+            IHyracksTaskContext ctx = TestUtils.create(DEFAULT_FRAME_SIZE);
+            FrameSpiller spiller = new FrameSpiller(ctx, TEST_DATAVERSE + "_" + TEST_FEED + "_" + TEST_DATASET,
+                    new Long(NUM_FRAMES * DEFAULT_FRAME_SIZE));
+            spiller.open();
+            int read = 0;
+            for (int i = 0; i < 2500; i++) {
+                VSizeFrame frame = new VSizeFrame(ctx, i % 100 == 0 ? 2 * DEFAULT_FRAME_SIZE : DEFAULT_FRAME_SIZE);
+                frame.getBuffer().putInt(0, i);
+                frame.getBuffer().putInt(frame.getFrameSize() - Integer.BYTES, i);
+                Assert.assertTrue(spiller.spill(frame.getBuffer()));
+                if (i % 2 == 1) {
+                    assertFrame(spiller.next(), read++);
+                }
+            }
+            Assert.assertEquals(1250, spiller.remaining());
+            Assert.assertTrue(spiller.getSpilledBytes() < spiller.getSpilledFrameBytes());
+            while (read < 2500) {
+                assertFrame(spiller.next(), read++);
+            }
+            Assert.assertNull(spiller.next());
+            Assert.assertEquals(true, spiller.switchToMemory());
+            spiller.close();
+            Assert.assertEquals(0, countSpillFiles());
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail(th.getMessage());
+        }
+    }
+
+    private static void assertFrame(ByteBuffer buffer, int i) {
+        Assert.assertNotNull(buffer);
+        Assert.assertEquals(i % 100 == 0 ? 2 * DEFAULT_FRAME_SIZE : DEFAULT_FRAME_SIZE, buffer.capacity());
+        Assert.assertEquals(i, buffer.getInt(0));
+        Assert.assertEquals(i, buffer.getInt(buffer.capacity() - Integer.BYTES));
+    }
 }
@@ -29,6 +29,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 
+import org.apache.asterix.active.ActiveManager;
 import org.apache.asterix.active.ActiveRuntimeId;
 import org.apache.asterix.active.EntityId;
 import org.apache.asterix.common.exceptions.AsterixException;
@@ -79,6 +80,16 @@ public class InputHandlerTest {
         return new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, writer, fpa, fta, framePool);
     }
 
+    private FeedRuntimeInputHandler createInputHandler(IHyracksTaskContext ctx, IFrameWriter writer,
+            FeedPolicyAccessor fpa, ActiveManager activeManager) throws HyracksDataException, AsterixException {
+        DataverseName dvName = DataverseName.createSinglePartName(DATAVERSE_NAME);
+        FrameTupleAccessor fta = Mockito.mock(FrameTupleAccessor.class);
+        EntityId feedId = new EntityId(FeedUtils.FEED_EXTENSION_NAME, dvName, FEED);
+        FeedConnectionId connectionId = new FeedConnectionId(feedId, DATASET);
+        ActiveRuntimeId runtimeId = new ActiveRuntimeId(feedId, FeedRuntimeType.COLLECT.toString(), 0);
+        return new FeedRuntimeInputHandler(ctx, connectionId, runtimeId, writer, fpa, fta, activeManager);
+    }
+
     /*
      * Testing the following scenarios
      * 01. Positive Frames memory budget with fixed size frames, no spill, no discard.
@@ -797,6 +808,66 @@ public class InputHandlerTest {
         Assert.assertNull(cause);
     }
 
+    /*
+     * Spill = true;
+     * Discard = false;
+     * Fixed size frames
+     * The storage pressure rises and falls while the frames are processed in memory
+     */
+    @Test
+    public void testMemoryFixedSizeFrameFollowsStoragePressureWithoutSpill() {
+        try {
+            IHyracksTaskContext ctx = TestUtils.create(DEFAULT_FRAME_SIZE);
+            // Spill, No discard
+            FeedPolicyAccessor fpa = createFeedPolicyAccessor(true, false, FEED_MEM_BUDGET, DISCARD_ALLOWANCE);
+            // Non-Active Writer
+            TestFrameWriter writer =
+                    FrameWriterTestUtils.create(Collections.emptyList(), Collections.emptyList(), false);
+            double[] storagePressure = { 0.0 };
+            ActiveManager activeManager =
+                    new ActiveManager(EXECUTOR, NODE_ID, FEED_MEM_BUDGET, DEFAULT_FRAME_SIZE, null,
+                            () -> storagePressure[0]);
+            ConcurrentFramePool framePool = activeManager.getFramePool();
+            FeedRuntimeInputHandler handler = createInputHandler(ctx, writer, fpa, activeManager);
+            handler.open();
+            VSizeFrame frame = new VSizeFrame(ctx);
+            int numFrames = 0;
+            for (int i = 0; i < NUM_FRAMES; i++) {
+                handler.nextFrame(frame.getBuffer());
+                numFrames++;
+            }
+            Assert.assertEquals(framePool.getBudget(), framePool.getLimit());
+            // the pool shrinks once the next sample sees the pressure
+            storagePressure[0] = 1.0;
+            long deadline = System.currentTimeMillis() + 10000;
+            while (framePool.getLimit() == framePool.getBudget() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                handler.nextFrame(frame.getBuffer());
+                numFrames++;
+            }
+            Assert.assertEquals((int) Math.ceil(NUM_FRAMES * 0.1), framePool.getLimit());
+            // and grows back once the pressure is gone
+            storagePressure[0] = 0.0;
+            deadline = System.currentTimeMillis() + 10000;
+            while (framePool.getLimit() < framePool.getBudget() && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                handler.nextFrame(frame.getBuffer());
+                numFrames++;
+            }
+            Assert.assertEquals(framePool.getBudget(), framePool.getLimit());
+            // Check that no records were spilled or discarded
+            Assert.assertEquals(0, handler.getNumSpilled());
+            Assert.assertEquals(0, handler.getNumDiscarded());
+            handler.close();
+            Assert.assertEquals(numFrames, writer.nextFrameCount());
+            writer.validate(true);
+        } catch (Throwable th) {
+            th.printStackTrace();
+            Assert.fail();
+        }
+        Assert.assertNull(cause);
+    }
+
     private class Pusher implements Runnable {
         private final ByteBuffer buffer;
         private final IFrameWriter writer;
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.input.record.reader.hdfs.parquet;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate.Kind;
+import org.apache.parquet.filter2.predicate.FilterApi;
+import org.apache.parquet.io.api.Binary;
+import org.apache.parquet.schema.MessageType;
+import org.apache.parquet.schema.MessageTypeParser;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ParquetFilterPredicateConverterTest {
+    private static final MessageType SCHEMA = MessageTypeParser.parseMessageType("message test {\n"
+            + "  optional int32 x;\n" + "  optional int64 ts (TIMESTAMP(MICROS,true));\n"
+            + "  optional binary s (STRING);\n" + "  optional binary j (JSON);\n"
+            + "  optional group a {\n" + "    optional binary b (STRING);\n" + "  }\n" + "  repeated int32 r;\n"
+            + "  optional float f;\n" + "}");
+    //UTC+1
+    private static final int TIME_ZONE_OFFSET = 3600000;
+    private final ParquetFilterPredicateConverter converter =
+            new ParquetFilterPredicateConverter(SCHEMA, TIME_ZONE_OFFSET);
+
+    @Test
+    public void integerBounds() {
+        Assert.assertEquals(FilterApi.ltEq(FilterApi.intColumn("x"), 5),
+                converter.convert(compare(Kind.LT, path("x"), ATypeTag.DOUBLE, 5.5)));
+        Assert.assertEquals(FilterApi.gtEq(FilterApi.intColumn("x"), 6),
+                converter.convert(compare(Kind.GT, path("x"), ATypeTag.BIGINT, 5L)));
+        Assert.assertEquals(FilterApi.eq(FilterApi.intColumn("x"), 7),
+                converter.convert(compare(Kind.EQ, path("x"), ATypeTag.BIGINT, 7L)));
+        //No integer is equal to 7.5 and every integer is smaller than 2^40
+        Assert.assertNull(converter.convert(compare(Kind.EQ, path("x"), ATypeTag.DOUBLE, 7.5)));
+        Assert.assertNull(converter.convert(compare(Kind.LT, path("x"), ATypeTag.BIGINT, 1L << 40)));
+    }
+
+    @Test
+    public void floatBounds() {
+        //0.1 is not a float (0.1f > 0.1): the bounds are widened to the closest floats
+        Assert.assertEquals(FilterApi.ltEq(FilterApi.floatColumn("f"), 0.1f),
+                converter.convert(compare(Kind.LT, path("f"), ATypeTag.DOUBLE, 0.1)));
+        Assert.assertEquals(FilterApi.gtEq(FilterApi.floatColumn("f"), Math.nextDown(0.1f)),
+                converter.convert(compare(Kind.GE, path("f"), ATypeTag.DOUBLE, 0.1)));
+    }
+
+    @Test
+    public void timestampRange() {
+        //Micros are truncated to millis and the time zone offset is added
+        long millis = 1609459200000L;
+        long raw = (millis - TIME_ZONE_OFFSET) * 1000;
+        Assert.assertEquals(
+                FilterApi.and(FilterApi.gtEq(FilterApi.longColumn("ts"), raw - 999),
+                        FilterApi.ltEq(FilterApi.longColumn("ts"), raw + 999)),
+                converter.convert(compare(Kind.EQ, path("ts"), ATypeTag.DATETIME, millis)));
+        Assert.assertEquals(FilterApi.ltEq(FilterApi.longColumn("ts"), raw - 1),
+                converter.convert(compare(Kind.LT, path("ts"), ATypeTag.DATETIME, millis)));
+        //Comparing a timestamp to a string is never true in SQL++, but it is not translated either
+        Assert.assertNull(converter.convert(compare(Kind.LT, path("ts"), ATypeTag.STRING, "2021")));
+    }
+
+    @Test
+    public void strings() {
+        Assert.assertEquals(FilterApi.eq(FilterApi.binaryColumn("a.b"), Binary.fromString("abc")),
+                converter.convert(compare(Kind.EQ, path("a", "b"), ATypeTag.STRING, "abc")));
+        Assert.assertEquals(FilterApi.gt(FilterApi.binaryColumn("s"), Binary.fromString("abc")),
+                converter.convert(compare(Kind.GT, path("s"), ATypeTag.STRING, "abc")));
+        //UTF-8 and UTF-16 orders differ for characters above the surrogates
+        Assert.assertNull(converter.convert(compare(Kind.GT, path("s"), ATypeTag.STRING, "\uE000")));
+        //JSON strings are parsed
+        Assert.assertNull(converter.convert(compare(Kind.EQ, path("j"), ATypeTag.STRING, "abc")));
+    }
+
+    @Test
+    public void missingAndUnsupportedColumns() {
+        //A column that is not in the file is MISSING: comparisons are never true
+        Assert.assertEquals(FilterApi.notEq(FilterApi.longColumn("y"), null),
+                converter.convert(compare(Kind.EQ, path("y"), ATypeTag.BIGINT, 1L)));
+        Assert.assertNull(converter.convert(ExternalFilterPredicate.isUnknown(path("y"), false)));
+        Assert.assertNull(converter.convert(compare(Kind.EQ, path("r"), ATypeTag.BIGINT, 1L)));
+        Assert.assertNull(converter.convert(compare(Kind.EQ, path("a"), ATypeTag.BIGINT, 1L)));
+        Assert.assertEquals(FilterApi.eq(FilterApi.binaryColumn("s"), null),
+                converter.convert(ExternalFilterPredicate.isUnknown(path("s"), false)));
+        //A JSON string could be "null"
+        Assert.assertNull(converter.convert(ExternalFilterPredicate.isUnknown(path("j"), false)));
+    }
+
+    @Test
+    public void conjunctionsAndDisjunctions() {
+        ExternalFilterPredicate x = compare(Kind.EQ, path("x"), ATypeTag.BIGINT, 1L);
+        ExternalFilterPredicate json = compare(Kind.EQ, path("j"), ATypeTag.STRING, "abc");
+        ExternalFilterPredicate s = compare(Kind.EQ, path("s"), ATypeTag.STRING, "abc");
+        //The untranslatable conjuncts are dropped
+        Assert.assertEquals(
+                FilterApi.and(FilterApi.eq(FilterApi.intColumn("x"), 1),
+                        FilterApi.eq(FilterApi.binaryColumn("s"), Binary.fromString("abc"))),
+                converter.convert(ExternalFilterPredicate.and(Arrays.asList(x, json, s))));
+        //A disjunction is only translated if all of its disjuncts are
+        Assert.assertNull(converter.convert(ExternalFilterPredicate.or(Arrays.asList(x, json))));
+        Assert.assertEquals(
+                FilterApi.or(FilterApi.eq(FilterApi.intColumn("x"), 1),
+                        FilterApi.eq(FilterApi.binaryColumn("s"), Binary.fromString("abc"))),
+                converter.convert(ExternalFilterPredicate.or(Arrays.asList(x, s))));
+    }
+
+    private static ExternalFilterPredicate compare(Kind kind, List<String> path, ATypeTag typeTag,
+            Serializable value) {
+        return ExternalFilterPredicate.compare(kind, path, typeTag, value);
+    }
+
+    private static List<String> path(String... fieldNames) {
+        return Arrays.asList(fieldNames);
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.ipc;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class PythonSharedMemoryChannelTest {
+    private static final int SLOT_SIZE = 64;
+
+    @Test
+    public void testRequestSlots() throws IOException {
+        Path path = Files.createTempFile("python-udf-shm", null);
+        try (PythonSharedMemoryChannel channel = new PythonSharedMemoryChannel(path, 2, SLOT_SIZE)) {
+            ByteBuffer head = ByteBuffer.allocate(8);
+            head.put((byte) 1).put((byte) 2);
+            ArrayBackedValueStorage content = new ArrayBackedValueStorage();
+            content.getDataOutput().write(new byte[] { 3, 4, 5 });
+            Assert.assertTrue(channel.writeRequest(1, head, content));
+
+            //the worker sees the request in the second request slot
+            byte[] request = new byte[5];
+            ByteBuffer.wrap(Files.readAllBytes(path), channel.getRequestOffset(1), 5).get(request);
+            Assert.assertArrayEquals(new byte[] { 1, 2, 3, 4, 5 }, request);
+
+            //messages that do not fit are left to the pipe
+            content.getDataOutput().write(new byte[SLOT_SIZE]);
+            Assert.assertFalse(channel.writeRequest(0, head, content));
+        }
+        Assert.assertFalse(Files.exists(path));
+    }
+
+    @Test
+    public void testResponseSlots() throws IOException {
+        Path path = Files.createTempFile("python-udf-shm", null);
+        try (PythonSharedMemoryChannel channel = new PythonSharedMemoryChannel(path, 2, SLOT_SIZE)) {
+            //the worker writes the response into the first response slot
+            try (FileChannel worker = FileChannel.open(path, StandardOpenOption.WRITE)) {
+                worker.write(ByteBuffer.wrap(new byte[] { 5, 6, 7 }), channel.getResponseOffset(0));
+            }
+            ByteBuffer response = channel.readResponse(0, 3, ByteBuffer.allocate(2));
+            Assert.assertEquals(0, response.position());
+            Assert.assertEquals(4, response.limit());
+            Assert.assertEquals(5, response.get());
+            Assert.assertEquals(6, response.get());
+            Assert.assertEquals(7, response.get());
+            try {
+                channel.readResponse(0, SLOT_SIZE + 1, response);
+                Assert.fail("Expected the length of the response to be rejected");
+            } catch (IOException e) {
+                //expected
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ExternalFileListingCacheTest {
+    private final AtomicLong clock = new AtomicLong();
+    private final AtomicInteger listings = new AtomicInteger();
+    private final ExternalFileListingCache cache = new ExternalFileListingCache(clock::get);
+
+    @Test
+    public void testTimeToLive() throws CompilationException {
+        Map<String, String> configuration = createConfiguration("bucket", "10");
+        Assert.assertEquals(Arrays.asList("a", "b"), list(configuration));
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(9));
+        Assert.assertEquals(Arrays.asList("a", "b"), list(configuration));
+        Assert.assertEquals(1, listings.get());
+
+        //Query specific properties do not change the listing
+        configuration.put(ExternalDataConstants.KEY_FILTER_PREDICATE, "filter");
+        list(configuration);
+        Assert.assertEquals(1, listings.get());
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        list(configuration);
+        Assert.assertEquals(2, listings.get());
+    }
+
+    @Test
+    public void testDisabled() throws CompilationException {
+        Map<String, String> configuration = createConfiguration("bucket", null);
+        list(configuration);
+        list(configuration);
+        Assert.assertEquals(2, listings.get());
+        Assert.assertEquals(0, cache.size());
+        Assert.assertFalse(ExternalFileListingCache.isEnabled(configuration));
+        Assert.assertTrue(ExternalFileListingCache.isEnabled(createConfiguration("bucket", "1")));
+    }
+
+    @Test
+    public void testInvalidate() throws CompilationException {
+        Map<String, String> first = createConfiguration("first", "60");
+        Map<String, String> second = createConfiguration("second", "60");
+        list(first);
+        list(second);
+        Assert.assertEquals(2, cache.size());
+
+        cache.invalidate("first");
+        list(first);
+        list(second);
+        Assert.assertEquals(3, listings.get());
+
+        cache.invalidateAll();
+        Assert.assertEquals(0, cache.size());
+    }
+
+    private List<String> list(Map<String, String> configuration) throws CompilationException {
+        return cache.getFiles(configuration, () -> {
+            listings.incrementAndGet();
+            return Arrays.asList("a", "b");
+        });
+    }
+
+    private static Map<String, String> createConfiguration(String container, String ttl) {
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.CONTAINER_NAME_FIELD_NAME, container);
+        configuration.put(ExternalDataConstants.DEFINITION_FIELD_NAME, "data/");
+        if (ttl != null) {
+            configuration.put(ExternalDataConstants.KEY_LISTING_CACHE_TTL, ttl);
+        }
+        return configuration;
+    }
+}
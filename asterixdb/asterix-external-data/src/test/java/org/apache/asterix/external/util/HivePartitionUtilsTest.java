@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.external.util;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate;
+import org.apache.asterix.runtime.projection.ExternalFilterPredicate.Kind;
+import org.apache.commons.lang3.SerializationUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HivePartitionUtilsTest {
+
+    @Test
+    public void testPartitionValues() {
+        Map<String, Serializable> expected = new LinkedHashMap<>();
+        expected.put("year", 2021L);
+        expected.put("month", 1L);
+        expected.put("region", "us-west");
+        Assert.assertEquals(expected,
+                HivePartitionUtils.getPartitionValues("sales/year=2021/month=01/region=us-west/x.json"));
+
+        //File names and components without a key or a value are not partitions
+        Assert.assertEquals(Collections.emptyMap(), HivePartitionUtils.getPartitionValues("a=1.json"));
+        Assert.assertEquals(Collections.emptyMap(), HivePartitionUtils.getPartitionValues("data/=1/a=/b/a=1.json"));
+
+        Map<String, Serializable> values =
+                HivePartitionUtils.getPartitionValues("s3a://bucket/k=a%3Db%2Fc/d=__HIVE_DEFAULT_PARTITION__/f");
+        Assert.assertEquals("a=b/c", values.get("k"));
+        Assert.assertTrue(values.containsKey("d"));
+        Assert.assertNull(values.get("d"));
+    }
+
+    @Test
+    public void testParseValue() {
+        Assert.assertEquals(-12L, HivePartitionUtils.parseValue("-12"));
+        Assert.assertEquals("-", HivePartitionUtils.parseValue("-"));
+        Assert.assertEquals("1.5", HivePartitionUtils.parseValue("1.5"));
+        Assert.assertEquals("2021-01-01", HivePartitionUtils.parseValue("2021-01-01"));
+        Assert.assertEquals("12345678901234567890", HivePartitionUtils.parseValue("12345678901234567890"));
+    }
+
+    @Test
+    public void testMayMatch() {
+        Map<String, Serializable> values = HivePartitionUtils.getPartitionValues("year=2021/month=11/city=Irvine/f");
+        Assert.assertTrue(HivePartitionUtils.mayMatch(eq("year", 2021L), values));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(eq("year", 2020L), values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(compare(Kind.GE, "month", 11.0), values));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(compare(Kind.GT, "month", 11.0), values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(compare(Kind.LT, "city", "Riverside"), values));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(compare(Kind.NEQ, "city", "Irvine"), values));
+
+        //Unknown fields and incompatible types cannot prune
+        Assert.assertTrue(HivePartitionUtils.mayMatch(eq("day", 1L), values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(eq("year", "2020"), values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(
+                ExternalFilterPredicate.compare(Kind.EQ, Arrays.asList("year", "x"), ATypeTag.BIGINT, 1L), values));
+
+        ExternalFilterPredicate noMatch = eq("year", 2020L);
+        ExternalFilterPredicate unknown = eq("day", 1L);
+        Assert.assertFalse(HivePartitionUtils.mayMatch(and(unknown, noMatch), values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(or(unknown, noMatch), values));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(or(noMatch, eq("month", 12L)), values));
+
+        Map<String, Serializable> nullValues =
+                HivePartitionUtils.getPartitionValues("year=" + HivePartitionUtils.DEFAULT_PARTITION_NAME + "/f");
+        ExternalFilterPredicate isUnknown = ExternalFilterPredicate.isUnknown(path("year"), false);
+        ExternalFilterPredicate isKnown = ExternalFilterPredicate.isUnknown(path("year"), true);
+        Assert.assertFalse(HivePartitionUtils.mayMatch(compare(Kind.NEQ, "year", 2020L), nullValues));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(isUnknown, nullValues));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(isKnown, nullValues));
+        Assert.assertFalse(HivePartitionUtils.mayMatch(isUnknown, values));
+        Assert.assertTrue(HivePartitionUtils.mayMatch(isKnown, values));
+    }
+
+    @Test
+    public void testPrune() {
+        List<String> files = Arrays.asList("d/year=2020/a.json", "d/year=2021/b.json", "d/c.json");
+        Map<String, String> configuration = new HashMap<>();
+        configuration.put(ExternalDataConstants.KEY_FILTER_PREDICATE,
+                Base64.getEncoder().encodeToString(SerializationUtils.serialize(eq("year", 2021L))));
+        //Partitioning is opt-in
+        Assert.assertEquals(files, HivePartitionUtils.prune(configuration, files, Function.identity()));
+
+        configuration.put(ExternalDataConstants.KEY_HIVE_PARTITIONING, ExternalDataConstants.TRUE);
+        Assert.assertEquals(Arrays.asList("d/year=2021/b.json", "d/c.json"),
+                HivePartitionUtils.prune(configuration, files, Function.identity()));
+    }
+
+    private static List<String> path(String fieldName) {
+        return Collections.singletonList(fieldName);
+    }
+
+    private static ExternalFilterPredicate eq(String fieldName, Serializable constant) {
+        return compare(Kind.EQ, fieldName, constant);
+    }
+
+    private static ExternalFilterPredicate compare(Kind kind, String fieldName, Serializable constant) {
+        ATypeTag typeTag = constant instanceof Long ? ATypeTag.BIGINT
+                : constant instanceof Double ? ATypeTag.DOUBLE : ATypeTag.STRING;
+        return ExternalFilterPredicate.compare(kind, path(fieldName), typeTag, constant);
+    }
+
+    private static ExternalFilterPredicate and(ExternalFilterPredicate... children) {
+        return ExternalFilterPredicate.and(Arrays.asList(children));
+    }
+
+    private static ExternalFilterPredicate or(ExternalFilterPredicate... children) {
+        return ExternalFilterPredicate.or(Arrays.asList(children));
+    }
+}
@@ -18,10 +18,12 @@
  */
 package org.apache.asterix.lang.common.statement;
 
+import java.util.HashMap;
 import java.util.Map;
 
 import org.apache.asterix.common.config.DatasetConfig.DatasetType;
 import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
 import org.apache.asterix.common.metadata.DataverseName;
 import org.apache.asterix.lang.common.base.AbstractStatement;
 import org.apache.asterix.lang.common.base.Statement;
@@ -31,6 +33,7 @@ import org.apache.asterix.lang.common.struct.Identifier;
 import org.apache.asterix.lang.common.util.ConfigurationUtil;
 import org.apache.asterix.lang.common.util.DatasetDeclParametersUtil;
 import org.apache.asterix.lang.common.visitor.base.ILangVisitor;
+import org.apache.asterix.metadata.dataset.hints.DatasetHints.DatasetStorageFormatHint;
 import org.apache.asterix.object.base.AdmObjectNode;
 import org.apache.asterix.object.base.IAdmNode;
 import org.apache.asterix.runtime.compression.CompressionManager;
@@ -53,8 +56,8 @@ public class DatasetDecl extends AbstractStatement {
         this.name = name;
         this.itemType = itemType;
         this.metaItemType = metaItemType;
-        this.hints = hints;
         this.withObjectNode = DatasetDeclParametersUtil.validateAndGetWithObjectNode(withRecord, datasetType);
+        this.hints = addStorageFormatHint(hints, withObjectNode, datasetType);
         this.ifNotExists = ifNotExists;
         this.datasetType = datasetType;
         this.datasetDetailsDecl = idd;
@@ -136,6 +139,29 @@ public class DatasetDecl extends AbstractStatement {
         return hints;
     }
 
+    /**
+     * The storage format of the WITH clause (i.e., {"storage-format": {"format": "column"}}) is kept as the
+     * {@link DatasetStorageFormatHint} of the dataset
+     */
+    private static Map<String, String> addStorageFormatHint(Map<String, String> hints, AdmObjectNode withObjectNode,
+            DatasetType datasetType) throws CompilationException {
+        AdmObjectNode storageFormat =
+                (AdmObjectNode) withObjectNode.get(DatasetDeclParametersUtil.STORAGE_FORMAT_PARAMETER_NAME);
+        if (storageFormat == null || datasetType != DatasetType.INTERNAL) {
+            return hints;
+        }
+        String format = storageFormat.getOptionalString(DatasetDeclParametersUtil.STORAGE_FORMAT_FORMAT_PARAMETER_NAME);
+        if (!DatasetStorageFormatHint.ROW.equalsIgnoreCase(format)
+                && !DatasetStorageFormatHint.COLUMN.equalsIgnoreCase(format)) {
+            throw new CompilationException(ErrorCode.INVALID_PARAM_VALUE_ALLOWED_VALUE,
+                    DatasetDeclParametersUtil.STORAGE_FORMAT_PARAMETER_NAME,
+                    DatasetStorageFormatHint.ROW.toLowerCase() + ", " + DatasetStorageFormatHint.COLUMN.toLowerCase());
+        }
+        Map<String, String> hintsWithFormat = new HashMap<>(hints);
+        hintsWithFormat.put(DatasetStorageFormatHint.NAME, format);
+        return hintsWithFormat;
+    }
+
     @Override
     public <R, T> R accept(ILangVisitor<R, T> visitor, T arg) throws CompilationException {
         return visitor.visit(this, arg);
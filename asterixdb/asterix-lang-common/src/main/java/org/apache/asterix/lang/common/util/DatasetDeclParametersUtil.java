@@ -56,6 +56,13 @@ public class DatasetDeclParametersUtil {
     public static final String STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME = "storage-block-compression";
     public static final String STORAGE_BLOCK_COMPRESSION_SCHEME_PARAMETER_NAME = "scheme";
 
+    /* ***********************************************
+     * Storage Format Parameters
+     * ***********************************************
+     */
+    public static final String STORAGE_FORMAT_PARAMETER_NAME = "storage-format";
+    public static final String STORAGE_FORMAT_FORMAT_PARAMETER_NAME = "format";
+
     /* ***********************************************
      * Node Group Parameters
      * ***********************************************
@@ -90,11 +97,12 @@ public class DatasetDeclParametersUtil {
     }
 
     private static ARecordType getWithObjectType() {
-        final String[] withNames =
-                { MERGE_POLICY_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME, NODE_GROUP_NAME };
+        final String[] withNames = { MERGE_POLICY_PARAMETER_NAME, STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME,
+                NODE_GROUP_NAME, STORAGE_FORMAT_PARAMETER_NAME };
         final IAType[] withTypes = { AUnionType.createUnknownableType(getMergePolicyType()),
                 AUnionType.createUnknownableType(getStorageBlockCompressionType()),
-                AUnionType.createUnknownableType(getNodeGroupType()) };
+                AUnionType.createUnknownableType(getNodeGroupType()),
+                AUnionType.createUnknownableType(getStorageFormatType()) };
         return new ARecordType("withObject", withNames, withTypes, false);
     }
 
@@ -127,6 +135,12 @@ public class DatasetDeclParametersUtil {
         return new ARecordType(STORAGE_BLOCK_COMPRESSION_PARAMETER_NAME, schemeName, schemeType, false);
     }
 
+    private static ARecordType getStorageFormatType() {
+        final String[] formatName = { STORAGE_FORMAT_FORMAT_PARAMETER_NAME };
+        final IAType[] formatType = { BuiltinType.ASTRING };
+        return new ARecordType(STORAGE_FORMAT_PARAMETER_NAME, formatName, formatType, false);
+    }
+
     private static ARecordType getNodeGroupType() {
         final String[] schemeName = { NODE_GROUP_NAME_PARAMETER_NAME };
         final IAType[] schemeType = { BuiltinType.ASTRING };
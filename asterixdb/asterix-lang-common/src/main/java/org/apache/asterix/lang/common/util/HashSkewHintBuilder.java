@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.lang.common.util;
+
+import java.util.List;
+
+import org.apache.asterix.common.exceptions.CompilationException;
+import org.apache.asterix.common.exceptions.ErrorCode;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.lang.common.base.Literal;
+import org.apache.asterix.lang.common.literal.DoubleLiteral;
+import org.apache.asterix.lang.common.literal.FloatLiteral;
+import org.apache.asterix.lang.common.literal.IntegerLiteral;
+import org.apache.asterix.lang.common.literal.LongIntegerLiteral;
+import org.apache.asterix.lang.common.literal.StringLiteral;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AFloat;
+import org.apache.asterix.om.base.AInt32;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+public class HashSkewHintBuilder {
+
+    private HashSkewHintBuilder() {
+    }
+
+    /**
+     * @param hotValues the literal hot values of a join key, e.g. {@code ("u1", "u2")}
+     * @return the serialized hot values
+     */
+    @SuppressWarnings("unchecked")
+    public static byte[][] parseHint(List<Literal> hotValues, SourceLocation sourceLoc) throws CompilationException {
+        if (hotValues.isEmpty()) {
+            throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc, "Expected hot value(s)");
+        }
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        byte[][] serializedValues = new byte[hotValues.size()][];
+        for (int i = 0; i < serializedValues.length; i++) {
+            storage.reset();
+            try {
+                serde.serialize(toObject(hotValues.get(i), sourceLoc), storage.getDataOutput());
+            } catch (HyracksDataException e) {
+                throw new CompilationException(ErrorCode.COMPILATION_ERROR, e, sourceLoc, e.getMessage());
+            }
+            serializedValues[i] = storage.toByteArray();
+        }
+        return serializedValues;
+    }
+
+    private static IAObject toObject(Literal l, SourceLocation sourceLoc) throws CompilationException {
+        switch (l.getLiteralType()) {
+            case STRING:
+                return new AString(((StringLiteral) l).getValue());
+            case INTEGER:
+                return new AInt32(((IntegerLiteral) l).getValue());
+            case LONG:
+                return new AInt64(((LongIntegerLiteral) l).getValue());
+            case DOUBLE:
+                return new ADouble(((DoubleLiteral) l).getValue());
+            case FLOAT:
+                return new AFloat(((FloatLiteral) l).getValue());
+            default:
+                throw new CompilationException(ErrorCode.COMPILATION_ERROR, sourceLoc,
+                        "Unsupported hot value type: " + l.getLiteralType());
+        }
+    }
+}
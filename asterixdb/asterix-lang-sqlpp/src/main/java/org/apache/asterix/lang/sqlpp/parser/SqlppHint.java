@@ -28,6 +28,7 @@ public enum SqlppHint {
     // optimizer hints
     AUTO_HINT("auto"),
     HASH_BROADCAST_JOIN_HINT("hash-bcast"),
+    HASH_SKEW_JOIN_HINT("hash-skew"),
     COMPOSE_VAL_FILES_HINT("compose-val-files"),
     DATE_BETWEEN_YEARS_HINT("date-between-years"),
     DATETIME_ADD_RAND_HOURS_HINT("datetime-add-rand-hours"),
@@ -60,6 +60,7 @@ public class DatasetHints {
         Set<IHint> hints = new HashSet<>();
         hints.add(new DatasetCardinalityHint());
         hints.add(new DatasetNodegroupCardinalityHint());
+        hints.add(new DatasetStorageFormatHint());
         return hints;
     }
 
@@ -129,4 +130,28 @@ public class DatasetHints {
 
     }
 
+    /**
+     * Hint representing the storage format of the disk components of the dataset's primary index.
+     * {@link #COLUMN} stores the records' values column-by-column.
+     */
+    public static class DatasetStorageFormatHint implements IHint {
+        public static final String NAME = "STORAGE_FORMAT";
+
+        public static final String ROW = "ROW";
+        public static final String COLUMN = "COLUMN";
+
+        @Override
+        public String getName() {
+            return NAME;
+        }
+
+        @Override
+        public Pair<Boolean, String> validateValue(ICcApplicationContext appCtx, String value) {
+            String format = value.trim();
+            if (ROW.equalsIgnoreCase(format) || COLUMN.equalsIgnoreCase(format)) {
+                return new Pair<>(true, null);
+            }
+            return new Pair<>(false, "Value must be either " + ROW + " or " + COLUMN);
+        }
+    }
 }
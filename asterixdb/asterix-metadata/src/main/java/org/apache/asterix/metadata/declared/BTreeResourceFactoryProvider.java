@@ -33,10 +33,12 @@ import org.apache.asterix.formats.nontagged.NullIntrospector;
 import org.apache.asterix.metadata.api.IResourceFactoryProvider;
 import org.apache.asterix.metadata.entities.Dataset;
 import org.apache.asterix.metadata.entities.Index;
+import org.apache.asterix.metadata.utils.DatasetUtil;
 import org.apache.asterix.metadata.utils.IndexUtil;
 import org.apache.asterix.om.types.ARecordType;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.runtime.column.ColumnManagerFactory;
 import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
 import org.apache.hyracks.algebricks.common.utils.Pair;
 import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
@@ -45,6 +47,8 @@ import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.ITypeTraits;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.dataflow.ColumnLSMBTreeLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.ExternalBTreeWithBuddyLocalResourceFactory;
 import org.apache.hyracks.storage.am.lsm.btree.dataflow.LSMBTreeLocalResourceFactory;
@@ -115,13 +119,30 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
 
                 boolean isSecondaryNoIncrementalMaintenance = index.getIndexType() == DatasetConfig.IndexType.SAMPLE;
 
+                if (index.isPrimaryIndex() && DatasetUtil.isColumnar(dataset)) {
+                    if (dataset.hasMetaPart() || filterTypeTraits != null) {
+                        throw new CompilationException(ErrorCode.COMPILATION_ERROR,
+                                "Columnar datasets with meta records or filters are not supported");
+                    }
+                    // The columns are already encoded. Thus, the columnar components are not compressed
+                    IColumnManagerFactory columnManagerFactory = new ColumnManagerFactory(recordType,
+                            dataset.getPrimaryKeys().size(), ColumnManagerFactory.DEFAULT_MAX_ROW_GROUP_PAGES);
+                    return new ColumnLSMBTreeLocalResourceFactory(storageManager, typeTraits, cmpFactories,
+                            opTrackerFactory, ioOpCallbackFactory, pageWriteCallbackFactory, metadataPageManagerFactory,
+                            vbcProvider, ioSchedulerProvider, mergePolicyFactory, mergePolicyProperties, true,
+                            bloomFilterFields, bloomFilterFalsePositiveRate, btreeFields,
+                            NoOpCompressorDecompressorFactory.INSTANCE, hasBloomFilter,
+                            typeTraitProvider.getTypeTrait(BuiltinType.ANULL), NullIntrospector.INSTANCE,
+                            columnManagerFactory);
+                }
+
                 return new LSMBTreeLocalResourceFactory(storageManager, typeTraits, cmpFactories, filterTypeTraits,
                         filterCmpFactories, filterFields, opTrackerFactory, ioOpCallbackFactory,
                         pageWriteCallbackFactory, metadataPageManagerFactory, vbcProvider, ioSchedulerProvider,
                         mergePolicyFactory, mergePolicyProperties, true, bloomFilterFields,
                         bloomFilterFalsePositiveRate, index.isPrimaryIndex(), btreeFields, compDecompFactory,
                         hasBloomFilter, typeTraitProvider.getTypeTrait(BuiltinType.ANULL), NullIntrospector.INSTANCE,
-                        isSecondaryNoIncrementalMaintenance);
+                        isSecondaryNoIncrementalMaintenance, getStatisticsFields(mdProvider, dataset, index));
             default:
                 throw new CompilationException(ErrorCode.COMPILATION_UNKNOWN_DATASET_TYPE,
                         dataset.getDatasetType().toString());
@@ -199,6 +220,29 @@ public class BTreeResourceFactoryProvider implements IResourceFactoryProvider {
         return secondaryCmpFactories;
     }
 
+    /**
+     * @return the key fields whose statistics are collected for the cost-based optimizer: the primary keys of the
+     *         primary index and the secondary keys of secondary btree indexes
+     */
+    private static int[] getStatisticsFields(MetadataProvider mdProvider, Dataset dataset, Index index) {
+        if (!mdProvider.getStorageProperties().isStatisticsEnabled()) {
+            return null;
+        }
+        int numKeys;
+        if (index.isPrimaryIndex()) {
+            numKeys = dataset.getPrimaryKeys().size();
+        } else if (index.getIndexType() == DatasetConfig.IndexType.BTREE && !index.isPrimaryKeyIndex()) {
+            numKeys = ((Index.ValueIndexDetails) index.getIndexDetails()).getKeyFieldNames().size();
+        } else {
+            return null;
+        }
+        int[] statisticsFields = new int[numKeys];
+        for (int i = 0; i < numKeys; i++) {
+            statisticsFields[i] = i;
+        }
+        return statisticsFields;
+    }
+
     private static int[] getBloomFilterFields(Dataset dataset, Index index) throws AlgebricksException {
         // both the Primary index and the Primary Key index have bloom filters
         if (index.isPrimaryIndex() || index.isPrimaryKeyIndex()) {
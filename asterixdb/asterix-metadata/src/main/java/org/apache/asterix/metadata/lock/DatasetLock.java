@@ -19,6 +19,7 @@
 package org.apache.asterix.metadata.lock;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.asterix.common.exceptions.ErrorCode;
@@ -41,6 +42,8 @@ public class DatasetLock implements IMetadataLock {
     // order of entry indexBuildCounter -> indexModifyCounter
     private final MutableInt indexBuildCounter;
     private final MutableInt dsModifyCounter;
+    // Advanced whenever the dataset's metadata may change (write or upgraded write)
+    private final AtomicLong version;
 
     public DatasetLock(MetadataLockKey key) {
         this.key = key;
@@ -49,6 +52,7 @@ public class DatasetLock implements IMetadataLock {
         modifyLock = new ReentrantReadWriteLock(true);
         indexBuildCounter = new MutableInt(0);
         dsModifyCounter = new MutableInt(0);
+        version = new AtomicLong();
     }
 
     private void readLock() {
@@ -170,6 +174,7 @@ public class DatasetLock implements IMetadataLock {
     public void upgrade(IMetadataLock.Mode from, IMetadataLock.Mode to) throws AlgebricksException {
         if (from == IMetadataLock.Mode.EXCLUSIVE_MODIFY && to == IMetadataLock.Mode.UPGRADED_WRITE) {
             upgradeLock.writeLock().lock();
+            version.incrementAndGet();
         } else {
             throw new MetadataException(ErrorCode.ILLEGAL_LOCK_UPGRADE_OPERATION, from, to);
         }
@@ -201,6 +206,7 @@ public class DatasetLock implements IMetadataLock {
                 break;
             case WRITE:
                 writeLock();
+                version.incrementAndGet();
                 break;
             case READ:
                 readLock();
@@ -248,6 +254,11 @@ public class DatasetLock implements IMetadataLock {
         return key;
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public int hashCode() {
         return key.hashCode();
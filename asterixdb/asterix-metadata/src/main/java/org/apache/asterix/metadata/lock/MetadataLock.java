@@ -19,6 +19,7 @@
 package org.apache.asterix.metadata.lock;
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 import org.apache.asterix.common.metadata.IMetadataLock;
@@ -26,6 +27,7 @@ import org.apache.asterix.common.metadata.IMetadataLock;
 public class MetadataLock implements IMetadataLock {
     private final MetadataLockKey key;
     private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock(true);
+    private final AtomicLong version = new AtomicLong();
 
     public MetadataLock(MetadataLockKey key) {
         this.key = Objects.requireNonNull(key);
@@ -36,6 +38,7 @@ public class MetadataLock implements IMetadataLock {
         switch (mode) {
             case WRITE:
                 lock.writeLock().lock();
+                version.incrementAndGet();
                 break;
             default:
                 lock.readLock().lock();
@@ -60,6 +63,11 @@ public class MetadataLock implements IMetadataLock {
         return key;
     }
 
+    @Override
+    public long getVersion() {
+        return version.get();
+    }
+
     @Override
     public int hashCode() {
         return key.hashCode();
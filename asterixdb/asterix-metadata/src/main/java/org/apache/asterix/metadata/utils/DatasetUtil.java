@@ -48,6 +48,7 @@ import org.apache.asterix.formats.nontagged.TypeTraitProvider;
 import org.apache.asterix.metadata.IDatasetDetails;
 import org.apache.asterix.metadata.MetadataManager;
 import org.apache.asterix.metadata.MetadataTransactionContext;
+import org.apache.asterix.metadata.dataset.hints.DatasetHints.DatasetStorageFormatHint;
 import org.apache.asterix.metadata.declared.MetadataProvider;
 import org.apache.asterix.metadata.entities.CompactionPolicy;
 import org.apache.asterix.metadata.entities.Dataset;
@@ -627,4 +628,20 @@ public class DatasetUtil {
     public static boolean isNotView(Dataset dataset) {
         return dataset.getDatasetType() != DatasetType.VIEW;
     }
+
+    /**
+     * @return true if the disk components of the dataset's primary index store the records column-by-column
+     * @see DatasetStorageFormatHint
+     */
+    public static boolean isColumnar(Dataset dataset) {
+        if (dataset.getDatasetType() != DatasetType.INTERNAL) {
+            return false;
+        }
+        for (Map.Entry<String, String> hint : dataset.getHints().entrySet()) {
+            if (DatasetStorageFormatHint.NAME.equalsIgnoreCase(hint.getKey().trim())) {
+                return DatasetStorageFormatHint.COLUMN.equalsIgnoreCase(hint.getValue().trim());
+            }
+        }
+        return false;
+    }
 }
@@ -140,7 +140,7 @@ public class InvertedIndexResourceFactoryProvider implements IResourceFactoryPro
                 fullTextConfigEvaluatorFactory, isPartitioned, invertedIndexFields,
                 secondaryFilterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps,
                 bloomFilterFalsePositiveRate, typeTraitProvider.getTypeTrait(BuiltinType.ANULL),
-                NullIntrospector.INSTANCE);
+                NullIntrospector.INSTANCE, mdProvider.getStorageProperties().isCompressedInvertedListsEnabled());
     }
 
     // Returns an array of the type traits of the inverted list elements
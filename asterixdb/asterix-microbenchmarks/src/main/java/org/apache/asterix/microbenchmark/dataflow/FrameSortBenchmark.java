@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.dataflow;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.INormalizedKeyComputerFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.normalizers.IntegerNormalizedKeyComputerFactory;
+import org.apache.hyracks.dataflow.std.buffermanager.EnumFreeSlotPolicy;
+import org.apache.hyracks.dataflow.std.buffermanager.FrameFreeSlotPolicyFactory;
+import org.apache.hyracks.dataflow.std.buffermanager.VariableFrameMemoryManager;
+import org.apache.hyracks.dataflow.std.buffermanager.VariableFramePool;
+import org.apache.hyracks.dataflow.std.sort.AbstractFrameSorter;
+import org.apache.hyracks.dataflow.std.sort.Algorithm;
+import org.apache.hyracks.dataflow.std.sort.FrameSorterMergeSort;
+import org.apache.hyracks.dataflow.std.sort.FrameSorterQuickSort;
+import org.apache.hyracks.test.support.TestUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures loading frames into an {@link AbstractFrameSorter} and sorting them in memory, as done by the run
+ * generator of the external sort. Tuples have a random integer key and a string payload. Sorting can use normalized
+ * keys (which decide every comparison for integer keys) or the comparators only.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameSortBenchmark {
+    private static final int FRAME_SIZE = 32768;
+    private static final int PAYLOAD_LENGTH = 32;
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+    private static final int[] SORT_FIELDS = { 0 };
+    private static final IBinaryComparatorFactory[] COMPARATORS = { IntegerBinaryComparatorFactory.INSTANCE };
+
+    @Param({ "MERGE_SORT", "QUICK_SORT" })
+    public Algorithm algorithm;
+
+    @Param({ "100000" })
+    public int numTuples;
+
+    @Param({ "true", "false" })
+    public boolean normalizedKeys;
+
+    private final List<ByteBuffer> frames = new ArrayList<>();
+    private AbstractFrameSorter sorter;
+
+    @Setup
+    public void setup() throws HyracksDataException {
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        Random random = new Random(0);
+        UTF8StringSerializerDeserializer stringSerde = new UTF8StringSerializerDeserializer();
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(RECORD_DESC.getFieldCount());
+        FrameTupleAppender appender = new FrameTupleAppender();
+        IFrame frame = new VSizeFrame(ctx);
+        appender.reset(frame, true);
+        for (int i = 0; i < numTuples; i++) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, random.nextInt());
+            tb.addField(stringSerde, RandomStringUtils.random(PAYLOAD_LENGTH, 0, 0, true, true, null, random));
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                frames.add(copy(frame.getBuffer()));
+                appender.reset(frame, true);
+                appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize());
+            }
+        }
+        frames.add(copy(frame.getBuffer()));
+
+        int maxSortFrames = frames.size() * 2;
+        VariableFrameMemoryManager bufferManager = new VariableFrameMemoryManager(
+                new VariableFramePool(ctx, maxSortFrames * FRAME_SIZE),
+                FrameFreeSlotPolicyFactory.createFreeSlotPolicy(EnumFreeSlotPolicy.LAST_FIT, maxSortFrames));
+        INormalizedKeyComputerFactory[] normalizers =
+                normalizedKeys ? new INormalizedKeyComputerFactory[] { new IntegerNormalizedKeyComputerFactory() }
+                        : null;
+        sorter = algorithm == Algorithm.MERGE_SORT
+                ? new FrameSorterMergeSort(ctx, bufferManager, maxSortFrames, SORT_FIELDS, normalizers, COMPARATORS,
+                        RECORD_DESC)
+                : new FrameSorterQuickSort(ctx, bufferManager, maxSortFrames, SORT_FIELDS, normalizers, COMPARATORS,
+                        RECORD_DESC, Integer.MAX_VALUE);
+    }
+
+    private static ByteBuffer copy(ByteBuffer buffer) {
+        ByteBuffer copy = ByteBuffer.allocate(buffer.capacity());
+        copy.put(buffer.array(), 0, buffer.capacity());
+        copy.flip();
+        return copy;
+    }
+
+    @TearDown
+    public void tearDown() {
+        sorter.close();
+    }
+
+    @Benchmark
+    public int loadAndSort() throws HyracksDataException {
+        sorter.reset();
+        for (ByteBuffer frame : frames) {
+            if (!sorter.insertFrame(frame)) {
+                throw new IllegalStateException("Sort buffer is too small");
+            }
+        }
+        sorter.sort();
+        return sorter.getFrameCount();
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.dataflow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures filling a frame with {@link FrameTupleAppender} (from serialized tuples and from another frame) and
+ * reading the fields of a full frame back with {@link FrameTupleAccessor}. Each invocation processes one frame.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FrameTupleBenchmark {
+    private static final int FRAME_SIZE = 32768;
+    private static final int NUM_TUPLES = 1024;
+    private static final RecordDescriptor RECORD_DESC = new RecordDescriptor(new ISerializerDeserializer[] {
+            IntegerSerializerDeserializer.INSTANCE, new UTF8StringSerializerDeserializer() });
+
+    @Param({ "16", "256" })
+    public int payloadLength;
+
+    private int[][] fieldEndOffsets;
+    private byte[][] tuples;
+    private IFrame frame;
+    private FrameTupleAppender appender;
+    private FrameTupleAccessor sourceAccessor;
+    private FrameTupleAccessor accessor;
+
+    @Setup
+    public void setup() throws HyracksDataException {
+        Random random = new Random(0);
+        UTF8StringSerializerDeserializer stringSerde = new UTF8StringSerializerDeserializer();
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(RECORD_DESC.getFieldCount());
+        fieldEndOffsets = new int[NUM_TUPLES][];
+        tuples = new byte[NUM_TUPLES][];
+        for (int i = 0; i < NUM_TUPLES; i++) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, random.nextInt());
+            tb.addField(stringSerde, RandomStringUtils.random(payloadLength, 0, 0, true, true, null, random));
+            fieldEndOffsets[i] = tb.getFieldEndOffsets().clone();
+            tuples[i] = new byte[tb.getSize()];
+            System.arraycopy(tb.getByteArray(), 0, tuples[i], 0, tb.getSize());
+        }
+        FrameManager frameManager = new FrameManager(FRAME_SIZE);
+        frame = new VSizeFrame(frameManager);
+        appender = new FrameTupleAppender();
+        IFrame sourceFrame = new VSizeFrame(frameManager);
+        appender.reset(sourceFrame, true);
+        int i = 0;
+        while (appender.append(fieldEndOffsets[i], tuples[i], 0, tuples[i].length)) {
+            i = (i + 1) % NUM_TUPLES;
+        }
+        sourceAccessor = new FrameTupleAccessor(RECORD_DESC);
+        sourceAccessor.reset(sourceFrame.getBuffer());
+        accessor = new FrameTupleAccessor(RECORD_DESC);
+    }
+
+    @Benchmark
+    public int appendSerializedTuples() throws HyracksDataException {
+        appender.reset(frame, true);
+        int i = 0;
+        while (appender.append(fieldEndOffsets[i], tuples[i], 0, tuples[i].length)) {
+            i = (i + 1) % NUM_TUPLES;
+        }
+        return appender.getTupleCount();
+    }
+
+    @Benchmark
+    public int appendFromAccessor() throws HyracksDataException {
+        appender.reset(frame, true);
+        int tupleCount = sourceAccessor.getTupleCount();
+        for (int i = 0; i < tupleCount; i++) {
+            appender.append(sourceAccessor, i);
+        }
+        return appender.getTupleCount();
+    }
+
+    @Benchmark
+    public long readFields() {
+        accessor.reset(sourceAccessor.getBuffer());
+        byte[] array = accessor.getBuffer().array();
+        int fieldSlotsLength = accessor.getFieldSlotsLength();
+        long sum = 0;
+        for (int i = 0; i < accessor.getTupleCount(); i++) {
+            int tupleStart = accessor.getTupleStartOffset(i) + fieldSlotsLength;
+            sum += IntegerPointable.getInteger(array, tupleStart + accessor.getFieldStartOffset(i, 0));
+            sum += accessor.getFieldLength(i, 1);
+        }
+        return sum;
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.dataflow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.context.IHyracksFrameMgrContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.control.nc.resources.memory.FrameManager;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.structures.SerializableHashTable;
+import org.apache.hyracks.dataflow.std.structures.TuplePointer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the build (insert) and probe (lookup) phases of the {@link SerializableHashTable} used by the in-memory
+ * hash join and group-by. Each invocation builds or probes the whole table; keys are random and the table is sized
+ * like the join sizes it, with one slot per expected build tuple.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializableHashTableBenchmark {
+    private static final int FRAME_SIZE = 32768;
+    private static final int MEMORY_BUDGET = 512 * 1024 * 1024;
+
+    @Param({ "100000", "1000000" })
+    public int numTuples;
+
+    private IHyracksFrameMgrContext ctx;
+    private int[] entries;
+    private final TuplePointer pointer = new TuplePointer();
+    private SerializableHashTable probeTable;
+
+    @Setup(Level.Trial)
+    public void setup() throws HyracksDataException {
+        ctx = new FrameManager(FRAME_SIZE);
+        Random random = new Random(0);
+        entries = new int[numTuples];
+        for (int i = 0; i < numTuples; i++) {
+            entries[i] = (random.nextInt() & Integer.MAX_VALUE) % numTuples;
+        }
+        probeTable = build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        probeTable.close();
+    }
+
+    private SerializableHashTable build() throws HyracksDataException {
+        SerializableHashTable table = new SerializableHashTable(numTuples, ctx,
+                new FramePoolBackedFrameBufferManager(new DeallocatableFramePool(ctx, MEMORY_BUDGET)));
+        for (int i = 0; i < numTuples; i++) {
+            // the pointer of a build tuple is (frame index, tuple index) of its position in the build frames
+            pointer.reset(i / 256, i % 256);
+            if (!table.insert(entries[i], pointer)) {
+                throw new IllegalStateException("Hash table ran out of memory");
+            }
+        }
+        return table;
+    }
+
+    @Benchmark
+    public int buildTable() throws HyracksDataException {
+        SerializableHashTable table = build();
+        int tupleCount = table.getTupleCount();
+        table.close();
+        return tupleCount;
+    }
+
+    @Benchmark
+    public long probeTable() {
+        long matches = 0;
+        for (int i = 0; i < numTuples; i++) {
+            int entry = entries[i];
+            int count = probeTable.getTupleCount(entry);
+            for (int j = 0; j < count; j++) {
+                probeTable.getTuplePointer(entry, j, pointer);
+                matches += pointer.getTupleIndex();
+            }
+        }
+        return matches;
+    }
+}
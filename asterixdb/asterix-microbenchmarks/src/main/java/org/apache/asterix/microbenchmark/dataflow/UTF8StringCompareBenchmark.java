@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.dataflow;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures comparing serialized strings with {@link UTF8StringPointable}. Strings may share a common prefix so that
+ * the comparison has to walk most of both values, and may contain non-ASCII characters so that multi-byte code points
+ * are decoded. Results are reported per comparison.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UTF8StringCompareBenchmark {
+    private static final int NUM_STRINGS = 1024;
+    private static final String ASCII_CHARS = "abcdefghijklmnopqrstuvwxyz";
+    // latin characters with diacritics take two bytes, CJK characters take three
+    private static final String NON_ASCII_CHARS =
+            "\u00e4\u00f6\u00fc\u00df\u00e9\u00e7\u00f1\u0142\u017e" + "\u4e2d\u6587\u5b57";
+
+    @Param({ "8", "128" })
+    public int length;
+
+    @Param({ "false", "true" })
+    public boolean sharedPrefix;
+
+    @Param({ "false", "true" })
+    public boolean nonAscii;
+
+    private UTF8StringPointable[] strings;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(0);
+        String prefix = sharedPrefix ? random(length - 1, random) : "";
+        strings = new UTF8StringPointable[NUM_STRINGS];
+        for (int i = 0; i < NUM_STRINGS; i++) {
+            strings[i] = UTF8StringPointable.generateUTF8Pointable(prefix + random(length - prefix.length(), random));
+        }
+    }
+
+    private String random(int count, Random random) {
+        String chars = nonAscii ? ASCII_CHARS + NON_ASCII_CHARS : ASCII_CHARS;
+        return RandomStringUtils.random(count, 0, chars.length(), false, false, chars.toCharArray(), random);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_STRINGS)
+    public int compare() {
+        int result = 0;
+        for (int i = 0; i < NUM_STRINGS; i++) {
+            result += UTF8StringPointable.compare(strings[i], strings[(i + 1) % NUM_STRINGS]);
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_STRINGS)
+    public int rawByteCompare() {
+        int result = 0;
+        for (int i = 0; i < NUM_STRINGS; i++) {
+            UTF8StringPointable left = strings[i];
+            UTF8StringPointable right = strings[(i + 1) % NUM_STRINGS];
+            result += UTF8StringUtil.rawByteCompareTo(left.getByteArray(), left.getStartOffset(),
+                    right.getByteArray(), right.getStartOffset());
+        }
+        return result;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_STRINGS)
+    public int lowerCaseCompare() {
+        int result = 0;
+        for (int i = 0; i < NUM_STRINGS; i++) {
+            UTF8StringPointable left = strings[i];
+            UTF8StringPointable right = strings[(i + 1) % NUM_STRINGS];
+            result += UTF8StringUtil.lowerCaseCompareTo(left.getByteArray(), left.getStartOffset(),
+                    right.getByteArray(), right.getStartOffset());
+        }
+        return result;
+    }
+}
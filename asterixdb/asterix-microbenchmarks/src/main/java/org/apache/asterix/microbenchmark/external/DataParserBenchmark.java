@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.external;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.external.api.IRecordDataParser;
+import org.apache.asterix.external.input.record.CharArrayRecord;
+import org.apache.asterix.external.parser.ADMDataParser;
+import org.apache.asterix.external.parser.JSONDataParser;
+import org.apache.asterix.om.pointables.base.DefaultOpenFieldType;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.core.JsonFactory;
+
+/**
+ * Measures parsing records into their binary ADM representation with the {@link ADMDataParser} and the
+ * {@link JSONDataParser}. The records are synthetic, open (no declared fields) and contain strings, numbers,
+ * booleans, a nested object and an array, which are all valid in both ADM and JSON. Results are reported per record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DataParserBenchmark {
+    private static final int NUM_RECORDS = 1024;
+
+    public enum Format {
+        ADM,
+        JSON
+    }
+
+    @Param({ "ADM", "JSON" })
+    public Format format;
+
+    @Param({ "4", "32" })
+    public int numFields;
+
+    private CharArrayRecord[] records;
+    private IRecordDataParser<char[]> parser;
+    private final ArrayBackedValueStorage output = new ArrayBackedValueStorage();
+
+    @Setup
+    public void setup() throws IOException {
+        Random random = new Random(0);
+        records = new CharArrayRecord[NUM_RECORDS];
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            records[i] = new CharArrayRecord();
+            records[i].set(generateRecord(i, random));
+            records[i].endRecord();
+        }
+        parser = format == Format.ADM ? new ADMDataParser(DefaultOpenFieldType.NESTED_OPEN_RECORD_TYPE, false)
+                : new JSONDataParser(DefaultOpenFieldType.NESTED_OPEN_RECORD_TYPE, new JsonFactory());
+    }
+
+    private String generateRecord(int id, Random random) {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"id\": ").append(id);
+        for (int f = 0; f < numFields; f++) {
+            sb.append(", \"field").append(f).append("\": ");
+            switch (f % 5) {
+                case 0:
+                    sb.append('"').append(RandomStringUtils.random(16, 0, 0, true, true, null, random)).append('"');
+                    break;
+                case 1:
+                    sb.append(random.nextInt());
+                    break;
+                case 2:
+                    sb.append(random.nextDouble());
+                    break;
+                case 3:
+                    sb.append("{\"flag\": ").append(random.nextBoolean()).append(", \"count\": ")
+                            .append(random.nextInt(100)).append('}');
+                    break;
+                default:
+                    sb.append('[').append(random.nextInt(10)).append(", ").append(random.nextInt(10)).append(']');
+                    break;
+            }
+        }
+        return sb.append('}').toString();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(NUM_RECORDS)
+    public int parse() throws HyracksDataException {
+        int length = 0;
+        for (int i = 0; i < NUM_RECORDS; i++) {
+            output.reset();
+            parser.parse(records[i], output.getDataOutput());
+            length += output.getLength();
+        }
+        return length;
+    }
+}
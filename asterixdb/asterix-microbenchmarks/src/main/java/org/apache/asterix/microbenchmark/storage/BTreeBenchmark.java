@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.storage;
+
+import java.io.IOException;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.frames.BTreeLeafFrameType;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
+import org.apache.hyracks.storage.am.common.freepage.LinkedMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures point searches in a bulk loaded {@link BTree} and random inserts into a B-Tree that is recreated for every
+ * iteration. Tuples are (int key, int value) pairs and the buffer cache holds the whole tree.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BTreeBenchmark {
+    private static final int PAGE_SIZE = 32768;
+    private static final int CACHE_PAGES = 16384;
+    private static final ITypeTraits[] TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+
+    @Param({ "1000000" })
+    public int numKeys;
+
+    private StorageBenchmarkContext context;
+    private BTree searchTree;
+    private IIndexAccessor searchAccessor;
+    private IIndexCursor searchCursor;
+    private RangePredicate searchPredicate;
+    private BTree insertTree;
+    private IIndexAccessor insertAccessor;
+    private int insertSequence;
+    private int numInsertTrees;
+
+    private final Random random = new Random(0);
+    private final ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+    private final ArrayTupleReference tuple = new ArrayTupleReference();
+    private final ArrayTupleBuilder keyTb = new ArrayTupleBuilder(1);
+    private final ArrayTupleReference key = new ArrayTupleReference();
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        context = new StorageBenchmarkContext(PAGE_SIZE, CACHE_PAGES);
+        searchTree = createBTree("btree-search");
+        IIndexBulkLoader bulkLoader = searchTree.createBulkLoader(1.0f, false, numKeys, true,
+                NoOpPageWriteCallback.INSTANCE);
+        for (int i = 0; i < numKeys; i++) {
+            TupleUtils.createIntegerTuple(tb, tuple, i, i);
+            bulkLoader.add(tuple);
+        }
+        bulkLoader.end();
+        searchAccessor = searchTree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        searchCursor = searchAccessor.createSearchCursor(false);
+        MultiComparator cmp = MultiComparator.create(CMP_FACTORIES);
+        searchPredicate = new RangePredicate(key, key, true, true, cmp, cmp);
+    }
+
+    @Setup(Level.Iteration)
+    public void setupInsertTree() throws HyracksDataException {
+        destroyInsertTree();
+        insertTree = createBTree("btree-insert-" + numInsertTrees++);
+        insertAccessor = insertTree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        insertSequence = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        destroyInsertTree();
+        searchCursor.destroy();
+        searchTree.deactivate();
+        searchTree.destroy();
+        context.close();
+    }
+
+    private BTree createBTree(String name) throws HyracksDataException {
+        IBufferCache bufferCache = context.getBufferCache();
+        BTree btree = BTreeUtils.createBTree(bufferCache, TYPE_TRAITS, CMP_FACTORIES, BTreeLeafFrameType.REGULAR_NSM,
+                context.getIOManager().resolve(name),
+                new LinkedMetadataPageManagerFactory().createPageManager(bufferCache), false, null, null);
+        btree.create();
+        btree.activate();
+        return btree;
+    }
+
+    private void destroyInsertTree() throws HyracksDataException {
+        if (insertTree != null) {
+            insertTree.deactivate();
+            insertTree.destroy();
+            insertTree = null;
+        }
+    }
+
+    @Benchmark
+    public int pointSearch() throws HyracksDataException {
+        TupleUtils.createIntegerTuple(keyTb, key, random.nextInt(numKeys));
+        int found = 0;
+        searchAccessor.search(searchCursor, searchPredicate);
+        try {
+            while (searchCursor.hasNext()) {
+                searchCursor.next();
+                found++;
+            }
+        } finally {
+            searchCursor.close();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public void randomInsert() throws HyracksDataException {
+        // multiplying by an odd constant permutes the ints, so keys are random but never collide
+        int k = insertSequence++ * 0x9E3779B1;
+        TupleUtils.createIntegerTuple(tb, tuple, k, k);
+        insertAccessor.insert(tuple);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.storage;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.buffercache.HaltOnFailureCallback;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IFIFOPageWriter;
+import org.apache.hyracks.storage.common.buffercache.NoOpPageWriteCallback;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures pinning, read latching and unpinning random pages of a file from several threads sharing one buffer
+ * cache. With a hit ratio of 100 all pages of the file are cached and the benchmark measures the contention on the
+ * page table and the page latches; lower ratios shrink the cache so that pins also go through page replacement and
+ * reads. The number of threads can be changed with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class BufferCacheBenchmark {
+    private static final int PAGE_SIZE = 32768;
+    private static final int FILE_PAGES = 4096;
+
+    @Param({ "100", "25" })
+    public int cachedPercentage;
+
+    private StorageBenchmarkContext context;
+    private IBufferCache bufferCache;
+    private int fileId;
+
+    @Setup
+    public void setup() throws IOException {
+        context = new StorageBenchmarkContext(PAGE_SIZE, FILE_PAGES * cachedPercentage / 100 + 1);
+        bufferCache = context.getBufferCache();
+        fileId = bufferCache.createFile(context.getIOManager().resolve("pages"));
+        bufferCache.openFile(fileId);
+        IFIFOPageWriter writer =
+                bufferCache.createFIFOWriter(NoOpPageWriteCallback.INSTANCE, HaltOnFailureCallback.INSTANCE);
+        for (int i = 0; i < FILE_PAGES; i++) {
+            ICachedPage page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, i));
+            page.getBuffer().putInt(0, i);
+            writer.write(page);
+        }
+        bufferCache.force(fileId, true);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        bufferCache.closeFile(fileId);
+        context.close();
+    }
+
+    @Benchmark
+    public int pinUnpin() throws HyracksDataException {
+        int pageId = ThreadLocalRandom.current().nextInt(FILE_PAGES);
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        try {
+            page.acquireReadLatch();
+            try {
+                return page.getBuffer().getInt(0);
+            } finally {
+                page.releaseReadLatch();
+            }
+        } finally {
+            bufferCache.unpin(page);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.storage;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.freepage.AppendOnlyLinkedMetadataPageManagerFactory;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.utils.LSMBTreeUtil;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.IVirtualBufferCache;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoMergePolicy;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpIOOperationCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.NoOpPageWriteCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.SynchronousSchedulerProvider;
+import org.apache.hyracks.storage.am.lsm.common.impls.ThreadCountingTracker;
+import org.apache.hyracks.storage.am.lsm.common.impls.VirtualBufferCache;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.compression.NoOpCompressorDecompressorFactory;
+import org.apache.hyracks.util.trace.ITracer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures point lookups in an {@link LSMBTree} whose keys are spread over several bulk loaded disk components, so
+ * that a lookup consults the bloom filters of the components that do not hold the key before finding it. Lookups of
+ * keys that do not exist at all are measured separately.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LSMBTreeBenchmark {
+    private static final int PAGE_SIZE = 32768;
+    private static final int CACHE_PAGES = 16384;
+    private static final int MEM_PAGE_SIZE = 32768;
+    private static final int MEM_NUM_PAGES = 1024;
+    private static final double BLOOM_FILTER_FALSE_POSITIVE_RATE = 0.01;
+    private static final ITypeTraits[] TYPE_TRAITS = { IntegerPointable.TYPE_TRAITS, IntegerPointable.TYPE_TRAITS };
+    private static final IBinaryComparatorFactory[] CMP_FACTORIES = { IntegerBinaryComparatorFactory.INSTANCE };
+    private static final int[] BLOOM_FILTER_KEY_FIELDS = { 0 };
+
+    @Param({ "1000000" })
+    public int numKeys;
+
+    @Param({ "1", "8" })
+    public int numDiskComponents;
+
+    private StorageBenchmarkContext context;
+    private LSMBTree lsmBTree;
+    private ILSMIndexAccessor accessor;
+    private IIndexCursor cursor;
+    private RangePredicate predicate;
+
+    private final Random random = new Random(0);
+    private final ArrayTupleBuilder keyTb = new ArrayTupleBuilder(1);
+    private final ArrayTupleReference key = new ArrayTupleReference();
+
+    @Setup
+    public void setup() throws IOException {
+        context = new StorageBenchmarkContext(PAGE_SIZE, CACHE_PAGES);
+        List<IVirtualBufferCache> virtualBufferCaches = new ArrayList<>();
+        virtualBufferCaches.add(new VirtualBufferCache(new HeapBufferAllocator(), MEM_PAGE_SIZE, MEM_NUM_PAGES));
+        lsmBTree = LSMBTreeUtil.createLSMTree(context.getIOManager(), virtualBufferCaches,
+                context.getIOManager().resolve("lsm-btree"), context.getBufferCache(), TYPE_TRAITS, CMP_FACTORIES,
+                BLOOM_FILTER_KEY_FIELDS, BLOOM_FILTER_FALSE_POSITIVE_RATE, new NoMergePolicy(),
+                new ThreadCountingTracker(), SynchronousSchedulerProvider.INSTANCE.getIoScheduler(null),
+                NoOpIOOperationCallbackFactory.INSTANCE, NoOpPageWriteCallbackFactory.INSTANCE, true, null, null,
+                null, null, true, AppendOnlyLinkedMetadataPageManagerFactory.INSTANCE, false, ITracer.NONE,
+                NoOpCompressorDecompressorFactory.INSTANCE, true, null, null);
+        lsmBTree.create();
+        lsmBTree.activate();
+        // component c holds the keys k with k % numDiskComponents == c
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(TYPE_TRAITS.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        for (int c = 0; c < numDiskComponents; c++) {
+            IIndexBulkLoader bulkLoader = lsmBTree.createBulkLoader(1.0f, false, numKeys / numDiskComponents, false,
+                    Collections.emptyMap());
+            for (int k = c; k < numKeys; k += numDiskComponents) {
+                TupleUtils.createIntegerTuple(tb, tuple, k, k);
+                bulkLoader.add(tuple);
+            }
+            bulkLoader.end();
+        }
+        accessor = lsmBTree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        cursor = accessor.createSearchCursor(false);
+        MultiComparator cmp = MultiComparator.create(CMP_FACTORIES);
+        predicate = new RangePredicate(key, key, true, true, cmp, cmp);
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        cursor.destroy();
+        lsmBTree.deactivate();
+        lsmBTree.destroy();
+        context.close();
+    }
+
+    private int lookup(int k) throws HyracksDataException {
+        TupleUtils.createIntegerTuple(keyTb, key, k);
+        int found = 0;
+        accessor.search(cursor, predicate);
+        try {
+            while (cursor.hasNext()) {
+                cursor.next();
+                found++;
+            }
+        } finally {
+            cursor.close();
+        }
+        return found;
+    }
+
+    @Benchmark
+    public int existingKeyLookup() throws HyracksDataException {
+        return lookup(random.nextInt(numKeys));
+    }
+
+    @Benchmark
+    public int missingKeyLookup() throws HyracksDataException {
+        return lookup(numKeys + random.nextInt(numKeys));
+    }
+}
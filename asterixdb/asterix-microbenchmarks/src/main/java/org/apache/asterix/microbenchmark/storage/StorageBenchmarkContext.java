@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.storage;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+
+/**
+ * A single IO device in a temporary directory and a buffer cache on top of it. Closing the context closes the buffer
+ * cache and the IO manager and deletes the directory.
+ */
+final class StorageBenchmarkContext implements AutoCloseable {
+    private static final int MAX_OPEN_FILES = 100;
+
+    private final Path dir;
+    private final IOManager ioManager;
+    private final IBufferCache bufferCache;
+
+    StorageBenchmarkContext(int pageSize, int numPages) throws IOException {
+        dir = Files.createTempDirectory("asterix-microbenchmarks");
+        ioManager = new IOManager(Collections.singletonList(new IODeviceHandle(dir.toFile(), "iodev")),
+                new DefaultDeviceResolver(), 2, 10);
+        TestStorageManagerComponentHolder.init(pageSize, numPages, MAX_OPEN_FILES);
+        bufferCache = TestStorageManagerComponentHolder.getBufferCache(ioManager);
+    }
+
+    IOManager getIOManager() {
+        return ioManager;
+    }
+
+    IBufferCache getBufferCache() {
+        return bufferCache;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            bufferCache.close();
+            ioManager.close();
+        } finally {
+            try (Stream<Path> paths = Files.walk(dir)) {
+                paths.sorted(Comparator.reverseOrder()).map(Path::toFile).forEach(File::delete);
+            }
+        }
+    }
+}
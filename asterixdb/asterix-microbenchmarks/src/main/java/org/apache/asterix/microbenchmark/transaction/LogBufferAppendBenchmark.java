@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.microbenchmark.transaction;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.MutableLong;
+import org.apache.asterix.transaction.management.service.logging.LogBuffer;
+import org.apache.asterix.transaction.management.service.logging.LogManager;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.storage.am.common.tuples.SimpleTupleWriter;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures appending update log records to a shared {@link LogBuffer} from several threads, which is the path every
+ * {@link LogManager#log} call takes: reserving space in the page, serializing the record into it and publishing it
+ * in LSN order. Flushing is not included: a full page is recycled right away instead of being handed to the log
+ * flusher, which keeps the benchmark independent of the disk. The number of threads can be changed with -t.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class LogBufferAppendBenchmark {
+    private static final int LOG_PAGE_SIZE = 4 * 1024 * 1024;
+
+    private LogBuffer logBuffer;
+
+    @State(Scope.Thread)
+    public static class Record {
+        @Param({ "64", "1024" })
+        public int valueSize;
+
+        private LogRecord logRecord;
+
+        @Setup
+        public void setup() throws HyracksDataException {
+            ArrayTupleBuilder tb = new ArrayTupleBuilder(2);
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, ThreadLocalRandom.current().nextInt());
+            byte[] value = new byte[valueSize];
+            ThreadLocalRandom.current().nextBytes(value);
+            tb.addField(value, 0, value.length);
+            ArrayTupleReference tuple = new ArrayTupleReference();
+            tuple.reset(tb.getFieldEndOffsets(), tb.getByteArray());
+
+            logRecord = new LogRecord();
+            // remote records are neither tracked by a transaction context nor queued for a commit notification
+            logRecord.setLogSource(LogSource.REMOTE);
+            logRecord.setLogType(LogType.UPDATE);
+            logRecord.setTxnId(1);
+            logRecord.setDatasetId(1);
+            logRecord.setResourceId(1);
+            logRecord.setResourcePartition(0);
+            logRecord.setNewOp((byte) 0);
+            logRecord.setPKHashValue(tuple.hashCode());
+            logRecord.setPKFieldCnt(1);
+            logRecord.setPKFields(new int[] { 0 });
+            logRecord.setPKValue(tuple);
+            logRecord.computeAndSetPKValueSize();
+            logRecord.setNewValueSize(SimpleTupleWriter.INSTANCE.bytesRequired(tuple));
+            logRecord.setNewValue(tuple);
+            logRecord.setOldValueSize(0);
+            logRecord.computeAndSetLogSize();
+        }
+    }
+
+    @Setup
+    public void setup() {
+        // the transaction subsystem is only used when flushing, which this benchmark never does
+        logBuffer = new LogBuffer(null, LOG_PAGE_SIZE, new MutableLong(0));
+        logBuffer.reset(0, 0, LOG_PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long append(Record record) {
+        LogRecord logRecord = record.logRecord;
+        long lsn;
+        while ((lsn = logBuffer.reserve(logRecord.getLogSize())) < 0) {
+            recycle(logRecord.getLogSize());
+        }
+        logBuffer.append(logRecord, lsn);
+        return lsn;
+    }
+
+    private synchronized void recycle(int logSize) {
+        // another thread may have recycled the page while this one was waiting
+        if (!logBuffer.hasSpace(logSize)) {
+            logBuffer.setFull();
+            long endLsn = logBuffer.getAppendLSN();
+            logBuffer.reset(endLsn, endLsn, LOG_PAGE_SIZE);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.dataflow.data.nontagged;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriter;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriterFactory;
+
+/**
+ * Writes the scores of a top-k full-text search as tagged doubles.
+ */
+public class ScoreWriterFactory implements IScoreWriterFactory {
+
+    private static final long serialVersionUID = 1L;
+    public static final ScoreWriterFactory INSTANCE = new ScoreWriterFactory();
+
+    private ScoreWriterFactory() {
+    }
+
+    @Override
+    public IScoreWriter createScoreWriter() {
+        return ScoreWriterFactory::writeScore;
+    }
+
+    private static void writeScore(double score, DataOutput out) throws HyracksDataException {
+        try {
+            out.writeByte(ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG);
+            out.writeDouble(score);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
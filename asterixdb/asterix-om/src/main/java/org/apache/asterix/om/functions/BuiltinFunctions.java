@@ -1099,6 +1099,8 @@ public class BuiltinFunctions {
     // full-text without any option provided
     public static final FunctionIdentifier FULLTEXT_CONTAINS_WO_OPTION =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "ftcontains", 2);
+    public static final FunctionIdentifier FULLTEXT_SCORE =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "ftscore", 2);
 
     // tokenizers:
     public static final FunctionIdentifier WORD_TOKENS =
@@ -1317,6 +1319,12 @@ public class BuiltinFunctions {
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "reference-tile", 6);
     public static final FunctionIdentifier GET_INTERSECTION =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "get-intersection", 2);
+    public static final FunctionIdentifier SPATIAL_GRID =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "spatial-grid", 5);
+    public static final FunctionIdentifier LOCAL_SPATIAL_SAMPLE =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-local-spatial-sample", 1);
+    public static final FunctionIdentifier GLOBAL_SPATIAL_SAMPLE =
+            new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "agg-global-spatial-sample", 1);
 
     public static final FunctionIdentifier CREATE_UUID =
             new FunctionIdentifier(FunctionConstants.ASTERIX_NS, "create-uuid", 0);
@@ -2275,6 +2283,7 @@ public class BuiltinFunctions {
         // Full-text function
         addFunction(FULLTEXT_CONTAINS, FullTextContainsResultTypeComputer.INSTANCE, true);
         addFunction(FULLTEXT_CONTAINS_WO_OPTION, FullTextContainsResultTypeComputer.INSTANCE, true);
+        addFunction(FULLTEXT_SCORE, ADoubleTypeComputer.INSTANCE, true);
 
         // Spatial functions
         addFunction(SPATIAL_AREA, ADoubleTypeComputer.INSTANCE, true);
@@ -2289,6 +2298,9 @@ public class BuiltinFunctions {
         addPrivateFunction(SPATIAL_TILE, AInt32TypeComputer.INSTANCE, true);
         addPrivateFunction(REFERENCE_TILE, AInt32TypeComputer.INSTANCE, true);
         addPrivateFunction(GET_INTERSECTION, ARectangleTypeComputer.INSTANCE, true);
+        addPrivateFunction(SPATIAL_GRID, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(LOCAL_SPATIAL_SAMPLE, ABinaryTypeComputer.INSTANCE, true);
+        addPrivateFunction(GLOBAL_SPATIAL_SAMPLE, ABinaryTypeComputer.INSTANCE, true);
 
         //geo functions
         addFunction(ST_AREA, ADoubleTypeComputer.INSTANCE, true);
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.util.Random;
+
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.AMutableBinary;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.aggregates.base.AbstractAggregateFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.evaluators.common.DoubleArray;
+import org.apache.asterix.runtime.evaluators.common.SpatialGrid;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+
+/**
+ * Combines the samples produced by {@link LocalSpatialSampleAggregateDescriptor} into a uniform sample of at most
+ * {@link SpatialGrid#NUM_SAMPLES} points of all the partitions.
+ */
+public class GlobalSpatialSampleAggregateDescriptor extends AbstractAggregateFunctionDynamicDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    public static final IFunctionDescriptorFactory FACTORY =
+            AbstractAggregateFunctionDynamicDescriptor.createFactory(GlobalSpatialSampleAggregateDescriptor::new);
+
+    @Override
+    public FunctionIdentifier getIdentifier() {
+        return BuiltinFunctions.GLOBAL_SPATIAL_SAMPLE;
+    }
+
+    @Override
+    public IAggregateEvaluatorFactory createAggregateEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
+        return new IAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IAggregateEvaluator createAggregateEvaluator(final IEvaluatorContext ctx)
+                    throws HyracksDataException {
+                return new GlobalSpatialSampleFunction(args, ctx, sourceLoc);
+            }
+        };
+    }
+
+    private static class GlobalSpatialSampleFunction extends AbstractAggregateFunction {
+        @SuppressWarnings("unchecked")
+        private final ISerializerDeserializer<ABinary> binarySerde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABINARY);
+        private final AMutableBinary binary = new AMutableBinary(null, 0, 0);
+        private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        private final ArrayBackedValueStorage samplesBits = new ArrayBackedValueStorage();
+        private final ByteArrayPointable samplesPointable = new ByteArrayPointable();
+        private final IPointable inputVal = new VoidPointable();
+        private final IScalarEvaluator eval;
+        private final DoubleArray xs = new DoubleArray();
+        private final DoubleArray ys = new DoubleArray();
+        private final Random random = new Random();
+        private final IntArrayList ends = new IntArrayList();
+        private final LongArrayList populations = new LongArrayList();
+
+        private GlobalSpatialSampleFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context,
+                SourceLocation sourceLoc) throws HyracksDataException {
+            super(sourceLoc);
+            eval = args[0].createScalarEvaluator(context);
+        }
+
+        @Override
+        public void init() throws HyracksDataException {
+            xs.reset();
+            ys.reset();
+            ends.clear();
+            populations.clear();
+        }
+
+        @Override
+        public void step(IFrameTupleReference tuple) throws HyracksDataException {
+            eval.evaluate(tuple, inputVal);
+            byte[] data = inputVal.getByteArray();
+            int offset = inputVal.getStartOffset();
+            if (data[offset] != ATypeTag.SERIALIZED_BINARY_TYPE_TAG) {
+                return;
+            }
+            samplesPointable.set(data, offset + 1, inputVal.getLength() - 1);
+            populations.add(SpatialGrid.readSamples(samplesPointable.getByteArray(),
+                    samplesPointable.getContentStartOffset(), xs, ys));
+            ends.add(xs.length());
+        }
+
+        @Override
+        public void finish(IPointable result) throws HyracksDataException {
+            long population = 0;
+            for (int i = 0; i < populations.size(); i++) {
+                population += populations.getLong(i);
+            }
+            int numSamples = SpatialGrid.mergeSamples(xs, ys, ends.elements(), populations.elements(),
+                    populations.size(), SpatialGrid.NUM_SAMPLES, random);
+            samplesBits.reset();
+            SpatialGrid.writeSamples(samplesBits.getDataOutput(), population, xs.get(), ys.get(), numSamples);
+            binary.setValue(samplesBits.getByteArray(), samplesBits.getStartOffset(), samplesBits.getLength());
+            storage.reset();
+            binarySerde.serialize(binary, storage.getDataOutput());
+            result.set(storage);
+        }
+
+        @Override
+        public void finishPartial(IPointable result) throws HyracksDataException {
+            finish(result);
+        }
+    }
+}
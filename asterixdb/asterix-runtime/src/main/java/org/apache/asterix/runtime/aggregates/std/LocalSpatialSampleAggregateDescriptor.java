@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.aggregates.std;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.apache.asterix.dataflow.data.nontagged.Coordinate;
+import org.apache.asterix.dataflow.data.nontagged.serde.ADoubleSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.ARectangleSerializerDeserializer;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABinary;
+import org.apache.asterix.om.base.AMutableBinary;
+import org.apache.asterix.om.functions.BuiltinFunctions;
+import org.apache.asterix.om.functions.IFunctionDescriptorFactory;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.runtime.aggregates.base.AbstractAggregateFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.evaluators.common.SpatialGrid;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IAggregateEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
+
+/**
+ * Takes a reservoir sample of the MBR centers of the rectangles of a partition. The samples are combined by
+ * {@link GlobalSpatialSampleAggregateDescriptor} and used to build a {@link SpatialGrid}.
+ */
+public class LocalSpatialSampleAggregateDescriptor extends AbstractAggregateFunctionDynamicDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    public static final IFunctionDescriptorFactory FACTORY =
+            AbstractAggregateFunctionDynamicDescriptor.createFactory(LocalSpatialSampleAggregateDescriptor::new);
+
+    @Override
+    public FunctionIdentifier getIdentifier() {
+        return BuiltinFunctions.LOCAL_SPATIAL_SAMPLE;
+    }
+
+    @Override
+    public IAggregateEvaluatorFactory createAggregateEvaluatorFactory(final IScalarEvaluatorFactory[] args) {
+        return new IAggregateEvaluatorFactory() {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            public IAggregateEvaluator createAggregateEvaluator(final IEvaluatorContext ctx)
+                    throws HyracksDataException {
+                return new LocalSpatialSampleFunction(args, ctx, sourceLoc);
+            }
+        };
+    }
+
+    private static class LocalSpatialSampleFunction extends AbstractAggregateFunction {
+        private static final int INITIAL_CAPACITY = 1024;
+        @SuppressWarnings("unchecked")
+        private final ISerializerDeserializer<ABinary> binarySerde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ABINARY);
+        private final AMutableBinary binary = new AMutableBinary(null, 0, 0);
+        private final ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        private final ArrayBackedValueStorage samplesBits = new ArrayBackedValueStorage();
+        private final IPointable inputVal = new VoidPointable();
+        private final IScalarEvaluator eval;
+        // the reservoir grows up to SpatialGrid.NUM_SAMPLES points as the partition does
+        private double[] xs = new double[INITIAL_CAPACITY];
+        private double[] ys = new double[INITIAL_CAPACITY];
+        private final Random random = new Random();
+        private int numSamples;
+        private long count;
+
+        private LocalSpatialSampleFunction(IScalarEvaluatorFactory[] args, IEvaluatorContext context,
+                SourceLocation sourceLoc) throws HyracksDataException {
+            super(sourceLoc);
+            eval = args[0].createScalarEvaluator(context);
+        }
+
+        @Override
+        public void init() throws HyracksDataException {
+            numSamples = 0;
+            count = 0;
+        }
+
+        @Override
+        public void step(IFrameTupleReference tuple) throws HyracksDataException {
+            eval.evaluate(tuple, inputVal);
+            byte[] data = inputVal.getByteArray();
+            int offset = inputVal.getStartOffset();
+            if (data[offset] != ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG) {
+                return;
+            }
+            count++;
+            int index;
+            if (numSamples < SpatialGrid.NUM_SAMPLES) {
+                if (numSamples == xs.length) {
+                    int capacity = Math.min(xs.length << 1, SpatialGrid.NUM_SAMPLES);
+                    xs = Arrays.copyOf(xs, capacity);
+                    ys = Arrays.copyOf(ys, capacity);
+                }
+                index = numSamples++;
+            } else {
+                long swap = (long) (random.nextDouble() * count);
+                if (swap >= SpatialGrid.NUM_SAMPLES) {
+                    return;
+                }
+                index = (int) swap;
+            }
+            double minX = ADoubleSerializerDeserializer.getDouble(data,
+                    offset + 1 + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.X));
+            double minY = ADoubleSerializerDeserializer.getDouble(data,
+                    offset + 1 + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.Y));
+            double maxX = ADoubleSerializerDeserializer.getDouble(data,
+                    offset + 1 + ARectangleSerializerDeserializer.getUpperRightCoordinateOffset(Coordinate.X));
+            double maxY = ADoubleSerializerDeserializer.getDouble(data,
+                    offset + 1 + ARectangleSerializerDeserializer.getUpperRightCoordinateOffset(Coordinate.Y));
+            xs[index] = (minX + maxX) / 2;
+            ys[index] = (minY + maxY) / 2;
+        }
+
+        @Override
+        public void finish(IPointable result) throws HyracksDataException {
+            samplesBits.reset();
+            SpatialGrid.writeSamples(samplesBits.getDataOutput(), count, xs, ys, numSamples);
+            binary.setValue(samplesBits.getByteArray(), samplesBits.getStartOffset(), samplesBits.getLength());
+            storage.reset();
+            binarySerde.serialize(binary, storage.getDataOutput());
+            result.set(storage);
+        }
+
+        @Override
+        public void finishPartial(IPointable result) throws HyracksDataException {
+            finish(result);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.runtime.projection.ColumnTupleProjector;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriter;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Creates the column writers and readers of a columnar dataset's primary index. The records are stored in the first
+ * field after the primary keys.
+ */
+public class ColumnManagerFactory implements IColumnManagerFactory {
+    private static final long serialVersionUID = 1L;
+    public static final int DEFAULT_MAX_ROW_GROUP_PAGES = 16;
+
+    private final ARecordType datasetType;
+    private final int numKeys;
+    private final int maxRowGroupPages;
+
+    public ColumnManagerFactory(ARecordType datasetType, int numKeys, int maxRowGroupPages) {
+        this.datasetType = datasetType;
+        this.numKeys = numKeys;
+        this.maxRowGroupPages = maxRowGroupPages;
+    }
+
+    @Override
+    public IColumnWriter createWriter() {
+        return new ColumnWriter(datasetType, numKeys);
+    }
+
+    @Override
+    public IColumnReader createReader(ITupleProjector projector) {
+        ARecordType requestedType = null;
+        if (projector instanceof ColumnTupleProjector) {
+            requestedType = ((ColumnTupleProjector) projector).getRequestedType();
+        }
+        return new ColumnReader(datasetType, requestedType);
+    }
+
+    @Override
+    public int getMaxRowGroupPages() {
+        return maxRowGroupPages;
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        ObjectNode json = registry.getClassIdentifier(getClass(), serialVersionUID);
+        json.set("datasetType", datasetType.toJson(registry));
+        json.put("numKeys", numKeys);
+        json.put("maxRowGroupPages", maxRowGroupPages);
+        return json;
+    }
+
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json)
+            throws HyracksDataException {
+        ARecordType datasetType = (ARecordType) registry.deserialize(json.get("datasetType"));
+        int numKeys = json.get("numKeys").asInt();
+        int maxRowGroupPages = json.get("maxRowGroupPages").asInt();
+        return new ColumnManagerFactory(datasetType, numKeys, maxRowGroupPages);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.column.assembler.ObjectValueAssembler;
+import org.apache.asterix.runtime.column.assembler.ValueAssemblerBuilder;
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.asterix.runtime.column.schema.ColumnSchema;
+import org.apache.asterix.runtime.column.schema.PrimitiveSchemaNode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReader;
+
+/**
+ * Assembles the records of a row group from the columns of the requested fields only
+ */
+public class ColumnReader implements IColumnReader {
+    private final ARecordType datasetType;
+    private final ARecordType requestedType;
+    private final ValueAssemblerBuilder assemblerBuilder;
+    private final ArrayBackedValueStorage record;
+    private ColumnChunkReader[] readers;
+    private int[] requiredColumns;
+    private ObjectValueAssembler assembler;
+    private int nextRow;
+
+    /**
+     * @param datasetType   the declared type of the records
+     * @param requestedType the requested type of the records or {@code null} to assemble all fields
+     */
+    public ColumnReader(ARecordType datasetType, ARecordType requestedType) {
+        this.datasetType = datasetType;
+        this.requestedType = requestedType;
+        assemblerBuilder = new ValueAssemblerBuilder();
+        record = new ArrayBackedValueStorage();
+    }
+
+    @Override
+    public void resetSchema(byte[] schemaBytes, int offset, int length, int numberOfColumns)
+            throws HyracksDataException {
+        ColumnSchema schema = ColumnSchema.deserialize(schemaBytes, offset, length);
+        assembler = assemblerBuilder.build(schema, datasetType, requestedType);
+        requiredColumns = assembler.getColumns();
+        readers = new ColumnChunkReader[numberOfColumns];
+        for (int columnIndex : requiredColumns) {
+            PrimitiveSchemaNode column = schema.getColumn(columnIndex);
+            readers[columnIndex] = new ColumnChunkReader(column.getTypeTag(), column.getMaxRep(), column.getMaxDef());
+        }
+        nextRow = 0;
+    }
+
+    @Override
+    public boolean isColumnRequired(int columnIndex) {
+        return readers[columnIndex] != null;
+    }
+
+    @Override
+    public void resetColumn(int columnIndex, byte[] data, int offset, int length) throws HyracksDataException {
+        readers[columnIndex].reset(data, offset, length);
+    }
+
+    @Override
+    public void assemble(int row) throws HyracksDataException {
+        if (row < nextRow) {
+            for (int columnIndex : requiredColumns) {
+                readers[columnIndex].rewind();
+            }
+            nextRow = 0;
+        }
+        while (nextRow < row) {
+            skipRow();
+            nextRow++;
+        }
+        record.reset();
+        if (!assembler.assembleRow(readers, record.getDataOutput())) {
+            // An antimatter
+            skipRow();
+            record.setSize(1);
+            record.getByteArray()[0] = ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+        }
+        nextRow++;
+    }
+
+    @Override
+    public IValueReference getValue(int valueFieldIndex) {
+        return record;
+    }
+
+    private void skipRow() {
+        for (int columnIndex : requiredColumns) {
+            readers[columnIndex].skipRow();
+        }
+    }
+}
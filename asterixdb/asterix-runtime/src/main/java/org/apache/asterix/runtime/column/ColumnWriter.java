@@ -0,0 +1,331 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.asterix.om.pointables.AListVisitablePointable;
+import org.apache.asterix.om.pointables.ARecordVisitablePointable;
+import org.apache.asterix.om.pointables.PointableAllocator;
+import org.apache.asterix.om.pointables.base.IVisitablePointable;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnorderedListType;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.column.encoding.ColumnChunkWriter;
+import org.apache.asterix.runtime.column.schema.AbstractSchemaNode;
+import org.apache.asterix.runtime.column.schema.ArraySchemaNode;
+import org.apache.asterix.runtime.column.schema.ColumnSchema;
+import org.apache.asterix.runtime.column.schema.ObjectSchemaNode;
+import org.apache.asterix.runtime.column.schema.PrimitiveSchemaNode;
+import org.apache.asterix.runtime.column.schema.UnionSchemaNode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriter;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+
+/**
+ * Shreds the records of a row group into columns. The records are buffered until the row group is finished. Then,
+ * the schema of the row group is inferred from the buffered records and the records are shredded (Dremel-style) into
+ * the columns of the inferred schema. Each entry of a column has a repetition level (the number of arrays that are
+ * repeated at this entry) and a definition level (the depth of the deepest node that is present).
+ */
+public class ColumnWriter implements IColumnWriter {
+    private static final int ANTIMATTER = -1;
+
+    private final int recordFieldIndex;
+    private final ARecordVisitablePointable recordPointable;
+    private final PointableAllocator allocator;
+    private final ArrayBackedValueStorage records;
+    private int[] recordStarts;
+    private int[] recordLengths;
+    private int rowCount;
+
+    private final ArrayBackedValueStorage schemaStorage;
+    private final List<ArrayBackedValueStorage> columnStorages;
+    private ColumnSchema schema;
+    private ColumnChunkWriter[] columnWriters;
+
+    public ColumnWriter(ARecordType datasetType, int numKeys) {
+        recordFieldIndex = numKeys;
+        recordPointable = new ARecordVisitablePointable(datasetType);
+        allocator = new PointableAllocator();
+        records = new ArrayBackedValueStorage();
+        recordStarts = new int[32];
+        recordLengths = new int[32];
+        schemaStorage = new ArrayBackedValueStorage();
+        columnStorages = new ArrayList<>();
+    }
+
+    @Override
+    public void add(ITupleReference tuple) throws HyracksDataException {
+        int start = records.getLength();
+        try {
+            records.getDataOutput().write(tuple.getFieldData(recordFieldIndex), tuple.getFieldStart(recordFieldIndex),
+                    tuple.getFieldLength(recordFieldIndex));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        appendRecord(start, records.getLength() - start);
+    }
+
+    @Override
+    public void addAntimatter(ITupleReference tuple) {
+        appendRecord(0, ANTIMATTER);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getEstimatedSize() {
+        // The encoded columns are (almost always) smaller than the records
+        return records.getLength() + rowCount;
+    }
+
+    @Override
+    public void finish() throws HyracksDataException {
+        schema = new ColumnSchema();
+        for (int i = 0; i < rowCount; i++) {
+            if (setRecord(i)) {
+                inferObject(schema.getRoot(), recordPointable);
+                allocator.reset();
+            }
+        }
+        schema.finish();
+
+        int numberOfColumns = schema.getNumberOfColumns();
+        columnWriters = new ColumnChunkWriter[numberOfColumns];
+        for (int i = 0; i < numberOfColumns; i++) {
+            PrimitiveSchemaNode column = schema.getColumn(i);
+            columnWriters[i] = new ColumnChunkWriter(column.getTypeTag(), column.getMaxRep(), column.getMaxDef());
+        }
+        for (int i = 0; i < rowCount; i++) {
+            if (setRecord(i)) {
+                writeObject(schema.getRoot(), recordPointable, 0);
+                allocator.reset();
+            } else {
+                for (ColumnChunkWriter columnWriter : columnWriters) {
+                    columnWriter.add(0, 0);
+                }
+            }
+        }
+
+        try {
+            schemaStorage.reset();
+            schema.serialize(schemaStorage.getDataOutput());
+            while (columnStorages.size() < numberOfColumns) {
+                columnStorages.add(new ArrayBackedValueStorage());
+            }
+            for (int i = 0; i < numberOfColumns; i++) {
+                ArrayBackedValueStorage columnStorage = columnStorages.get(i);
+                columnStorage.reset();
+                columnWriters[i].encode(columnStorage.getDataOutput());
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public IValueReference getSchema() {
+        return schemaStorage;
+    }
+
+    @Override
+    public int getNumberOfColumns() {
+        return schema.getNumberOfColumns();
+    }
+
+    @Override
+    public IValueReference getColumn(int columnIndex) {
+        return columnStorages.get(columnIndex);
+    }
+
+    @Override
+    public void reset() {
+        records.reset();
+        rowCount = 0;
+        schema = null;
+        columnWriters = null;
+    }
+
+    private void appendRecord(int start, int length) {
+        if (rowCount == recordStarts.length) {
+            recordStarts = Arrays.copyOf(recordStarts, recordStarts.length * 2);
+            recordLengths = Arrays.copyOf(recordLengths, recordLengths.length * 2);
+        }
+        recordStarts[rowCount] = start;
+        recordLengths[rowCount] = length;
+        rowCount++;
+    }
+
+    /**
+     * @return true if the row is a record, false if it is an antimatter
+     */
+    private boolean setRecord(int row) {
+        if (recordLengths[row] == ANTIMATTER) {
+            return false;
+        }
+        recordPointable.set(records.getByteArray(), recordStarts[row], recordLengths[row]);
+        return true;
+    }
+
+    /* ****************************************************
+     * Schema inference
+     * ****************************************************
+     */
+
+    private void inferObject(ObjectSchemaNode node, ARecordVisitablePointable record) throws HyracksDataException {
+        List<IVisitablePointable> fieldNames = record.getFieldNames();
+        List<IVisitablePointable> fieldValues = record.getFieldValues();
+        for (int i = 0; i < fieldValues.size(); i++) {
+            IVisitablePointable fieldValue = fieldValues.get(i);
+            if (getTypeTag(fieldValue) != ATypeTag.MISSING) {
+                inferValue(node.getOrCreateChild(getFieldName(fieldNames.get(i))), fieldValue);
+            }
+        }
+    }
+
+    private void inferValue(UnionSchemaNode union, IVisitablePointable value) throws HyracksDataException {
+        ATypeTag typeTag = getTypeTag(value);
+        AbstractSchemaNode branch = union.getOrCreateBranch(typeTag);
+        if (typeTag == ATypeTag.OBJECT) {
+            inferObject((ObjectSchemaNode) branch, asRecord(value));
+        } else if (typeTag == ATypeTag.ARRAY || typeTag == ATypeTag.MULTISET) {
+            UnionSchemaNode item = ((ArraySchemaNode) branch).getItem();
+            for (IVisitablePointable itemValue : asList(value).getItems()) {
+                inferValue(item, itemValue);
+            }
+        }
+    }
+
+    /* ****************************************************
+     * Shredding
+     * ****************************************************
+     */
+
+    private void writeObject(ObjectSchemaNode node, ARecordVisitablePointable record, int rep)
+            throws HyracksDataException {
+        if (node.getEmptyColumn() != null) {
+            columnWriters[node.getEmptyColumn().getColumnIndex()].add(rep, node.getDepth());
+        }
+        List<IVisitablePointable> fieldNames = record.getFieldNames();
+        List<IVisitablePointable> fieldValues = record.getFieldValues();
+        boolean[] written = new boolean[node.getNumberOfChildren()];
+        for (int i = 0; i < fieldValues.size(); i++) {
+            IVisitablePointable fieldValue = fieldValues.get(i);
+            if (getTypeTag(fieldValue) != ATypeTag.MISSING) {
+                int childIndex = node.indexOf(getFieldName(fieldNames.get(i)));
+                written[childIndex] = true;
+                writeUnion(node.getChild(childIndex), fieldValue, rep);
+            }
+        }
+        for (int i = 0; i < written.length; i++) {
+            if (!written[i]) {
+                writeAbsent(node.getChild(i), rep, node.getDepth());
+            }
+        }
+    }
+
+    private void writeUnion(UnionSchemaNode union, IVisitablePointable value, int rep) throws HyracksDataException {
+        ATypeTag typeTag = getTypeTag(value);
+        for (AbstractSchemaNode branch : union.getBranches()) {
+            if (branch.getTypeTag() == typeTag) {
+                writeValue(branch, value, rep);
+            } else {
+                writeAbsent(branch, rep, union.getDepth());
+            }
+        }
+    }
+
+    private void writeValue(AbstractSchemaNode node, IVisitablePointable value, int rep) throws HyracksDataException {
+        switch (node.getTypeTag()) {
+            case OBJECT:
+                writeObject((ObjectSchemaNode) node, asRecord(value), rep);
+                break;
+            case ARRAY:
+            case MULTISET:
+                ArraySchemaNode arrayNode = (ArraySchemaNode) node;
+                List<IVisitablePointable> items = asList(value).getItems();
+                if (items.isEmpty()) {
+                    writeAbsent(arrayNode.getItem(), rep, arrayNode.getDepth());
+                }
+                for (int i = 0; i < items.size(); i++) {
+                    writeUnion(arrayNode.getItem(), items.get(i), i == 0 ? rep : arrayNode.getRepLevel());
+                }
+                break;
+            default:
+                PrimitiveSchemaNode primitiveNode = (PrimitiveSchemaNode) node;
+                ColumnChunkWriter columnWriter = columnWriters[primitiveNode.getColumnIndex()];
+                if (ColumnChunkWriter.hasValues(primitiveNode.getTypeTag())) {
+                    // Values are stored without their type tags
+                    columnWriter.addValue(rep, value.getByteArray(), value.getStartOffset() + 1,
+                            value.getLength() - 1);
+                } else {
+                    columnWriter.add(rep, primitiveNode.getMaxDef());
+                }
+                break;
+        }
+    }
+
+    private void writeAbsent(AbstractSchemaNode node, int rep, int def) {
+        for (int columnIndex : node.getColumns()) {
+            columnWriters[columnIndex].add(rep, def);
+        }
+    }
+
+    private ARecordVisitablePointable asRecord(IVisitablePointable value) {
+        if (value instanceof ARecordVisitablePointable) {
+            return (ARecordVisitablePointable) value;
+        }
+        // e.g., a record value of a closed field declared as ANY
+        ARecordVisitablePointable record = allocator.allocateRecordValue(RecordUtil.FULLY_OPEN_RECORD_TYPE);
+        record.set(value);
+        return record;
+    }
+
+    private AListVisitablePointable asList(IVisitablePointable value) {
+        if (value instanceof AListVisitablePointable) {
+            return (AListVisitablePointable) value;
+        }
+        AListVisitablePointable list = allocator.allocateListValue(getTypeTag(value) == ATypeTag.ARRAY
+                ? AOrderedListType.FULL_OPEN_ORDEREDLIST_TYPE : AUnorderedListType.FULLY_OPEN_UNORDEREDLIST_TYPE);
+        list.set(value);
+        return list;
+    }
+
+    private static ATypeTag getTypeTag(IValueReference value) {
+        return EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(value.getByteArray()[value.getStartOffset()]);
+    }
+
+    private static String getFieldName(IValueReference fieldName) {
+        // Skip the string type tag
+        return UTF8StringUtil.toString(fieldName.getByteArray(), fieldName.getStartOffset() + 1);
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.DataOutput;
+
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Assembles the values of a schema node from the selected columns under it
+ */
+public abstract class AbstractValueAssembler {
+    protected final int depth;
+    protected final int[] columns;
+
+    AbstractValueAssembler(int depth, int[] columns) {
+        this.depth = depth;
+        this.columns = columns;
+    }
+
+    /**
+     * @return the selected columns under the assembled node
+     */
+    public int[] getColumns() {
+        return columns;
+    }
+
+    /**
+     * @return whether the node is present at the current position of the readers
+     */
+    boolean isPresent(ColumnChunkReader[] readers) {
+        return readers[columns[0]].peekDef() >= depth;
+    }
+
+    /**
+     * Skip the current position of an absent node (i.e., one entry per column)
+     */
+    void skip(ColumnChunkReader[] readers) {
+        for (int columnIndex : columns) {
+            readers[columnIndex].skip();
+        }
+    }
+
+    /**
+     * Assemble the value of a present node at the current position of the readers
+     */
+    abstract void assemble(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException;
+}
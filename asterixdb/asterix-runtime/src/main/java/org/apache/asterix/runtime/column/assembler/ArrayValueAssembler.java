@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.DataOutput;
+
+import org.apache.asterix.builders.AbstractListBuilder;
+import org.apache.asterix.builders.OrderedListBuilder;
+import org.apache.asterix.builders.UnorderedListBuilder;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AbstractCollectionType;
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+final class ArrayValueAssembler extends AbstractValueAssembler {
+    private final int repLevel;
+    private final AbstractCollectionType listType;
+    private final UnionValueAssembler item;
+    private final AbstractListBuilder builder;
+    private final ArrayBackedValueStorage value;
+
+    /**
+     * @param depth    the array's depth
+     * @param repLevel the array's repetition level
+     * @param listType the declared type of the array or a fully open type
+     * @param item     the assembler of the items. If none of the items' columns is selected, the assembler should
+     *                 contain a single column to determine whether the array is present (the array is assembled
+     *                 as an empty array)
+     */
+    ArrayValueAssembler(int depth, int repLevel, AbstractCollectionType listType, UnionValueAssembler item) {
+        super(depth, item.getColumns());
+        this.repLevel = repLevel;
+        this.listType = listType;
+        this.item = item;
+        builder = listType.getTypeTag() == ATypeTag.ARRAY ? new OrderedListBuilder() : new UnorderedListBuilder();
+        value = new ArrayBackedValueStorage();
+    }
+
+    @Override
+    void assemble(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        builder.reset(listType);
+        ColumnChunkReader first = readers[columns[0]];
+        if (first.peekDef() == depth) {
+            // Empty array
+            item.skip(readers);
+        } else if (item.isPresenceOnly()) {
+            ObjectValueAssembler.skipInstance(first, repLevel - 1);
+        } else {
+            do {
+                value.reset();
+                if (item.assembleBranch(readers, value.getDataOutput())) {
+                    builder.addItem(value);
+                }
+            } while (first.hasNext() && first.peekRep() == repLevel);
+        }
+        builder.write(out, true);
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.DataOutput;
+
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+public final class ObjectValueAssembler extends AbstractValueAssembler {
+    private final int repLevel;
+    private final ARecordType recordType;
+    private final UnionValueAssembler[] fields;
+    private final int[] closedFieldIds;
+    private final IValueReference[] fieldNames;
+    private final int[] absentClosedFieldIds;
+    private final int presenceColumn;
+    private final RecordBuilder builder;
+    private final ArrayBackedValueStorage value;
+    private final ArrayBackedValueStorage missing;
+
+    /**
+     * @param depth                the object's depth
+     * @param repLevel             the number of arrays enclosing the object
+     * @param recordType           the declared type of the object or a fully open type
+     * @param fields               the assemblers of the selected fields
+     * @param closedFieldIds       the closed field ids of the selected fields (-1 for open fields)
+     * @param fieldNames           the (serialized) names of the selected fields
+     * @param absentClosedFieldIds the ids of the closed fields that do not appear in the schema (always missing)
+     * @param presenceColumn       a column that is only used to determine whether the object is present or -1
+     */
+    ObjectValueAssembler(int depth, int repLevel, ARecordType recordType, UnionValueAssembler[] fields,
+            int[] closedFieldIds, IValueReference[] fieldNames, int[] absentClosedFieldIds, int presenceColumn) {
+        super(depth, getColumns(fields, presenceColumn));
+        this.repLevel = repLevel;
+        this.recordType = recordType;
+        this.fields = fields;
+        this.closedFieldIds = closedFieldIds;
+        this.fieldNames = fieldNames;
+        this.absentClosedFieldIds = absentClosedFieldIds;
+        this.presenceColumn = presenceColumn;
+        builder = new RecordBuilder();
+        value = new ArrayBackedValueStorage();
+        missing = new ArrayBackedValueStorage(1);
+        missing.setSize(1);
+        missing.getByteArray()[0] = ATypeTag.SERIALIZED_MISSING_TYPE_TAG;
+    }
+
+    /**
+     * Assemble a row or skip it if it is an antimatter
+     *
+     * @return true if the row was assembled, false otherwise
+     */
+    public boolean assembleRow(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        if (!isPresent(readers)) {
+            return false;
+        }
+        assemble(readers, out);
+        return true;
+    }
+
+    @Override
+    void assemble(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        if (presenceColumn >= 0) {
+            skipInstance(readers[presenceColumn], repLevel);
+        }
+        builder.reset(recordType);
+        for (int i = 0; i < fields.length; i++) {
+            value.reset();
+            boolean present = fields[i].assembleBranch(readers, value.getDataOutput());
+            if (closedFieldIds[i] >= 0) {
+                builder.addField(closedFieldIds[i], present ? value : missing);
+            } else if (present) {
+                builder.addField(fieldNames[i], value);
+            }
+        }
+        for (int fieldId : absentClosedFieldIds) {
+            builder.addField(fieldId, missing);
+        }
+        builder.write(out, true);
+    }
+
+    /**
+     * Skip all the entries of a single instance of a node
+     */
+    static void skipInstance(ColumnChunkReader reader, int repLevel) {
+        reader.skip();
+        while (reader.hasNext() && reader.peekRep() > repLevel) {
+            reader.skip();
+        }
+    }
+
+    private static int[] getColumns(UnionValueAssembler[] fields, int presenceColumn) {
+        int length = presenceColumn >= 0 ? 1 : 0;
+        for (UnionValueAssembler field : fields) {
+            length += field.getColumns().length;
+        }
+        int[] columns = new int[length];
+        int offset = 0;
+        if (presenceColumn >= 0) {
+            columns[offset++] = presenceColumn;
+        }
+        for (UnionValueAssembler field : fields) {
+            System.arraycopy(field.getColumns(), 0, columns, offset, field.getColumns().length);
+            offset += field.getColumns().length;
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.asterix.runtime.column.encoding.ColumnChunkWriter;
+import org.apache.asterix.runtime.column.schema.PrimitiveSchemaNode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+final class PrimitiveValueAssembler extends AbstractValueAssembler {
+    private final byte typeTag;
+    private final boolean hasValues;
+
+    PrimitiveValueAssembler(PrimitiveSchemaNode node) {
+        super(node.getDepth(), node.getColumns());
+        typeTag = node.getTypeTag().serialize();
+        hasValues = ColumnChunkWriter.hasValues(node.getTypeTag());
+    }
+
+    @Override
+    void assemble(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        ColumnChunkReader reader = readers[columns[0]];
+        if (hasValues) {
+            reader.next(out);
+            return;
+        }
+        reader.skip();
+        try {
+            out.writeByte(typeTag);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.DataOutput;
+
+import org.apache.asterix.runtime.column.encoding.ColumnChunkReader;
+import org.apache.asterix.runtime.column.schema.UnionSchemaNode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+final class UnionValueAssembler extends AbstractValueAssembler {
+    private final AbstractValueAssembler[] branches;
+
+    UnionValueAssembler(UnionSchemaNode node, AbstractValueAssembler[] branches) {
+        super(node.getDepth(), concatColumns(branches));
+        this.branches = branches;
+    }
+
+    /**
+     * Create an assembler without branches that only determines whether the union is present using
+     * {@code presenceColumn}
+     */
+    UnionValueAssembler(UnionSchemaNode node, int presenceColumn) {
+        super(node.getDepth(), new int[] { presenceColumn });
+        branches = new AbstractValueAssembler[0];
+    }
+
+    boolean isPresenceOnly() {
+        return branches.length == 0;
+    }
+
+    /**
+     * Assemble the present branch (if any) and skip the others
+     *
+     * @return true if a value was assembled, false otherwise
+     */
+    boolean assembleBranch(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        boolean assembled = false;
+        for (AbstractValueAssembler branch : branches) {
+            if (!assembled && branch.isPresent(readers)) {
+                branch.assemble(readers, out);
+                assembled = true;
+            } else {
+                branch.skip(readers);
+            }
+        }
+        return assembled;
+    }
+
+    @Override
+    void assemble(ColumnChunkReader[] readers, DataOutput out) throws HyracksDataException {
+        assembleBranch(readers, out);
+    }
+
+    private static int[] concatColumns(AbstractValueAssembler[] branches) {
+        int length = 0;
+        for (AbstractValueAssembler branch : branches) {
+            length += branch.getColumns().length;
+        }
+        int[] columns = new int[length];
+        int offset = 0;
+        for (AbstractValueAssembler branch : branches) {
+            System.arraycopy(branch.getColumns(), 0, columns, offset, branch.getColumns().length);
+            offset += branch.getColumns().length;
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.assembler;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.AUnorderedListType;
+import org.apache.asterix.om.types.AbstractCollectionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.column.schema.AbstractSchemaNode;
+import org.apache.asterix.runtime.column.schema.ArraySchemaNode;
+import org.apache.asterix.runtime.column.schema.ColumnSchema;
+import org.apache.asterix.runtime.column.schema.ObjectSchemaNode;
+import org.apache.asterix.runtime.column.schema.PrimitiveSchemaNode;
+import org.apache.asterix.runtime.column.schema.UnionSchemaNode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.util.string.UTF8StringWriter;
+
+/**
+ * Builds the assemblers of a row group's schema. Only the nodes that are requested by the projected type are
+ * assembled. The declared (closed) fields of the dataset type are always assembled entirely as the assembled
+ * records must conform to the declared type. A requested node that has none of its columns selected (e.g., an
+ * object where none of the requested fields exists) selects one of its columns to determine whether it is present.
+ */
+public class ValueAssemblerBuilder {
+    private final UTF8StringWriter stringWriter = new UTF8StringWriter();
+
+    /**
+     * @param schema        row group schema
+     * @param datasetType   the declared type of the records
+     * @param requestedType the requested (projected) type of the records or {@code null} to assemble all fields
+     * @return the assembler of the records
+     */
+    public ObjectValueAssembler build(ColumnSchema schema, ARecordType datasetType, IAType requestedType)
+            throws HyracksDataException {
+        return buildObject(schema.getRoot(), datasetType, requestedType == null ? BuiltinType.ANY : requestedType);
+    }
+
+    private ObjectValueAssembler buildObject(ObjectSchemaNode node, ARecordType declaredType, IAType requestedType)
+            throws HyracksDataException {
+        ARecordType recordType = declaredType == null ? RecordUtil.FULLY_OPEN_RECORD_TYPE : declaredType;
+        boolean[] closedFieldsInSchema = new boolean[recordType.getFieldNames().length];
+        List<UnionValueAssembler> fields = new ArrayList<>();
+        List<Integer> closedFieldIds = new ArrayList<>();
+        List<IValueReference> fieldNames = new ArrayList<>();
+        for (int i = 0; i < node.getNumberOfChildren(); i++) {
+            String fieldName = node.getFieldName(i);
+            int closedFieldId = recordType.getFieldIndex(fieldName);
+            IAType fieldRequestedType;
+            if (closedFieldId >= 0 || requestedType.getTypeTag() == ATypeTag.ANY) {
+                fieldRequestedType = BuiltinType.ANY;
+            } else if (requestedType.getTypeTag() == ATypeTag.OBJECT
+                    && ((ARecordType) requestedType).getFieldIndex(fieldName) >= 0) {
+                fieldRequestedType = ((ARecordType) requestedType).getFieldType(fieldName);
+            } else {
+                continue;
+            }
+            IAType fieldDeclaredType = closedFieldId >= 0 ? recordType.getFieldTypes()[closedFieldId] : null;
+            UnionValueAssembler field = buildUnion(node.getChild(i), fieldDeclaredType, fieldRequestedType);
+            if (field == null) {
+                continue;
+            }
+            fields.add(field);
+            closedFieldIds.add(closedFieldId);
+            fieldNames.add(closedFieldId >= 0 ? null : serializeFieldName(fieldName));
+            if (closedFieldId >= 0) {
+                closedFieldsInSchema[closedFieldId] = true;
+            }
+        }
+
+        List<Integer> absentClosedFieldIds = new ArrayList<>();
+        for (int i = 0; i < closedFieldsInSchema.length; i++) {
+            if (!closedFieldsInSchema[i]) {
+                absentClosedFieldIds.add(i);
+            }
+        }
+
+        int presenceColumn = -1;
+        if (node.getEmptyColumn() != null) {
+            presenceColumn = node.getEmptyColumn().getColumnIndex();
+        } else if (fields.isEmpty()) {
+            presenceColumn = node.getColumns()[0];
+        }
+        return new ObjectValueAssembler(node.getDepth(), node.getRepLevel(), recordType,
+                fields.toArray(new UnionValueAssembler[0]), toIntArray(closedFieldIds),
+                fieldNames.toArray(new IValueReference[0]), toIntArray(absentClosedFieldIds), presenceColumn);
+    }
+
+    private UnionValueAssembler buildUnion(UnionSchemaNode node, IAType declaredType, IAType requestedType)
+            throws HyracksDataException {
+        IAType actualDeclaredType = getActualType(declaredType);
+        List<AbstractValueAssembler> branches = new ArrayList<>();
+        for (AbstractSchemaNode branch : node.getBranches()) {
+            ATypeTag typeTag = branch.getTypeTag();
+            IAType branchRequestedType = getRequestedBranchType(requestedType, typeTag);
+            if (branchRequestedType == null) {
+                continue;
+            }
+            IAType branchDeclaredType =
+                    actualDeclaredType != null && actualDeclaredType.getTypeTag() == typeTag ? actualDeclaredType
+                            : null;
+            switch (typeTag) {
+                case OBJECT:
+                    branches.add(buildObject((ObjectSchemaNode) branch, (ARecordType) branchDeclaredType,
+                            branchRequestedType));
+                    break;
+                case ARRAY:
+                case MULTISET:
+                    branches.add(buildArray((ArraySchemaNode) branch, (AbstractCollectionType) branchDeclaredType,
+                            branchRequestedType));
+                    break;
+                default:
+                    branches.add(new PrimitiveValueAssembler((PrimitiveSchemaNode) branch));
+                    break;
+            }
+        }
+        return branches.isEmpty() ? null
+                : new UnionValueAssembler(node, branches.toArray(new AbstractValueAssembler[0]));
+    }
+
+    private ArrayValueAssembler buildArray(ArraySchemaNode node, AbstractCollectionType declaredType,
+            IAType requestedType) throws HyracksDataException {
+        AbstractCollectionType listType = declaredType;
+        if (listType == null) {
+            listType = node.getTypeTag() == ATypeTag.ARRAY ? AOrderedListType.FULL_OPEN_ORDEREDLIST_TYPE
+                    : AUnorderedListType.FULLY_OPEN_UNORDEREDLIST_TYPE;
+        }
+        IAType itemRequestedType = requestedType instanceof AbstractCollectionType
+                ? ((AbstractCollectionType) requestedType).getItemType() : BuiltinType.ANY;
+        IAType itemDeclaredType = declaredType == null ? null : declaredType.getItemType();
+        UnionValueAssembler item = buildUnion(node.getItem(), itemDeclaredType, itemRequestedType);
+        if (item == null) {
+            item = new UnionValueAssembler(node.getItem(), node.getColumns()[0]);
+        }
+        return new ArrayValueAssembler(node.getDepth(), node.getRepLevel(), listType, item);
+    }
+
+    /**
+     * @return the requested type of a branch or {@code null} if the branch is not requested
+     */
+    private static IAType getRequestedBranchType(IAType requestedType, ATypeTag branchTypeTag) {
+        switch (requestedType.getTypeTag()) {
+            case ANY:
+                return requestedType;
+            case UNION:
+                for (IAType type : ((AUnionType) requestedType).getUnionList()) {
+                    IAType branchType = getRequestedBranchType(type, branchTypeTag);
+                    if (branchType != null) {
+                        return branchType;
+                    }
+                }
+                return null;
+            case ARRAY:
+            case MULTISET:
+                return branchTypeTag == ATypeTag.ARRAY || branchTypeTag == ATypeTag.MULTISET ? requestedType : null;
+            default:
+                return requestedType.getTypeTag() == branchTypeTag ? requestedType : null;
+        }
+    }
+
+    /**
+     * @return the declared type without its optional wrapper or {@code null} if the type is unknown
+     */
+    private static IAType getActualType(IAType declaredType) {
+        if (declaredType == null) {
+            return null;
+        }
+        IAType actualType = declaredType;
+        if (actualType.getTypeTag() == ATypeTag.UNION) {
+            actualType = ((AUnionType) actualType).getActualType();
+        }
+        return actualType.getTypeTag() == ATypeTag.ANY ? null : actualType;
+    }
+
+    private IValueReference serializeFieldName(String fieldName) throws HyracksDataException {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        try {
+            storage.getDataOutput().writeByte(ATypeTag.SERIALIZED_STRING_TYPE_TAG);
+            stringWriter.writeUTF8(fieldName, storage.getDataOutput());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        return storage;
+    }
+
+    private static int[] toIntArray(List<Integer> list) {
+        int[] array = new int[list.size()];
+        for (int i = 0; i < array.length; i++) {
+            array[i] = list.get(i);
+        }
+        return array;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+/**
+ * Unpacks the values written by {@link BitWriter}
+ */
+final class BitReader {
+    private final ColumnInput in;
+    private int current;
+    private int remainingBits;
+
+    BitReader(ColumnInput in) {
+        this.in = in;
+    }
+
+    long read(int bitWidth) {
+        long value = 0;
+        int read = 0;
+        while (read < bitWidth) {
+            if (remainingBits == 0) {
+                current = in.readByte() & 0xFF;
+                remainingBits = Byte.SIZE;
+            }
+            int n = Math.min(remainingBits, bitWidth - read);
+            long bits = (current >>> (Byte.SIZE - remainingBits)) & ((1 << n) - 1);
+            value |= bits << read;
+            remainingBits -= n;
+            read += n;
+        }
+        return value;
+    }
+
+    /**
+     * Discard the remaining bits of the current byte
+     */
+    void align() {
+        remainingBits = 0;
+    }
+}
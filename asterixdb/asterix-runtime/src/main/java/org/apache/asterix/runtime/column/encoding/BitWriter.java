@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Packs values of a fixed bit-width (LSB first) into bytes
+ */
+final class BitWriter {
+    private final DataOutput out;
+    private int current;
+    private int numberOfBits;
+
+    BitWriter(DataOutput out) {
+        this.out = out;
+    }
+
+    void write(long value, int bitWidth) throws IOException {
+        int written = 0;
+        while (written < bitWidth) {
+            int n = Math.min(Byte.SIZE - numberOfBits, bitWidth - written);
+            current |= (int) ((value >>> written) & ((1L << n) - 1)) << numberOfBits;
+            numberOfBits += n;
+            written += n;
+            if (numberOfBits == Byte.SIZE) {
+                out.writeByte(current);
+                current = 0;
+                numberOfBits = 0;
+            }
+        }
+    }
+
+    void flush() throws IOException {
+        if (numberOfBits > 0) {
+            out.writeByte(current);
+            current = 0;
+            numberOfBits = 0;
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.getBitWidth;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Decodes a column written by {@link ColumnChunkWriter} and iterates over its entries
+ */
+public class ColumnChunkReader {
+    private final ATypeTag typeTag;
+    private final int maxRep;
+    private final int maxDef;
+    private final int fixedLength;
+    private final ColumnInput in;
+    private int[] reps;
+    private int[] defs;
+    private int count;
+    private int index;
+
+    // Decoded values: either integers, booleans, or references to the values' bytes
+    private long[] integers;
+    private int[] booleans;
+    private int[] valueStarts;
+    private int[] valueLengths;
+    private int valueIndex;
+
+    public ColumnChunkReader(ATypeTag typeTag, int maxRep, int maxDef) {
+        this.typeTag = typeTag;
+        this.maxRep = maxRep;
+        this.maxDef = maxDef;
+        fixedLength = ColumnEncodingUtil.getFixedLength(typeTag);
+        in = new ColumnInput();
+        reps = new int[0];
+        defs = new int[0];
+    }
+
+    public void reset(byte[] data, int offset, int length) throws HyracksDataException {
+        in.reset(data, offset, length);
+        count = in.readVarInt();
+        if (reps.length < count) {
+            reps = new int[count];
+            defs = new int[count];
+        }
+        if (maxRep > 0) {
+            RunLengthBitPackingHybrid.decode(in, count, getBitWidth(maxRep), reps);
+        } else {
+            Arrays.fill(reps, 0, count, 0);
+        }
+        if (maxDef > 0) {
+            RunLengthBitPackingHybrid.decode(in, count, getBitWidth(maxDef), defs);
+        } else {
+            Arrays.fill(defs, 0, count, 0);
+        }
+        if (ColumnChunkWriter.hasValues(typeTag)) {
+            decodeValues();
+        }
+        rewind();
+    }
+
+    public void rewind() {
+        index = 0;
+        valueIndex = 0;
+    }
+
+    public boolean hasNext() {
+        return index < count;
+    }
+
+    public int peekRep() {
+        return reps[index];
+    }
+
+    public int peekDef() {
+        return defs[index];
+    }
+
+    /**
+     * Skip the current entry
+     */
+    public void skip() {
+        if (defs[index++] == maxDef && ColumnChunkWriter.hasValues(typeTag)) {
+            valueIndex++;
+        }
+    }
+
+    /**
+     * Skip the remaining entries of the current row
+     */
+    public void skipRow() {
+        skip();
+        while (index < count && reps[index] != 0) {
+            skip();
+        }
+    }
+
+    /**
+     * Write the current (defined) value including its type tag and move to the next entry
+     */
+    public void next(DataOutput out) throws HyracksDataException {
+        index++;
+        try {
+            out.writeByte(typeTag.serialize());
+            if (integers != null) {
+                ColumnEncodingUtil.writeIntegral(integers[valueIndex], fixedLength, out);
+            } else if (booleans != null) {
+                out.writeByte(booleans[valueIndex]);
+            } else {
+                out.write(in.getBytes(), valueStarts[valueIndex], valueLengths[valueIndex]);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        valueIndex++;
+    }
+
+    private void decodeValues() throws HyracksDataException {
+        int valueCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (defs[i] == maxDef) {
+                valueCount++;
+            }
+        }
+        integers = null;
+        booleans = null;
+        byte encoding = (byte) in.readByte();
+        switch (encoding) {
+            case ColumnChunkWriter.DELTA_BINARY_PACKED:
+                integers = new long[valueCount];
+                DeltaBinaryPacking.decode(in, valueCount, integers);
+                break;
+            case ColumnChunkWriter.RLE:
+                booleans = new int[valueCount];
+                RunLengthBitPackingHybrid.decode(in, valueCount, 1, booleans);
+                break;
+            case ColumnChunkWriter.DICTIONARY:
+                decodeDictionary(valueCount);
+                break;
+            case ColumnChunkWriter.PLAIN:
+                ensureValueReferencesCapacity(valueCount);
+                for (int i = 0; i < valueCount; i++) {
+                    int length = fixedLength < 0 ? in.readVarInt() : fixedLength;
+                    valueStarts[i] = in.getPosition();
+                    valueLengths[i] = length;
+                    in.skip(length);
+                }
+                break;
+            default:
+                throw new IllegalStateException("Unknown column encoding " + encoding);
+        }
+    }
+
+    private void decodeDictionary(int valueCount) {
+        int dictionarySize = in.readVarInt();
+        int[] entryStarts = new int[dictionarySize];
+        int[] entryLengths = new int[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            entryLengths[i] = in.readVarInt();
+            entryStarts[i] = in.getPosition();
+            in.skip(entryLengths[i]);
+        }
+        int[] ids = new int[valueCount];
+        RunLengthBitPackingHybrid.decode(in, valueCount, Math.max(1, getBitWidth(dictionarySize - 1L)), ids);
+        ensureValueReferencesCapacity(valueCount);
+        for (int i = 0; i < valueCount; i++) {
+            valueStarts[i] = entryStarts[ids[i]];
+            valueLengths[i] = entryLengths[ids[i]];
+        }
+    }
+
+    private void ensureValueReferencesCapacity(int valueCount) {
+        if (valueStarts == null || valueStarts.length < valueCount) {
+            valueStarts = new int[valueCount];
+            valueLengths = new int[valueCount];
+        }
+    }
+}
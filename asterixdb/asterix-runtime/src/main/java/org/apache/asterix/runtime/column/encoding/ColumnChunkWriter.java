@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.getBitWidth;
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.writeVarInt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * Buffers the repetition levels, definition levels, and (untagged) values of a single column and encodes them as:
+ * [entryCount][repetition levels (if maxRep > 0)][definition levels (if maxDef > 0)][valueEncoding][values]
+ * <p>
+ * Levels are encoded using {@link RunLengthBitPackingHybrid}. Values are encoded according to their type:
+ * <ul>
+ * <li>integers and temporal values: {@link DeltaBinaryPacking}</li>
+ * <li>booleans: {@link RunLengthBitPackingHybrid}</li>
+ * <li>strings: dictionary encoding (if the values are repetitive enough) or plain</li>
+ * <li>other fixed-length values: plain (without lengths)</li>
+ * <li>other variable-length values: plain (length-prefixed)</li>
+ * </ul>
+ */
+public class ColumnChunkWriter {
+    static final byte PLAIN = 0;
+    static final byte DELTA_BINARY_PACKED = 1;
+    static final byte RLE = 2;
+    static final byte DICTIONARY = 3;
+
+    private static final int INITIAL_SIZE = 64;
+
+    private final ATypeTag typeTag;
+    private final int maxRep;
+    private final int maxDef;
+    private final int fixedLength;
+    private final ArrayBackedValueStorage values;
+    private int[] reps;
+    private int[] defs;
+    private int count;
+    private int[] valueEnds;
+    private int valueCount;
+
+    public ColumnChunkWriter(ATypeTag typeTag, int maxRep, int maxDef) {
+        this.typeTag = typeTag;
+        this.maxRep = maxRep;
+        this.maxDef = maxDef;
+        fixedLength = ColumnEncodingUtil.getFixedLength(typeTag);
+        values = new ArrayBackedValueStorage();
+        reps = new int[INITIAL_SIZE];
+        defs = new int[INITIAL_SIZE];
+        valueEnds = new int[INITIAL_SIZE];
+    }
+
+    /**
+     * @return whether the column stores values or only levels (e.g., null, missing, and empty objects)
+     */
+    public static boolean hasValues(ATypeTag typeTag) {
+        return typeTag != ATypeTag.NULL && typeTag != ATypeTag.MISSING && typeTag != ATypeTag.OBJECT;
+    }
+
+    /**
+     * Add an entry without a value (i.e., {@code def < maxDef} or a level-only column)
+     */
+    public void add(int rep, int def) {
+        ensureLevelsCapacity();
+        reps[count] = rep;
+        defs[count] = def;
+        count++;
+    }
+
+    /**
+     * Add a defined value
+     */
+    public void addValue(int rep, byte[] bytes, int offset, int length) throws HyracksDataException {
+        add(rep, maxDef);
+        try {
+            values.getDataOutput().write(bytes, offset, length);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        if (valueCount == valueEnds.length) {
+            valueEnds = Arrays.copyOf(valueEnds, valueEnds.length * 2);
+        }
+        valueEnds[valueCount++] = values.getLength();
+    }
+
+    public int getEstimatedSize() {
+        // At most one byte per level
+        return 2 * count + values.getLength();
+    }
+
+    public void encode(DataOutput out) throws IOException {
+        writeVarInt(count, out);
+        if (maxRep > 0) {
+            RunLengthBitPackingHybrid.encode(reps, count, getBitWidth(maxRep), out);
+        }
+        if (maxDef > 0) {
+            RunLengthBitPackingHybrid.encode(defs, count, getBitWidth(maxDef), out);
+        }
+        if (hasValues(typeTag)) {
+            encodeValues(out);
+        }
+    }
+
+    public void reset() {
+        values.reset();
+        count = 0;
+        valueCount = 0;
+    }
+
+    private void encodeValues(DataOutput out) throws IOException {
+        byte[] bytes = values.getByteArray();
+        if (ColumnEncodingUtil.isIntegral(typeTag)) {
+            out.writeByte(DELTA_BINARY_PACKED);
+            long[] integers = new long[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                integers[i] = ColumnEncodingUtil.readIntegral(bytes, getValueStart(i), fixedLength);
+            }
+            DeltaBinaryPacking.encode(integers, valueCount, out);
+        } else if (typeTag == ATypeTag.BOOLEAN) {
+            out.writeByte(RLE);
+            int[] booleans = new int[valueCount];
+            for (int i = 0; i < valueCount; i++) {
+                booleans[i] = bytes[getValueStart(i)] == 0 ? 0 : 1;
+            }
+            RunLengthBitPackingHybrid.encode(booleans, valueCount, 1, out);
+        } else if (typeTag != ATypeTag.STRING || !encodeDictionary(out)) {
+            out.writeByte(PLAIN);
+            for (int i = 0; i < valueCount; i++) {
+                int start = getValueStart(i);
+                int length = valueEnds[i] - start;
+                if (fixedLength < 0) {
+                    writeVarInt(length, out);
+                }
+                out.write(bytes, start, length);
+            }
+        }
+    }
+
+    /**
+     * Dictionary encode the values if at least half of them are repeated
+     *
+     * @return true if the values were encoded, false otherwise
+     */
+    private boolean encodeDictionary(DataOutput out) throws IOException {
+        byte[] bytes = values.getByteArray();
+        Map<ByteBuffer, Integer> dictionary = new HashMap<>();
+        int[] ids = new int[valueCount];
+        for (int i = 0; i < valueCount; i++) {
+            int start = getValueStart(i);
+            ByteBuffer value = ByteBuffer.wrap(bytes, start, valueEnds[i] - start);
+            Integer id = dictionary.putIfAbsent(value, dictionary.size());
+            ids[i] = id == null ? dictionary.size() - 1 : id;
+            if (dictionary.size() * 2 > valueCount) {
+                return false;
+            }
+        }
+
+        out.writeByte(DICTIONARY);
+        ByteBuffer[] entries = new ByteBuffer[dictionary.size()];
+        for (Map.Entry<ByteBuffer, Integer> entry : dictionary.entrySet()) {
+            entries[entry.getValue()] = entry.getKey();
+        }
+        writeVarInt(entries.length, out);
+        for (ByteBuffer entry : entries) {
+            writeVarInt(entry.remaining(), out);
+            out.write(entry.array(), entry.position(), entry.remaining());
+        }
+        RunLengthBitPackingHybrid.encode(ids, valueCount, Math.max(1, getBitWidth(entries.length - 1L)), out);
+        return true;
+    }
+
+    private int getValueStart(int valueIndex) {
+        return valueIndex == 0 ? 0 : valueEnds[valueIndex - 1];
+    }
+
+    private void ensureLevelsCapacity() {
+        if (count == reps.length) {
+            reps = Arrays.copyOf(reps, reps.length * 2);
+            defs = Arrays.copyOf(defs, defs.length * 2);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+public class ColumnEncodingUtil {
+    private ColumnEncodingUtil() {
+    }
+
+    public static void writeVarInt(int value, DataOutput out) throws IOException {
+        int remaining = value;
+        while ((remaining & ~0x7F) != 0) {
+            out.writeByte((remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte(remaining);
+    }
+
+    public static void writeVarLong(long value, DataOutput out) throws IOException {
+        long remaining = value;
+        while ((remaining & ~0x7FL) != 0) {
+            out.writeByte((int) (remaining & 0x7F) | 0x80);
+            remaining >>>= 7;
+        }
+        out.writeByte((int) remaining);
+    }
+
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    public static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * @return the number of bits needed to represent the unsigned {@code value}
+     */
+    public static int getBitWidth(long value) {
+        return Long.SIZE - Long.numberOfLeadingZeros(value);
+    }
+
+    /**
+     * @return the (untagged) size of a fixed-length value or -1 if values of {@code typeTag} are variable-length
+     */
+    public static int getFixedLength(ATypeTag typeTag) {
+        switch (typeTag) {
+            case BOOLEAN:
+            case TINYINT:
+                return 1;
+            case SMALLINT:
+                return 2;
+            case INTEGER:
+            case FLOAT:
+            case DATE:
+            case TIME:
+            case YEARMONTHDURATION:
+                return 4;
+            case BIGINT:
+            case DOUBLE:
+            case DATETIME:
+            case DAYTIMEDURATION:
+                return 8;
+            default:
+                return -1;
+        }
+    }
+
+    /**
+     * @return whether the values of {@code typeTag} are integers that can be delta encoded
+     */
+    public static boolean isIntegral(ATypeTag typeTag) {
+        switch (typeTag) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case DATE:
+            case TIME:
+            case DATETIME:
+            case YEARMONTHDURATION:
+            case DAYTIMEDURATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Read a big-endian signed integer of {@code length} bytes
+     */
+    public static long readIntegral(byte[] bytes, int offset, int length) {
+        long value = bytes[offset];
+        for (int i = 1; i < length; i++) {
+            value = (value << 8) | (bytes[offset + i] & 0xFF);
+        }
+        return value;
+    }
+
+    /**
+     * Write the lowest {@code length} bytes of {@code value} in big-endian order
+     */
+    public static void writeIntegral(long value, int length, DataOutput out) throws IOException {
+        for (int i = length - 1; i >= 0; i--) {
+            out.writeByte((int) (value >>> (i * 8)));
+        }
+    }
+}
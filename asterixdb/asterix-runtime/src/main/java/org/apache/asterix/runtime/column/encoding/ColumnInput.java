@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+/**
+ * A lightweight reader of the bytes of an encoded column
+ */
+public final class ColumnInput {
+    private byte[] bytes;
+    private int position;
+    private int end;
+
+    public void reset(byte[] bytes, int offset, int length) {
+        this.bytes = bytes;
+        position = offset;
+        end = offset + length;
+    }
+
+    public byte[] getBytes() {
+        return bytes;
+    }
+
+    public int getPosition() {
+        return position;
+    }
+
+    public int getEnd() {
+        return end;
+    }
+
+    public void skip(int length) {
+        position += length;
+    }
+
+    public int readByte() {
+        return bytes[position++];
+    }
+
+    public int readVarInt() {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    public long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = bytes[position++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
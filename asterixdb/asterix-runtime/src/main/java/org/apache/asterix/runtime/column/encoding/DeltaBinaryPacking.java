@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.getBitWidth;
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.writeVarLong;
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.zigZagDecode;
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.zigZagEncode;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Delta encoding for integers. The first value is written as a zigzag varint. The deltas between consecutive values
+ * are divided into blocks of {@link #BLOCK_SIZE}. Each block stores its minimum delta (zigzag varint) and bit-packs
+ * the differences between its deltas and the minimum using the smallest bit-width that fits them all. All arithmetic
+ * is modulo 2^64 so that overflowing deltas are still decoded correctly.
+ */
+public class DeltaBinaryPacking {
+    private static final int BLOCK_SIZE = 128;
+
+    private DeltaBinaryPacking() {
+    }
+
+    public static void encode(long[] values, int count, DataOutput out) throws IOException {
+        if (count == 0) {
+            return;
+        }
+        writeVarLong(zigZagEncode(values[0]), out);
+        for (int blockStart = 1; blockStart < count; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(count, blockStart + BLOCK_SIZE);
+            long minDelta = Long.MAX_VALUE;
+            for (int i = blockStart; i < blockEnd; i++) {
+                minDelta = Math.min(minDelta, values[i] - values[i - 1]);
+            }
+            long bits = 0;
+            for (int i = blockStart; i < blockEnd; i++) {
+                bits |= values[i] - values[i - 1] - minDelta;
+            }
+            int bitWidth = getBitWidth(bits);
+            writeVarLong(zigZagEncode(minDelta), out);
+            out.writeByte(bitWidth);
+            BitWriter bitWriter = new BitWriter(out);
+            for (int i = blockStart; i < blockEnd; i++) {
+                bitWriter.write(values[i] - values[i - 1] - minDelta, bitWidth);
+            }
+            bitWriter.flush();
+        }
+    }
+
+    /**
+     * Decode {@code count} values into {@code target}
+     */
+    public static void decode(ColumnInput in, int count, long[] target) {
+        if (count == 0) {
+            return;
+        }
+        target[0] = zigZagDecode(in.readVarLong());
+        for (int blockStart = 1; blockStart < count; blockStart += BLOCK_SIZE) {
+            int blockEnd = Math.min(count, blockStart + BLOCK_SIZE);
+            long minDelta = zigZagDecode(in.readVarLong());
+            int bitWidth = in.readByte();
+            BitReader bitReader = new BitReader(in);
+            for (int i = blockStart; i < blockEnd; i++) {
+                target[i] = target[i - 1] + minDelta + bitReader.read(bitWidth);
+            }
+            bitReader.align();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.encoding;
+
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.writeVarInt;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * A hybrid of run-length encoding and bit-packing for small non-negative integers (e.g., repetition and definition
+ * levels, dictionary ids, and booleans). A run of at least {@link #MIN_RUN_LENGTH} equal values is written as
+ * {@code varint(length << 1), varint(value)}. Otherwise, values are bit-packed in groups of 8 and written as
+ * {@code varint(numberOfGroups << 1 | 1)} followed by the packed values.
+ */
+public class RunLengthBitPackingHybrid {
+    private static final int MIN_RUN_LENGTH = 8;
+    private static final int GROUP_SIZE = 8;
+    private static final int MAX_GROUPS = 63;
+
+    private RunLengthBitPackingHybrid() {
+    }
+
+    public static void encode(int[] values, int count, int bitWidth, DataOutput out) throws IOException {
+        int i = 0;
+        while (i < count) {
+            int runLength = getRunLength(values, i, count);
+            if (runLength >= MIN_RUN_LENGTH) {
+                writeVarInt(runLength << 1, out);
+                writeVarInt(values[i], out);
+                i += runLength;
+                continue;
+            }
+
+            int start = i;
+            int numberOfGroups = 0;
+            do {
+                i += GROUP_SIZE;
+                numberOfGroups++;
+            } while (i < count && numberOfGroups < MAX_GROUPS && getRunLength(values, i, count) < MIN_RUN_LENGTH);
+
+            writeVarInt(numberOfGroups << 1 | 1, out);
+            BitWriter bitWriter = new BitWriter(out);
+            int end = start + numberOfGroups * GROUP_SIZE;
+            for (int j = start; j < end; j++) {
+                bitWriter.write(j < count ? values[j] : 0, bitWidth);
+            }
+            bitWriter.flush();
+        }
+    }
+
+    /**
+     * Decode {@code count} values into {@code target}
+     */
+    public static void decode(ColumnInput in, int count, int bitWidth, int[] target) {
+        int i = 0;
+        while (i < count) {
+            int header = in.readVarInt();
+            if ((header & 1) == 0) {
+                int runLength = header >>> 1;
+                int value = in.readVarInt();
+                Arrays.fill(target, i, i + runLength, value);
+                i += runLength;
+            } else {
+                int numberOfValues = (header >>> 1) * GROUP_SIZE;
+                BitReader bitReader = new BitReader(in);
+                for (int j = 0; j < numberOfValues; j++) {
+                    int value = (int) bitReader.read(bitWidth);
+                    if (i < count) {
+                        target[i++] = value;
+                    }
+                }
+                bitReader.align();
+            }
+        }
+    }
+
+    private static int getRunLength(int[] values, int start, int count) {
+        int value = values[start];
+        int end = start + 1;
+        while (end < count && values[end] == value) {
+            end++;
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * A node of the schema inferred from the records of a row group. Each node knows its definition level (i.e., the
+ * definition level of its columns when the node is present), the number of arrays enclosing it, and the columns
+ * (i.e., the leaves) under it.
+ */
+public abstract class AbstractSchemaNode {
+    private static final int[] NO_COLUMNS = new int[0];
+
+    private int depth;
+    private int repLevel;
+    private int[] columns = NO_COLUMNS;
+
+    public abstract ATypeTag getTypeTag();
+
+    /**
+     * @return the definition level of the node (i.e., the definition level of its columns when it is present)
+     */
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * @return the number of arrays enclosing this node (including the node itself if it is an array)
+     */
+    public int getRepLevel() {
+        return repLevel;
+    }
+
+    /**
+     * @return the indexes of all the columns under this node
+     */
+    public int[] getColumns() {
+        return columns;
+    }
+
+    void setLevels(int depth, int repLevel, int[] columns) {
+        this.depth = depth;
+        this.repLevel = repLevel;
+        this.columns = columns;
+    }
+}
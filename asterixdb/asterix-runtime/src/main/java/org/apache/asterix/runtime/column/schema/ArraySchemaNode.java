@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * An array or a multiset. An empty array is represented by its depth, while the repetition level of the items
+ * (except for the first one) is the array's repetition level.
+ */
+public final class ArraySchemaNode extends AbstractSchemaNode {
+    private final ATypeTag typeTag;
+    private final UnionSchemaNode item;
+
+    public ArraySchemaNode(ATypeTag typeTag) {
+        this.typeTag = typeTag;
+        item = new UnionSchemaNode();
+    }
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return typeTag;
+    }
+
+    public UnionSchemaNode getItem() {
+        return item;
+    }
+}
@@ -0,0 +1,219 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import static org.apache.asterix.runtime.column.encoding.ColumnEncodingUtil.writeVarInt;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.EnumDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * The schema of a row group. The root is an object at depth 1 (depth 0 is reserved for antimatter rows). The
+ * columns are the leaves of the schema numbered in a depth-first order.
+ * <p>
+ * Serialized as:
+ * <ul>
+ * <li>object: [numberOfFields]([fieldName][union])* [hasEmptyColumn]</li>
+ * <li>union: [numberOfBranches]([typeTag][node])*</li>
+ * <li>array: [union]</li>
+ * <li>primitive: nothing</li>
+ * </ul>
+ */
+public final class ColumnSchema {
+    private final ObjectSchemaNode root;
+    private final List<PrimitiveSchemaNode> columns;
+
+    public ColumnSchema() {
+        root = new ObjectSchemaNode();
+        columns = new ArrayList<>();
+    }
+
+
+    public ObjectSchemaNode getRoot() {
+        return root;
+    }
+
+    public int getNumberOfColumns() {
+        return columns.size();
+    }
+
+    public PrimitiveSchemaNode getColumn(int columnIndex) {
+        return columns.get(columnIndex);
+    }
+
+    /**
+     * Complete the inferred schema and assign the levels and the columns of its nodes. Arrays that are empty in the
+     * entire row group get a {@link ATypeTag#MISSING} item and objects without fields get an empty column so that
+     * every node has at least one column.
+     */
+    public void finish() {
+        complete(root);
+        assignLevels();
+    }
+
+    public void serialize(DataOutput out) throws IOException {
+        serializeObject(root, out);
+    }
+
+    public static ColumnSchema deserialize(byte[] bytes, int offset, int length) throws HyracksDataException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes, offset, length));
+        try {
+            ColumnSchema schema = new ColumnSchema();
+            deserializeObject(schema.root, in);
+            schema.assignLevels();
+            return schema;
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private void assignLevels() {
+        columns.clear();
+        assignLevels(root, 1, 0);
+    }
+
+    private int[] assignLevels(AbstractSchemaNode node, int depth, int repLevel) {
+        int firstColumn = columns.size();
+        int nodeRepLevel = repLevel;
+        switch (node.getTypeTag()) {
+            case OBJECT:
+                ObjectSchemaNode objectNode = (ObjectSchemaNode) node;
+                for (int i = 0; i < objectNode.getNumberOfChildren(); i++) {
+                    assignLevels(objectNode.getChild(i), depth, repLevel);
+                }
+                if (objectNode.getEmptyColumn() != null) {
+                    assignLevels(objectNode.getEmptyColumn(), depth, repLevel);
+                }
+                break;
+            case UNION:
+                for (AbstractSchemaNode branch : ((UnionSchemaNode) node).getBranches()) {
+                    assignLevels(branch, depth + 1, repLevel);
+                }
+                break;
+            case ARRAY:
+            case MULTISET:
+                nodeRepLevel = repLevel + 1;
+                assignLevels(((ArraySchemaNode) node).getItem(), depth + 1, nodeRepLevel);
+                break;
+            default:
+                columns.add((PrimitiveSchemaNode) node);
+                break;
+        }
+        int[] nodeColumns = new int[columns.size() - firstColumn];
+        for (int i = 0; i < nodeColumns.length; i++) {
+            nodeColumns[i] = firstColumn + i;
+        }
+        node.setLevels(depth, nodeRepLevel, nodeColumns);
+        return nodeColumns;
+    }
+
+    private static void complete(AbstractSchemaNode node) {
+        switch (node.getTypeTag()) {
+            case OBJECT:
+                ObjectSchemaNode objectNode = (ObjectSchemaNode) node;
+                for (int i = 0; i < objectNode.getNumberOfChildren(); i++) {
+                    complete(objectNode.getChild(i));
+                }
+                if (objectNode.getNumberOfChildren() == 0) {
+                    objectNode.setEmptyColumn(new PrimitiveSchemaNode(ATypeTag.OBJECT));
+                }
+                break;
+            case UNION:
+                for (AbstractSchemaNode branch : ((UnionSchemaNode) node).getBranches()) {
+                    complete(branch);
+                }
+                break;
+            case ARRAY:
+            case MULTISET:
+                UnionSchemaNode item = ((ArraySchemaNode) node).getItem();
+                if (item.isEmpty()) {
+                    item.getOrCreateBranch(ATypeTag.MISSING);
+                }
+                complete(item);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private static void serializeObject(ObjectSchemaNode node, DataOutput out) throws IOException {
+        writeVarInt(node.getNumberOfChildren(), out);
+        for (int i = 0; i < node.getNumberOfChildren(); i++) {
+            out.writeUTF(node.getFieldName(i));
+            serializeUnion(node.getChild(i), out);
+        }
+        out.writeBoolean(node.getEmptyColumn() != null);
+    }
+
+    private static void serializeUnion(UnionSchemaNode node, DataOutput out) throws IOException {
+        writeVarInt(node.getBranches().size(), out);
+        for (AbstractSchemaNode branch : node.getBranches()) {
+            out.writeByte(branch.getTypeTag().serialize());
+            if (branch.getTypeTag() == ATypeTag.OBJECT) {
+                serializeObject((ObjectSchemaNode) branch, out);
+            } else if (branch instanceof ArraySchemaNode) {
+                serializeUnion(((ArraySchemaNode) branch).getItem(), out);
+            }
+        }
+    }
+
+    private static void deserializeObject(ObjectSchemaNode node, DataInputStream in) throws IOException {
+        int numberOfFields = readVarInt(in);
+        for (int i = 0; i < numberOfFields; i++) {
+            UnionSchemaNode child = node.getOrCreateChild(in.readUTF());
+            deserializeUnion(child, in);
+        }
+        if (in.readBoolean()) {
+            node.setEmptyColumn(new PrimitiveSchemaNode(ATypeTag.OBJECT));
+        }
+    }
+
+    private static void deserializeUnion(UnionSchemaNode node, DataInputStream in) throws IOException {
+        int numberOfBranches = readVarInt(in);
+        for (int i = 0; i < numberOfBranches; i++) {
+            ATypeTag typeTag = EnumDeserializer.ATYPETAGDESERIALIZER.deserialize(in.readByte());
+            AbstractSchemaNode branch = node.getOrCreateBranch(typeTag);
+            if (typeTag == ATypeTag.OBJECT) {
+                deserializeObject((ObjectSchemaNode) branch, in);
+            } else if (branch instanceof ArraySchemaNode) {
+                deserializeUnion(((ArraySchemaNode) branch).getItem(), in);
+            }
+        }
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = in.readByte();
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+}
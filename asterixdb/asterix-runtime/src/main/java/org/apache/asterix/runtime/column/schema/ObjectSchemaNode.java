@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * An object. Objects without any fields (in the entire row group) are represented by a level-only column.
+ */
+public final class ObjectSchemaNode extends AbstractSchemaNode {
+    private final List<String> fieldNames = new ArrayList<>();
+    private final List<UnionSchemaNode> children = new ArrayList<>();
+    private final Map<String, Integer> fieldIndexes = new HashMap<>();
+    private PrimitiveSchemaNode emptyColumn;
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return ATypeTag.OBJECT;
+    }
+
+    public UnionSchemaNode getOrCreateChild(String fieldName) {
+        Integer index = fieldIndexes.get(fieldName);
+        if (index != null) {
+            return children.get(index);
+        }
+        fieldIndexes.put(fieldName, children.size());
+        fieldNames.add(fieldName);
+        UnionSchemaNode child = new UnionSchemaNode();
+        children.add(child);
+        return child;
+    }
+
+    /**
+     * @return the index of the field or -1 if it does not exist
+     */
+    public int indexOf(String fieldName) {
+        Integer index = fieldIndexes.get(fieldName);
+        return index == null ? -1 : index;
+    }
+
+    public int getNumberOfChildren() {
+        return children.size();
+    }
+
+    public String getFieldName(int index) {
+        return fieldNames.get(index);
+    }
+
+    public UnionSchemaNode getChild(int index) {
+        return children.get(index);
+    }
+
+    public PrimitiveSchemaNode getEmptyColumn() {
+        return emptyColumn;
+    }
+
+    void setEmptyColumn(PrimitiveSchemaNode emptyColumn) {
+        this.emptyColumn = emptyColumn;
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * A leaf of the schema. Each leaf is stored as a single column. The leaves of type {@link ATypeTag#NULL},
+ * {@link ATypeTag#MISSING}, and {@link ATypeTag#OBJECT} (i.e., empty objects) store only levels.
+ */
+public final class PrimitiveSchemaNode extends AbstractSchemaNode {
+    private final ATypeTag typeTag;
+
+    public PrimitiveSchemaNode(ATypeTag typeTag) {
+        this.typeTag = typeTag;
+    }
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return typeTag;
+    }
+
+    public int getColumnIndex() {
+        return getColumns()[0];
+    }
+
+    /**
+     * @return the maximum definition level of the column (i.e., the value is defined)
+     */
+    public int getMaxDef() {
+        return getDepth();
+    }
+
+    /**
+     * @return the maximum repetition level of the column
+     */
+    public int getMaxRep() {
+        return getRepLevel();
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column.schema;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * The value of an object field or an array item. A union has one branch per type of the values seen in the same
+ * position. Its depth is the definition level of its columns when the position exists but none of the branches does
+ * (e.g., the field is missing or the value has a different type).
+ */
+public final class UnionSchemaNode extends AbstractSchemaNode {
+    private final Map<ATypeTag, AbstractSchemaNode> branches = new EnumMap<>(ATypeTag.class);
+
+    @Override
+    public ATypeTag getTypeTag() {
+        return ATypeTag.UNION;
+    }
+
+    public AbstractSchemaNode getOrCreateBranch(ATypeTag typeTag) {
+        return branches.computeIfAbsent(typeTag, UnionSchemaNode::createNode);
+    }
+
+    public AbstractSchemaNode getBranch(ATypeTag typeTag) {
+        return branches.get(typeTag);
+    }
+
+    public Collection<AbstractSchemaNode> getBranches() {
+        return branches.values();
+    }
+
+    public boolean isEmpty() {
+        return branches.isEmpty();
+    }
+
+    static AbstractSchemaNode createNode(ATypeTag typeTag) {
+        switch (typeTag) {
+            case OBJECT:
+                return new ObjectSchemaNode();
+            case ARRAY:
+            case MULTISET:
+                return new ArraySchemaNode(typeTag);
+            default:
+                return new PrimitiveSchemaNode(typeTag);
+        }
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.common;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ADoubleSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AFloatSerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt16SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt32SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt64SerializerDeserializer;
+import org.apache.asterix.dataflow.data.nontagged.serde.AInt8SerializerDeserializer;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.hyracks.algebricks.common.exceptions.AlgebricksException;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVectorEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * Base class of the vector evaluators of built-in functions. The arguments are evaluated batch-at-a-time into
+ * {@link #argValues}. Implementations handle the common argument types in a tight loop and fall back to the scalar
+ * evaluator of the function (over the already evaluated arguments) for anything else, e.g., MISSING, NULL or
+ * mismatching types, so that the results, warnings and errors are the ones of the scalar evaluation.
+ */
+public abstract class AbstractVectorFunctionEvaluator implements IVectorScalarEvaluator {
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+
+    protected final IEvaluatorContext ctx;
+    protected final IVectorScalarEvaluator[] argEvals;
+    protected final ValueVector[] argValues;
+    private final IFunctionDescriptor functionDescriptor;
+    private final FrameTupleReference tuple;
+    private final IPointable scalarResult;
+    private IScalarEvaluator scalarEval;
+
+    protected AbstractVectorFunctionEvaluator(IFunctionDescriptor functionDescriptor, IScalarEvaluatorFactory[] args,
+            IEvaluatorContext ctx) throws HyracksDataException {
+        this.ctx = ctx;
+        this.functionDescriptor = functionDescriptor;
+        argEvals = VectorEvaluatorUtil.createVectorEvaluators(args, ctx);
+        argValues = new ValueVector[args.length];
+        for (int i = 0; i < args.length; i++) {
+            argValues[i] = new ValueVector();
+        }
+        tuple = new FrameTupleReference();
+        scalarResult = VoidPointable.FACTORY.createPointable();
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException {
+        for (int i = 0; i < argEvals.length; i++) {
+            argEvals[i].evaluate(accessor, selection, argValues[i]);
+        }
+        result.reset(accessor.getTupleCount());
+        evaluate(accessor, selection, argValues, result);
+    }
+
+    /**
+     * Computes the function for the selected tuples given the evaluated arguments
+     */
+    protected abstract void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector[] args,
+            ValueVector result) throws HyracksDataException;
+
+    /**
+     * Computes the function for the tuple at {@code position} using the function's scalar evaluator
+     */
+    protected final void evaluateScalar(IFrameTupleAccessor accessor, int position, ValueVector result)
+            throws HyracksDataException {
+        if (scalarEval == null) {
+            scalarEval = createScalarEvaluator();
+        }
+        tuple.reset(accessor, position);
+        scalarEval.evaluate(tuple, scalarResult);
+        result.copy(position, scalarResult);
+    }
+
+    private IScalarEvaluator createScalarEvaluator() throws HyracksDataException {
+        try {
+            return functionDescriptor.createEvaluatorFactory(ValueVectorEvaluatorFactory.createFactories(argValues))
+                    .createScalarEvaluator(ctx);
+        } catch (AlgebricksException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    protected static void setBoolean(ValueVector result, int position, boolean value) {
+        byte[] bytes = value ? TRUE : FALSE;
+        result.set(position, bytes, 0, bytes.length);
+    }
+
+    protected static ATypeTag getTypeTag(ValueVector values, int position) {
+        return ATypeTag.VALUE_TYPE_MAPPING[values.getByteArray(position)[values.getStartOffset(position)]];
+    }
+
+    protected static boolean isNumeric(ATypeTag typeTag) {
+        switch (typeTag) {
+            case TINYINT:
+            case SMALLINT:
+            case INTEGER:
+            case BIGINT:
+            case FLOAT:
+            case DOUBLE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * @return the value of an integer at {@code position} whose type is {@code typeTag}
+     */
+    protected static long getLong(ATypeTag typeTag, ValueVector values, int position) {
+        byte[] bytes = values.getByteArray(position);
+        int offset = values.getStartOffset(position) + 1;
+        switch (typeTag) {
+            case TINYINT:
+                return AInt8SerializerDeserializer.getByte(bytes, offset);
+            case SMALLINT:
+                return AInt16SerializerDeserializer.getShort(bytes, offset);
+            case INTEGER:
+                return AInt32SerializerDeserializer.getInt(bytes, offset);
+            default:
+                return AInt64SerializerDeserializer.getLong(bytes, offset);
+        }
+    }
+
+    /**
+     * @return the value of a number at {@code position} whose type is {@code typeTag}
+     */
+    protected static double getDouble(ATypeTag typeTag, ValueVector values, int position) {
+        switch (typeTag) {
+            case FLOAT:
+                return AFloatSerializerDeserializer.getFloat(values.getByteArray(position),
+                        values.getStartOffset(position) + 1);
+            case DOUBLE:
+                return ADoubleSerializerDeserializer.getDouble(values.getByteArray(position),
+                        values.getStartOffset(position) + 1);
+            default:
+                return getLong(typeTag, values, position);
+        }
+    }
+}
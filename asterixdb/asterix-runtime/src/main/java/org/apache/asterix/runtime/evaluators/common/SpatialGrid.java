@@ -0,0 +1,286 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.common;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+
+/**
+ * A data-driven tiling grid for partitioned spatial joins. The partitioning MBR is cut into {@code columns} vertical
+ * slabs and each slab is cut into {@code rows} tiles, STR-style: the slab boundaries are the x-quantiles and the tile
+ * boundaries inside a slab are the y-quantiles of a sample of the MBR centers of both join inputs. Dense regions thus
+ * get smaller tiles and every tile holds roughly the same number of sampled objects, so hash partitioning on the tile
+ * id balances the join work even for heavily clustered data.
+ * <p>
+ * The serialized grid (the content of an ABinary value) is laid out as:
+ * <pre>
+ * minX, minY, maxX, maxY (double) | columns, rows (int) | x splits (columns - 1 doubles) |
+ * y splits of every column (columns * (rows - 1) doubles)
+ * </pre>
+ * Tiles are numbered from 1 as {@code column * rows + row + 1}. A split value belongs to the tile on its lower side.
+ * The grid is read in place, so a single instance can be reset to a serialized grid for every tuple without copying.
+ */
+public class SpatialGrid {
+    public static final int DEFAULT_ROWS = 100;
+    public static final int DEFAULT_COLUMNS = 100;
+    // a tile boundary is a quantile of the samples of its slab, a handful of samples per tile leaves it to chance
+    public static final int SAMPLES_PER_TILE = 10;
+    public static final int NUM_SAMPLES = SAMPLES_PER_TILE * DEFAULT_ROWS * DEFAULT_COLUMNS;
+
+    private static final int MBR_SIZE = 4 * Double.BYTES;
+    private static final int HEADER_SIZE = MBR_SIZE + 2 * Integer.BYTES;
+
+    private byte[] bytes;
+    private int xSplitsOffset;
+    private int ySplitsOffset;
+    private double minX;
+    private double minY;
+    private double maxX;
+    private double maxY;
+    private int columns;
+    private int rows;
+
+    public void reset(byte[] bytes, int offset) {
+        this.bytes = bytes;
+        minX = DoublePointable.getDouble(bytes, offset);
+        minY = DoublePointable.getDouble(bytes, offset + Double.BYTES);
+        maxX = DoublePointable.getDouble(bytes, offset + 2 * Double.BYTES);
+        maxY = DoublePointable.getDouble(bytes, offset + 3 * Double.BYTES);
+        columns = IntegerPointable.getInteger(bytes, offset + MBR_SIZE);
+        rows = IntegerPointable.getInteger(bytes, offset + MBR_SIZE + Integer.BYTES);
+        xSplitsOffset = offset + HEADER_SIZE;
+        ySplitsOffset = xSplitsOffset + (columns - 1) * Double.BYTES;
+    }
+
+    /**
+     * @return true if the two join inputs do not overlap, i.e. the partitioning MBR is [(0,0),(0,0)]
+     */
+    public boolean isEmpty() {
+        return minX == 0.0 && minY == 0.0 && maxX == 0.0 && maxY == 0.0;
+    }
+
+    public boolean overlaps(double x1, double y1, double x2, double y2) {
+        return !(x1 > maxX || minX > x2 || y1 > maxY || minY > y2);
+    }
+
+    public int getColumns() {
+        return columns;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getColumn(double x) {
+        return search(xSplitsOffset, columns - 1, x);
+    }
+
+    public int getRow(int column, double y) {
+        return search(ySplitsOffset + column * (rows - 1) * Double.BYTES, rows - 1, y);
+    }
+
+    public int getTileId(int column, int row) {
+        return column * rows + row + 1;
+    }
+
+    public int getPointTileId(double x, double y) {
+        int column = getColumn(x);
+        return getTileId(column, getRow(column, y));
+    }
+
+    /**
+     * @return the index of the first split that is greater than or equal to {@code value}, or {@code numSplits} if
+     *         there is none
+     */
+    private int search(int splitsOffset, int numSplits, double value) {
+        int low = 0;
+        int high = numSplits;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (DoublePointable.getDouble(bytes, splitsOffset + mid * Double.BYTES) < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Builds a grid over the given MBR out of the sampled points and writes it to {@code out}. Samples outside the MBR
+     * are ignored. If there are no samples inside the MBR, the splits are spread uniformly.
+     *
+     * @param xs x coordinates of the sampled points
+     * @param ys y coordinates of the sampled points
+     * @param numSamples number of valid entries in {@code xs} and {@code ys}
+     */
+    public static void write(DataOutput out, double minX, double minY, double maxX, double maxY, int rows,
+            int columns, double[] xs, double[] ys, int numSamples) throws HyracksDataException {
+        if (rows < 1 || columns < 1) {
+            throw new IllegalArgumentException("Invalid grid size: " + rows + " x " + columns);
+        }
+        double[][] points = new double[numSamples][];
+        int numPoints = 0;
+        for (int i = 0; i < numSamples; i++) {
+            if (xs[i] >= minX && xs[i] <= maxX && ys[i] >= minY && ys[i] <= maxY) {
+                points[numPoints++] = new double[] { xs[i], ys[i] };
+            }
+        }
+        try {
+            out.writeDouble(minX);
+            out.writeDouble(minY);
+            out.writeDouble(maxX);
+            out.writeDouble(maxY);
+            out.writeInt(columns);
+            out.writeInt(rows);
+            if (numPoints == 0) {
+                writeUniformSplits(out, minX, maxX, columns);
+                for (int c = 0; c < columns; c++) {
+                    writeUniformSplits(out, minY, maxY, rows);
+                }
+                return;
+            }
+            Arrays.sort(points, 0, numPoints, Comparator.comparingDouble(p -> p[0]));
+            int[] slabEnds = new int[columns];
+            for (int c = 0; c < columns; c++) {
+                slabEnds[c] = (int) ((long) numPoints * (c + 1) / columns);
+            }
+            for (int c = 0; c < columns - 1; c++) {
+                // the last point of a slab is its upper x boundary
+                out.writeDouble(slabEnds[c] > 0 ? points[slabEnds[c] - 1][0] : minX);
+            }
+            int slabStart = 0;
+            for (int c = 0; c < columns; c++) {
+                int slabEnd = slabEnds[c];
+                int slabSize = slabEnd - slabStart;
+                Arrays.sort(points, slabStart, slabEnd, Comparator.comparingDouble(p -> p[1]));
+                for (int r = 0; r < rows - 1; r++) {
+                    if (slabSize == 0) {
+                        out.writeDouble(minY + (maxY - minY) * (r + 1) / rows);
+                    } else {
+                        int end = (int) ((long) slabSize * (r + 1) / rows);
+                        out.writeDouble(end > 0 ? points[slabStart + end - 1][1] : minY);
+                    }
+                }
+                slabStart = slabEnd;
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Writes sampled points as {@code population (long) | count (int) | x, y (double) ...}, where the population is
+     * the number of objects the points were sampled from.
+     */
+    public static void writeSamples(DataOutput out, long population, double[] xs, double[] ys, int count)
+            throws HyracksDataException {
+        try {
+            out.writeLong(population);
+            out.writeInt(count);
+            for (int i = 0; i < count; i++) {
+                out.writeDouble(xs[i]);
+                out.writeDouble(ys[i]);
+            }
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    /**
+     * Appends the sampled points written by {@link #writeSamples(DataOutput, long, double[], double[], int)}.
+     *
+     * @return the population the points were sampled from
+     */
+    public static long readSamples(byte[] bytes, int offset, DoubleArray xs, DoubleArray ys) {
+        long population = LongPointable.getLong(bytes, offset);
+        int count = IntegerPointable.getInteger(bytes, offset + Long.BYTES);
+        int pointer = offset + Long.BYTES + Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            xs.add(DoublePointable.getDouble(bytes, pointer));
+            ys.add(DoublePointable.getDouble(bytes, pointer + Double.BYTES));
+            pointer += 2 * Double.BYTES;
+        }
+        return population;
+    }
+
+    /**
+     * Merges the samples of several partitions into one uniform sample of their union. Partition {@code i} holds the
+     * points {@code [ends[i - 1], ends[i])} of {@code xs} and {@code ys}, sampled uniformly out of
+     * {@code populations[i]} objects. Every partition contributes a share of the merged sample proportional to its
+     * population, so a small partition does not weigh as much as a large one just because both sent a full sample.
+     * The merged sample is moved to the front of {@code xs} and {@code ys}.
+     *
+     * @return the number of points in the merged sample, at most {@code maxSamples}
+     */
+    public static int mergeSamples(DoubleArray xs, DoubleArray ys, int[] ends, long[] populations, int numPartitions,
+            int maxSamples, Random random) {
+        double total = 0;
+        for (int i = 0; i < numPartitions; i++) {
+            total += populations[i];
+        }
+        if (total == 0) {
+            return 0;
+        }
+        // the largest sample that no partition has to contribute more points to than it has
+        double size = maxSamples;
+        int start = 0;
+        for (int i = 0; i < numPartitions; i++) {
+            if (populations[i] > 0) {
+                size = Math.min(size, (ends[i] - start) * total / populations[i]);
+            }
+            start = ends[i];
+        }
+        double[] x = xs.get();
+        double[] y = ys.get();
+        int numSamples = 0;
+        start = 0;
+        for (int i = 0; i < numPartitions; i++) {
+            int available = ends[i] - start;
+            int share = Math.min(available, (int) Math.round(size * populations[i] / total));
+            // partial Fisher-Yates shuffle, the order of a reservoir is not random
+            for (int j = 0; j < share; j++) {
+                int k = start + j + random.nextInt(available - j);
+                double tmp = x[k];
+                x[k] = x[start + j];
+                x[numSamples] = tmp;
+                tmp = y[k];
+                y[k] = y[start + j];
+                y[numSamples] = tmp;
+                numSamples++;
+            }
+            start = ends[i];
+        }
+        return numSamples;
+    }
+
+    private static void writeUniformSplits(DataOutput out, double min, double max, int n) throws IOException {
+        for (int i = 1; i < n; i++) {
+            out.writeDouble(min + (max - min) * i / n);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.comparisons;
+
+import static org.apache.asterix.om.types.ATypeTag.BIGINT;
+import static org.apache.asterix.om.types.ATypeTag.DOUBLE;
+import static org.apache.asterix.om.types.ATypeTag.FLOAT;
+
+import org.apache.asterix.dataflow.data.common.ILogicalBinaryComparator;
+import org.apache.asterix.dataflow.data.common.ILogicalBinaryComparator.Result;
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.evaluators.common.AbstractVectorFunctionEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.BooleanPointable;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+
+/**
+ * Vector evaluator of the value comparison functions. Numbers, strings and booleans are compared as the logical
+ * comparators compare them. Any other pair of values is compared by the scalar
+ * {@link AbstractValueComparisonEvaluator} of the function.
+ */
+public abstract class AbstractVectorComparisonEvaluator extends AbstractVectorFunctionEvaluator {
+
+    public AbstractVectorComparisonEvaluator(IFunctionDescriptor functionDescriptor, IScalarEvaluatorFactory[] args,
+            IEvaluatorContext ctx) throws HyracksDataException {
+        super(functionDescriptor, args, ctx);
+    }
+
+    @Override
+    protected void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector[] args,
+            ValueVector result) throws HyracksDataException {
+        ValueVector left = args[0];
+        ValueVector right = args[1];
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int position = selection.get(i);
+            ATypeTag leftTag = getTypeTag(left, position);
+            ATypeTag rightTag = getTypeTag(right, position);
+            int comparison;
+            if (isNumeric(leftTag) && isNumeric(rightTag)) {
+                comparison = compareNumbers(leftTag, left, rightTag, right, position);
+            } else if (leftTag == ATypeTag.STRING && rightTag == ATypeTag.STRING) {
+                comparison = UTF8StringPointable.compare(left.getByteArray(position),
+                        left.getStartOffset(position) + 1, left.getLength(position) - 1,
+                        right.getByteArray(position), right.getStartOffset(position) + 1,
+                        right.getLength(position) - 1);
+            } else if (leftTag == ATypeTag.BOOLEAN && rightTag == ATypeTag.BOOLEAN) {
+                comparison = BooleanPointable.compare(left.getByteArray(position), left.getStartOffset(position) + 1,
+                        left.getLength(position) - 1, right.getByteArray(position),
+                        right.getStartOffset(position) + 1, right.getLength(position) - 1);
+            } else {
+                evaluateScalar(accessor, position, result);
+                continue;
+            }
+            setBoolean(result, position, getComparisonResult(ILogicalBinaryComparator.asResult(comparison)));
+        }
+    }
+
+    protected abstract boolean getComparisonResult(Result r);
+
+    private static int compareNumbers(ATypeTag leftTag, ValueVector left, ATypeTag rightTag, ValueVector right,
+            int position) {
+        if (leftTag == DOUBLE || rightTag == DOUBLE) {
+            return Double.compare(getDouble(leftTag, left, position), getDouble(rightTag, right, position));
+        } else if (leftTag == FLOAT || rightTag == FLOAT) {
+            return Float.compare((float) getDouble(leftTag, left, position),
+                    (float) getDouble(rightTag, right, position));
+        } else if (leftTag == BIGINT || rightTag == BIGINT) {
+            return Long.compare(getLong(leftTag, left, position), getLong(rightTag, right, position));
+        }
+        return Integer.compare((int) getLong(leftTag, left, position), (int) getLong(rightTag, right, position));
+    }
+}
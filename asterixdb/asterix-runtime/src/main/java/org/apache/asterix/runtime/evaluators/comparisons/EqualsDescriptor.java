@@ -30,6 +30,8 @@ import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
 @MissingNullInOutFunction
@@ -55,7 +57,7 @@ public class EqualsDescriptor extends AbstractComparisonDescriptor {
 
     @Override
     public IScalarEvaluatorFactory createEvaluatorFactory(IScalarEvaluatorFactory[] args) {
-        return new IScalarEvaluatorFactory() {
+        return new IVectorScalarEvaluatorFactory() {
             private static final long serialVersionUID = 1L;
 
             @Override
@@ -70,6 +72,17 @@ public class EqualsDescriptor extends AbstractComparisonDescriptor {
                 };
             }
 
+            @Override
+            public IVectorScalarEvaluator createVectorScalarEvaluator(IEvaluatorContext ctx)
+                    throws HyracksDataException {
+                return new AbstractVectorComparisonEvaluator(EqualsDescriptor.this, args, ctx) {
+
+                    @Override
+                    protected boolean getComparisonResult(Result r) {
+                        return r == Result.EQ;
+                    }
+                };
+            }
         };
     }
 
@@ -0,0 +1,64 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import org.apache.asterix.om.functions.IFunctionDescriptor;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.evaluators.common.AbstractVectorFunctionEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.primitive.UTF8StringPointable;
+
+/**
+ * Vector counterpart of {@link AbstractBinaryStringBoolEval}. Pairs of strings are computed in place, anything else
+ * is left to the scalar evaluator of the function.
+ */
+public abstract class AbstractVectorStringBoolEvaluator extends AbstractVectorFunctionEvaluator {
+    private final UTF8StringPointable leftPtr = new UTF8StringPointable();
+    private final UTF8StringPointable rightPtr = new UTF8StringPointable();
+
+    public AbstractVectorStringBoolEvaluator(IFunctionDescriptor functionDescriptor, IScalarEvaluatorFactory[] args,
+            IEvaluatorContext ctx) throws HyracksDataException {
+        super(functionDescriptor, args, ctx);
+    }
+
+    @Override
+    protected void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector[] args,
+            ValueVector result) throws HyracksDataException {
+        ValueVector left = args[0];
+        ValueVector right = args[1];
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int position = selection.get(i);
+            if (getTypeTag(left, position) != ATypeTag.STRING || getTypeTag(right, position) != ATypeTag.STRING) {
+                evaluateScalar(accessor, position, result);
+                continue;
+            }
+            leftPtr.set(left.getByteArray(position), left.getStartOffset(position) + 1, left.getLength(position) - 1);
+            rightPtr.set(right.getByteArray(position), right.getStartOffset(position) + 1,
+                    right.getLength(position) - 1);
+            setBoolean(result, position, compute(leftPtr, rightPtr));
+        }
+    }
+
+    protected abstract boolean compute(UTF8StringPointable left, UTF8StringPointable right) throws HyracksDataException;
+}
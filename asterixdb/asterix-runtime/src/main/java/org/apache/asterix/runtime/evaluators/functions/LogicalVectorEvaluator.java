@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import java.util.Arrays;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ABooleanSerializerDeserializer;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.exceptions.TypeMismatchException;
+import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Vector evaluator of AND/OR. Each argument is only evaluated for the tuples whose result is not decided yet by the
+ * previous arguments, which is the batch equivalent of the short-circuit evaluation of {@link AndDescriptor} and
+ * {@link OrDescriptor}.
+ */
+class LogicalVectorEvaluator implements IVectorScalarEvaluator {
+    private static final byte MET_NULL = 1;
+    private static final byte MET_MISSING = 2;
+    private static final byte[] TRUE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 1 };
+    private static final byte[] FALSE = { ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG, 0 };
+    private static final byte[] NULL = { ATypeTag.SERIALIZED_NULL_TYPE_TAG };
+    private static final byte[] MISSING = { ATypeTag.SERIALIZED_MISSING_TYPE_TAG };
+
+    private final boolean isAnd;
+    private final FunctionIdentifier funId;
+    private final SourceLocation sourceLoc;
+    private final IVectorScalarEvaluator[] argEvals;
+    private final ValueVector argValue;
+    private SelectionVector undecided;
+    private SelectionVector next;
+    private byte[] flags;
+
+    LogicalVectorEvaluator(boolean isAnd, FunctionIdentifier funId, SourceLocation sourceLoc,
+            IScalarEvaluatorFactory[] args, IEvaluatorContext ctx) throws HyracksDataException {
+        this.isAnd = isAnd;
+        this.funId = funId;
+        this.sourceLoc = sourceLoc;
+        argEvals = VectorEvaluatorUtil.createVectorEvaluators(args, ctx);
+        argValue = new ValueVector();
+        undecided = new SelectionVector();
+        next = new SelectionVector();
+        flags = new byte[0];
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException {
+        int tupleCount = accessor.getTupleCount();
+        result.reset(tupleCount);
+        if (flags.length < tupleCount) {
+            flags = new byte[tupleCount];
+        } else {
+            Arrays.fill(flags, 0, tupleCount, (byte) 0);
+        }
+        undecided.set(selection);
+        // AND is decided by a FALSE argument and OR is decided by a TRUE argument
+        boolean decisive = !isAnd;
+        for (int i = 0; i < argEvals.length && !undecided.isEmpty(); i++) {
+            argEvals[i].evaluate(accessor, undecided, argValue);
+            next.clear();
+            for (int j = 0, size = undecided.size(); j < size; j++) {
+                int position = undecided.get(j);
+                byte[] bytes = argValue.getByteArray(position);
+                int offset = argValue.getStartOffset(position);
+                byte tag = bytes[offset];
+                if (tag == ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+                    flags[position] |= MET_MISSING;
+                } else if (tag == ATypeTag.SERIALIZED_NULL_TYPE_TAG) {
+                    flags[position] |= MET_NULL;
+                } else if (tag != ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG) {
+                    throw new TypeMismatchException(sourceLoc, funId, i, tag, ATypeTag.SERIALIZED_BOOLEAN_TYPE_TAG);
+                } else if (ABooleanSerializerDeserializer.getBoolean(bytes, offset + 1) == decisive) {
+                    set(result, position, decisive ? TRUE : FALSE);
+                    continue;
+                }
+                next.add(position);
+            }
+            SelectionVector tmp = undecided;
+            undecided = next;
+            next = tmp;
+        }
+        for (int j = 0, size = undecided.size(); j < size; j++) {
+            int position = undecided.get(j);
+            set(result, position, getUndecidedResult(flags[position]));
+        }
+    }
+
+    private byte[] getUndecidedResult(byte flag) {
+        if (isAnd) {
+            // MISSING AND NULL = MISSING, NULL AND TRUE = NULL
+            return (flag & MET_MISSING) != 0 ? MISSING : (flag & MET_NULL) != 0 ? NULL : TRUE;
+        }
+        // NULL OR MISSING = NULL, MISSING OR FALSE = MISSING
+        return (flag & MET_NULL) != 0 ? NULL : (flag & MET_MISSING) != 0 ? MISSING : FALSE;
+    }
+
+    private static void set(ValueVector result, int position, byte[] value) {
+        result.set(position, value, 0, value.length);
+    }
+}
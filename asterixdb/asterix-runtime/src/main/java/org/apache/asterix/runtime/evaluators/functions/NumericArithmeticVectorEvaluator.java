@@ -0,0 +1,153 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.functions;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.asterix.om.base.AMutableDouble;
+import org.apache.asterix.om.base.AMutableInt64;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.evaluators.common.AbstractVectorFunctionEvaluator;
+import org.apache.asterix.runtime.exceptions.OverflowException;
+import org.apache.asterix.runtime.exceptions.UnderflowException;
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.exceptions.SourceLocation;
+
+/**
+ * Vector evaluator of the numeric arithmetic functions. Pairs of numbers are computed in a tight loop using the
+ * operation of the {@link AbstractNumericArithmeticEval descriptor} and are checked for overflows/underflows exactly
+ * as the scalar evaluator does. Temporal arithmetic, MISSING, NULL and type mismatches are left to the scalar
+ * evaluator.
+ */
+class NumericArithmeticVectorEvaluator extends AbstractVectorFunctionEvaluator {
+    private final AbstractNumericArithmeticEval descriptor;
+    private final SourceLocation sourceLoc;
+    private final AMutableInt64 aInt64 = new AMutableInt64(0);
+    private final AMutableDouble aDouble = new AMutableDouble(0);
+
+    NumericArithmeticVectorEvaluator(AbstractNumericArithmeticEval descriptor, IScalarEvaluatorFactory[] args,
+            IEvaluatorContext ctx, SourceLocation sourceLoc) throws HyracksDataException {
+        super(descriptor, args, ctx);
+        this.descriptor = descriptor;
+        this.sourceLoc = sourceLoc;
+    }
+
+    @Override
+    protected void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector[] args,
+            ValueVector result) throws HyracksDataException {
+        ValueVector left = args[0];
+        ValueVector right = args[1];
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int position = selection.get(i);
+            ATypeTag leftTag = getTypeTag(left, position);
+            ATypeTag rightTag = getTypeTag(right, position);
+            if (!isNumeric(leftTag) || !isNumeric(rightTag)) {
+                evaluateScalar(accessor, position, result);
+                continue;
+            }
+            ATypeTag argTypeMax = rightTag.ordinal() > leftTag.ordinal() ? rightTag : leftTag;
+            ATypeTag resultType = descriptor.getNumericResultType(argTypeMax);
+            DataOutput out = result.beginValue(position);
+            try {
+                switch (resultType) {
+                    case FLOAT:
+                    case DOUBLE:
+                        computeDouble(resultType, getDouble(leftTag, left, position),
+                                getDouble(rightTag, right, position), out);
+                        break;
+                    default:
+                        computeInteger(resultType, getLong(leftTag, left, position),
+                                getLong(rightTag, right, position), out);
+                        break;
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            } finally {
+                result.endValue();
+            }
+        }
+    }
+
+    private void computeInteger(ATypeTag resultType, long lhs, long rhs, DataOutput out) throws IOException {
+        if (!descriptor.evaluateInteger(lhs, rhs, aInt64)) {
+            out.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+            return;
+        }
+        long lres = aInt64.getLongValue();
+        switch (resultType) {
+            case TINYINT:
+                checkRange(lres, Byte.MIN_VALUE, Byte.MAX_VALUE);
+                out.writeByte(ATypeTag.SERIALIZED_INT8_TYPE_TAG);
+                out.writeByte((byte) lres);
+                break;
+            case SMALLINT:
+                checkRange(lres, Short.MIN_VALUE, Short.MAX_VALUE);
+                out.writeByte(ATypeTag.SERIALIZED_INT16_TYPE_TAG);
+                out.writeShort((short) lres);
+                break;
+            case INTEGER:
+                checkRange(lres, Integer.MIN_VALUE, Integer.MAX_VALUE);
+                out.writeByte(ATypeTag.SERIALIZED_INT32_TYPE_TAG);
+                out.writeInt((int) lres);
+                break;
+            default:
+                out.writeByte(ATypeTag.SERIALIZED_INT64_TYPE_TAG);
+                out.writeLong(lres);
+                break;
+        }
+    }
+
+    private void computeDouble(ATypeTag resultType, double lhs, double rhs, DataOutput out) throws IOException {
+        if (!descriptor.evaluateDouble(lhs, rhs, aDouble)) {
+            out.writeByte(ATypeTag.SERIALIZED_NULL_TYPE_TAG);
+            return;
+        }
+        double dres = aDouble.getDoubleValue();
+        if (resultType == ATypeTag.FLOAT) {
+            if (Double.isFinite(dres)) {
+                if (dres > Float.MAX_VALUE) {
+                    throw new OverflowException(sourceLoc, descriptor.getIdentifier());
+                }
+                if (dres < -Float.MAX_VALUE) {
+                    throw new UnderflowException(sourceLoc, descriptor.getIdentifier());
+                }
+            }
+            out.writeByte(ATypeTag.SERIALIZED_FLOAT_TYPE_TAG);
+            out.writeFloat((float) dres);
+        } else {
+            out.writeByte(ATypeTag.SERIALIZED_DOUBLE_TYPE_TAG);
+            out.writeDouble(dres);
+        }
+    }
+
+    private void checkRange(long value, long min, long max) throws HyracksDataException {
+        if (value > max) {
+            throw new OverflowException(sourceLoc, descriptor.getIdentifier());
+        }
+        if (value < min) {
+            throw new UnderflowException(sourceLoc, descriptor.getIdentifier());
+        }
+    }
+}
@@ -31,6 +31,7 @@ import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
 import org.apache.asterix.runtime.evaluators.base.AbstractScalarFunctionDynamicDescriptor;
+import org.apache.asterix.runtime.evaluators.common.SpatialGrid;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
@@ -39,6 +40,7 @@ import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
@@ -81,6 +83,8 @@ public class ReferenceTileDescriptor extends AbstractScalarFunctionDynamicDescri
                     private final IScalarEvaluator eval5 = args[5].createScalarEvaluator(ctx);
 
                     private final AMutableInt32 aInt32 = new AMutableInt32(0);
+                    private final ByteArrayPointable gridPointable = new ByteArrayPointable();
+                    private final SpatialGrid grid = new SpatialGrid();
 
                     @SuppressWarnings("unchecked")
                     private final ISerializerDeserializer intSerde =
@@ -124,6 +128,21 @@ public class ReferenceTileDescriptor extends AbstractScalarFunctionDynamicDescri
                             throw new TypeMismatchException(sourceLoc, getIdentifier(), 0, bytes1[offset1],
                                     ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG);
                         }
+                        if (tag2 == ATypeTag.BINARY) {
+                            // Data-driven grid built by spatial-grid(), rows and columns are part of the grid
+                            double ax1 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                    + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.X));
+                            double ay1 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                    + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.Y));
+                            double bx1 = ADoubleSerializerDeserializer.getDouble(bytes1, offset1 + 1
+                                    + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.X));
+                            double by1 = ADoubleSerializerDeserializer.getDouble(bytes1, offset1 + 1
+                                    + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.Y));
+                            gridPointable.set(bytes2, offset2 + 1, inputArg2.getLength() - 1);
+                            grid.reset(gridPointable.getByteArray(), gridPointable.getContentStartOffset());
+                            writeTileId(grid.getPointTileId(Math.max(ax1, bx1), Math.max(ay1, by1)), result);
+                            return;
+                        }
                         if (tag2 != ATypeTag.RECTANGLE) {
                             throw new TypeMismatchException(sourceLoc, getIdentifier(), 0, bytes2[offset2],
                                     ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG);
@@ -164,6 +183,11 @@ public class ReferenceTileDescriptor extends AbstractScalarFunctionDynamicDescri
                         col = Math.min(Math.max(1, col), rows * columns);
 
                         int tileId = (row - 1) * columns + col;
+                        writeTileId(tileId, result);
+                    }
+
+                    @SuppressWarnings("unchecked")
+                    private void writeTileId(int tileId, IPointable result) throws HyracksDataException {
                         resultStorage.reset();
                         aInt32.setValue(tileId);
                         intSerde.serialize(aInt32, resultStorage.getDataOutput());
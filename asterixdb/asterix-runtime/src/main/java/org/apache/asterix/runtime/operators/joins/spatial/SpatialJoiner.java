@@ -19,14 +19,14 @@
 package org.apache.asterix.runtime.operators.joins.spatial;
 
 import java.nio.ByteBuffer;
-import java.util.LinkedList;
+import java.util.Arrays;
 
 import org.apache.asterix.runtime.operators.joins.interval.utils.memory.FrameTupleCursor;
 import org.apache.asterix.runtime.operators.joins.interval.utils.memory.RunFilePointer;
 import org.apache.asterix.runtime.operators.joins.interval.utils.memory.RunFileStream;
-import org.apache.asterix.runtime.operators.joins.interval.utils.memory.TuplePointerCursor;
 import org.apache.asterix.runtime.operators.joins.spatial.utils.ISpatialJoinUtil;
-import org.apache.asterix.runtime.operators.joins.spatial.utils.memory.SpatialSideTuple;
+import org.apache.asterix.runtime.operators.joins.spatial.utils.memory.SpatialActiveSet;
+import org.apache.asterix.runtime.operators.joins.spatial.utils.memory.SpatialJoinUtil;
 import org.apache.hyracks.api.comm.IFrame;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.comm.IFrameWriter;
@@ -39,23 +39,63 @@ import org.apache.hyracks.dataflow.common.comm.util.FrameUtils;
 import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
 import org.apache.hyracks.dataflow.std.buffermanager.IDeletableTupleBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.ITuplePointerAccessor;
 import org.apache.hyracks.dataflow.std.buffermanager.VariableDeletableTupleMemoryManager;
 import org.apache.hyracks.dataflow.std.structures.TuplePointer;
 
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+/**
+ * Plane-sweep join over inputs sorted on (tile id, xmin). The probe tuples that may still join with upcoming build
+ * tuples are kept in a {@link SpatialActiveSet} that caches their tile id and MBR and indexes them on their y-extent,
+ * so a build tuple only visits the probe tuples whose y-extent overlaps its own, and only those are checked against
+ * the join predicate. The {@link ISpatialJoinUtil} must therefore only match tuples whose y-extents overlap.
+ * <p>
+ * When the active set does not fit in memory, the y-axis is split into stripes at the quantiles of the active
+ * entries, and whole stripes are spilled: the active entries overlapping a spilled stripe and all the later probe and
+ * build tuples overlapping it are written to run files of the stripe, in sweep order, and the stripe is joined by
+ * another joiner once the inputs are exhausted. A pair is reported by the stripe holding the lower edge of the
+ * y-extent of its intersection, so pairs spanning several stripes are reported once. Only if no stripe can be spilled
+ * anymore, the build run file is rewound as a last resort.
+ */
 public class SpatialJoiner {
+    // the stripes that can be spilled besides the one that remains in memory
+    private static final int MAX_SPILLED_STRIPES = 3;
+    // a spilled stripe writes a build and a probe run file of two frames each
+    private static final int FRAMES_PER_SPILLED_STRIPE = 4;
+    private static final int MAX_SPILL_LEVEL = 4;
+
+    private final IHyracksTaskContext ctx;
+    private final int memorySize;
+    private final RecordDescriptor buildRd;
+    private final RecordDescriptor probeRd;
     private final IDeallocatableFramePool framePool;
     private final IDeletableTupleBufferManager bufferManager;
-    private final TuplePointerCursor memoryCursor;
-    private final LinkedList<TuplePointer> memoryBuffer = new LinkedList<>();
+    private final ITuplePointerAccessor memoryAccessor;
+    private final SpatialActiveSet activeSet = new SpatialActiveSet();
+    private final TuplePointer tp = new TuplePointer();
 
     private final RunFileStream runFileStream;
     private final RunFilePointer runFilePointer;
 
-    private SpatialSideTuple memoryTuple;
-    private SpatialSideTuple[] inputTuple;
-    private TuplePointer tp;
-
     private final ISpatialJoinUtil mjc;
+    private final int[] buildKeys;
+    private final int[] probeKeys;
+
+    // the pairs whose reference y, the lower edge of the y-extent of their intersection, is in [lowY, highY)
+    private final double lowY;
+    private final double highY;
+    private final int level;
+    private int maxSpilledStripes;
+    // the stripes are [stripeBounds[i], stripeBounds[i + 1]), null until the active set overflows
+    private double[] stripeBounds;
+    private RunFileStream[] spilledBuilds;
+    private RunFileStream[] spilledProbes;
+    private int numSpilledStripes;
+    private int[] stripeEntryCounts;
+    private int[] spilledEntries = new int[0];
+    // the build tuples joined before rewinding the build run file are spilled once they are joined again
+    private boolean draining;
 
     protected static final int JOIN_PARTITIONS = 2;
     protected static final int BUILD_PARTITION = 0;
@@ -67,7 +107,33 @@ public class SpatialJoiner {
 
     public SpatialJoiner(IHyracksTaskContext ctx, int memorySize, ISpatialJoinUtil mjc, int[] buildKeys,
             int[] probeKeys, RecordDescriptor buildRd, RecordDescriptor probeRd) throws HyracksDataException {
+        this(ctx, memorySize, mjc, buildKeys, probeKeys, buildRd, probeRd, null, Double.NEGATIVE_INFINITY,
+                Double.POSITIVE_INFINITY, 0);
+    }
+
+    /**
+     * @param buildRun
+     *            the run file holding the build tuples or null to create it from the build frames
+     * @param lowY
+     *            the lowest reference y of the reported pairs
+     * @param highY
+     *            the reference y of the reported pairs is below it
+     * @param level
+     *            the number of spilled stripes this joiner is nested in
+     */
+    private SpatialJoiner(IHyracksTaskContext ctx, int memorySize, ISpatialJoinUtil mjc, int[] buildKeys,
+            int[] probeKeys, RecordDescriptor buildRd, RecordDescriptor probeRd, RunFileStream buildRun, double lowY,
+            double highY, int level) throws HyracksDataException {
+        this.ctx = ctx;
+        this.memorySize = memorySize;
         this.mjc = mjc;
+        this.buildKeys = buildKeys;
+        this.probeKeys = probeKeys;
+        this.buildRd = buildRd;
+        this.probeRd = probeRd;
+        this.lowY = lowY;
+        this.highY = highY;
+        this.level = level;
 
         // Memory (probe buffer)
         if (memorySize < 5) {
@@ -84,21 +150,23 @@ public class SpatialJoiner {
         inputBuffer[PROBE_PARTITION] = new VSizeFrame(ctx);
 
         //Two frames are used for the runfile stream, and one frame for each input (2 outputs).
-        framePool = new DeallocatableFramePool(ctx, (memorySize - 4) * ctx.getInitialFrameSize());
+        //Stripes are only spilled if that leaves at least half of the remaining frames to the probe buffer.
+        maxSpilledStripes = level < MAX_SPILL_LEVEL
+                ? Math.min(MAX_SPILLED_STRIPES, (memorySize - 4) / (2 * FRAMES_PER_SPILLED_STRIPE)) : 0;
+        int probeBufferSize = memorySize - 4 - maxSpilledStripes * FRAMES_PER_SPILLED_STRIPE;
+        framePool = new DeallocatableFramePool(ctx, probeBufferSize * ctx.getInitialFrameSize());
         bufferManager = new VariableDeletableTupleMemoryManager(framePool, probeRd);
-        memoryCursor = new TuplePointerCursor(bufferManager.createTuplePointerAccessor());
+        memoryAccessor = bufferManager.createTuplePointerAccessor();
 
         // Run File and frame cache (build buffer)
-        runFileStream = new RunFileStream(ctx, "sj-build");
         runFilePointer = new RunFilePointer();
-        runFileStream.createRunFileWriting();
-        runFileStream.startRunFileWriting();
-
-        memoryTuple = new SpatialSideTuple(mjc, memoryCursor, probeKeys);
-
-        inputTuple = new SpatialSideTuple[JOIN_PARTITIONS];
-        inputTuple[PROBE_PARTITION] = new SpatialSideTuple(mjc, inputCursor[PROBE_PARTITION], probeKeys);
-        inputTuple[BUILD_PARTITION] = new SpatialSideTuple(mjc, inputCursor[BUILD_PARTITION], buildKeys);
+        if (buildRun == null) {
+            runFileStream = new RunFileStream(ctx, "sj-build");
+            runFileStream.createRunFileWriting();
+            runFileStream.startRunFileWriting();
+        } else {
+            runFileStream = buildRun;
+        }
 
         // Result
         this.resultAppender = new FrameTupleAppender(new VSizeFrame(ctx));
@@ -134,7 +202,7 @@ public class SpatialJoiner {
     }
 
     public void processProbeClose(IFrameWriter writer) throws HyracksDataException {
-        while (buildHasNext() && memoryHasTuples()) {
+        while (buildHasNext() && (memoryHasTuples() || numSpilledStripes > 0)) {
             // Process build side from runfile
             inputCursor[BUILD_PARTITION].next();
             processBuildTuple(writer);
@@ -142,6 +210,9 @@ public class SpatialJoiner {
         resultAppender.write(writer, true);
         runFileStream.close();
         runFileStream.removeRunFile();
+        activeSet.clear();
+        bufferManager.close();
+        joinSpilledStripes(writer);
     }
 
     private boolean buildHasNext() throws HyracksDataException {
@@ -154,68 +225,331 @@ public class SpatialJoiner {
     }
 
     private void processBuildTuple(IFrameWriter writer) throws HyracksDataException {
+        IFrameTupleAccessor buildAccessor = inputCursor[BUILD_PARTITION].getAccessor();
+        int buildTupleId = inputCursor[BUILD_PARTITION].getTupleId();
+        double buildYmin = SpatialJoinUtil.getRectangleYmin(buildAccessor, buildTupleId, buildKeys[1]);
+        double buildYmax = SpatialJoinUtil.getRectangleYmax(buildAccessor, buildTupleId, buildKeys[1]);
+        if (numSpilledStripes > 0 && !draining) {
+            spillTuple(spilledBuilds, buildAccessor, buildTupleId, buildYmin, buildYmax);
+        }
         // Check against memory
-        if (memoryHasTuples()) {
-            memoryCursor.reset(memoryBuffer.iterator());
-            while (memoryCursor.hasNext()) {
-                memoryCursor.next();
-                if (inputTuple[BUILD_PARTITION].removeFromMemory(memoryTuple)) {
-                    // remove from memory
-                    bufferManager.deleteTuple(memoryCursor.getTuplePointer());
-                    memoryCursor.remove();
-                    continue;
-                } else if (inputTuple[BUILD_PARTITION].checkForEarlyExit(memoryTuple)) {
-                    // No more possible comparisons
-                    break;
-                } else if (inputTuple[BUILD_PARTITION].compareJoin(memoryTuple)) {
+        if (!memoryHasTuples()) {
+            return;
+        }
+        int buildTileId = SpatialJoinUtil.getTileId(buildAccessor, buildTupleId, buildKeys[0]);
+        double buildXmin = SpatialJoinUtil.getRectangleXmin(buildAccessor, buildTupleId, buildKeys[1]);
+        double buildXmax = SpatialJoinUtil.getRectangleXmax(buildAccessor, buildTupleId, buildKeys[1]);
+        expire(buildTileId, buildXmin);
+        if (!isResident(buildYmin, buildYmax)) {
+            return;
+        }
+        activeSet.search(buildYmin, buildYmax);
+        for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+            if (mjc.checkForEarlyExit(buildTileId, buildXmax, activeSet.getTileId(i), activeSet.getXmin(i))) {
+                // No comparison with this build tuple, but with later ones
+                continue;
+            }
+            if (mjc.checkToCompare(buildYmin, buildYmax, activeSet.getYmin(i), activeSet.getYmax(i))
+                    && isReportedInMemory(Math.max(buildYmin, activeSet.getYmin(i)))) {
+                activeSet.getTuplePointer(i, tp);
+                memoryAccessor.reset(tp);
+                if (mjc.checkToSaveInResult(buildAccessor, buildTupleId, memoryAccessor, tp.getTupleIndex())) {
                     // add to result
-                    addToResult(inputCursor[BUILD_PARTITION].getAccessor(), inputCursor[BUILD_PARTITION].getTupleId(),
-                            memoryCursor.getAccessor(), memoryCursor.getTupleId(), writer);
+                    addToResult(buildAccessor, buildTupleId, memoryAccessor, tp.getTupleIndex(), writer);
                 }
             }
         }
     }
 
     private void processProbeTuple(IFrameWriter writer) throws HyracksDataException {
+        IFrameTupleAccessor probeAccessor = inputCursor[PROBE_PARTITION].getAccessor();
+        int probeTupleId = inputCursor[PROBE_PARTITION].getTupleId();
         // append to memory
         // BUILD Cursor is guaranteed to have next
-        if (mjc.checkToSaveInMemory(inputCursor[BUILD_PARTITION].getAccessor(),
-                inputCursor[BUILD_PARTITION].getTupleId() + 1, inputCursor[PROBE_PARTITION].getAccessor(),
-                inputCursor[PROBE_PARTITION].getTupleId())) {
-            if (!addToMemory(inputCursor[PROBE_PARTITION].getAccessor(), inputCursor[PROBE_PARTITION].getTupleId())) {
-                unfreezeAndClearMemory(writer);
-                if (!addToMemory(inputCursor[PROBE_PARTITION].getAccessor(),
-                        inputCursor[PROBE_PARTITION].getTupleId())) {
-                    throw new RuntimeException("Should Never get called.");
-                }
-            }
+        if (!mjc.checkToSaveInMemory(inputCursor[BUILD_PARTITION].getAccessor(),
+                inputCursor[BUILD_PARTITION].getTupleId() + 1, probeAccessor, probeTupleId)) {
+            return;
+        }
+        double probeYmin = SpatialJoinUtil.getRectangleYmin(probeAccessor, probeTupleId, probeKeys[1]);
+        double probeYmax = SpatialJoinUtil.getRectangleYmax(probeAccessor, probeTupleId, probeKeys[1]);
+        if (numSpilledStripes > 0) {
+            spillTuple(spilledProbes, probeAccessor, probeTupleId, probeYmin, probeYmax);
+        }
+        while (isResident(probeYmin, probeYmax) && !addToMemory(probeAccessor, probeTupleId)) {
+            makeSpace(probeAccessor, probeTupleId, probeYmin, probeYmax, writer);
+        }
+    }
+
+    /**
+     * Frees memory for the probe tuple by expiring the entries that cannot match the next build tuple, then by
+     * spilling a stripe, and as a last resort by joining the active set with the build tuples and rewinding them.
+     */
+    private void makeSpace(IFrameTupleAccessor probeAccessor, int probeTupleId, double probeYmin, double probeYmax,
+            IFrameWriter writer) throws HyracksDataException {
+        if (!memoryHasTuples()) {
+            throw new RuntimeException("Should Never get called.");
+        }
+        IFrameTupleAccessor buildAccessor = inputCursor[BUILD_PARTITION].getAccessor();
+        int nextBuildTupleId = inputCursor[BUILD_PARTITION].getTupleId() + 1;
+        if (expire(SpatialJoinUtil.getTileId(buildAccessor, nextBuildTupleId, buildKeys[0]),
+                SpatialJoinUtil.getRectangleXmin(buildAccessor, nextBuildTupleId, buildKeys[1]))) {
+            return;
+        }
+        if (!spillStripe(probeAccessor, probeTupleId, probeYmin, probeYmax)) {
+            unfreezeAndClearMemory(writer);
         }
     }
 
     private void unfreezeAndClearMemory(IFrameWriter writer) throws HyracksDataException {
         runFilePointer.reset(runFileStream.getReadPointer(), inputCursor[BUILD_PARTITION].getTupleId());
+        draining = true;
         while (buildHasNext() && memoryHasTuples()) {
             // Process build side from runfile
             inputCursor[BUILD_PARTITION].next();
             processBuildTuple(writer);
         }
+        draining = false;
         // Clear memory
-        memoryBuffer.clear();
+        activeSet.clear();
         bufferManager.reset();
         // Start reading
         runFileStream.startReadingRunFile(inputCursor[BUILD_PARTITION], runFilePointer.getFileOffset());
         inputCursor[BUILD_PARTITION].resetPosition(runFilePointer.getTupleIndex());
     }
 
+    /**
+     * @return true if entries were removed from memory
+     */
+    private boolean expire(int buildTileId, double buildXmin) throws HyracksDataException {
+        boolean expired = false;
+        for (int i = activeSet.peekExpiring(); i >= 0 && mjc.checkToRemoveInMemory(buildTileId, buildXmin,
+                activeSet.getTileId(i), activeSet.getXmax(i)); i = activeSet.peekExpiring()) {
+            removeFromMemory(i);
+            expired = true;
+        }
+        return expired;
+    }
+
+    /**
+     * Spills the resident stripe whose entries are the most to leave memory.
+     *
+     * @return false if no stripe can be spilled
+     */
+    private boolean spillStripe(IFrameTupleAccessor probeAccessor, int probeTupleId, double probeYmin,
+            double probeYmax) throws HyracksDataException {
+        if (numSpilledStripes == maxSpilledStripes || (stripeBounds == null && !createStripes())) {
+            return false;
+        }
+        // an entry leaves memory once the last resident stripe it overlaps is spilled
+        Arrays.fill(stripeEntryCounts, 0);
+        activeSet.searchAll();
+        for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+            int stripe = getOnlyResidentStripe(activeSet.getYmin(i), activeSet.getYmax(i));
+            if (stripe >= 0) {
+                stripeEntryCounts[stripe]++;
+            }
+        }
+        int probeStripe = getOnlyResidentStripe(probeYmin, probeYmax);
+        int victim = -1;
+        for (int stripe = 0; stripe < stripeEntryCounts.length; stripe++) {
+            if (spilledProbes[stripe] == null && (stripeEntryCounts[stripe] > 0 || stripe == probeStripe)
+                    && (victim < 0 || stripeEntryCounts[stripe] > stripeEntryCounts[victim])) {
+                victim = stripe;
+            }
+        }
+        if (victim < 0) {
+            return false;
+        }
+        spilledBuilds[victim] = createSpillStream("sj-spill-build");
+        spilledProbes[victim] = createSpillStream("sj-spill-probe");
+        numSpilledStripes++;
+        // the entries go first since they precede the probe tuple in sweep order
+        int count = 0;
+        activeSet.searchAll();
+        for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+            if (overlapsStripe(activeSet.getYmin(i), activeSet.getYmax(i), victim)) {
+                if (count == spilledEntries.length) {
+                    spilledEntries = Arrays.copyOf(spilledEntries, Math.max(16, count << 1));
+                }
+                spilledEntries[count++] = i;
+            }
+        }
+        IntArrays.quickSort(spilledEntries, 0, count,
+                (a, b) -> Long.compare(activeSet.getSequence(a), activeSet.getSequence(b)));
+        for (int k = 0; k < count; k++) {
+            int i = spilledEntries[k];
+            activeSet.getTuplePointer(i, tp);
+            memoryAccessor.reset(tp);
+            spilledProbes[victim].addToRunFile(memoryAccessor, tp.getTupleIndex());
+            if (!isResident(activeSet.getYmin(i), activeSet.getYmax(i))) {
+                removeFromMemory(i);
+            }
+        }
+        if (overlapsStripe(probeYmin, probeYmax, victim)) {
+            spilledProbes[victim].addToRunFile(probeAccessor, probeTupleId);
+        }
+        return true;
+    }
+
+    /**
+     * Splits [lowY, highY) into stripes holding about the same number of active entries.
+     *
+     * @return false if the entries cannot be split
+     */
+    private boolean createStripes() {
+        double[] ymins = new double[activeSet.size()];
+        int count = 0;
+        activeSet.searchAll();
+        for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+            double ymin = activeSet.getYmin(i);
+            if (ymin > lowY && ymin < highY) {
+                ymins[count++] = ymin;
+            }
+        }
+        Arrays.sort(ymins, 0, count);
+        int maxStripes = maxSpilledStripes + 1;
+        double[] bounds = new double[maxStripes + 1];
+        int numBounds = 0;
+        bounds[numBounds++] = lowY;
+        for (int stripe = 1; stripe < maxStripes && count > 0; stripe++) {
+            double bound = ymins[stripe * count / maxStripes];
+            if (bound > bounds[numBounds - 1]) {
+                bounds[numBounds++] = bound;
+            }
+        }
+        bounds[numBounds++] = highY;
+        if (numBounds < 3) {
+            maxSpilledStripes = 0;
+            return false;
+        }
+        stripeBounds = Arrays.copyOf(bounds, numBounds);
+        int numStripes = numBounds - 1;
+        maxSpilledStripes = Math.min(maxSpilledStripes, numStripes - 1);
+        spilledBuilds = new RunFileStream[numStripes];
+        spilledProbes = new RunFileStream[numStripes];
+        stripeEntryCounts = new int[numStripes];
+        return true;
+    }
+
+    private RunFileStream createSpillStream(String key) throws HyracksDataException {
+        RunFileStream stream = new RunFileStream(ctx, key);
+        stream.createRunFileWriting();
+        stream.startRunFileWriting();
+        return stream;
+    }
+
+    private void spillTuple(RunFileStream[] streams, IFrameTupleAccessor accessor, int tupleId, double ymin,
+            double ymax) throws HyracksDataException {
+        for (int stripe = getStripe(ymin), last = getStripe(ymax); stripe <= last; stripe++) {
+            if (streams[stripe] != null) {
+                streams[stripe].addToRunFile(accessor, tupleId);
+            }
+        }
+    }
+
+    /**
+     * Joins every spilled stripe on its own, each of them spilling its own stripes if needed.
+     */
+    private void joinSpilledStripes(IFrameWriter writer) throws HyracksDataException {
+        for (int stripe = 0; numSpilledStripes > 0 && stripe < spilledProbes.length; stripe++) {
+            RunFileStream probeRun = spilledProbes[stripe];
+            if (probeRun == null) {
+                continue;
+            }
+            RunFileStream buildRun = spilledBuilds[stripe];
+            probeRun.flushRunFile();
+            if (probeRun.getTupleCount() > 0 && buildRun.getTupleCount() > 0) {
+                SpatialJoiner stripeJoiner = new SpatialJoiner(ctx, memorySize, mjc, buildKeys, probeKeys, buildRd,
+                        probeRd, buildRun, stripeBounds[stripe], stripeBounds[stripe + 1], level + 1);
+                stripeJoiner.processBuildClose();
+                FrameTupleCursor probeCursor = inputCursor[PROBE_PARTITION];
+                probeRun.startReadingRunFile(probeCursor);
+                do {
+                    stripeJoiner.processProbeFrame(probeCursor.getAccessor().getBuffer(), writer);
+                } while (probeRun.loadNextBuffer(probeCursor));
+                stripeJoiner.processProbeClose(writer);
+            } else {
+                buildRun.close();
+                buildRun.removeRunFile();
+            }
+            probeRun.close();
+            probeRun.removeRunFile();
+        }
+    }
+
+    private int getStripe(double y) {
+        int low = 1;
+        int high = stripeBounds.length - 1;
+        // the last stripe whose lower bound is not above y
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (stripeBounds[mid] <= y) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low - 1;
+    }
+
+    private boolean overlapsStripe(double ymin, double ymax, int stripe) {
+        return getStripe(ymin) <= stripe && stripe <= getStripe(ymax);
+    }
+
+    /**
+     * @return true if the y-extent overlaps a stripe that is not spilled
+     */
+    private boolean isResident(double ymin, double ymax) {
+        if (numSpilledStripes == 0) {
+            return true;
+        }
+        for (int stripe = getStripe(ymin), last = getStripe(ymax); stripe <= last; stripe++) {
+            if (spilledProbes[stripe] == null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the only resident stripe overlapped by the y-extent or -1 if there is none or more than one
+     */
+    private int getOnlyResidentStripe(double ymin, double ymax) {
+        int resident = -1;
+        for (int stripe = getStripe(ymin), last = getStripe(ymax); stripe <= last; stripe++) {
+            if (spilledProbes[stripe] == null) {
+                if (resident >= 0) {
+                    return -1;
+                }
+                resident = stripe;
+            }
+        }
+        return resident;
+    }
+
+    private boolean isReportedInMemory(double referenceY) {
+        return referenceY >= lowY && referenceY < highY
+                && (numSpilledStripes == 0 || spilledProbes[getStripe(referenceY)] == null);
+    }
+
     private boolean addToMemory(IFrameTupleAccessor accessor, int tupleId) throws HyracksDataException {
-        tp = new TuplePointer();
         if (bufferManager.insertTuple(accessor, tupleId, tp)) {
-            memoryBuffer.add(tp);
+            activeSet.add(tp, SpatialJoinUtil.getTileId(accessor, tupleId, probeKeys[0]),
+                    SpatialJoinUtil.getRectangleXmin(accessor, tupleId, probeKeys[1]),
+                    SpatialJoinUtil.getRectangleYmin(accessor, tupleId, probeKeys[1]),
+                    SpatialJoinUtil.getRectangleXmax(accessor, tupleId, probeKeys[1]),
+                    SpatialJoinUtil.getRectangleYmax(accessor, tupleId, probeKeys[1]));
             return true;
         }
         return false;
     }
 
+    private void removeFromMemory(int index) throws HyracksDataException {
+        activeSet.getTuplePointer(index, tp);
+        bufferManager.deleteTuple(tp);
+        activeSet.remove(index);
+    }
+
     private void addToResult(IFrameTupleAccessor buildAccessor, int buildTupleId, IFrameTupleAccessor probeAccessor,
             int probeTupleId, IFrameWriter writer) throws HyracksDataException {
         FrameUtils.appendConcatToWriter(writer, resultAppender, buildAccessor, buildTupleId, probeAccessor,
@@ -223,6 +557,6 @@ public class SpatialJoiner {
     }
 
     private boolean memoryHasTuples() {
-        return bufferManager.getNumTuples() > 0;
+        return !activeSet.isEmpty();
     }
 }
@@ -50,6 +50,18 @@ public interface ISpatialJoinUtil {
     boolean checkToRemoveInMemory(IFrameTupleAccessor buildAccessor, int buildTupleIndex,
             IFrameTupleAccessor probeAccessor, int probeTupleIndex) throws HyracksDataException;
 
+    /**
+     * Same as {@link #checkToRemoveInMemory(IFrameTupleAccessor, int, IFrameTupleAccessor, int)} given the tile ids
+     * and the MBR bounds of the tuples, for callers that keep them aside of the frames.
+     *
+     * @param buildTileId
+     * @param buildXmin
+     * @param probeTileId
+     * @param probeXmax
+     * @return boolean
+     */
+    boolean checkToRemoveInMemory(int buildTileId, double buildXmin, int probeTileId, double probeXmax);
+
     /**
      * Check to see if tuples match join condition
      * The check is true if they match.
@@ -64,6 +76,18 @@ public interface ISpatialJoinUtil {
     boolean checkToSaveInResult(IFrameTupleAccessor buildAccessor, int buildTupleIndex,
             IFrameTupleAccessor probeAccessor, int probeTupleIndex) throws HyracksDataException;
 
+    /**
+     * Check to see if tuples whose MBRs have the given y-extents could match the join condition.
+     * The check is false if they cannot match, so that the join condition does not need to be checked.
+     *
+     * @param buildYmin
+     * @param buildYmax
+     * @param probeYmin
+     * @param probeYmax
+     * @return boolean
+     */
+    boolean checkToCompare(double buildYmin, double buildYmax, double probeYmin, double probeYmax);
+
     /**
      * Check to see if the spatial object matches the join condition.
      * The check is true if it matches.
@@ -86,6 +110,18 @@ public interface ISpatialJoinUtil {
     boolean checkForEarlyExit(IFrameTupleAccessor buildAccessor, int buildTupleIndex, IFrameTupleAccessor probeAccessor,
             int probeTupleIndex) throws HyracksDataException;
 
+    /**
+     * Same as {@link #checkForEarlyExit(IFrameTupleAccessor, int, IFrameTupleAccessor, int)} given the tile ids and
+     * the MBR bounds of the tuples, for callers that keep them aside of the frames.
+     *
+     * @param buildTileId
+     * @param buildXmax
+     * @param probeTileId
+     * @param probeXmin
+     * @return boolean
+     */
+    boolean checkForEarlyExit(int buildTileId, double buildXmax, int probeTileId, double probeXmin);
+
     /**
      * Check if next tuple should be loaded into memory.
      * The check is true if there are more tuples
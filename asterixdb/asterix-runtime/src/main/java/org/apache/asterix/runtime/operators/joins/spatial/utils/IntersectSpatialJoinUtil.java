@@ -62,7 +62,11 @@ public class IntersectSpatialJoinUtil implements ISpatialJoinUtil {
         int probeTileId = SpatialJoinUtil.getTileId(probeAccessor, probeTupleIndex, idProbe[0]);
         double buildXmin = SpatialJoinUtil.getRectangleXmin(buildAccessor, buildTupleIndex, idBuild[1]);
         double probeXmax = SpatialJoinUtil.getRectangleXmax(probeAccessor, probeTupleIndex, idProbe[1]);
+        return checkToRemoveInMemory(buildTileId, buildXmin, probeTileId, probeXmax);
+    }
 
+    @Override
+    public boolean checkToRemoveInMemory(int buildTileId, double buildXmin, int probeTileId, double probeXmax) {
         if (buildTileId != probeTileId) {
             return true;
         } else {
@@ -85,6 +89,14 @@ public class IntersectSpatialJoinUtil implements ISpatialJoinUtil {
         }
     }
 
+    /**
+     * Rectangles can only intersect if their y-extents overlap.
+     */
+    @Override
+    public boolean checkToCompare(double buildYmin, double buildYmax, double probeYmin, double probeYmax) {
+        return buildYmin <= probeYmax && probeYmin <= buildYmax;
+    }
+
     /**
      * Right (second argument) rectangle starts before left (first argument) rectangle ends.
      */
@@ -95,7 +107,11 @@ public class IntersectSpatialJoinUtil implements ISpatialJoinUtil {
         int probeTileId = SpatialJoinUtil.getTileId(probeAccessor, probeTupleIndex, idProbe[0]);
         double probeXmin = SpatialJoinUtil.getRectangleXmin(probeAccessor, probeTupleIndex, idProbe[1]);
         double buildXmax = SpatialJoinUtil.getRectangleXmax(buildAccessor, buildTupleIndex, idBuild[1]);
+        return checkForEarlyExit(buildTileId, buildXmax, probeTileId, probeXmin);
+    }
 
+    @Override
+    public boolean checkForEarlyExit(int buildTileId, double buildXmax, int probeTileId, double probeXmin) {
         if (buildTileId != probeTileId) {
             return true;
         } else {
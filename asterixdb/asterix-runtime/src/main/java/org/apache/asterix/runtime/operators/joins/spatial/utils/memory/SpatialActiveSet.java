@@ -0,0 +1,382 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.operators.joins.spatial.utils.memory;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.dataflow.std.structures.TuplePointer;
+
+import it.unimi.dsi.fastutil.ints.IntArrays;
+
+/**
+ * The active set of the plane-sweep spatial join. Entries are kept in parallel primitive arrays holding the tuple
+ * location in the buffer manager together with the tile id and the MBR of the tuple, so the sweep can expire and
+ * filter entries without touching the frames or allocating per-tuple objects.
+ * <p>
+ * The entries are indexed on both axes:
+ * <ul>
+ * <li>The y-extents form an interval index: a run of entries sorted on ymin followed by a short unsorted run of the
+ * latest entries, which is merged into the sorted run once it grows past the square root of the set. Together with
+ * the largest y-extent of an entry, {@link #search(double, double)} only visits the entries whose ymin falls in
+ * [ymin - largest extent, ymax] instead of the whole set.</li>
+ * <li>The x-extents form a min-heap on (tile id, xmax). Since the build tuples reach the sweep in (tile id, xmin)
+ * order, the entries expire in heap order and {@link #peekExpiring()} finds them without scanning the set.</li>
+ * </ul>
+ * Removed entries are only marked as such and are dropped the next time the runs are merged, so the indexes passed
+ * to callers remain valid until the next {@link #add}.
+ */
+public class SpatialActiveSet {
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int MIN_UNSORTED_RUN = 64;
+    private static final int REMOVED = -1;
+
+    private int[] frameIndexes;
+    private int[] tupleIndexes;
+    private int[] tileIds;
+    private long[] sequences;
+    private double[] xmins;
+    private double[] ymins;
+    private double[] xmaxs;
+    private double[] ymaxs;
+    // the target of the merges, swapped with the arrays above
+    private int[] mergedFrameIndexes;
+    private int[] mergedTupleIndexes;
+    private int[] mergedTileIds;
+    private long[] mergedSequences;
+    private double[] mergedXmins;
+    private double[] mergedYmins;
+    private double[] mergedXmaxs;
+    private double[] mergedYmaxs;
+    private int[] unsortedRun;
+    private int[] expiryHeap;
+    private int heapSize;
+
+    // entries [0, sortedSize) are sorted on ymin, entries [sortedSize, entryCount) are in insertion order
+    private int entryCount;
+    private int sortedSize;
+    private int size;
+    private long nextSequence;
+    private double maxYExtent;
+
+    private double searchYmin;
+    private double searchYmax;
+    private int searchIndex;
+
+    public SpatialActiveSet() {
+        this(INITIAL_CAPACITY);
+    }
+
+    public SpatialActiveSet(int initialCapacity) {
+        allocate(Math.max(1, initialCapacity));
+    }
+
+    /**
+     * @return the number of entries that were not removed
+     */
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(TuplePointer tp, int tileId, double xmin, double ymin, double xmax, double ymax) {
+        if (entryCount == frameIndexes.length) {
+            if (size < entryCount) {
+                merge();
+            }
+            if (entryCount == frameIndexes.length) {
+                allocate(frameIndexes.length << 1);
+            }
+        }
+        int index = entryCount++;
+        frameIndexes[index] = tp.getFrameIndex();
+        tupleIndexes[index] = tp.getTupleIndex();
+        tileIds[index] = tileId;
+        sequences[index] = nextSequence++;
+        xmins[index] = xmin;
+        ymins[index] = ymin;
+        xmaxs[index] = xmax;
+        ymaxs[index] = ymax;
+        maxYExtent = Math.max(maxYExtent, ymax - ymin);
+        size++;
+        pushToHeap(index);
+        if (entryCount - sortedSize > Math.max(MIN_UNSORTED_RUN, (int) Math.sqrt(size)) || size < entryCount >> 1) {
+            merge();
+        }
+    }
+
+    /**
+     * Marks the entry at {@code index} as removed. Removing entries does not move the other entries.
+     */
+    public void remove(int index) {
+        frameIndexes[index] = REMOVED;
+        size--;
+    }
+
+    public boolean isRemoved(int index) {
+        return frameIndexes[index] == REMOVED;
+    }
+
+    public void clear() {
+        entryCount = 0;
+        sortedSize = 0;
+        size = 0;
+        heapSize = 0;
+        maxYExtent = 0;
+    }
+
+    public void getTuplePointer(int index, TuplePointer tp) {
+        tp.reset(frameIndexes[index], tupleIndexes[index]);
+    }
+
+    public int getTileId(int index) {
+        return tileIds[index];
+    }
+
+    /**
+     * @return the rank of the entry in insertion order, which is the sweep order of the tuples
+     */
+    public long getSequence(int index) {
+        return sequences[index];
+    }
+
+    public double getXmin(int index) {
+        return xmins[index];
+    }
+
+    public double getYmin(int index) {
+        return ymins[index];
+    }
+
+    public double getXmax(int index) {
+        return xmaxs[index];
+    }
+
+    public double getYmax(int index) {
+        return ymaxs[index];
+    }
+
+    /**
+     * @return true if the y-extent of the entry overlaps [ymin, ymax]
+     */
+    public boolean overlapsY(int index, double ymin, double ymax) {
+        return ymins[index] <= ymax && ymin <= ymaxs[index];
+    }
+
+    /**
+     * Starts a search for the entries whose y-extent overlaps [ymin, ymax]. The entries are returned by
+     * {@link #nextSearchResult()}. Entries can be removed during the search but not added.
+     */
+    public void search(double ymin, double ymax) {
+        searchYmin = ymin;
+        searchYmax = ymax;
+        // an entry overlapping [ymin, ymax] cannot start below ymin by more than the largest extent
+        double lowestYmin = ymin - maxYExtent;
+        int low = 0;
+        int high = sortedSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ymins[mid] < lowestYmin) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        searchIndex = low;
+    }
+
+    /**
+     * Starts a search for all the entries.
+     */
+    public void searchAll() {
+        searchYmin = Double.NEGATIVE_INFINITY;
+        searchYmax = Double.POSITIVE_INFINITY;
+        searchIndex = 0;
+    }
+
+    /**
+     * @return the index of the next entry of the search or -1 if there is none
+     */
+    public int nextSearchResult() {
+        while (searchIndex < entryCount) {
+            int index = searchIndex++;
+            if (index < sortedSize && ymins[index] > searchYmax) {
+                // the rest of the sorted run starts above the searched extent
+                searchIndex = sortedSize;
+                continue;
+            }
+            if (frameIndexes[index] != REMOVED && overlapsY(index, searchYmin, searchYmax)) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * @return the index of the entry with the smallest (tile id, xmax), which is the first one to expire, or -1 if
+     *         the set is empty
+     */
+    public int peekExpiring() {
+        while (heapSize > 0 && frameIndexes[expiryHeap[0]] == REMOVED) {
+            popFromHeap();
+        }
+        return heapSize > 0 ? expiryHeap[0] : -1;
+    }
+
+    /**
+     * Sorts the unsorted run and merges it with the sorted run, dropping the removed entries and rebuilding the
+     * expiry heap on the new indexes.
+     */
+    private void merge() {
+        int unsortedSize = entryCount - sortedSize;
+        for (int i = 0; i < unsortedSize; i++) {
+            unsortedRun[i] = sortedSize + i;
+        }
+        IntArrays.quickSort(unsortedRun, 0, unsortedSize, (a, b) -> Double.compare(ymins[a], ymins[b]));
+        int sorted = 0;
+        int unsorted = 0;
+        int merged = 0;
+        double extent = 0;
+        while (sorted < sortedSize || unsorted < unsortedSize) {
+            int index;
+            if (unsorted == unsortedSize
+                    || (sorted < sortedSize && ymins[sorted] <= ymins[unsortedRun[unsorted]])) {
+                index = sorted++;
+            } else {
+                index = unsortedRun[unsorted++];
+            }
+            if (frameIndexes[index] == REMOVED) {
+                continue;
+            }
+            mergedFrameIndexes[merged] = frameIndexes[index];
+            mergedTupleIndexes[merged] = tupleIndexes[index];
+            mergedTileIds[merged] = tileIds[index];
+            mergedSequences[merged] = sequences[index];
+            mergedXmins[merged] = xmins[index];
+            mergedYmins[merged] = ymins[index];
+            mergedXmaxs[merged] = xmaxs[index];
+            mergedYmaxs[merged] = ymaxs[index];
+            extent = Math.max(extent, ymaxs[index] - ymins[index]);
+            merged++;
+        }
+        swapArrays();
+        entryCount = merged;
+        sortedSize = merged;
+        maxYExtent = extent;
+        heapSize = 0;
+        for (int i = 0; i < merged; i++) {
+            pushToHeap(i);
+        }
+    }
+
+    private void pushToHeap(int index) {
+        int child = heapSize++;
+        while (child > 0) {
+            int parent = (child - 1) >>> 1;
+            if (!expiresBefore(index, expiryHeap[parent])) {
+                break;
+            }
+            expiryHeap[child] = expiryHeap[parent];
+            child = parent;
+        }
+        expiryHeap[child] = index;
+    }
+
+    private void popFromHeap() {
+        int last = expiryHeap[--heapSize];
+        int parent = 0;
+        while (true) {
+            int child = 2 * parent + 1;
+            if (child >= heapSize) {
+                break;
+            }
+            if (child + 1 < heapSize && expiresBefore(expiryHeap[child + 1], expiryHeap[child])) {
+                child++;
+            }
+            if (!expiresBefore(expiryHeap[child], last)) {
+                break;
+            }
+            expiryHeap[parent] = expiryHeap[child];
+            parent = child;
+        }
+        expiryHeap[parent] = last;
+    }
+
+    private boolean expiresBefore(int a, int b) {
+        return tileIds[a] < tileIds[b] || (tileIds[a] == tileIds[b] && xmaxs[a] < xmaxs[b]);
+    }
+
+    private void allocate(int capacity) {
+        frameIndexes = copyOf(frameIndexes, capacity);
+        tupleIndexes = copyOf(tupleIndexes, capacity);
+        tileIds = copyOf(tileIds, capacity);
+        sequences = sequences == null ? new long[capacity] : Arrays.copyOf(sequences, capacity);
+        xmins = copyOf(xmins, capacity);
+        ymins = copyOf(ymins, capacity);
+        xmaxs = copyOf(xmaxs, capacity);
+        ymaxs = copyOf(ymaxs, capacity);
+        expiryHeap = copyOf(expiryHeap, capacity);
+        mergedFrameIndexes = new int[capacity];
+        mergedTupleIndexes = new int[capacity];
+        mergedTileIds = new int[capacity];
+        mergedSequences = new long[capacity];
+        mergedXmins = new double[capacity];
+        mergedYmins = new double[capacity];
+        mergedXmaxs = new double[capacity];
+        mergedYmaxs = new double[capacity];
+        unsortedRun = new int[capacity];
+    }
+
+    private void swapArrays() {
+        int[] ints = frameIndexes;
+        frameIndexes = mergedFrameIndexes;
+        mergedFrameIndexes = ints;
+        ints = tupleIndexes;
+        tupleIndexes = mergedTupleIndexes;
+        mergedTupleIndexes = ints;
+        ints = tileIds;
+        tileIds = mergedTileIds;
+        mergedTileIds = ints;
+        long[] longs = sequences;
+        sequences = mergedSequences;
+        mergedSequences = longs;
+        double[] doubles = xmins;
+        xmins = mergedXmins;
+        mergedXmins = doubles;
+        doubles = ymins;
+        ymins = mergedYmins;
+        mergedYmins = doubles;
+        doubles = xmaxs;
+        xmaxs = mergedXmaxs;
+        mergedXmaxs = doubles;
+        doubles = ymaxs;
+        ymaxs = mergedYmaxs;
+        mergedYmaxs = doubles;
+    }
+
+    private static int[] copyOf(int[] array, int capacity) {
+        return array == null ? new int[capacity] : Arrays.copyOf(array, capacity);
+    }
+
+    private static double[] copyOf(double[] array, int capacity) {
+        return array == null ? new double[capacity] : Arrays.copyOf(array, capacity);
+    }
+}
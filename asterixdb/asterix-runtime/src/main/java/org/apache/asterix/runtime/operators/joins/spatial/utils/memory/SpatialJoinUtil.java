@@ -68,6 +68,22 @@ public class SpatialJoinUtil {
         return xmax;
     }
 
+    public static double getRectangleYmin(IFrameTupleAccessor accessor, int tupleId, int fieldId)
+            throws HyracksDataException {
+        int start = getFieldOffset(accessor, tupleId, fieldId);
+        double ymin = ADoubleSerializerDeserializer.getDouble(accessor.getBuffer().array(),
+                start + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.Y));
+        return ymin;
+    }
+
+    public static double getRectangleYmax(IFrameTupleAccessor accessor, int tupleId, int fieldId)
+            throws HyracksDataException {
+        int start = getFieldOffset(accessor, tupleId, fieldId);
+        double ymax = ADoubleSerializerDeserializer.getDouble(accessor.getBuffer().array(),
+                start + ARectangleSerializerDeserializer.getUpperRightCoordinateOffset(Coordinate.Y));
+        return ymax;
+    }
+
     public static int getFieldOffset(IFrameTupleAccessor accessor, int tupleId, int fieldId) {
         return getFieldOffsetWithTag(accessor, tupleId, fieldId) + 1;
     }
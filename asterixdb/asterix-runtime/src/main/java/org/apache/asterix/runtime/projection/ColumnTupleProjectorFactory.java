@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.projection;
+
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+import org.apache.hyracks.storage.common.projection.ITupleProjectorFactory;
+
+/**
+ * Creates the projectors of columnar datasets' scans. The requested type is used by the columnar components to
+ * decode only the columns of the requested fields.
+ */
+public class ColumnTupleProjectorFactory implements ITupleProjectorFactory {
+    private static final long serialVersionUID = 5173598046392431047L;
+
+    // null means all the fields are requested
+    private final ARecordType requestedType;
+
+    public ColumnTupleProjectorFactory(ARecordType requestedType) {
+        // The identity of ALL_FIELDS_TYPE is lost once the factory is serialized
+        this.requestedType = requestedType == DataProjectionInfo.ALL_FIELDS_TYPE ? null : requestedType;
+    }
+
+    @Override
+    public ITupleProjector createTupleProjector(IHyracksTaskContext context) throws HyracksDataException {
+        return new ColumnTupleProjector(requestedType);
+    }
+}
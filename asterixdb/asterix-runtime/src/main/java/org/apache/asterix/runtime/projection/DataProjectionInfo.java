@@ -41,6 +41,8 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
     private final Map<String, FunctionCallInformation> functionCallInfoMap;
     //For shapefile scan, information about MBR of the filter condition geometry
     private String filterMBR;
+    //Filter that the reader may use to skip data that cannot satisfy the query's condition (e.g., Parquet row groups)
+    private ExternalFilterPredicate filterPredicate;
 
     public DataProjectionInfo(ARecordType root, Map<String, FunctionCallInformation> sourceInformationMap) {
         this.root = root;
@@ -57,6 +59,8 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
             root = other.root.deepCopy(other.root);
         }
         functionCallInfoMap = new HashMap<>(other.functionCallInfoMap);
+        filterMBR = other.filterMBR;
+        filterPredicate = other.filterPredicate;
     }
 
     @Override
@@ -82,7 +86,8 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
             return false;
         }
         DataProjectionInfo otherInfo = (DataProjectionInfo) o;
-        return root.deepEqual(otherInfo.root) && Objects.equals(functionCallInfoMap, otherInfo.functionCallInfoMap);
+        return root.deepEqual(otherInfo.root) && Objects.equals(functionCallInfoMap, otherInfo.functionCallInfoMap)
+                && Objects.equals(filterPredicate, otherInfo.filterPredicate);
     }
 
     @Override
@@ -167,4 +172,12 @@ public class DataProjectionInfo implements IProjectionInfo<ARecordType> {
     public String getFilterMBR() {
         return filterMBR;
     }
+
+    public void setFilterPredicate(ExternalFilterPredicate filterPredicate) {
+        this.filterPredicate = filterPredicate;
+    }
+
+    public ExternalFilterPredicate getFilterPredicate() {
+        return filterPredicate;
+    }
 }
@@ -0,0 +1,171 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.projection;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+
+import org.apache.asterix.om.types.ATypeTag;
+
+/**
+ * A schema-independent description of a filter that was pushed down to an external data-scan. The filter is a tree
+ * of conjunctions/disjunctions over comparisons between a (possibly nested) field and a constant. Each reader
+ * translates it against the actual schema of the file it reads (e.g., Parquet footers) and drops the parts it
+ * cannot evaluate. Thus, a pushed filter is only used to skip data that cannot match; the original condition is
+ * still evaluated on the read records.
+ * <p>
+ * Constants are kept as Java values: {@link ATypeTag#BIGINT} as {@link Long}, {@link ATypeTag#DOUBLE} as
+ * {@link Double}, {@link ATypeTag#STRING} as {@link String}, {@link ATypeTag#BOOLEAN} as {@link Boolean},
+ * {@link ATypeTag#DATE} as {@link Integer} (days since epoch) and {@link ATypeTag#DATETIME} as {@link Long}
+ * (milliseconds since epoch)
+ */
+public class ExternalFilterPredicate implements Serializable {
+    private static final long serialVersionUID = 6325487196283174452L;
+
+    public enum Kind {
+        AND,
+        OR,
+        EQ,
+        NEQ,
+        LT,
+        LE,
+        GT,
+        GE,
+        //The value is NULL or MISSING
+        IS_UNKNOWN,
+        //The value is neither NULL nor MISSING
+        IS_KNOWN
+    }
+
+    private final Kind kind;
+    private final List<ExternalFilterPredicate> children;
+    private final List<String> path;
+    private final ATypeTag constantTypeTag;
+    private final Serializable constant;
+
+    private ExternalFilterPredicate(Kind kind, List<ExternalFilterPredicate> children, List<String> path,
+            ATypeTag constantTypeTag, Serializable constant) {
+        this.kind = kind;
+        this.children = children;
+        this.path = path;
+        this.constantTypeTag = constantTypeTag;
+        this.constant = constant;
+    }
+
+    public static ExternalFilterPredicate and(List<ExternalFilterPredicate> children) {
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        return new ExternalFilterPredicate(Kind.AND, children, null, null, null);
+    }
+
+    public static ExternalFilterPredicate or(List<ExternalFilterPredicate> children) {
+        if (children.size() == 1) {
+            return children.get(0);
+        }
+        return new ExternalFilterPredicate(Kind.OR, children, null, null, null);
+    }
+
+    public static ExternalFilterPredicate compare(Kind kind, List<String> path, ATypeTag constantTypeTag,
+            Serializable constant) {
+        return new ExternalFilterPredicate(kind, Collections.emptyList(), path, constantTypeTag, constant);
+    }
+
+    public static ExternalFilterPredicate isUnknown(List<String> path, boolean negated) {
+        return new ExternalFilterPredicate(negated ? Kind.IS_KNOWN : Kind.IS_UNKNOWN, Collections.emptyList(), path,
+                null, null);
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public List<ExternalFilterPredicate> getChildren() {
+        return children;
+    }
+
+    public List<String> getPath() {
+        return path;
+    }
+
+    public ATypeTag getConstantTypeTag() {
+        return constantTypeTag;
+    }
+
+    public Serializable getConstant() {
+        return constant;
+    }
+
+    /**
+     * @return the predicate of this kind with the operands swapped (e.g., c < x becomes x > c)
+     */
+    public static Kind flip(Kind kind) {
+        switch (kind) {
+            case LT:
+                return Kind.GT;
+            case LE:
+                return Kind.GE;
+            case GT:
+                return Kind.LT;
+            case GE:
+                return Kind.LE;
+            default:
+                return kind;
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        ExternalFilterPredicate other = (ExternalFilterPredicate) o;
+        return kind == other.kind && children.equals(other.children) && Objects.equals(path, other.path)
+                && constantTypeTag == other.constantTypeTag && Objects.equals(constant, other.constant);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(kind, children, path, constantTypeTag, constant);
+    }
+
+    @Override
+    public String toString() {
+        switch (kind) {
+            case AND:
+            case OR:
+                StringBuilder builder = new StringBuilder();
+                builder.append(kind.name().toLowerCase()).append('(');
+                for (int i = 0; i < children.size(); i++) {
+                    builder.append(i > 0 ? ", " : "").append(children.get(i));
+                }
+                return builder.append(')').toString();
+            case IS_UNKNOWN:
+            case IS_KNOWN:
+                return kind.name().toLowerCase() + '(' + String.join(".", path) + ')';
+            default:
+                return kind.name().toLowerCase() + '(' + String.join(".", path) + ", " + constant + ')';
+        }
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.statistics;
+
+import org.apache.asterix.common.messaging.api.INCMessageBroker;
+import org.apache.asterix.common.storage.IIndexStatisticsReporter;
+import org.apache.asterix.common.storage.ResourceReference;
+import org.apache.asterix.runtime.message.IndexStatisticsMessage;
+import org.apache.hyracks.api.application.INCServiceContext;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+import org.apache.hyracks.storage.am.lsm.common.util.LSMStatisticsUtils;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+public class IndexStatisticsReporter implements IIndexStatisticsReporter {
+    private static final Logger LOGGER = LogManager.getLogger();
+    private final INCServiceContext serviceCtx;
+
+    public IndexStatisticsReporter(INCServiceContext serviceCtx) {
+        this.serviceCtx = serviceCtx;
+    }
+
+    @Override
+    public void report(int datasetId, ILSMIndex index, ILSMDiskComponent newComponent) {
+        try {
+            IndexStatistics statistics = LSMStatisticsUtils.collect(index, newComponent);
+            if (statistics == null) {
+                return;
+            }
+            ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+            statistics.writeFields(value.getDataOutput());
+            ResourceReference ref = ResourceReference.ofIndex(index.getIndexIdentifier());
+            IndexStatisticsMessage message = new IndexStatisticsMessage(datasetId, ref.getIndex(),
+                    ref.getPartitionNum(), value.toByteArray());
+            ((INCMessageBroker) serviceCtx.getMessageBroker()).sendMessageToPrimaryCC(message);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            LOGGER.warn("interrupted while reporting the statistics of {}", index, e);
+        } catch (Exception e) {
+            LOGGER.warn("failed to report the statistics of {}", index, e);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.statistics;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.asterix.common.storage.IStatisticsManager;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+
+public class StatisticsManager implements IStatisticsManager {
+
+    // dataset id -> index name -> partition -> statistics
+    private final Map<Integer, Map<String, Map<Integer, IndexStatistics>>> statistics = new ConcurrentHashMap<>();
+
+    @Override
+    public void update(int datasetId, String indexName, int partition, IndexStatistics indexStatistics) {
+        statistics.computeIfAbsent(datasetId, k -> new ConcurrentHashMap<>())
+                .computeIfAbsent(indexName, k -> new ConcurrentHashMap<>()).put(partition, indexStatistics);
+    }
+
+    @Override
+    public IndexStatistics getStatistics(int datasetId, String indexName) {
+        Map<String, Map<Integer, IndexStatistics>> datasetStatistics = statistics.get(datasetId);
+        Map<Integer, IndexStatistics> partitions = datasetStatistics == null ? null : datasetStatistics.get(indexName);
+        if (partitions == null) {
+            return null;
+        }
+        IndexStatistics result = null;
+        // the reported statistics are never modified, so they are merged into a new instance
+        for (IndexStatistics partitionStatistics : partitions.values()) {
+            if (result == null) {
+                result = new IndexStatistics(partitionStatistics.getNumFields());
+            }
+            result.merge(partitionStatistics);
+        }
+        return result;
+    }
+
+    @Override
+    public void remove(int datasetId) {
+        statistics.remove(datasetId);
+    }
+}
@@ -33,6 +33,7 @@ import org.apache.asterix.om.types.ATypeTag;
 import org.apache.asterix.om.types.BuiltinType;
 import org.apache.asterix.om.types.EnumDeserializer;
 import org.apache.asterix.om.types.hierachy.ATypeHierarchy;
+import org.apache.asterix.runtime.evaluators.common.SpatialGrid;
 import org.apache.asterix.runtime.exceptions.TypeMismatchException;
 import org.apache.asterix.runtime.unnestingfunctions.base.AbstractUnnestingFunctionDynamicDescriptor;
 import org.apache.hyracks.algebricks.core.algebra.functions.FunctionIdentifier;
@@ -45,6 +46,7 @@ import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.ByteArrayPointable;
 import org.apache.hyracks.data.std.primitive.VoidPointable;
 import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
@@ -88,6 +90,8 @@ public class SpatialTileDescriptor extends AbstractUnnestingFunctionDynamicDescr
                     private final IScalarEvaluator eval3 = args[3].createScalarEvaluator(ctx);
 
                     private final AMutableInt32 aInt32 = new AMutableInt32(0);
+                    private final ByteArrayPointable gridPointable = new ByteArrayPointable();
+                    private final SpatialGrid grid = new SpatialGrid();
                     int pos;
 
                     @SuppressWarnings("unchecked")
@@ -120,6 +124,13 @@ public class SpatialTileDescriptor extends AbstractUnnestingFunctionDynamicDescr
                             throw new TypeMismatchException(sourceLoc, getIdentifier(), 0, bytes0[offset0],
                                     ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG);
                         }
+                        if (tag1 == ATypeTag.BINARY) {
+                            // Data-driven grid built by spatial-grid()
+                            gridPointable.set(bytes1, offset1 + 1, inputArg1.getLength() - 1);
+                            grid.reset(gridPointable.getByteArray(), gridPointable.getContentStartOffset());
+                            computeGridTiles(bytes0, offset0);
+                            return;
+                        }
                         if (tag1 != ATypeTag.RECTANGLE) {
                             throw new TypeMismatchException(sourceLoc, getIdentifier(), 0, bytes1[offset1],
                                     ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG);
@@ -179,6 +190,34 @@ public class SpatialTileDescriptor extends AbstractUnnestingFunctionDynamicDescr
                         }
                     }
 
+                    private void computeGridTiles(byte[] bytes0, int offset0) throws HyracksDataException {
+                        tileValues.clear();
+                        pos = 0;
+                        if (grid.isEmpty()) {
+                            return;
+                        }
+                        double x1 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.X));
+                        double y1 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                + ARectangleSerializerDeserializer.getBottomLeftCoordinateOffset(Coordinate.Y));
+                        double x2 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                + ARectangleSerializerDeserializer.getUpperRightCoordinateOffset(Coordinate.X));
+                        double y2 = ADoubleSerializerDeserializer.getDouble(bytes0, offset0 + 1
+                                + ARectangleSerializerDeserializer.getUpperRightCoordinateOffset(Coordinate.Y));
+                        if (!grid.overlaps(x1, y1, x2, y2)) {
+                            return;
+                        }
+                        int minCol = grid.getColumn(x1);
+                        int maxCol = grid.getColumn(x2);
+                        for (int col = minCol; col <= maxCol; col++) {
+                            int minRow = grid.getRow(col, y1);
+                            int maxRow = grid.getRow(col, y2);
+                            for (int row = minRow; row <= maxRow; row++) {
+                                tileValues.add(grid.getTileId(col, row));
+                            }
+                        }
+                    }
+
                     @SuppressWarnings("unchecked")
                     @Override
                     public boolean step(IPointable result) throws HyracksDataException {
@@ -0,0 +1,367 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.column;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+
+import org.apache.asterix.builders.OrderedListBuilder;
+import org.apache.asterix.builders.RecordBuilder;
+import org.apache.asterix.formats.nontagged.SerializerDeserializerProvider;
+import org.apache.asterix.om.base.ABoolean;
+import org.apache.asterix.om.base.ADouble;
+import org.apache.asterix.om.base.AInt64;
+import org.apache.asterix.om.base.ANull;
+import org.apache.asterix.om.base.AString;
+import org.apache.asterix.om.base.IAObject;
+import org.apache.asterix.om.pointables.AListVisitablePointable;
+import org.apache.asterix.om.pointables.ARecordVisitablePointable;
+import org.apache.asterix.om.pointables.base.IVisitablePointable;
+import org.apache.asterix.om.types.AOrderedListType;
+import org.apache.asterix.om.types.ARecordType;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.om.types.AUnionType;
+import org.apache.asterix.om.types.BuiltinType;
+import org.apache.asterix.om.types.IAType;
+import org.apache.asterix.om.utils.RecordUtil;
+import org.apache.asterix.runtime.column.encoding.ColumnInput;
+import org.apache.asterix.runtime.column.encoding.DeltaBinaryPacking;
+import org.apache.asterix.runtime.column.encoding.RunLengthBitPackingHybrid;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.util.string.UTF8StringUtil;
+import org.apache.hyracks.util.string.UTF8StringWriter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ColumnReaderWriterTest {
+    private static final ARecordType DATASET_TYPE = new ARecordType("test", new String[] { "id", "optional" },
+            new IAType[] { BuiltinType.AINT64, AUnionType.createUnknownableType(BuiltinType.ASTRING) }, true);
+    private static final Object ANTIMATTER = new Object();
+
+    @Test
+    public void testRunLengthBitPackingHybrid() throws Exception {
+        Random random = new Random(0);
+        int[] values = new int[1000];
+        for (int i = 0; i < values.length; i++) {
+            // A mix of runs and random values
+            values[i] = i % 100 < 50 ? 3 : random.nextInt(8);
+        }
+        for (int count : new int[] { 0, 1, 7, 8, 9, 63, 1000 }) {
+            ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+            RunLengthBitPackingHybrid.encode(values, count, 3, storage.getDataOutput());
+            ColumnInput in = new ColumnInput();
+            in.reset(storage.getByteArray(), 0, storage.getLength());
+            int[] decoded = new int[count];
+            RunLengthBitPackingHybrid.decode(in, count, 3, decoded);
+            Assert.assertArrayEquals(Arrays.copyOf(values, count), decoded);
+            Assert.assertEquals(storage.getLength(), in.getPosition());
+        }
+    }
+
+    @Test
+    public void testDeltaBinaryPacking() throws Exception {
+        Random random = new Random(0);
+        long[] values = new long[1000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i < 500 ? i * 7L : random.nextLong();
+        }
+        values[600] = Long.MIN_VALUE;
+        values[601] = Long.MAX_VALUE;
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        DeltaBinaryPacking.encode(values, values.length, storage.getDataOutput());
+        ColumnInput in = new ColumnInput();
+        in.reset(storage.getByteArray(), 0, storage.getLength());
+        long[] decoded = new long[values.length];
+        DeltaBinaryPacking.decode(in, values.length, decoded);
+        Assert.assertArrayEquals(values, decoded);
+    }
+
+    @Test
+    public void testRoundTrip() throws Exception {
+        List<Object> rows = createRows();
+        ColumnWriter writer = new ColumnWriter(DATASET_TYPE, 1);
+        RowGroup rowGroup = write(writer, rows);
+        ColumnReader reader = new ColumnReader(DATASET_TYPE, null);
+        rowGroup.load(reader);
+
+        // Read forward, then backward
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < rows.size(); i++) {
+            order.add(i);
+        }
+        for (int i = rows.size() - 1; i >= 0; i--) {
+            order.add(i);
+        }
+        for (int row : order) {
+            if (rows.get(row) == ANTIMATTER) {
+                continue;
+            }
+            reader.assemble(row);
+            Assert.assertEquals("row " + row, toJava((byte[]) rows.get(row)), toJava(reader.getValue(0)));
+        }
+
+        // The writer is reusable
+        writer.reset();
+        RowGroup secondRowGroup = write(writer, rows.subList(0, 3));
+        secondRowGroup.load(reader);
+        reader.assemble(2);
+        Assert.assertEquals(toJava((byte[]) rows.get(2)), toJava(reader.getValue(0)));
+    }
+
+    @Test
+    public void testProjection() throws Exception {
+        List<Object> rows = createRows();
+        RowGroup rowGroup = write(new ColumnWriter(DATASET_TYPE, 1), rows);
+
+        // Request address.city only
+        ARecordType addressType = new ARecordType("address", new String[] { "city" },
+                new IAType[] { BuiltinType.ANY }, true);
+        ARecordType requestedType =
+                new ARecordType("requested", new String[] { "address" }, new IAType[] { addressType }, true);
+        ColumnReader reader = new ColumnReader(DATASET_TYPE, requestedType);
+        int numberOfRequiredColumns = rowGroup.load(reader);
+        Assert.assertTrue(numberOfRequiredColumns < rowGroup.columns.size());
+
+        for (int row = 0; row < rows.size(); row++) {
+            if (rows.get(row) == ANTIMATTER) {
+                continue;
+            }
+            reader.assemble(row);
+            @SuppressWarnings("unchecked")
+            Map<String, Object> expected = (Map<String, Object>) toJava((byte[]) rows.get(row));
+            expected.keySet().retainAll(Arrays.asList("id", "optional", "address"));
+            Object address = expected.get("address");
+            if (address instanceof Map) {
+                ((Map<?, ?>) address).keySet().retainAll(Collections.singleton("city"));
+            } else if (address != null) {
+                // Not a record, address.city is missing
+                expected.remove("address");
+            }
+            @SuppressWarnings("unchecked")
+            Map<String, Object> actual = (Map<String, Object>) toJava(reader.getValue(0));
+            Assert.assertEquals("row " + row, expected, actual);
+        }
+    }
+
+    private static List<Object> createRows() throws Exception {
+        List<Object> rows = new ArrayList<>();
+        String[] cities = { "Irvine", "Riverside", "Seattle" };
+        for (int i = 0; i < 300; i++) {
+            List<Object> fields = new ArrayList<>();
+            fields.addAll(Arrays.asList("id", (long) i, "name", "name" + i % 5));
+            if (i % 3 != 0) {
+                fields.addAll(Arrays.asList("optional", i % 2 == 0 ? null : "opt"));
+            }
+            // Heterogeneous values
+            fields.addAll(Arrays.asList("age", i % 4 == 0 ? "unknown" : (Object) (long) (20 + i % 50)));
+            if (i % 5 != 0) {
+                byte[] address = i % 7 == 0 ? record(RecordUtil.FULLY_OPEN_RECORD_TYPE)
+                        : record(RecordUtil.FULLY_OPEN_RECORD_TYPE, "city", cities[i % 3], "zip", (long) i * 13,
+                                "location", Arrays.asList(i * 1.5, i * -2.5));
+                fields.addAll(Arrays.asList("address", i % 11 == 0 ? "unstructured" : address));
+            }
+            List<Object> tags = new ArrayList<>();
+            for (int j = 0; j < i % 4; j++) {
+                tags.add("tag" + j);
+            }
+            fields.addAll(Arrays.asList("tags", tags));
+            List<Object> orders = new ArrayList<>();
+            for (int j = 0; j < i % 3; j++) {
+                List<Object> items = new ArrayList<>();
+                for (int k = 0; k < j; k++) {
+                    items.add(k % 2 == 0 ? (Object) (long) k : Collections.singletonList(k % 3 == 0));
+                }
+                orders.add(record(RecordUtil.FULLY_OPEN_RECORD_TYPE, "oid", (long) j, "items", items));
+            }
+            fields.addAll(Arrays.asList("orders", orders, "flag", i % 2 == 0));
+            rows.add(record(DATASET_TYPE, fields.toArray()));
+            if (i % 17 == 0) {
+                rows.add(ANTIMATTER);
+            }
+        }
+        return rows;
+    }
+
+    private static RowGroup write(ColumnWriter writer, List<Object> rows) throws Exception {
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(2);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        for (int i = 0; i < rows.size(); i++) {
+            tupleBuilder.reset();
+            tupleBuilder.addField(serialize((long) i).getByteArray(), 0, serialize((long) i).getLength());
+            if (rows.get(i) == ANTIMATTER) {
+                tuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+                writer.addAntimatter(tuple);
+                continue;
+            }
+            byte[] record = (byte[]) rows.get(i);
+            tupleBuilder.addField(record, 0, record.length);
+            tuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+            writer.add(tuple);
+        }
+        Assert.assertEquals(rows.size(), writer.getRowCount());
+        writer.finish();
+        RowGroup rowGroup = new RowGroup();
+        rowGroup.schema = copy(writer.getSchema());
+        for (int i = 0; i < writer.getNumberOfColumns(); i++) {
+            rowGroup.columns.add(copy(writer.getColumn(i)));
+        }
+        return rowGroup;
+    }
+
+    private static byte[] copy(IValueReference value) {
+        return Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength());
+    }
+
+    /**
+     * Create a tagged record. The closed fields of the type must be in the beginning.
+     */
+    private static byte[] record(ARecordType type, Object... fieldsAndValues) throws Exception {
+        RecordBuilder builder = new RecordBuilder();
+        builder.reset(type);
+        UTF8StringWriter stringWriter = new UTF8StringWriter();
+        boolean[] closedFieldsAdded = new boolean[type.getFieldNames().length];
+        for (int i = 0; i < fieldsAndValues.length; i += 2) {
+            String fieldName = (String) fieldsAndValues[i];
+            ArrayBackedValueStorage value = serialize(fieldsAndValues[i + 1]);
+            int fieldId = type.getFieldIndex(fieldName);
+            if (fieldId >= 0) {
+                builder.addField(fieldId, value);
+                closedFieldsAdded[fieldId] = true;
+            } else {
+                ArrayBackedValueStorage name = new ArrayBackedValueStorage();
+                name.getDataOutput().writeByte(ATypeTag.SERIALIZED_STRING_TYPE_TAG);
+                stringWriter.writeUTF8(fieldName, name.getDataOutput());
+                builder.addField(name, value);
+            }
+        }
+        for (int i = 0; i < closedFieldsAdded.length; i++) {
+            if (!closedFieldsAdded[i]) {
+                ArrayBackedValueStorage missing = new ArrayBackedValueStorage();
+                missing.getDataOutput().writeByte(ATypeTag.SERIALIZED_MISSING_TYPE_TAG);
+                builder.addField(i, missing);
+            }
+        }
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        builder.write(storage.getDataOutput(), true);
+        return copy(storage);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static ArrayBackedValueStorage serialize(Object value) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        if (value instanceof byte[]) {
+            storage.getDataOutput().write((byte[]) value);
+            return storage;
+        }
+        if (value instanceof List) {
+            OrderedListBuilder builder = new OrderedListBuilder();
+            builder.reset(AOrderedListType.FULL_OPEN_ORDEREDLIST_TYPE);
+            for (Object item : (List<Object>) value) {
+                builder.addItem(serialize(item));
+            }
+            builder.write(storage.getDataOutput(), true);
+            return storage;
+        }
+        IAObject object;
+        if (value == null) {
+            object = ANull.NULL;
+        } else if (value instanceof Long) {
+            object = new AInt64((Long) value);
+        } else if (value instanceof Double) {
+            object = new ADouble((Double) value);
+        } else if (value instanceof Boolean) {
+            object = ABoolean.valueOf((Boolean) value);
+        } else {
+            object = new AString((String) value);
+        }
+        ISerializerDeserializer<IAObject> serde =
+                SerializerDeserializerProvider.INSTANCE.getSerializerDeserializer(BuiltinType.ANY);
+        serde.serialize(object, storage.getDataOutput());
+        return storage;
+    }
+
+    /**
+     * Convert a tagged value into comparable Java objects (fields are not ordered and missing fields are ignored)
+     */
+    private static Object toJava(byte[] value) {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        storage.set(value, 0, value.length);
+        return toJava(storage);
+    }
+
+    private static Object toJava(IValueReference value) {
+        ARecordVisitablePointable record = new ARecordVisitablePointable(DATASET_TYPE);
+        record.set(value.getByteArray(), value.getStartOffset(), value.getLength());
+        return toJava((IVisitablePointable) record);
+    }
+
+    private static Object toJava(IVisitablePointable value) {
+        if (value instanceof ARecordVisitablePointable) {
+            ARecordVisitablePointable record = (ARecordVisitablePointable) value;
+            Map<String, Object> fields = new TreeMap<>();
+            for (int i = 0; i < record.getFieldValues().size(); i++) {
+                IVisitablePointable fieldValue = record.getFieldValues().get(i);
+                if (fieldValue.getByteArray()[fieldValue.getStartOffset()] != ATypeTag.SERIALIZED_MISSING_TYPE_TAG) {
+                    IVisitablePointable name = record.getFieldNames().get(i);
+                    fields.put(UTF8StringUtil.toString(name.getByteArray(), name.getStartOffset() + 1),
+                            toJava(fieldValue));
+                }
+            }
+            return fields;
+        } else if (value instanceof AListVisitablePointable) {
+            List<Object> items = new ArrayList<>();
+            for (IVisitablePointable item : ((AListVisitablePointable) value).getItems()) {
+                items.add(toJava(item));
+            }
+            return items;
+        }
+        return Arrays.toString(Arrays.copyOfRange(value.getByteArray(), value.getStartOffset(),
+                value.getStartOffset() + value.getLength()));
+    }
+
+    private static class RowGroup {
+        private byte[] schema;
+        private final List<byte[]> columns = new ArrayList<>();
+
+        /**
+         * @return the number of required columns
+         */
+        int load(ColumnReader reader) throws Exception {
+            reader.resetSchema(schema, 0, schema.length, columns.size());
+            int numberOfRequiredColumns = 0;
+            for (int i = 0; i < columns.size(); i++) {
+                if (reader.isColumnRequired(i)) {
+                    reader.resetColumn(i, columns.get(i), 0, columns.get(i).length);
+                    numberOfRequiredColumns++;
+                }
+            }
+            return numberOfRequiredColumns;
+        }
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.evaluators.common;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpatialGridTest {
+
+    private static final int ROWS = 4;
+    private static final int COLUMNS = 4;
+
+    @Test
+    public void skewedSamplesProduceBalancedTiles() throws Exception {
+        // 90% of the points are in a small "city" in the corner of the MBR
+        Random random = new Random(17);
+        int numSamples = 10000;
+        double[] xs = new double[numSamples];
+        double[] ys = new double[numSamples];
+        for (int i = 0; i < numSamples; i++) {
+            boolean city = i % 10 != 0;
+            xs[i] = city ? random.nextDouble() : random.nextDouble() * 100;
+            ys[i] = city ? random.nextDouble() : random.nextDouble() * 100;
+        }
+        SpatialGrid grid = createGrid(xs, ys, numSamples);
+        Assert.assertFalse(grid.isEmpty());
+
+        int[] counts = new int[ROWS * COLUMNS + 1];
+        for (int i = 0; i < numSamples; i++) {
+            counts[grid.getPointTileId(xs[i], ys[i])]++;
+        }
+        int expected = numSamples / (ROWS * COLUMNS);
+        for (int tileId = 1; tileId < counts.length; tileId++) {
+            Assert.assertTrue("tile " + tileId + " has " + counts[tileId] + " points",
+                    Math.abs(counts[tileId] - expected) <= expected / 10);
+        }
+    }
+
+    @Test
+    public void defaultGridFollowsSkewedSamples() throws Exception {
+        // a full sample of a skewed input shapes a grid of the default size, checked against points it has not seen
+        Random random = new Random(17);
+        double[] xs = new double[SpatialGrid.NUM_SAMPLES];
+        double[] ys = new double[SpatialGrid.NUM_SAMPLES];
+        for (int i = 0; i < SpatialGrid.NUM_SAMPLES; i++) {
+            addSkewedPoint(random, xs, ys, i);
+        }
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SpatialGrid.write(storage.getDataOutput(), 0, 0, 100, 100, SpatialGrid.DEFAULT_ROWS,
+                SpatialGrid.DEFAULT_COLUMNS, xs, ys, SpatialGrid.NUM_SAMPLES);
+        SpatialGrid grid = new SpatialGrid();
+        grid.reset(storage.getByteArray(), storage.getStartOffset());
+        // most columns cut the city, which covers 1% of the width
+        Assert.assertTrue(grid.getColumn(1) >= SpatialGrid.DEFAULT_COLUMNS * 8 / 10);
+
+        int numTiles = SpatialGrid.DEFAULT_ROWS * SpatialGrid.DEFAULT_COLUMNS;
+        int numPoints = 100 * numTiles;
+        int[] counts = new int[numTiles + 1];
+        double[] x = new double[1];
+        double[] y = new double[1];
+        for (int i = 0; i < numPoints; i++) {
+            addSkewedPoint(random, x, y, 0);
+            counts[grid.getPointTileId(x[0], y[0])]++;
+        }
+        int expected = numPoints / numTiles;
+        int balanced = 0;
+        for (int tileId = 1; tileId < counts.length; tileId++) {
+            Assert.assertTrue("tile " + tileId + " has " + counts[tileId] + " points",
+                    counts[tileId] < 3 * expected);
+            if (counts[tileId] > expected / 2 && counts[tileId] < 2 * expected) {
+                balanced++;
+            }
+        }
+        Assert.assertTrue(balanced + " balanced tiles", balanced >= numTiles * 9 / 10);
+    }
+
+    @Test
+    public void uniformSplitsWithoutSamples() throws Exception {
+        SpatialGrid grid = createGrid(new double[0], new double[0], 0);
+        Assert.assertEquals(0, grid.getColumn(10));
+        Assert.assertEquals(0, grid.getColumn(25));
+        Assert.assertEquals(1, grid.getColumn(25.5));
+        Assert.assertEquals(COLUMNS - 1, grid.getColumn(1000));
+        Assert.assertEquals(ROWS - 1, grid.getRow(2, 99));
+        Assert.assertEquals(grid.getTileId(2, 3), grid.getPointTileId(60, 99));
+        Assert.assertEquals(ROWS * COLUMNS, grid.getPointTileId(100, 100));
+        Assert.assertEquals(1, grid.getPointTileId(0, 0));
+    }
+
+    @Test
+    public void emptyMbr() throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SpatialGrid.write(storage.getDataOutput(), 0, 0, 0, 0, ROWS, COLUMNS, new double[0], new double[0], 0);
+        SpatialGrid grid = new SpatialGrid();
+        grid.reset(storage.getByteArray(), storage.getStartOffset());
+        Assert.assertTrue(grid.isEmpty());
+    }
+
+    @Test
+    public void samplesRoundTrip() throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SpatialGrid.writeSamples(storage.getDataOutput(), 7, new double[] { 1, 2, 3 }, new double[] { 4, 5, 6 }, 2);
+        DoubleArray xs = new DoubleArray();
+        DoubleArray ys = new DoubleArray();
+        Assert.assertEquals(7, SpatialGrid.readSamples(storage.getByteArray(), storage.getStartOffset(), xs, ys));
+        Assert.assertEquals(2, xs.length());
+        Assert.assertEquals(2.0, xs.get(1), 0.0);
+        Assert.assertEquals(5.0, ys.get(1), 0.0);
+    }
+
+    @Test
+    public void mergeWeighsPartitionsByPopulation() {
+        // both partitions sent a full sample, but the first one sampled twice as many objects
+        DoubleArray xs = new DoubleArray();
+        DoubleArray ys = new DoubleArray();
+        addSamples(xs, ys, 0, 1000);
+        addSamples(xs, ys, 1, 1000);
+        int numSamples = SpatialGrid.mergeSamples(xs, ys, new int[] { 1000, 2000 }, new long[] { 2000, 1000 }, 2,
+                SpatialGrid.NUM_SAMPLES, new Random(17));
+        Assert.assertEquals(1500, numSamples);
+        Assert.assertEquals(1000, countSamples(xs, ys, numSamples, 0));
+        Assert.assertEquals(500, countSamples(xs, ys, numSamples, 1));
+    }
+
+    @Test
+    public void mergeDoesNotOverweighSmallPartitions() {
+        DoubleArray xs = new DoubleArray();
+        DoubleArray ys = new DoubleArray();
+        addSamples(xs, ys, 0, 1000);
+        addSamples(xs, ys, 1, 10);
+        int numSamples = SpatialGrid.mergeSamples(xs, ys, new int[] { 1000, 1010 }, new long[] { 1_000_000, 10 }, 2,
+                SpatialGrid.NUM_SAMPLES, new Random(17));
+        Assert.assertEquals(1000, numSamples);
+        Assert.assertEquals(0, countSamples(xs, ys, numSamples, 1));
+    }
+
+    @Test
+    public void mergeKeepsDistinctSamplesUpToTheLimit() {
+        DoubleArray xs = new DoubleArray();
+        DoubleArray ys = new DoubleArray();
+        for (int i = 0; i < 300; i++) {
+            xs.add(i);
+            ys.add(i);
+        }
+        int numSamples = SpatialGrid.mergeSamples(xs, ys, new int[] { 100, 300 }, new long[] { 100, 200 }, 2, 150,
+                new Random(17));
+        Assert.assertEquals(150, numSamples);
+        Set<Double> distinct = new HashSet<>();
+        for (int i = 0; i < numSamples; i++) {
+            Assert.assertEquals(xs.get(i), ys.get(i), 0.0);
+            Assert.assertTrue(distinct.add(xs.get(i)));
+        }
+        Assert.assertEquals(50, distinct.stream().filter(x -> x < 100).count());
+    }
+
+    @Test
+    public void mergeWithoutSamples() {
+        Assert.assertEquals(0, SpatialGrid.mergeSamples(new DoubleArray(), new DoubleArray(), new int[0], new long[0],
+                0, SpatialGrid.NUM_SAMPLES, new Random(17)));
+    }
+
+    private static void addSamples(DoubleArray xs, DoubleArray ys, double value, int count) {
+        for (int i = 0; i < count; i++) {
+            xs.add(value);
+            ys.add(value);
+        }
+    }
+
+    private static int countSamples(DoubleArray xs, DoubleArray ys, int numSamples, double value) {
+        int count = 0;
+        for (int i = 0; i < numSamples; i++) {
+            if (xs.get(i) == value && ys.get(i) == value) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static void addSkewedPoint(Random random, double[] xs, double[] ys, int i) {
+        // 90% of the points are in a small "city" in the corner of the MBR
+        boolean city = random.nextInt(10) != 0;
+        xs[i] = city ? random.nextDouble() : random.nextDouble() * 100;
+        ys[i] = city ? random.nextDouble() : random.nextDouble() * 100;
+    }
+
+    private static SpatialGrid createGrid(double[] xs, double[] ys, int numSamples) throws Exception {
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        SpatialGrid.write(storage.getDataOutput(), 0, 0, 100, 100, ROWS, COLUMNS, xs, ys, numSamples);
+        SpatialGrid grid = new SpatialGrid();
+        grid.reset(storage.getByteArray(), storage.getStartOffset());
+        return grid;
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.operators.joins.spatial;
+
+import org.apache.asterix.runtime.operators.joins.spatial.utils.ISpatialJoinUtil;
+import org.apache.asterix.runtime.operators.joins.spatial.utils.IntersectSpatialJoinUtil;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IntersectSpatialJoinUtilTest {
+
+    private final ISpatialJoinUtil mjc = new IntersectSpatialJoinUtil(new int[] { 0, 1 }, new int[] { 0, 1 });
+
+    @Test
+    public void removeInMemory() {
+        // another tile
+        Assert.assertTrue(mjc.checkToRemoveInMemory(2, 0.0, 1, 5.0));
+        // the build tuple starts after the end of the probe tuple
+        Assert.assertTrue(mjc.checkToRemoveInMemory(1, 5.0, 1, 5.0));
+        Assert.assertFalse(mjc.checkToRemoveInMemory(1, 4.9, 1, 5.0));
+    }
+
+    @Test
+    public void earlyExit() {
+        Assert.assertTrue(mjc.checkForEarlyExit(2, 10.0, 1, 0.0));
+        // the build tuple ends before the start of the probe tuple
+        Assert.assertTrue(mjc.checkForEarlyExit(1, 2.9, 1, 3.0));
+        Assert.assertFalse(mjc.checkForEarlyExit(1, 3.0, 1, 3.0));
+    }
+
+    @Test
+    public void compareOverlappingY() {
+        Assert.assertTrue(mjc.checkToCompare(3.0, 5.0, 2.0, 4.0));
+        Assert.assertTrue(mjc.checkToCompare(4.0, 4.0, 2.0, 4.0));
+        Assert.assertFalse(mjc.checkToCompare(4.5, 5.0, 2.0, 4.0));
+        Assert.assertFalse(mjc.checkToCompare(0.0, 1.9, 2.0, 4.0));
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.operators.joins.spatial;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.asterix.dataflow.data.nontagged.serde.ARectangleSerializerDeserializer;
+import org.apache.asterix.om.base.APoint;
+import org.apache.asterix.om.base.ARectangle;
+import org.apache.asterix.om.types.ATypeTag;
+import org.apache.asterix.runtime.operators.joins.spatial.utils.IntersectSpatialJoinUtil;
+import org.apache.asterix.runtime.operators.joins.spatial.utils.memory.SpatialJoinUtil;
+import org.apache.hyracks.api.comm.IFrameWriter;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpatialJoinerTest {
+
+    private static final int FRAME_SIZE = 512;
+    private static final int NUM_TILES = 3;
+    private static final int[] KEYS = { 0, 1 };
+    // tile id, MBR and tuple id
+    private static final RecordDescriptor RD = new RecordDescriptor(new ISerializerDeserializer[3]);
+    private static final RecordDescriptor RESULT_RD = new RecordDescriptor(new ISerializerDeserializer[6]);
+
+    @Test
+    public void joinInMemory() throws Exception {
+        assertJoinMatchesNestedLoops(1000);
+    }
+
+    @Test
+    public void joinWithSpilledStripes() throws Exception {
+        // about 24 frames of probe tuples with 3 stripes that can be spilled
+        assertJoinMatchesNestedLoops(40);
+    }
+
+    @Test
+    public void joinWithRewoundBuildTuples() throws Exception {
+        // too little memory to spill stripes, so the build tuples are rewound
+        assertJoinMatchesNestedLoops(8);
+    }
+
+    @Test
+    public void joinWithSpilledStripesOfIdenticalExtents() throws Exception {
+        // the stripes of the same rows cannot be split further
+        Random random = new Random(2);
+        List<double[]> build = new ArrayList<>();
+        List<double[]> probe = new ArrayList<>();
+        for (int i = 0; i < 1500; i++) {
+            double y = random.nextInt(4) * 10;
+            build.add(new double[] { 0, random.nextDouble() * 100, y, random.nextDouble() * 100 + 100, y + 1 });
+            probe.add(new double[] { 0, random.nextDouble() * 100, y, random.nextDouble() * 100 + 100, y + 1 });
+        }
+        assertJoinMatchesNestedLoops(build, probe, 40);
+    }
+
+    private static void assertJoinMatchesNestedLoops(int memorySize) throws HyracksDataException {
+        Random random = new Random(memorySize);
+        assertJoinMatchesNestedLoops(createRectangles(random, 2000), createRectangles(random, 2000), memorySize);
+    }
+
+    private static void assertJoinMatchesNestedLoops(List<double[]> build, List<double[]> probe, int memorySize)
+            throws HyracksDataException {
+        Comparator<double[]> sweepOrder =
+                Comparator.<double[]> comparingDouble(r -> r[0]).thenComparingDouble(r -> r[1]);
+        build.sort(sweepOrder);
+        probe.sort(sweepOrder);
+        List<String> expected = new ArrayList<>();
+        for (int b = 0; b < build.size(); b++) {
+            for (int p = 0; p < probe.size(); p++) {
+                double[] r = build.get(b);
+                double[] s = probe.get(p);
+                if (r[0] == s[0] && r[1] <= s[3] && s[1] <= r[3] && r[2] <= s[4] && s[2] <= r[4]) {
+                    expected.add(b + ":" + p);
+                }
+            }
+        }
+        Assert.assertFalse(expected.isEmpty());
+
+        IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+        SpatialJoiner joiner = new SpatialJoiner(ctx, memorySize, new IntersectSpatialJoinUtil(KEYS, KEYS), KEYS,
+                KEYS, RD, RD);
+        List<String> actual = new ArrayList<>();
+        ResultWriter writer = new ResultWriter(actual);
+        writeFrames(ctx, build, joiner::processBuildFrame);
+        joiner.processBuildClose();
+        writeFrames(ctx, probe, buffer -> joiner.processProbeFrame(buffer, writer));
+        joiner.processProbeClose(writer);
+
+        expected.sort(null);
+        actual.sort(null);
+        Assert.assertEquals(expected, actual);
+    }
+
+    private static List<double[]> createRectangles(Random random, int count) {
+        List<double[]> rectangles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            double xmin = random.nextDouble() * 100;
+            double ymin = random.nextDouble() * 100;
+            // wide rectangles keep many probe tuples active at once
+            rectangles.add(new double[] { random.nextInt(NUM_TILES), xmin, ymin, xmin + random.nextDouble() * 40,
+                    ymin + random.nextDouble() * 5 });
+        }
+        return rectangles;
+    }
+
+    private static void writeFrames(IHyracksTaskContext ctx, List<double[]> rectangles, FrameConsumer consumer)
+            throws HyracksDataException {
+        VSizeFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender(frame);
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(RD.getFieldCount());
+        DataOutput out = tb.getDataOutput();
+        for (int i = 0; i < rectangles.size(); i++) {
+            double[] r = rectangles.get(i);
+            tb.reset();
+            try {
+                out.writeByte(ATypeTag.SERIALIZED_INT32_TYPE_TAG);
+                out.writeInt((int) r[0]);
+                tb.addFieldEndOffset();
+                out.writeByte(ATypeTag.SERIALIZED_RECTANGLE_TYPE_TAG);
+                ARectangleSerializerDeserializer.INSTANCE
+                        .serialize(new ARectangle(new APoint(r[1], r[2]), new APoint(r[3], r[4])), out);
+                tb.addFieldEndOffset();
+                out.writeByte(ATypeTag.SERIALIZED_INT32_TYPE_TAG);
+                out.writeInt(i);
+                tb.addFieldEndOffset();
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            if (!appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize())) {
+                consumer.accept(appender.getBuffer());
+                appender.reset(frame, true);
+                Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+            }
+        }
+        if (appender.getTupleCount() > 0) {
+            consumer.accept(appender.getBuffer());
+        }
+    }
+
+    @FunctionalInterface
+    private interface FrameConsumer {
+        void accept(ByteBuffer buffer) throws HyracksDataException;
+    }
+
+    private static class ResultWriter implements IFrameWriter {
+        private final FrameTupleAccessor accessor = new FrameTupleAccessor(RESULT_RD);
+        private final List<String> pairs;
+
+        ResultWriter(List<String> pairs) {
+            this.pairs = pairs;
+        }
+
+        @Override
+        public void open() {
+            // no op
+        }
+
+        @Override
+        public void nextFrame(ByteBuffer buffer) {
+            accessor.reset(buffer);
+            for (int t = 0; t < accessor.getTupleCount(); t++) {
+                pairs.add(SpatialJoinUtil.getTileId(accessor, t, 2) + ":" + SpatialJoinUtil.getTileId(accessor, t, 5));
+            }
+        }
+
+        @Override
+        public void fail() {
+            // no op
+        }
+
+        @Override
+        public void close() {
+            // no op
+        }
+    }
+}
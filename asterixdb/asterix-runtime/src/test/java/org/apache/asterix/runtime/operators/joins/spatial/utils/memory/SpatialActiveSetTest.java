@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.runtime.operators.joins.spatial.utils.memory;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.dataflow.std.structures.TuplePointer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class SpatialActiveSetTest {
+
+    @Test
+    public void searchReturnsOverlappingEntries() {
+        Random random = new Random(0);
+        SpatialActiveSet activeSet = new SpatialActiveSet(2);
+        List<double[]> entries = new ArrayList<>();
+        BitSet removed = new BitSet();
+        TuplePointer tp = new TuplePointer();
+        for (int round = 0; round < 20; round++) {
+            // enough entries to merge the unsorted run several times
+            for (int i = 0; i < 150; i++) {
+                double ymin = random.nextDouble() * 100;
+                double ymax = ymin + random.nextDouble() * (i % 10 == 0 ? 30 : 3);
+                tp.reset(0, entries.size());
+                activeSet.add(tp, 0, 0, ymin, 1, ymax);
+                entries.add(new double[] { ymin, ymax });
+            }
+            // remove about a third of the entries
+            activeSet.searchAll();
+            for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+                if (random.nextInt(3) == 0) {
+                    activeSet.getTuplePointer(i, tp);
+                    removed.set(tp.getTupleIndex());
+                    activeSet.remove(i);
+                    Assert.assertTrue(activeSet.isRemoved(i));
+                }
+            }
+            Assert.assertEquals(entries.size() - removed.cardinality(), activeSet.size());
+            for (int query = 0; query < 20; query++) {
+                double ymin = random.nextDouble() * 100;
+                double ymax = ymin + random.nextDouble() * 10;
+                BitSet expected = new BitSet();
+                for (int id = 0; id < entries.size(); id++) {
+                    if (!removed.get(id) && entries.get(id)[0] <= ymax && ymin <= entries.get(id)[1]) {
+                        expected.set(id);
+                    }
+                }
+                BitSet found = new BitSet();
+                activeSet.search(ymin, ymax);
+                for (int i = activeSet.nextSearchResult(); i >= 0; i = activeSet.nextSearchResult()) {
+                    activeSet.getTuplePointer(i, tp);
+                    Assert.assertFalse(found.get(tp.getTupleIndex()));
+                    found.set(tp.getTupleIndex());
+                    Assert.assertEquals(entries.get(tp.getTupleIndex())[0], activeSet.getYmin(i), 0.0);
+                    Assert.assertEquals(entries.get(tp.getTupleIndex())[1], activeSet.getYmax(i), 0.0);
+                }
+                Assert.assertEquals(expected, found);
+            }
+        }
+    }
+
+    @Test
+    public void entriesExpireInTileAndXmaxOrder() {
+        Random random = new Random(1);
+        SpatialActiveSet activeSet = new SpatialActiveSet();
+        TuplePointer tp = new TuplePointer();
+        for (int i = 0; i < 500; i++) {
+            tp.reset(i / 10, i);
+            activeSet.add(tp, random.nextInt(3), 0, random.nextDouble(), random.nextDouble() * 100, 1);
+        }
+        int previousTileId = Integer.MIN_VALUE;
+        double previousXmax = Double.NEGATIVE_INFINITY;
+        long previousSequence = -1;
+        for (int i = activeSet.peekExpiring(); i >= 0; i = activeSet.peekExpiring()) {
+            int tileId = activeSet.getTileId(i);
+            Assert.assertTrue(tileId >= previousTileId);
+            Assert.assertTrue(tileId > previousTileId || activeSet.getXmax(i) >= previousXmax);
+            // the insertion order survives the merges
+            activeSet.getTuplePointer(i, tp);
+            Assert.assertEquals(tp.getTupleIndex(), activeSet.getSequence(i));
+            Assert.assertEquals(tp.getTupleIndex() / 10, tp.getFrameIndex());
+            previousTileId = tileId;
+            previousXmax = activeSet.getXmax(i);
+            previousSequence = Math.max(previousSequence, activeSet.getSequence(i));
+            activeSet.remove(i);
+        }
+        Assert.assertTrue(activeSet.isEmpty());
+        Assert.assertEquals(499, previousSequence);
+    }
+
+    @Test
+    public void overlapsY() {
+        SpatialActiveSet activeSet = new SpatialActiveSet();
+        activeSet.add(new TuplePointer(0, 0), 0, 0.0, 2.0, 1.0, 4.0);
+        Assert.assertTrue(activeSet.overlapsY(0, 3.0, 5.0));
+        Assert.assertTrue(activeSet.overlapsY(0, 4.0, 4.0));
+        Assert.assertFalse(activeSet.overlapsY(0, 4.5, 5.0));
+        Assert.assertFalse(activeSet.overlapsY(0, 0.0, 1.9));
+
+        activeSet.search(4.5, 5.0);
+        Assert.assertEquals(-1, activeSet.nextSearchResult());
+        activeSet.search(3.0, 3.0);
+        Assert.assertEquals(0, activeSet.nextSearchResult());
+        activeSet.remove(0);
+        Assert.assertTrue(activeSet.isEmpty());
+        activeSet.clear();
+        Assert.assertEquals(-1, activeSet.peekExpiring());
+    }
+}
@@ -21,7 +21,9 @@ package org.apache.asterix.transaction.management.service.logging;
 import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.context.PrimaryIndexOperationTracker;
 import org.apache.asterix.common.exceptions.ACIDException;
@@ -46,12 +48,23 @@ public class LogBuffer implements ILogBuffer {
 
     public static final boolean IS_DEBUG_MODE = false;//true
     private static final Logger LOGGER = LogManager.getLogger();
+    // the low 32 bits of the reservation state hold the reserved offset; this bit marks them closed to reservations
+    private static final long SEALED = 0x80000000L;
+    private static final long OFFSET_MASK = 0x7FFFFFFFL;
+    private static final int MAX_SPINS = 128;
     private final ITransactionSubsystem txnSubsystem;
     private final LogBufferTailReader logBufferTailReader;
     private final int logPageSize;
     private final MutableLong flushLSN;
     private final AtomicBoolean full;
-    protected int appendOffset;
+    // the high 32 bits count buffer reuses so that a stale reservation attempt can never succeed after a reset
+    private final AtomicLong reservation;
+    private final long groupCommitWindowNanos;
+    private final LogFlushStatistics flushStats;
+    private volatile long firstLsn;
+    private long previousEndLsn;
+    private volatile int capacity;
+    protected volatile int appendOffset;
     private int flushOffset;
     protected final ByteBuffer appendBuffer;
     private final ByteBuffer flushBuffer;
@@ -65,14 +78,22 @@ public class LogBuffer implements ILogBuffer {
     private final DatasetId reusableDatasetId;
 
     public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN) {
+        this(txnSubsystem, logPageSize, flushLSN, 0, new LogFlushStatistics());
+    }
+
+    public LogBuffer(ITransactionSubsystem txnSubsystem, int logPageSize, MutableLong flushLSN,
+            long groupCommitWindowNanos, LogFlushStatistics flushStats) {
         this.txnSubsystem = txnSubsystem;
         this.logPageSize = logPageSize;
         this.flushLSN = flushLSN;
+        this.groupCommitWindowNanos = groupCommitWindowNanos;
+        this.flushStats = flushStats;
         appendBuffer = ByteBuffer.allocate(logPageSize);
         flushBuffer = appendBuffer.duplicate();
         unlockBuffer = appendBuffer.duplicate();
         logBufferTailReader = getLogBufferTailReader();
         full = new AtomicBoolean(false);
+        reservation = new AtomicLong(SEALED);
         appendOffset = 0;
         flushOffset = 0;
         syncCommitQ = new LinkedBlockingQueue<>(logPageSize / LogConstants.JOB_TERMINATE_LOG_SIZE);
@@ -87,14 +108,38 @@ public class LogBuffer implements ILogBuffer {
     ////////////////////////////////////
 
     @Override
-    public void append(ILogRecord logRecord, long appendLsn) {
-        logRecord.writeLogRecord(appendBuffer);
+    public long reserve(int logSize) {
+        while (true) {
+            final long state = reservation.get();
+            final long offset = state & (SEALED | OFFSET_MASK);
+            if (offset + logSize > capacity) {
+                // sealed offsets always exceed the capacity
+                return -1;
+            }
+            if (reservation.compareAndSet(state, state + logSize)) {
+                return firstLsn + offset;
+            }
+        }
+    }
 
-        if (isLocalTransactionLog(logRecord)) {
-            logRecord.getTxnCtx().setLastLSN(appendLsn);
+    @Override
+    public void append(ILogRecord logRecord, long appendLsn) {
+        final int offset = (int) (appendLsn - firstLsn);
+        final ByteBuffer target = appendBuffer.duplicate();
+        target.position(offset);
+        try {
+            logRecord.writeLogRecord(target);
+        } catch (RuntimeException e) {
+            abandon(offset, logRecord.getLogSize());
+            throw e;
         }
 
+        // records are copied concurrently but made visible to the flusher in lsn order
+        awaitAppendOffset(offset);
         synchronized (this) {
+            if (isLocalTransactionLog(logRecord)) {
+                logRecord.getTxnCtx().setLastLSN(appendLsn);
+            }
             appendOffset += logRecord.getLogSize();
             if (IS_DEBUG_MODE) {
                 LOGGER.info("append()| appendOffset: " + appendOffset);
@@ -114,6 +159,35 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
+    /**
+     * Fills space reserved for a log record that could not be written and makes it visible to the flusher, so that
+     * the appends to the following space and the sealing of the buffer do not wait for it forever.
+     */
+    private void abandon(int offset, int logSize) {
+        final ByteBuffer target = appendBuffer.duplicate();
+        target.position(offset);
+        try {
+            LogRecord.writeFiller(target, logSize);
+        } finally {
+            awaitAppendOffset(offset);
+            synchronized (this) {
+                appendOffset += logSize;
+                this.notify();
+            }
+        }
+    }
+
+    private void awaitAppendOffset(int offset) {
+        int spins = 0;
+        while (appendOffset != offset) {
+            if (++spins < MAX_SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
     private boolean syncPendingNonFlushLog(ILogRecord logRecord) {
         return logRecord.getLogType() == LogType.JOB_COMMIT || logRecord.getLogType() == LogType.ABORT
                 || logRecord.getLogType() == LogType.WAIT || logRecord.getLogType() == LogType.WAIT_FOR_FLUSHES;
@@ -130,18 +204,35 @@ public class LogBuffer implements ILogBuffer {
     }
 
     @Override
-    public synchronized void setFull() {
-        this.full.set(true);
-        this.notify();
+    public void setFull() {
+        awaitAppendOffset(seal());
+        synchronized (this) {
+            this.full.set(true);
+            this.notify();
+        }
+    }
+
+    private int seal() {
+        long state = reservation.get();
+        while ((state & SEALED) == 0 && !reservation.compareAndSet(state, state | SEALED)) {
+            state = reservation.get();
+        }
+        return (int) (state & OFFSET_MASK);
     }
 
     @Override
     public boolean hasSpace(int logSize) {
-        return appendOffset + logSize <= logPageSize && !full.get();
+        final long offset = reservation.get() & (SEALED | OFFSET_MASK);
+        return offset + logSize <= capacity && !full.get();
     }
 
     @Override
-    public void reset() {
+    public long getAppendLSN() {
+        return firstLsn + (reservation.get() & OFFSET_MASK);
+    }
+
+    @Override
+    public void reset(long previousEndLsn, long firstLsn, int capacity) {
         appendBuffer.position(0);
         appendBuffer.limit(logPageSize);
         flushBuffer.position(0);
@@ -152,6 +243,12 @@ public class LogBuffer implements ILogBuffer {
         appendOffset = 0;
         flushOffset = 0;
         stop = false;
+        this.previousEndLsn = previousEndLsn;
+        this.firstLsn = firstLsn;
+        this.capacity = Math.min(capacity, logPageSize);
+        // open the buffer to reservations only after everything else is in place
+        final long generation = (reservation.get() >>> Integer.SIZE) + 1;
+        reservation.set(generation << Integer.SIZE);
     }
 
     ////////////////////////////////////
@@ -163,6 +260,7 @@ public class LogBuffer implements ILogBuffer {
         boolean interrupted = false;
         try {
             int endOffset;
+            long batchStartTime;
             while (!full.get()) {
                 try {
                     synchronized (this) {
@@ -176,14 +274,22 @@ public class LogBuffer implements ILogBuffer {
                             }
                             wait();
                         }
+                        batchStartTime = System.nanoTime();
+                        if (groupCommitWindowNanos > 0 && appendOffset > flushOffset) {
+                            awaitGroupCommit(batchStartTime);
+                        }
                         endOffset = appendOffset;
                     }
-                    internalFlush(flushOffset, endOffset);
+                    internalFlush(flushOffset, endOffset, batchStartTime);
                 } catch (InterruptedException e) {
                     interrupted = true;
                 }
             }
-            internalFlush(flushOffset, appendOffset);
+            internalFlush(flushOffset, appendOffset, System.nanoTime());
+            if (appendOffset == 0) {
+                // nothing was appended, but the flushed lsn must still move past this buffer
+                publishFlushLSN(0, 0);
+            }
         } finally {
             if (interrupted) {
                 Thread.currentThread().interrupt();
@@ -191,17 +297,27 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
-    private void internalFlush(int beginOffset, int endOffset) {
+    /**
+     * Gives concurrent appenders up to the group commit window to add to the current batch so that a single fsync
+     * covers them all. The wait ends early once the buffer is full or stopped.
+     */
+    private void awaitGroupCommit(long batchStartTime) throws InterruptedException {
+        long remaining = groupCommitWindowNanos;
+        while (remaining > 0 && !full.get() && !stop) {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+            remaining = groupCommitWindowNanos - (System.nanoTime() - batchStartTime);
+        }
+    }
+
+    private void internalFlush(int beginOffset, int endOffset, long batchStartTime) {
         try {
             if (endOffset > beginOffset) {
                 flushBuffer.limit(endOffset);
                 fileChannel.write(flushBuffer);
                 fileChannel.force(false);
+                flushStats.batchFlushed(endOffset - beginOffset, System.nanoTime() - batchStartTime);
                 flushOffset = endOffset;
-                synchronized (flushLSN) {
-                    flushLSN.set(flushLSN.get() + (endOffset - beginOffset));
-                    flushLSN.notifyAll(); //notify to LogReaders if any
-                }
+                publishFlushLSN(beginOffset, endOffset);
                 if (IS_DEBUG_MODE) {
                     LOGGER.info("internalFlush()| flushOffset: " + flushOffset + ", flushLSN: " + flushLSN.get());
                 }
@@ -212,6 +328,30 @@ public class LogBuffer implements ILogBuffer {
         }
     }
 
+    /**
+     * Advances the flushed lsn to the end of the flushed range. When log files are striped, buffers are flushed by
+     * multiple flushers, so a range is only published once everything preceding it is flushed. This keeps the log
+     * durable as a prefix and commits from being acknowledged before the logs they depend on.
+     */
+    private void publishFlushLSN(int beginOffset, int endOffset) {
+        final long precedingLsn = beginOffset == 0 ? previousEndLsn : firstLsn + beginOffset;
+        boolean interrupted = false;
+        synchronized (flushLSN) {
+            while (flushLSN.get() < precedingLsn) {
+                try {
+                    flushLSN.wait();
+                } catch (InterruptedException e) { //NOSONAR LogFlusher should survive interrupts
+                    interrupted = true;
+                }
+            }
+            flushLSN.set(Math.max(flushLSN.get(), firstLsn + endOffset));
+            flushLSN.notifyAll(); //notify to LogReaders if any
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
     private LogBufferTailReader getLogBufferTailReader() {
         return new LogBufferTailReader(unlockBuffer);
     }
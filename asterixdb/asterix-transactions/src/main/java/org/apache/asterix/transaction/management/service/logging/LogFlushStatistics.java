@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Statistics of the batches forced to disk by the log flusher. Each batch contributes its size in bytes and the time
+ * (in nanoseconds) between the flusher picking up the batch and the batch becoming durable, which includes the group
+ * commit window and the fsync. Both are kept in histograms with power-of-two buckets.
+ */
+public class LogFlushStatistics {
+
+    private final Histogram batchSizes = new Histogram();
+    private final Histogram batchWaitTimes = new Histogram();
+
+    public void batchFlushed(long sizeInBytes, long waitTimeNanos) {
+        batchSizes.add(sizeInBytes);
+        batchWaitTimes.add(waitTimeNanos);
+    }
+
+    public Histogram getBatchSizes() {
+        return batchSizes;
+    }
+
+    public Histogram getBatchWaitTimes() {
+        return batchWaitTimes;
+    }
+
+    @Override
+    public String toString() {
+        return "batchSizes: " + batchSizes + ", batchWaitTimesNanos: " + batchWaitTimes;
+    }
+
+    /**
+     * A histogram of non-negative values where bucket i counts the values in [2^(i-1), 2^i) and bucket 0 counts zeros.
+     */
+    public static class Histogram {
+        public static final int NUM_BUCKETS = Long.SIZE + 1;
+        private static final int COUNT = 0;
+        private static final int SUM = 1;
+        private static final int MAX = 2;
+        private final AtomicLongArray buckets = new AtomicLongArray(NUM_BUCKETS);
+        private final AtomicLongArray totals = new AtomicLongArray(3);
+
+        public void add(long value) {
+            final long v = Math.max(0, value);
+            buckets.incrementAndGet(getBucket(v));
+            totals.incrementAndGet(COUNT);
+            totals.addAndGet(SUM, v);
+            long max = totals.get(MAX);
+            while (v > max && !totals.compareAndSet(MAX, max, v)) {
+                max = totals.get(MAX);
+            }
+        }
+
+        public static int getBucket(long value) {
+            return Long.SIZE - Long.numberOfLeadingZeros(value);
+        }
+
+        public long getBucketCount(int bucket) {
+            return buckets.get(bucket);
+        }
+
+        public long getCount() {
+            return totals.get(COUNT);
+        }
+
+        public long getSum() {
+            return totals.get(SUM);
+        }
+
+        public long getMax() {
+            return totals.get(MAX);
+        }
+
+        /**
+         * @return an upper bound of the value at the requested percentile (0 to 100), or 0 if no values were added
+         */
+        public long getPercentile(double percentile) {
+            final long count = getCount();
+            if (count == 0) {
+                return 0;
+            }
+            final long rank = (long) Math.ceil(count * Math.min(100, Math.max(0, percentile)) / 100.0);
+            long seen = 0;
+            for (int i = 0; i < NUM_BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= Math.max(1, rank)) {
+                    return Math.min(getMax(), upperBound(i));
+                }
+            }
+            return getMax();
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket >= Long.SIZE - 1 ? Long.MAX_VALUE : (1L << bucket) - 1;
+        }
+
+        @Override
+        public String toString() {
+            final long count = getCount();
+            return "{count: " + count + ", avg: " + (count == 0 ? 0 : getSum() / count) + ", p50: " + getPercentile(50)
+                    + ", p99: " + getPercentile(99) + ", max: " + getMax() + "}";
+        }
+    }
+}
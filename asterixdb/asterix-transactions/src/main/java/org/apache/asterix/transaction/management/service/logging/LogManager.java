@@ -22,19 +22,27 @@ import java.io.File;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
 import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.Deque;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.asterix.common.exceptions.ACIDException;
@@ -64,26 +72,36 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     private static final long SMALLEST_LOG_FILE_ID = 0;
     private static final int INITIAL_LOG_SIZE = 0;
     private static final boolean IS_DEBUG_MODE = false;
+    private static final String LOG_FILE_END_PREFIX = "eof_";
 
     private final ITransactionSubsystem txnSubsystem;
     private final LogManagerProperties logManagerProperties;
     private final int numLogPages;
-    private final String logDir;
+    // the log files are striped round robin across these directories by log file id
+    private final String[] logDirs;
+    private final boolean striped;
     private final String logFilePrefix;
     private final MutableLong flushLSN;
     private final String nodeId;
     private final long logFileSize;
     private final int logPageSize;
+    // the lsn at which the current append page starts or, after a log file switch, the first lsn of the new file
     private final AtomicLong appendLSN;
     private final long maxLogRecordSize;
+    private final long groupCommitWindowNanos;
+    private final LogFlushStatistics flushStats;
 
     private LinkedBlockingQueue<ILogBuffer> emptyQ;
-    private LinkedBlockingQueue<ILogBuffer> flushQ;
+    private List<LinkedBlockingQueue<ILogBuffer>> flushQs;
     private LinkedBlockingQueue<ILogBuffer> stashQ;
     private FileChannel appendChannel;
-    private ILogBuffer appendPage;
-    private LogFlusher logFlusher;
-    private Future<?> futureLogFlusher;
+    private volatile ILogBuffer appendPage;
+    private List<LogFlusher> logFlushers;
+    private List<Future<?>> futureLogFlushers;
+    // log files that were switched from but might still have pages pending on their stripe's flusher
+    private final Deque<RetiredLogFile> retiredLogFiles = new ArrayDeque<>();
+    // the log files whose end is recorded by the flusher of the first page of the following log file
+    private final Map<ILogBuffer, RetiredLogFile> logFileEnds = new ConcurrentHashMap<>();
     private LinkedBlockingQueue<ILogRecord> flushLogsQ;
     private long currentLogFileId;
 
@@ -95,23 +113,33 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         maxLogRecordSize = logFileSize - 1;
         logPageSize = logManagerProperties.getLogPageSize();
         numLogPages = logManagerProperties.getNumLogPages();
-        logDir = logManagerProperties.getLogDir();
+        logDirs = logManagerProperties.getLogDirs();
+        striped = logDirs.length > 1;
         logFilePrefix = logManagerProperties.getLogFilePrefix();
+        groupCommitWindowNanos = TimeUnit.MICROSECONDS.toNanos(logManagerProperties.getGroupCommitWindow());
+        flushStats = new LogFlushStatistics();
         flushLSN = new MutableLong();
         appendLSN = new AtomicLong();
         nodeId = txnSubsystem.getId();
         flushLogsQ = new LinkedBlockingQueue<>();
         txnSubsystem.getApplicationContext().getThreadExecutor().execute(new FlushLogsLogger());
+        if (striped) {
+            truncateAtFirstIncompleteLogFile();
+        }
         final long onDiskMaxLogFileId = getOnDiskMaxLogFileId();
         initializeLogManager(onDiskMaxLogFileId);
     }
 
     private void initializeLogManager(long nextLogFileId) {
         emptyQ = new LinkedBlockingQueue<>(numLogPages);
-        flushQ = new LinkedBlockingQueue<>(numLogPages);
+        flushQs = new ArrayList<>(logDirs.length);
+        for (int i = 0; i < logDirs.length; i++) {
+            flushQs.add(new LinkedBlockingQueue<>(numLogPages));
+        }
         stashQ = new LinkedBlockingQueue<>(numLogPages);
+        logFileEnds.clear();
         for (int i = 0; i < numLogPages; i++) {
-            emptyQ.add(new LogBuffer(txnSubsystem, logPageSize, flushLSN));
+            emptyQ.add(newLogBuffer(logPageSize));
         }
         appendLSN.set(initializeLogAnchor(nextLogFileId));
         flushLSN.set(appendLSN.get());
@@ -123,10 +151,16 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         } catch (IOException e) {
             throw new ACIDException(e);
         }
-        initNewPage(INITIAL_LOG_SIZE);
-        logFlusher = new LogFlusher(this, emptyQ, flushQ, stashQ);
-        futureLogFlusher =
-                ((ExecutorService) txnSubsystem.getApplicationContext().getThreadExecutor()).submit(logFlusher);
+        initNewPage(appendLSN.get(), INITIAL_LOG_SIZE, null);
+        // one flusher per stripe so that the log files of different stripes are written and forced in parallel
+        final ExecutorService executor = (ExecutorService) txnSubsystem.getApplicationContext().getThreadExecutor();
+        logFlushers = new ArrayList<>(flushQs.size());
+        futureLogFlushers = new ArrayList<>(flushQs.size());
+        for (LinkedBlockingQueue<ILogBuffer> flushQ : flushQs) {
+            final LogFlusher logFlusher = new LogFlusher(this, emptyQ, flushQ, stashQ);
+            logFlushers.add(logFlusher);
+            futureLogFlushers.add(executor.submit(logFlusher));
+        }
     }
 
     @Override
@@ -176,7 +210,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         return logType == LogType.JOB_COMMIT || logType == LogType.ABORT || logType == LogType.WAIT;
     }
 
-    synchronized void syncAppendToLogTail(ILogRecord logRecord) {
+    void syncAppendToLogTail(ILogRecord logRecord) {
         if (logRecord.getLogSource() == LogSource.LOCAL && logRecord.getLogType() != LogType.FLUSH
                 && logRecord.getLogType() != LogType.WAIT && logRecord.getLogType() != LogType.WAIT_FOR_FLUSHES) {
             ITransactionContext txnCtx = logRecord.getTxnCtx();
@@ -185,26 +219,53 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                         "Aborted txn(" + txnCtx.getTxnId() + ") tried to write non-abort type log record.");
             }
         }
+        // fast path: reserve space in the current page without blocking concurrent appenders
+        final ILogBuffer page = appendPage;
+        final long lsn = page.reserve(logRecord.getLogSize());
+        if (lsn >= 0) {
+            append(page, logRecord, lsn);
+        } else {
+            appendToNextPage(logRecord);
+        }
+    }
+
+    private synchronized void appendToNextPage(ILogRecord logRecord) {
         final int logSize = logRecord.getLogSize();
-        ensureSpace(logSize);
+        // another appender might have already switched pages
+        long lsn = appendPage.reserve(logSize);
+        while (lsn < 0) {
+            lsn = ensureSpace(logSize);
+        }
+        append(appendPage, logRecord, lsn);
+    }
+
+    private static void append(ILogBuffer page, ILogRecord logRecord, long lsn) {
         if (logRecord.getLogType() == LogType.FLUSH) {
-            logRecord.setLSN(appendLSN.get());
+            logRecord.setLSN(lsn);
         }
-        appendPage.append(logRecord, appendLSN.get());
+        page.append(logRecord, lsn);
         if (logRecord.isMarker()) {
-            logRecord.logAppended(appendLSN.get());
+            logRecord.logAppended(lsn);
         }
-        appendLSN.addAndGet(logSize);
     }
 
-    private void ensureSpace(int logSize) {
+    private long ensureSpace(int logSize) {
+        closeAppendPage();
+        final long previousPageEndLsn = appendLSN.get();
+        RetiredLogFile previousLogFile = null;
         if (!fileHasSpace(logSize)) {
-            ensureLastPageFlushed();
-            prepareNextLogFile();
-        }
-        if (!appendPage.hasSpace(logSize)) {
-            prepareNextPage(logSize);
+            if (!striped) {
+                ensureLastPageFlushed();
+            }
+            previousLogFile = prepareNextLogFile();
         }
+        return initNewPage(previousPageEndLsn, logSize, previousLogFile);
+    }
+
+    private void closeAppendPage() {
+        // stops reservations on the current page and waits for the appends to the already reserved space
+        appendPage.setFull();
+        appendLSN.set(getAppendLSN());
     }
 
     private boolean fileHasSpace(int logSize) {
@@ -219,57 +280,87 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         return getLogFileOffset(appendLSN.get()) + logSize < logFileSize;
     }
 
-    private void prepareNextPage(int logSize) {
-        appendPage.setFull();
-        initNewPage(logSize);
-    }
-
-    private void initNewPage(int logSize) {
+    /**
+     * Installs a new append page starting at the current append LSN
+     *
+     * @param previousPageEndLsn
+     *            the end of the previous page. The new page is only considered flushed once the log up to this lsn is.
+     * @param previousLogFile
+     *            the striped log file that was just switched from or null. Its end is recorded before the new page,
+     *            the first one of the next log file, is flushed.
+     * @return the lsn reserved in the new page for a log record of size logSize
+     */
+    private long initNewPage(long previousPageEndLsn, int logSize, RetiredLogFile previousLogFile) {
         boolean largePage = logSize > logPageSize;
         // if a new large page will be allocated, we need to stash a normal sized page
         // since our queues have fixed capacity
-        ensureAvailablePage(largePage);
+        ILogBuffer newPage = ensureAvailablePage(largePage);
         if (largePage) {
             // for now, alloc a new buffer for each large page
             // TODO: pool large pages??
-            appendPage = new LogBuffer(txnSubsystem, logSize, flushLSN);
-        } else {
-            appendPage.reset();
+            newPage = newLogBuffer(logSize);
+        }
+        final long firstLsn = appendLSN.get();
+        // never let a reservation reach the last offset of the current file
+        final long fileSpace = logFileSize - 1 - getLogFileOffset(firstLsn);
+        newPage.reset(previousPageEndLsn, firstLsn, (int) Math.min(newPage.getLogPageSize(), fileSpace));
+        // reserve before publishing the page so that concurrent appenders cannot take the space
+        final long lsn = newPage.reserve(logSize);
+        newPage.setFileChannel(appendChannel);
+        if (previousLogFile != null) {
+            logFileEnds.put(newPage, previousLogFile);
         }
-        appendPage.setFileChannel(appendChannel);
-        flushQ.add(appendPage);
+        flushQs.get(getStripe(getLogFileId(firstLsn))).add(newPage);
+        appendPage = newPage;
+        return lsn;
     }
 
-    private void ensureAvailablePage(boolean stash) {
-        final ILogBuffer currentPage = appendPage;
-        appendPage = null;
+    private ILogBuffer ensureAvailablePage(boolean stash) {
         try {
-            appendPage = emptyQ.take();
+            final ILogBuffer page = emptyQ.take();
             if (stash) {
-                stashQ.add(appendPage);
+                stashQ.add(page);
             }
+            return page;
         } catch (InterruptedException e) {
-            appendPage = currentPage;
             Thread.currentThread().interrupt();
             throw new ACIDException(e);
         }
     }
 
-    private void prepareNextLogFile() {
+    private LogBuffer newLogBuffer(int pageSize) {
+        return new LogBuffer(txnSubsystem, pageSize, flushLSN, groupCommitWindowNanos, flushStats);
+    }
+
+    /**
+     * @return the log file that was switched from when striped, null otherwise
+     */
+    private RetiredLogFile prepareNextLogFile() {
         final long nextFileBeginLsn = getNextFileFirstLsn();
+        RetiredLogFile retired = null;
         try {
-            closeCurrentLogFile();
+            if (striped) {
+                retired = new RetiredLogFile(currentLogFileId, appendLSN.get(), appendChannel);
+                retiredLogFiles.add(retired);
+                closeRetiredLogFiles(false);
+            } else {
+                closeCurrentLogFile();
+            }
             createNextLogFile();
             InvokeUtil.doIoUninterruptibly(() -> setLogPosition(nextFileBeginLsn));
             // move appendLSN and flushLSN to the first LSN of the next log file
-            // only after the file was created and the channel was positioned successfully
+            // only after the file was created and the channel was positioned successfully.
+            // When striped, the flushLSN moves past the end of the current file once its first page is flushed
             appendLSN.set(nextFileBeginLsn);
-            flushLSN.set(nextFileBeginLsn);
+            if (!striped) {
+                flushLSN.set(nextFileBeginLsn);
+            }
             LOGGER.info("Created new txn log file with id({}) starting with LSN = {}", currentLogFileId,
                     nextFileBeginLsn);
         } catch (IOException e) {
             throw new ACIDException(e);
         }
+        return retired;
     }
 
     private long getNextFileFirstLsn() {
@@ -279,7 +370,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
     private void ensureLastPageFlushed() {
         // Make sure to flush whatever left in the log tail.
-        appendPage.setFull();
+        closeAppendPage();
         synchronized (flushLSN) {
             while (flushLSN.get() != appendLSN.get()) {
                 // notification will come from LogBuffer.internalFlush(.)
@@ -308,7 +399,11 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
 
     @Override
     public long getAppendLSN() {
-        return appendLSN.get();
+        return Math.max(appendLSN.get(), appendPage.getAppendLSN());
+    }
+
+    public LogFlushStatistics getFlushStatistics() {
+        return flushStats;
     }
 
     @Override
@@ -353,8 +448,11 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         try {
             StringBuilder sb = new StringBuilder();
             sb.append("\n>>dump_begin\t>>----- [LSNInfo] -----");
-            sb.append("\nappendLsn: " + appendLSN);
+            sb.append("\nappendLsn: " + getAppendLSN());
             sb.append("\nflushLsn: " + flushLSN.get());
+            sb.append("\nlogDirs: " + Arrays.toString(logDirs));
+            sb.append("\ncurrentLogFileId: " + currentLogFileId + " (stripe " + getStripe(currentLogFileId) + ")");
+            sb.append("\nflushStats: " + flushStats);
             sb.append("\n>>dump_end\t>>----- [LSNInfo] -----\n");
             os.write(sb.toString().getBytes());
         } catch (Exception e) {
@@ -411,6 +509,7 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
                 //delete old log file
                 File file = new File(getLogFilePath(id));
                 file.delete();
+                new File(getLogFileEndPath(id)).delete();
                 if (LOGGER.isInfoEnabled()) {
                     LOGGER.info("Deleted log file " + file.getAbsolutePath());
                 }
@@ -422,14 +521,19 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         if (LOGGER.isInfoEnabled()) {
             LOGGER.info("Terminating LogFlusher thread ...");
         }
-        logFlusher.terminate();
-        try {
-            futureLogFlusher.get();
-        } catch (ExecutionException | InterruptedException e) {
-            if (LOGGER.isInfoEnabled()) {
-                LOGGER.info("---------- warning(begin): LogFlusher thread is terminated abnormally --------");
-                e.printStackTrace();
-                LOGGER.info("---------- warning(end)  : LogFlusher thread is terminated abnormally --------");
+        // the flushers of later stripes might wait for earlier ones, so all of them are told to stop first
+        for (LogFlusher logFlusher : logFlushers) {
+            logFlusher.terminate();
+        }
+        for (Future<?> futureLogFlusher : futureLogFlushers) {
+            try {
+                futureLogFlusher.get();
+            } catch (ExecutionException | InterruptedException e) {
+                if (LOGGER.isInfoEnabled()) {
+                    LOGGER.info("---------- warning(begin): LogFlusher thread is terminated abnormally --------");
+                    e.printStackTrace();
+                    LOGGER.info("---------- warning(end)  : LogFlusher thread is terminated abnormally --------");
+                }
             }
         }
         if (LOGGER.isInfoEnabled()) {
@@ -438,6 +542,15 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
     }
 
     public List<Long> getOrderedLogFileIds() {
+        final List<Long> logFileIds = new ArrayList<>();
+        for (String logDir : logDirs) {
+            logFileIds.addAll(getLogFileIds(logDir));
+        }
+        logFileIds.sort(Long::compareTo);
+        return logFileIds;
+    }
+
+    private List<Long> getLogFileIds(String logDir) {
         File fileLogDir = new File(logDir);
         String[] logFileNames = null;
         List<Long> logFileIds = null;
@@ -461,12 +574,87 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         for (String fileName : logFileNames) {
             logFileIds.add(Long.parseLong(fileName.substring(logFilePrefix.length() + 1)));
         }
-        logFileIds.sort(Long::compareTo);
         return logFileIds;
     }
 
+    private int getStripe(long fileId) {
+        return (int) (fileId % logDirs.length);
+    }
+
     private String getLogFilePath(long fileId) {
-        return logDir + File.separator + logFilePrefix + "_" + fileId;
+        return logDirs[getStripe(fileId)] + File.separator + logFilePrefix + "_" + fileId;
+    }
+
+    private String getLogFileEndPath(long fileId) {
+        return logDirs[getStripe(fileId)] + File.separator + LOG_FILE_END_PREFIX + logFilePrefix + "_" + fileId;
+    }
+
+    /**
+     * Called by the flusher of a log page before it writes the page. If the page is the first one of a striped log
+     * file, the end of the previous log file is forced to disk first. The end of a log file must be durable before
+     * anything is written to the next one so that a partially flushed log file is detected on restart rather than
+     * silently skipped.
+     */
+    void recordLogFileEnd(ILogBuffer page) throws IOException {
+        final RetiredLogFile previousLogFile = logFileEnds.remove(page);
+        if (previousLogFile != null) {
+            final long fileEndOffset = getLogFileOffset(previousLogFile.endLsn);
+            InvokeUtil.doIoUninterruptibly(() -> writeLogFileEnd(previousLogFile.fileId, fileEndOffset));
+        }
+    }
+
+    private void writeLogFileEnd(long fileId, long fileEndOffset) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES);
+        buffer.putLong(fileEndOffset).flip();
+        try (FileChannel channel = FileChannel.open(Paths.get(getLogFileEndPath(fileId)), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+    }
+
+    /**
+     * @return the end offset recorded when switching from the log file or -1 if none was recorded
+     */
+    private long readLogFileEnd(long fileId) throws IOException {
+        final Path path = Paths.get(getLogFileEndPath(fileId));
+        if (!Files.exists(path)) {
+            return -1;
+        }
+        final byte[] bytes = Files.readAllBytes(path);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : -1;
+    }
+
+    /**
+     * The log files of different stripes are flushed independently, so a crash might leave a log file that misses its
+     * tail while later files are complete. Nothing after such a hole was ever reported as flushed, so the later log
+     * files are dropped and logging resumes at the end of the incomplete file.
+     */
+    private void truncateAtFirstIncompleteLogFile() {
+        final List<Long> logFileIds = getOrderedLogFileIds();
+        int firstDropped = logFileIds.size();
+        try {
+            for (int i = 0; i < logFileIds.size() - 1; i++) {
+                final long fileId = logFileIds.get(i);
+                final long fileEndOffset = readLogFileEnd(fileId);
+                if (logFileIds.get(i + 1) != fileId + 1
+                        || (fileEndOffset >= 0 && new File(getLogFilePath(fileId)).length() < fileEndOffset)) {
+                    LOGGER.warn("log file with id({}) is incomplete; dropping the log files after it", fileId);
+                    firstDropped = i + 1;
+                    break;
+                }
+            }
+            for (int i = firstDropped; i < logFileIds.size(); i++) {
+                final long fileId = logFileIds.get(i);
+                Files.delete(Paths.get(getLogFilePath(fileId)));
+                Files.deleteIfExists(Paths.get(getLogFileEndPath(fileId)));
+                LOGGER.warn("Deleted log file with id({})", fileId);
+            }
+        } catch (IOException e) {
+            throw new ACIDException(e);
+        }
     }
 
     private long getLogFileOffset(long lsn) {
@@ -502,6 +690,8 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
             LOGGER.warn("Ignored create log file {} since file already exists", nextFilePath.toString());
             return;
         }
+        // the stripe directories are only created once the first log file is switched to them
+        Files.createDirectories(nextFilePath.getParent());
         Files.createFile(nextFilePath);
     }
 
@@ -515,7 +705,27 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         currentLogFileId = fileId;
     }
 
+    /**
+     * Closes the log files that were switched from once all of their pages are flushed
+     *
+     * @param all
+     *            close all of them regardless. Only valid once the log flushers are terminated.
+     */
+    private void closeRetiredLogFiles(boolean all) {
+        while (!retiredLogFiles.isEmpty() && (all || retiredLogFiles.peek().endLsn <= flushLSN.get())) {
+            final RetiredLogFile retired = retiredLogFiles.poll();
+            try {
+                LOGGER.info("closing log file with id({})", retired.fileId);
+                retired.channel.close();
+            } catch (IOException e) {
+                LOGGER.error(() -> "failed to close log file with id(" + retired.fileId + ")", e);
+                throw new ACIDException(e);
+            }
+        }
+    }
+
     private void closeCurrentLogFile() {
+        closeRetiredLogFiles(true);
         if (appendChannel != null && appendChannel.isOpen()) {
             try {
                 LOGGER.info("closing current log file with id({})", currentLogFileId);
@@ -595,6 +805,18 @@ public class LogManager implements ILogManager, ILifeCycleComponent {
         return logFileIds.get(logFileIds.size() - 1);
     }
 
+    private static class RetiredLogFile {
+        private final long fileId;
+        private final long endLsn;
+        private final FileChannel channel;
+
+        RetiredLogFile(long fileId, long endLsn, FileChannel channel) {
+            this.fileId = fileId;
+            this.endLsn = endLsn;
+            this.channel = channel;
+        }
+    }
+
     /**
      * This class is used to log FLUSH logs.
      * FLUSH logs are flushed on a different thread to avoid a possible deadlock in {@link LogBuffer} batchUnlock
@@ -662,6 +884,7 @@ class LogFlusher implements Callable<Boolean> {
                 if (flushPage == POISON_PILL) {
                     return true;
                 }
+                logMgr.recordLogFileEnd(flushPage);
                 flushPage.flush(stopping);
 
                 // TODO(mblow): recycle large pages
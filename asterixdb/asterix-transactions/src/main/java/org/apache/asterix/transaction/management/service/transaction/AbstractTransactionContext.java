@@ -60,8 +60,9 @@ public abstract class AbstractTransactionContext implements ITransactionContext
 
     @Override
     public void setLastLSN(long newValue) {
-        firstLSN.compareAndSet(-1, newValue);
-        lastLSN.set(Math.max(lastLSN.get(), newValue));
+        // logs of a transaction are appended concurrently, possibly out of lsn order, from several partitions
+        firstLSN.accumulateAndGet(newValue, (current, lsn) -> current < 0 ? lsn : Math.min(current, lsn));
+        lastLSN.accumulateAndGet(newValue, Math::max);
     }
 
     @Override
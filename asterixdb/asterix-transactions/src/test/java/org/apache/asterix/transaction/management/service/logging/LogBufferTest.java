@@ -0,0 +1,334 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import java.io.File;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.asterix.common.transactions.ILogRecord.RecordReadStatus;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.LogConstants;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.MutableLong;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.common.utils.TransactionUtil;
+import org.apache.asterix.transaction.management.service.transaction.AtomicTransactionContext;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class LogBufferTest {
+
+    private static final int PAGE_SIZE = 64 * 1024;
+    private static final long FIRST_LSN = 1000;
+
+    @Test
+    public void concurrentAppendTest() throws Exception {
+        final int numThreads = 8;
+        final int logsPerThread = 500;
+        final MutableLong flushLSN = new MutableLong();
+        flushLSN.set(FIRST_LSN);
+        final LogFlushStatistics stats = new LogFlushStatistics();
+        final LogBuffer buffer = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, stats);
+        final File file = File.createTempFile("LogBufferTest", ".log");
+        file.deleteOnExit();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            final FileChannel channel = raf.getChannel();
+            buffer.reset(FIRST_LSN, FIRST_LSN, PAGE_SIZE);
+            buffer.setFileChannel(channel);
+            final Thread flusher = new Thread(() -> buffer.flush(false));
+            flusher.start();
+            final List<Thread> appenders = new ArrayList<>();
+            final List<Long> rejected = new ArrayList<>();
+            for (int t = 0; t < numThreads; t++) {
+                final int threadId = t;
+                Thread appender = new Thread(() -> {
+                    for (int i = 0; i < logsPerThread; i++) {
+                        LogRecord logRecord = createLog(threadId * logsPerThread + i);
+                        long lsn = buffer.reserve(logRecord.getLogSize());
+                        if (lsn < 0) {
+                            synchronized (rejected) {
+                                rejected.add(logRecord.getTxnId());
+                            }
+                            continue;
+                        }
+                        buffer.append(logRecord, lsn);
+                    }
+                });
+                appenders.add(appender);
+                appender.start();
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            buffer.setFull();
+            flusher.join();
+            Assert.assertTrue(buffer.reserve(1) < 0);
+
+            final long logSize = createLog(0).getLogSize();
+            final int appended = numThreads * logsPerThread - rejected.size();
+            Assert.assertEquals(PAGE_SIZE / logSize, appended);
+            Assert.assertEquals(FIRST_LSN + appended * logSize, buffer.getAppendLSN());
+            Assert.assertEquals(buffer.getAppendLSN(), flushLSN.get());
+            Assert.assertEquals(appended * logSize, stats.getBatchSizes().getSum());
+
+            // every appended log must be found exactly once in the file
+            final ByteBuffer content = ByteBuffer.allocate((int) channel.size());
+            channel.read(content, 0);
+            content.flip();
+            final BitSet seen = new BitSet();
+            final LogRecord logRecord = new LogRecord();
+            while (content.hasRemaining()) {
+                Assert.assertEquals(RecordReadStatus.OK, logRecord.readLogRecord(content));
+                Assert.assertFalse(seen.get((int) logRecord.getTxnId()));
+                seen.set((int) logRecord.getTxnId());
+            }
+            Assert.assertEquals(appended, seen.cardinality());
+            for (long txnId : rejected) {
+                Assert.assertFalse(seen.get((int) txnId));
+            }
+        }
+    }
+
+    @Test
+    public void orderedFlushTest() throws Exception {
+        final MutableLong flushLSN = new MutableLong();
+        flushLSN.set(FIRST_LSN);
+        final LogFlushStatistics stats = new LogFlushStatistics();
+        final LogBuffer first = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, stats);
+        final LogBuffer second = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, stats);
+        final File firstFile = File.createTempFile("LogBufferTest", ".log");
+        final File secondFile = File.createTempFile("LogBufferTest", ".log");
+        firstFile.deleteOnExit();
+        secondFile.deleteOnExit();
+        try (RandomAccessFile firstRaf = new RandomAccessFile(firstFile, "rw");
+                RandomAccessFile secondRaf = new RandomAccessFile(secondFile, "rw")) {
+            final LogRecord logRecord = createLog(0);
+            final int logSize = logRecord.getLogSize();
+            // the second buffer starts a new log file, leaving a gap after the end of the first one
+            final long firstEnd = FIRST_LSN + logSize;
+            final long secondLsn = FIRST_LSN + PAGE_SIZE;
+            first.reset(FIRST_LSN, FIRST_LSN, PAGE_SIZE);
+            first.setFileChannel(firstRaf.getChannel());
+            second.reset(firstEnd, secondLsn, PAGE_SIZE);
+            second.setFileChannel(secondRaf.getChannel());
+            first.append(logRecord, first.reserve(logSize));
+            second.append(createLog(1), second.reserve(logSize));
+            first.setFull();
+            second.setFull();
+
+            // the second buffer is written first but must not be reported as flushed before the first one
+            final Thread secondFlusher = new Thread(() -> second.flush(false));
+            secondFlusher.start();
+            secondFlusher.join(200);
+            Assert.assertTrue(secondFlusher.isAlive());
+            Assert.assertEquals(FIRST_LSN, flushLSN.get());
+            first.flush(false);
+            secondFlusher.join();
+            Assert.assertEquals(secondLsn + logSize, flushLSN.get());
+            Assert.assertEquals(logSize, secondRaf.length());
+        }
+    }
+
+    @Test
+    public void concurrentTxnLsnTest() throws Exception {
+        final int numPartitions = 8;
+        final int logsPerPartition = 2000;
+        final MutableLong flushLSN = new MutableLong();
+        flushLSN.set(FIRST_LSN);
+        final LogFlushStatistics stats = new LogFlushStatistics();
+        // two consecutive pages, so that logs of the same transaction are appended to both of them at once
+        final LogBuffer first = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, stats);
+        final LogBuffer second = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, stats);
+        first.reset(FIRST_LSN, FIRST_LSN, PAGE_SIZE);
+        second.reset(FIRST_LSN + PAGE_SIZE, FIRST_LSN + PAGE_SIZE, PAGE_SIZE);
+        final ITransactionContext txnCtx = new AtomicTransactionContext(new TxnId(1));
+        final ITupleReference pkValue = TupleUtils.createIntegerTuple(1);
+        final AtomicLong minLsn = new AtomicLong(Long.MAX_VALUE);
+        final AtomicLong maxLsn = new AtomicLong(-1);
+        // the first log of the transaction is appended to the later page
+        final LogRecord firstLog = createEntityCommitLog(txnCtx, pkValue, 0);
+        final long firstLogLsn = second.reserve(firstLog.getLogSize());
+        second.append(firstLog, firstLogLsn);
+        minLsn.set(firstLogLsn);
+        maxLsn.set(firstLogLsn);
+        final List<Thread> appenders = new ArrayList<>();
+        for (int p = 0; p < numPartitions; p++) {
+            final int partition = p;
+            Thread appender = new Thread(() -> {
+                for (int i = 0; i < logsPerPartition; i++) {
+                    LogRecord logRecord = createEntityCommitLog(txnCtx, pkValue, partition);
+                    // alternate between the pages to append out of lsn order
+                    LogBuffer buffer = (partition + i) % 2 == 0 ? first : second;
+                    long lsn = buffer.reserve(logRecord.getLogSize());
+                    if (lsn < 0) {
+                        buffer = buffer == first ? second : first;
+                        lsn = buffer.reserve(logRecord.getLogSize());
+                        if (lsn < 0) {
+                            return;
+                        }
+                    }
+                    buffer.append(logRecord, lsn);
+                    minLsn.accumulateAndGet(lsn, Math::min);
+                    maxLsn.accumulateAndGet(lsn, Math::max);
+                }
+            });
+            appenders.add(appender);
+            appender.start();
+        }
+        for (Thread appender : appenders) {
+            appender.join();
+        }
+        Assert.assertEquals(FIRST_LSN, minLsn.get());
+        Assert.assertEquals(minLsn.get(), txnCtx.getFirstLSN());
+        Assert.assertEquals(maxLsn.get(), txnCtx.getLastLSN());
+    }
+
+    @Test
+    public void abandonedReservationTest() throws Exception {
+        final MutableLong flushLSN = new MutableLong();
+        flushLSN.set(FIRST_LSN);
+        final LogBuffer buffer = new LogBuffer(null, PAGE_SIZE, flushLSN, 0, new LogFlushStatistics());
+        final File file = File.createTempFile("LogBufferTest", ".log");
+        file.deleteOnExit();
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            buffer.reset(FIRST_LSN, FIRST_LSN, PAGE_SIZE);
+            buffer.setFileChannel(raf.getChannel());
+            // a wait sized and an entity commit sized record fail after their space was reserved
+            final LogRecord failedWait = createFailingLog(LogConstants.WAIT_LOG_SIZE);
+            final LogRecord failedCommit = createFailingLog(LogConstants.ENTITY_COMMIT_LOG_BASE_SIZE + 3);
+            final LogRecord last = createLog(2);
+            final long failedWaitLsn = buffer.reserve(failedWait.getLogSize());
+            final long failedCommitLsn = buffer.reserve(failedCommit.getLogSize());
+            final long lastLsn = buffer.reserve(last.getLogSize());
+            // the later appends wait for the space before them to be abandoned
+            final Thread appender = new Thread(() -> buffer.append(last, lastLsn));
+            final Thread failingAppender = new Thread(() -> assertAppendFails(buffer, failedCommit, failedCommitLsn));
+            appender.start();
+            failingAppender.start();
+            assertAppendFails(buffer, failedWait, failedWaitLsn);
+            failingAppender.join();
+            appender.join();
+            buffer.setFull();
+            buffer.flush(false);
+            Assert.assertEquals(lastLsn + last.getLogSize(), flushLSN.get());
+
+            final ByteBuffer content = ByteBuffer.allocate((int) raf.length());
+            raf.getChannel().read(content, 0);
+            content.flip();
+            final LogRecord logRecord = new LogRecord();
+            Assert.assertEquals(RecordReadStatus.OK, logRecord.readLogRecord(content));
+            Assert.assertEquals(LogType.WAIT, logRecord.getLogType());
+            Assert.assertEquals(-1, logRecord.getTxnId());
+            Assert.assertEquals(RecordReadStatus.OK, logRecord.readLogRecord(content));
+            Assert.assertEquals(LogSource.REMOTE, logRecord.getLogSource());
+            Assert.assertEquals(failedCommit.getLogSize(), logRecord.getLogSize());
+            Assert.assertEquals(-1, logRecord.getTxnId());
+            Assert.assertEquals(-1, logRecord.getResourcePartition());
+            Assert.assertEquals(RecordReadStatus.OK, logRecord.readLogRecord(content));
+            Assert.assertEquals(2, logRecord.getTxnId());
+            Assert.assertFalse(content.hasRemaining());
+        }
+    }
+
+    @Test
+    public void capacityTest() {
+        final LogBuffer buffer = new LogBuffer(null, PAGE_SIZE, new MutableLong(), 0, new LogFlushStatistics());
+        // buffers are closed to reservations until they are reset
+        Assert.assertTrue(buffer.reserve(1) < 0);
+        buffer.reset(FIRST_LSN, FIRST_LSN, 100);
+        Assert.assertEquals(FIRST_LSN, buffer.reserve(60));
+        Assert.assertTrue(buffer.reserve(41) < 0);
+        Assert.assertFalse(buffer.hasSpace(41));
+        Assert.assertEquals(FIRST_LSN + 60, buffer.reserve(40));
+        Assert.assertEquals(FIRST_LSN + 100, buffer.getAppendLSN());
+        buffer.reset(FIRST_LSN + 100, FIRST_LSN + 100, PAGE_SIZE * 2);
+        Assert.assertTrue(buffer.reserve(PAGE_SIZE + 1) < 0);
+        Assert.assertEquals(FIRST_LSN + 100, buffer.reserve(PAGE_SIZE));
+    }
+
+    @Test
+    public void histogramTest() {
+        final LogFlushStatistics.Histogram histogram = new LogFlushStatistics.Histogram();
+        Assert.assertEquals(0, histogram.getPercentile(50));
+        histogram.add(0);
+        histogram.add(1);
+        histogram.add(3);
+        histogram.add(1000);
+        Assert.assertEquals(1, histogram.getBucketCount(0));
+        Assert.assertEquals(1, histogram.getBucketCount(1));
+        Assert.assertEquals(1, histogram.getBucketCount(2));
+        Assert.assertEquals(1, histogram.getBucketCount(10));
+        Assert.assertEquals(4, histogram.getCount());
+        Assert.assertEquals(1004, histogram.getSum());
+        Assert.assertEquals(1000, histogram.getMax());
+        Assert.assertEquals(1, histogram.getPercentile(50));
+        Assert.assertEquals(1000, histogram.getPercentile(100));
+    }
+
+    private static LogRecord createEntityCommitLog(ITransactionContext txnCtx, ITupleReference pkValue,
+            int partition) {
+        final LogRecord logRecord = new LogRecord();
+        logRecord.setLogSource(LogSource.LOCAL);
+        TransactionUtil.formEntityCommitLogRecord(logRecord, txnCtx, 0, 1, pkValue, new int[] { 0 }, partition,
+                LogType.ENTITY_COMMIT);
+        return logRecord;
+    }
+
+    private static void assertAppendFails(LogBuffer buffer, LogRecord logRecord, long lsn) {
+        try {
+            buffer.append(logRecord, lsn);
+            Assert.fail("the append should have failed");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    private static LogRecord createFailingLog(int logSize) {
+        final LogRecord logRecord = new LogRecord() {
+            @Override
+            public void writeLogRecord(ByteBuffer buffer) {
+                buffer.putLong(Long.MAX_VALUE);
+                throw new IllegalStateException("failed to write the log record");
+            }
+        };
+        logRecord.setLogSource(LogSource.REMOTE);
+        logRecord.setLogType(LogType.UPDATE);
+        logRecord.setLogSize(logSize);
+        return logRecord;
+    }
+
+    private static LogRecord createLog(long txnId) {
+        final LogRecord logRecord = new LogRecord();
+        logRecord.setLogSource(LogSource.REMOTE);
+        logRecord.setLogType(LogType.WAIT);
+        logRecord.setTxnId(txnId);
+        logRecord.computeAndSetLogSize();
+        return logRecord;
+    }
+}
@@ -0,0 +1,207 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.asterix.transaction.management.service.logging;
+
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.asterix.common.api.INcApplicationContext;
+import org.apache.asterix.common.config.TransactionProperties;
+import org.apache.asterix.common.transactions.ILogBuffer;
+import org.apache.asterix.common.transactions.ILogReader;
+import org.apache.asterix.common.transactions.ILogRecord;
+import org.apache.asterix.common.transactions.ITransactionContext;
+import org.apache.asterix.common.transactions.ITransactionSubsystem;
+import org.apache.asterix.common.transactions.LogRecord;
+import org.apache.asterix.common.transactions.LogSource;
+import org.apache.asterix.common.transactions.LogType;
+import org.apache.asterix.common.transactions.TxnId;
+import org.apache.asterix.common.utils.TransactionUtil;
+import org.apache.asterix.transaction.management.service.transaction.AtomicTransactionContext;
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class LogManagerStripingTest {
+
+    private static final String NODE_ID = "nc1";
+    private static final int PAGE_SIZE = 4096;
+    private static final int NUM_PAGES = 8;
+    private static final int NUM_DIRS = 4;
+    private static final int NUM_APPENDERS = 4;
+    private static final int LOGS_PER_APPENDER = 2000;
+    // the number of log files being written at the same time and its maximum
+    private static final AtomicInteger writingLogFiles = new AtomicInteger();
+    private static final AtomicInteger maxWritingLogFiles = new AtomicInteger();
+
+    private File baseDir;
+    private ExecutorService executor;
+
+    @Before
+    public void setUp() throws IOException {
+        baseDir = Files.createTempDirectory("LogManagerStripingTest").toFile();
+        executor = Executors.newCachedThreadPool();
+        writingLogFiles.set(0);
+        maxWritingLogFiles.set(0);
+    }
+
+    @After
+    public void tearDown() throws IOException {
+        executor.shutdownNow();
+        FileUtils.deleteQuietly(baseDir);
+    }
+
+    @Test
+    public void pageSizedLogFilesAreWrittenAcrossDirectories() throws Exception {
+        final String[] dirs = new String[NUM_DIRS];
+        for (int i = 0; i < NUM_DIRS; i++) {
+            dirs[i] = new File(baseDir, "log" + i).getAbsolutePath();
+        }
+        // the partition size is rounded down to whole pages rather than to the log buffer
+        final LogManager logManager = new SlowLogFileEndLogManager(createTxnSubsystem(dirs, PAGE_SIZE + 100));
+        Assert.assertEquals(PAGE_SIZE, logManager.getLogManagerProperties().getLogPartitionSize());
+        try {
+            final ITransactionContext txnCtx = new AtomicTransactionContext(new TxnId(1));
+            final ITupleReference pkValue = TupleUtils.createIntegerTuple(1);
+            final List<Thread> appenders = new ArrayList<>();
+            for (int t = 0; t < NUM_APPENDERS; t++) {
+                final int appenderId = t;
+                Thread appender = new Thread(() -> {
+                    for (int i = 0; i < LOGS_PER_APPENDER; i++) {
+                        logManager.log(createEntityCommitLog(txnCtx, pkValue, appenderId * LOGS_PER_APPENDER + i));
+                    }
+                });
+                appenders.add(appender);
+                appender.start();
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            // returns once everything before it is flushed
+            logManager.log(createWaitLog(txnCtx));
+
+            // consecutive log files go round robin to the directories and are flushed at the same time
+            final List<Long> logFileIds = logManager.getOrderedLogFileIds();
+            Assert.assertTrue(logFileIds.size() > NUM_DIRS * NUM_PAGES);
+            for (int i = 0; i < NUM_DIRS; i++) {
+                final String[] logFiles = new File(dirs[i]).list((dir, name) -> name.startsWith("transaction_log"));
+                Assert.assertNotNull(logFiles);
+                Assert.assertTrue(Math.abs(logFiles.length - logFileIds.size() / NUM_DIRS) <= 1);
+            }
+            Assert.assertTrue(maxWritingLogFiles.get() > 1);
+
+            // the log reads back in lsn order across the directories
+            final BitSet seen = new BitSet();
+            final ILogReader logReader = logManager.getLogReader(false);
+            try {
+                logReader.setPosition(logManager.getReadableSmallestLSN());
+                ILogRecord logRecord = logReader.next();
+                while (logRecord != null && logRecord.getLogType() == LogType.ENTITY_COMMIT) {
+                    Assert.assertFalse(seen.get(logRecord.getPKHashValue()));
+                    seen.set(logRecord.getPKHashValue());
+                    logRecord = logReader.next();
+                }
+                Assert.assertNotNull(logRecord);
+                Assert.assertEquals(LogType.WAIT, logRecord.getLogType());
+            } finally {
+                logReader.close();
+            }
+            Assert.assertEquals(NUM_APPENDERS * LOGS_PER_APPENDER, seen.cardinality());
+        } finally {
+            logManager.stop(false, null);
+        }
+    }
+
+    private ITransactionSubsystem createTxnSubsystem(String[] dirs, long partitionSize) {
+        final TransactionProperties txnProperties = mock(TransactionProperties.class);
+        when(txnProperties.getLogBufferPageSize()).thenReturn(PAGE_SIZE);
+        when(txnProperties.getLogBufferNumPages()).thenReturn(NUM_PAGES);
+        when(txnProperties.getLogPartitionSize()).thenReturn(partitionSize);
+        when(txnProperties.getLogGroupCommitWindow()).thenReturn(0);
+        when(txnProperties.getLogDirectory(NODE_ID)).thenReturn(dirs[0]);
+        final String[] stripeDirs = new String[dirs.length - 1];
+        System.arraycopy(dirs, 1, stripeDirs, 0, stripeDirs.length);
+        when(txnProperties.getLogStripeDirectories(NODE_ID)).thenReturn(stripeDirs);
+        final INcApplicationContext appCtx = mock(INcApplicationContext.class);
+        when(appCtx.getThreadExecutor()).thenReturn(executor);
+        final ITransactionSubsystem txnSubsystem = mock(ITransactionSubsystem.class);
+        when(txnSubsystem.getId()).thenReturn(NODE_ID);
+        when(txnSubsystem.getTransactionProperties()).thenReturn(txnProperties);
+        when(txnSubsystem.getApplicationContext()).thenReturn(appCtx);
+        return txnSubsystem;
+    }
+
+    private static LogRecord createEntityCommitLog(ITransactionContext txnCtx, ITupleReference pkValue, int id) {
+        final LogRecord logRecord = new LogRecord();
+        // remote logs are neither waited for nor unlocked once flushed
+        logRecord.setLogSource(LogSource.REMOTE);
+        TransactionUtil.formEntityCommitLogRecord(logRecord, txnCtx, 0, id, pkValue, new int[] { 0 }, 0,
+                LogType.ENTITY_COMMIT);
+        return logRecord;
+    }
+
+    private static LogRecord createWaitLog(ITransactionContext txnCtx) {
+        final LogRecord logRecord = new LogRecord();
+        logRecord.setTxnCtx(txnCtx);
+        logRecord.setLogSource(LogSource.LOCAL);
+        logRecord.setLogType(LogType.WAIT);
+        logRecord.setTxnId(txnCtx.getTxnId().getId());
+        logRecord.computeAndSetLogSize();
+        return logRecord;
+    }
+
+    /**
+     * Slows down the start of every log file, the way a busy device would, and tracks how many log files are
+     * written at the same time
+     */
+    private static class SlowLogFileEndLogManager extends LogManager {
+
+        SlowLogFileEndLogManager(ITransactionSubsystem txnSubsystem) {
+            super(txnSubsystem);
+        }
+
+        @Override
+        void recordLogFileEnd(ILogBuffer page) throws IOException {
+            maxWritingLogFiles.accumulateAndGet(writingLogFiles.incrementAndGet(), Math::max);
+            try {
+                TimeUnit.MILLISECONDS.sleep(2);
+                super.recordLogFileEnd(page);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                writingLogFiles.decrementAndGet();
+            }
+        }
+    }
+}
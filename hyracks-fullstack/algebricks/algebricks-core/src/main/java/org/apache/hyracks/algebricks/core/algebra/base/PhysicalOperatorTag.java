@@ -34,6 +34,7 @@ public enum PhysicalOperatorTag {
     FORWARD,
     HASH_PARTITION_EXCHANGE,
     HASH_PARTITION_MERGE_EXCHANGE,
+    HASH_SKEW_PARTITION_EXCHANGE,
     HYBRID_HASH_JOIN,
     IN_MEMORY_HASH_JOIN,
     MICRO_STABLE_SORT,
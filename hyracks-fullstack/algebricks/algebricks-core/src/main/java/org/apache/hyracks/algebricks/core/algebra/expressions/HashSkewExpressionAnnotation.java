@@ -0,0 +1,49 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.expressions;
+
+import java.util.Objects;
+
+/**
+ * Marks an equi-join predicate whose key has a few heavy hitter values (hot values). Instead of sending all the tuples
+ * with a hot value to the single partition it hashes to, the join spreads the tuples of its left input over all
+ * partitions and replicates the tuples of its right input to all partitions.
+ */
+public final class HashSkewExpressionAnnotation implements IExpressionAnnotation {
+
+    public static final String HINT_STRING = "hash-skew";
+
+    private final byte[][] hotValues;
+
+    /**
+     * @param hotValues the serialized hot values
+     */
+    public HashSkewExpressionAnnotation(byte[][] hotValues) {
+        this.hotValues = Objects.requireNonNull(hotValues);
+    }
+
+    public byte[][] getHotValues() {
+        return hotValues;
+    }
+
+    @Override
+    public String toString() {
+        return HINT_STRING + ':' + hotValues.length;
+    }
+}
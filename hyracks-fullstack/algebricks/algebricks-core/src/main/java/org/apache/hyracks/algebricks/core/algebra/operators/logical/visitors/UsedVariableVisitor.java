@@ -73,6 +73,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteOperato
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.WriteResultOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionMergeExchangePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashSkewPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.PartialBroadcastRangeFollowingExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.PartialBroadcastRangeIntersectExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.RangePartitionExchangePOperator;
@@ -152,6 +153,10 @@ public class UsedVariableVisitor implements ILogicalOperatorVisitor<Void, Void>
                     HashPartitionExchangePOperator hashPartitionPOp = (HashPartitionExchangePOperator) physOp;
                     usedVariables.addAll(hashPartitionPOp.getHashFields());
                     break;
+                case HASH_SKEW_PARTITION_EXCHANGE:
+                    HashSkewPartitionExchangePOperator hashSkewPOp = (HashSkewPartitionExchangePOperator) physOp;
+                    usedVariables.addAll(hashSkewPOp.getHashFields());
+                    break;
                 case HASH_PARTITION_MERGE_EXCHANGE:
                     HashPartitionMergeExchangePOperator hashMergePOp = (HashPartitionMergeExchangePOperator) physOp;
                     usedVariables.addAll(hashMergePOp.getPartitionFields());
@@ -33,6 +33,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractBinaryJoinOperator.JoinKind;
 import org.apache.hyracks.algebricks.core.algebra.operators.logical.AbstractLogicalOperator;
 import org.apache.hyracks.algebricks.core.algebra.properties.BroadcastPartitioningProperty;
+import org.apache.hyracks.algebricks.core.algebra.properties.HashSkewPartitionedProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.IPartitioningRequirementsCoordinator;
@@ -42,17 +43,34 @@ import org.apache.hyracks.algebricks.core.algebra.properties.RandomPartitioningP
 import org.apache.hyracks.algebricks.core.algebra.properties.StructuralPropertiesVector;
 import org.apache.hyracks.algebricks.core.algebra.properties.UnorderedPartitionedProperty;
 import org.apache.hyracks.algebricks.core.algebra.util.OperatorPropertiesUtil;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashSkewPartitionComputerFactory.Mode;
 
 public abstract class AbstractHashJoinPOperator extends AbstractJoinPOperator {
 
     protected List<LogicalVariable> keysLeftBranch;
     protected List<LogicalVariable> keysRightBranch;
+    // the index of the key with heavy hitter values (hot values) when pairwise partitioning, or -1 if none
+    protected final int skewedKeyIndex;
+    protected final byte[][] hotValues;
 
     public AbstractHashJoinPOperator(JoinKind kind, JoinPartitioningType partitioningType,
             List<LogicalVariable> sideLeftOfEqualities, List<LogicalVariable> sideRightOfEqualities) {
+        this(kind, partitioningType, sideLeftOfEqualities, sideRightOfEqualities, -1, null);
+    }
+
+    /**
+     * When pairwise partitioning, the tuples of the left branch with one of the {@code hotValues} of the key at
+     * {@code skewedKeyIndex} are spread over all partitions and the matching tuples of the right branch are replicated
+     * to all partitions. The other tuples are hash partitioned on the keys.
+     */
+    public AbstractHashJoinPOperator(JoinKind kind, JoinPartitioningType partitioningType,
+            List<LogicalVariable> sideLeftOfEqualities, List<LogicalVariable> sideRightOfEqualities,
+            int skewedKeyIndex, byte[][] hotValues) {
         super(kind, partitioningType);
         this.keysLeftBranch = sideLeftOfEqualities;
         this.keysRightBranch = sideRightOfEqualities;
+        this.skewedKeyIndex = skewedKeyIndex;
+        this.hotValues = hotValues;
     }
 
     public List<LogicalVariable> getKeysLeftBranch() {
@@ -63,6 +81,10 @@ public abstract class AbstractHashJoinPOperator extends AbstractJoinPOperator {
         return keysRightBranch;
     }
 
+    public boolean isSkewed() {
+        return partitioningType == JoinPartitioningType.PAIRWISE && hotValues != null;
+    }
+
     @Override
     public void computeDeliveredProperties(ILogicalOperator iop, IOptimizationContext context)
             throws AlgebricksException {
@@ -77,6 +99,9 @@ public abstract class AbstractHashJoinPOperator extends AbstractJoinPOperator {
 
             if (pv0 == null || pv1 == null) {
                 pp = null;
+            } else if (isSkewed()) {
+                // the tuples of the hot values are no longer in the partition their keys hash to
+                pp = new RandomPartitioningProperty(pv0.getPartitioningProperty().getNodeDomain());
             } else {
                 pp = pv0.getPartitioningProperty();
             }
@@ -101,6 +126,13 @@ public abstract class AbstractHashJoinPOperator extends AbstractJoinPOperator {
         IPartitioningProperty pp2;
         switch (partitioningType) {
             case PAIRWISE:
+                if (isSkewed()) {
+                    pp1 = new HashSkewPartitionedProperty(keysLeftBranch, context.getComputationNodeDomain(),
+                            skewedKeyIndex, hotValues, Mode.SPLIT);
+                    pp2 = new HashSkewPartitionedProperty(keysRightBranch, context.getComputationNodeDomain(),
+                            skewedKeyIndex, hotValues, Mode.REPLICATE);
+                    break;
+                }
                 pp1 = new UnorderedPartitionedProperty(new ListSet<>(keysLeftBranch),
                         context.getComputationNodeDomain());
                 pp2 = new UnorderedPartitionedProperty(new ListSet<>(keysRightBranch),
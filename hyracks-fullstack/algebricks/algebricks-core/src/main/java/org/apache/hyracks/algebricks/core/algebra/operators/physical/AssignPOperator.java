@@ -50,6 +50,9 @@ public class AssignPOperator extends AbstractAssignPOperator {
             evalFactories[i] = expressionRuntimeProvider.createEvaluatorFactory(expressions.get(i).getValue(),
                     context.getTypeEnvironment(op.getInputs().get(0).getValue()), inputSchemas, context);
         }
-        return new AssignRuntimeFactory(outColumns, evalFactories, projectionList, flushFramesRapidly);
+        AssignRuntimeFactory runtime =
+                new AssignRuntimeFactory(outColumns, evalFactories, projectionList, flushFramesRapidly);
+        runtime.setVectorizedEvaluation(context.getPhysicalOptimizationConfig().isVectorizedEvaluationEnabled());
+        return runtime;
     }
 }
@@ -42,9 +42,11 @@ import org.apache.hyracks.algebricks.core.algebra.properties.IPhysicalProperties
 import org.apache.hyracks.algebricks.core.algebra.properties.LocalGroupingProperty;
 import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenContext;
 import org.apache.hyracks.algebricks.core.jobgen.impl.JobGenHelper;
+import org.apache.hyracks.algebricks.data.IBinaryComparatorFactoryProvider;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
 import org.apache.hyracks.algebricks.runtime.evaluators.TuplePairEvaluatorFactory;
 import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
 import org.apache.hyracks.api.dataflow.value.IPredicateEvaluatorFactory;
@@ -66,7 +68,15 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
     public HybridHashJoinPOperator(JoinKind kind, JoinPartitioningType partitioningType,
             List<LogicalVariable> sideLeftOfEqualities, List<LogicalVariable> sideRightOfEqualities,
             int maxInputSizeInFrames, int aveRecordsPerFrame, double fudgeFactor) {
-        super(kind, partitioningType, sideLeftOfEqualities, sideRightOfEqualities);
+        this(kind, partitioningType, sideLeftOfEqualities, sideRightOfEqualities, -1, null, maxInputSizeInFrames,
+                aveRecordsPerFrame, fudgeFactor);
+    }
+
+    public HybridHashJoinPOperator(JoinKind kind, JoinPartitioningType partitioningType,
+            List<LogicalVariable> sideLeftOfEqualities, List<LogicalVariable> sideRightOfEqualities,
+            int skewedKeyIndex, byte[][] hotValues, int maxInputSizeInFrames, int aveRecordsPerFrame,
+            double fudgeFactor) {
+        super(kind, partitioningType, sideLeftOfEqualities, sideRightOfEqualities, skewedKeyIndex, hotValues);
         this.maxInputBuildSizeInFrames = maxInputSizeInFrames;
         this.fudgeFactor = fudgeFactor;
         if (LOGGER.isTraceEnabled()) {
@@ -151,9 +161,14 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
         int memSizeInFrames = localMemoryRequirements.getMemoryBudgetInFrames();
         switch (kind) {
             case INNER:
-                return new OptimizedHybridHashJoinOperatorDescriptor(spec, memSizeInFrames, maxInputBuildSizeInFrames,
-                        getFudgeFactor(), keysLeft, keysRight, leftHashFunFamilies, rightHashFunFamilies, recDescriptor,
-                        comparatorFactory, reverseComparatorFactory, leftPredEvalFactory, rightPredEvalFactory);
+                OptimizedHybridHashJoinOperatorDescriptor innerJoinDesc = new OptimizedHybridHashJoinOperatorDescriptor(
+                        spec, memSizeInFrames, maxInputBuildSizeInFrames, getFudgeFactor(), keysLeft, keysRight,
+                        leftHashFunFamilies, rightHashFunFamilies, recDescriptor, comparatorFactory,
+                        reverseComparatorFactory, leftPredEvalFactory, rightPredEvalFactory);
+                if (context.getPhysicalOptimizationConfig().isRuntimeJoinFilterEnabled()) {
+                    setRuntimeFilter(context, joinOp, innerJoinDesc);
+                }
+                return innerJoinDesc;
             case LEFT_OUTER:
                 IMissingWriterFactory[] nonMatchWriterFactories = JobGenHelper.createMissingWriterFactories(context,
                         ((LeftOuterJoinOperator) joinOp).getMissingValue(), inputSchemas[1].getSize());
@@ -166,6 +181,21 @@ public class HybridHashJoinPOperator extends AbstractHashJoinPOperator {
         }
     }
 
+    private void setRuntimeFilter(JobGenContext context, AbstractBinaryJoinOperator joinOp,
+            OptimizedHybridHashJoinOperatorDescriptor joinDesc) throws AlgebricksException {
+        // the probe side is the left branch and the build side is the right branch. The min/max of the build side
+        // is computed for the first key.
+        IVariableTypeEnvironment env = context.getTypeEnvironment(joinOp);
+        Object probeKeyType = env.getVarType(keysLeftBranch.get(0));
+        Object buildKeyType = env.getVarType(keysRightBranch.get(0));
+        IBinaryComparatorFactoryProvider comparatorProvider = context.getBinaryComparatorFactoryProvider();
+        IBinaryComparatorFactory buildKeyComparatorFactory =
+                comparatorProvider.getBinaryComparatorFactory(buildKeyType, true);
+        IBinaryComparatorFactory probeBuildKeyComparatorFactory =
+                comparatorProvider.getBinaryComparatorFactory(probeKeyType, buildKeyType, true);
+        joinDesc.setRuntimeFilter(true, buildKeyComparatorFactory, probeBuildKeyComparatorFactory);
+    }
+
     @Override
     protected List<ILocalStructuralProperty> deliveredLocalProperties(ILogicalOperator op, IOptimizationContext context)
             throws AlgebricksException {
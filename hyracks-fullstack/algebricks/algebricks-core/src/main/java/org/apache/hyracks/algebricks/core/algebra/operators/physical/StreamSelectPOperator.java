@@ -76,6 +76,7 @@ public class StreamSelectPOperator extends AbstractPhysicalOperator {
                 new StreamSelectRuntimeFactory(cond, null, context.getBinaryBooleanInspectorFactory(), retainMissing,
                         inputSchemas[0].findVariable(select.getMissingPlaceholderVariable()), missingWriterFactory);
         runtime.setSourceLocation(select.getSourceLocation());
+        runtime.setVectorizedEvaluation(context.getPhysicalOptimizationConfig().isVectorizedEvaluationEnabled());
         // contribute one Asterix framewriter
         RecordDescriptor recDesc = JobGenHelper.mkRecordDescriptor(context.getTypeEnvironment(op), opSchema, context);
         builder.contributeMicroOperator(select, runtime, recDesc);
@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.core.algebra.properties;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.algebricks.core.algebra.base.EquivalenceClass;
+import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashSkewPartitionComputerFactory.Mode;
+
+/**
+ * Hash partitioning on the given columns, except for the tuples with one of the hot values of the column at
+ * {@link #getHotColumn()}. Those tuples are either spread over ({@link Mode#SPLIT}) or replicated to
+ * ({@link Mode#REPLICATE}) all partitions.
+ */
+public final class HashSkewPartitionedProperty implements IPartitioningProperty {
+
+    private final List<LogicalVariable> columns;
+    private final int hotColumn;
+    private final byte[][] hotValues;
+    private final Mode mode;
+    private INodeDomain domain;
+
+    public HashSkewPartitionedProperty(List<LogicalVariable> columns, INodeDomain domain, int hotColumn,
+            byte[][] hotValues, Mode mode) {
+        this.columns = columns;
+        this.domain = domain;
+        this.hotColumn = hotColumn;
+        this.hotValues = hotValues;
+        this.mode = mode;
+    }
+
+    @Override
+    public PartitioningType getPartitioningType() {
+        return mode == Mode.SPLIT ? PartitioningType.HASH_SKEW_SPLIT : PartitioningType.HASH_SKEW_REPLICATE;
+    }
+
+    public List<LogicalVariable> getColumns() {
+        return columns;
+    }
+
+    public int getHotColumn() {
+        return hotColumn;
+    }
+
+    public byte[][] getHotValues() {
+        return hotValues;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    @Override
+    public IPartitioningProperty normalize(Map<LogicalVariable, EquivalenceClass> equivalenceClasses,
+            List<FunctionalDependency> fds) {
+        return this;
+    }
+
+    @Override
+    public void getColumns(Collection<LogicalVariable> columns) {
+        columns.addAll(this.columns);
+    }
+
+    @Override
+    public INodeDomain getNodeDomain() {
+        return domain;
+    }
+
+    @Override
+    public void setNodeDomain(INodeDomain domain) {
+        this.domain = domain;
+    }
+
+    @Override
+    public IPartitioningProperty substituteColumnVars(Map<LogicalVariable, LogicalVariable> varMap) {
+        boolean applied = false;
+        List<LogicalVariable> newColumns = new ArrayList<>(columns.size());
+        for (LogicalVariable column : columns) {
+            LogicalVariable newColumn = varMap.get(column);
+            if (newColumn != null) {
+                applied = true;
+            }
+            newColumns.add(newColumn != null ? newColumn : column);
+        }
+        return applied ? new HashSkewPartitionedProperty(newColumns, domain, hotColumn, hotValues, mode) : this;
+    }
+
+    @Override
+    public IPartitioningProperty clonePartitioningProperty() {
+        return new HashSkewPartitionedProperty(new ArrayList<>(columns), domain, hotColumn, hotValues, mode);
+    }
+
+    @Override
+    public String toString() {
+        return getPartitioningType().toString() + columns + " hot:" + columns.get(hotColumn) + " domain:" + domain;
+    }
+}
@@ -70,7 +70,17 @@ public interface IPartitioningProperty extends IStructuralProperty {
          *     higher than the "end" column
          * </ol>
          */
-        PARTIAL_BROADCAST_ORDERED_INTERSECT
+        PARTIAL_BROADCAST_ORDERED_INTERSECT,
+        /**
+         * Data is hash partitioned according to the {@link #UNORDERED_PARTITIONED} layout, except for the tuples
+         * with a few hot values of one of the partitioning columns. Those tuples are spread over all partitions.
+         */
+        HASH_SKEW_SPLIT,
+        /**
+         * Data is hash partitioned according to the {@link #UNORDERED_PARTITIONED} layout, except for the tuples
+         * with a few hot values of one of the partitioning columns. Those tuples are replicated to all partitions.
+         */
+        HASH_SKEW_REPLICATE
     }
 
     INodeDomain DOMAIN_FOR_UNPARTITIONED_DATA = new INodeDomain() {
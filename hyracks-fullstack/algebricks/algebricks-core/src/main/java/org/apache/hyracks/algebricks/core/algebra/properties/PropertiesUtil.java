@@ -19,6 +19,7 @@
 package org.apache.hyracks.algebricks.core.algebra.properties;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
@@ -207,6 +208,16 @@ public class PropertiesUtil {
                     }
                 }
             }
+            case HASH_SKEW_SPLIT:
+            case HASH_SKEW_REPLICATE: {
+                if (dlvd.getPartitioningType() != reqd.getPartitioningType()) {
+                    return false;
+                }
+                HashSkewPartitionedProperty pr = (HashSkewPartitionedProperty) reqd;
+                HashSkewPartitionedProperty pd = (HashSkewPartitionedProperty) dlvd;
+                return pr.getColumns().equals(pd.getColumns()) && pr.getHotColumn() == pd.getHotColumn()
+                        && Arrays.deepEquals(pr.getHotValues(), pd.getHotValues());
+            }
             default: {
                 return (dlvd.getPartitioningType() == reqd.getPartitioningType());
             }
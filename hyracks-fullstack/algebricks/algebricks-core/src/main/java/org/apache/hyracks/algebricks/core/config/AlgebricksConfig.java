@@ -38,4 +38,7 @@ public class AlgebricksConfig {
     public static final int EXTERNAL_SCAN_BUFFER_SIZE =
             StorageUtil.getIntSizeInBytes(8, StorageUtil.StorageUnit.KILOBYTE);
     public static final boolean BATCH_LOOKUP_DEFAULT = false;
+    public static final boolean VECTORIZED_EVALUATION_DEFAULT = false;
+    public static final boolean RUNTIME_JOIN_FILTER_DEFAULT = false;
+    public static final boolean CBO_DEFAULT = false;
 }
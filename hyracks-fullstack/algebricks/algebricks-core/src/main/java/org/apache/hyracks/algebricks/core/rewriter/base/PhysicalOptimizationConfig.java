@@ -48,6 +48,9 @@ public class PhysicalOptimizationConfig {
     private static final String ARRAY_INDEX = "ARRAY_INDEX";
     private static final String EXTERNAL_SCAN_BUFFER_SIZE = "EXTERNAL_SCAN_BUFFER_SIZE";
     private static final String BATCH_LOOKUP = "BATCH_LOOKUP";
+    private static final String VECTORIZED_EVALUATION = "VECTORIZED_EVALUATION";
+    private static final String RUNTIME_JOIN_FILTER = "RUNTIME_JOIN_FILTER";
+    private static final String CBO = "CBO";
 
     private final Properties properties = new Properties();
 
@@ -248,6 +251,30 @@ public class PhysicalOptimizationConfig {
         setBoolean(BATCH_LOOKUP, batchedLookup);
     }
 
+    public boolean isVectorizedEvaluationEnabled() {
+        return getBoolean(VECTORIZED_EVALUATION, AlgebricksConfig.VECTORIZED_EVALUATION_DEFAULT);
+    }
+
+    public void setVectorizedEvaluation(boolean vectorizedEvaluation) {
+        setBoolean(VECTORIZED_EVALUATION, vectorizedEvaluation);
+    }
+
+    public boolean isRuntimeJoinFilterEnabled() {
+        return getBoolean(RUNTIME_JOIN_FILTER, AlgebricksConfig.RUNTIME_JOIN_FILTER_DEFAULT);
+    }
+
+    public void setRuntimeJoinFilter(boolean runtimeJoinFilter) {
+        setBoolean(RUNTIME_JOIN_FILTER, runtimeJoinFilter);
+    }
+
+    public boolean isCboEnabled() {
+        return getBoolean(CBO, AlgebricksConfig.CBO_DEFAULT);
+    }
+
+    public void setCbo(boolean cbo) {
+        setBoolean(CBO, cbo);
+    }
+
     public void setExternalScanBufferSize(int bufferSize) {
         setInt(EXTERNAL_SCAN_BUFFER_SIZE, bufferSize);
     }
@@ -769,6 +769,12 @@ public class LogicalOperatorDotVisitor implements ILogicalOperatorVisitor<String
                     case PARTIAL_BROADCAST_ORDERED_INTERSECT:
                         stringBuilder.append("Data is partially broadcasted to partitions.");
                         break;
+                    case HASH_SKEW_SPLIT:
+                        stringBuilder.append("Data is hash partitioned. Hot keys are spread over partitions.");
+                        break;
+                    case HASH_SKEW_REPLICATE:
+                        stringBuilder.append("Data is hash partitioned. Hot keys are broadcast to partitions.");
+                        break;
                 }
                 if (nodeDomain instanceof DefaultNodeGroupDomain) {
                     DefaultNodeGroupDomain nd = (DefaultNodeGroupDomain) nodeDomain;
@@ -68,6 +68,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.AssignPOper
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.BroadcastExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashPartitionMergeExchangePOperator;
+import org.apache.hyracks.algebricks.core.algebra.operators.physical.HashSkewPartitionExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.MicroStableSortPOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.OneToOneExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.PartialBroadcastRangeFollowingExchangePOperator;
@@ -81,6 +82,7 @@ import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortForward
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.SortMergeExchangePOperator;
 import org.apache.hyracks.algebricks.core.algebra.operators.physical.StableSortPOperator;
 import org.apache.hyracks.algebricks.core.algebra.properties.FunctionalDependency;
+import org.apache.hyracks.algebricks.core.algebra.properties.HashSkewPartitionedProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty;
 import org.apache.hyracks.algebricks.core.algebra.properties.ILocalStructuralProperty.PropertyType;
 import org.apache.hyracks.algebricks.core.algebra.properties.INodeDomain;
@@ -617,6 +619,13 @@ public class EnforceStructuralPropertiesRule implements IAlgebraicRewriteRule {
                             pbp.getNodeDomain(), pbp.getRangeMap());
                     break;
                 }
+                case HASH_SKEW_SPLIT:
+                case HASH_SKEW_REPLICATE: {
+                    HashSkewPartitionedProperty hsp = (HashSkewPartitionedProperty) pp;
+                    pop = new HashSkewPartitionExchangePOperator(hsp.getColumns(), hsp.getNodeDomain(),
+                            hsp.getHotColumn(), hsp.getHotValues(), hsp.getMode());
+                    break;
+                }
                 default: {
                     throw new NotImplementedException("Enforcer for " + pp.getPartitioningType()
                             + " partitioning type has not been implemented.");
@@ -32,6 +32,7 @@ import org.apache.hyracks.algebricks.core.algebra.base.LogicalVariable;
 import org.apache.hyracks.algebricks.core.algebra.expressions.AbstractFunctionCallExpression;
 import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation;
 import org.apache.hyracks.algebricks.core.algebra.expressions.BroadcastExpressionAnnotation.BroadcastSide;
+import org.apache.hyracks.algebricks.core.algebra.expressions.HashSkewExpressionAnnotation;
 import org.apache.hyracks.algebricks.core.algebra.expressions.VariableReferenceExpression;
 import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions;
 import org.apache.hyracks.algebricks.core.algebra.functions.AlgebricksBuiltinFunctions.ComparisonKind;
@@ -67,7 +68,12 @@ public class JoinUtils {
         if (isHashJoinCondition(conditionExpr, varsLeft, varsRight, sideLeft, sideRight)) {
             BroadcastSide side = getBroadcastJoinSide(conditionExpr);
             if (side == null) {
-                setHashJoinOp(op, JoinPartitioningType.PAIRWISE, sideLeft, sideRight, context);
+                AbstractFunctionCallExpression skewedKey = getHashSkewJoinKey(conditionExpr);
+                if (skewedKey == null) {
+                    setHashJoinOp(op, JoinPartitioningType.PAIRWISE, sideLeft, sideRight, context);
+                } else {
+                    setSkewedHashJoinOp(op, skewedKey, sideLeft, sideRight, context);
+                }
             } else {
                 switch (side) {
                     case RIGHT:
@@ -108,6 +114,21 @@ public class JoinUtils {
                 context.getPhysicalOptimizationConfig().getFudgeFactor()));
     }
 
+    private static void setSkewedHashJoinOp(AbstractBinaryJoinOperator op, AbstractFunctionCallExpression skewedKey,
+            List<LogicalVariable> sideLeft, List<LogicalVariable> sideRight, IOptimizationContext context) {
+        // the arguments of the skewed key equality are known to be variables (see isHashJoinCondition())
+        int keyIndex = -1;
+        for (Mutable<ILogicalExpression> arg : skewedKey.getArguments()) {
+            LogicalVariable var = ((VariableReferenceExpression) arg.getValue()).getVariableReference();
+            keyIndex = Math.max(keyIndex, sideLeft.indexOf(var));
+        }
+        byte[][] hotValues = skewedKey.getAnnotation(HashSkewExpressionAnnotation.class).getHotValues();
+        op.setPhysicalOperator(new HybridHashJoinPOperator(op.getJoinKind(), JoinPartitioningType.PAIRWISE, sideLeft,
+                sideRight, keyIndex, hotValues, context.getPhysicalOptimizationConfig().getMaxFramesForJoinLeftInput(),
+                context.getPhysicalOptimizationConfig().getMaxRecordsPerFrame(),
+                context.getPhysicalOptimizationConfig().getFudgeFactor()));
+    }
+
     public static boolean hybridToInMemHashJoin(AbstractBinaryJoinOperator op, IOptimizationContext context)
             throws AlgebricksException {
         HybridHashJoinPOperator hhj = (HybridHashJoinPOperator) op.getPhysicalOperator();
@@ -214,6 +235,23 @@ public class JoinUtils {
         return null;
     }
 
+    private static AbstractFunctionCallExpression getHashSkewJoinKey(ILogicalExpression e) {
+        if (e.getExpressionTag() != LogicalExpressionTag.FUNCTION_CALL) {
+            return null;
+        }
+        AbstractFunctionCallExpression fexp = (AbstractFunctionCallExpression) e;
+        if (fexp.getFunctionIdentifier().equals(AlgebricksBuiltinFunctions.AND)) {
+            for (Mutable<ILogicalExpression> a : fexp.getArguments()) {
+                AbstractFunctionCallExpression skewedKey = getHashSkewJoinKey(a.getValue());
+                if (skewedKey != null) {
+                    return skewedKey;
+                }
+            }
+            return null;
+        }
+        return fexp.getAnnotation(HashSkewExpressionAnnotation.class) != null ? fexp : null;
+    }
+
     private static void warnIfCrossProduct(ILogicalExpression conditionExpr, SourceLocation sourceLoc,
             IOptimizationContext context) {
         if (OperatorPropertiesUtil.isAlwaysTrueCond(conditionExpr) && sourceLoc != null) {
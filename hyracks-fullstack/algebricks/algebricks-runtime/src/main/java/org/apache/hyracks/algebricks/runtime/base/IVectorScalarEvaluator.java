@@ -0,0 +1,42 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A batch-at-a-time counterpart of {@link IScalarEvaluator} that evaluates an expression for all the selected tuples
+ * of a frame in one call.
+ */
+public interface IVectorScalarEvaluator {
+    /**
+     * Evaluates the expression for the tuples of the frame in {@code accessor} whose indexes are in
+     * {@code selection}. The value of each selected tuple is set in {@code result} at the tuple's index. The values at
+     * the positions that are not selected are undefined.
+     *
+     * @param accessor the frame's accessor
+     * @param selection the indexes of the tuples to evaluate
+     * @param result the values of the evaluated tuples
+     */
+    void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException;
+}
@@ -0,0 +1,30 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.base;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A scalar evaluator factory that is also able to create {@link IVectorScalarEvaluator}s. Factories that do not
+ * implement this interface are still evaluated batch-at-a-time by wrapping their scalar evaluators
+ * (see {@link org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil}).
+ */
+public interface IVectorScalarEvaluatorFactory extends IScalarEvaluatorFactory {
+    IVectorScalarEvaluator createVectorScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException;
+}
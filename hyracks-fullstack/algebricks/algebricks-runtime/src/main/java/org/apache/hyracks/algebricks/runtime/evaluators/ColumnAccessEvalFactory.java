@@ -20,12 +20,13 @@ package org.apache.hyracks.algebricks.runtime.evaluators;
 
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
+public class ColumnAccessEvalFactory implements IVectorScalarEvaluatorFactory {
 
     private static final long serialVersionUID = 1L;
 
@@ -54,4 +55,18 @@ public class ColumnAccessEvalFactory implements IScalarEvaluatorFactory {
         };
     }
 
+    @Override
+    public IVectorScalarEvaluator createVectorScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return (accessor, selection, result) -> {
+            result.reset(accessor.getTupleCount());
+            byte[] frame = accessor.getBuffer().array();
+            int fieldSlotsLength = accessor.getFieldSlotsLength();
+            for (int i = 0, size = selection.size(); i < size; i++) {
+                int tIndex = selection.get(i);
+                int start = accessor.getTupleStartOffset(tIndex) + fieldSlotsLength
+                        + accessor.getFieldStartOffset(tIndex, fieldIndex);
+                result.set(tIndex, frame, start, accessor.getFieldLength(tIndex, fieldIndex));
+            }
+        };
+    }
 }
@@ -20,12 +20,13 @@ package org.apache.hyracks.algebricks.runtime.evaluators;
 
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
-import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluatorFactory;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.data.std.api.IPointable;
 import org.apache.hyracks.dataflow.common.data.accessors.IFrameTupleReference;
 
-public class ConstantEvalFactory implements IScalarEvaluatorFactory {
+public class ConstantEvalFactory implements IVectorScalarEvaluatorFactory {
     private static final long serialVersionUID = 1L;
 
     private byte[] value;
@@ -54,4 +55,13 @@ public class ConstantEvalFactory implements IScalarEvaluatorFactory {
         };
     }
 
+    @Override
+    public IVectorScalarEvaluator createVectorScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return (accessor, selection, result) -> {
+            result.reset(accessor.getTupleCount());
+            for (int i = 0, size = selection.size(); i < size; i++) {
+                result.set(selection.get(i), value, 0, value.length);
+            }
+        };
+    }
 }
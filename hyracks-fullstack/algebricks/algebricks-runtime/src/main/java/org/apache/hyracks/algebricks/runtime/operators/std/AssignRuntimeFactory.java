@@ -24,9 +24,13 @@ import java.util.Arrays;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil;
 import org.apache.hyracks.api.comm.IFrameTupleAccessor;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.exceptions.ErrorCode;
@@ -43,6 +47,7 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
     private int[] outColumns;
     private IScalarEvaluatorFactory[] evalFactories;
     private final boolean flushFramesRapidly;
+    private boolean vectorizedEvaluation;
 
     /**
      * @param outColumns
@@ -64,6 +69,17 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         this.flushFramesRapidly = flushFramesRapidly;
     }
 
+    /**
+     * Evaluate the expressions whose evaluator factories support it batch-at-a-time, and the others tuple-at-a-time
+     */
+    public void setVectorizedEvaluation(boolean vectorizedEvaluation) {
+        this.vectorizedEvaluation = vectorizedEvaluation;
+    }
+
+    public boolean isVectorizedEvaluation() {
+        return vectorizedEvaluation;
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
@@ -97,6 +113,10 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
         return new AbstractOneInputOneOutputOneFramePushRuntime() {
             private IPointable result = VoidPointable.FACTORY.createPointable();
             private IScalarEvaluator[] eval = new IScalarEvaluator[evalFactories.length];
+            // the vector evaluators of the vectorizable expressions, null for the others
+            private IVectorScalarEvaluator[] vectorEval;
+            private ValueVector[] values;
+            private SelectionVector selection;
             private ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(projectionList.length);
             private boolean first = true;
             private int tupleIndex = 0;
@@ -110,6 +130,17 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     for (int i = 0; i < n; i++) {
                         eval[i] = evalFactories[i].createScalarEvaluator(evalCtx);
                     }
+                    if (vectorizedEvaluation && VectorEvaluatorUtil.isAnyVectorizable(evalFactories)) {
+                        vectorEval = new IVectorScalarEvaluator[n];
+                        values = new ValueVector[n];
+                        for (int i = 0; i < n; i++) {
+                            if (VectorEvaluatorUtil.isVectorizable(evalFactories[i])) {
+                                vectorEval[i] = VectorEvaluatorUtil.createVectorEvaluator(evalFactories[i], evalCtx);
+                                values[i] = new ValueVector();
+                            }
+                        }
+                        selection = new SelectionVector();
+                    }
                 }
                 super.open();
             }
@@ -125,6 +156,9 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                     }
                     appender.flush(writer);
                 } else {
+                    if (vectorEval != null) {
+                        evaluateFrame(nTuple);
+                    }
                     if (nTuple > 1) {
                         for (; tupleIndex < nTuple - 1; tupleIndex++) {
                             tRef.reset(tAccess, tupleIndex);
@@ -152,17 +186,35 @@ public class AssignRuntimeFactory extends AbstractOneInputOneOutputRuntimeFactor
                 tupleIndex = 0;
             }
 
+            /**
+             * Evaluates the projected vectorizable expressions for all the tuples of the frame. Each expression is
+             * evaluated once per tuple, either here or in {@link #produceTuple}.
+             */
+            private void evaluateFrame(int nTuple) throws HyracksDataException {
+                selection.selectAll(nTuple);
+                for (int f = 0; f < projectionList.length; f++) {
+                    int k = projectionToOutColumns[f];
+                    if (k >= 0 && vectorEval[k] != null) {
+                        vectorEval[k].evaluate(tAccess, selection, values[k]);
+                    }
+                }
+            }
+
             private void produceTuple(ArrayTupleBuilder tb, IFrameTupleAccessor accessor, int tIndex,
                     FrameTupleReference tupleRef) throws HyracksDataException {
                 try {
                     tb.reset();
                     for (int f = 0; f < projectionList.length; f++) {
                         int k = projectionToOutColumns[f];
-                        if (k >= 0) {
+                        if (k < 0) {
+                            tb.addField(accessor, tIndex, projectionList[f]);
+                        } else if (vectorEval != null && vectorEval[k] != null) {
+                            ValueVector value = values[k];
+                            tb.addField(value.getByteArray(tIndex), value.getStartOffset(tIndex),
+                                    value.getLength(tIndex));
+                        } else {
                             eval[k].evaluate(tupleRef, result);
                             tb.addField(result.getByteArray(), result.getStartOffset(), result.getLength());
-                        } else {
-                            tb.addField(accessor, tIndex, projectionList[f]);
                         }
                     }
                 } catch (HyracksDataException e) {
@@ -26,10 +26,14 @@ import org.apache.hyracks.algebricks.data.IBinaryBooleanInspectorFactory;
 import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
 import org.apache.hyracks.algebricks.runtime.evaluators.EvaluatorContext;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFieldFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputOneFramePushRuntime;
 import org.apache.hyracks.algebricks.runtime.operators.base.AbstractOneInputOneOutputRuntimeFactory;
+import org.apache.hyracks.algebricks.runtime.vector.SelectionVector;
+import org.apache.hyracks.algebricks.runtime.vector.ValueVector;
+import org.apache.hyracks.algebricks.runtime.vector.VectorEvaluatorUtil;
 import org.apache.hyracks.api.context.IHyracksTaskContext;
 import org.apache.hyracks.api.dataflow.value.IMissingWriter;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
@@ -49,6 +53,7 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
     // Mutable
     protected boolean retainMissing;
     private int missingPlaceholderVariableIndex;
+    private boolean vectorizedEvaluation;
 
     public StreamSelectRuntimeFactory(IScalarEvaluatorFactory cond, int[] projectionList,
             IBinaryBooleanInspectorFactory binaryBooleanInspectorFactory, boolean retainMissing,
@@ -93,6 +98,17 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         return retainMissing;
     }
 
+    /**
+     * Evaluate the condition batch-at-a-time if the condition's evaluator factory supports it
+     */
+    public void setVectorizedEvaluation(boolean vectorizedEvaluation) {
+        this.vectorizedEvaluation = vectorizedEvaluation;
+    }
+
+    public boolean isVectorizedEvaluation() {
+        return vectorizedEvaluation;
+    }
+
     public int getMissingPlaceholderVariableIndex() {
         return missingPlaceholderVariableIndex;
     }
@@ -107,6 +123,9 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         protected final IEvaluatorContext ctx;
         protected final IBinaryBooleanInspector bbi;
         protected IScalarEvaluator eval;
+        protected IVectorScalarEvaluator vectorEval;
+        protected SelectionVector selection;
+        protected ValueVector condValues;
         protected IMissingWriter missingWriter;
         protected ArrayTupleBuilder missingTupleBuilder;
 
@@ -120,6 +139,11 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
             if (eval == null) {
                 initAccessAppendFieldRef(ctx.getTaskContext());
                 eval = cond.createScalarEvaluator(ctx);
+                if (vectorizedEvaluation && VectorEvaluatorUtil.isVectorizable(cond)) {
+                    vectorEval = VectorEvaluatorUtil.createVectorEvaluator(cond, ctx);
+                    selection = new SelectionVector();
+                    condValues = new ValueVector();
+                }
             }
             super.open();
             if (retainMissing && missingWriter == null) {
@@ -135,19 +159,39 @@ public class StreamSelectRuntimeFactory extends AbstractOneInputOneOutputRuntime
         public void nextFrame(ByteBuffer buffer) throws HyracksDataException {
             tAccess.reset(buffer);
             int nTuple = tAccess.getTupleCount();
+            if (vectorEval != null) {
+                nextFrameVectorized(nTuple);
+                return;
+            }
             for (int t = 0; t < nTuple; t++) {
                 tRef.reset(tAccess, t);
                 eval.evaluate(tRef, p);
-                if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
-                    if (projectionList != null) {
-                        appendProjectionToFrame(t, projectionList);
-                    } else {
-                        appendTupleToFrame(t);
-                    }
+                select(t);
+            }
+        }
+
+        /**
+         * Evaluates the condition for all the tuples of the frame before selecting any of them
+         */
+        private void nextFrameVectorized(int nTuple) throws HyracksDataException {
+            selection.selectAll(nTuple);
+            vectorEval.evaluate(tAccess, selection, condValues);
+            for (int t = 0; t < nTuple; t++) {
+                condValues.getValue(t, p);
+                select(t);
+            }
+        }
+
+        private void select(int t) throws HyracksDataException {
+            if (bbi.getBooleanValue(p.getByteArray(), p.getStartOffset(), p.getLength())) {
+                if (projectionList != null) {
+                    appendProjectionToFrame(t, projectionList);
                 } else {
-                    if (retainMissing) {
-                        retainMissingTuple(t);
-                    }
+                    appendTupleToFrame(t);
+                }
+            } else {
+                if (retainMissing) {
+                    retainMissingTuple(t);
                 }
             }
         }
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.vector;
+
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.dataflow.common.data.accessors.FrameTupleReference;
+
+/**
+ * Evaluates a scalar evaluator tuple-at-a-time for the selected tuples. Results that point into the frame are
+ * referenced; any other result is copied as scalar evaluators reuse their result storage.
+ */
+public class ScalarVectorEvaluator implements IVectorScalarEvaluator {
+    private final IScalarEvaluator eval;
+    private final FrameTupleReference tuple;
+    private final IPointable value;
+
+    public ScalarVectorEvaluator(IScalarEvaluator eval) {
+        this.eval = eval;
+        tuple = new FrameTupleReference();
+        value = VoidPointable.FACTORY.createPointable();
+    }
+
+    @Override
+    public void evaluate(IFrameTupleAccessor accessor, SelectionVector selection, ValueVector result)
+            throws HyracksDataException {
+        result.reset(accessor.getTupleCount());
+        byte[] frame = accessor.getBuffer().array();
+        for (int i = 0, size = selection.size(); i < size; i++) {
+            int position = selection.get(i);
+            tuple.reset(accessor, position);
+            eval.evaluate(tuple, value);
+            if (value.getByteArray() == frame) {
+                result.set(position, value);
+            } else {
+                result.copy(position, value);
+            }
+        }
+    }
+}
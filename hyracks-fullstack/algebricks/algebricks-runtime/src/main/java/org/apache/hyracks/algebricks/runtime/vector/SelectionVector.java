@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.vector;
+
+import java.util.Arrays;
+
+/**
+ * The indexes of the tuples of a frame that a vector evaluator should evaluate, in ascending order.
+ */
+public final class SelectionVector {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private int[] positions;
+    private int size;
+
+    public SelectionVector() {
+        positions = new int[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Selects the tuples {@code 0 .. count - 1}
+     */
+    public void selectAll(int count) {
+        ensureCapacity(count);
+        for (int i = 0; i < count; i++) {
+            positions[i] = i;
+        }
+        size = count;
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int position) {
+        ensureCapacity(size + 1);
+        positions[size++] = position;
+    }
+
+    public void set(SelectionVector other) {
+        ensureCapacity(other.size);
+        System.arraycopy(other.positions, 0, positions, 0, other.size);
+        size = other.size;
+    }
+
+    public int get(int i) {
+        return positions[i];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (positions.length < capacity) {
+            positions = Arrays.copyOf(positions, Math.max(capacity, positions.length * 2));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(Arrays.copyOf(positions, size));
+    }
+}
@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.vector;
+
+import java.io.DataOutput;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IPointable;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+
+/**
+ * The values of an expression for the tuples of a frame, indexed by the tuples' indexes. A value either references
+ * bytes that outlive the evaluation of the frame (e.g., a field in the frame or a constant) or is stored in the
+ * vector's own storage.
+ */
+public final class ValueVector {
+    private static final int INITIAL_CAPACITY = 64;
+
+    private final ArrayBackedValueStorage storage;
+    // null if the value is in the storage
+    private byte[][] arrays;
+    private int[] starts;
+    private int[] lengths;
+    private int openPosition;
+
+    public ValueVector() {
+        storage = new ArrayBackedValueStorage();
+        arrays = new byte[INITIAL_CAPACITY][];
+        starts = new int[INITIAL_CAPACITY];
+        lengths = new int[INITIAL_CAPACITY];
+        openPosition = -1;
+    }
+
+    /**
+     * Prepares the vector to hold the values of a frame with {@code tupleCount} tuples
+     */
+    public void reset(int tupleCount) {
+        if (arrays.length < tupleCount) {
+            int capacity = Math.max(tupleCount, arrays.length * 2);
+            arrays = new byte[capacity][];
+            starts = new int[capacity];
+            lengths = new int[capacity];
+        } else {
+            // do not hold on to the previous frame
+            Arrays.fill(arrays, null);
+        }
+        storage.reset();
+        openPosition = -1;
+    }
+
+    /**
+     * Sets the value at {@code position} to reference {@code bytes} (no copy is made)
+     */
+    public void set(int position, byte[] bytes, int start, int length) {
+        arrays[position] = bytes;
+        starts[position] = start;
+        lengths[position] = length;
+    }
+
+    /**
+     * Sets the value at {@code position} to reference {@code value} (no copy is made)
+     */
+    public void set(int position, IValueReference value) {
+        set(position, value.getByteArray(), value.getStartOffset(), value.getLength());
+    }
+
+    /**
+     * Sets the value at {@code position} to a copy of {@code value}
+     */
+    public void copy(int position, IValueReference value) throws HyracksDataException {
+        int start = storage.getLength();
+        storage.append(value);
+        arrays[position] = null;
+        starts[position] = start;
+        lengths[position] = value.getLength();
+    }
+
+    /**
+     * Starts writing the value at {@code position} into the vector's storage. The value must be completed by calling
+     * {@link #endValue()}.
+     *
+     * @return the output to write the value to
+     */
+    public DataOutput beginValue(int position) {
+        openPosition = position;
+        arrays[position] = null;
+        starts[position] = storage.getLength();
+        return storage.getDataOutput();
+    }
+
+    public void endValue() {
+        lengths[openPosition] = storage.getLength() - starts[openPosition];
+        openPosition = -1;
+    }
+
+    public byte[] getByteArray(int position) {
+        byte[] bytes = arrays[position];
+        return bytes != null ? bytes : storage.getByteArray();
+    }
+
+    public int getStartOffset(int position) {
+        return starts[position];
+    }
+
+    public int getLength(int position) {
+        return lengths[position];
+    }
+
+    public void getValue(int position, IPointable value) {
+        value.set(getByteArray(position), starts[position], lengths[position]);
+    }
+}
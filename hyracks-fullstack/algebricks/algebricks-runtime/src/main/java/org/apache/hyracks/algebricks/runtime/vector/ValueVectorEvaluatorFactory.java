@@ -0,0 +1,52 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.vector;
+
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Creates scalar evaluators that return the value of the evaluated tuple from an already evaluated
+ * {@link ValueVector}. It allows a vector evaluator to fall back to the scalar evaluator of its function for some
+ * tuples without evaluating the function's arguments again. It is only used within a task and never serialized.
+ */
+public class ValueVectorEvaluatorFactory implements IScalarEvaluatorFactory {
+    private static final long serialVersionUID = 1L;
+
+    private final transient ValueVector vector;
+
+    public ValueVectorEvaluatorFactory(ValueVector vector) {
+        this.vector = vector;
+    }
+
+    @Override
+    public IScalarEvaluator createScalarEvaluator(IEvaluatorContext ctx) throws HyracksDataException {
+        return (tuple, result) -> vector.getValue(tuple.getTupleIndex(), result);
+    }
+
+    public static IScalarEvaluatorFactory[] createFactories(ValueVector[] vectors) {
+        IScalarEvaluatorFactory[] factories = new IScalarEvaluatorFactory[vectors.length];
+        for (int i = 0; i < vectors.length; i++) {
+            factories[i] = new ValueVectorEvaluatorFactory(vectors[i]);
+        }
+        return factories;
+    }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.algebricks.runtime.vector;
+
+import org.apache.hyracks.algebricks.runtime.base.IEvaluatorContext;
+import org.apache.hyracks.algebricks.runtime.base.IScalarEvaluatorFactory;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluator;
+import org.apache.hyracks.algebricks.runtime.base.IVectorScalarEvaluatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+public class VectorEvaluatorUtil {
+
+    private VectorEvaluatorUtil() {
+    }
+
+    public static boolean isVectorizable(IScalarEvaluatorFactory factory) {
+        return factory instanceof IVectorScalarEvaluatorFactory;
+    }
+
+    public static boolean isAnyVectorizable(IScalarEvaluatorFactory[] factories) {
+        for (IScalarEvaluatorFactory factory : factories) {
+            if (isVectorizable(factory)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a vector evaluator for {@code factory}. If the factory is not able to create one, its scalar evaluator
+     * is evaluated tuple-at-a-time for the selected tuples.
+     */
+    public static IVectorScalarEvaluator createVectorEvaluator(IScalarEvaluatorFactory factory,
+            IEvaluatorContext ctx) throws HyracksDataException {
+        if (isVectorizable(factory)) {
+            return ((IVectorScalarEvaluatorFactory) factory).createVectorScalarEvaluator(ctx);
+        }
+        return new ScalarVectorEvaluator(factory.createScalarEvaluator(ctx));
+    }
+
+    public static IVectorScalarEvaluator[] createVectorEvaluators(IScalarEvaluatorFactory[] factories,
+            IEvaluatorContext ctx) throws HyracksDataException {
+        IVectorScalarEvaluator[] evals = new IVectorScalarEvaluator[factories.length];
+        for (int i = 0; i < factories.length; i++) {
+            evals[i] = createVectorEvaluator(factories[i], ctx);
+        }
+        return evals;
+    }
+}
@@ -96,4 +96,13 @@ public interface IChannelReadInterface {
      * @return The buffer factory used by this {@link IChannelReadInterface}
      */
     public IBufferFactory getBufferFactory();
+
+    /**
+     * Sets whether the remote end may send frames that are shorter than the buffers of this
+     * {@link IChannelReadInterface}. When set, a buffer is handed to the full buffer acceptor at the end of each
+     * data message instead of once it is full, so every message is received in a buffer of its own.
+     *
+     * @param variableSizeFrames
+     */
+    public void setVariableSizeFrames(boolean variableSizeFrames);
 }
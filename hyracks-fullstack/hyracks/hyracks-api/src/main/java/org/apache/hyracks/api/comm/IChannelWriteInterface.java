@@ -85,4 +85,13 @@ public interface IChannelWriteInterface {
      * state of this {@link IChannelWriteInterface}
      */
     public void adjustChannelWritability();
+
+    /**
+     * Sets whether buffers that are shorter than a frame may be written to this {@link IChannelWriteInterface}.
+     * When set, each buffer is sent as a single data message and consumes the credits of a whole buffer, since the
+     * remote end receives it in a buffer of its own. Both ends of the channel must agree on this.
+     *
+     * @param variableSizeFrames
+     */
+    public void setVariableSizeFrames(boolean variableSizeFrames);
 }
@@ -23,4 +23,13 @@ import org.apache.hyracks.api.job.JobId;
 
 public interface IResultSet {
     IResultSetReader createReader(JobId jobId, ResultSetId resultSetId) throws HyracksDataException;
+
+    /**
+     * Creates a reader that only reads the given partition of the result set
+     *
+     * @param partition
+     *            the partition to read
+     * @return the reader
+     */
+    IResultSetReader createReader(JobId jobId, ResultSetId resultSetId, int partition) throws HyracksDataException;
 }
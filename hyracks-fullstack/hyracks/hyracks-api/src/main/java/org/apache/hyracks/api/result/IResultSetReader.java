@@ -33,4 +33,11 @@ public interface IResultSetReader {
      * @return the result metadata
      */
     IResultMetadata getResultMetadata();
+
+    /**
+     * Gets the number of partitions of the result set. Waits until the locations of the partitions are known.
+     *
+     * @return the number of partitions
+     */
+    int getNumPartitions() throws HyracksDataException;
 }
@@ -42,8 +42,15 @@ public class ResultSet implements IResultSet, Closeable {
 
     private final IHyracksCommonContext resultClientCtx;
 
+    private final int numPrefetchPartitions;
+
     public ResultSet(IHyracksClientConnection hcc, ISocketChannelFactory socketChannelFactory, int frameSize,
             int nReaders) throws Exception {
+        this(hcc, socketChannelFactory, frameSize, nReaders, 0);
+    }
+
+    public ResultSet(IHyracksClientConnection hcc, ISocketChannelFactory socketChannelFactory, int frameSize,
+            int nReaders, int numPrefetchPartitions) throws Exception {
         NetworkAddress ddsAddress = hcc.getResultDirectoryAddress();
         resultDirectory = new ResultDirectory(ddsAddress.getAddress(), ddsAddress.getPort(), socketChannelFactory);
 
@@ -51,6 +58,7 @@ public class ResultSet implements IResultSet, Closeable {
         netManager.start();
 
         resultClientCtx = new ResultClientContext(frameSize);
+        this.numPrefetchPartitions = numPrefetchPartitions;
     }
 
     @Override
@@ -64,9 +72,16 @@ public class ResultSet implements IResultSet, Closeable {
 
     @Override
     public IResultSetReader createReader(JobId jobId, ResultSetId resultSetId) throws HyracksDataException {
+        return createReader(jobId, resultSetId, -1);
+    }
+
+    @Override
+    public IResultSetReader createReader(JobId jobId, ResultSetId resultSetId, int partition)
+            throws HyracksDataException {
         IResultSetReader reader = null;
         try {
-            reader = new ResultSetReader(resultDirectory, netManager, resultClientCtx, jobId, resultSetId);
+            reader = new ResultSetReader(resultDirectory, netManager, resultClientCtx, jobId, resultSetId,
+                    numPrefetchPartitions, partition);
         } catch (Exception e) {
             throw HyracksDataException.create(e);
         }
@@ -46,29 +46,55 @@ import org.apache.logging.log4j.Level;
 import org.apache.logging.log4j.LogManager;
 import org.apache.logging.log4j.Logger;
 
+/**
+ * Reads the partitions of a result set in order. While a partition is being read, the channels of up to
+ * {@code numPrefetchPartitions} of the following partitions whose locations are known are opened as well, so that
+ * their frames are fetched from the nodes in parallel and are ready once the reader gets to them.
+ * A reader can also be restricted to a single partition so that the partitions of a result can be read by
+ * different readers concurrently.
+ */
 @NotThreadSafe
 public class ResultSetReader implements IResultSetReader {
 
     private static final Logger LOGGER = LogManager.getLogger();
     private static final int NUM_READ_BUFFERS = 1;
+    private static final int NUM_PREFETCH_READ_BUFFERS = 4;
+    private static final int ALL_PARTITIONS = -1;
     private final IResultDirectory resultDirectory;
     private final ClientNetworkManager netManager;
     private final IHyracksCommonContext resultClientCtx;
     private final JobId jobId;
     private final ResultSetId resultSetId;
+    private final int numPrefetchPartitions;
+    private final int partition;
     private ResultDirectoryRecord[] knownRecords;
     private ResultInputChannelMonitor[] monitors;
+    private ResultNetworkInputChannel[] prefetchedChannels;
     private ResultInputChannelMonitor currentRecordMonitor;
     private ResultNetworkInputChannel currentRecordChannel;
     private int currentRecord;
 
     public ResultSetReader(IResultDirectory resultDirectory, ClientNetworkManager netManager,
             IHyracksCommonContext resultClientCtx, JobId jobId, ResultSetId resultSetId) {
+        this(resultDirectory, netManager, resultClientCtx, jobId, resultSetId, 0, ALL_PARTITIONS);
+    }
+
+    /**
+     * @param numPrefetchPartitions
+     *            the number of partitions to fetch ahead of the one being read
+     * @param partition
+     *            the only partition to read or a negative value to read all the partitions
+     */
+    public ResultSetReader(IResultDirectory resultDirectory, ClientNetworkManager netManager,
+            IHyracksCommonContext resultClientCtx, JobId jobId, ResultSetId resultSetId, int numPrefetchPartitions,
+            int partition) {
         this.resultDirectory = resultDirectory;
         this.netManager = netManager;
         this.resultClientCtx = resultClientCtx;
         this.jobId = jobId;
         this.resultSetId = resultSetId;
+        this.numPrefetchPartitions = partition < 0 ? numPrefetchPartitions : 0;
+        this.partition = partition < 0 ? ALL_PARTITIONS : partition;
         currentRecord = -1;
     }
 
@@ -125,11 +151,18 @@ public class ResultSetReader implements IResultSetReader {
             if (isLocalFailure()) {
                 currentRecordChannel.fail();
             }
+            failPrefetchedChannels();
             throw e;
         }
         return readSize;
     }
 
+    @Override
+    public int getNumPartitions() throws HyracksDataException {
+        getRecord(0);
+        return knownRecords.length;
+    }
+
     @Override
     public IResultMetadata getResultMetadata() {
         try {
@@ -167,10 +200,14 @@ public class ResultSetReader implements IResultSetReader {
     }
 
     private boolean hasNextRecord() throws HyracksDataException {
+        if (partition != ALL_PARTITIONS) {
+            return hasPartitionRecord();
+        }
         currentRecord++;
         ResultDirectoryRecord record = getRecord(currentRecord);
         // skip empty records
         while (record.isEmpty() && ++currentRecord < knownRecords.length) {
+            closePrefetchedChannel(currentRecord - 1);
             record = getRecord(currentRecord);
         }
         if (currentRecord == knownRecords.length) {
@@ -178,9 +215,65 @@ public class ResultSetReader implements IResultSetReader {
             return false;
         }
         requestRecordData(record);
+        prefetch();
+        return true;
+    }
+
+    private boolean hasPartitionRecord() throws HyracksDataException {
+        if (currentRecord == partition) {
+            return false;
+        }
+        if (partition >= getNumPartitions()) {
+            throw new IllegalArgumentException(
+                    "Partition " + partition + " is out of range [0, " + knownRecords.length + ")");
+        }
+        currentRecord = partition;
+        ResultDirectoryRecord record = getRecord(currentRecord);
+        if (record.isEmpty()) {
+            return false;
+        }
+        requestRecordData(record);
         return true;
     }
 
+    private void prefetch() throws HyracksDataException {
+        int last = Math.min(currentRecord + numPrefetchPartitions, knownRecords.length - 1);
+        for (int i = currentRecord + 1; i <= last; i++) {
+            ResultDirectoryRecord record = knownRecords[i];
+            if (record == null) {
+                // don't wait for the locations of the following partitions
+                return;
+            }
+            if (!record.isEmpty() && (prefetchedChannels == null || prefetchedChannels[i] == null)) {
+                if (prefetchedChannels == null) {
+                    prefetchedChannels = new ResultNetworkInputChannel[knownRecords.length];
+                }
+                prefetchedChannels[i] = openChannel(i, record, NUM_PREFETCH_READ_BUFFERS);
+            }
+        }
+    }
+
+    private void closePrefetchedChannel(int record) throws HyracksDataException {
+        if (prefetchedChannels != null && prefetchedChannels[record] != null) {
+            prefetchedChannels[record].close();
+            prefetchedChannels[record] = null;
+        }
+    }
+
+    private void failPrefetchedChannels() {
+        if (prefetchedChannels == null) {
+            return;
+        }
+        for (int i = 0; i < prefetchedChannels.length; i++) {
+            if (prefetchedChannels[i] != null) {
+                if (!getMonitor(i).failed()) {
+                    prefetchedChannels[i].fail();
+                }
+                prefetchedChannels[i] = null;
+            }
+        }
+    }
+
     private ResultDirectoryRecord getRecord(int recordNum) throws HyracksDataException {
         try {
             while (knownRecords == null || knownRecords[recordNum] == null) {
@@ -193,11 +286,22 @@ public class ResultSetReader implements IResultSetReader {
     }
 
     private void requestRecordData(ResultDirectoryRecord record) throws HyracksDataException {
-        currentRecordChannel = new ResultNetworkInputChannel(netManager, getSocketAddress(record), jobId, resultSetId,
-                currentRecord, NUM_READ_BUFFERS);
+        if (prefetchedChannels != null && prefetchedChannels[currentRecord] != null) {
+            currentRecordChannel = prefetchedChannels[currentRecord];
+            prefetchedChannels[currentRecord] = null;
+        } else {
+            currentRecordChannel = openChannel(currentRecord, record, NUM_READ_BUFFERS);
+        }
         currentRecordMonitor = getMonitor(currentRecord);
-        currentRecordChannel.registerMonitor(currentRecordMonitor);
-        currentRecordChannel.open(resultClientCtx);
+    }
+
+    private ResultNetworkInputChannel openChannel(int recordNum, ResultDirectoryRecord record, int nBuffers)
+            throws HyracksDataException {
+        ResultNetworkInputChannel channel = new ResultNetworkInputChannel(netManager, getSocketAddress(record), jobId,
+                resultSetId, recordNum, nBuffers);
+        channel.registerMonitor(getMonitor(recordNum));
+        channel.open(resultClientCtx);
+        return channel;
     }
 
     private boolean isFirstRead() {
@@ -205,7 +309,8 @@ public class ResultSetReader implements IResultSetReader {
     }
 
     private boolean isLastRecord() {
-        return knownRecords != null && currentRecord == knownRecords.length - 1;
+        return partition != ALL_PARTITIONS ? currentRecord == partition
+                : knownRecords != null && currentRecord == knownRecords.length - 1;
     }
 
     private boolean isLocalFailure() {
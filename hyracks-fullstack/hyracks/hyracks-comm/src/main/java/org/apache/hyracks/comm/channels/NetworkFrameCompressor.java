@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.channels;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.net.protocols.muxdemux.MuxDemuxPerformanceCounters;
+import org.apache.hyracks.util.annotations.NotThreadSafe;
+import org.xerial.snappy.Snappy;
+
+/**
+ * Compresses the frames sent over a network channel with Snappy. A frame is only sent compressed when it shrinks to
+ * at most {@link #MAX_COMPRESSED_RATIO} of its size, which makes compressed frames the only ones shorter than a whole
+ * frame: this is how the receiver tells them apart. After a frame that does not compress well, the following frames
+ * are sent as they are for a while (twice as long each time, up to {@link #MAX_BACKOFF_FRAMES}) before compression
+ * is attempted again, so that channels carrying incompressible data stop paying for it.
+ */
+@NotThreadSafe
+public class NetworkFrameCompressor {
+    static final double MAX_COMPRESSED_RATIO = 0.9;
+    static final int MAX_BACKOFF_FRAMES = 64;
+
+    private final MuxDemuxPerformanceCounters counters;
+    private byte[] compressed = new byte[0];
+    private int backoffFrames;
+    private int skippedFrames;
+
+    public NetworkFrameCompressor(MuxDemuxPerformanceCounters counters) {
+        this.counters = counters;
+    }
+
+    /**
+     * Compresses {@code length} bytes of {@code source} from its position into {@code dest} if they compress well.
+     * The position of {@code source} is left unchanged.
+     *
+     * @return {@code true} if the compressed bytes were put into {@code dest}, {@code false} if nothing was put and
+     *         the bytes must be sent as they are
+     */
+    public boolean compress(ByteBuffer source, int length, ByteBuffer dest) throws HyracksDataException {
+        if (skippedFrames > 0) {
+            skippedFrames--;
+            counters.addUncompressedFrame();
+            return false;
+        }
+        int maxCompressedLength = Snappy.maxCompressedLength(length);
+        if (compressed.length < maxCompressedLength) {
+            compressed = new byte[maxCompressedLength];
+        }
+        int compressedLength;
+        try {
+            compressedLength =
+                    Snappy.compress(source.array(), source.arrayOffset() + source.position(), length, compressed, 0);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        if (compressedLength > length * MAX_COMPRESSED_RATIO || compressedLength > dest.remaining()) {
+            backoffFrames = Math.min(Math.max(1, backoffFrames * 2), MAX_BACKOFF_FRAMES);
+            skippedFrames = backoffFrames;
+            counters.addUncompressedFrame();
+            return false;
+        }
+        backoffFrames = 0;
+        dest.put(compressed, 0, compressedLength);
+        counters.addCompressedFrame(length, compressedLength);
+        return true;
+    }
+
+    /**
+     * Uncompresses the frame between the position and the limit of {@code source} into {@code dest}, which is cleared
+     * first and flipped after.
+     */
+    public static void uncompress(ByteBuffer source, ByteBuffer dest) throws HyracksDataException {
+        dest.clear();
+        try {
+            int length = Snappy.uncompress(source.array(), source.arrayOffset() + source.position(), source.remaining(),
+                    dest.array(), dest.arrayOffset());
+            dest.limit(length);
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+}
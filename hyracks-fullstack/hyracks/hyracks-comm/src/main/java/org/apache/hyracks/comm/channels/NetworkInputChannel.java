@@ -37,7 +37,12 @@ import org.apache.logging.log4j.Logger;
 public class NetworkInputChannel implements IInputChannel {
     private static final Logger LOGGER = LogManager.getLogger();
 
-    static final int INITIAL_MESSAGE_SIZE = 20;
+    static final int INITIAL_MESSAGE_SIZE = 24;
+
+    /**
+     * Flag of the partition request asking the sender to compress the frames
+     */
+    public static final int FLAG_COMPRESSION = 0x1;
 
     private final IChannelConnectionFactory netManager;
 
@@ -49,19 +54,33 @@ public class NetworkInputChannel implements IInputChannel {
 
     private final int nBuffers;
 
+    private final boolean compression;
+
     private IChannelControlBlock ccb;
 
     private IInputChannelMonitor monitor;
 
     private Object attachment;
 
+    private ByteBuffer spareBuffer;
+
     public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
             PartitionId partitionId, int nBuffers) {
+        this(netManager, remoteAddress, partitionId, nBuffers, false);
+    }
+
+    /**
+     * @param compression
+     *            whether to ask the sender to compress the frames. The sender may still send them as they are.
+     */
+    public NetworkInputChannel(IChannelConnectionFactory netManager, SocketAddress remoteAddress,
+            PartitionId partitionId, int nBuffers, boolean compression) {
         this.netManager = netManager;
         this.remoteAddress = remoteAddress;
         this.partitionId = partitionId;
         fullQueue = new ArrayDeque<ByteBuffer>(nBuffers);
         this.nBuffers = nBuffers;
+        this.compression = compression;
     }
 
     @Override
@@ -81,7 +100,20 @@ public class NetworkInputChannel implements IInputChannel {
 
     @Override
     public synchronized ByteBuffer getNextBuffer() {
-        return fullQueue.poll();
+        ByteBuffer buffer = fullQueue.poll();
+        if (compression && buffer != null && buffer.remaining() < buffer.capacity()) {
+            // only compressed frames are shorter than a whole frame. the frame is uncompressed into the spare buffer
+            // and the buffer that held the compressed frame becomes the spare one
+            ByteBuffer frame = spareBuffer;
+            try {
+                NetworkFrameCompressor.uncompress(buffer, frame);
+            } catch (HyracksDataException e) {
+                throw new IllegalStateException("corrupt compressed frame received on " + ccb, e);
+            }
+            spareBuffer = buffer;
+            return frame;
+        }
+        return buffer;
     }
 
     @Override
@@ -101,11 +133,16 @@ public class NetworkInputChannel implements IInputChannel {
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
         ccb.getReadInterface().setBufferFactory(new ReadBufferFactory(nBuffers, ctx), nBuffers,
                 ctx.getInitialFrameSize());
+        if (compression) {
+            spareBuffer = ByteBuffer.allocate(ctx.getInitialFrameSize());
+            ccb.getReadInterface().setVariableSizeFrames(true);
+        }
         ByteBuffer writeBuffer = ByteBuffer.allocate(INITIAL_MESSAGE_SIZE);
         writeBuffer.putLong(partitionId.getJobId().getId());
         writeBuffer.putInt(partitionId.getConnectorDescriptorId().getId());
         writeBuffer.putInt(partitionId.getSenderIndex());
         writeBuffer.putInt(partitionId.getReceiverIndex());
+        writeBuffer.putInt(compression ? FLAG_COMPRESSION : 0);
         writeBuffer.flip();
         if (LOGGER.isTraceEnabled()) {
             LOGGER.trace("Sending partition request: " + partitionId + " on channel: " + ccb);
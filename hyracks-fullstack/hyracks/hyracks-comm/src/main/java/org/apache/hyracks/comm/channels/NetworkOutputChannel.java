@@ -43,11 +43,26 @@ public class NetworkOutputChannel implements IFrameWriter {
 
     private int allocateCounter = 0;
 
+    private final NetworkFrameCompressor compressor;
+
     public NetworkOutputChannel(ChannelControlBlock ccb, int nBuffers) {
+        this(ccb, nBuffers, null);
+    }
+
+    /**
+     * @param compressor
+     *            the compressor of the frames sent over this channel, or {@code null} to send them as they are. The
+     *            receiving side must expect compressed frames.
+     */
+    public NetworkOutputChannel(ChannelControlBlock ccb, int nBuffers, NetworkFrameCompressor compressor) {
         this.ccb = ccb;
         this.nBuffers = nBuffers;
+        this.compressor = compressor;
         emptyStack = new ArrayDeque<>(nBuffers);
         ccb.getWriteInterface().setEmptyBufferAcceptor(new WriteEmptyBufferAcceptor());
+        if (compressor != null) {
+            ccb.getWriteInterface().setVariableSizeFrames(true);
+        }
     }
 
     public void setFrameSize(int frameSize) {
@@ -93,7 +108,10 @@ public class NetworkOutputChannel implements IFrameWriter {
                 }
             }
             destBuffer.clear();
-            if (destBuffer.capacity() < buffer.remaining()) {
+            int length = Math.min(destBuffer.capacity(), buffer.remaining());
+            if (compressor != null && buffer.hasArray() && compressor.compress(buffer, length, destBuffer)) {
+                buffer.position(buffer.position() + length);
+            } else if (destBuffer.capacity() < buffer.remaining()) {
                 destBuffer.put(buffer.array(), buffer.position(), destBuffer.capacity());
                 buffer.position(buffer.position() + destBuffer.capacity());
             } else {
@@ -136,7 +136,9 @@ public class ResultNetworkInputChannel implements IInputChannel {
     private class ReadFullBufferAcceptor implements ICloseableBufferAcceptor {
         @Override
         public void accept(ByteBuffer buffer) {
-            fullQueue.add(buffer);
+            synchronized (ResultNetworkInputChannel.this) {
+                fullQueue.add(buffer);
+            }
             monitor.notifyDataAvailability(ResultNetworkInputChannel.this, 1);
         }
 
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.comm.channels;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import org.apache.hyracks.net.protocols.muxdemux.MuxDemuxPerformanceCounters;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class NetworkFrameCompressorTest {
+    private static final int FRAME_SIZE = 32768;
+
+    @Test
+    public void compressibleFrames() throws Exception {
+        MuxDemuxPerformanceCounters counters = new MuxDemuxPerformanceCounters();
+        NetworkFrameCompressor compressor = new NetworkFrameCompressor(counters);
+        ByteBuffer dest = ByteBuffer.allocate(FRAME_SIZE);
+        ByteBuffer received = ByteBuffer.allocate(FRAME_SIZE);
+        for (int i = 0; i < 10; i++) {
+            ByteBuffer frame = compressibleFrame(i);
+            dest.clear();
+            Assert.assertTrue(compressor.compress(frame, frame.remaining(), dest));
+            Assert.assertEquals(0, frame.position());
+            dest.flip();
+            // compressed frames must be shorter than a frame for the receiver to recognize them
+            Assert.assertTrue(dest.remaining() < FRAME_SIZE);
+            NetworkFrameCompressor.uncompress(dest, received);
+            Assert.assertEquals(frame, received);
+        }
+        Assert.assertEquals(10, counters.getCompressedFrames());
+        Assert.assertEquals(0, counters.getUncompressedFrames());
+        Assert.assertEquals(10L * FRAME_SIZE, counters.getCompressionInputBytes());
+        Assert.assertTrue(counters.getCompressionOutputBytes() < counters.getCompressionInputBytes());
+    }
+
+    @Test
+    public void backOffOnIncompressibleFrames() throws Exception {
+        MuxDemuxPerformanceCounters counters = new MuxDemuxPerformanceCounters();
+        NetworkFrameCompressor compressor = new NetworkFrameCompressor(counters);
+        ByteBuffer dest = ByteBuffer.allocate(FRAME_SIZE);
+        Random random = new Random(0);
+        ByteBuffer incompressible = ByteBuffer.allocate(FRAME_SIZE);
+        random.nextBytes(incompressible.array());
+        // the first attempt fails, then 1 frame is skipped, then 2, then 4
+        for (int i = 0; i < 1 + 1 + 1 + 2 + 1 + 4; i++) {
+            dest.clear();
+            Assert.assertFalse(compressor.compress(incompressible, FRAME_SIZE, dest));
+            Assert.assertEquals(0, dest.position());
+        }
+        Assert.assertEquals(10, counters.getUncompressedFrames());
+        // the next frame is attempted again, and compressing it resets the backoff
+        dest.clear();
+        Assert.assertTrue(compressor.compress(compressibleFrame(0), FRAME_SIZE, dest));
+        dest.clear();
+        Assert.assertFalse(compressor.compress(incompressible, FRAME_SIZE, dest));
+        dest.clear();
+        Assert.assertFalse(compressor.compress(compressibleFrame(1), FRAME_SIZE, dest));
+        dest.clear();
+        Assert.assertTrue(compressor.compress(compressibleFrame(2), FRAME_SIZE, dest));
+        Assert.assertEquals(2, counters.getCompressedFrames());
+        Assert.assertEquals(12, counters.getUncompressedFrames());
+    }
+
+    private static ByteBuffer compressibleFrame(int seed) {
+        ByteBuffer frame = ByteBuffer.allocate(FRAME_SIZE);
+        byte[] record = ("{\"id\": " + seed + ", \"name\": \"a repeated field value\"}").getBytes();
+        while (frame.remaining() >= record.length) {
+            frame.put(record);
+        }
+        frame.clear();
+        return frame;
+    }
+}
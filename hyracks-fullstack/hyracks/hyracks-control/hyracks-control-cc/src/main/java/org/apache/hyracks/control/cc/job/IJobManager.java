@@ -25,8 +25,11 @@ import java.util.List;
 import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.control.common.controllers.CCConfig;
 import org.apache.hyracks.control.common.work.IResultCallback;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * This interface abstracts the job lifecycle management and job scheduling for a cluster.
  */
@@ -125,4 +128,14 @@ public interface IJobManager {
      * @return the maximum number of jobs to queue before rejecting new jobs
      */
     int getJobQueueCapacity();
+
+    /**
+     * @return the configuration of the cluster controller
+     */
+    CCConfig getCCConfig();
+
+    /**
+     * @return the statistics of the job queue
+     */
+    ObjectNode getJobQueueStats();
 }
@@ -116,6 +116,7 @@ public class JobManager implements IJobManager {
                 queueJob(jobRun);
                 break;
             case EXECUTE:
+                jobQueue.notifyAdmittedWithoutQueueing(jobRun);
                 executeJob(jobRun);
                 break;
             default:
@@ -233,6 +234,7 @@ public class JobManager implements IJobManager {
         if (activeRunMap.remove(jobId) != null) {
             // non-active jobs have zero capacity
             releaseJobCapacity(run);
+            jobQueue.notifyCompleted(run);
         }
         runMapArchive.put(jobId, run);
         runMapHistory.put(jobId, run.getExceptions());
@@ -296,6 +298,16 @@ public class JobManager implements IJobManager {
         return ccs.getCCConfig().getJobQueueCapacity();
     }
 
+    @Override
+    public CCConfig getCCConfig() {
+        return ccs.getCCConfig();
+    }
+
+    @Override
+    public ObjectNode getJobQueueStats() {
+        return jobQueue.getStats();
+    }
+
     private void pickJobsToRun() throws HyracksException {
         List<JobRun> selectedRuns = jobQueue.pull();
         for (JobRun run : selectedRuns) {
@@ -0,0 +1,390 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.IClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.apache.hyracks.util.annotations.GuardedBy;
+import org.apache.hyracks.util.annotations.NotThreadSafe;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * An implementation of IJobQueue that shares the cluster between classes of jobs (e.g. tenants or interactive vs.
+ * reporting queries) in proportion to their weights, so that a backlog of heavy jobs of one class does not hold back
+ * the jobs of the other classes.
+ * <ul>
+ * <li>The class of a job is the {@value #JOB_CLASS_PROPERTY} property of its specification ({@value #DEFAULT_CLASS}
+ * if not set). The weights of the classes are configured by {@link CCConfig.Option#JOB_QUEUE_WEIGHTS}.</li>
+ * <li>Every admitted job, queued or not, charges its class a cost that grows with the memory it requires divided by
+ * the weight of the class (start-time fair queuing). Queued jobs are admitted from the class that received the least
+ * weighted service so far. A class that was idle does not accumulate credit: it restarts at the virtual time of the
+ * backlogged classes.</li>
+ * <li>Queued jobs that require at most {@link CCConfig.Option#JOB_QUEUE_FAST_LANE_MEMORY} are admitted first
+ * (fast lane), so short lookups do not wait behind large queued jobs that the cluster cannot fit yet.</li>
+ * <li>If {@link CCConfig.Option#JOB_QUEUE_PREEMPTION} is enabled, a new job arriving at a full queue rejects the
+ * latest queued (not started) job of the class that is the furthest ahead of its share instead of being rejected.</li>
+ * </ul>
+ */
+@NotThreadSafe
+@GuardedBy("JobManager")
+public class FairShareJobQueue implements IJobQueue {
+
+    public static final String JOB_CLASS_PROPERTY = "job.class";
+    public static final String DEFAULT_CLASS = "default";
+    private static final Logger LOGGER = LogManager.getLogger();
+
+    private final Map<JobId, JobRun> jobListMap = new LinkedHashMap<>();
+    private final Map<String, JobClass> classes = new HashMap<>();
+    private final Map<String, Integer> weights;
+    private final IJobManager jobManager;
+    private final IJobCapacityController jobCapacityController;
+    private final int jobQueueCapacity;
+    private final long fastLaneMemory;
+    private final boolean preemption;
+    // the virtual time of the class which was served last
+    private double virtualTime;
+    private long fastLaneAdmitted;
+    private long preempted;
+
+    public FairShareJobQueue(IJobManager jobManager, IJobCapacityController jobCapacityController) {
+        this.jobManager = jobManager;
+        this.jobCapacityController = jobCapacityController;
+        this.jobQueueCapacity = jobManager.getJobQueueCapacity();
+        CCConfig ccConfig = jobManager.getCCConfig();
+        this.weights = parseWeights(ccConfig.getJobQueueWeights());
+        this.fastLaneMemory = ccConfig.getJobQueueFastLaneMemory();
+        this.preemption = ccConfig.isJobQueuePreemption();
+    }
+
+    @Override
+    public void add(JobRun run) throws HyracksException {
+        if (jobListMap.size() >= jobQueueCapacity && !preemptFor(run)) {
+            throw HyracksException.create(ErrorCode.JOB_QUEUE_FULL, jobQueueCapacity);
+        }
+        JobClass jobClass = getJobClass(run);
+        if (jobClass.queued.isEmpty()) {
+            activate(jobClass);
+        }
+        jobClass.queued.put(run.getJobId(), run);
+        jobListMap.put(run.getJobId(), run);
+    }
+
+    @Override
+    public JobRun remove(JobId jobId) {
+        JobRun run = jobListMap.remove(jobId);
+        if (run != null) {
+            getJobClass(run).queued.remove(jobId);
+        }
+        return run;
+    }
+
+    @Override
+    public JobRun get(JobId jobId) {
+        return jobListMap.get(jobId);
+    }
+
+    @Override
+    public List<JobRun> pull() {
+        List<JobRun> jobRuns = new ArrayList<>();
+        // fast lane
+        for (JobRun run : new ArrayList<>(jobListMap.values())) {
+            // failing a job that can never be executed pulls jobs recursively, skip the jobs pulled meanwhile
+            if (jobListMap.containsKey(run.getJobId()) && isFastLane(run) && admit(run)) {
+                fastLaneAdmitted++;
+                jobRuns.add(run);
+            }
+        }
+        // fair share: admit one job at a time from the backlogged class with the smallest virtual time
+        List<JobClass> backlogged = new ArrayList<>();
+        boolean admitted = true;
+        while (admitted) {
+            admitted = false;
+            backlogged.clear();
+            for (JobClass jobClass : classes.values()) {
+                if (!jobClass.queued.isEmpty()) {
+                    backlogged.add(jobClass);
+                }
+            }
+            backlogged.sort(Comparator.comparingDouble((JobClass c) -> c.virtualTime).thenComparing(c -> c.name));
+            for (JobClass jobClass : backlogged) {
+                JobRun run = admitFirst(jobClass);
+                if (run != null) {
+                    jobRuns.add(run);
+                    admitted = true;
+                    break;
+                }
+            }
+        }
+        return jobRuns;
+    }
+
+    @Override
+    public Collection<JobRun> jobs() {
+        return Collections.unmodifiableCollection(jobListMap.values());
+    }
+
+    @Override
+    public void clear() {
+        jobListMap.clear();
+        classes.values().forEach(c -> c.queued.clear());
+    }
+
+    @Override
+    public void notifyAdmittedWithoutQueueing(JobRun run) {
+        JobClass jobClass = getJobClass(run);
+        if (jobClass.queued.isEmpty() && jobClass.running == 0) {
+            activate(jobClass);
+        }
+        charge(jobClass, run);
+    }
+
+    @Override
+    public void notifyCompleted(JobRun run) {
+        JobClass jobClass = getJobClass(run);
+        jobClass.running = Math.max(0, jobClass.running - 1);
+    }
+
+    @Override
+    public ObjectNode getStats() {
+        ObjectMapper om = new ObjectMapper();
+        ObjectNode stats = om.createObjectNode();
+        stats.put("queued", jobListMap.size());
+        stats.put("virtual-time", virtualTime);
+        stats.put("fast-lane-admitted", fastLaneAdmitted);
+        stats.put("preempted", preempted);
+        ArrayNode classStats = stats.putArray("classes");
+        long now = System.currentTimeMillis();
+        for (JobClass jobClass : classes.values()) {
+            ObjectNode classNode = classStats.addObject();
+            classNode.put("class", jobClass.name);
+            classNode.put("weight", jobClass.weight);
+            classNode.put("virtual-time", jobClass.virtualTime);
+            classNode.put("queued", jobClass.queued.size());
+            classNode.put("running", jobClass.running);
+            classNode.put("admitted", jobClass.admitted);
+            classNode.put("queue-wait-total-ms", jobClass.totalWaitMillis);
+            classNode.put("queue-wait-max-ms", jobClass.maxWaitMillis);
+            classNode.put("queue-wait-avg-ms",
+                    jobClass.admitted == 0 ? 0 : jobClass.totalWaitMillis / jobClass.admitted);
+            JobRun oldest = jobClass.queued.isEmpty() ? null : jobClass.queued.values().iterator().next();
+            classNode.put("oldest-queued-wait-ms", oldest == null ? 0 : now - oldest.getCreateTime());
+        }
+        return stats;
+    }
+
+    private JobRun admitFirst(JobClass jobClass) {
+        Iterator<JobRun> runIterator = jobClass.queued.values().iterator();
+        while (runIterator.hasNext()) {
+            JobRun run = runIterator.next();
+            int queued = jobClass.queued.size();
+            if (admit(run)) {
+                return run;
+            }
+            if (jobClass.queued.size() != queued) {
+                // the job was rejected (and jobs may have been pulled recursively), restart from the beginning
+                runIterator = jobClass.queued.values().iterator();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Tries to allocate the capacity of a queued job. The job is removed from the queue if it is admitted or if it
+     * can never be executed, in which case it is failed.
+     */
+    private boolean admit(JobRun run) {
+        JobSpecification job = run.getJobSpecification();
+        // Cluster maximum capacity can change over time, thus we have to re-check if the job should be rejected or not.
+        try {
+            if (jobCapacityController.allocate(job) != IJobCapacityController.JobSubmissionStatus.EXECUTE) {
+                return false;
+            }
+        } catch (HyracksException exception) {
+            // The required capacity exceeds maximum capacity.
+            remove(run.getJobId());
+            fail(run, exception);
+            return false;
+        }
+        remove(run.getJobId());
+        JobClass jobClass = getJobClass(run);
+        long waitMillis = Math.max(0, System.currentTimeMillis() - run.getCreateTime());
+        jobClass.totalWaitMillis += waitMillis;
+        jobClass.maxWaitMillis = Math.max(jobClass.maxWaitMillis, waitMillis);
+        charge(jobClass, run);
+        return true;
+    }
+
+    private void charge(JobClass jobClass, JobRun run) {
+        virtualTime = Math.max(virtualTime, jobClass.virtualTime);
+        jobClass.virtualTime += getCost(run) / jobClass.weight;
+        jobClass.running++;
+        jobClass.admitted++;
+    }
+
+    /**
+     * A class that becomes backlogged restarts at the virtual time of the other backlogged classes (or of the class
+     * which was served last if there are none) so that it cannot claim the share it did not use while it was idle.
+     */
+    private void activate(JobClass jobClass) {
+        double min = Double.MAX_VALUE;
+        for (JobClass other : classes.values()) {
+            if (other != jobClass && !other.queued.isEmpty()) {
+                min = Math.min(min, other.virtualTime);
+            }
+        }
+        jobClass.virtualTime = Math.max(jobClass.virtualTime, min == Double.MAX_VALUE ? virtualTime : min);
+    }
+
+    private boolean preemptFor(JobRun run) throws HyracksException {
+        if (!preemption) {
+            return false;
+        }
+        JobClass jobClass = getJobClass(run);
+        boolean fastLane = isFastLane(run);
+        JobClass victimClass = null;
+        for (JobClass other : classes.values()) {
+            if (other.queued.isEmpty() || (victimClass != null && other.virtualTime <= victimClass.virtualTime)) {
+                continue;
+            }
+            if (other != jobClass && other.virtualTime > jobClass.virtualTime) {
+                victimClass = other;
+            }
+        }
+        JobRun victim = null;
+        if (victimClass != null) {
+            victim = getLastQueued(victimClass.queued.values());
+        }
+        if (victim == null && fastLane) {
+            // a job of the fast lane may replace a queued job that is not
+            victim = getLastQueued(jobListMap.values());
+        }
+        if (victim == null) {
+            return false;
+        }
+        remove(victim.getJobId());
+        preempted++;
+        fail(victim, HyracksException.create(ErrorCode.JOB_QUEUE_FULL, jobQueueCapacity));
+        return true;
+    }
+
+    /**
+     * @return the latest queued job that does not belong to the fast lane
+     */
+    private JobRun getLastQueued(Collection<JobRun> runs) {
+        JobRun last = null;
+        for (JobRun run : runs) {
+            if (!isFastLane(run)) {
+                last = run;
+            }
+        }
+        return last;
+    }
+
+    private void fail(JobRun run, HyracksException exception) {
+        List<Exception> exceptions = new ArrayList<>();
+        exceptions.add(exception);
+        try {
+            // Fails the job.
+            jobManager.prepareComplete(run, JobStatus.FAILURE_BEFORE_EXECUTION, exceptions);
+        } catch (HyracksException e) {
+            LOGGER.log(Level.ERROR, e.getMessage(), e);
+        }
+    }
+
+    private boolean isFastLane(JobRun run) {
+        return getRequiredMemory(run) <= fastLaneMemory;
+    }
+
+    /**
+     * The cost of a job is one unit plus one unit per {@link #fastLaneMemory} bytes of memory it requires
+     */
+    private double getCost(JobRun run) {
+        return 1.0 + (double) getRequiredMemory(run) / Math.max(1L, fastLaneMemory);
+    }
+
+    private static long getRequiredMemory(JobRun run) {
+        IClusterCapacity capacity = run.getJobSpecification().getRequiredClusterCapacity();
+        return capacity == null ? 0L : capacity.getAggregatedMemoryByteSize();
+    }
+
+    private JobClass getJobClass(JobRun run) {
+        Object property = run.getJobSpecification().getProperty(JOB_CLASS_PROPERTY);
+        String name = property == null ? DEFAULT_CLASS : property.toString();
+        return classes.computeIfAbsent(name, n -> new JobClass(n, weights.getOrDefault(n, 1)));
+    }
+
+    private static Map<String, Integer> parseWeights(String weights) {
+        Map<String, Integer> parsed = new HashMap<>();
+        if (weights == null || weights.trim().isEmpty()) {
+            return parsed;
+        }
+        for (String entry : weights.split(",")) {
+            int separator = entry.lastIndexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid job class weight: " + entry);
+            }
+            int weight = Integer.parseInt(entry.substring(separator + 1).trim());
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Invalid job class weight: " + entry);
+            }
+            parsed.put(entry.substring(0, separator).trim(), weight);
+        }
+        return parsed;
+    }
+
+    private static class JobClass {
+        private final String name;
+        private final int weight;
+        private final Map<JobId, JobRun> queued = new LinkedHashMap<>();
+        private double virtualTime;
+        private int running;
+        private long admitted;
+        private long totalWaitMillis;
+        private long maxWaitMillis;
+
+        JobClass(String name, int weight) {
+            this.name = name;
+            this.weight = weight;
+        }
+    }
+}
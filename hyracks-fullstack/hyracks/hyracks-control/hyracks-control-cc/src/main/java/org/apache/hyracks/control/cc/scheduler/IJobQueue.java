@@ -26,6 +26,9 @@ import org.apache.hyracks.api.exceptions.HyracksException;
 import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.control.cc.job.JobRun;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
 /**
  * This interface specifies a job queue.
  */
@@ -73,4 +76,33 @@ public interface IJobQueue {
      * Clears the job queue
      */
     void clear();
+
+    /**
+     * Notifies the queue that a job started executing right away, without being queued.
+     *
+     * @param run,
+     *            the descriptor of the job.
+     */
+    default void notifyAdmittedWithoutQueueing(JobRun run) {
+        // no op
+    }
+
+    /**
+     * Notifies the queue that a job that was executing completed and released its capacity.
+     *
+     * @param run,
+     *            the descriptor of the job.
+     */
+    default void notifyCompleted(JobRun run) {
+        // no op
+    }
+
+    /**
+     * @return the statistics of the queue
+     */
+    default ObjectNode getStats() {
+        ObjectNode stats = new ObjectMapper().createObjectNode();
+        stats.put("queued", jobs().size());
+        return stats;
+    }
 }
@@ -26,6 +26,7 @@ import org.apache.hyracks.control.cc.ClusterControllerService;
 import org.apache.hyracks.control.cc.web.util.IJSONOutputFunction;
 import org.apache.hyracks.control.cc.web.util.JSONOutputRequestUtil;
 import org.apache.hyracks.control.cc.work.GetActivityClusterGraphJSONWork;
+import org.apache.hyracks.control.cc.work.GetJobQueueStatsJSONWork;
 import org.apache.hyracks.control.cc.work.GetJobRunJSONWork;
 import org.apache.hyracks.control.cc.work.GetJobSummariesJSONWork;
 
@@ -49,6 +50,12 @@ public class JobsRESTAPIFunction implements IJSONOutputFunction {
         ObjectNode result = om.createObjectNode();
         switch (arguments.length) {
             case 1:
+                if ("queue".equalsIgnoreCase(arguments[0])) {
+                    GetJobQueueStatsJSONWork gjqse = new GetJobQueueStatsJSONWork(ccs.getJobManager());
+                    ccs.getWorkQueue().scheduleAndSync(gjqse);
+                    result.set("result", gjqse.getStats());
+                    break;
+                }
                 if (!"".equals(arguments[0])) {
                     break;
                 }
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.cc.scheduler;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.job.JobStatus;
+import org.apache.hyracks.api.job.resource.ClusterCapacity;
+import org.apache.hyracks.api.job.resource.IJobCapacityController;
+import org.apache.hyracks.control.cc.job.IJobManager;
+import org.apache.hyracks.control.cc.job.JobRun;
+import org.apache.hyracks.control.common.controllers.CCConfig;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+public class FairShareJobQueueTest {
+
+    private static final long FAST_LANE_MEMORY = 1024L;
+    private static final long LARGE_JOB_MEMORY = 1024L * 1024L;
+    private CCConfig ccConfig;
+    private IJobManager jobManager;
+    private SlotCapacityController capacityController;
+
+    @Before
+    public void setup() throws Exception {
+        ccConfig = new CCConfig();
+        ccConfig.getConfigManager().processConfig();
+        ccConfig.setJobQueueWeights("interactive:3, report:1");
+        ccConfig.setJobQueueFastLaneMemory(FAST_LANE_MEMORY);
+        jobManager = mock(IJobManager.class);
+        when(jobManager.getCCConfig()).thenReturn(ccConfig);
+        when(jobManager.getJobQueueCapacity()).thenReturn(4096);
+        capacityController = new SlotCapacityController();
+    }
+
+    @Test
+    public void testWeightedShares() throws Exception {
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        for (int i = 0; i < 8; i++) {
+            queue.add(mockJobRun(i, "report", LARGE_JOB_MEMORY));
+        }
+        for (int i = 8; i < 16; i++) {
+            queue.add(mockJobRun(i, "interactive", LARGE_JOB_MEMORY));
+        }
+        capacityController.slots = 4;
+        List<JobRun> admitted = queue.pull();
+        Assert.assertEquals(4, admitted.size());
+        Assert.assertEquals(3, count(admitted, "interactive"));
+        Assert.assertEquals(1, count(admitted, "report"));
+        Assert.assertEquals(12, queue.jobs().size());
+        // the earliest jobs of each class are admitted first
+        Assert.assertEquals(new JobId(0), admitted.get(1).getJobId());
+        Assert.assertEquals(new JobId(8), admitted.get(0).getJobId());
+
+        JsonNode stats = queue.getStats();
+        Assert.assertEquals(12, stats.get("queued").asInt());
+        for (JsonNode classStats : stats.get("classes")) {
+            boolean interactive = "interactive".equals(classStats.get("class").asText());
+            Assert.assertEquals(interactive ? 3 : 1, classStats.get("running").asInt());
+            Assert.assertEquals(interactive ? 5 : 7, classStats.get("queued").asInt());
+        }
+    }
+
+    @Test
+    public void testIdleClassDoesNotAccumulateCredit() throws Exception {
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        // the reports run alone for a while
+        for (int i = 0; i < 100; i++) {
+            JobRun run = mockJobRun(i, "report", LARGE_JOB_MEMORY);
+            queue.notifyAdmittedWithoutQueueing(run);
+            queue.notifyCompleted(run);
+        }
+        for (int i = 100; i < 104; i++) {
+            queue.add(mockJobRun(i, "report", LARGE_JOB_MEMORY));
+        }
+        for (int i = 104; i < 108; i++) {
+            queue.add(mockJobRun(i, "interactive", LARGE_JOB_MEMORY));
+        }
+        capacityController.slots = 4;
+        List<JobRun> admitted = queue.pull();
+        // the interactive class only gets its share (3:1) rather than all the slots
+        Assert.assertEquals(3, count(admitted, "interactive"));
+        Assert.assertEquals(1, count(admitted, "report"));
+    }
+
+    @Test
+    public void testFastLane() throws Exception {
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        queue.add(mockJobRun(0, "report", LARGE_JOB_MEMORY));
+        queue.add(mockJobRun(1, "report", LARGE_JOB_MEMORY));
+        queue.add(mockJobRun(2, "report", FAST_LANE_MEMORY));
+        capacityController.slots = 1;
+        List<JobRun> admitted = queue.pull();
+        Assert.assertEquals(1, admitted.size());
+        Assert.assertEquals(new JobId(2), admitted.get(0).getJobId());
+        Assert.assertEquals(1, queue.getStats().get("fast-lane-admitted").asInt());
+        Assert.assertEquals(2, queue.jobs().size());
+    }
+
+    @Test
+    public void testRejectJobsExceedingCapacity() throws Exception {
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        JobRun run = mockJobRun(0, "report", LARGE_JOB_MEMORY);
+        queue.add(run);
+        capacityController.slots = 1;
+        capacityController.maxMemory = FAST_LANE_MEMORY;
+        Assert.assertTrue(queue.pull().isEmpty());
+        Assert.assertTrue(queue.jobs().isEmpty());
+        verify(jobManager).prepareComplete(eq(run), eq(JobStatus.FAILURE_BEFORE_EXECUTION), any());
+    }
+
+    @Test
+    public void testQueueFull() throws Exception {
+        when(jobManager.getJobQueueCapacity()).thenReturn(2);
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        queue.add(mockJobRun(0, "report", LARGE_JOB_MEMORY));
+        queue.add(mockJobRun(1, "report", LARGE_JOB_MEMORY));
+        try {
+            queue.add(mockJobRun(2, "interactive", LARGE_JOB_MEMORY));
+            Assert.fail("Expected the job queue to be full");
+        } catch (HyracksException e) {
+            Assert.assertTrue(e.matches(ErrorCode.JOB_QUEUE_FULL));
+        }
+        verify(jobManager, never()).prepareComplete(any(), any(), any());
+    }
+
+    @Test
+    public void testPreemption() throws Exception {
+        when(jobManager.getJobQueueCapacity()).thenReturn(2);
+        ccConfig.setJobQueuePreemption(true);
+        FairShareJobQueue queue = new FairShareJobQueue(jobManager, capacityController);
+        queue.notifyAdmittedWithoutQueueing(mockJobRun(0, "report", LARGE_JOB_MEMORY));
+        JobRun report1 = mockJobRun(1, "report", LARGE_JOB_MEMORY);
+        JobRun report2 = mockJobRun(2, "report", LARGE_JOB_MEMORY);
+        queue.add(report1);
+        queue.add(report2);
+        JobRun interactive = mockJobRun(3, "interactive", LARGE_JOB_MEMORY);
+        queue.add(interactive);
+        verify(jobManager).prepareComplete(eq(report2), eq(JobStatus.FAILURE_BEFORE_EXECUTION), any());
+        Assert.assertNotNull(queue.get(report1.getJobId()));
+        Assert.assertNull(queue.get(report2.getJobId()));
+        Assert.assertNotNull(queue.get(interactive.getJobId()));
+        Assert.assertEquals(1, queue.getStats().get("preempted").asInt());
+    }
+
+    private static int count(List<JobRun> runs, String jobClass) {
+        int count = 0;
+        for (JobRun run : runs) {
+            if (jobClass.equals(run.getJobSpecification().getProperty(FairShareJobQueue.JOB_CLASS_PROPERTY))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static JobRun mockJobRun(long id, String jobClass, long memory) {
+        JobSpecification job = new JobSpecification();
+        job.setProperty(FairShareJobQueue.JOB_CLASS_PROPERTY, jobClass);
+        ClusterCapacity capacity = new ClusterCapacity();
+        capacity.setAggregatedMemoryByteSize(memory);
+        job.setRequiredClusterCapacity(capacity);
+        JobRun run = mock(JobRun.class);
+        when(run.getJobId()).thenReturn(new JobId(id));
+        when(run.getJobSpecification()).thenReturn(job);
+        when(run.getCreateTime()).thenReturn(System.currentTimeMillis());
+        return run;
+    }
+
+    /**
+     * Admits as many jobs as there are slots and rejects jobs that require more than the maximum memory
+     */
+    private static class SlotCapacityController implements IJobCapacityController {
+        private int slots;
+        private long maxMemory = Long.MAX_VALUE;
+
+        @Override
+        public JobSubmissionStatus allocate(JobSpecification job) throws HyracksException {
+            long memory = job.getRequiredClusterCapacity().getAggregatedMemoryByteSize();
+            if (memory > maxMemory) {
+                throw HyracksException.create(ErrorCode.JOB_REQUIREMENTS_EXCEED_CAPACITY, memory, maxMemory);
+            }
+            if (slots == 0) {
+                return JobSubmissionStatus.QUEUE;
+            }
+            slots--;
+            return JobSubmissionStatus.EXECUTE;
+        }
+
+        @Override
+        public void release(JobSpecification job) {
+            slots++;
+        }
+    }
+}
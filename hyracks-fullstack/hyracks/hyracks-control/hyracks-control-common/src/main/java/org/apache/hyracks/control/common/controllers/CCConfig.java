@@ -20,6 +20,7 @@ package org.apache.hyracks.control.common.controllers;
 
 import static org.apache.hyracks.control.common.config.OptionTypes.BOOLEAN;
 import static org.apache.hyracks.control.common.config.OptionTypes.LONG;
+import static org.apache.hyracks.control.common.config.OptionTypes.LONG_BYTE_UNIT;
 import static org.apache.hyracks.control.common.config.OptionTypes.NONNEGATIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.POSITIVE_INTEGER;
 import static org.apache.hyracks.control.common.config.OptionTypes.SHORT;
@@ -38,6 +39,8 @@ import org.apache.hyracks.api.config.Section;
 import org.apache.hyracks.api.control.CcId;
 import org.apache.hyracks.control.common.config.ConfigManager;
 import org.apache.hyracks.control.common.config.OptionTypes;
+import org.apache.hyracks.util.StorageUtil;
+import org.apache.hyracks.util.StorageUtil.StorageUnit;
 import org.apache.hyracks.util.file.FileUtil;
 import org.ini4j.Ini;
 
@@ -73,6 +76,9 @@ public class CCConfig extends ControllerConfig {
         CLUSTER_TOPOLOGY(STRING),
         JOB_QUEUE_CLASS(STRING, "org.apache.hyracks.control.cc.scheduler.FIFOJobQueue"),
         JOB_QUEUE_CAPACITY(POSITIVE_INTEGER, 4096),
+        JOB_QUEUE_WEIGHTS(STRING, ""),
+        JOB_QUEUE_FAST_LANE_MEMORY(LONG_BYTE_UNIT, StorageUtil.getLongSizeInBytes(64L, StorageUnit.MEGABYTE)),
+        JOB_QUEUE_PREEMPTION(BOOLEAN, false),
         JOB_MANAGER_CLASS(STRING, "org.apache.hyracks.control.cc.job.JobManager"),
         ENFORCE_FRAME_WRITER_PROTOCOL(BOOLEAN, false),
         CORES_MULTIPLIER(POSITIVE_INTEGER, 3),
@@ -188,6 +194,15 @@ public class CCConfig extends ControllerConfig {
                     return "Specify the implementation class name for the job queue";
                 case JOB_QUEUE_CAPACITY:
                     return "The maximum number of jobs to queue before rejecting new jobs";
+                case JOB_QUEUE_WEIGHTS:
+                    return "Comma separated list of <job class>:<weight> pairs used by the fair share job queue to "
+                            + "divide the cluster between job classes (classes that are not listed have weight 1)";
+                case JOB_QUEUE_FAST_LANE_MEMORY:
+                    return "Queued jobs that require at most this amount of memory are admitted by the fair share "
+                            + "job queue ahead of the other queued jobs";
+                case JOB_QUEUE_PREEMPTION:
+                    return "Whether the fair share job queue rejects queued jobs of the classes that exceed their "
+                            + "share the most in favor of new jobs once it is full";
                 case JOB_MANAGER_CLASS:
                     return "Specify the implementation class name for the job manager";
                 case ENFORCE_FRAME_WRITER_PROTOCOL:
@@ -436,6 +451,30 @@ public class CCConfig extends ControllerConfig {
         return getAppConfig().getInt(Option.JOB_QUEUE_CAPACITY);
     }
 
+    public String getJobQueueWeights() {
+        return getAppConfig().getString(Option.JOB_QUEUE_WEIGHTS);
+    }
+
+    public void setJobQueueWeights(String jobQueueWeights) {
+        configManager.set(Option.JOB_QUEUE_WEIGHTS, jobQueueWeights);
+    }
+
+    public long getJobQueueFastLaneMemory() {
+        return getAppConfig().getLong(Option.JOB_QUEUE_FAST_LANE_MEMORY);
+    }
+
+    public void setJobQueueFastLaneMemory(long jobQueueFastLaneMemory) {
+        configManager.set(Option.JOB_QUEUE_FAST_LANE_MEMORY, jobQueueFastLaneMemory);
+    }
+
+    public boolean isJobQueuePreemption() {
+        return getAppConfig().getBoolean(Option.JOB_QUEUE_PREEMPTION);
+    }
+
+    public void setJobQueuePreemption(boolean jobQueuePreemption) {
+        configManager.set(Option.JOB_QUEUE_PREEMPTION, jobQueuePreemption);
+    }
+
     public boolean getEnforceFrameWriterProtocol() {
         return getAppConfig().getBoolean(Option.ENFORCE_FRAME_WRITER_PROTOCOL);
     }
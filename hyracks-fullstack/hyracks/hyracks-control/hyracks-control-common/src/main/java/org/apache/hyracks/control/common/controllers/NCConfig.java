@@ -79,6 +79,7 @@ public class NCConfig extends ControllerConfig {
                 "<value of " + ControllerConfig.Option.DEFAULT_DIR.cmdline() + ">/iodevice"),
         NET_THREAD_COUNT(POSITIVE_INTEGER, 1),
         NET_BUFFER_COUNT(POSITIVE_INTEGER, 1),
+        NET_FRAME_COMPRESSION(BOOLEAN, false),
         RESULT_TTL(LONG, 86400000L),
         RESULT_SWEEP_THRESHOLD(LONG, 60000L),
         RESULT_MANAGER_MEMORY(INTEGER_BYTE_UNIT, -1),
@@ -93,12 +94,17 @@ public class NCConfig extends ControllerConfig {
         KEY_STORE_PASSWORD(STRING, (String) null),
         IO_WORKERS_PER_PARTITION(POSITIVE_INTEGER, 2),
         IO_QUEUE_SIZE(POSITIVE_INTEGER, 10),
+        IO_BACKEND(STRING, "blocking"),
         PYTHON_CMD(STRING, (String) null),
         PYTHON_CMD_AUTOLOCATE(BOOLEAN, false),
         PYTHON_ADDITIONAL_PACKAGES(STRING_ARRAY, new String[0]),
         PYTHON_USE_BUNDLED_MSGPACK(BOOLEAN, true),
         PYTHON_ARGS(STRING_ARRAY, (String[]) null),
         PYTHON_ENV(STRING_ARRAY, (String[]) null),
+        PYTHON_WORKERS(POSITIVE_INTEGER, 1),
+        PYTHON_PIPELINE_DEPTH(POSITIVE_INTEGER, 1),
+        PYTHON_SHARED_MEMORY(BOOLEAN, false),
+        PYTHON_SHARED_MEMORY_SLOT_SIZE(INTEGER_BYTE_UNIT, 4 * 1024 * 1024),
         CREDENTIAL_FILE(
                 OptionTypes.STRING,
                 (Function<IApplicationConfig, String>) appConfig -> FileUtil
@@ -208,6 +214,10 @@ public class NCConfig extends ControllerConfig {
                     return "Number of threads to use for Network I/O";
                 case NET_BUFFER_COUNT:
                     return "Number of network buffers per input/output channel";
+                case NET_FRAME_COMPRESSION:
+                    return "True to compress the frames exchanged with other nodes by connectors. Compression is "
+                            + "used on a channel when the receiving node asks for it and is skipped for frames that "
+                            + "do not compress well";
                 case RESULT_TTL:
                     return "Limits the amount of time results for asynchronous jobs should be retained by the system "
                             + "in milliseconds";
@@ -236,6 +246,10 @@ public class NCConfig extends ControllerConfig {
                     return "Number of threads per partition used to write and read from storage";
                 case IO_QUEUE_SIZE:
                     return "Length of the queue used for requests to write and read";
+                case IO_BACKEND:
+                    return "The backend serving requests to write and read: blocking (a shared queue served one "
+                            + "request at a time) or batched (a queue per device whose requests to adjacent pages are "
+                            + "combined into vectored writes and reads)";
                 case PYTHON_CMD:
                     return "Absolute path to python interpreter";
                 case PYTHON_ADDITIONAL_PACKAGES:
@@ -248,6 +262,17 @@ public class NCConfig extends ControllerConfig {
                     return "Whether or not to attempt to automatically set PYTHON_CMD to a usable interpreter";
                 case PYTHON_ENV:
                     return "List of environment variables to set when invoking the Python interpreter for Python UDFs. E.g. FOO=1";
+                case PYTHON_WORKERS:
+                    return "Number of Python interpreter processes per partition that batched Python UDF calls are "
+                            + "distributed over";
+                case PYTHON_PIPELINE_DEPTH:
+                    return "Maximum number of batches of Python UDF calls in flight per Python interpreter process";
+                case PYTHON_SHARED_MEMORY:
+                    return "True to exchange batches of Python UDF calls with the Python interpreter through a "
+                            + "memory-mapped file instead of copying them through its pipe and socket";
+                case PYTHON_SHARED_MEMORY_SLOT_SIZE:
+                    return "The size of a request or response slot of the memory-mapped file shared with a Python "
+                            + "interpreter. Larger messages fall back to the pipe and socket";
                 case CREDENTIAL_FILE:
                     return "Path to HTTP basic credentials";
                 default:
@@ -545,6 +570,10 @@ public class NCConfig extends ControllerConfig {
         configManager.set(nodeId, Option.NET_BUFFER_COUNT, netBufferCount);
     }
 
+    public boolean isNetFrameCompression() {
+        return appConfig.getBoolean(Option.NET_FRAME_COMPRESSION);
+    }
+
     public long getResultTTL() {
         return appConfig.getLong(Option.RESULT_TTL);
     }
@@ -621,6 +650,10 @@ public class NCConfig extends ControllerConfig {
         return appConfig.getInt(Option.IO_QUEUE_SIZE);
     }
 
+    public String getIOBackend() {
+        return appConfig.getString(Option.IO_BACKEND);
+    }
+
     public String getCredentialFilePath() {
         return getAppConfig().getString(Option.CREDENTIAL_FILE);
     }
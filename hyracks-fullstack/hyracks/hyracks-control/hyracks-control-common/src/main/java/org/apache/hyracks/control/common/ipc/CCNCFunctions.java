@@ -24,10 +24,9 @@ import java.io.ByteArrayOutputStream;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
 import java.io.OutputStream;
 import java.io.Serializable;
+import java.net.InetAddress;
 import java.net.InetSocketAddress;
 import java.net.URL;
 import java.nio.ByteBuffer;
@@ -58,6 +57,7 @@ import org.apache.hyracks.api.job.JobStatus;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.api.result.IResultMetadata;
 import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.api.util.JavaSerializationUtils;
 import org.apache.hyracks.control.common.controllers.NodeParameters;
 import org.apache.hyracks.control.common.controllers.NodeRegistration;
 import org.apache.hyracks.control.common.deployment.DeploymentStatus;
@@ -79,6 +79,8 @@ public class CCNCFunctions {
     private static final Logger LOGGER = LogManager.getLogger();
 
     private static final int FID_CODE_SIZE = 1;
+    private static final FunctionId[] FUNCTION_IDS = FunctionId.values();
+    private static final int INITIAL_MESSAGE_SIZE = 256;
 
     public enum FunctionId {
         REGISTER_NODE,
@@ -423,21 +425,21 @@ public class CCNCFunctions {
 
         public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
             ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
-            ObjectInputStream dis = new ObjectInputStream(bais);
+            DataInputStream dis = new DataInputStream(bais);
 
             HeartbeatData hbData = new HeartbeatData();
             hbData.readFields(dis);
             String nodeId = dis.readUTF();
-            InetSocketAddress ncAddress = (InetSocketAddress) dis.readObject();
+            InetSocketAddress ncAddress = readInetSocketAddress(dis);
             return new NodeHeartbeatFunction(nodeId, hbData, ncAddress);
         }
 
         public static void serialize(OutputStream out, Object object) throws Exception {
             NodeHeartbeatFunction fn = (NodeHeartbeatFunction) object;
-            ObjectOutputStream dos = new ObjectOutputStream(out);
+            DataOutputStream dos = new DataOutputStream(out);
             fn.hbData.write(dos);
             dos.writeUTF(fn.nodeId);
-            dos.writeObject(fn.ncAddress);
+            writeInetSocketAddress(dos, fn.ncAddress);
         }
     }
 
@@ -464,6 +466,29 @@ public class CCNCFunctions {
         public List<JobProfile> getProfiles() {
             return profiles;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            String nodeId = dis.readUTF();
+            int size = dis.readInt();
+            List<JobProfile> profiles = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                profiles.add(JobProfile.create(dis));
+            }
+            return new ReportProfileFunction(nodeId, profiles);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportProfileFunction fn = (ReportProfileFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(fn.nodeId);
+            dos.writeInt(fn.profiles.size());
+            for (JobProfile profile : fn.profiles) {
+                profile.writeFields(dos);
+            }
+        }
     }
 
     public static class RegisterPartitionProviderFunction extends Function {
@@ -651,6 +676,34 @@ public class CCNCFunctions {
         public NetworkAddress getNetworkAddress() {
             return networkAddress;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            ResultSetId rsId = new ResultSetId(dis.readLong());
+            boolean emptyResult = dis.readBoolean();
+            int partition = dis.readInt();
+            int nPartitions = dis.readInt();
+            NetworkAddress networkAddress = readNetworkAddress(dis);
+            // the metadata is supplied by the application and is rarely more than a few fields
+            IResultMetadata metadata = (IResultMetadata) readJavaObject(dis);
+            return new RegisterResultPartitionLocationFunction(jobId, rsId, metadata, emptyResult, partition,
+                    nPartitions, networkAddress);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            RegisterResultPartitionLocationFunction fn = (RegisterResultPartitionLocationFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeLong(fn.rsId.getId());
+            dos.writeBoolean(fn.emptyResult);
+            dos.writeInt(fn.partition);
+            dos.writeInt(fn.nPartitions);
+            writeNetworkAddress(dos, fn.networkAddress);
+            writeJavaObject(dos, fn.metadata);
+        }
     }
 
     public static class ReportResultPartitionWriteCompletionFunction extends Function {
@@ -684,6 +737,24 @@ public class CCNCFunctions {
         public int getPartition() {
             return partition;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            ResultSetId rsId = new ResultSetId(dis.readLong());
+            int partition = dis.readInt();
+            return new ReportResultPartitionWriteCompletionFunction(jobId, rsId, partition);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            ReportResultPartitionWriteCompletionFunction fn = (ReportResultPartitionWriteCompletionFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeLong(fn.rsId.getId());
+            dos.writeInt(fn.partition);
+        }
     }
 
     public static class NodeRegistrationResult extends Function {
@@ -1019,6 +1090,29 @@ public class CCNCFunctions {
         public List<TaskAttemptId> getTasks() {
             return tasks;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            JobId jobId = JobId.create(dis);
+            int size = dis.readInt();
+            List<TaskAttemptId> tasks = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                tasks.add(TaskAttemptId.create(dis));
+            }
+            return new AbortTasksFunction(jobId, tasks);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            AbortTasksFunction fn = (AbortTasksFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            fn.jobId.writeFields(dos);
+            dos.writeInt(fn.tasks.size());
+            for (TaskAttemptId taId : fn.tasks) {
+                taId.writeFields(dos);
+            }
+        }
     }
 
     public static class CleanupJobletFunction extends Function {
@@ -1363,6 +1457,18 @@ public class CCNCFunctions {
         public FunctionId getFunctionId() {
             return FunctionId.PING_REQUEST;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+            return new PingFunction(readCcId(dis));
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            PingFunction fn = (PingFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeCcId(dos, fn.getCcId());
+        }
     }
 
     public static class NodeHeartbeatAckFunction extends CCIdentifiedFunction {
@@ -1382,6 +1488,22 @@ public class CCNCFunctions {
         public HyracksDataException getException() {
             return exception;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+
+            CcId ccId = readCcId(dis);
+            HyracksDataException exception = (HyracksDataException) readJavaObject(dis);
+            return new NodeHeartbeatAckFunction(ccId, exception);
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            NodeHeartbeatAckFunction fn = (NodeHeartbeatAckFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            writeCcId(dos, fn.getCcId());
+            writeJavaObject(dos, fn.exception);
+        }
     }
 
     public static class ShutdownRequestFunction extends CCIdentifiedFunction {
@@ -1440,6 +1562,18 @@ public class CCNCFunctions {
         public FunctionId getFunctionId() {
             return FunctionId.PING_RESPONSE;
         }
+
+        public static Object deserialize(ByteBuffer buffer, int length) throws Exception {
+            ByteArrayInputStream bais = new ByteArrayInputStream(buffer.array(), buffer.position(), length);
+            DataInputStream dis = new DataInputStream(bais);
+            return new PingResponseFunction(dis.readUTF());
+        }
+
+        public static void serialize(OutputStream out, Object object) throws Exception {
+            PingResponseFunction fn = (PingResponseFunction) object;
+            DataOutputStream dos = new DataOutputStream(out);
+            dos.writeUTF(fn.nodeId);
+        }
     }
 
     public static class SerializerDeserializer implements IPayloadSerializerDeserializer {
@@ -1486,7 +1620,7 @@ public class CCNCFunctions {
         }
 
         private byte[] serialize(Object object, byte fid) throws Exception {
-            ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            ByteArrayOutputStream baos = new ByteArrayOutputStream(INITIAL_MESSAGE_SIZE);
             baos.write(fid);
             try {
                 serialize(baos, object, fid);
@@ -1499,7 +1633,7 @@ public class CCNCFunctions {
         }
 
         private void serialize(OutputStream out, Object object, byte fid) throws Exception {
-            switch (FunctionId.values()[fid]) {
+            switch (FUNCTION_IDS[fid]) {
                 case REGISTER_PARTITION_PROVIDER:
                     RegisterPartitionProviderFunction.serialize(out, object);
                     return;
@@ -1530,12 +1664,40 @@ public class CCNCFunctions {
                 case CLEANUP_JOBLET:
                     CleanupJobletFunction.serialize(out, object);
                     return;
+
+                case NODE_HEARTBEAT_ACK:
+                    NodeHeartbeatAckFunction.serialize(out, object);
+                    return;
+
+                case REPORT_PROFILE:
+                    ReportProfileFunction.serialize(out, object);
+                    return;
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    RegisterResultPartitionLocationFunction.serialize(out, object);
+                    return;
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    ReportResultPartitionWriteCompletionFunction.serialize(out, object);
+                    return;
+
+                case ABORT_TASKS:
+                    AbortTasksFunction.serialize(out, object);
+                    return;
+
+                case PING_REQUEST:
+                    PingFunction.serialize(out, object);
+                    return;
+
+                case PING_RESPONSE:
+                    PingResponseFunction.serialize(out, object);
+                    return;
             }
             JavaSerializationBasedPayloadSerializerDeserializer.serialize(out, object);
         }
 
         private Object deserialize(byte fid, ByteBuffer buffer, int length, byte flag) throws Exception {
-            switch (FunctionId.values()[fid]) {
+            switch (FUNCTION_IDS[fid]) {
                 case REGISTER_PARTITION_PROVIDER:
                     return RegisterPartitionProviderFunction.deserialize(buffer, length);
 
@@ -1559,6 +1721,27 @@ public class CCNCFunctions {
 
                 case CLEANUP_JOBLET:
                     return CleanupJobletFunction.deserialize(buffer, length);
+
+                case NODE_HEARTBEAT_ACK:
+                    return NodeHeartbeatAckFunction.deserialize(buffer, length);
+
+                case REPORT_PROFILE:
+                    return ReportProfileFunction.deserialize(buffer, length);
+
+                case REGISTER_RESULT_PARTITION_LOCATION:
+                    return RegisterResultPartitionLocationFunction.deserialize(buffer, length);
+
+                case REPORT_RESULT_PARTITION_WRITE_COMPLETION:
+                    return ReportResultPartitionWriteCompletionFunction.deserialize(buffer, length);
+
+                case ABORT_TASKS:
+                    return AbortTasksFunction.deserialize(buffer, length);
+
+                case PING_REQUEST:
+                    return PingFunction.deserialize(buffer, length);
+
+                case PING_RESPONSE:
+                    return PingResponseFunction.deserialize(buffer, length);
             }
 
             return javaSerde.deserializeObject(buffer, length, flag);
@@ -1622,4 +1805,68 @@ public class CCNCFunctions {
         dos.writeUTF(networkAddress.getAddress());
         dos.writeInt(networkAddress.getPort());
     }
+
+    private static CcId readCcId(DataInputStream dis) throws IOException {
+        return CcId.valueOf(dis.readUnsignedShort());
+    }
+
+    private static void writeCcId(DataOutputStream dos, CcId ccId) throws IOException {
+        dos.writeShort(ccId.shortValue());
+    }
+
+    private static InetSocketAddress readInetSocketAddress(DataInputStream dis) throws IOException {
+        if (!dis.readBoolean()) {
+            return null;
+        }
+        String host = dis.readUTF();
+        int port = dis.readInt();
+        int addressLength = dis.readInt();
+        if (addressLength < 0) {
+            return InetSocketAddress.createUnresolved(host, port);
+        }
+        byte[] address = new byte[addressLength];
+        dis.readFully(address);
+        // rebuild from the raw address to avoid a name lookup for every message
+        return new InetSocketAddress(InetAddress.getByAddress(host, address), port);
+    }
+
+    private static void writeInetSocketAddress(DataOutputStream dos, InetSocketAddress address) throws IOException {
+        dos.writeBoolean(address != null);
+        if (address == null) {
+            return;
+        }
+        dos.writeUTF(address.getHostString());
+        dos.writeInt(address.getPort());
+        if (address.isUnresolved()) {
+            dos.writeInt(-1);
+        } else {
+            byte[] raw = address.getAddress().getAddress();
+            dos.writeInt(raw.length);
+            dos.write(raw);
+        }
+    }
+
+    /**
+     * Writes an optional object with Java serialization. Used for the rarely present or application defined parts
+     * of the otherwise hand encoded messages (e.g. exceptions).
+     */
+    private static void writeJavaObject(DataOutputStream dos, Serializable object) throws IOException {
+        if (object == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        byte[] bytes = JavaSerializationUtils.serialize(object);
+        dos.writeInt(bytes.length);
+        dos.write(bytes);
+    }
+
+    private static Object readJavaObject(DataInputStream dis) throws IOException, ClassNotFoundException {
+        int length = dis.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        dis.readFully(bytes);
+        return JavaSerializationUtils.deserialize(bytes);
+    }
 }
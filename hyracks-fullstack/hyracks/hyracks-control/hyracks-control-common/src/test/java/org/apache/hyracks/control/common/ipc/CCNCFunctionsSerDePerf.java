@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.common.ipc;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.ConnectorDescriptorId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.partitions.PartitionId;
+import org.apache.hyracks.control.common.job.PartitionDescriptor;
+import org.apache.hyracks.control.common.job.PartitionState;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
+import org.apache.hyracks.control.common.job.profiling.om.JobletProfile;
+import org.apache.hyracks.ipc.api.IPayloadSerializerDeserializer;
+import org.apache.hyracks.ipc.impl.JavaSerializationBasedPayloadSerializerDeserializer;
+import org.apache.hyracks.ipc.impl.Message;
+
+/**
+ * Compares the CC/NC message codec with plain Java serialization for the high frequency messages. Reports the
+ * encoded size and the time to serialize and deserialize each message.
+ */
+public class CCNCFunctionsSerDePerf {
+    private static final int WARMUP_ITERATIONS = 100000;
+    private static final int ITERATIONS = 500000;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : ITERATIONS;
+        IPayloadSerializerDeserializer codec = new CCNCFunctions.SerializerDeserializer();
+        IPayloadSerializerDeserializer java = new JavaSerializationBasedPayloadSerializerDeserializer();
+        for (CCNCFunctions.Function fn : createMessages()) {
+            run(fn, "java", java, WARMUP_ITERATIONS, false);
+            run(fn, "codec", codec, WARMUP_ITERATIONS, false);
+            run(fn, "java", java, iterations, true);
+            run(fn, "codec", codec, iterations, true);
+        }
+    }
+
+    private static void run(CCNCFunctions.Function fn, String name, IPayloadSerializerDeserializer serde,
+            int iterations, boolean report) throws Exception {
+        int size = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            byte[] bytes = serde.serializeObject(fn);
+            size = bytes.length;
+            if (serde.deserializeObject(ByteBuffer.wrap(bytes), bytes.length, Message.NORMAL) == null) {
+                throw new IllegalStateException();
+            }
+        }
+        long elapsed = System.nanoTime() - start;
+        if (report) {
+            System.out.println(String.format("%-45s %-6s %6d bytes %10.1f ns/msg", fn.getFunctionId(), name, size,
+                    (double) elapsed / iterations));
+        }
+    }
+
+    private static List<CCNCFunctions.Function> createMessages() {
+        List<CCNCFunctions.Function> messages = new ArrayList<>();
+        JobId jobId = new JobId(1234567);
+        TaskAttemptId taId = new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(3), 1), 7), 0);
+        messages.add(new CCNCFunctions.NotifyJobletCleanupFunction(jobId, "nc1"));
+        messages.add(new CCNCFunctions.AbortTasksFunction(jobId, Arrays.asList(taId, taId)));
+        PartitionId pid = new PartitionId(jobId, new ConnectorDescriptorId(2), 7, 1);
+        messages.add(new CCNCFunctions.ReportPartitionAvailabilityFunction(pid, new NetworkAddress("nc1", 1098)));
+        PartitionDescriptor descriptor = new PartitionDescriptor(pid, "nc1", taId, true);
+        descriptor.setState(PartitionState.COMMITTED);
+        messages.add(new CCNCFunctions.RegisterPartitionProviderFunction(descriptor));
+        JobProfile profile = new JobProfile(jobId);
+        profile.getJobletProfiles().put("nc1", new JobletProfile("nc1"));
+        messages.add(new CCNCFunctions.ReportProfileFunction("nc1", Arrays.asList(profile)));
+        return messages;
+    }
+}
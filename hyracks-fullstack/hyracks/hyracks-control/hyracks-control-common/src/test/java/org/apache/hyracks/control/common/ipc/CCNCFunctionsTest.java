@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.common.ipc;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.comm.NetworkAddress;
+import org.apache.hyracks.api.control.CcId;
+import org.apache.hyracks.api.dataflow.ActivityId;
+import org.apache.hyracks.api.dataflow.OperatorDescriptorId;
+import org.apache.hyracks.api.dataflow.TaskAttemptId;
+import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.control.common.heartbeat.HeartbeatData;
+import org.apache.hyracks.control.common.job.profiling.om.JobProfile;
+import org.apache.hyracks.control.common.job.profiling.om.JobletProfile;
+import org.apache.hyracks.ipc.impl.Message;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CCNCFunctionsTest {
+    private static final JobId JOB_ID = new JobId(42);
+    private static final CcId CC_ID = CcId.valueOf(3);
+
+    private final CCNCFunctions.SerializerDeserializer serde = new CCNCFunctions.SerializerDeserializer();
+
+    @Test
+    public void nodeHeartbeatTest() throws Exception {
+        HeartbeatData hbData = new HeartbeatData();
+        hbData.heapUsedSize = 1234;
+        hbData.numCores = 8;
+        InetSocketAddress address =
+                new InetSocketAddress(InetAddress.getByAddress("nc1", new byte[] { 10, 0, 0, 1 }), 1099);
+        CCNCFunctions.NodeHeartbeatFunction fn =
+                roundTrip(new CCNCFunctions.NodeHeartbeatFunction("nc1", hbData, address));
+        Assert.assertEquals("nc1", fn.getNodeId());
+        Assert.assertEquals(1234, fn.getHeartbeatData().heapUsedSize);
+        Assert.assertEquals(8, fn.getHeartbeatData().numCores);
+        Assert.assertEquals(address, fn.getNcAddress());
+        Assert.assertEquals("nc1", fn.getNcAddress().getHostString());
+
+        InetSocketAddress unresolved = InetSocketAddress.createUnresolved("nc2", 1099);
+        fn = roundTrip(new CCNCFunctions.NodeHeartbeatFunction("nc2", hbData, unresolved));
+        Assert.assertEquals(unresolved, fn.getNcAddress());
+    }
+
+    @Test
+    public void nodeHeartbeatAckTest() throws Exception {
+        CCNCFunctions.NodeHeartbeatAckFunction fn = roundTrip(new CCNCFunctions.NodeHeartbeatAckFunction(CC_ID, null));
+        Assert.assertEquals(CC_ID, fn.getCcId());
+        Assert.assertNull(fn.getException());
+
+        HyracksDataException e = new HyracksDataException("heartbeat rejected");
+        fn = roundTrip(new CCNCFunctions.NodeHeartbeatAckFunction(CC_ID, e));
+        Assert.assertEquals(e.getMessage(), fn.getException().getMessage());
+    }
+
+    @Test
+    public void reportProfileTest() throws Exception {
+        JobProfile profile = new JobProfile(JOB_ID);
+        JobletProfile jobletProfile = new JobletProfile("nc1");
+        jobletProfile.getCounters().put("counter", 7L);
+        profile.getJobletProfiles().put("nc1", jobletProfile);
+        CCNCFunctions.ReportProfileFunction fn =
+                roundTrip(new CCNCFunctions.ReportProfileFunction("nc1", Collections.singletonList(profile)));
+        Assert.assertEquals("nc1", fn.getNodeId());
+        Assert.assertEquals(1, fn.getProfiles().size());
+        JobProfile result = fn.getProfiles().get(0);
+        Assert.assertEquals(JOB_ID, result.getJobId());
+        Assert.assertEquals(Long.valueOf(7L), result.getJobletProfiles().get("nc1").getCounters().get("counter"));
+    }
+
+    @Test
+    public void abortTasksTest() throws Exception {
+        List<TaskAttemptId> tasks = Arrays.asList(taskAttemptId(1, 0), taskAttemptId(2, 3));
+        CCNCFunctions.AbortTasksFunction fn = roundTrip(new CCNCFunctions.AbortTasksFunction(JOB_ID, tasks));
+        Assert.assertEquals(JOB_ID, fn.getJobId());
+        Assert.assertEquals(tasks, fn.getTasks());
+    }
+
+    @Test
+    public void resultPartitionTest() throws Exception {
+        NetworkAddress address = new NetworkAddress("nc1", 1098);
+        CCNCFunctions.RegisterResultPartitionLocationFunction location =
+                roundTrip(new CCNCFunctions.RegisterResultPartitionLocationFunction(JOB_ID, new ResultSetId(5), null,
+                        true, 2, 4, address));
+        Assert.assertEquals(JOB_ID, location.getJobId());
+        Assert.assertEquals(new ResultSetId(5), location.getResultSetId());
+        Assert.assertNull(location.getMetadata());
+        Assert.assertTrue(location.getEmptyResult());
+        Assert.assertEquals(2, location.getPartition());
+        Assert.assertEquals(4, location.getNPartitions());
+        Assert.assertEquals(address.getAddress(), location.getNetworkAddress().getAddress());
+        Assert.assertEquals(address.getPort(), location.getNetworkAddress().getPort());
+
+        CCNCFunctions.ReportResultPartitionWriteCompletionFunction completion = roundTrip(
+                new CCNCFunctions.ReportResultPartitionWriteCompletionFunction(JOB_ID, new ResultSetId(5), 3));
+        Assert.assertEquals(JOB_ID, completion.getJobId());
+        Assert.assertEquals(new ResultSetId(5), completion.getResultSetId());
+        Assert.assertEquals(3, completion.getPartition());
+    }
+
+    @Test
+    public void pingTest() throws Exception {
+        Assert.assertEquals(CC_ID, roundTrip(new CCNCFunctions.PingFunction(CC_ID)).getCcId());
+        Assert.assertEquals("nc1", roundTrip(new CCNCFunctions.PingResponseFunction("nc1")).getNodeId());
+    }
+
+    @Test
+    public void javaSerializationFallbackTest() throws Exception {
+        CCNCFunctions.ShutdownResponseFunction fn = roundTrip(new CCNCFunctions.ShutdownResponseFunction("nc1"));
+        Assert.assertEquals("nc1", fn.getNodeId());
+    }
+
+    private static TaskAttemptId taskAttemptId(int odId, int partition) {
+        return new TaskAttemptId(new TaskId(new ActivityId(new OperatorDescriptorId(odId), 0), partition), 0);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends CCNCFunctions.Function> T roundTrip(T fn) throws Exception {
+        byte[] bytes = serde.serializeObject(fn);
+        T result = (T) serde.deserializeObject(ByteBuffer.wrap(bytes), bytes.length, Message.NORMAL);
+        Assert.assertEquals(fn.getFunctionId(), result.getFunctionId());
+        return result;
+    }
+}
@@ -210,7 +210,8 @@ public class NodeControllerService implements IControllerService {
         }
         Thread.currentThread().setUncaughtExceptionHandler(getLifeCycleComponentManager());
         ioManager = new IOManager(IODeviceHandle.getDevices(ncConfig.getIODevices()),
-                application.getFileDeviceResolver(), ncConfig.getIOParallelism(), ncConfig.getIOQueueSize());
+                application.getFileDeviceResolver(), ncConfig.getIOParallelism(), ncConfig.getIOQueueSize(),
+                ncConfig.getIOBackend());
         try {
             workQueue = new WorkQueue(id, Thread.NORM_PRIORITY); // Reserves MAX_PRIORITY of the heartbeat thread.
             jobletMap = new ConcurrentHashMap<>();
@@ -288,7 +289,7 @@ public class NodeControllerService implements IControllerService {
         netManager = new NetworkManager(ncConfig.getDataListenAddress(), ncConfig.getDataListenPort(), partitionManager,
                 ncConfig.getNetThreadCount(), ncConfig.getNetBufferCount(), ncConfig.getDataPublicAddress(),
                 ncConfig.getDataPublicPort(), FullFrameChannelInterfaceFactory.INSTANCE,
-                networkSecurityManager.getSocketChannelFactory());
+                networkSecurityManager.getSocketChannelFactory(), ncConfig.isNetFrameCompression());
         netManager.start();
         startApplication();
         init();
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.control.nc.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.util.InvokeUtil;
+import org.apache.logging.log4j.Level;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+
+/**
+ * Serves the requests of each device from its own queue. A handler takes all the requests queued for its device at
+ * once and performs the single buffer requests to adjacent regions of the same file as one vectored read or write,
+ * which saves a system call and a thread handoff per page when pages are read or written sequentially.
+ * Requests in a batch might be performed in a different order than they were submitted. This is no different from
+ * requests that are served concurrently by multiple handlers.
+ */
+public class BatchedIoBackend implements IIoBackend {
+    private static final Logger LOGGER = LogManager.getLogger();
+    // the maximum number of requests taken off a device queue at once
+    private static final int MAX_BATCH_SIZE = 64;
+    private static final Comparator<IoRequest> RUN_ORDER =
+            Comparator.comparing(IoRequest::isWrite).thenComparingLong(IoRequest::getOffset);
+    private final Map<IODeviceHandle, BlockingQueue<IoRequest>> deviceQueues;
+    // the queue of files that are not on any of the io devices
+    private final BlockingQueue<IoRequest> defaultQueue;
+    private final ExecutorService executor;
+
+    public BatchedIoBackend(List<IODeviceHandle> devices, int threadsPerDevice, int queueSize) {
+        deviceQueues = new HashMap<>();
+        final List<BlockingQueue<IoRequest>> queues = new ArrayList<>();
+        for (IODeviceHandle device : devices) {
+            final BlockingQueue<IoRequest> queue = new ArrayBlockingQueue<>(queueSize);
+            deviceQueues.put(device, queue);
+            queues.add(queue);
+        }
+        defaultQueue = queues.isEmpty() ? new ArrayBlockingQueue<>(queueSize) : queues.get(0);
+        if (queues.isEmpty()) {
+            queues.add(defaultQueue);
+        }
+        executor = Executors.newFixedThreadPool(queues.size() * threadsPerDevice);
+        int num = 0;
+        for (BlockingQueue<IoRequest> queue : queues) {
+            for (int i = 0; i < threadsPerDevice; i++) {
+                executor.execute(new BatchedIoRequestHandler(num++, queue));
+            }
+        }
+    }
+
+    @Override
+    public void submit(IoRequest request) throws HyracksDataException {
+        final IFileHandle fHandle = request.getFileHandle();
+        BlockingQueue<IoRequest> queue = null;
+        if (fHandle != null) {
+            queue = deviceQueues.get(fHandle.getFileReference().getDeviceHandle());
+        }
+        try {
+            (queue != null ? queue : defaultQueue).put(request);
+        } catch (InterruptedException e) { // NOSONAR: The call below will re-interrupt
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        for (BlockingQueue<IoRequest> queue : deviceQueues.values()) {
+            InvokeUtil.doUninterruptibly(() -> queue.put(IoRequestHandler.POISON_PILL));
+        }
+        if (deviceQueues.isEmpty()) {
+            InvokeUtil.doUninterruptibly(() -> defaultQueue.put(IoRequestHandler.POISON_PILL));
+        }
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+                LOGGER.log(Level.WARN, "Failure shutting down {} executor service", getClass().getSimpleName());
+            }
+        } catch (InterruptedException e) {
+            LOGGER.log(Level.WARN, "Interrupted while shutting down {} executor service", getClass().getSimpleName());
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Performs a batch of requests, combining the requests to adjacent regions of the same file
+     */
+    static void handle(List<IoRequest> batch) {
+        if (batch.size() == 1) {
+            batch.get(0).handle();
+            return;
+        }
+        final Map<IFileHandle, List<IoRequest>> fileRequests = new IdentityHashMap<>();
+        for (IoRequest request : batch) {
+            if (request.isSingleBuffer()) {
+                fileRequests.computeIfAbsent(request.getFileHandle(), k -> new ArrayList<>()).add(request);
+            } else {
+                request.handle();
+            }
+        }
+        final List<IoRequest> run = new ArrayList<>();
+        for (List<IoRequest> requests : fileRequests.values()) {
+            requests.sort(RUN_ORDER);
+            for (IoRequest request : requests) {
+                if (!run.isEmpty() && !isAdjacent(run.get(run.size() - 1), request)) {
+                    handleRun(run);
+                    run.clear();
+                }
+                run.add(request);
+            }
+            handleRun(run);
+            run.clear();
+        }
+    }
+
+    private static boolean isAdjacent(IoRequest previous, IoRequest next) {
+        return previous.isWrite() == next.isWrite()
+                && previous.getOffset() + previous.getData().remaining() == next.getOffset();
+    }
+
+    private static void handleRun(List<IoRequest> run) {
+        if (run.size() == 1) {
+            run.get(0).handle();
+            return;
+        }
+        final int size = run.size();
+        final ByteBuffer[] buffers = new ByteBuffer[size];
+        final int[] positions = new int[size];
+        long remaining = 0;
+        for (int i = 0; i < size; i++) {
+            buffers[i] = run.get(i).getData();
+            positions[i] = buffers[i].position();
+            remaining += buffers[i].remaining();
+        }
+        final IoRequest first = run.get(0);
+        final boolean write = first.isWrite();
+        boolean eof = false;
+        try {
+            final FileChannel fileChannel = ((FileHandle) first.getFileHandle()).getFileChannel();
+            long offset = first.getOffset();
+            synchronized (fileChannel) {
+                while (remaining > 0) {
+                    fileChannel.position(offset);
+                    final long len = write ? fileChannel.write(buffers) : fileChannel.read(buffers);
+                    if (len < 0) {
+                        eof = true;
+                        break;
+                    }
+                    remaining -= len;
+                    offset += len;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // perform the requests one at a time so that each reports its own outcome
+            LOGGER.debug("vectored {} failed, retrying the requests separately", write ? "write" : "read", e);
+            for (int i = 0; i < size; i++) {
+                buffers[i].position(positions[i]);
+                run.get(i).handle();
+            }
+            return;
+        }
+        for (int i = 0; i < size; i++) {
+            final int bytes = buffers[i].position() - positions[i];
+            run.get(i).complete(eof && bytes == 0 ? -1 : bytes);
+        }
+    }
+
+    private static class BatchedIoRequestHandler implements Runnable {
+        private final int num;
+        private final BlockingQueue<IoRequest> queue;
+        private final List<IoRequest> batch = new ArrayList<>(MAX_BATCH_SIZE);
+
+        BatchedIoRequestHandler(int num, BlockingQueue<IoRequest> queue) {
+            this.num = num;
+            this.queue = queue;
+        }
+
+        @Override
+        public void run() {
+            Thread.currentThread().setName(getClass().getSimpleName() + "-" + num);
+            while (true) { // NOSONAR: Suppress 1 continue and 1 break
+                batch.clear();
+                try {
+                    batch.add(queue.take());
+                } catch (InterruptedException e) { // NOSONAR: This is not supposed to be ever interrupted
+                    LOGGER.log(Level.WARN, "Ignoring interrupt. IO threads should never be interrupted.");
+                    continue;
+                }
+                queue.drainTo(batch, MAX_BATCH_SIZE - 1);
+                final boolean exit = batch.remove(IoRequestHandler.POISON_PILL);
+                if (!batch.isEmpty()) {
+                    handle(batch);
+                }
+                if (exit) {
+                    LOGGER.log(Level.INFO, "Exiting");
+                    InvokeUtil.doUninterruptibly(() -> queue.put(IoRequestHandler.POISON_PILL));
+                    if (Thread.interrupted()) {
+                        LOGGER.log(Level.ERROR, "Ignoring interrupt. IO threads should never be interrupted.");
+                    }
+                    break;
+                }
+            }
+        }
+    }
+}
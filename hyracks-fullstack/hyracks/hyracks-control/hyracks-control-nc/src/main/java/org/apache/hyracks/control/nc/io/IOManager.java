@@ -33,9 +33,6 @@ import java.util.Collections;
 import java.util.List;
 import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.TimeUnit;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.hyracks.api.exceptions.ErrorCode;
@@ -49,22 +46,19 @@ import org.apache.hyracks.api.util.InvokeUtil;
 import org.apache.hyracks.api.util.IoUtil;
 import org.apache.hyracks.control.nc.io.IoRequest.State;
 import org.apache.hyracks.util.file.FileUtil;
-import org.apache.logging.log4j.Level;
-import org.apache.logging.log4j.LogManager;
-import org.apache.logging.log4j.Logger;
 
 public class IOManager implements IIOManager {
     /*
      * Constants
      */
-    private static final Logger LOGGER = LogManager.getLogger();
+    public static final String BLOCKING_IO_BACKEND = "blocking";
+    public static final String BATCHED_IO_BACKEND = "batched";
     private static final String WORKSPACE_FILE_SUFFIX = ".waf";
     private static final FilenameFilter WORKSPACE_FILES_FILTER = (dir, name) -> name.endsWith(WORKSPACE_FILE_SUFFIX);
     /*
      * Finals
      */
-    private final ExecutorService executor;
-    private final BlockingQueue<IoRequest> submittedRequests;
+    private final IIoBackend backend;
     private final BlockingQueue<IoRequest> freeRequests;
     private final List<IODeviceHandle> ioDevices;
     private final List<IODeviceHandle> workspaces;
@@ -76,6 +70,11 @@ public class IOManager implements IIOManager {
 
     public IOManager(List<IODeviceHandle> devices, IFileDeviceResolver deviceComputer, int ioParallelism, int queueSize)
             throws HyracksDataException {
+        this(devices, deviceComputer, ioParallelism, queueSize, BLOCKING_IO_BACKEND);
+    }
+
+    public IOManager(List<IODeviceHandle> devices, IFileDeviceResolver deviceComputer, int ioParallelism, int queueSize,
+            String ioBackend) throws HyracksDataException {
         this.ioDevices = Collections.unmodifiableList(devices);
         checkDeviceValidity(devices);
         workspaces = new ArrayList<>();
@@ -94,19 +93,26 @@ public class IOManager implements IIOManager {
         }
         workspaceIndex = 0;
         this.deviceComputer = deviceComputer;
-        submittedRequests = new ArrayBlockingQueue<>(queueSize);
         freeRequests = new ArrayBlockingQueue<>(queueSize);
-        int numIoThreads = ioDevices.size() * ioParallelism;
-        executor = Executors.newFixedThreadPool(numIoThreads);
-        for (int i = 0; i < numIoThreads; i++) {
-            executor.execute(new IoRequestHandler(i, submittedRequests));
+        backend = createBackend(ioBackend, ioParallelism, queueSize);
+    }
+
+    private IIoBackend createBackend(String ioBackend, int ioParallelism, int queueSize)
+            throws HyracksDataException {
+        switch (ioBackend) {
+            case BLOCKING_IO_BACKEND:
+                return new BlockingIoBackend(ioDevices.size() * ioParallelism, queueSize);
+            case BATCHED_IO_BACKEND:
+                return new BatchedIoBackend(ioDevices, ioParallelism, queueSize);
+            default:
+                throw new HyracksDataException("Unknown IO backend: " + ioBackend);
         }
     }
 
     public IoRequest getOrAllocRequest() {
         IoRequest request = freeRequests.poll();
         if (request == null) {
-            request = new IoRequest(this, submittedRequests, freeRequests);
+            request = new IoRequest(this, backend, freeRequests);
         }
         return request;
     }
@@ -425,16 +431,7 @@ public class IOManager implements IIOManager {
 
     @Override
     public void close() throws IOException {
-        InvokeUtil.doUninterruptibly(() -> submittedRequests.put(IoRequestHandler.POISON_PILL));
-        executor.shutdown();
-        try {
-            if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
-                LOGGER.log(Level.WARN, "Failure shutting down {} executor service", getClass().getSimpleName());
-            }
-        } catch (InterruptedException e) {
-            LOGGER.log(Level.WARN, "Interrupted while shutting down {} executor service", getClass().getSimpleName());
-            Thread.currentThread().interrupt();
-        }
+        backend.close();
     }
 
     @Override
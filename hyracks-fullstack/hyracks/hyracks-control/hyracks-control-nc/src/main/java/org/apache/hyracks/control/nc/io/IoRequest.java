@@ -37,7 +37,7 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     }
 
     private final IOManager ioManager;
-    private final BlockingQueue<IoRequest> submittedRequests;
+    private final IIoBackend backend;
     private final BlockingQueue<IoRequest> freeRequests;
     private State state;
     private IFileHandle fHandle;
@@ -49,10 +49,9 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     private int write;
     private long writes;
 
-    public IoRequest(IOManager ioManager, BlockingQueue<IoRequest> submittedRequests,
-            BlockingQueue<IoRequest> freeRequests) {
+    public IoRequest(IOManager ioManager, IIoBackend backend, BlockingQueue<IoRequest> freeRequests) {
         this.ioManager = ioManager;
-        this.submittedRequests = submittedRequests;
+        this.backend = backend;
         this.freeRequests = freeRequests;
         reset();
     }
@@ -99,11 +98,7 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
     }
 
     private void queue() throws HyracksDataException {
-        try {
-            submittedRequests.put(this);
-        } catch (InterruptedException e) { // NOSONAR: The call below will re-interrupt
-            throw HyracksDataException.create(e);
-        }
+        backend.submit(this);
     }
 
     @Override
@@ -139,6 +134,47 @@ public class IoRequest implements IAsyncRequest, InterruptibleAction {
         }
     }
 
+    /**
+     * Completes a request that was performed by the backend on behalf of this request
+     *
+     * @param bytes
+     *            the number of bytes read or written
+     */
+    synchronized void complete(int bytes) {
+        if (state == State.READ_REQUESTED) {
+            read = bytes;
+        } else {
+            write = bytes;
+        }
+        state = State.OPERATION_SUCCEEDED;
+        notifyAll();
+    }
+
+    /**
+     * @return true if this request reads or writes a single buffer and can be combined with requests to adjacent
+     *         regions of the same file
+     */
+    boolean isSingleBuffer() {
+        return data != null && fHandle != null
+                && (state == State.READ_REQUESTED || state == State.WRITE_REQUESTED);
+    }
+
+    boolean isWrite() {
+        return state == State.WRITE_REQUESTED;
+    }
+
+    IFileHandle getFileHandle() {
+        return fHandle;
+    }
+
+    long getOffset() {
+        return offset;
+    }
+
+    ByteBuffer getData() {
+        return data;
+    }
+
     public State getState() {
         return state;
     }
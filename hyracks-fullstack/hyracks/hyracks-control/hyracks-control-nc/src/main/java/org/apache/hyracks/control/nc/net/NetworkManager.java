@@ -32,6 +32,8 @@ import org.apache.hyracks.api.job.JobId;
 import org.apache.hyracks.api.network.ISocketChannelFactory;
 import org.apache.hyracks.api.partitions.PartitionId;
 import org.apache.hyracks.comm.channels.IChannelConnectionFactory;
+import org.apache.hyracks.comm.channels.NetworkFrameCompressor;
+import org.apache.hyracks.comm.channels.NetworkInputChannel;
 import org.apache.hyracks.comm.channels.NetworkOutputChannel;
 import org.apache.hyracks.control.nc.partitions.PartitionManager;
 import org.apache.hyracks.net.protocols.muxdemux.ChannelControlBlock;
@@ -47,12 +49,14 @@ public class NetworkManager implements IChannelConnectionFactory {
 
     private static final int MAX_CONNECTION_ATTEMPTS = 5;
 
-    static final int INITIAL_MESSAGE_SIZE = 20;
+    static final int INITIAL_MESSAGE_SIZE = 24;
 
     private final PartitionManager partitionManager;
 
     private final int nBuffers;
 
+    private final boolean frameCompression;
+
     private final MuxDemux md;
 
     private NetworkAddress localNetworkAddress;
@@ -61,9 +65,11 @@ public class NetworkManager implements IChannelConnectionFactory {
 
     public NetworkManager(String inetAddress, int inetPort, PartitionManager partitionManager, int nThreads,
             int nBuffers, String publicInetAddress, int publicInetPort,
-            IChannelInterfaceFactory channelInterfaceFactory, ISocketChannelFactory socketChannelFactory) {
+            IChannelInterfaceFactory channelInterfaceFactory, ISocketChannelFactory socketChannelFactory,
+            boolean frameCompression) {
         this.partitionManager = partitionManager;
         this.nBuffers = nBuffers;
+        this.frameCompression = frameCompression;
         md = new MuxDemux(new InetSocketAddress(inetAddress, inetPort), new ChannelOpenListener(), nThreads,
                 MAX_CONNECTION_ATTEMPTS, channelInterfaceFactory, socketChannelFactory);
         // Just save these values for the moment; may be reset in start()
@@ -129,10 +135,14 @@ public class NetworkManager implements IChannelConnectionFactory {
         @Override
         public void accept(ByteBuffer buffer) {
             PartitionId pid = readInitialMessage(buffer);
+            boolean compressionRequested = (buffer.getInt() & NetworkInputChannel.FLAG_COMPRESSION) != 0;
             if (LOGGER.isTraceEnabled()) {
-                LOGGER.trace("Received initial partition request: " + pid + " on channel: " + ccb);
+                LOGGER.trace("Received initial partition request: " + pid + " on channel: " + ccb
+                        + " compression requested: " + compressionRequested);
             }
-            noc = new NetworkOutputChannel(ccb, nBuffers);
+            NetworkFrameCompressor compressor = frameCompression && compressionRequested
+                    ? new NetworkFrameCompressor(md.getPerformanceCounters()) : null;
+            noc = new NetworkOutputChannel(ccb, nBuffers, compressor);
             partitionManager.registerPartitionRequest(pid, noc);
         }
 
@@ -292,6 +292,8 @@ public class StartTasksWork extends AbstractWork {
     private List<List<PartitionChannel>> createInputChannels(TaskAttemptDescriptor td,
             List<IConnectorDescriptor> inputs) throws UnknownHostException {
         NetworkAddress[][] inputAddresses = td.getInputPartitionLocations();
+        boolean frameCompression = ncs.getConfiguration().isNetFrameCompression();
+        NetworkAddress localAddress = ncs.getNetworkManager().getPublicNetworkAddress();
         List<List<PartitionChannel>> channelsForInputConnectors = new ArrayList<>();
         if (inputAddresses != null) {
             for (int i = 0; i < inputAddresses.length; i++) {
@@ -301,12 +303,14 @@ public class StartTasksWork extends AbstractWork {
                         NetworkAddress networkAddress = inputAddresses[i][j];
                         PartitionId pid = new PartitionId(jobId, inputs.get(i).getConnectorId(), j,
                                 td.getTaskAttemptId().getTaskId().getPartition());
+                        // frames exchanged with a partition of this node are not worth compressing
+                        boolean compression = frameCompression && !networkAddress.equals(localAddress);
                         PartitionChannel channel = new PartitionChannel(pid,
                                 new NetworkInputChannel(ncs.getNetworkManager(),
                                         new InetSocketAddress(
                                                 InetAddress.getByAddress(networkAddress.lookupIpAddress()),
                                                 networkAddress.getPort()),
-                                        pid, 5));
+                                        pid, 5, compression));
                         channels.add(channel);
                     }
                 }
@@ -48,23 +48,31 @@ public class FieldHashPartitionComputerFactory implements ITuplePartitionCompute
                 if (nParts == 1) {
                     return 0;
                 }
-                int h = 0;
-                int startOffset = accessor.getTupleStartOffset(tIndex);
-                int slotLength = accessor.getFieldSlotsLength();
-                for (int j = 0; j < hashFields.length; ++j) {
-                    int fIdx = hashFields[j];
-                    IBinaryHashFunction hashFn = hashFunctions[j];
-                    int fStart = accessor.getFieldStartOffset(tIndex, fIdx);
-                    int fEnd = accessor.getFieldEndOffset(tIndex, fIdx);
-                    int fh = hashFn.hash(accessor.getBuffer().array(), startOffset + slotLength + fStart,
-                            fEnd - fStart);
-                    h = h * 31 + fh;
-                }
-                if (h < 0) {
-                    h = -(h + 1);
-                }
-                return h % nParts;
+                return hash(accessor, tIndex, hashFields, hashFunctions) % nParts;
             }
         };
     }
+
+    /**
+     * @return the non-negative hash of the hash fields of a tuple
+     */
+    static int hash(IFrameTupleAccessor accessor, int tIndex, int[] hashFields, IBinaryHashFunction[] hashFunctions)
+            throws HyracksDataException {
+        int h = 0;
+        int startOffset = accessor.getTupleStartOffset(tIndex);
+        int slotLength = accessor.getFieldSlotsLength();
+        for (int j = 0; j < hashFields.length; ++j) {
+            int fIdx = hashFields[j];
+            IBinaryHashFunction hashFn = hashFunctions[j];
+            int fStart = accessor.getFieldStartOffset(tIndex, fIdx);
+            int fEnd = accessor.getFieldEndOffset(tIndex, fIdx);
+            int fh = hashFn.hash(accessor.getBuffer().array(), startOffset + slotLength + fStart, fEnd - fStart);
+            h = h * 31 + fh;
+        }
+        return normalize(h);
+    }
+
+    static int normalize(int h) {
+        return h < 0 ? -(h + 1) : h;
+    }
 }
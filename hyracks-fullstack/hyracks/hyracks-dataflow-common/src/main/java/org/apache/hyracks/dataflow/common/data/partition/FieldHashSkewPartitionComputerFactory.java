@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.partition;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputerFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Hash partitions tuples exactly like {@link FieldHashPartitionComputerFactory} except for the tuples whose value of
+ * one of the hash fields is one of a few heavy hitters (hot values, e.g. given by a query hint). Such tuples would
+ * otherwise overload the single consumer they hash to:
+ * <ul>
+ * <li>{@link Mode#SPLIT} sends each tuple of a hot value to one of the partitions in a round robin fashion.</li>
+ * <li>{@link Mode#REPLICATE} sends each tuple of a hot value to all the partitions.</li>
+ * </ul>
+ * Partitioning the skewed input of an equi-join with {@link Mode#SPLIT} and the other input with
+ * {@link Mode#REPLICATE}, using the same hot values, spreads the work of the hot values over all the consumers while
+ * every pair of matching tuples still meets in exactly one partition. The tuples are sent through a connector that
+ * accepts an {@link ITupleMultiPartitionComputerFactory} (e.g. {@code MToNPartialBroadcastConnectorDescriptor}).
+ * <p>
+ * Hot values are identified by their hash. A value whose hash collides with the hash of a hot value is treated as a
+ * hot value by both inputs, which is only less efficient.
+ */
+public class FieldHashSkewPartitionComputerFactory implements ITupleMultiPartitionComputerFactory {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Mode {
+        SPLIT,
+        REPLICATE
+    }
+
+    private final int[] hashFields;
+    private final IBinaryHashFunctionFactory[] hashFunctionFactories;
+    private final int hotField;
+    private final byte[][] hotValues;
+    private final Mode mode;
+
+    /**
+     * @param hashFields
+     *            the fields to hash
+     * @param hashFunctionFactories
+     *            the hash functions of the fields
+     * @param hotField
+     *            the index (in hashFields) of the field whose values are checked against the hot values
+     * @param hotValues
+     *            the serialized hot values
+     * @param mode
+     *            whether the tuples of a hot value are split or replicated over the partitions
+     */
+    public FieldHashSkewPartitionComputerFactory(int[] hashFields, IBinaryHashFunctionFactory[] hashFunctionFactories,
+            int hotField, byte[][] hotValues, Mode mode) {
+        this.hashFields = hashFields;
+        this.hashFunctionFactories = hashFunctionFactories;
+        this.hotField = hotField;
+        this.hotValues = hotValues;
+        this.mode = mode;
+    }
+
+    @Override
+    public ITupleMultiPartitionComputer createPartitioner(IHyracksTaskContext hyracksTaskContext) {
+        final IBinaryHashFunction[] hashFunctions = new IBinaryHashFunction[hashFunctionFactories.length];
+        for (int i = 0; i < hashFunctionFactories.length; ++i) {
+            hashFunctions[i] = hashFunctionFactories[i].createBinaryHashFunction();
+        }
+        // producers start splitting at different partitions so that the first tuples of a hot value do not all go to
+        // the same consumer
+        final int producer = hyracksTaskContext != null && hyracksTaskContext.getTaskAttemptId() != null
+                ? hyracksTaskContext.getTaskAttemptId().getTaskId().getPartition() : 0;
+        return new ITupleMultiPartitionComputer() {
+            private final BitSet partitions = new BitSet();
+            private final int[] hotHashes = new int[hotValues.length];
+            private int next = producer;
+
+            @Override
+            public void initialize() throws HyracksDataException {
+                IBinaryHashFunction hashFn = hashFunctions[hotField];
+                for (int i = 0; i < hotValues.length; i++) {
+                    hotHashes[i] = hashFn.hash(hotValues[i], 0, hotValues[i].length);
+                }
+                Arrays.sort(hotHashes);
+            }
+
+            @Override
+            public BitSet partition(IFrameTupleAccessor accessor, int tIndex, int nParts) throws HyracksDataException {
+                partitions.clear();
+                if (nParts == 1) {
+                    partitions.set(0);
+                } else if (!isHot(accessor, tIndex)) {
+                    partitions.set(FieldHashPartitionComputerFactory.hash(accessor, tIndex, hashFields, hashFunctions)
+                            % nParts);
+                } else if (mode == Mode.SPLIT) {
+                    next = (next + 1) % nParts;
+                    partitions.set(next);
+                } else {
+                    partitions.set(0, nParts);
+                }
+                return partitions;
+            }
+
+            private boolean isHot(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+                int fIdx = hashFields[hotField];
+                int fStart = accessor.getFieldStartOffset(tIndex, fIdx);
+                int fEnd = accessor.getFieldEndOffset(tIndex, fIdx);
+                int start = accessor.getTupleStartOffset(tIndex) + accessor.getFieldSlotsLength() + fStart;
+                int h = hashFunctions[hotField].hash(accessor.getBuffer().array(), start, fEnd - fStart);
+                return Arrays.binarySearch(hotHashes, h) >= 0;
+            }
+        };
+    }
+}
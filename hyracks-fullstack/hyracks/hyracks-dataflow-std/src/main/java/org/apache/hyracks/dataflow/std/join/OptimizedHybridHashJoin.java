@@ -71,6 +71,7 @@ public class OptimizedHybridHashJoin {
     private final RunFileWriter[] probeRFWriters; //writing spilled probe partitions
     private final IPredicateEvaluator buildPredEval;
     private final IPredicateEvaluator probePredEval;
+    private RuntimeJoinFilter runtimeFilter; //discards probe tuples that cannot have a match
     private final boolean isLeftOuter;
     private final IMissingWriter[] nonMatchWriters;
     private final BitSet spilledStatus; //0=resident, 1=spilled
@@ -142,6 +143,9 @@ public class OptimizedHybridHashJoin {
         int tupleCount = accessorBuild.getTupleCount();
         for (int i = 0; i < tupleCount; ++i) {
             if (buildPredEval == null || buildPredEval.evaluate(accessorBuild, i)) {
+                if (runtimeFilter != null) {
+                    runtimeFilter.insert(accessorBuild, i);
+                }
                 int pid = buildHpc.partition(accessorBuild, i, numOfPartitions);
                 processTupleBuildPhase(i, pid);
                 buildPSizeInTups[pid]++;
@@ -208,6 +212,9 @@ public class OptimizedHybridHashJoin {
     }
 
     public void closeBuild() throws HyracksDataException {
+        if (runtimeFilter != null && !runtimeFilter.seal()) {
+            runtimeFilter = null;
+        }
         // Flushes the remaining chunks of the all spilled partitions to the disk.
         closeAllSpilledPartitions(buildRFWriters, buildRelName);
 
@@ -478,14 +485,14 @@ public class OptimizedHybridHashJoin {
         if (isBuildRelAllInMemory()) {
             for (int i = 0; i < tupleCount; ++i) {
                 // NOTE: probePredEval is guaranteed to be 'null' for outer join and in case of role reversal
-                if (probePredEval == null || probePredEval.evaluate(accessorProbe, i)) {
+                if ((probePredEval == null || probePredEval.evaluate(accessorProbe, i)) && mightMatch(i)) {
                     inMemJoiner.join(i, writer);
                 }
             }
         } else {
             for (int i = 0; i < tupleCount; ++i) {
                 // NOTE: probePredEval is guaranteed to be 'null' for outer join and in case of role reversal
-                if (probePredEval == null || probePredEval.evaluate(accessorProbe, i)) {
+                if ((probePredEval == null || probePredEval.evaluate(accessorProbe, i)) && mightMatch(i)) {
                     int pid = probeHpc.partition(accessorProbe, i, numOfPartitions);
                     if (buildPSizeInTups[pid] > 0 || isLeftOuter) { //Tuple has potential match from previous phase
                         if (spilledStatus.get(pid)) { //pid is Spilled
@@ -500,6 +507,11 @@ public class OptimizedHybridHashJoin {
         }
     }
 
+    private boolean mightMatch(int tupleId) throws HyracksDataException {
+        // NOTE: runtimeFilter is guaranteed to be 'null' for outer join
+        return runtimeFilter == null || runtimeFilter.mightMatch(accessorProbe, tupleId);
+    }
+
     private void processTupleProbePhase(int tupleId, int pid) throws HyracksDataException {
 
         if (!bufferManager.insertTuple(pid, accessorProbe, tupleId, tempPtr)) {
@@ -607,6 +619,17 @@ public class OptimizedHybridHashJoin {
         return bufferManager.getPhysicalSize(pid);
     }
 
+    /**
+     * Sets a filter that is built from the build tuples and is used to discard the probe tuples that cannot have a
+     * match. Must be called before the build phase starts.
+     */
+    public void setRuntimeFilter(RuntimeJoinFilter runtimeFilter) {
+        if (isLeftOuter && runtimeFilter != null) {
+            throw new IllegalStateException();
+        }
+        this.runtimeFilter = runtimeFilter;
+    }
+
     public void setIsReversed(boolean reversed) {
         if (reversed && (buildPredEval != null || probePredEval != null)) {
             throw new IllegalStateException();
@@ -32,6 +32,7 @@ import org.apache.hyracks.api.dataflow.ActivityId;
 import org.apache.hyracks.api.dataflow.IActivityGraphBuilder;
 import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
 import org.apache.hyracks.api.dataflow.TaskId;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
 import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
 import org.apache.hyracks.api.dataflow.value.IMissingWriter;
 import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
@@ -119,6 +120,16 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
     private static final long serialVersionUID = 1L;
     private static final double NLJ_SWITCH_THRESHOLD = 0.8;
 
+    /**
+     * The maximum number of build tuples for which a runtime filter is built
+     */
+    private static final int RUNTIME_FILTER_MAX_KEYS = 1 << 20;
+    /**
+     * The runtime filter takes 1/RUNTIME_FILTER_MEMORY_RATIO of the frames of the join. It is not built if that is
+     * less than a frame.
+     */
+    private static final int RUNTIME_FILTER_MEMORY_RATIO = 8;
+
     private static final String PROBE_REL = "RelR";
     private static final String BUILD_REL = "RelS";
 
@@ -137,6 +148,10 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
     private final boolean isLeftOuter;
     private final IMissingWriterFactory[] nonMatchWriterFactories;
 
+    private boolean runtimeFilter = false;
+    private IBinaryComparatorFactory buildKeyComparatorFactory;
+    private IBinaryComparatorFactory probeBuildKeyComparatorFactory;
+
     //Flags added for test purpose
     private boolean skipInMemoryHJ = false;
     private boolean forceNLJ = false;
@@ -181,6 +196,21 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                 predEvalFactory0, predEvalFactory1, false, null);
     }
 
+    /**
+     * Enables building a {@link RuntimeJoinFilter} from the build side keys to discard the probe tuples that cannot
+     * have a match before they are joined or spilled. The filter is not used for outer joins.
+     *
+     * @param buildKeyComparatorFactory comparator of the first build key (to compute its min/max) or {@code null}
+     * @param probeBuildKeyComparatorFactory comparator of the first probe key with the first build key or
+     *            {@code null}
+     */
+    public void setRuntimeFilter(boolean runtimeFilter, IBinaryComparatorFactory buildKeyComparatorFactory,
+            IBinaryComparatorFactory probeBuildKeyComparatorFactory) {
+        this.runtimeFilter = runtimeFilter;
+        this.buildKeyComparatorFactory = buildKeyComparatorFactory;
+        this.probeBuildKeyComparatorFactory = probeBuildKeyComparatorFactory;
+    }
+
     @Override
     public void contributeActivities(IActivityGraphBuilder builder) {
         ActivityId buildAid = new ActivityId(odId, BUILD_AND_PARTITION_ACTIVITY_ID);
@@ -295,11 +325,19 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                         throw new HyracksDataException("Not enough memory is assigend for Hybrid Hash Join.");
                     }
                     state.memForJoin = memSizeInFrames - 2;
+                    // the runtime filter is charged to the memory of the join
+                    int filterFrames =
+                            runtimeFilter && !isLeftOuter ? state.memForJoin / RUNTIME_FILTER_MEMORY_RATIO : 0;
+                    state.memForJoin -= filterFrames;
                     state.numOfPartitions =
                             getNumberOfPartitions(state.memForJoin, inputsize0, fudgeFactor, nPartitions);
                     state.hybridHJ = new OptimizedHybridHashJoin(ctx.getJobletContext(), state.memForJoin,
                             state.numOfPartitions, PROBE_REL, BUILD_REL, probeRd, buildRd, probeHpc, buildHpc,
                             probePredEval, buildPredEval, isLeftOuter, nonMatchWriterFactories);
+                    if (filterFrames > 0) {
+                        state.hybridHJ.setRuntimeFilter(
+                                createRuntimeFilter((long) filterFrames * ctx.getInitialFrameSize()));
+                    }
 
                     state.hybridHJ.initBuild();
                     if (LOGGER.isTraceEnabled()) {
@@ -341,6 +379,15 @@ public class OptimizedHybridHashJoinOperatorDescriptor extends AbstractOperatorD
                     return "Hybrid Hash Join: Build";
                 }
 
+                private RuntimeJoinFilter createRuntimeFilter(long filterMemory) {
+                    boolean minMax = buildKeyComparatorFactory != null && probeBuildKeyComparatorFactory != null;
+                    return new RuntimeJoinFilter(buildKeys, buildHashFunctionFactories, probeKeys,
+                            propHashFunctionFactories,
+                            minMax ? buildKeyComparatorFactory.createBinaryComparator() : null,
+                            minMax ? probeBuildKeyComparatorFactory.createBinaryComparator() : null,
+                            Math.min(RUNTIME_FILTER_MAX_KEYS, RuntimeJoinFilter.getMaxKeys(filterMemory)));
+                }
+
             };
         }
     }
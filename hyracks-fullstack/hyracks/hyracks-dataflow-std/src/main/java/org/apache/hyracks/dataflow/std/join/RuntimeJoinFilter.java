@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunction;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A filter on the join keys of the build side of a hash join that is used to discard probe tuples that cannot have a
+ * match before they are hashed into the in-memory table or spilled. It consists of a bloom filter over the hashes of
+ * all the join keys and, if comparators are given, of the min/max value of the first join key.
+ * <p>
+ * The key hashes are collected while building and the bloom filter is sized when the build side is complete
+ * ({@link #seal()}). The filter disables itself if the build side has more than {@code maxKeys} tuples (the join is
+ * not selective enough to pay off, or the filter would not fit in its memory, see {@link #getMaxKeys(long)}) or if,
+ * while probing, it does not discard enough probe tuples.
+ * <p>
+ * The hash functions of the build and the probe side must come from families that hash equal values of the two sides
+ * to the same value, i.e., the families used to partition the two sides of the join.
+ */
+public class RuntimeJoinFilter {
+    private static final int HASH_SEED_1 = 1640531527;
+    private static final int HASH_SEED_2 = 374761393;
+    private static final int BITS_PER_KEY = 10;
+    private static final int NUM_HASHES = 7;
+    // peak bytes per build key: 12 while the array of the 8-byte hashes grows, 8 plus the bloom bits when sealing
+    private static final int BYTES_PER_KEY = 12;
+    // the filter checks how many tuples it has discarded every ADAPTIVE_CHECK_INTERVAL probe tuples
+    private static final int ADAPTIVE_CHECK_INTERVAL = 1 << 16;
+    private static final double MIN_DISCARD_RATIO = 0.1;
+
+    private final int[] buildKeys;
+    private final int[] probeKeys;
+    private final IBinaryHashFunction[] buildHash1;
+    private final IBinaryHashFunction[] buildHash2;
+    private final IBinaryHashFunction[] probeHash1;
+    private final IBinaryHashFunction[] probeHash2;
+    private final IBinaryComparator buildComparator;
+    private final IBinaryComparator probeBuildComparator;
+    private final int maxKeys;
+
+    private long[] hashes = new long[64];
+    private int numKeys;
+    private long[] bits;
+    private long numBits;
+    private byte[] min;
+    private int minLength;
+    private byte[] max;
+    private int maxLength;
+    private boolean disabled;
+    private long probed;
+    private long discarded;
+
+    public RuntimeJoinFilter(int[] buildKeys, IBinaryHashFunctionFamily[] buildHashFamilies, int[] probeKeys,
+            IBinaryHashFunctionFamily[] probeHashFamilies, IBinaryComparator buildComparator,
+            IBinaryComparator probeBuildComparator, int maxKeys) {
+        this.buildKeys = buildKeys;
+        this.probeKeys = probeKeys;
+        this.buildHash1 = createHashFunctions(buildHashFamilies, HASH_SEED_1);
+        this.buildHash2 = createHashFunctions(buildHashFamilies, HASH_SEED_2);
+        this.probeHash1 = createHashFunctions(probeHashFamilies, HASH_SEED_1);
+        this.probeHash2 = createHashFunctions(probeHashFamilies, HASH_SEED_2);
+        this.buildComparator = buildComparator;
+        this.probeBuildComparator = probeBuildComparator;
+        this.maxKeys = maxKeys;
+    }
+
+    /**
+     * @param memoryInBytes
+     *            the memory that the filter may use
+     * @return the maximum number of build tuples for which a filter fits in the given memory
+     */
+    public static int getMaxKeys(long memoryInBytes) {
+        return (int) Math.min(Integer.MAX_VALUE - 8, memoryInBytes / BYTES_PER_KEY);
+    }
+
+    /**
+     * Adds the keys of a build tuple to the filter
+     */
+    public void insert(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (disabled) {
+            return;
+        }
+        if (numKeys == maxKeys) {
+            // too many build tuples for the filter to be selective, stop collecting
+            disabled = true;
+            hashes = null;
+            return;
+        }
+        if (numKeys == hashes.length) {
+            hashes = Arrays.copyOf(hashes, Math.min(maxKeys, hashes.length * 2));
+        }
+        int h1 = hash(accessor, tIndex, buildKeys, buildHash1);
+        int h2 = hash(accessor, tIndex, buildKeys, buildHash2);
+        hashes[numKeys++] = ((long) h1 << 32) | (h2 & 0xFFFFFFFFL);
+        if (buildComparator != null) {
+            updateMinMax(accessor, tIndex);
+        }
+    }
+
+    /**
+     * Completes the build of the filter. No more keys can be inserted after sealing.
+     *
+     * @return whether the filter is used for probing
+     */
+    public boolean seal() {
+        if (disabled) {
+            return false;
+        }
+        numBits = Math.max(Long.SIZE, ((long) numKeys * BITS_PER_KEY + Long.SIZE - 1) & -Long.SIZE);
+        bits = new long[(int) (numBits / Long.SIZE)];
+        for (int i = 0; i < numKeys; i++) {
+            long hash = hashes[i];
+            int h1 = (int) (hash >>> 32);
+            int h2 = (int) hash;
+            for (int j = 0; j < NUM_HASHES; j++) {
+                long bit = Math.floorMod(h1 + (long) j * h2, numBits);
+                bits[(int) (bit >>> 6)] |= 1L << bit;
+            }
+        }
+        hashes = null;
+        return true;
+    }
+
+    /**
+     * @return {@code false} if the probe tuple certainly has no matching build tuple, {@code true} otherwise
+     */
+    public boolean mightMatch(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (disabled) {
+            return true;
+        }
+        boolean mightMatch = mightMatchMinMax(accessor, tIndex) && mightMatchBloom(accessor, tIndex);
+        probed++;
+        if (!mightMatch) {
+            discarded++;
+        }
+        if (probed % ADAPTIVE_CHECK_INTERVAL == 0 && discarded < probed * MIN_DISCARD_RATIO) {
+            // the filter costs more than what it saves
+            disabled = true;
+        }
+        return mightMatch;
+    }
+
+    public boolean isDisabled() {
+        return disabled;
+    }
+
+    public long getDiscardedCount() {
+        return discarded;
+    }
+
+    private boolean mightMatchBloom(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        int h1 = hash(accessor, tIndex, probeKeys, probeHash1);
+        int h2 = hash(accessor, tIndex, probeKeys, probeHash2);
+        for (int j = 0; j < NUM_HASHES; j++) {
+            long bit = Math.floorMod(h1 + (long) j * h2, numBits);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean mightMatchMinMax(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        if (probeBuildComparator == null || min == null) {
+            return true;
+        }
+        int fIdx = probeKeys[0];
+        byte[] bytes = accessor.getBuffer().array();
+        int start = accessor.getAbsoluteFieldStartOffset(tIndex, fIdx);
+        int length = accessor.getFieldLength(tIndex, fIdx);
+        return probeBuildComparator.compare(bytes, start, length, min, 0, minLength) >= 0
+                && probeBuildComparator.compare(bytes, start, length, max, 0, maxLength) <= 0;
+    }
+
+    private void updateMinMax(IFrameTupleAccessor accessor, int tIndex) throws HyracksDataException {
+        int fIdx = buildKeys[0];
+        byte[] bytes = accessor.getBuffer().array();
+        int start = accessor.getAbsoluteFieldStartOffset(tIndex, fIdx);
+        int length = accessor.getFieldLength(tIndex, fIdx);
+        if (min == null || buildComparator.compare(bytes, start, length, min, 0, minLength) < 0) {
+            min = copy(min, bytes, start, length);
+            minLength = length;
+        }
+        if (max == null || buildComparator.compare(bytes, start, length, max, 0, maxLength) > 0) {
+            max = copy(max, bytes, start, length);
+            maxLength = length;
+        }
+    }
+
+    private static byte[] copy(byte[] target, byte[] bytes, int start, int length) {
+        byte[] copy = target != null && target.length >= length ? target : new byte[length];
+        System.arraycopy(bytes, start, copy, 0, length);
+        return copy;
+    }
+
+    private static int hash(IFrameTupleAccessor accessor, int tIndex, int[] keys, IBinaryHashFunction[] hashFunctions)
+            throws HyracksDataException {
+        int h = 0;
+        byte[] bytes = accessor.getBuffer().array();
+        for (int i = 0; i < keys.length; i++) {
+            h += hashFunctions[i].hash(bytes, accessor.getAbsoluteFieldStartOffset(tIndex, keys[i]),
+                    accessor.getFieldLength(tIndex, keys[i]));
+        }
+        return h;
+    }
+
+    private static IBinaryHashFunction[] createHashFunctions(IBinaryHashFunctionFamily[] families, int seed) {
+        IBinaryHashFunction[] hashFunctions = new IBinaryHashFunction[families.length];
+        for (int i = 0; i < families.length; i++) {
+            hashFunctions[i] = families[i].createBinaryHashFunction(seed);
+        }
+        return hashFunctions;
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.std.join;
+
+import java.nio.ByteBuffer;
+
+import org.apache.hyracks.api.comm.FixedSizeFrame;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
+import org.apache.hyracks.data.std.accessors.MurmurHash3BinaryHashFunctionFamily;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class RuntimeJoinFilterTest {
+    private static final int FRAME_SIZE = 1 << 20;
+    private static final RecordDescriptor RECORD_DESC =
+            new RecordDescriptor(new ISerializerDeserializer[] { IntegerSerializerDeserializer.INSTANCE });
+    private static final int[] KEYS = { 0 };
+    private static final IBinaryHashFunctionFamily[] HASH_FAMILIES =
+            { MurmurHash3BinaryHashFunctionFamily.INSTANCE };
+
+    @Test
+    public void testBuildKeysAlwaysMatch() throws HyracksDataException {
+        RuntimeJoinFilter filter = createFilter(true, 1 << 20);
+        FrameTupleAccessor build = createFrame(1000, 3000, 2);
+        for (int i = 0; i < build.getTupleCount(); i++) {
+            filter.insert(build, i);
+        }
+        Assert.assertTrue(filter.seal());
+        for (int i = 0; i < build.getTupleCount(); i++) {
+            Assert.assertTrue(filter.mightMatch(build, i));
+        }
+    }
+
+    @Test
+    public void testNonMatchingProbeKeysAreDiscarded() throws HyracksDataException {
+        RuntimeJoinFilter filter = createFilter(false, 1 << 20);
+        FrameTupleAccessor build = createFrame(0, 20000, 2);
+        for (int i = 0; i < build.getTupleCount(); i++) {
+            filter.insert(build, i);
+        }
+        Assert.assertTrue(filter.seal());
+        // odd keys are not in the build side, the bloom filter should discard almost all of them
+        FrameTupleAccessor probe = createFrame(1, 20000, 2);
+        int passed = 0;
+        for (int i = 0; i < probe.getTupleCount(); i++) {
+            passed += filter.mightMatch(probe, i) ? 1 : 0;
+        }
+        Assert.assertTrue("false positive rate is too high: " + passed, passed < probe.getTupleCount() * 0.05);
+        Assert.assertFalse(filter.isDisabled());
+    }
+
+    @Test
+    public void testMinMax() throws HyracksDataException {
+        RuntimeJoinFilter filter = createFilter(true, 1 << 20);
+        FrameTupleAccessor build = createFrame(100, 200, 1);
+        for (int i = 0; i < build.getTupleCount(); i++) {
+            filter.insert(build, i);
+        }
+        Assert.assertTrue(filter.seal());
+        FrameTupleAccessor probe = createFrame(0, 300, 1);
+        for (int i = 0; i < probe.getTupleCount(); i++) {
+            Assert.assertEquals(i >= 100 && i < 200, filter.mightMatch(probe, i));
+        }
+    }
+
+    @Test
+    public void testTooManyBuildKeys() throws HyracksDataException {
+        RuntimeJoinFilter filter = createFilter(true, 100);
+        FrameTupleAccessor build = createFrame(0, 1000, 1);
+        for (int i = 0; i < build.getTupleCount(); i++) {
+            filter.insert(build, i);
+        }
+        Assert.assertFalse(filter.seal());
+        Assert.assertTrue(filter.isDisabled());
+    }
+
+    private static RuntimeJoinFilter createFilter(boolean minMax, int maxKeys) {
+        return new RuntimeJoinFilter(KEYS, HASH_FAMILIES, KEYS, HASH_FAMILIES,
+                minMax ? IntegerBinaryComparatorFactory.INSTANCE.createBinaryComparator() : null,
+                minMax ? IntegerBinaryComparatorFactory.INSTANCE.createBinaryComparator() : null, maxKeys);
+    }
+
+    private static FrameTupleAccessor createFrame(int from, int to, int step) throws HyracksDataException {
+        FrameTupleAppender appender = new FrameTupleAppender(new FixedSizeFrame(ByteBuffer.allocate(FRAME_SIZE)));
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        for (int i = from; i < to; i += step) {
+            tb.reset();
+            tb.addField(IntegerSerializerDeserializer.INSTANCE, i);
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        FrameTupleAccessor accessor = new FrameTupleAccessor(RECORD_DESC);
+        accessor.reset(appender.getBuffer());
+        return accessor;
+    }
+}
@@ -151,10 +151,13 @@ public abstract class AbstractIntegrationTest {
     protected List<String> readResults(JobSpecification spec, JobId jobId, ResultSetId resultSetId) throws Exception {
         int nReaders = 1;
 
-        IFrameTupleAccessor frameTupleAccessor = new ResultFrameTupleAccessor();
-
         IResultSet resultSet = new ResultSet(hcc, PlainSocketChannelFactory.INSTANCE, spec.getFrameSize(), nReaders);
         IResultSetReader reader = resultSet.createReader(jobId, resultSetId);
+        return readResults(spec, reader);
+    }
+
+    protected List<String> readResults(JobSpecification spec, IResultSetReader reader) throws Exception {
+        IFrameTupleAccessor frameTupleAccessor = new ResultFrameTupleAccessor();
 
         List<String> resultRecords = new ArrayList<>();
         ByteBufferInputStream bbis = new ByteBufferInputStream();
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IConnectorDescriptor;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFamily;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.io.FileSplit;
+import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryComparatorFactory;
+import org.apache.hyracks.data.std.accessors.UTF8StringBinaryHashFunctionFamily;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.file.IFileSplitProvider;
+import org.apache.hyracks.dataflow.std.join.JoinComparatorFactory;
+import org.apache.hyracks.dataflow.std.join.OptimizedHybridHashJoinOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Checks that the runtime filter of the hybrid hash join does not change the result of the join. The build side
+ * (customer3.tbl) has 20000 tuples with the keys 1 to 50 and the probe side (customer.tbl) has the keys 1 to 150, so
+ * the filter discards two thirds of the probe tuples.
+ */
+public class HybridHashJoinRuntimeFilterTest extends AbstractIntegrationTest {
+
+    private static final RecordDescriptor CUST_DESC = createRecordDescriptor(8);
+    private static final RecordDescriptor JOIN_DESC = createRecordDescriptor(16);
+    private static final IValueParserFactory[] CUST_PARSER_FACTORIES = new IValueParserFactory[8];
+
+    static {
+        Arrays.fill(CUST_PARSER_FACTORIES, UTF8StringParserFactory.INSTANCE);
+    }
+
+    @Test
+    public void inMemoryJoinWithRuntimeFilter() throws Exception {
+        // the build side and the filter fit in the memory of the join
+        Assert.assertEquals(runJoin(200, false), runJoin(200, true));
+    }
+
+    @Test
+    public void spilledJoinWithRuntimeFilter() throws Exception {
+        // the filter still fits in its share of the memory but the build side spills
+        Assert.assertEquals(runJoin(80, false), runJoin(80, true));
+    }
+
+    private List<String> runJoin(int memSizeInFrames, boolean runtimeFilter) throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        FileScanOperatorDescriptor probeScanner = createScanner(spec, "customer.tbl");
+        FileScanOperatorDescriptor buildScanner = createScanner(spec, "customer3.tbl");
+
+        OptimizedHybridHashJoinOperatorDescriptor join = new OptimizedHybridHashJoinOperatorDescriptor(spec,
+                memSizeInFrames, 100, 1.2, new int[] { 0 }, new int[] { 0 },
+                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE },
+                new IBinaryHashFunctionFamily[] { UTF8StringBinaryHashFunctionFamily.INSTANCE }, JOIN_DESC,
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 0, 0),
+                new JoinComparatorFactory(UTF8StringBinaryComparatorFactory.INSTANCE, 0, 0), null, null);
+        join.setRuntimeFilter(runtimeFilter, UTF8StringBinaryComparatorFactory.INSTANCE,
+                UTF8StringBinaryComparatorFactory.INSTANCE);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, join, NC1_ID);
+
+        ResultSetId rsId = new ResultSetId(1);
+        spec.addResultSetId(rsId);
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NC1_ID);
+
+        IConnectorDescriptor probeJoinConn = new OneToOneConnectorDescriptor(spec);
+        spec.connect(probeJoinConn, probeScanner, 0, join, 0);
+        IConnectorDescriptor buildJoinConn = new OneToOneConnectorDescriptor(spec);
+        spec.connect(buildJoinConn, buildScanner, 0, join, 1);
+        IConnectorDescriptor joinPrinterConn = new OneToOneConnectorDescriptor(spec);
+        spec.connect(joinPrinterConn, join, 0, printer, 0);
+        spec.addRoot(printer);
+
+        JobId jobId = executeTest(spec);
+        List<String> results = readResults(spec, jobId, rsId);
+        hcc.waitForCompletion(jobId);
+        Assert.assertEquals(20000, results.size());
+        Collections.sort(results);
+        return results;
+    }
+
+    private static FileScanOperatorDescriptor createScanner(JobSpecification spec, String fileName) {
+        FileSplit[] splits = new FileSplit[] {
+                new ManagedFileSplit(NC1_ID, "data" + File.separator + "tpch0.001" + File.separator + fileName) };
+        IFileSplitProvider splitsProvider = new ConstantFileSplitProvider(splits);
+        FileScanOperatorDescriptor scanner = new FileScanOperatorDescriptor(spec, splitsProvider,
+                new DelimitedDataTupleParserFactory(CUST_PARSER_FACTORIES, '|'), CUST_DESC);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, scanner, NC1_ID);
+        return scanner;
+    }
+
+    private static RecordDescriptor createRecordDescriptor(int numFields) {
+        ISerializerDeserializer[] serdes = new ISerializerDeserializer[numFields];
+        Arrays.fill(serdes, new UTF8StringSerializerDeserializer());
+        return new RecordDescriptor(serdes);
+    }
+}
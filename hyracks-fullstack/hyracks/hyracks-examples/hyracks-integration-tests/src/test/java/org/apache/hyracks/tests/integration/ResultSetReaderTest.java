@@ -0,0 +1,168 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.tests.integration;
+
+import static org.apache.hyracks.util.file.FileUtil.joinPath;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.constraints.PartitionConstraintHelper;
+import org.apache.hyracks.api.dataflow.IOperatorDescriptor;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.io.FileSplit;
+import org.apache.hyracks.api.io.ManagedFileSplit;
+import org.apache.hyracks.api.job.JobId;
+import org.apache.hyracks.api.job.JobSpecification;
+import org.apache.hyracks.api.result.IResultSet;
+import org.apache.hyracks.api.result.IResultSetReader;
+import org.apache.hyracks.api.result.ResultSetId;
+import org.apache.hyracks.client.result.ResultSet;
+import org.apache.hyracks.dataflow.common.data.marshalling.UTF8StringSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.parsers.IValueParserFactory;
+import org.apache.hyracks.dataflow.common.data.parsers.UTF8StringParserFactory;
+import org.apache.hyracks.dataflow.std.connectors.OneToOneConnectorDescriptor;
+import org.apache.hyracks.dataflow.std.file.ConstantFileSplitProvider;
+import org.apache.hyracks.dataflow.std.file.DelimitedDataTupleParserFactory;
+import org.apache.hyracks.dataflow.std.file.FileScanOperatorDescriptor;
+import org.apache.hyracks.dataflow.std.result.ResultWriterOperatorDescriptor;
+import org.apache.hyracks.ipc.sockets.PlainSocketChannelFactory;
+import org.apache.hyracks.tests.util.ResultSerializerFactoryProvider;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Reads a result set whose partitions are spread over both node controllers and checks that every partition is
+ * returned, in partition order, whether the partitions are read all at once, with prefetching, or one at a time.
+ */
+public class ResultSetReaderTest extends AbstractIntegrationTest {
+
+    private static final String TPCH = "data" + File.separator + "tpch0.001" + File.separator;
+    private static final String[] NODES = { NC1_ID, NC2_ID, NC1_ID, NC1_ID };
+    private static final String[] DEVICES = { "device0", "device1", "device0", "device0" };
+    private static final String[] FILES =
+            { "customer-part1.tbl", "customer-part2.tbl", "customer3.tbl", "customer.tbl" };
+
+    @Test
+    public void readAllPartitionsTest() throws Exception {
+        Assert.assertEquals(expected(), readAll(0));
+    }
+
+    @Test
+    public void prefetchPartitionsTest() throws Exception {
+        Assert.assertEquals(expected(), readAll(2));
+        Assert.assertEquals(expected(), readAll(FILES.length));
+    }
+
+    @Test
+    public void readSinglePartitionTest() throws Exception {
+        JobSpecification spec = createSpec();
+        JobId jobId = executeTest(spec);
+        IResultSet resultSet = new ResultSet(hcc, PlainSocketChannelFactory.INSTANCE, spec.getFrameSize(), 1, 2);
+        // read the partitions out of order to check that each reader only returns its own partition
+        for (int partition = FILES.length - 1; partition >= 0; partition--) {
+            IResultSetReader reader = resultSet.createReader(jobId, spec.getResultSetIds().get(0), partition);
+            Assert.assertEquals(FILES.length, reader.getNumPartitions());
+            Assert.assertEquals(expected(partition), trim(readResults(spec, reader)));
+        }
+        hcc.waitForCompletion(jobId);
+    }
+
+    @Test
+    public void readOutOfRangePartitionTest() throws Exception {
+        JobSpecification spec = createSpec();
+        JobId jobId = executeTest(spec);
+        IResultSet resultSet = new ResultSet(hcc, PlainSocketChannelFactory.INSTANCE, spec.getFrameSize(), 1);
+        IResultSetReader reader = resultSet.createReader(jobId, spec.getResultSetIds().get(0), FILES.length);
+        try {
+            readResults(spec, reader);
+            Assert.fail("Expected the read of partition " + FILES.length + " to fail");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        // the partitions are still readable after the failed request
+        reader = resultSet.createReader(jobId, spec.getResultSetIds().get(0));
+        Assert.assertEquals(expected(), trim(readResults(spec, reader)));
+        hcc.waitForCompletion(jobId);
+    }
+
+    private List<String> readAll(int numPrefetchPartitions) throws Exception {
+        JobSpecification spec = createSpec();
+        JobId jobId = executeTest(spec);
+        IResultSet resultSet = new ResultSet(hcc, PlainSocketChannelFactory.INSTANCE, spec.getFrameSize(), 1,
+                numPrefetchPartitions);
+        IResultSetReader reader = resultSet.createReader(jobId, spec.getResultSetIds().get(0));
+        List<String> results = trim(readResults(spec, reader));
+        hcc.waitForCompletion(jobId);
+        return results;
+    }
+
+    private static JobSpecification createSpec() throws Exception {
+        JobSpecification spec = new JobSpecification();
+
+        FileSplit[] splits = new FileSplit[FILES.length];
+        for (int i = 0; i < FILES.length; i++) {
+            splits[i] = new ManagedFileSplit(NODES[i], TPCH + FILES[i]);
+        }
+        RecordDescriptor desc =
+                new RecordDescriptor(new ISerializerDeserializer[] { new UTF8StringSerializerDeserializer() });
+        // the lines hold no tabs, so each line is read as a single field
+        FileScanOperatorDescriptor scanner = new FileScanOperatorDescriptor(spec,
+                new ConstantFileSplitProvider(splits), new DelimitedDataTupleParserFactory(
+                        new IValueParserFactory[] { UTF8StringParserFactory.INSTANCE }, '\t'),
+                desc);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, scanner, NODES);
+
+        ResultSetId rsId = new ResultSetId(1);
+        IOperatorDescriptor printer = new ResultWriterOperatorDescriptor(spec, rsId, null, false,
+                ResultSerializerFactoryProvider.INSTANCE.getResultSerializerFactoryProvider(), 1);
+        spec.addResultSetId(rsId);
+        PartitionConstraintHelper.addAbsoluteLocationConstraint(spec, printer, NODES);
+
+        spec.connect(new OneToOneConnectorDescriptor(spec), scanner, 0, printer, 0);
+        spec.addRoot(printer);
+        return spec;
+    }
+
+    private static List<String> expected() throws Exception {
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < FILES.length; i++) {
+            lines.addAll(expected(i));
+        }
+        return lines;
+    }
+
+    private static List<String> expected(int partition) throws Exception {
+        return Files.readAllLines(Paths.get(joinPath("data", DEVICES[partition], TPCH + FILES[partition])),
+                StandardCharsets.UTF_8);
+    }
+
+    private static List<String> trim(List<String> records) {
+        List<String> trimmed = new ArrayList<>(records.size());
+        for (String record : records) {
+            trimmed.add(record.trim());
+        }
+        return trimmed;
+    }
+}
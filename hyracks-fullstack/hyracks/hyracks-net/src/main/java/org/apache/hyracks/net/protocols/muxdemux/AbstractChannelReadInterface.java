@@ -34,6 +34,7 @@ public abstract class AbstractChannelReadInterface implements IChannelReadInterf
     protected IBufferFactory bufferFactory;
     @GuardedBy("MultiplexConnection")
     protected volatile int credits;
+    protected boolean variableSizeFrames;
 
     @Override
     public void flush() {
@@ -80,4 +81,9 @@ public abstract class AbstractChannelReadInterface implements IChannelReadInterf
     public void setBufferFactory(IBufferFactory bufferFactory, int limit, int frameSize) {
         this.bufferFactory = bufferFactory;
     }
+
+    @Override
+    public void setVariableSizeFrames(boolean variableSizeFrames) {
+        this.variableSizeFrames = variableSizeFrames;
+    }
 }
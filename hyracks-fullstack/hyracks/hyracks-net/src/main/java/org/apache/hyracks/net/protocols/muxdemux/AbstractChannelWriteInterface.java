@@ -48,6 +48,7 @@ public abstract class AbstractChannelWriteInterface implements IChannelWriteInte
     protected boolean eos;
     protected boolean eosSent;
     protected boolean ecodeSent;
+    protected boolean variableSizeFrames;
     protected ByteBuffer currentWriteBuffer;
     private final ICloseableBufferAcceptor fba;
 
@@ -80,11 +81,16 @@ public abstract class AbstractChannelWriteInterface implements IChannelWriteInte
         }
         boolean writableDataPresent = !ecodeSent && (currentWriteBuffer != null || !wiFullQueue.isEmpty());
         if (writableDataPresent) {
-            return credits > 0;
+            return variableSizeFrames ? credits >= nextWriteBuffer().capacity() : credits > 0;
         }
         return isPendingCloseWrite();
     }
 
+    @GuardedBy("ChannelControlBlock")
+    private ByteBuffer nextWriteBuffer() {
+        return currentWriteBuffer != null ? currentWriteBuffer : wiFullQueue.peek();
+    }
+
     @Override
     @GuardedBy("ChannelControlBlock")
     public void adjustChannelWritability() {
@@ -122,6 +128,13 @@ public abstract class AbstractChannelWriteInterface implements IChannelWriteInte
         return credits;
     }
 
+    @Override
+    public void setVariableSizeFrames(boolean variableSizeFrames) {
+        synchronized (ccb) {
+            this.variableSizeFrames = variableSizeFrames;
+        }
+    }
+
     protected boolean isPendingCloseWrite() {
         return eos && !eosSent && !ecodeSent;
     }
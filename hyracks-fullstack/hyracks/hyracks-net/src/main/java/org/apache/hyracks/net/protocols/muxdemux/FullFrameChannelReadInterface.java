@@ -67,6 +67,11 @@ public class FullFrameChannelReadInterface extends AbstractChannelReadInterface
         synchronized (bufferRecycleLock) {
             while (true) {
                 if (size <= 0) {
+                    if (variableSizeFrames && currentReadBuffer != null && currentReadBuffer.position() > 0) {
+                        // the message ended before the buffer is full, it holds a short frame
+                        flush();
+                        flushedBuffers++;
+                    }
                     return size;
                 }
                 if (currentReadBuffer == null) {
@@ -50,9 +50,18 @@ public class FullFrameChannelWriteInterface extends AbstractChannelWriteInterfac
             ccb.reportLocalEOS();
             adjustChannelWritability();
         } else if (currentWriteBuffer != null) {
-            int size = Math.min(currentWriteBuffer.remaining(), credits);
+            int size;
+            int consumedCredits;
+            if (variableSizeFrames) {
+                // a short frame still takes a whole buffer on the receiving side, so it is never split
+                consumedCredits = currentWriteBuffer.capacity();
+                size = credits >= consumedCredits ? currentWriteBuffer.remaining() : 0;
+            } else {
+                size = Math.min(currentWriteBuffer.remaining(), credits);
+                consumedCredits = size;
+            }
             if (size > 0) {
-                credits -= size;
+                credits -= consumedCredits;
                 if (credits % currentWriteBuffer.capacity() != 0) {
                     LOGGER.warn("partial frame being written on {}", ccb);
                 }
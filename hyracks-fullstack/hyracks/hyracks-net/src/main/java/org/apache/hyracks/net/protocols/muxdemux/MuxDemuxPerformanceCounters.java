@@ -29,11 +29,23 @@ public class MuxDemuxPerformanceCounters {
 
     private final AtomicLong signalingBytesWritten;
 
+    private final AtomicLong compressedFrames;
+
+    private final AtomicLong uncompressedFrames;
+
+    private final AtomicLong compressionInputBytes;
+
+    private final AtomicLong compressionOutputBytes;
+
     public MuxDemuxPerformanceCounters() {
         payloadBytesRead = new AtomicLong();
         payloadBytesWritten = new AtomicLong();
         signalingBytesRead = new AtomicLong();
         signalingBytesWritten = new AtomicLong();
+        compressedFrames = new AtomicLong();
+        uncompressedFrames = new AtomicLong();
+        compressionInputBytes = new AtomicLong();
+        compressionOutputBytes = new AtomicLong();
     }
 
     public void addPayloadBytesRead(long delta) {
@@ -67,4 +79,42 @@ public class MuxDemuxPerformanceCounters {
     public long getSignalingBytesWritten() {
         return signalingBytesWritten.get();
     }
+
+    /**
+     * Counts a frame that was sent compressed over a channel that uses compression.
+     *
+     * @param inputBytes
+     *            the size of the frame
+     * @param outputBytes
+     *            the size of the frame once compressed
+     */
+    public void addCompressedFrame(int inputBytes, int outputBytes) {
+        compressedFrames.incrementAndGet();
+        compressionInputBytes.addAndGet(inputBytes);
+        compressionOutputBytes.addAndGet(outputBytes);
+    }
+
+    public long getCompressedFrames() {
+        return compressedFrames.get();
+    }
+
+    /**
+     * Counts a frame that was sent as it is over a channel that uses compression, either because it did not compress
+     * well or because the channel backed off after frames that did not compress well.
+     */
+    public void addUncompressedFrame() {
+        uncompressedFrames.incrementAndGet();
+    }
+
+    public long getUncompressedFrames() {
+        return uncompressedFrames.get();
+    }
+
+    public long getCompressionInputBytes() {
+        return compressionInputBytes.get();
+    }
+
+    public long getCompressionOutputBytes() {
+        return compressionOutputBytes.get();
+    }
 }
@@ -22,8 +22,12 @@ import java.net.InetSocketAddress;
 import java.nio.ByteBuffer;
 import java.util.LinkedList;
 import java.util.Queue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.hyracks.api.comm.IBufferAcceptor;
 import org.apache.hyracks.api.comm.ICloseableBufferAcceptor;
@@ -60,6 +64,75 @@ public class NetTest {
         Assert.assertFalse("Failure flag was set to true", failFlag.get());
     }
 
+    @Test
+    public void variableSizeFramesTest() throws Exception {
+        final int frameSize = 1024;
+        final int frameCount = 10000;
+        AtomicBoolean failFlag = new AtomicBoolean();
+        BlockingQueue<ByteBuffer> received = new LinkedBlockingQueue<>();
+        AtomicReference<ChannelControlBlock> receiverChannel = new AtomicReference<>();
+        IChannelOpenListener receiverOpenListener = channel -> {
+            channel.getReadInterface().setVariableSizeFrames(true);
+            channel.getReadInterface().setFullBufferAcceptor(new ICloseableBufferAcceptor() {
+                @Override
+                public void accept(ByteBuffer buffer) {
+                    received.add(buffer);
+                }
+
+                @Override
+                public void error(int ecode) {
+                    failFlag.set(true);
+                }
+
+                @Override
+                public void close() {
+                    // nothing to do
+                }
+            });
+            receiverChannel.set(channel);
+            for (int i = 0; i < 50; ++i) {
+                channel.getReadInterface().getEmptyBufferAcceptor().accept(ByteBuffer.allocate(frameSize));
+            }
+        };
+        MuxDemux receiver = new MuxDemux(new InetSocketAddress("127.0.0.1", 0), receiverOpenListener, 1, 5,
+                FullFrameChannelInterfaceFactory.INSTANCE, PlainSocketChannelFactory.INSTANCE);
+        receiver.start();
+        MuxDemux sender = createMuxDemux("sender", failFlag);
+        sender.start();
+
+        ChannelControlBlock channel = sender.connect(receiver.getLocalAddress()).openChannel();
+        channel.getWriteInterface().setVariableSizeFrames(true);
+        channel.getWriteInterface().setEmptyBufferAcceptor(buffer -> {
+        });
+        ICloseableBufferAcceptor fba = channel.getWriteInterface().getFullBufferAcceptor();
+        for (int i = 0; i < frameCount; ++i) {
+            ByteBuffer buffer = ByteBuffer.allocate(frameSize);
+            for (int j = 0; j < getFrameLength(i, frameSize); ++j) {
+                buffer.put((byte) i);
+            }
+            buffer.flip();
+            fba.accept(buffer);
+        }
+        fba.close();
+
+        // each frame must be received in a buffer of its own, including the ones that are shorter than a buffer
+        for (int i = 0; i < frameCount; ++i) {
+            ByteBuffer buffer = received.poll(30, TimeUnit.SECONDS);
+            Assert.assertNotNull("frame " + i + " was not received", buffer);
+            Assert.assertEquals(getFrameLength(i, frameSize), buffer.remaining());
+            while (buffer.hasRemaining()) {
+                Assert.assertEquals((byte) i, buffer.get());
+            }
+            buffer.clear();
+            receiverChannel.get().getReadInterface().getEmptyBufferAcceptor().accept(buffer);
+        }
+        Assert.assertFalse("Failure flag was set to true", failFlag.get());
+    }
+
+    private static int getFrameLength(int frame, int frameSize) {
+        return frame % 3 == 0 ? frameSize : 1 + (frame * 31) % frameSize;
+    }
+
     private Thread createThread(final MultiplexedConnection md1md2, final int factor) {
         return new Thread() {
             @Override
@@ -42,6 +42,8 @@ import org.apache.hyracks.storage.common.buffercache.ICachedPage;
 import org.apache.hyracks.storage.common.file.BufferedFileHandle;
 
 public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITreeIndexCursor {
+    // once a cursor moved through this many leaves, it is scanning and the leaves it leaves behind won't be needed
+    private static final int SCAN_LEAF_COUNT = 4;
 
     protected final IBTreeLeafFrame frame;
     protected final ITreeIndexTupleReference frameTuple;
@@ -56,6 +58,7 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
 
     protected int tupleIndex = 0;
     protected int stopTupleIndex;
+    protected int numLeavesFetched;
 
     protected final RangePredicate reusablePredicate;
     protected final ArrayTupleReference reconciliationTuple;
@@ -111,6 +114,9 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
     protected void fetchNextLeafPage(int nextLeafPage) throws HyracksDataException {
         do {
             ICachedPage nextLeaf = acquirePage(nextLeafPage);
+            if (++numLeavesFetched >= SCAN_LEAF_COUNT) {
+                bufferCache.adviseWontNeed(page);
+            }
             releasePage();
             page = nextLeaf;
             isPageDirty = false;
@@ -232,6 +238,7 @@ public class BTreeRangeSearchCursor extends EnforcedIndexCursor implements ITree
         pageId = ((BTreeCursorInitialState) initialState).getPageId();
         page = initialState.getPage();
         isPageDirty = false;
+        numLeavesFetched = 0;
         frame.setPage(page);
 
         pred = (RangePredicate) searchPred;
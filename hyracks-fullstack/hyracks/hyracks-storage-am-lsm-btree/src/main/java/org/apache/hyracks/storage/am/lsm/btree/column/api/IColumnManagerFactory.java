@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.api;
+
+import java.io.Serializable;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+
+/**
+ * Creates the writers and readers that shred the non-key fields of a columnar LSM B-Tree disk component into columns
+ * and assemble them back.
+ *
+ * New factories of this interface must implement two methods as well since they are persisted as part of the index
+ * local resource:
+ * - {@link IJsonSerializable#toJson(org.apache.hyracks.api.io.IPersistedResourceRegistry)}
+ * - a static method fromJson(IPersistedResourceRegistry registry, JsonNode json)
+ */
+public interface IColumnManagerFactory extends Serializable, IJsonSerializable {
+
+    /**
+     * @return a new writer used by flush, merge and bulk load operations
+     */
+    IColumnWriter createWriter();
+
+    /**
+     * Create a reader that only decodes the columns requested by the projector
+     *
+     * @param projector the search projector or {@code null} to read all columns
+     * @return a new reader
+     */
+    IColumnReader createReader(ITupleProjector projector) throws HyracksDataException;
+
+    /**
+     * @return the maximum number of pages (soft limit) a single row group can occupy
+     */
+    int getMaxRowGroupPages();
+}
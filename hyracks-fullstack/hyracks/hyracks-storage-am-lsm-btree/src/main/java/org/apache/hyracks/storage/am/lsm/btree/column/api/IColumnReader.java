@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+
+/**
+ * Assembles the non-key fields of the rows of a row group from its columns. A reader is reset with the schema of a
+ * row group first, then with the columns it requires only ({@link #isColumnRequired(int)}). Rows are expected to be
+ * assembled in ascending order. Going backward is allowed but requires re-decoding the columns from the beginning.
+ */
+public interface IColumnReader {
+
+    /**
+     * Reset the reader to a new row group
+     *
+     * @param schema serialized schema
+     * @param offset schema start offset
+     * @param length schema length
+     * @param numberOfColumns number of columns in the row group
+     */
+    void resetSchema(byte[] schema, int offset, int length, int numberOfColumns) throws HyracksDataException;
+
+    /**
+     * @return whether the column at {@code columnIndex} is needed to assemble the projected values
+     */
+    boolean isColumnRequired(int columnIndex);
+
+    /**
+     * Reset a required column
+     */
+    void resetColumn(int columnIndex, byte[] data, int offset, int length) throws HyracksDataException;
+
+    /**
+     * Assemble the values of {@code row}
+     */
+    void assemble(int row) throws HyracksDataException;
+
+    /**
+     * @param valueFieldIndex the value index (i.e., the tuple field index minus the number of keys)
+     * @return the assembled value of the last assembled row
+     */
+    IValueReference getValue(int valueFieldIndex);
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.api;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+
+/**
+ * Accumulates the rows of a row group (i.e., the tuples of a single leaf page) and shreds their non-key fields into
+ * columns once the row group is complete. The keys themselves are stored by the leaf page.
+ */
+public interface IColumnWriter {
+
+    /**
+     * Add a matter tuple (keys and values)
+     */
+    void add(ITupleReference tuple) throws HyracksDataException;
+
+    /**
+     * Add an antimatter tuple (keys only)
+     */
+    void addAntimatter(ITupleReference tuple) throws HyracksDataException;
+
+    /**
+     * @return number of rows added since the last reset
+     */
+    int getRowCount();
+
+    /**
+     * @return the estimated size of the row group before encoding
+     */
+    int getEstimatedSize();
+
+    /**
+     * Shred and encode the added rows. After calling this method, the schema and columns can be obtained
+     */
+    void finish() throws HyracksDataException;
+
+    /**
+     * @return the serialized schema of the finished row group
+     */
+    IValueReference getSchema();
+
+    /**
+     * @return number of columns of the finished row group
+     */
+    int getNumberOfColumns();
+
+    /**
+     * @return the encoded column at {@code columnIndex}
+     */
+    IValueReference getColumn(int columnIndex);
+
+    /**
+     * Prepare for the next row group
+     */
+    void reset();
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
+import org.apache.hyracks.storage.am.common.api.IPageManager;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexBulkLoader;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+
+/**
+ * An immutable B-Tree that stores its keys in the leaf pages and the remaining fields of the tuples of each leaf in a
+ * column-major row group (see {@link ColumnBTreeBulkLoader}). Searches only decode the columns requested by the
+ * {@link HyracksConstants#TUPLE_PROJECTOR} of the access parameters (if any).
+ */
+public class ColumnBTree extends DiskBTree {
+    private final IColumnManagerFactory columnManagerFactory;
+
+    public ColumnBTree(IBufferCache bufferCache, IPageManager freePageManager,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory leafFrameFactory,
+            IBinaryComparatorFactory[] cmpFactories, int fieldCount, FileReference file,
+            IColumnManagerFactory columnManagerFactory) {
+        super(bufferCache, freePageManager, interiorFrameFactory, leafFrameFactory, cmpFactories, fieldCount, file);
+        this.columnManagerFactory = columnManagerFactory;
+    }
+
+    public IColumnManagerFactory getColumnManagerFactory() {
+        return columnManagerFactory;
+    }
+
+    @Override
+    public IIndexBulkLoader createBulkLoader(float fillFactor, boolean verifyInput, long numElementsHint,
+            boolean checkIfEmptyIndex, IPageWriteCallback callback) throws HyracksDataException {
+        return new ColumnBTreeBulkLoader(fillFactor, verifyInput, callback, this);
+    }
+
+    @Override
+    public BTreeAccessor createAccessor(IIndexAccessParameters iap) {
+        return new ColumnBTreeAccessor(this, iap);
+    }
+
+    public class ColumnBTreeAccessor extends DiskBTreeAccessor {
+        private final IIndexCursorStats stats;
+        private final ColumnBTreeReadContext readContext;
+
+        public ColumnBTreeAccessor(ColumnBTree btree, IIndexAccessParameters iap) {
+            super(btree, iap);
+            stats = (IIndexCursorStats) iap.getParameters()
+                    .getOrDefault(HyracksConstants.INDEX_CURSOR_STATS, NoOpIndexCursorStats.INSTANCE);
+            ITupleProjector projector = (ITupleProjector) iap.getParameters().get(HyracksConstants.TUPLE_PROJECTOR);
+            readContext = new ColumnBTreeReadContext(btree.getBufferCache(), btree.getColumnManagerFactory(),
+                    projector, stats);
+        }
+
+        @Override
+        public ITreeIndexCursor createSearchCursor(boolean exclusive) {
+            return new ColumnBTreeRangeSearchCursor(createLeafFrame(), exclusive, stats);
+        }
+
+        @Override
+        public ITreeIndexCursor createPointCursor(boolean exclusive, boolean stateful) {
+            return new ColumnBTreePointSearchCursor(createLeafFrame(), exclusive, stateful);
+        }
+
+        @Override
+        public void search(IIndexCursor cursor, ISearchPredicate searchPred) throws HyracksDataException {
+            readContext.setFileId(btree.getFileId());
+            super.search(cursor, searchPred);
+        }
+
+        @Override
+        public ITreeIndexCursor createDiskOrderScanCursor() {
+            throw new UnsupportedOperationException("Disk order scan is not supported by columnar B-Trees");
+        }
+
+        @Override
+        public void diskOrderScan(ITreeIndexCursor cursor) throws HyracksDataException {
+            throw new UnsupportedOperationException("Disk order scan is not supported by columnar B-Trees");
+        }
+
+        private ColumnBTreeLeafFrame createLeafFrame() {
+            ColumnBTreeLeafFrame leafFrame = (ColumnBTreeLeafFrame) btree.getLeafFrameFactory().createFrame();
+            leafFrame.setReadContext(readContext);
+            return leafFrame;
+        }
+    }
+}
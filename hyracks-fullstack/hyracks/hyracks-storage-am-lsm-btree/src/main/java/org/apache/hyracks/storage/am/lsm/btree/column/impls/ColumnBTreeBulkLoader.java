@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.api.IBTreeLeafFrame;
+import org.apache.hyracks.storage.am.btree.impls.BTreeNSMBulkLoader;
+import org.apache.hyracks.storage.am.common.impls.NodeFrontier;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Bulk loads a {@link ColumnBTree}. The keys are inserted into the leaf pages as in a regular B-Tree. The tuples of a
+ * leaf form a row group: their values are shredded into columns by an {@link IColumnWriter} and the row group is
+ * written into contiguous pages right before its leaf is written. A leaf is considered full if either its keys do
+ * not fit or its row group exceeds the maximum number of pages allowed for a row group.
+ */
+public class ColumnBTreeBulkLoader extends BTreeNSMBulkLoader {
+    private static final int INT_SIZE = Integer.BYTES;
+
+    private final IColumnWriter columnWriter;
+    private final int maxRowGroupSize;
+
+    public ColumnBTreeBulkLoader(float fillFactor, boolean verifyInput, IPageWriteCallback callback,
+            ColumnBTree index) throws HyracksDataException {
+        super(fillFactor, verifyInput, callback, index);
+        columnWriter = index.getColumnManagerFactory().createWriter();
+        maxRowGroupSize = index.getColumnManagerFactory().getMaxRowGroupPages() * bufferCache.getPageSize();
+    }
+
+    @Override
+    public void add(ITupleReference tuple) throws HyracksDataException {
+        try {
+            NodeFrontier leafFrontier = nodeFrontiers.get(0);
+            int tupleSize = tupleWriter.bytesRequired(tuple);
+            if (tupleSize > leafFrame.getMaxTupleSize(bufferCache.getPageSize())) {
+                throw HyracksDataException.create(ErrorCode.RECORD_IS_TOO_LARGE, tupleSize,
+                        leafFrame.getMaxTupleSize(bufferCache.getPageSize()));
+            }
+            int spaceNeeded = tupleSize + slotSize;
+            int spaceUsed = leafFrame.getBuffer().capacity() - leafFrame.getTotalFreeSpace();
+            boolean isAntimatter = tuple instanceof ILSMTreeTupleReference
+                    && ((ILSMTreeTupleReference) tuple).isAntimatter();
+            int valuesSize = isAntimatter ? 0 : getValuesSize(tuple);
+            boolean rowGroupFull = columnWriter.getRowCount() > 0
+                    && columnWriter.getEstimatedSize() + valuesSize > maxRowGroupSize;
+
+            if (leafFrame.getTupleCount() > 0 && (rowGroupFull || spaceUsed + spaceNeeded > leafMaxBytes)) {
+                leafFrontier.lastTuple.resetByTupleIndex(leafFrame, leafFrame.getTupleCount() - 1);
+                if (verifyInput) {
+                    verifyInputTuple(tuple, leafFrontier.lastTuple);
+                }
+                writeFullLeafPage();
+                confiscateNewLeafPage();
+            } else if (verifyInput && leafFrame.getTupleCount() > 0) {
+                leafFrontier.lastTuple.resetByTupleIndex(leafFrame, leafFrame.getTupleCount() - 1);
+                verifyInputTuple(tuple, leafFrontier.lastTuple);
+            }
+            ((IBTreeLeafFrame) leafFrame).insertSorted(tuple);
+            if (isAntimatter) {
+                columnWriter.addAntimatter(tuple);
+            } else {
+                columnWriter.add(tuple);
+            }
+        } catch (HyracksDataException | RuntimeException e) {
+            handleException();
+            throw e;
+        }
+    }
+
+    @Override
+    protected void writeFullLeafPage() throws HyracksDataException {
+        writeRowGroup();
+        super.writeFullLeafPage();
+    }
+
+    @Override
+    protected void writeLastLeaf(ICachedPage page) throws HyracksDataException {
+        writeRowGroup();
+        super.writeLastLeaf(page);
+    }
+
+    private int getValuesSize(ITupleReference tuple) {
+        int size = 0;
+        for (int i = cmp.getKeyFieldCount(); i < tuple.getFieldCount(); i++) {
+            size += tuple.getFieldLength(i);
+        }
+        return size;
+    }
+
+    /**
+     * Write the row group of the current leaf and set its location in the leaf's header
+     */
+    private void writeRowGroup() throws HyracksDataException {
+        ColumnBTreeLeafFrame columnLeafFrame = (ColumnBTreeLeafFrame) leafFrame;
+        if (columnWriter.getRowCount() == 0) {
+            columnLeafFrame.setRowGroup(-1, 0);
+            return;
+        }
+        columnWriter.finish();
+        int numberOfColumns = columnWriter.getNumberOfColumns();
+        IValueReference schema = columnWriter.getSchema();
+        int length = INT_SIZE + schema.getLength() + INT_SIZE + numberOfColumns * INT_SIZE;
+        for (int i = 0; i < numberOfColumns; i++) {
+            length += columnWriter.getColumn(i).getLength();
+        }
+
+        int pageSize = bufferCache.getPageSize();
+        int numberOfPages = (length + pageSize - 1) / pageSize;
+        int firstPageId = freePageManager.takeBlock(metaFrame, numberOfPages);
+        RowGroupPageWriter pageWriter = new RowGroupPageWriter(firstPageId);
+        try {
+            pageWriter.writeInt(schema.getLength());
+            pageWriter.write(schema.getByteArray(), schema.getStartOffset(), schema.getLength());
+            pageWriter.writeInt(numberOfColumns);
+            int columnEnd = INT_SIZE + schema.getLength() + INT_SIZE + numberOfColumns * INT_SIZE;
+            for (int i = 0; i < numberOfColumns; i++) {
+                columnEnd += columnWriter.getColumn(i).getLength();
+                pageWriter.writeInt(columnEnd);
+            }
+            for (int i = 0; i < numberOfColumns; i++) {
+                IValueReference column = columnWriter.getColumn(i);
+                pageWriter.write(column.getByteArray(), column.getStartOffset(), column.getLength());
+            }
+            pageWriter.flush();
+        } catch (HyracksDataException | RuntimeException e) {
+            pageWriter.abort();
+            throw e;
+        }
+
+        columnLeafFrame.setRowGroup(firstPageId, length);
+        columnWriter.reset();
+    }
+
+    /**
+     * Writes a row group page by page into the pages confiscated from the buffer cache
+     */
+    private class RowGroupPageWriter {
+        private final byte[] intBytes = new byte[INT_SIZE];
+        private int pageId;
+        private ICachedPage page;
+        private int pageOffset;
+
+        RowGroupPageWriter(int firstPageId) {
+            pageId = firstPageId;
+        }
+
+        void writeInt(int value) throws HyracksDataException {
+            intBytes[0] = (byte) (value >>> 24);
+            intBytes[1] = (byte) (value >>> 16);
+            intBytes[2] = (byte) (value >>> 8);
+            intBytes[3] = (byte) value;
+            write(intBytes, 0, INT_SIZE);
+        }
+
+        void write(byte[] bytes, int offset, int length) throws HyracksDataException {
+            int remaining = length;
+            int srcOffset = offset;
+            while (remaining > 0) {
+                if (page == null) {
+                    page = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, pageId++));
+                    pageOffset = 0;
+                }
+                int toCopy = Math.min(remaining, page.getBuffer().capacity() - pageOffset);
+                System.arraycopy(bytes, srcOffset, page.getBuffer().array(), pageOffset, toCopy);
+                pageOffset += toCopy;
+                srcOffset += toCopy;
+                remaining -= toCopy;
+                if (pageOffset == page.getBuffer().capacity()) {
+                    flush();
+                }
+            }
+        }
+
+        void flush() throws HyracksDataException {
+            if (page != null) {
+                ICachedPage fullPage = page;
+                page = null;
+                ColumnBTreeBulkLoader.this.write(fullPage);
+            }
+        }
+
+        void abort() {
+            if (page != null) {
+                bufferCache.returnPage(page, false);
+                page = null;
+            }
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls;
+
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMLeafFrame;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleWriter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+
+/**
+ * A leaf of a columnar B-Tree. The leaf stores the keys (and the antimatter bits) of its tuples. The values are
+ * stored column-by-column in a row group that occupies contiguous pages of the same file. The location of the row
+ * group is stored in the leaf's header.
+ */
+public class ColumnBTreeLeafFrame extends BTreeNSMLeafFrame {
+    private static final int ROW_GROUP_PAGE_OFFSET = NEXT_LEAF_OFFSET + 4;
+    private static final int ROW_GROUP_LENGTH_OFFSET = ROW_GROUP_PAGE_OFFSET + 4;
+
+    private final int numKeys;
+    private final int fieldCount;
+    private ColumnBTreeReadContext readContext;
+
+    public ColumnBTreeLeafFrame(ITreeIndexTupleWriter keyTupleWriter, int numKeys, int fieldCount) {
+        super(keyTupleWriter);
+        this.numKeys = numKeys;
+        this.fieldCount = fieldCount;
+    }
+
+    @Override
+    public int getPageHeaderSize() {
+        return ROW_GROUP_LENGTH_OFFSET + 4;
+    }
+
+    @Override
+    public void initBuffer(byte level) {
+        super.initBuffer(level);
+        setRowGroup(-1, 0);
+    }
+
+    public void setRowGroup(int pageId, int length) {
+        buf.putInt(ROW_GROUP_PAGE_OFFSET, pageId);
+        buf.putInt(ROW_GROUP_LENGTH_OFFSET, length);
+    }
+
+    public int getRowGroupPageId() {
+        return buf.getInt(ROW_GROUP_PAGE_OFFSET);
+    }
+
+    public int getRowGroupLength() {
+        return buf.getInt(ROW_GROUP_LENGTH_OFFSET);
+    }
+
+    public void setReadContext(ColumnBTreeReadContext readContext) {
+        this.readContext = readContext;
+    }
+
+    public ColumnBTreeReadContext getReadContext() {
+        return readContext;
+    }
+
+    @Override
+    public ITreeIndexTupleReference createTupleReference() {
+        return new ColumnBTreeTupleReference((ILSMTreeTupleReference) tupleWriter.createTupleReference(), numKeys,
+                fieldCount);
+    }
+
+    @Override
+    public String printHeader() {
+        StringBuilder strBuilder = new StringBuilder(super.printHeader());
+        strBuilder.append("rowGroupPageOff:   " + ROW_GROUP_PAGE_OFFSET + "\n");
+        strBuilder.append("rowGroupLengthOff: " + ROW_GROUP_LENGTH_OFFSET + "\n");
+        return strBuilder.toString();
+    }
+}
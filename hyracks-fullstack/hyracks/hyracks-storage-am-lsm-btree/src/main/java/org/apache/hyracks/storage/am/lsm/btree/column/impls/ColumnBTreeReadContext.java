@@ -0,0 +1,84 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReader;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+
+/**
+ * The state shared by the leaf frames created by a single {@link ColumnBTree.ColumnBTreeAccessor}. The accessor
+ * can be reset to a different B-Tree (e.g., when a cursor is reused for another component), hence, the file is
+ * mutable.
+ */
+public class ColumnBTreeReadContext {
+    private final IBufferCache bufferCache;
+    private final IColumnManagerFactory columnManagerFactory;
+    private final ITupleProjector projector;
+    private final IIndexCursorStats stats;
+    private int fileId;
+
+    public ColumnBTreeReadContext(IBufferCache bufferCache, IColumnManagerFactory columnManagerFactory,
+            ITupleProjector projector, IIndexCursorStats stats) {
+        this.bufferCache = bufferCache;
+        this.columnManagerFactory = columnManagerFactory;
+        this.projector = projector;
+        this.stats = stats;
+        fileId = -1;
+    }
+
+    public void setFileId(int fileId) {
+        this.fileId = fileId;
+    }
+
+    public int getFileId() {
+        return fileId;
+    }
+
+    public int getPageSize() {
+        return bufferCache.getPageSize();
+    }
+
+    public IColumnReader createReader() throws HyracksDataException {
+        return columnManagerFactory.createReader(projector);
+    }
+
+    /**
+     * Copy the content of a row group page
+     *
+     * @param pageId the page id
+     * @param target the row group buffer
+     * @param targetOffset where the page content starts in the row group buffer
+     * @param length number of bytes to copy
+     */
+    public void copyPage(int pageId, byte[] target, int targetOffset, int length) throws HyracksDataException {
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        try {
+            System.arraycopy(page.getBuffer().array(), 0, target, targetOffset, length);
+        } finally {
+            bufferCache.unpin(page);
+        }
+        stats.getPageCounter().update(1);
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column.impls;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReader;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+
+/**
+ * A tuple of a columnar B-Tree leaf. The keys are read from the leaf page while the values are assembled from the
+ * row group of the leaf by {@link #assemble()}. Only the pages of the row group that contain the header and the
+ * columns requested by the reader are pinned.
+ */
+public class ColumnBTreeTupleReference implements ILSMTreeTupleReference {
+    private static final int INT_SIZE = Integer.BYTES;
+
+    private final ILSMTreeTupleReference keyTuple;
+    private final int numKeys;
+    private int fieldCount;
+
+    private ColumnBTreeReadContext context;
+    private int rowGroupPageId;
+    private int rowGroupLength;
+    private int row;
+    private boolean assembled;
+
+    // The currently loaded row group
+    private IColumnReader reader;
+    private byte[] rowGroup;
+    private boolean[] loadedPages;
+    private int loadedFileId;
+    private int loadedRowGroupPageId;
+
+    public ColumnBTreeTupleReference(ILSMTreeTupleReference keyTuple, int numKeys, int fieldCount) {
+        this.keyTuple = keyTuple;
+        this.numKeys = numKeys;
+        this.fieldCount = fieldCount;
+        rowGroup = new byte[0];
+        loadedPages = new boolean[0];
+        loadedFileId = -1;
+        loadedRowGroupPageId = -1;
+    }
+
+    @Override
+    public void resetByTupleIndex(ITreeIndexFrame frame, int tupleIndex) {
+        ColumnBTreeLeafFrame leafFrame = (ColumnBTreeLeafFrame) frame;
+        keyTuple.resetByTupleIndex(frame, tupleIndex);
+        context = leafFrame.getReadContext();
+        rowGroupPageId = leafFrame.getRowGroupPageId();
+        rowGroupLength = leafFrame.getRowGroupLength();
+        row = tupleIndex;
+        assembled = false;
+    }
+
+    @Override
+    public void resetByTupleOffset(byte[] buf, int tupleStartOffset) {
+        // No row group information is known. Only the keys can be accessed
+        keyTuple.resetByTupleOffset(buf, tupleStartOffset);
+        context = null;
+        assembled = false;
+    }
+
+    @Override
+    public void setFieldCount(int fieldCount) {
+        this.fieldCount = fieldCount;
+        keyTuple.setFieldCount(Math.min(fieldCount, numKeys));
+    }
+
+    @Override
+    public void setFieldCount(int fieldStartIndex, int fieldCount) {
+        if (fieldStartIndex != 0) {
+            throw new UnsupportedOperationException("Columnar tuples must start from the first key");
+        }
+        setFieldCount(fieldCount);
+    }
+
+    @Override
+    public int getTupleSize() {
+        return keyTuple.getTupleSize();
+    }
+
+    @Override
+    public boolean isAntimatter() {
+        return keyTuple.isAntimatter();
+    }
+
+    @Override
+    public int getFieldCount() {
+        return isAntimatter() ? Math.min(numKeys, fieldCount) : fieldCount;
+    }
+
+    @Override
+    public byte[] getFieldData(int fIdx) {
+        if (fIdx < numKeys) {
+            return keyTuple.getFieldData(fIdx);
+        }
+        return getValue(fIdx).getByteArray();
+    }
+
+    @Override
+    public int getFieldStart(int fIdx) {
+        if (fIdx < numKeys) {
+            return keyTuple.getFieldStart(fIdx);
+        }
+        return getValue(fIdx).getStartOffset();
+    }
+
+    @Override
+    public int getFieldLength(int fIdx) {
+        if (fIdx < numKeys) {
+            return keyTuple.getFieldLength(fIdx);
+        }
+        return getValue(fIdx).getLength();
+    }
+
+    private IValueReference getValue(int fIdx) {
+        if (!assembled) {
+            throw new IllegalStateException("The values of a columnar tuple are accessed before assembling them");
+        }
+        return reader.getValue(fIdx - numKeys);
+    }
+
+    /**
+     * Assemble the values of the tuple (if any). The values cannot be assembled when a field is accessed, as
+     * {@link #getFieldData(int)} cannot throw a {@link HyracksDataException}. Hence, the cursors call this method
+     * before returning the tuple.
+     */
+    public void assemble() throws HyracksDataException {
+        if (assembled || isAntimatter() || fieldCount <= numKeys) {
+            return;
+        }
+        if (context == null || rowGroupPageId < 0) {
+            throw new IllegalStateException("The values of a columnar tuple are accessed without a row group");
+        }
+        if (reader == null) {
+            reader = context.createReader();
+        }
+        if (loadedFileId != context.getFileId() || loadedRowGroupPageId != rowGroupPageId) {
+            loadRowGroup();
+        }
+        reader.assemble(row);
+        assembled = true;
+    }
+
+    /**
+     * Row group layout:
+     * [schemaLength][schema][numberOfColumns][column end offsets (relative to the row group start)][columns]
+     */
+    private void loadRowGroup() throws HyracksDataException {
+        int pageSize = context.getPageSize();
+        int numberOfPages = (rowGroupLength + pageSize - 1) / pageSize;
+        if (rowGroup.length < rowGroupLength) {
+            rowGroup = new byte[numberOfPages * pageSize];
+        }
+        if (loadedPages.length < numberOfPages) {
+            loadedPages = new boolean[numberOfPages];
+        } else {
+            Arrays.fill(loadedPages, false);
+        }
+        // In case of a failure, the row group will be reloaded
+        loadedFileId = -1;
+
+        ensureLoaded(0, INT_SIZE);
+        int schemaLength = IntegerPointable.getInteger(rowGroup, 0);
+        int schemaStart = INT_SIZE;
+        int numberOfColumnsOffset = schemaStart + schemaLength;
+        ensureLoaded(schemaStart, numberOfColumnsOffset + INT_SIZE);
+        int numberOfColumns = IntegerPointable.getInteger(rowGroup, numberOfColumnsOffset);
+        int offsetsStart = numberOfColumnsOffset + INT_SIZE;
+        int columnsStart = offsetsStart + numberOfColumns * INT_SIZE;
+        ensureLoaded(offsetsStart, columnsStart);
+
+        reader.resetSchema(rowGroup, schemaStart, schemaLength, numberOfColumns);
+        int columnStart = columnsStart;
+        for (int i = 0; i < numberOfColumns; i++) {
+            int columnEnd = IntegerPointable.getInteger(rowGroup, offsetsStart + i * INT_SIZE);
+            if (reader.isColumnRequired(i)) {
+                ensureLoaded(columnStart, columnEnd);
+                reader.resetColumn(i, rowGroup, columnStart, columnEnd - columnStart);
+            }
+            columnStart = columnEnd;
+        }
+        loadedFileId = context.getFileId();
+        loadedRowGroupPageId = rowGroupPageId;
+    }
+
+    private void ensureLoaded(int start, int end) throws HyracksDataException {
+        if (end <= start) {
+            return;
+        }
+        int pageSize = context.getPageSize();
+        int firstPage = start / pageSize;
+        int lastPage = (end - 1) / pageSize;
+        for (int i = firstPage; i <= lastPage; i++) {
+            if (!loadedPages[i]) {
+                int pageOffset = i * pageSize;
+                context.copyPage(rowGroupPageId + i, rowGroup, pageOffset,
+                        Math.min(pageSize, rowGroupLength - pageOffset));
+                loadedPages[i] = true;
+            }
+        }
+    }
+}
@@ -165,6 +165,13 @@ public class ExternalBTree extends LSMBTree implements ITwoPCIndex {
         cursor.open(ctx.getSearchInitialState(), pred);
     }
 
+    // The key ranges of a partitioned merge would need an opContext of the targeted version, so merges of external
+    // B-trees are not partitioned
+    @Override
+    protected List<ITupleReference> getMergeSplitKeys(LSMBTreeMergeOperation mergeOp) {
+        return Collections.emptyList();
+    }
+
     // This method creates the appropriate opContext for the targeted version
     public ExternalBTreeOpContext createOpContext(ISearchOperationCallback searchCallback, int targetVersion) {
         return new ExternalBTreeOpContext(this, insertLeafFrameFactory, deleteLeafFrameFactory, searchCallback,
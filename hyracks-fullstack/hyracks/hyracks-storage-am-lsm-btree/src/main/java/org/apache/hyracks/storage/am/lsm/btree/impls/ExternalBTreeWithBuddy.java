@@ -340,7 +340,7 @@ public class ExternalBTreeWithBuddy extends AbstractLSMIndex implements ITreeInd
                         .getBloomFilter().getNumElements();
             }
             componentBulkLoader = mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false, false,
-                    false, pageWriteCallbackFactory.createPageWriteCallback());
+                    false, pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
             try {
                 while (buddyBtreeCursor.hasNext()) {
                     buddyBtreeCursor.next();
@@ -352,7 +352,7 @@ public class ExternalBTreeWithBuddy extends AbstractLSMIndex implements ITreeInd
             }
         } else {
             componentBulkLoader = mergedComponent.createBulkLoader(operation, 1.0f, false, 0L, false, false, false,
-                    pageWriteCallbackFactory.createPageWriteCallback());
+                    pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
         }
 
         try {
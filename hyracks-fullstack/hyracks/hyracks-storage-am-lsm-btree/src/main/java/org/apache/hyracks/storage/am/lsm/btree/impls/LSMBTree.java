@@ -20,6 +20,7 @@
 package org.apache.hyracks.storage.am.lsm.btree.impls;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
@@ -37,6 +38,7 @@ import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
 import org.apache.hyracks.storage.am.common.api.IPageManager;
 import org.apache.hyracks.storage.am.common.api.ITreeIndex;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
 import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
@@ -63,6 +65,7 @@ import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndex;
 import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexOperationContext;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMTreeIndexAccessor.ICursorFactory;
 import org.apache.hyracks.storage.common.IIndexAccessParameters;
@@ -79,6 +82,10 @@ import org.apache.hyracks.util.trace.ITracer;
 public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
 
     private static final ICursorFactory cursorFactory = LSMBTreeSearchCursor::new;
+    // The minimum number of pages of merging components in each key range of a partitioned merge.
+    private static final long MIN_MERGE_RANGE_PAGES = 256;
+    // The number of key ranges of a partitioned merge per concurrently merged range, which balances uneven ranges.
+    private static final int MERGE_RANGES_PER_THREAD = 4;
     // Common for in-memory and on-disk components.
     protected final ITreeIndexFrameFactory insertLeafFrameFactory;
     protected final ITreeIndexFrameFactory deleteLeafFrameFactory;
@@ -90,6 +97,9 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
     // Primary and Primary Key LSMBTree has a Bloomfilter, but Secondary one doesn't have.
     private final boolean hasBloomFilter;
 
+    // The fields whose statistics are collected by flushes, merges and loads, null if none.
+    private final int[] statisticsFields;
+
     public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
             ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
             ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
@@ -101,6 +111,24 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             ILSMIOOperationCallbackFactory ioOpCallbackFactory, ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
             boolean needKeyDupCheck, boolean hasBloomFilter, int[] btreeFields, int[] filterFields, boolean durable,
             boolean updateAware, ITracer tracer) throws HyracksDataException {
+        this(ioManager, virtualBufferCaches, interiorFrameFactory, insertLeafFrameFactory, deleteLeafFrameFactory,
+                diskBufferCache, fileManager, componentFactory, bulkLoadComponentFactory, filterHelper,
+                filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, fieldCount, cmpFactories, mergePolicy,
+                opTracker, ioScheduler, ioOpCallbackFactory, pageWriteCallbackFactory, needKeyDupCheck, hasBloomFilter,
+                btreeFields, filterFields, null, durable, updateAware, tracer);
+    }
+
+    public LSMBTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            ITreeIndexFrameFactory interiorFrameFactory, ITreeIndexFrameFactory insertLeafFrameFactory,
+            ITreeIndexFrameFactory deleteLeafFrameFactory, IBufferCache diskBufferCache,
+            ILSMIndexFileManager fileManager, ILSMDiskComponentFactory componentFactory,
+            ILSMDiskComponentFactory bulkLoadComponentFactory, IComponentFilterHelper filterHelper,
+            ILSMComponentFilterFrameFactory filterFrameFactory, LSMComponentFilterManager filterManager,
+            double bloomFilterFalsePositiveRate, int fieldCount, IBinaryComparatorFactory[] cmpFactories,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
+            boolean needKeyDupCheck, boolean hasBloomFilter, int[] btreeFields, int[] filterFields,
+            int[] statisticsFields, boolean durable, boolean updateAware, ITracer tracer) throws HyracksDataException {
         super(ioManager, virtualBufferCaches, diskBufferCache, fileManager, bloomFilterFalsePositiveRate, mergePolicy,
                 opTracker, ioScheduler, ioOpCallbackFactory, pageWriteCallbackFactory, componentFactory,
                 bulkLoadComponentFactory, filterFrameFactory, filterManager, filterFields, durable, filterHelper,
@@ -121,6 +149,7 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         }
         this.needKeyDupCheck = needKeyDupCheck;
         this.hasBloomFilter = hasBloomFilter;
+        this.statisticsFields = statisticsFields;
     }
 
     // Without memory components
@@ -140,6 +169,12 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         this.needKeyDupCheck = needKeyDupCheck;
         this.hasBloomFilter = true;
         this.updateAware = false;
+        this.statisticsFields = null;
+    }
+
+    @Override
+    public int[] getStatisticsFields() {
+        return statisticsFields;
     }
 
     @Override
@@ -284,7 +319,7 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
             component = createDiskComponent(componentFactory, flushOp.getTarget(), null, flushOp.getBloomFilterTarget(),
                     true);
             componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, numElements, false, false, false,
-                    pageWriteCallbackFactory.createPageWriteCallback());
+                    pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
             IIndexCursor scanCursor = accessor.createSearchCursor(false);
             accessor.search(scanCursor, nullPred);
             try {
@@ -336,23 +371,39 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         ILSMDiskComponentBulkLoader componentBulkLoader = null;
         try {
             try {
-                RangePredicate rangePred = new RangePredicate(null, null, true, true, null, null);
-                search(mergeOp.getAccessor().getOpContext(), cursor, rangePred);
-                try {
-                    List<ILSMComponent> mergedComponents = mergeOp.getMergingComponents();
-                    long numElements = getNumberOfElements(mergedComponents);
-                    mergedComponent = createDiskComponent(getMergeComponentFactory(), mergeOp.getTarget(), null,
-                            mergeOp.getBloomFilterTarget(), true);
-                    IPageWriteCallback pageWriteCallback = pageWriteCallbackFactory.createPageWriteCallback();
-                    componentBulkLoader = mergedComponent.createBulkLoader(operation, 1.0f, false, numElements, false,
-                            false, false, pageWriteCallback);
-                    while (cursor.hasNext()) {
-                        cursor.next();
-                        ITupleReference frameTuple = cursor.getTuple();
-                        componentBulkLoader.add(frameTuple);
+                List<ITupleReference> splitKeys = getMergeSplitKeys(mergeOp);
+                if (splitKeys.isEmpty()) {
+                    RangePredicate rangePred = new RangePredicate(null, null, true, true, null, null);
+                    search(mergeOp.getAccessor().getOpContext(), cursor, rangePred);
+                    try {
+                        mergedComponent = createMergedComponent(mergeOp);
+                        componentBulkLoader = createMergeBulkLoader(mergeOp, mergedComponent);
+                        while (cursor.hasNext()) {
+                            cursor.next();
+                            ITupleReference frameTuple = cursor.getTuple();
+                            componentBulkLoader.add(frameTuple);
+                        }
+                    } finally {
+                        cursor.close();
+                    }
+                } else {
+                    mergedComponent = createMergedComponent(mergeOp);
+                    componentBulkLoader = createMergeBulkLoader(mergeOp, mergedComponent);
+                    LSMBTreePartitionedMergeCursor rangesCursor = new LSMBTreePartitionedMergeCursor(this, ioManager,
+                            mergeOp.getMergingComponents(), ((LSMIndexSearchCursor) cursor).isReturnDeletedTuples(),
+                            mergeOp.getCursorStats(), splitKeys, ioScheduler.getMergeRangeExecutor(),
+                            ioScheduler.getMergeParallelism(),
+                            pageWriteCallbackFactory.getRateLimiter(mergeOp.getIOOpertionType()),
+                            (LSMBTreeTupleReference) createDiskTupleReference(mergeOp.getMergingComponents().get(0)));
+                    try {
+                        rangesCursor.open();
+                        while (rangesCursor.hasNext()) {
+                            rangesCursor.next();
+                            componentBulkLoader.add(rangesCursor.getTuple());
+                        }
+                    } finally {
+                        rangesCursor.close();
                     }
-                } finally {
-                    cursor.close();
                 }
             } finally {
                 cursor.destroy();
@@ -382,6 +433,52 @@ public class LSMBTree extends AbstractLSMIndex implements ITreeIndex {
         return mergedComponent;
     }
 
+    private ILSMDiskComponent createMergedComponent(LSMBTreeMergeOperation mergeOp) throws HyracksDataException {
+        return createDiskComponent(getMergeComponentFactory(), mergeOp.getTarget(), null,
+                mergeOp.getBloomFilterTarget(), true);
+    }
+
+    private ILSMDiskComponentBulkLoader createMergeBulkLoader(LSMBTreeMergeOperation mergeOp,
+            ILSMDiskComponent mergedComponent) throws HyracksDataException {
+        long numElements = getNumberOfElements(mergeOp.getMergingComponents());
+        IPageWriteCallback pageWriteCallback =
+                pageWriteCallbackFactory.createPageWriteCallback(mergeOp.getIOOpertionType());
+        return mergedComponent.createBulkLoader(mergeOp, 1.0f, false, numElements, false, false, false,
+                pageWriteCallback);
+    }
+
+    /**
+     * Returns the keys splitting a merge into key ranges that are merged concurrently. A merge is partitioned when the
+     * IO scheduler merges key ranges concurrently and each range has at least {@link #MIN_MERGE_RANGE_PAGES} pages of
+     * merging components. The split keys are taken from the interior levels of the largest merging component.
+     *
+     * @return the split keys in ascending order, empty if the merge is not partitioned
+     */
+    protected List<ITupleReference> getMergeSplitKeys(LSMBTreeMergeOperation mergeOp) throws HyracksDataException {
+        int parallelism = ioScheduler == null ? 1 : ioScheduler.getMergeParallelism();
+        long numRanges = Math.min((long) parallelism * MERGE_RANGES_PER_THREAD,
+                mergeOp.getTotalPages() / MIN_MERGE_RANGE_PAGES);
+        List<ILSMComponent> mergingComponents = mergeOp.getMergingComponents();
+        if (parallelism <= 1 || numRanges <= 1 || ioScheduler.getMergeRangeExecutor() == null
+                || !(mergeOp.getCursor() instanceof LSMBTreeRangeSearchCursor)
+                || !(createDiskTupleReference(mergingComponents.get(0)) instanceof LSMBTreeTupleReference)) {
+            return Collections.emptyList();
+        }
+        ILSMDiskComponent largestComponent = null;
+        for (ILSMComponent component : mergingComponents) {
+            ILSMDiskComponent diskComponent = (ILSMDiskComponent) component;
+            if (largestComponent == null || diskComponent.getComponentSize() > largestComponent.getComponentSize()) {
+                largestComponent = diskComponent;
+            }
+        }
+        return LSMBTreePartitionedMergeCursor.computeSplitKeys((BTree) largestComponent.getIndex(),
+                MultiComparator.create(cmpFactories), (int) numRanges);
+    }
+
+    private static ITreeIndexTupleReference createDiskTupleReference(ILSMComponent component) {
+        return ((BTree) component.getIndex()).getLeafFrameFactory().createFrame().createTupleReference();
+    }
+
     private long getNumberOfElements(List<ILSMComponent> mergedComponents) throws HyracksDataException {
         long numElements = 0L;
         if (hasBloomFilter) {
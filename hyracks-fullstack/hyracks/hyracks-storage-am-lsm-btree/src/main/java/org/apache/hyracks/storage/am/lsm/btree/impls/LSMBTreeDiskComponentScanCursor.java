@@ -32,9 +32,9 @@ import org.apache.hyracks.dataflow.common.data.accessors.PermutingTupleReference
 import org.apache.hyracks.storage.am.btree.impls.BTree;
 import org.apache.hyracks.storage.am.btree.impls.BTree.BTreeAccessor;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
-import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
 import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexSearchCursor;
 import org.apache.hyracks.storage.common.ICursorInitialState;
 import org.apache.hyracks.storage.common.IIndexCursor;
@@ -107,7 +107,7 @@ public class LSMBTreeDiskComponentScanCursor extends LSMIndexSearchCursor {
         }
         while (super.doHasNext()) {
             super.doNext();
-            LSMBTreeTupleReference diskTuple = (LSMBTreeTupleReference) super.doGetTuple();
+            ILSMTreeTupleReference diskTuple = (ILSMTreeTupleReference) super.doGetTuple();
             if (diskTuple.isAntimatter()) {
                 if (setAntiMatterTuple(diskTuple, outputElement.getCursorIndex())) {
                     foundNext = true;
@@ -0,0 +1,505 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.impls;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.ErrorCode;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.util.CleanupUtils;
+import org.apache.hyracks.api.util.ExceptionUtils;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.frames.BTreeNSMInteriorFrame;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.ophelpers.IndexOperation;
+import org.apache.hyracks.storage.am.lsm.btree.tuples.LSMBTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.IndexCursorStats;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Reads the tuples of a partitioned merge of an LSM B-tree. The key space is split into ranges at keys taken from the
+ * interior levels of the largest merging B-tree (see {@link #computeSplitKeys(BTree, MultiComparator, int)}) and the
+ * ranges are merged concurrently on the merge range executor of the IO scheduler, each by its own range search cursor
+ * on the merging components. A range is merged by a single cursor, so all versions of a key are reconciled by the same
+ * cursor as in a sequential merge.
+ *
+ * At most {@code parallelism} ranges are merged at a time. Each of them copies its tuples into batches ahead of the
+ * reader, which returns the tuples range after range, i.e. in key order, so that they are stitched into the single bulk
+ * loader of the merged component. A range keeps at most {@link #MAX_BATCHES_PER_RANGE} batches in memory. Beyond that,
+ * the range that is being read waits for the reader, while the ranges that are not read yet spill their batches to a
+ * workspace file, which is read back when their turn comes. The ranges are therefore merged concurrently whatever
+ * their size and however slow the bulk loader is (e.g. when the merge is rate limited). The spilled batches are written
+ * with the rate limiter of the merge, so the ranges running ahead take their writes from the same bandwidth as the
+ * merged component.
+ */
+class LSMBTreePartitionedMergeCursor {
+    // the size of a batch in pages of the merging components
+    private static final int BATCH_PAGES = 2;
+    private static final int MAX_BATCHES_PER_RANGE = 4;
+    private static final long OFFER_TIMEOUT_MILLIS = 100;
+    private static final String SPILL_FILE_PREFIX = "merge-range";
+
+    private final LSMBTree lsmBTree;
+    private final IIOManager ioManager;
+    private final List<ILSMComponent> mergingComponents;
+    private final boolean returnDeletedTuples;
+    private final IIndexCursorStats mergeStats;
+    private final Executor executor;
+    private final int parallelism;
+    private final IRateLimiter spillRateLimiter;
+    private final int batchSize;
+    private final MergeRange[] ranges;
+    private final LSMBTreeTupleReference tuple;
+    // the batch into which the spilled batches are read back
+    private final Batch unspilledBatch = new Batch(0);
+    private volatile boolean closed;
+    private volatile int currentRange;
+    private int numStartedRanges;
+    private Batch batch;
+    private int batchTupleIndex;
+
+    LSMBTreePartitionedMergeCursor(LSMBTree lsmBTree, IIOManager ioManager, List<ILSMComponent> mergingComponents,
+            boolean returnDeletedTuples, IIndexCursorStats mergeStats, List<ITupleReference> splitKeys,
+            Executor executor, int parallelism, IRateLimiter spillRateLimiter, LSMBTreeTupleReference tuple) {
+        this.lsmBTree = lsmBTree;
+        this.ioManager = ioManager;
+        this.mergingComponents = mergingComponents;
+        this.returnDeletedTuples = returnDeletedTuples;
+        this.mergeStats = mergeStats;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.spillRateLimiter = spillRateLimiter;
+        this.tuple = tuple;
+        batchSize = BATCH_PAGES * ((BTree) mergingComponents.get(0).getIndex()).getBufferCache().getPageSize();
+        ranges = new MergeRange[splitKeys.size() + 1];
+        for (int i = 0; i < ranges.length; i++) {
+            // the ranges are searched concurrently, so each of them needs its own comparators
+            MultiComparator cmp = MultiComparator.create(lsmBTree.getComparatorFactories());
+            ITupleReference lowKey = i == 0 ? null : splitKeys.get(i - 1);
+            ITupleReference highKey = i == ranges.length - 1 ? null : splitKeys.get(i);
+            ranges[i] = new MergeRange(i, new RangePredicate(lowKey, highKey, true, false, cmp, cmp));
+        }
+    }
+
+    void open() throws HyracksDataException {
+        while (numStartedRanges < Math.min(parallelism, ranges.length)) {
+            start(ranges[numStartedRanges++]);
+        }
+    }
+
+    boolean hasNext() throws HyracksDataException {
+        while (batch == null || batchTupleIndex == batch.size) {
+            if (batch != null) {
+                if (batch != unspilledBatch) {
+                    ranges[currentRange].release(batch);
+                }
+                batch = null;
+            }
+            if (currentRange == ranges.length) {
+                return false;
+            }
+            MergeRange range = ranges[currentRange];
+            Batch next = range.take();
+            if (next == Batch.END) {
+                range.await();
+                range.finish();
+                range.checkFailure();
+                currentRange++;
+                if (numStartedRanges < ranges.length) {
+                    start(ranges[numStartedRanges++]);
+                }
+            } else {
+                batch = next.isSpilled() ? range.unspill(next, unspilledBatch) : next;
+                batchTupleIndex = 0;
+            }
+        }
+        return true;
+    }
+
+    void next() {
+        tuple.resetByTupleOffset(batch.data, batch.offsets[batchTupleIndex++]);
+    }
+
+    ITupleReference getTuple() {
+        return tuple;
+    }
+
+    /**
+     * Stops the ranges that are still being merged, waits for them to release their cursors and deletes their spilled
+     * batches. Their failures, if any, are not reported since their tuples are no longer needed.
+     */
+    void close() throws HyracksDataException {
+        closed = true;
+        Throwable failure = null;
+        for (int i = currentRange; i < numStartedRanges; i++) {
+            ranges[i].await();
+            try {
+                ranges[i].finish();
+            } catch (Throwable th) { // NOSONAR the other ranges must be finished
+                failure = ExceptionUtils.suppress(failure, th);
+            }
+        }
+        if (failure != null) {
+            throw HyracksDataException.create(failure);
+        }
+    }
+
+    private void start(MergeRange range) throws HyracksDataException {
+        LSMBTreeOpContext ctx = lsmBTree.createOpContext(NoOpIndexAccessParameters.INSTANCE);
+        range.ctx = ctx;
+        try {
+            ctx.setOperation(IndexOperation.MERGE);
+            ctx.getComponentHolder().addAll(mergingComponents);
+            range.cursor = lsmBTree.createCursor(ctx, returnDeletedTuples, range.rangeStats);
+            lsmBTree.search(ctx, range.cursor, range.predicate);
+            range.opened = true;
+            executor.execute(range);
+        } catch (Throwable th) { // NOSONAR the range must release its resources
+            range.fail(th);
+            range.releaseResources();
+            throw HyracksDataException.create(th);
+        }
+    }
+
+    /**
+     * Returns the split keys of {@code numRanges} ranges of about the same size: the keys of the highest interior
+     * level of the B-tree that has enough keys (or of its lowest interior level), evenly spaced.
+     *
+     * @return the split keys in ascending order, empty if the B-tree has no interior level
+     */
+    static List<ITupleReference> computeSplitKeys(BTree btree, MultiComparator cmp, int numRanges)
+            throws HyracksDataException {
+        IBufferCache bufferCache = btree.getBufferCache();
+        BTreeNSMInteriorFrame frame = (BTreeNSMInteriorFrame) btree.getInteriorFrameFactory().createFrame();
+        frame.setMultiComparator(cmp);
+        ITreeIndexTupleReference frameTuple = frame.createTupleReference();
+        List<Integer> levelPages = new ArrayList<>();
+        levelPages.add(btree.getRootPageId());
+        List<ITupleReference> levelKeys = new ArrayList<>();
+        while (true) {
+            List<Integer> childPages = new ArrayList<>();
+            levelKeys.clear();
+            for (int pageId : levelPages) {
+                ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(btree.getFileId(), pageId), false);
+                try {
+                    frame.setPage(page);
+                    if (frame.isLeaf()) {
+                        return levelKeys;
+                    }
+                    for (int i = 0; i < frame.getTupleCount(); i++) {
+                        frameTuple.resetByTupleIndex(frame, i);
+                        levelKeys.add(TupleUtils.copyTuple(frameTuple));
+                    }
+                    if (frame.getLevel() > 1) {
+                        childPages.addAll(frame.getChildren(cmp));
+                    }
+                } finally {
+                    bufferCache.unpin(page);
+                }
+            }
+            if (childPages.isEmpty() || levelKeys.size() >= numRanges - 1) {
+                break;
+            }
+            levelPages = childPages;
+        }
+        List<ITupleReference> splitKeys = new ArrayList<>(numRanges - 1);
+        int lastIndex = -1;
+        for (int i = 1; i < numRanges; i++) {
+            int index = (int) ((long) i * levelKeys.size() / numRanges);
+            if (index > lastIndex && index < levelKeys.size()) {
+                splitKeys.add(levelKeys.get(index));
+                lastIndex = index;
+            }
+        }
+        return splitKeys;
+    }
+
+    private static class Batch {
+        private static final Batch END = new Batch(0);
+
+        private byte[] data;
+        private int[] offsets;
+        private int size;
+        private int length;
+        // the position of the batch in the spill file of its range, -1 if the batch is in memory
+        private long spillOffset = -1;
+
+        private Batch(int capacity) {
+            data = new byte[capacity];
+            offsets = new int[64];
+        }
+
+        private Batch(long spillOffset, int size, int length) {
+            this.spillOffset = spillOffset;
+            this.size = size;
+            this.length = length;
+        }
+
+        private boolean isSpilled() {
+            return spillOffset >= 0;
+        }
+
+        /**
+         * @return true if the tuple was added, false if the batch is full
+         */
+        private boolean add(LSMBTreeTupleReference tuple) {
+            int tupleSize = tuple.getTupleSize();
+            if (size > 0 && length + tupleSize > data.length) {
+                return false;
+            }
+            if (length + tupleSize > data.length) {
+                data = new byte[length + tupleSize];
+            }
+            if (size == offsets.length) {
+                offsets = Arrays.copyOf(offsets, size * 2);
+            }
+            System.arraycopy(tuple.getFieldData(0), tuple.getTupleStart(), data, length, tupleSize);
+            offsets[size++] = length;
+            length += tupleSize;
+            return true;
+        }
+
+        private void reset() {
+            size = 0;
+            length = 0;
+        }
+    }
+
+    private class MergeRange implements Runnable {
+        private final int index;
+        private final RangePredicate predicate;
+        // the range is searched by its own thread, so its page reads are counted apart and added to the merge's once
+        // the range is done
+        private final IIndexCursorStats rangeStats = new IndexCursorStats();
+        private final BlockingQueue<Batch> batches = new LinkedBlockingQueue<>();
+        // bounds the number of batches filled by the range, kept in memory and not consumed by the reader yet
+        private final Semaphore unconsumedBatches = new Semaphore(MAX_BATCHES_PER_RANGE);
+        private final ConcurrentLinkedQueue<Batch> freeBatches = new ConcurrentLinkedQueue<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private LSMBTreeOpContext ctx;
+        private IIndexCursor cursor;
+        private boolean opened;
+        private volatile Throwable failure;
+        private FileReference spillFile;
+        private IFileHandle spillHandle;
+        private long spillLength;
+
+        private MergeRange(int index, RangePredicate predicate) {
+            this.index = index;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public void run() {
+            try {
+                Batch current = allocate();
+                while (!closed && cursor.hasNext()) {
+                    cursor.next();
+                    LSMBTreeTupleReference next = (LSMBTreeTupleReference) cursor.getTuple();
+                    if (!current.add(next)) {
+                        current = offer(current);
+                        current.add(next);
+                    }
+                }
+                if (current.size > 0) {
+                    offer(current);
+                }
+            } catch (Throwable th) { // NOSONAR the failure is reported to the reader
+                fail(th);
+            } finally {
+                releaseResources();
+            }
+        }
+
+        private Batch allocate() {
+            Batch free = freeBatches.poll();
+            if (free == null) {
+                return new Batch(batchSize);
+            }
+            free.reset();
+            return free;
+        }
+
+        /**
+         * Passes a full batch to the reader, in memory if the range has fewer than {@link #MAX_BATCHES_PER_RANGE}
+         * batches in memory, else through the spill file if the reader has not reached the range yet. The range that
+         * is being read waits for the reader instead.
+         *
+         * @return the batch to fill next
+         */
+        private Batch offer(Batch batch) throws InterruptedException, HyracksDataException {
+            while (!closed) {
+                if (unconsumedBatches.tryAcquire()) {
+                    batches.add(batch);
+                    return allocate();
+                }
+                if (index != currentRange) {
+                    batches.add(spill(batch));
+                    batch.reset();
+                    return batch;
+                }
+                if (unconsumedBatches.tryAcquire(OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    batches.add(batch);
+                    return allocate();
+                }
+            }
+            batch.reset();
+            return batch;
+        }
+
+        /**
+         * Appends the data and then the tuple offsets of the batch to the spill file of the range
+         *
+         * @return the batch's position in the spill file
+         */
+        private Batch spill(Batch batch) throws HyracksDataException {
+            if (spillHandle == null) {
+                spillFile = ioManager.createWorkspaceFile(SPILL_FILE_PREFIX);
+                spillHandle = ioManager.open(spillFile, IIOManager.FileReadWriteMode.READ_WRITE,
+                        IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+            }
+            ByteBuffer offsets = ByteBuffer.allocate(batch.size * Integer.BYTES);
+            offsets.asIntBuffer().put(batch.offsets, 0, batch.size);
+            Batch spilled = new Batch(spillLength, batch.size, batch.length);
+            spillRateLimiter.request(batch.length + offsets.capacity());
+            spillLength += ioManager.syncWrite(spillHandle, spillLength,
+                    new ByteBuffer[] { ByteBuffer.wrap(batch.data, 0, batch.length), offsets });
+            return spilled;
+        }
+
+        /**
+         * Reads a spilled batch back into {@code target}
+         */
+        private Batch unspill(Batch spilled, Batch target) throws HyracksDataException {
+            int spillSize = spilled.length + spilled.size * Integer.BYTES;
+            if (target.data.length < spillSize) {
+                target.data = new byte[spillSize];
+            }
+            if (target.offsets.length < spilled.size) {
+                target.offsets = new int[spilled.size];
+            }
+            ByteBuffer buffer = ByteBuffer.wrap(target.data, 0, spillSize);
+            while (buffer.hasRemaining()) {
+                int read = ioManager.syncRead(spillHandle, spilled.spillOffset + buffer.position(), buffer);
+                if (read < 0) {
+                    throw HyracksDataException.create(ErrorCode.EOF);
+                }
+            }
+            ByteBuffer.wrap(target.data, spilled.length, spilled.size * Integer.BYTES).asIntBuffer()
+                    .get(target.offsets, 0, spilled.size);
+            target.size = spilled.size;
+            target.length = spilled.length;
+            return target;
+        }
+
+        private void release(Batch batch) {
+            freeBatches.offer(batch);
+            unconsumedBatches.release();
+        }
+
+        private Batch take() throws HyracksDataException {
+            try {
+                return batches.take();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        private void fail(Throwable th) {
+            failure = th;
+            if (th instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private void releaseResources() {
+            Throwable th = null;
+            if (opened) {
+                try {
+                    cursor.close();
+                } catch (Throwable closeFailure) { // NOSONAR the cursor must be destroyed
+                    th = closeFailure;
+                }
+            }
+            th = CleanupUtils.destroy(th, cursor, ctx);
+            if (th != null && failure == null) {
+                failure = th;
+            }
+            batches.add(Batch.END);
+            done.countDown();
+        }
+
+        private void await() throws HyracksDataException {
+            try {
+                done.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            }
+        }
+
+        /**
+         * Adds the page reads of the range to the merge's and deletes its spill file. Called by the reader once the
+         * range is done.
+         */
+        private void finish() throws HyracksDataException {
+            mergeStats.getPageCounter().update(rangeStats.getPageCounter().set(0));
+            if (spillHandle != null) {
+                IFileHandle handle = spillHandle;
+                spillHandle = null;
+                try {
+                    ioManager.close(handle);
+                } finally {
+                    spillFile.delete();
+                }
+            }
+        }
+
+        private void checkFailure() throws HyracksDataException {
+            if (failure != null) {
+                throw HyracksDataException.create(failure);
+            }
+        }
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.am.lsm.btree.utils;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.apache.hyracks.api.compression.ICompressorDecompressorFactory;
@@ -37,6 +38,11 @@ import org.apache.hyracks.storage.am.common.api.IMetadataPageManagerFactory;
 import org.apache.hyracks.storage.am.common.api.INullIntrospector;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrameFactory;
 import org.apache.hyracks.storage.am.common.tuples.TypeAwareTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.ColumnBTree;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.ColumnBTreeFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.ColumnBTreeKeyTupleWriterFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.ColumnBTreeLeafFrameFactory;
 import org.apache.hyracks.storage.am.lsm.btree.impls.ExternalBTree;
 import org.apache.hyracks.storage.am.lsm.btree.impls.ExternalBTreeWithBuddy;
 import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
@@ -79,6 +85,28 @@ public class LSMBTreeUtil {
             boolean updateAware, ITracer tracer, ICompressorDecompressorFactory compressorDecompressorFactory,
             boolean hasBloomFilter, ITypeTraits nullTypeTraits, INullIntrospector nullIntrospector)
             throws HyracksDataException {
+        return createLSMTree(ioManager, virtualBufferCaches, file, diskBufferCache, typeTraits, cmpFactories,
+                bloomFilterKeyFields, bloomFilterFalsePositiveRate, mergePolicy, opTracker, ioScheduler,
+                ioOpCallbackFactory, pageWriteCallbackFactory, needKeyDupCheck, filterTypeTraits, filterCmpFactories,
+                btreeFields, filterFields, durable, freePageManagerFactory, updateAware, tracer,
+                compressorDecompressorFactory, hasBloomFilter, nullTypeTraits, nullIntrospector, null, null);
+    }
+
+    /**
+     * Create an LSM B-Tree. If {@code columnManagerFactory} is not {@code null}, the disk components store the
+     * non-key fields in columns (see {@link ColumnBTree}) while the in-memory components remain row-major. If
+     * {@code statisticsFields} is not {@code null}, every disk component keeps the statistics of these fields.
+     */
+    public static LSMBTree createLSMTree(IIOManager ioManager, List<IVirtualBufferCache> virtualBufferCaches,
+            FileReference file, IBufferCache diskBufferCache, ITypeTraits[] typeTraits,
+            IBinaryComparatorFactory[] cmpFactories, int[] bloomFilterKeyFields, double bloomFilterFalsePositiveRate,
+            ILSMMergePolicy mergePolicy, ILSMOperationTracker opTracker, ILSMIOOperationScheduler ioScheduler,
+            ILSMIOOperationCallbackFactory ioOpCallbackFactory, ILSMPageWriteCallbackFactory pageWriteCallbackFactory,
+            boolean needKeyDupCheck, ITypeTraits[] filterTypeTraits, IBinaryComparatorFactory[] filterCmpFactories,
+            int[] btreeFields, int[] filterFields, boolean durable, IMetadataPageManagerFactory freePageManagerFactory,
+            boolean updateAware, ITracer tracer, ICompressorDecompressorFactory compressorDecompressorFactory,
+            boolean hasBloomFilter, ITypeTraits nullTypeTraits, INullIntrospector nullIntrospector,
+            IColumnManagerFactory columnManagerFactory, int[] statisticsFields) throws HyracksDataException {
         LSMBTreeTupleWriterFactory insertTupleWriterFactory = new LSMBTreeTupleWriterFactory(typeTraits,
                 cmpFactories.length, false, updateAware, nullTypeTraits, nullIntrospector);
         LSMBTreeTupleWriterFactory deleteTupleWriterFactory = new LSMBTreeTupleWriterFactory(typeTraits,
@@ -94,12 +122,25 @@ public class LSMBTreeUtil {
         ITreeIndexFrameFactory interiorFrameFactory = new BTreeNSMInteriorFrameFactory(insertTupleWriterFactory);
         ITreeIndexFrameFactory bulkLoadLeafFrameFactory = new BTreeNSMLeafFrameFactory(bulkLoadTupleWriterFactory);
 
-        TreeIndexFactory<DiskBTree> diskBTreeFactory =
-                new DiskBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory, interiorFrameFactory,
-                        copyTupleLeafFrameFactory, cmpFactories, typeTraits.length);
-        TreeIndexFactory<DiskBTree> bulkLoadBTreeFactory =
-                new DiskBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory, interiorFrameFactory,
-                        bulkLoadLeafFrameFactory, cmpFactories, typeTraits.length);
+        TreeIndexFactory<DiskBTree> diskBTreeFactory;
+        TreeIndexFactory<DiskBTree> bulkLoadBTreeFactory;
+        if (columnManagerFactory == null) {
+            diskBTreeFactory = new DiskBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory,
+                    interiorFrameFactory, copyTupleLeafFrameFactory, cmpFactories, typeTraits.length);
+            bulkLoadBTreeFactory = new DiskBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory,
+                    interiorFrameFactory, bulkLoadLeafFrameFactory, cmpFactories, typeTraits.length);
+        } else {
+            // Disk components store the keys in the leaves and the values in columns
+            ITypeTraits[] keyTypeTraits = Arrays.copyOf(typeTraits, cmpFactories.length);
+            ColumnBTreeKeyTupleWriterFactory keyTupleWriterFactory =
+                    new ColumnBTreeKeyTupleWriterFactory(keyTypeTraits, nullTypeTraits, nullIntrospector);
+            ITreeIndexFrameFactory columnLeafFrameFactory =
+                    new ColumnBTreeLeafFrameFactory(keyTupleWriterFactory, cmpFactories.length, typeTraits.length);
+            diskBTreeFactory = new ColumnBTreeFactory(ioManager, diskBufferCache, freePageManagerFactory,
+                    interiorFrameFactory, columnLeafFrameFactory, cmpFactories, typeTraits.length,
+                    columnManagerFactory);
+            bulkLoadBTreeFactory = diskBTreeFactory;
+        }
 
         ComponentFilterHelper filterHelper = null;
         LSMComponentFilterFrameFactory filterFrameFactory = null;
@@ -131,7 +172,8 @@ public class LSMBTreeUtil {
                 deleteLeafFrameFactory, diskBufferCache, fileNameManager, componentFactory, bulkLoadComponentFactory,
                 filterHelper, filterFrameFactory, filterManager, bloomFilterFalsePositiveRate, typeTraits.length,
                 cmpFactories, mergePolicy, opTracker, ioScheduler, ioOpCallbackFactory, pageWriteCallbackFactory,
-                needKeyDupCheck, hasBloomFilter, btreeFields, filterFields, durable, updateAware, tracer);
+                needKeyDupCheck, hasBloomFilter, btreeFields, filterFields, statisticsFields, durable, updateAware,
+                tracer);
     }
 
     public static ExternalBTree createExternalBTree(IIOManager ioManager, FileReference file,
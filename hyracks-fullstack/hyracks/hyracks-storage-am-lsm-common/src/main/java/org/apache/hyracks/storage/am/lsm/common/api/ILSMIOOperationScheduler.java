@@ -18,6 +18,8 @@
  */
 package org.apache.hyracks.storage.am.lsm.common.api;
 
+import java.util.concurrent.Executor;
+
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 
 /**
@@ -38,4 +40,18 @@ public interface ILSMIOOperationScheduler {
      * @throws HyracksDataException
      */
     void completeOperation(ILSMIOOperation operation) throws HyracksDataException;
+
+    /**
+     * @return the number of key ranges of a large merge that are merged concurrently, 1 if merges are not partitioned
+     */
+    default int getMergeParallelism() {
+        return 1;
+    }
+
+    /**
+     * @return the executor running the key ranges of partitioned merges or {@code null} if merges are not partitioned
+     */
+    default Executor getMergeRangeExecutor() {
+        return null;
+    }
 }
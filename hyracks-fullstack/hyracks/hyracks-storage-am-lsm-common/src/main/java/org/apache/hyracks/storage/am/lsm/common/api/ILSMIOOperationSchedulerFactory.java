@@ -24,5 +24,16 @@ public interface ILSMIOOperationSchedulerFactory {
     ILSMIOOperationScheduler createIoScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
             int maxNumRunningFlushes, int maxNumScheduledMerges, int maxNumRunningMerges);
 
+    /**
+     * Creates a scheduler that splits large merges into {@code mergeParallelism} key ranges merged concurrently, if
+     * the scheduler supports it
+     */
+    default ILSMIOOperationScheduler createIoScheduler(ThreadFactory threadFactory,
+            IIoOperationFailedCallback callback, int maxNumRunningFlushes, int maxNumScheduledMerges,
+            int maxNumRunningMerges, int mergeParallelism) {
+        return createIoScheduler(threadFactory, callback, maxNumRunningFlushes, maxNumScheduledMerges,
+                maxNumRunningMerges);
+    }
+
     String getName();
 }
@@ -208,4 +208,10 @@ public interface ILSMIndex extends IIndex {
      */
     void resetCurrentComponentIndex();
 
+    /**
+     * @return the fields whose statistics are collected in every disk component of the index, or {@code null} if the
+     *         index collects no statistics
+     */
+    int[] getStatisticsFields();
+
 }
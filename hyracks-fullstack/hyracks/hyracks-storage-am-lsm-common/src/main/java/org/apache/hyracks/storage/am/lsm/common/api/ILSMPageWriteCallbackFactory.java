@@ -23,8 +23,11 @@ import java.io.Serializable;
 import org.apache.hyracks.api.application.INCServiceContext;
 import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
 import org.apache.hyracks.storage.common.IResource;
 import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
+import org.apache.hyracks.storage.common.buffercache.NoOpRateLimiter;
 
 public interface ILSMPageWriteCallbackFactory extends Serializable, IJsonSerializable {
     /**
@@ -42,4 +45,28 @@ public interface ILSMPageWriteCallbackFactory extends Serializable, IJsonSeriali
      * @throws HyracksDataException
      */
     IPageWriteCallback createPageWriteCallback() throws HyracksDataException;
+
+    /**
+     * Create the page write callback of a flush, a merge or a load, which allows accounting the written pages to the
+     * type of the IO operation (e.g. to share the disk bandwidth between flushes and merges)
+     *
+     * @param ioOperationType
+     * @return
+     * @throws HyracksDataException
+     */
+    default IPageWriteCallback createPageWriteCallback(LSMIOOperationType ioOperationType)
+            throws HyracksDataException {
+        return createPageWriteCallback();
+    }
+
+    /**
+     * Returns the rate limiter of the pages written by a flush, a merge or a load, for the writes of the operation that
+     * do not go through its page write callback (e.g. the batches spilled by a partitioned merge)
+     *
+     * @param ioOperationType
+     * @return
+     */
+    default IRateLimiter getRateLimiter(LSMIOOperationType ioOperationType) {
+        return NoOpRateLimiter.INSTANCE;
+    }
 }
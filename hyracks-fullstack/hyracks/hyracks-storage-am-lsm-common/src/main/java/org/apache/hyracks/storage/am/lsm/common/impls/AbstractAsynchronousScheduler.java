@@ -24,7 +24,9 @@ import java.util.ArrayDeque;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.ThreadFactory;
 
 import org.apache.hyracks.api.exceptions.HyracksDataException;
@@ -35,8 +37,11 @@ import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
 
 public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationScheduler, Closeable {
     protected final ExecutorService executor;
+    // runs the key ranges of partitioned merges, null if merges are not partitioned
+    private final ExecutorService mergeRangeExecutor;
 
     private final int maxNumFlushes;
+    private final int mergeParallelism;
     protected final Map<String, ILSMIOOperation> runningFlushOperations = new HashMap<>();
     protected final Deque<ILSMIOOperation> waitingFlushOperations = new ArrayDeque<>();
     protected final Deque<ILSMIOOperation> waitingMergeOperations = new ArrayDeque<>();
@@ -45,8 +50,25 @@ public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationSc
 
     public AbstractAsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback,
             int maxNumFlushes) {
+        this(threadFactory, callback, maxNumFlushes, 1);
+    }
+
+    public AbstractAsynchronousScheduler(ThreadFactory threadFactory, final IIoOperationFailedCallback callback,
+            int maxNumFlushes, int mergeParallelism) {
         executor = new IoOperationExecutor(threadFactory, this, callback, runningFlushOperations, failedGroups);
         this.maxNumFlushes = maxNumFlushes;
+        this.mergeParallelism = Math.max(mergeParallelism, 1);
+        mergeRangeExecutor = this.mergeParallelism > 1 ? Executors.newCachedThreadPool(threadFactory) : null;
+    }
+
+    @Override
+    public int getMergeParallelism() {
+        return mergeParallelism;
+    }
+
+    @Override
+    public Executor getMergeRangeExecutor() {
+        return mergeRangeExecutor;
     }
 
     @Override
@@ -152,5 +174,8 @@ public abstract class AbstractAsynchronousScheduler implements ILSMIOOperationSc
     @Override
     public void close() throws IOException {
         executor.shutdown();
+        if (mergeRangeExecutor != null) {
+            mergeRangeExecutor.shutdown();
+        }
     }
 }
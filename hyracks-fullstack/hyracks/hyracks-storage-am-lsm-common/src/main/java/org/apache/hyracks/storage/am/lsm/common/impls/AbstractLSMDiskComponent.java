@@ -233,6 +233,10 @@ public abstract class AbstractLSMDiskComponent extends AbstractLSMComponent impl
             boolean cleanupEmptyComponent, IPageWriteCallback callback) throws HyracksDataException {
         ChainedLSMDiskComponentBulkLoader chainedBulkLoader =
                 new ChainedLSMDiskComponentBulkLoader(operation, this, cleanupEmptyComponent);
+        int[] statisticsFields = getLsmIndex().getStatisticsFields();
+        if (statisticsFields != null) {
+            chainedBulkLoader.addBulkLoader(new StatisticsBulkLoader(getMetadata(), statisticsFields));
+        }
         if (withFilter && getLsmIndex().getFilterFields() != null) {
             chainedBulkLoader.addBulkLoader(createFilterBulkLoader());
         }
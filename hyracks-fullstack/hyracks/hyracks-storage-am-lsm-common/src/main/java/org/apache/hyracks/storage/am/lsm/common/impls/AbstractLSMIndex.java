@@ -80,6 +80,7 @@ import org.apache.logging.log4j.Logger;
 public abstract class AbstractLSMIndex implements ILSMIndex {
     private static final Logger LOGGER = LogManager.getLogger();
     protected final ILSMHarness lsmHarness;
+    protected final ILSMIOOperationScheduler ioScheduler;
     protected final IIOManager ioManager;
     protected final ILSMIOOperationCallback ioOpCallback;
 
@@ -139,6 +140,7 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         this.inactiveMemoryComponents = new ArrayList<>();
         this.durable = durable;
         this.tracer = tracer;
+        this.ioScheduler = ioScheduler;
         fileManager.initLastUsedSeq(ioOpCallback.getLastValidSequence());
         lsmHarness = new LSMHarness(this, ioScheduler, mergePolicy, opTracker, diskBufferCache.isReplicationEnabled(),
                 tracer);
@@ -169,6 +171,7 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         this.bulkLoadComponentFactory = bulkLoadComponentFactory;
         this.durable = durable;
         this.tracer = tracer;
+        this.ioScheduler = ioScheduler;
         lsmHarness = new ExternalIndexHarness(this, ioScheduler, mergePolicy, opTracker,
                 diskBufferCache.isReplicationEnabled());
         isActive = false;
@@ -802,6 +805,11 @@ public abstract class AbstractLSMIndex implements ILSMIndex {
         return treeFields;
     }
 
+    @Override
+    public int[] getStatisticsFields() {
+        return null;
+    }
+
     public LSMComponentFilterManager getFilterManager() {
         return filterManager;
     }
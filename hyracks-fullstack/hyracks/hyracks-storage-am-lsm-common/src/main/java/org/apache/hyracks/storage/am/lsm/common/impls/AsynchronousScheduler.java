@@ -40,6 +40,14 @@ public class AsynchronousScheduler extends AbstractAsynchronousScheduler {
             return new AsynchronousScheduler(threadFactory, callback, maxNumRunningFlushes, maxNumRunningMerges);
         }
 
+        @Override
+        public ILSMIOOperationScheduler createIoScheduler(ThreadFactory threadFactory,
+                IIoOperationFailedCallback callback, int maxNumRunningFlushes, int maxNumScheduledMerges,
+                int maxNumRunningMerges, int mergeParallelism) {
+            return new AsynchronousScheduler(threadFactory, callback, maxNumRunningFlushes, maxNumRunningMerges,
+                    mergeParallelism);
+        }
+
         @Override
         public String getName() {
             return "async";
@@ -51,7 +59,12 @@ public class AsynchronousScheduler extends AbstractAsynchronousScheduler {
 
     public AsynchronousScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
             int maxNumRunningFlushes, int maxNumRunningMerges) {
-        super(threadFactory, callback, maxNumRunningFlushes);
+        this(threadFactory, callback, maxNumRunningFlushes, maxNumRunningMerges, 1);
+    }
+
+    public AsynchronousScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback,
+            int maxNumRunningFlushes, int maxNumRunningMerges, int mergeParallelism) {
+        super(threadFactory, callback, maxNumRunningFlushes, mergeParallelism);
         this.maxNumRunningMerges = maxNumRunningMerges;
     }
 
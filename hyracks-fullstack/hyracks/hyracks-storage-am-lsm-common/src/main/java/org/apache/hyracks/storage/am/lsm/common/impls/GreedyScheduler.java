@@ -52,6 +52,14 @@ public class GreedyScheduler extends AbstractAsynchronousScheduler {
                     maxNumRunningMerges);
         }
 
+        @Override
+        public ILSMIOOperationScheduler createIoScheduler(ThreadFactory threadFactory,
+                IIoOperationFailedCallback callback, int maxNumRunningFlushes, int maxNumScheduledMerges,
+                int maxNumRunningMerges, int mergeParallelism) {
+            return new GreedyScheduler(threadFactory, callback, maxNumRunningFlushes, maxNumScheduledMerges,
+                    maxNumRunningMerges, mergeParallelism);
+        }
+
         @Override
         public String getName() {
             return "greedy";
@@ -67,7 +75,12 @@ public class GreedyScheduler extends AbstractAsynchronousScheduler {
 
     public GreedyScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback, int maxNumRunningFlushes,
             int maxNumScheduledMerges, int maxNumRunningMerges) {
-        super(threadFactory, callback, maxNumRunningFlushes);
+        this(threadFactory, callback, maxNumRunningFlushes, maxNumScheduledMerges, maxNumRunningMerges, 1);
+    }
+
+    public GreedyScheduler(ThreadFactory threadFactory, IIoOperationFailedCallback callback, int maxNumRunningFlushes,
+            int maxNumScheduledMerges, int maxNumRunningMerges, int mergeParallelism) {
+        super(threadFactory, callback, maxNumRunningFlushes, mergeParallelism);
         this.maxNumScheduledMerges = maxNumScheduledMerges;
         this.maxNumRunningMerges = maxNumRunningMerges;
     }
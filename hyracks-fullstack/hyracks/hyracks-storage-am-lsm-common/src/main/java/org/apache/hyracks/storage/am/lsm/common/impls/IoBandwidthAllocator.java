@@ -0,0 +1,62 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
+import org.apache.hyracks.storage.common.buffercache.TokenBucketRateLimiter;
+
+/**
+ * Allocates the disk write bandwidth of a storage partition between queries, flushes and merges. A fraction of the
+ * bandwidth is left to queries by not letting flushes and merges use it, and the rest is split between a flush and a
+ * merge token bucket that lend each other their unused tokens: flushes are guaranteed their share of the bandwidth
+ * however large the running merges are, which keeps a long merge from stalling ingestion, merges are guaranteed the
+ * rest so that they keep up with flushes, and either can use the bandwidth the other leaves unused. Bulk loads write
+ * with the merge bucket.
+ */
+public class IoBandwidthAllocator {
+    private static final double MAX_BURST_SECONDS = 1.0;
+
+    private final TokenBucketRateLimiter flushRateLimiter;
+    private final TokenBucketRateLimiter mergeRateLimiter;
+
+    /**
+     * @param writeRateLimit
+     *            the disk write bandwidth of the partition in bytes per second
+     * @param queryReserve
+     *            the fraction of the bandwidth left to queries, in [0, 1)
+     * @param flushShare
+     *            the fraction of the bandwidth of flushes and merges guaranteed to flushes, in (0, 1)
+     */
+    public IoBandwidthAllocator(long writeRateLimit, double queryReserve, double flushShare) {
+        if (writeRateLimit <= 0 || queryReserve < 0 || queryReserve >= 1 || flushShare <= 0 || flushShare >= 1) {
+            throw new IllegalArgumentException("Invalid write rate limit " + writeRateLimit + ", query reserve "
+                    + queryReserve + " or flush share " + flushShare);
+        }
+        double writeRate = writeRateLimit * (1 - queryReserve);
+        flushRateLimiter = new TokenBucketRateLimiter(writeRate * flushShare, MAX_BURST_SECONDS);
+        mergeRateLimiter = new TokenBucketRateLimiter(writeRate * (1 - flushShare), MAX_BURST_SECONDS);
+        flushRateLimiter.setLender(mergeRateLimiter);
+        mergeRateLimiter.setLender(flushRateLimiter);
+    }
+
+    public IRateLimiter getRateLimiter(LSMIOOperationType ioOperationType) {
+        return ioOperationType == LSMIOOperationType.FLUSH ? flushRateLimiter : mergeRateLimiter;
+    }
+}
@@ -76,6 +76,10 @@ public abstract class LSMIndexSearchCursor extends EnforcedIndexCursor implement
         return opCtx;
     }
 
+    public boolean isReturnDeletedTuples() {
+        return returnDeletedTuples;
+    }
+
     public void initPriorityQueue() throws HyracksDataException {
         int pqInitSize = (rangeCursors.length > 0) ? rangeCursors.length : 1;
         if (outputPriorityQueue == null) {
@@ -0,0 +1,136 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.impls;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.bloomfilter.impls.MurmurHash128Bit;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.am.lsm.common.statistics.EquiHeightHistogram;
+import org.apache.hyracks.storage.am.lsm.common.statistics.HyperLogLog;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+import org.apache.hyracks.storage.am.lsm.common.util.LSMStatisticsUtils;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+
+/**
+ * Collects the {@link IndexStatistics} of the tuples loaded into a disk component and persists them in the metadata of
+ * the component when the load ends. The tuples of a component are loaded in key order, so when the first statistics
+ * field is the first key field, its histogram is built in the same pass.
+ */
+public class StatisticsBulkLoader implements IChainedComponentBulkLoader {
+    private static final long HASH_SEED = 0L;
+
+    private final IComponentMetadata metadata;
+    private final int[][] fields;
+    private final HyperLogLog[] distinctValues;
+    private final EquiHeightHistogram.Builder histogramBuilder;
+    private final int histogramField;
+    private final long[] hashes = new long[2];
+    private long numTuples;
+    private long numAntimatterTuples;
+    private long totalTupleSize;
+
+    public StatisticsBulkLoader(IComponentMetadata metadata, int[] statisticsFields) {
+        this.metadata = metadata;
+        fields = new int[statisticsFields.length][];
+        distinctValues = new HyperLogLog[statisticsFields.length];
+        for (int i = 0; i < statisticsFields.length; i++) {
+            fields[i] = new int[] { statisticsFields[i] };
+            distinctValues[i] = new HyperLogLog();
+        }
+        histogramField = statisticsFields.length > 0 && statisticsFields[0] == 0 ? 0 : -1;
+        histogramBuilder = histogramField < 0 ? null : new EquiHeightHistogram.Builder();
+    }
+
+    @Override
+    public ITupleReference add(ITupleReference tuple) throws HyracksDataException {
+        if (tuple instanceof ILSMTreeTupleReference && ((ILSMTreeTupleReference) tuple).isAntimatter()) {
+            numAntimatterTuples++;
+            return tuple;
+        }
+        numTuples++;
+        for (int i = 0; i < fields.length; i++) {
+            MurmurHash128Bit.hash3_x64_128(tuple, fields[i], HASH_SEED, hashes);
+            distinctValues[i].add(hashes[0]);
+        }
+        int fieldCount = tuple.getFieldCount();
+        for (int i = 0; i < fieldCount; i++) {
+            totalTupleSize += tuple.getFieldLength(i);
+        }
+        if (histogramBuilder != null) {
+            histogramBuilder.add(tuple.getFieldData(histogramField), tuple.getFieldStart(histogramField),
+                    tuple.getFieldLength(histogramField));
+        }
+        return tuple;
+    }
+
+    @Override
+    public ITupleReference delete(ITupleReference tuple) throws HyracksDataException {
+        numAntimatterTuples++;
+        return tuple;
+    }
+
+    @Override
+    public void end() throws HyracksDataException {
+        if (numTuples == 0 && numAntimatterTuples == 0) {
+            return;
+        }
+        List<EquiHeightHistogram> histograms = new ArrayList<>(1);
+        EquiHeightHistogram histogram = histogramBuilder == null ? null : histogramBuilder.build();
+        if (histogram != null) {
+            histograms.add(histogram);
+        }
+        LSMStatisticsUtils.persist(new IndexStatistics(numTuples, numAntimatterTuples, totalTupleSize,
+                distinctValues, histograms), metadata);
+    }
+
+    @Override
+    public void abort() throws HyracksDataException {
+        // no op
+    }
+
+    @Override
+    public void cleanupArtifacts() throws HyracksDataException {
+        // no op
+    }
+
+    @Override
+    public void force() throws HyracksDataException {
+        // no op
+    }
+
+    @Override
+    public void writeFailed(ICachedPage page, Throwable failure) {
+        throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean hasFailed() {
+        return false;
+    }
+
+    @Override
+    public Throwable getFailure() {
+        return null;
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * An equi-height histogram over the serialized values of one field. Bucket i holds the values v with
+ * {@code upperBound(i - 1) < v <= upperBound(i)} (the first bucket starts at the minimum value) and all buckets but
+ * the last one hold the same number of values. The values are kept in their serialized form, so estimating a range
+ * needs a comparator for the field, which is why the histograms of different components are not merged but estimated
+ * one by one (see {@link IndexStatistics}).
+ */
+public class EquiHeightHistogram {
+    public static final int DEFAULT_MAX_BUCKETS = 32;
+    /**
+     * Values longer than this are not kept as bucket boundaries. A field having such values gets no histogram.
+     */
+    public static final int MAX_BOUNDARY_LENGTH = 64;
+
+    private final byte[] minValue;
+    private final byte[][] upperBounds;
+    private final long[] counts;
+    private final long totalCount;
+
+    private EquiHeightHistogram(byte[] minValue, byte[][] upperBounds, long[] counts) {
+        this.minValue = minValue;
+        this.upperBounds = upperBounds;
+        this.counts = counts;
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        this.totalCount = total;
+    }
+
+    public int getNumBuckets() {
+        return counts.length;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public byte[] getMinValue() {
+        return minValue;
+    }
+
+    public byte[] getUpperBound(int bucket) {
+        return upperBounds[bucket];
+    }
+
+    public long getCount(int bucket) {
+        return counts[bucket];
+    }
+
+    /**
+     * Estimates the number of values that are less than (or equal to, if {@code inclusive}) the given value. Within
+     * the bucket containing the value, half of the bucket is assumed to qualify since serialized values cannot be
+     * interpolated.
+     */
+    public double estimateLessThan(IBinaryComparator cmp, byte[] value, int start, int length, boolean inclusive)
+            throws HyracksDataException {
+        int c = cmp.compare(value, start, length, minValue, 0, minValue.length);
+        if (c < 0 || (c == 0 && !inclusive)) {
+            return 0;
+        }
+        double estimate = 0;
+        for (int i = 0; i < counts.length; i++) {
+            c = cmp.compare(value, start, length, upperBounds[i], 0, upperBounds[i].length);
+            if (c > 0 || (c == 0 && inclusive)) {
+                estimate += counts[i];
+            } else {
+                estimate += counts[i] / 2.0;
+                break;
+            }
+        }
+        return estimate;
+    }
+
+    public void writeFields(DataOutput output) throws IOException {
+        output.writeInt(counts.length);
+        writeValue(output, minValue);
+        for (int i = 0; i < counts.length; i++) {
+            output.writeLong(counts[i]);
+            writeValue(output, upperBounds[i]);
+        }
+    }
+
+    public static EquiHeightHistogram create(DataInput input) throws IOException {
+        int numBuckets = input.readInt();
+        byte[] minValue = readValue(input);
+        byte[][] upperBounds = new byte[numBuckets][];
+        long[] counts = new long[numBuckets];
+        for (int i = 0; i < numBuckets; i++) {
+            counts[i] = input.readLong();
+            upperBounds[i] = readValue(input);
+        }
+        return new EquiHeightHistogram(minValue, upperBounds, counts);
+    }
+
+    private static void writeValue(DataOutput output, byte[] value) throws IOException {
+        output.writeShort(value.length);
+        output.write(value);
+    }
+
+    private static byte[] readValue(DataInput input) throws IOException {
+        byte[] value = new byte[input.readUnsignedShort()];
+        input.readFully(value);
+        return value;
+    }
+
+    /**
+     * Builds a histogram in one pass over values added in ascending order, without knowing their number in advance:
+     * buckets are closed every {@code height} values and whenever the maximum number of buckets is reached, adjacent
+     * buckets are merged pairwise and the height doubles.
+     */
+    public static class Builder {
+        private final int maxBuckets;
+        private final byte[][] upperBounds;
+        private final long[] counts;
+        private int numBuckets;
+        private long height = 1;
+        private long current;
+        private byte[] minValue;
+        private byte[] lastValue = new byte[MAX_BOUNDARY_LENGTH];
+        private int lastLength;
+        private boolean disabled;
+
+        public Builder() {
+            this(DEFAULT_MAX_BUCKETS);
+        }
+
+        public Builder(int maxBuckets) {
+            if (maxBuckets < 2 || maxBuckets % 2 != 0) {
+                throw new IllegalArgumentException("The maximum number of buckets must be even: " + maxBuckets);
+            }
+            this.maxBuckets = maxBuckets;
+            upperBounds = new byte[maxBuckets][];
+            counts = new long[maxBuckets];
+        }
+
+        public void add(byte[] data, int start, int length) {
+            if (disabled) {
+                return;
+            }
+            if (length > MAX_BOUNDARY_LENGTH) {
+                disabled = true;
+                return;
+            }
+            if (minValue == null) {
+                minValue = Arrays.copyOfRange(data, start, start + length);
+            }
+            current++;
+            if (current == height) {
+                closeBucket(Arrays.copyOfRange(data, start, start + length));
+            } else {
+                System.arraycopy(data, start, lastValue, 0, length);
+                lastLength = length;
+            }
+        }
+
+        private void closeBucket(byte[] upperBound) {
+            upperBounds[numBuckets] = upperBound;
+            counts[numBuckets] = current;
+            numBuckets++;
+            current = 0;
+            if (numBuckets == maxBuckets) {
+                for (int i = 0; i < maxBuckets / 2; i++) {
+                    upperBounds[i] = upperBounds[2 * i + 1];
+                    counts[i] = counts[2 * i] + counts[2 * i + 1];
+                }
+                Arrays.fill(upperBounds, maxBuckets / 2, maxBuckets, null);
+                numBuckets = maxBuckets / 2;
+                height *= 2;
+            }
+        }
+
+        /**
+         * @return the histogram of the added values or {@code null} if no value was added or some value was too long
+         */
+        public EquiHeightHistogram build() {
+            if (disabled || minValue == null) {
+                return null;
+            }
+            if (current > 0) {
+                closeBucket(Arrays.copyOf(lastValue, lastLength));
+            }
+            return new EquiHeightHistogram(minValue, Arrays.copyOf(upperBounds, numBuckets),
+                    Arrays.copyOf(counts, numBuckets));
+        }
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * Statistics of the tuples of an LSM index: the number of tuples and anti-matter tuples, their total size, a
+ * {@link HyperLogLog} sketch of the distinct values of each statistics field and {@link EquiHeightHistogram}s of the
+ * first statistics field. They are built for every disk component by the bulk loader of the component and persisted
+ * in its metadata. The statistics of several components, or of several partitions of an index, are combined with
+ * {@link #merge(IndexStatistics)}: counts add up, distinct value sketches are merged and the histograms are kept side
+ * by side.
+ */
+public class IndexStatistics {
+    private static final byte VERSION = 1;
+
+    private long numTuples;
+    private long numAntimatterTuples;
+    private long totalTupleSize;
+    private final HyperLogLog[] distinctValues;
+    private final List<EquiHeightHistogram> histograms;
+
+    public IndexStatistics(int numFields) {
+        this(0, 0, 0, new HyperLogLog[numFields], new ArrayList<>());
+    }
+
+    public IndexStatistics(long numTuples, long numAntimatterTuples, long totalTupleSize,
+            HyperLogLog[] distinctValues, List<EquiHeightHistogram> histograms) {
+        this.numTuples = numTuples;
+        this.numAntimatterTuples = numAntimatterTuples;
+        this.totalTupleSize = totalTupleSize;
+        this.distinctValues = distinctValues;
+        this.histograms = histograms;
+    }
+
+    /**
+     * @return the number of (non anti-matter) tuples. Across components, a tuple that was updated is counted once
+     *         per version.
+     */
+    public long getNumTuples() {
+        return numTuples;
+    }
+
+    public long getNumAntimatterTuples() {
+        return numAntimatterTuples;
+    }
+
+    /**
+     * @return an estimate of the number of live tuples, taking out the tuples deleted by anti-matter tuples. The old
+     *         versions of updated tuples are still counted, which callers knowing the statistics fields to be a unique
+     *         key can correct with the number of distinct keys.
+     */
+    public long getCardinality() {
+        return Math.max(numTuples - numAntimatterTuples, 0);
+    }
+
+    public double getAverageTupleSize() {
+        return numTuples == 0 ? 0 : (double) totalTupleSize / numTuples;
+    }
+
+    public int getNumFields() {
+        return distinctValues.length;
+    }
+
+    /**
+     * @param field
+     *            the position of the field among the statistics fields of the index
+     * @return the estimated number of distinct values of the field or -1 if unknown
+     */
+    public long getDistinctValues(int field) {
+        return distinctValues[field] == null ? -1 : Math.min(distinctValues[field].estimate(), numTuples);
+    }
+
+    public List<EquiHeightHistogram> getHistograms() {
+        return Collections.unmodifiableList(histograms);
+    }
+
+    /**
+     * Estimates the fraction of the tuples whose first statistics field lies within the given bounds, {@code null}
+     * bounds being unbounded, using the histograms.
+     *
+     * @return the estimated fraction or -1 if there is no histogram
+     */
+    public double estimateRangeSelectivity(IBinaryComparator cmp, byte[] low, boolean lowInclusive, byte[] high,
+            boolean highInclusive) throws HyracksDataException {
+        long total = 0;
+        double qualifying = 0;
+        for (EquiHeightHistogram histogram : histograms) {
+            double upTo = high == null ? histogram.getTotalCount()
+                    : histogram.estimateLessThan(cmp, high, 0, high.length, highInclusive);
+            double below = low == null ? 0 : histogram.estimateLessThan(cmp, low, 0, low.length, !lowInclusive);
+            qualifying += Math.max(upTo - below, 0);
+            total += histogram.getTotalCount();
+        }
+        return total == 0 ? -1 : qualifying / total;
+    }
+
+    public void merge(IndexStatistics other) {
+        if (other.distinctValues.length != distinctValues.length) {
+            throw new IllegalArgumentException("Cannot merge statistics of " + distinctValues.length + " and "
+                    + other.distinctValues.length + " fields");
+        }
+        numTuples += other.numTuples;
+        numAntimatterTuples += other.numAntimatterTuples;
+        totalTupleSize += other.totalTupleSize;
+        for (int i = 0; i < distinctValues.length; i++) {
+            if (other.distinctValues[i] == null) {
+                continue;
+            }
+            if (distinctValues[i] == null) {
+                distinctValues[i] = new HyperLogLog(other.distinctValues[i].getPrecision());
+            }
+            distinctValues[i].merge(other.distinctValues[i]);
+        }
+        histograms.addAll(other.histograms);
+    }
+
+    public void writeFields(DataOutput output) throws IOException {
+        output.writeByte(VERSION);
+        output.writeLong(numTuples);
+        output.writeLong(numAntimatterTuples);
+        output.writeLong(totalTupleSize);
+        output.writeInt(distinctValues.length);
+        for (HyperLogLog hll : distinctValues) {
+            output.writeBoolean(hll != null);
+            if (hll != null) {
+                hll.writeFields(output);
+            }
+        }
+        output.writeInt(histograms.size());
+        for (EquiHeightHistogram histogram : histograms) {
+            histogram.writeFields(output);
+        }
+    }
+
+    public static IndexStatistics create(DataInput input) throws IOException {
+        byte version = input.readByte();
+        if (version != VERSION) {
+            throw new IOException("Unsupported statistics version " + version);
+        }
+        long numTuples = input.readLong();
+        long numAntimatterTuples = input.readLong();
+        long totalTupleSize = input.readLong();
+        HyperLogLog[] distinctValues = new HyperLogLog[input.readInt()];
+        for (int i = 0; i < distinctValues.length; i++) {
+            if (input.readBoolean()) {
+                distinctValues[i] = HyperLogLog.create(input);
+            }
+        }
+        int numHistograms = input.readInt();
+        List<EquiHeightHistogram> histograms = new ArrayList<>(numHistograms);
+        for (int i = 0; i < numHistograms; i++) {
+            histograms.add(EquiHeightHistogram.create(input));
+        }
+        return new IndexStatistics(numTuples, numAntimatterTuples, totalTupleSize, distinctValues, histograms);
+    }
+
+    public static IndexStatistics create(byte[] bytes, int start, int length) throws HyracksDataException {
+        try {
+            return create(new DataInputStream(new ByteArrayInputStream(bytes, start, length)));
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"tuples\":").append(numTuples).append(",\"antimatterTuples\":").append(numAntimatterTuples)
+                .append(",\"distinctValues\":[");
+        for (int i = 0; i < distinctValues.length; i++) {
+            sb.append(i > 0 ? "," : "").append(getDistinctValues(i));
+        }
+        return sb.append("],\"histograms\":").append(histograms.size()).append('}').toString();
+    }
+}
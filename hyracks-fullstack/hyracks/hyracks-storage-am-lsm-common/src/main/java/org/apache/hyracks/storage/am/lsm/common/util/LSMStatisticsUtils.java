@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.util;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
+import org.apache.hyracks.storage.am.lsm.common.api.IComponentMetadata;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndex;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+
+public class LSMStatisticsUtils {
+
+    private static final MutableArrayValueReference STATISTICS_KEY =
+            new MutableArrayValueReference("Statistics".getBytes());
+
+    private LSMStatisticsUtils() {
+    }
+
+    public static void persist(IndexStatistics statistics, IComponentMetadata metadata)
+            throws HyracksDataException {
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        try {
+            statistics.writeFields(value.getDataOutput());
+        } catch (IOException e) {
+            throw HyracksDataException.create(e);
+        }
+        metadata.put(STATISTICS_KEY, value);
+    }
+
+    /**
+     * @return the statistics persisted in the metadata or {@code null} if there are none
+     */
+    public static IndexStatistics readFrom(IComponentMetadata metadata, ArrayBackedValueStorage buffer)
+            throws HyracksDataException {
+        buffer.reset();
+        metadata.get(STATISTICS_KEY, buffer);
+        return buffer.getLength() == 0 ? null
+                : IndexStatistics.create(buffer.getByteArray(), buffer.getStartOffset(), buffer.getLength());
+    }
+
+    /**
+     * Combines the statistics of the current disk components of an index, along with those of a new component that
+     * is not part of the disk components yet (e.g. a bulk loaded one), if any.
+     * Note: This method locks on the OpTracker of the index
+     *
+     * @return the statistics or {@code null} if the index does not collect statistics or none of the components has
+     *         statistics
+     */
+    public static IndexStatistics collect(ILSMIndex index, ILSMDiskComponent newComponent)
+            throws HyracksDataException {
+        int[] statisticsFields = index.getStatisticsFields();
+        if (statisticsFields == null) {
+            return null;
+        }
+        List<ILSMDiskComponent> components;
+        synchronized (index.getOperationTracker()) {
+            components = new ArrayList<>(index.getDiskComponents());
+        }
+        if (newComponent != null && !components.contains(newComponent)) {
+            components.add(newComponent);
+        }
+        ArrayBackedValueStorage buffer = new ArrayBackedValueStorage();
+        IndexStatistics statistics = null;
+        for (ILSMDiskComponent component : components) {
+            IndexStatistics componentStatistics = readFrom(component.getMetadata(), buffer);
+            if (componentStatistics == null) {
+                continue;
+            }
+            if (statistics == null) {
+                statistics = new IndexStatistics(componentStatistics.getNumFields());
+            }
+            statistics.merge(componentStatistics);
+        }
+        return statistics;
+    }
+}
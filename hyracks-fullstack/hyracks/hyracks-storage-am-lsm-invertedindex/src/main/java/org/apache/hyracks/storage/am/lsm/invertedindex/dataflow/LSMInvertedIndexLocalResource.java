@@ -61,6 +61,7 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
     public static final String TOKEN_CMP_FACTORIES = "tokenCmpFactories";
     public static final String IS_PARTITIONED = "isPartitioned";
     public static final String FULL_TEXT_CONFIG_EVALUATOR_FACTORY = "fullTextConfigEvaluatorFactory";
+    public static final String COMPRESS_INVERTED_LISTS = "compressInvertedLists";
 
     private final ITypeTraits[] tokenTypeTraits;
     private final IBinaryComparatorFactory[] tokenCmpFactories;
@@ -76,6 +77,7 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
     private final int[] filterFieldsForNonBulkLoadOps;
     private final int[] invertedIndexFieldsForNonBulkLoadOps;
     private final double bloomFilterFalsePositiveRate;
+    private final boolean compressInvertedLists;
 
     public LSMInvertedIndexLocalResource(
             // inherited fields
@@ -92,7 +94,7 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
             IBinaryTokenizerFactory tokenizerFactory, IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory,
             boolean isPartitioned, int[] invertedIndexFields, int[] filterFieldsForNonBulkLoadOps,
             int[] invertedIndexFieldsForNonBulkLoadOps, double bloomFilterFalsePositiveRate, ITypeTraits nullTypeTraits,
-            INullIntrospector nullIntrospector) {
+            INullIntrospector nullIntrospector, boolean compressInvertedLists) {
 
         super(path, storageManager, typeTraits, cmpFactories, filterTypeTraits, filterCmpFactories, filterFields,
                 opTrackerProvider, ioOpCallbackFactory, pageWriteCallbackFactory, metadataPageManagerFactory,
@@ -107,14 +109,15 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
         this.filterFieldsForNonBulkLoadOps = filterFieldsForNonBulkLoadOps;
         this.invertedIndexFieldsForNonBulkLoadOps = invertedIndexFieldsForNonBulkLoadOps;
         this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
+        this.compressInvertedLists = compressInvertedLists;
     }
 
     private LSMInvertedIndexLocalResource(IPersistedResourceRegistry registry, JsonNode json,
             ITypeTraits[] tokenTypeTraits, IBinaryComparatorFactory[] tokenCmpFactories,
             IBinaryTokenizerFactory tokenizerFactory, IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory,
             boolean isPartitioned, int[] invertedIndexFields, int[] filterFieldsForNonBulkLoadOps,
-            int[] invertedIndexFieldsForNonBulkLoadOps, double bloomFilterFalsePositiveRate)
-            throws HyracksDataException {
+            int[] invertedIndexFieldsForNonBulkLoadOps, double bloomFilterFalsePositiveRate,
+            boolean compressInvertedLists) throws HyracksDataException {
         super(registry, json);
         this.tokenTypeTraits = tokenTypeTraits;
         this.tokenCmpFactories = tokenCmpFactories;
@@ -125,6 +128,7 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
         this.filterFieldsForNonBulkLoadOps = filterFieldsForNonBulkLoadOps;
         this.invertedIndexFieldsForNonBulkLoadOps = invertedIndexFieldsForNonBulkLoadOps;
         this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
+        this.compressInvertedLists = compressInvertedLists;
     }
 
     @Override
@@ -144,7 +148,8 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
                     opTrackerProvider.getOperationTracker(serviceCtx, this), ioScheduler, ioOpCallbackFactory,
                     pageWriteCallbackFactory, invertedIndexFields, filterTypeTraits, filterCmpFactories, filterFields,
                     filterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps, durable,
-                    metadataPageManagerFactory, serviceCtx.getTracer(), nullTypeTraits, nullIntrospector);
+                    metadataPageManagerFactory, serviceCtx.getTracer(), nullTypeTraits, nullIntrospector,
+                    compressInvertedLists);
         } else {
             return InvertedIndexUtils.createLSMInvertedIndex(ioManager, virtualBufferCaches, typeTraits, cmpFactories,
                     tokenTypeTraits, tokenCmpFactories, tokenizerFactory, fullTextConfigEvaluatorFactory, bufferCache,
@@ -152,7 +157,8 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
                     opTrackerProvider.getOperationTracker(serviceCtx, this), ioScheduler, ioOpCallbackFactory,
                     pageWriteCallbackFactory, invertedIndexFields, filterTypeTraits, filterCmpFactories, filterFields,
                     filterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps, durable,
-                    metadataPageManagerFactory, serviceCtx.getTracer(), nullTypeTraits, nullIntrospector);
+                    metadataPageManagerFactory, serviceCtx.getTracer(), nullTypeTraits, nullIntrospector,
+                    compressInvertedLists);
         }
     }
 
@@ -177,6 +183,7 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
         jsonObject.putPOJO("filterFieldsForNonBulkLoadOps", filterFieldsForNonBulkLoadOps);
         jsonObject.putPOJO("invertedIndexFieldsForNonBulkLoadOps", invertedIndexFieldsForNonBulkLoadOps);
         jsonObject.putPOJO("bloomFilterFalsePositiveRate", bloomFilterFalsePositiveRate);
+        jsonObject.put(COMPRESS_INVERTED_LISTS, compressInvertedLists);
         return jsonObject;
     }
 
@@ -215,8 +222,11 @@ public class LSMInvertedIndexLocalResource extends LsmResource {
         final int[] invertedIndexFieldsForNonBulkLoadOps =
                 OBJECT_MAPPER.convertValue(json.get("invertedIndexFieldsForNonBulkLoadOps"), int[].class);
         final double bloomFilterFalsePositiveRate = json.get("bloomFilterFalsePositiveRate").asDouble();
+        // back-compatible: the inverted lists of the indexes created by an older version are not compressed
+        final boolean compressInvertedLists =
+                json.has(COMPRESS_INVERTED_LISTS) && json.get(COMPRESS_INVERTED_LISTS).asBoolean();
         return new LSMInvertedIndexLocalResource(registry, json, tokenTypeTraits, tokenCmpFactories, tokenizerFactory,
                 fullTextConfigEvaluatorFactory, isPartitioned, invertedIndexFields, filterFieldsForNonBulkLoadOps,
-                invertedIndexFieldsForNonBulkLoadOps, bloomFilterFalsePositiveRate);
+                invertedIndexFieldsForNonBulkLoadOps, bloomFilterFalsePositiveRate, compressInvertedLists);
     }
 }
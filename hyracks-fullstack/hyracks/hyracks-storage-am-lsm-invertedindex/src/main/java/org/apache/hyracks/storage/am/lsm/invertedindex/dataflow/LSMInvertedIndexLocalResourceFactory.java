@@ -49,6 +49,7 @@ public class LSMInvertedIndexLocalResourceFactory extends LsmResourceFactory {
     private final int[] invertedIndexFieldsForNonBulkLoadOps;
     private final double bloomFilterFalsePositiveRate;
     private final IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory;
+    private final boolean compressInvertedLists;
 
     public LSMInvertedIndexLocalResourceFactory(IStorageManager storageManager, ITypeTraits[] typeTraits,
             // Inherited fields
@@ -64,7 +65,7 @@ public class LSMInvertedIndexLocalResourceFactory extends LsmResourceFactory {
             IBinaryTokenizerFactory tokenizerFactory, IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory,
             boolean isPartitioned, int[] invertedIndexFields, int[] filterFieldsForNonBulkLoadOps,
             int[] invertedIndexFieldsForNonBulkLoadOps, double bloomFilterFalsePositiveRate, ITypeTraits nullTypeTraits,
-            INullIntrospector nullIntrospector) {
+            INullIntrospector nullIntrospector, boolean compressInvertedLists) {
         super(storageManager, typeTraits, cmpFactories, filterTypeTraits, filterCmpFactories, filterFields,
                 opTrackerFactory, ioOpCallbackFactory, pageWriteCallbackFactory, metadataPageManagerFactory,
                 vbcProvider, ioSchedulerProvider, mergePolicyFactory, mergePolicyProperties, durable, nullTypeTraits,
@@ -79,6 +80,7 @@ public class LSMInvertedIndexLocalResourceFactory extends LsmResourceFactory {
         this.filterFieldsForNonBulkLoadOps = filterFieldsForNonBulkLoadOps;
         this.invertedIndexFieldsForNonBulkLoadOps = invertedIndexFieldsForNonBulkLoadOps;
         this.bloomFilterFalsePositiveRate = bloomFilterFalsePositiveRate;
+        this.compressInvertedLists = compressInvertedLists;
     }
 
     @Override
@@ -89,7 +91,7 @@ public class LSMInvertedIndexLocalResourceFactory extends LsmResourceFactory {
                 mergePolicyFactory, mergePolicyProperties, durable, tokenTypeTraits, tokenCmpFactories,
                 tokenizerFactory, fullTextConfigEvaluatorFactory, isPartitioned, invertedIndexFields,
                 filterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps, bloomFilterFalsePositiveRate,
-                nullTypeTraits, nullIntrospector);
+                nullTypeTraits, nullIntrospector, compressInvertedLists);
     }
 
 }
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.dataflow;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.IOperatorNodePushable;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.dataflow.std.base.AbstractSingleActivityOperatorDescriptor;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
+import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriterFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluatorFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
+
+/**
+ * Searches the k documents of an LSM inverted index having the highest relevance score for the query in the query
+ * field of each input tuple. The results are returned in descending score order, as the primary keys of the document
+ * followed by its score, written by the given score writer.
+ */
+public class LSMInvertedIndexTopKSearchOperatorDescriptor extends AbstractSingleActivityOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private final int queryField;
+    private final int k;
+    private final long numDocuments;
+    private final IIndexDataflowHelperFactory indexHelperFactory;
+    private final IBinaryTokenizerFactory queryTokenizerFactory;
+    private final IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory;
+    private final IScoreWriterFactory scoreWriterFactory;
+    private final boolean retainInput;
+    private final boolean retainMissing;
+    private final IMissingWriterFactory missingWriterFactory;
+    private final ISearchOperationCallbackFactory searchCallbackFactory;
+    private final int numPrimaryKeys;
+    // the maximum number of frames that the search can use
+    private final int frameLimit;
+
+    /**
+     * @param numDocuments
+     *            the number of documents of a partition of the index, against which the inverse document frequencies
+     *            are computed, or a non-positive value if it is unknown
+     */
+    public LSMInvertedIndexTopKSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
+            int queryField, int k, long numDocuments, IIndexDataflowHelperFactory indexHelperFactory,
+            IBinaryTokenizerFactory queryTokenizerFactory,
+            IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory, IScoreWriterFactory scoreWriterFactory,
+            boolean retainInput, boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory, int numPrimaryKeys, int frameLimit) {
+        super(spec, 1, 1);
+        this.queryField = queryField;
+        this.k = k;
+        this.numDocuments = numDocuments;
+        this.indexHelperFactory = indexHelperFactory;
+        this.queryTokenizerFactory = queryTokenizerFactory;
+        this.fullTextConfigEvaluatorFactory = fullTextConfigEvaluatorFactory;
+        this.scoreWriterFactory = scoreWriterFactory;
+        this.retainInput = retainInput;
+        this.retainMissing = retainMissing;
+        this.missingWriterFactory = missingWriterFactory;
+        this.searchCallbackFactory = searchCallbackFactory;
+        this.numPrimaryKeys = numPrimaryKeys;
+        this.frameLimit = frameLimit;
+        this.outRecDescs[0] = outRecDesc;
+    }
+
+    @Override
+    public IOperatorNodePushable createPushRuntime(IHyracksTaskContext ctx,
+            IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
+        return new LSMInvertedIndexTopKSearchOperatorNodePushable(ctx,
+                recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), partition, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory, queryTokenizerFactory,
+                fullTextConfigEvaluatorFactory, scoreWriterFactory, queryField, k, numDocuments, numPrimaryKeys,
+                frameLimit);
+    }
+}
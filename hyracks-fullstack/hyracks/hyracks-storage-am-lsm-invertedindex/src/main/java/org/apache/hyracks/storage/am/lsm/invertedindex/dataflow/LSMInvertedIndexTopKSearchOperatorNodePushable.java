@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.dataflow;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
+import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriterFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluatorFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexTopKSearchPredicate;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizerFactory;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+
+public class LSMInvertedIndexTopKSearchOperatorNodePushable extends LSMInvertedIndexSearchOperatorNodePushable {
+
+    private final IScoreWriterFactory scoreWriterFactory;
+    private final int k;
+    private final long numDocuments;
+
+    public LSMInvertedIndexTopKSearchOperatorNodePushable(IHyracksTaskContext ctx, RecordDescriptor inputRecDesc,
+            int partition, IIndexDataflowHelperFactory indexHelperFactory, boolean retainInput, boolean retainMissing,
+            IMissingWriterFactory missingWriterFactory, ISearchOperationCallbackFactory searchCallbackFactory,
+            IBinaryTokenizerFactory binaryTokenizerFactory,
+            IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory, IScoreWriterFactory scoreWriterFactory,
+            int queryFieldIndex, int k, long numDocuments, int numPrimaryKeys, int frameLimit)
+            throws HyracksDataException {
+        super(ctx, inputRecDesc, partition, null, null, indexHelperFactory, retainInput, retainMissing,
+                missingWriterFactory, searchCallbackFactory, null, binaryTokenizerFactory,
+                fullTextConfigEvaluatorFactory, queryFieldIndex, false, numPrimaryKeys + 1, false, null, frameLimit);
+        this.scoreWriterFactory = scoreWriterFactory;
+        this.k = k;
+        this.numDocuments = numDocuments;
+    }
+
+    @Override
+    protected IIndexCursor createCursor() throws HyracksDataException {
+        ILSMIndexAccessor lsmAccessor = (ILSMIndexAccessor) indexAccessor;
+        return ((LSMInvertedIndex) index).createTopKSearchCursor(lsmAccessor.getOpContext(),
+                scoreWriterFactory.createScoreWriter());
+    }
+
+    @Override
+    protected ISearchPredicate createSearchPredicate() {
+        return new InvertedIndexTopKSearchPredicate(binaryTokenizerFactory.createTokenizer(),
+                fullTextConfigEvaluatorFactory.createFullTextConfigEvaluator(), k, numDocuments, minFilterKey,
+                maxFilterKey);
+    }
+}
@@ -61,6 +61,7 @@ import org.apache.hyracks.storage.am.lsm.common.impls.AbstractLSMIndexOperationC
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFileReferences;
 import org.apache.hyracks.storage.am.lsm.common.impls.LSMComponentFilterManager;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriter;
 import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluatorFactory;
 import org.apache.hyracks.storage.am.lsm.invertedindex.inmemory.InMemoryInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.inmemory.InMemoryInvertedIndexAccessor;
@@ -209,6 +210,11 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
         cursor.open(initState, pred);
     }
 
+    public LSMInvertedIndexTopKSearchCursor createTopKSearchCursor(ILSMIndexOperationContext opCtx,
+            IScoreWriter scoreWriter) {
+        return new LSMInvertedIndexTopKSearchCursor(opCtx, scoreWriter);
+    }
+
     private ICursorInitialState createCursorInitialState(ISearchPredicate pred, IIndexOperationContext ictx,
             boolean includeMutableComponent, List<ILSMComponent> operationalComponents) {
         ICursorInitialState initState;
@@ -280,8 +286,9 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
             btreeCountingCursor.destroy();
         }
 
-        ILSMDiskComponentBulkLoader componentBulkLoader = component.createBulkLoader(operation, 1.0f, false,
-                numBTreeTuples, false, false, false, pageWriteCallbackFactory.createPageWriteCallback());
+        ILSMDiskComponentBulkLoader componentBulkLoader =
+                component.createBulkLoader(operation, 1.0f, false, numBTreeTuples, false, false, false,
+                        pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
 
         // Create a scan cursor on the deleted keys BTree underlying the in-memory inverted index.
         IIndexCursor deletedKeysScanCursor = deletedKeysBTreeAccessor.createSearchCursor(false);
@@ -354,14 +361,14 @@ public class LSMInvertedIndex extends AbstractLSMIndex implements IInvertedIndex
                             .getBloomFilter().getNumElements();
                 }
                 componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, numElements, false, false,
-                        false, pageWriteCallbackFactory.createPageWriteCallback());
+                        false, pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
                 loadDeleteTuples(opCtx, btreeCursor, mergePred, componentBulkLoader);
             } finally {
                 btreeCursor.destroy();
             }
         } else {
             componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, 0L, false, false, false,
-                    pageWriteCallbackFactory.createPageWriteCallback());
+                    pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
         }
         search(opCtx, cursor, mergePred);
         try {
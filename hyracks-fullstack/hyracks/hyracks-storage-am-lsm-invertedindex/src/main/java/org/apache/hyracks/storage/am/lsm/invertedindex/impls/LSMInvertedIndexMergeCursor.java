@@ -241,8 +241,9 @@ public class LSMInvertedIndexMergeCursor extends EnforcedIndexCursor implements
 
     protected void checkPriorityQueue() throws HyracksDataException {
         checkKeyQueue();
-        if (keyQueue.isEmpty()) {
-            // if key queue is empty, we search the next token and check again
+        while (keyQueue.isEmpty() && !tokenQueue.isEmpty()) {
+            // if key queue is empty, we search the next token and check again,
+            // since all the keys of the current token may have been deleted
             searchNextToken();
             checkKeyQueue();
         }
@@ -258,7 +259,7 @@ public class LSMInvertedIndexMergeCursor extends EnforcedIndexCursor implements
                         // If the key has been deleted then pop it and set needPush to true.
                         // We cannot push immediately because the tuple may be
                         // modified if hasNext() is called
-                        outputKeyElement = checkElement;
+                        outputKeyElement = keyQueue.poll();
                         needPushElementIntoKeyQueue = true;
                     } else {
                         // we have found the next record
@@ -300,6 +301,8 @@ public class LSMInvertedIndexMergeCursor extends EnforcedIndexCursor implements
      */
     protected boolean isDeleted(PriorityQueueElement keyElement) throws HyracksDataException {
         ITupleReference keyTuple = keyElement.getTuple();
+        deletedKeyBTreeSearchPred.setLowKey(keyTuple, true);
+        deletedKeyBTreeSearchPred.setHighKey(keyTuple, true);
         int end = keyElement.getCursorIndex();
         for (int i = 0; i < end; i++) {
             if (bloomFilters[i] != null && !bloomFilters[i].contains(keyTuple, hashes)) {
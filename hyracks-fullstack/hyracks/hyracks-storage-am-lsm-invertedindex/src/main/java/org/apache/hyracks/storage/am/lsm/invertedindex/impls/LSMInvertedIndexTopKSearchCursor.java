@@ -0,0 +1,687 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.impls;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.util.GrowableArray;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.bloomfilter.impls.BloomFilter;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInPlaceInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IScoreWriter;
+import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexTopKSearchPredicate;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IToken;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexAccessor;
+import org.apache.hyracks.storage.common.IIndexCursor;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.ISearchOperationCallback;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+
+/**
+ * Searches the k documents of an {@link LSMInvertedIndex} that have the highest relevance score for the tokens of an
+ * {@link InvertedIndexTopKSearchPredicate}. The inverted lists of the query tokens are opened in all the components
+ * first, which gives the document frequency of every token, and the components are then evaluated one by one with the
+ * WAND (weak AND) algorithm, using the inverse document frequency of a token as the upper bound of the contribution of
+ * its list: the lists of a component are kept sorted by their current document and a document is only scored once the
+ * upper bounds of the lists positioned at or before it add up to more than the score of the k-th best document found
+ * so far. Otherwise, the lists behind it are moved forward to it, skipping the documents that cannot make it into the
+ * top k. The k best documents are kept in a min-heap whose minimum, the threshold, is shared by all the components.
+ * A document of a component that was deleted in a newer component is not a candidate.
+ *
+ * The lists of the disk components are read with inverted list scan cursors, which do not take frames from the buffer
+ * manager of the search, so that all of them can be open at the same time. The lists of the memory components are
+ * read one at a time and materialized, since the in-memory B-tree cursors keep their leaf pages latched.
+ *
+ * The results are returned in descending score order, as the primary keys of the document followed by its score.
+ */
+public class LSMInvertedIndexTopKSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
+
+    private final ILSMIndexOperationContext opCtx;
+    private final IScoreWriter scoreWriter;
+    private final ArrayTupleBuilder tokenBuilder = new ArrayTupleBuilder(1);
+    private final List<ArrayTupleReference> tokens = new ArrayList<>();
+    private final List<PostingList> activeLists = new ArrayList<>();
+    private final PriorityQueue<Result> topK = new PriorityQueue<>((a, b) -> Double.compare(a.score, b.score));
+    private final long[] hashes = BloomFilter.createHashArray();
+    private ILSMHarness harness;
+    private List<ILSMComponent> operationalComponents;
+    private MultiComparator keyCmp;
+    private ISearchOperationCallback searchCallback;
+    private IIndexAccessor[] indexAccessors;
+    private IIndexAccessor[] deletedKeysBTreeAccessors;
+    private IIndexCursor[] deletedKeysBTreeCursors;
+    private BloomFilter[] deletedKeysBTreeBloomFilters;
+    private RangePredicate keySearchPred;
+    private PostingList[][] lists;
+    private int k;
+    private Result[] results;
+    private int numResults;
+    private int nextResult;
+    private Result current;
+    private boolean open;
+
+    public LSMInvertedIndexTopKSearchCursor(ILSMIndexOperationContext opCtx, IScoreWriter scoreWriter) {
+        this.opCtx = opCtx;
+        this.scoreWriter = scoreWriter;
+    }
+
+    @Override
+    protected void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        LSMInvertedIndexSearchCursorInitialState lsmInitState = (LSMInvertedIndexSearchCursorInitialState) initialState;
+        InvertedIndexTopKSearchPredicate pred = (InvertedIndexTopKSearchPredicate) searchPred;
+        harness = lsmInitState.getLSMHarness();
+        operationalComponents = lsmInitState.getOperationalComponents();
+        keyCmp = lsmInitState.getKeyComparator();
+        searchCallback = lsmInitState.getSearchOperationCallback();
+        keySearchPred = new RangePredicate(null, null, true, true, keyCmp, keyCmp);
+        k = pred.getK();
+        numResults = 0;
+        nextResult = 0;
+        current = null;
+        open = true;
+        try {
+            openComponents(((LSMInvertedIndexOpContext) lsmInitState.getOpContext()).getIndexAccessParameters());
+            tokenizeQuery(pred);
+            if (k > 0 && !tokens.isEmpty()) {
+                openInvertedLists();
+                computeUpperBounds(pred.getNumDocuments());
+                for (int i = 0; i < lists.length; i++) {
+                    searchComponent(i);
+                }
+            }
+            collectResults();
+        } catch (Throwable th) { // NOSONAR: Must catch all failures
+            // the harness exits the components when the search fails
+            open = false;
+            try {
+                closeInvertedLists();
+            } catch (Throwable closeFailure) { // NOSONAR: Must catch all failures
+                th.addSuppressed(closeFailure);
+            }
+            Throwable destroyFailure = destroyAccessors(null);
+            if (destroyFailure != null) {
+                th.addSuppressed(destroyFailure);
+            }
+            throw HyracksDataException.create(th);
+        }
+        closeInvertedLists();
+    }
+
+    private void openComponents(IIndexAccessParameters iap) throws HyracksDataException {
+        int numComponents = operationalComponents.size();
+        indexAccessors = new IIndexAccessor[numComponents];
+        deletedKeysBTreeAccessors = new IIndexAccessor[numComponents];
+        deletedKeysBTreeCursors = new IIndexCursor[numComponents];
+        deletedKeysBTreeBloomFilters = new BloomFilter[numComponents];
+        for (int i = 0; i < numComponents; i++) {
+            ILSMComponent component = operationalComponents.get(i);
+            indexAccessors[i] = component.getIndex().createAccessor(iap);
+            if (component.getType() == LSMComponentType.MEMORY) {
+                deletedKeysBTreeAccessors[i] = ((LSMInvertedIndexMemoryComponent) component).getBuddyIndex()
+                        .createAccessor(NoOpIndexAccessParameters.INSTANCE);
+            } else {
+                deletedKeysBTreeAccessors[i] = ((LSMInvertedIndexDiskComponent) component).getBuddyIndex()
+                        .createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                deletedKeysBTreeBloomFilters[i] = ((LSMInvertedIndexDiskComponent) component).getBloomFilter();
+            }
+            deletedKeysBTreeCursors[i] = deletedKeysBTreeAccessors[i].createSearchCursor(false);
+        }
+    }
+
+    /**
+     * Tokenizes the query with the full-text configuration of the index. A token occurring several times in the query
+     * is only kept once.
+     */
+    private void tokenizeQuery(InvertedIndexTopKSearchPredicate pred) throws HyracksDataException {
+        tokens.clear();
+        ITupleReference queryTuple = pred.getQueryTuple();
+        int queryFieldIndex = pred.getQueryFieldIndex();
+        IFullTextConfigEvaluator fullTextAnalyzer = pred.getFullTextConfigEvaluator();
+        fullTextAnalyzer.setTokenizer(pred.getQueryTokenizer());
+        fullTextAnalyzer.reset(queryTuple.getFieldData(queryFieldIndex), queryTuple.getFieldStart(queryFieldIndex),
+                queryTuple.getFieldLength(queryFieldIndex));
+        while (fullTextAnalyzer.hasNext()) {
+            fullTextAnalyzer.next();
+            IToken token = fullTextAnalyzer.getToken();
+            tokenBuilder.reset();
+            try {
+                token.serializeToken(tokenBuilder.getFieldData());
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            tokenBuilder.addFieldEndOffset();
+            byte[] tokenBytes = Arrays.copyOf(tokenBuilder.getByteArray(), tokenBuilder.getSize());
+            if (!containsToken(tokenBytes)) {
+                ArrayTupleReference tokenTuple = new ArrayTupleReference();
+                tokenTuple.reset(new int[] { tokenBytes.length }, tokenBytes);
+                tokens.add(tokenTuple);
+            }
+        }
+    }
+
+    private boolean containsToken(byte[] tokenBytes) {
+        for (ArrayTupleReference token : tokens) {
+            if (Arrays.equals(token.getFieldData(0), tokenBytes)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void openInvertedLists() throws HyracksDataException {
+        lists = new PostingList[operationalComponents.size()][tokens.size()];
+        for (int i = 0; i < lists.length; i++) {
+            ILSMComponent component = operationalComponents.get(i);
+            IInvertedIndexAccessor accessor = (IInvertedIndexAccessor) indexAccessors[i];
+            for (int j = 0; j < tokens.size(); j++) {
+                if (component.getType() == LSMComponentType.MEMORY) {
+                    lists[i][j] = materialize(accessor, tokens.get(j));
+                } else {
+                    IInPlaceInvertedIndex index = ((LSMInvertedIndexDiskComponent) component).getIndex();
+                    IInvertedListCursor listCursor = index.createInvertedListRangeSearchCursor(getCursorStats());
+                    accessor.openInvertedListCursor(listCursor, tokens.get(j));
+                    lists[i][j] = new PostingList(listCursor);
+                    if (listCursor.size() > 0) {
+                        listCursor.prepareLoadPages();
+                        listCursor.loadPages();
+                        lists[i][j].loaded = true;
+                    }
+                }
+            }
+        }
+    }
+
+    private IIndexCursorStats getCursorStats() {
+        return (IIndexCursorStats) ((LSMInvertedIndexOpContext) opCtx).getIndexAccessParameters().getParameters()
+                .getOrDefault(HyracksConstants.INDEX_CURSOR_STATS, NoOpIndexCursorStats.INSTANCE);
+    }
+
+    private PostingList materialize(IInvertedIndexAccessor accessor, ITupleReference token)
+            throws HyracksDataException {
+        IInvertedListCursor listCursor = accessor.createInvertedListCursor();
+        accessor.openInvertedListCursor(listCursor, token);
+        try {
+            MaterializedInvertedList elements = new MaterializedInvertedList(keyCmp.getKeyFieldCount());
+            listCursor.prepareLoadPages();
+            listCursor.loadPages();
+            try {
+                while (listCursor.hasNext()) {
+                    listCursor.next();
+                    elements.add(listCursor.getTuple());
+                }
+            } finally {
+                listCursor.unloadPages();
+            }
+            return new PostingList(elements);
+        } finally {
+            listCursor.close();
+        }
+    }
+
+    /**
+     * Computes the inverse document frequency of every token, which is both the contribution of the token to the
+     * score of a document and the upper bound of its list, and is the same in all the components.
+     */
+    private void computeUpperBounds(long numDocuments) throws HyracksDataException {
+        long[] documentFrequencies = new long[tokens.size()];
+        long totalFrequency = 0;
+        for (int j = 0; j < tokens.size(); j++) {
+            for (PostingList[] componentLists : lists) {
+                documentFrequencies[j] += componentLists[j].size();
+            }
+            totalFrequency += documentFrequencies[j];
+        }
+        long n = numDocuments > 0 ? numDocuments : totalFrequency;
+        for (int j = 0; j < tokens.size(); j++) {
+            double idf = inverseDocumentFrequency(documentFrequencies[j], Math.max(n, documentFrequencies[j]));
+            for (PostingList[] componentLists : lists) {
+                componentLists[j].upperBound = idf;
+            }
+        }
+    }
+
+    /**
+     * @return the BM25 inverse document frequency of a token found in {@code df} out of {@code n} documents
+     */
+    public static double inverseDocumentFrequency(long df, long n) {
+        return Math.log(1 + (n - df + 0.5) / (df + 0.5));
+    }
+
+    private void searchComponent(int component) throws HyracksDataException {
+        activeLists.clear();
+        for (PostingList list : lists[component]) {
+            if (list.advance()) {
+                activeLists.add(list);
+            }
+        }
+        sortActiveLists();
+        while (!activeLists.isEmpty()) {
+            double threshold = topK.size() < k ? 0 : topK.peek().score;
+            int pivot = findPivot(threshold);
+            if (pivot < 0) {
+                // the remaining documents cannot score higher than the threshold
+                return;
+            }
+            ITupleReference pivotDocument = activeLists.get(pivot).current;
+            if (keyCmp.compare(activeLists.get(0).current, pivotDocument) == 0) {
+                // all the lists up to the pivot, and maybe some after it, are positioned at the pivot document
+                int numMatches = 0;
+                double score = 0;
+                while (numMatches < activeLists.size()
+                        && keyCmp.compare(activeLists.get(numMatches).current, pivotDocument) == 0) {
+                    score += activeLists.get(numMatches).upperBound;
+                    numMatches++;
+                }
+                offer(pivotDocument, score, component);
+                for (int i = 0; i < numMatches; i++) {
+                    activeLists.get(i).advance();
+                }
+            } else {
+                for (int i = 0; i < pivot; i++) {
+                    activeLists.get(i).skipTo(pivotDocument, keyCmp);
+                }
+            }
+            activeLists.removeIf(PostingList::isExhausted);
+            sortActiveLists();
+        }
+    }
+
+    private int findPivot(double threshold) {
+        double upperBound = 0;
+        for (int i = 0; i < activeLists.size(); i++) {
+            upperBound += activeLists.get(i).upperBound;
+            if (upperBound > threshold) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void sortActiveLists() throws HyracksDataException {
+        // insertion sort: there are few lists and most of them stay in place
+        for (int i = 1; i < activeLists.size(); i++) {
+            PostingList list = activeLists.get(i);
+            int j = i - 1;
+            while (j >= 0 && keyCmp.compare(activeLists.get(j).current, list.current) > 0) {
+                activeLists.set(j + 1, activeLists.get(j));
+                j--;
+            }
+            activeLists.set(j + 1, list);
+        }
+    }
+
+    private void offer(ITupleReference document, double score, int component) throws HyracksDataException {
+        if (topK.size() >= k && score <= topK.peek().score) {
+            return;
+        }
+        boolean proceed = operationalComponents.get(component).getType() != LSMComponentType.MEMORY || component > 0
+                || searchCallback.proceed(document);
+        if (!proceed) {
+            searchCallback.reconcile(document);
+        }
+        if (isDeleted(document, component)) {
+            if (!proceed) {
+                searchCallback.cancel(document);
+            }
+            return;
+        }
+        Result result = topK.size() < k ? new Result(keyCmp.getKeyFieldCount()) : topK.poll();
+        result.set(document, score, component);
+        topK.add(result);
+    }
+
+    private boolean isDeleted(ITupleReference key, int component) throws HyracksDataException {
+        keySearchPred.setLowKey(key, true);
+        keySearchPred.setHighKey(key, true);
+        for (int i = 0; i < component; i++) {
+            if (deletedKeysBTreeBloomFilters[i] != null && !deletedKeysBTreeBloomFilters[i].contains(key, hashes)) {
+                continue;
+            }
+            deletedKeysBTreeCursors[i].close();
+            try {
+                deletedKeysBTreeAccessors[i].search(deletedKeysBTreeCursors[i], keySearchPred);
+                if (deletedKeysBTreeCursors[i].hasNext()) {
+                    return true;
+                }
+            } finally {
+                deletedKeysBTreeCursors[i].close();
+            }
+        }
+        return false;
+    }
+
+    private void collectResults() throws HyracksDataException {
+        numResults = topK.size();
+        results = new Result[numResults];
+        for (int i = numResults - 1; i >= 0; i--) {
+            results[i] = topK.poll();
+            results[i].appendScore(scoreWriter);
+        }
+    }
+
+    private void closeInvertedLists() throws HyracksDataException {
+        activeLists.clear();
+        if (lists == null) {
+            return;
+        }
+        Throwable failure = null;
+        for (PostingList[] componentLists : lists) {
+            for (PostingList list : componentLists) {
+                if (list != null) {
+                    try {
+                        list.close();
+                    } catch (Throwable th) { // NOSONAR: Must catch all failures
+                        failure = failure == null ? th : failure;
+                    }
+                }
+            }
+        }
+        lists = null;
+        if (failure != null) {
+            throw HyracksDataException.create(failure);
+        }
+    }
+
+    @Override
+    protected boolean doHasNext() throws HyracksDataException {
+        return nextResult < numResults;
+    }
+
+    @Override
+    protected void doNext() throws HyracksDataException {
+        current = results[nextResult++];
+    }
+
+    @Override
+    protected ITupleReference doGetTuple() {
+        return current.tuple;
+    }
+
+    /**
+     * @return the relevance score of the current document
+     */
+    public double getScore() {
+        return current.score;
+    }
+
+    @Override
+    public ITupleReference getFilterMinTuple() {
+        ILSMComponentFilter filter = getComponentFilter();
+        return filter == null ? null : filter.getMinTuple();
+    }
+
+    @Override
+    public ITupleReference getFilterMaxTuple() {
+        ILSMComponentFilter filter = getComponentFilter();
+        return filter == null ? null : filter.getMaxTuple();
+    }
+
+    private ILSMComponentFilter getComponentFilter() {
+        return current == null ? null : operationalComponents.get(current.component).getLSMComponentFilter();
+    }
+
+    @Override
+    public boolean getSearchOperationCallbackProceedResult() {
+        return false;
+    }
+
+    @Override
+    protected void doClose() throws HyracksDataException {
+        if (!open) {
+            return;
+        }
+        topK.clear();
+        results = null;
+        numResults = 0;
+        nextResult = 0;
+        current = null;
+        try {
+            closeInvertedLists();
+        } finally {
+            try {
+                Throwable failure = destroyAccessors(null);
+                if (failure != null) {
+                    throw HyracksDataException.create(failure);
+                }
+            } finally {
+                open = false;
+                harness.endSearch(opCtx);
+            }
+        }
+    }
+
+    private Throwable destroyAccessors(Throwable root) {
+        if (indexAccessors != null) {
+            for (int i = 0; i < indexAccessors.length; i++) {
+                root = destroy(indexAccessors[i], root);
+                root = destroy(deletedKeysBTreeAccessors[i], root);
+            }
+            indexAccessors = null;
+            deletedKeysBTreeAccessors = null;
+        }
+        return root;
+    }
+
+    private static Throwable destroy(IIndexAccessor accessor, Throwable root) {
+        if (accessor != null) {
+            try {
+                accessor.destroy();
+            } catch (Throwable th) { // NOSONAR: Must catch all failures
+                root = root == null ? th : root;
+            }
+        }
+        return root;
+    }
+
+    @Override
+    protected void doDestroy() throws HyracksDataException {
+        doClose();
+    }
+
+    /**
+     * An inverted list of a component, read either through an inverted list cursor or from its materialized elements.
+     */
+    private static class PostingList {
+        private final IInvertedListCursor cursor;
+        private final MaterializedInvertedList elements;
+        private boolean loaded;
+        private double upperBound;
+        private ITupleReference current;
+
+        PostingList(IInvertedListCursor cursor) {
+            this.cursor = cursor;
+            this.elements = null;
+        }
+
+        PostingList(MaterializedInvertedList elements) {
+            this.cursor = null;
+            this.elements = elements;
+        }
+
+        int size() throws HyracksDataException {
+            return cursor != null ? cursor.size() : elements.numElements;
+        }
+
+        /**
+         * Moves to the next element of the list.
+         *
+         * @return false if the list is exhausted
+         */
+        boolean advance() throws HyracksDataException {
+            if (cursor != null) {
+                if (loaded && cursor.hasNext()) {
+                    cursor.next();
+                    current = cursor.getTuple();
+                } else {
+                    current = null;
+                }
+            } else {
+                current = elements.next() ? elements : null;
+            }
+            return current != null;
+        }
+
+        void skipTo(ITupleReference document, MultiComparator keyCmp) throws HyracksDataException {
+            while (current != null && keyCmp.compare(current, document) < 0) {
+                advance();
+            }
+        }
+
+        boolean isExhausted() {
+            return current == null;
+        }
+
+        void close() throws HyracksDataException {
+            current = null;
+            if (cursor == null) {
+                return;
+            }
+            try {
+                if (loaded) {
+                    loaded = false;
+                    cursor.unloadPages();
+                }
+            } finally {
+                try {
+                    cursor.close();
+                } finally {
+                    cursor.destroy();
+                }
+            }
+        }
+    }
+
+    /**
+     * The elements of an inverted list copied one after the other in a single array. The list is also the tuple
+     * reference of its current element.
+     */
+    private static class MaterializedInvertedList implements ITupleReference {
+        private final int numFields;
+        private final GrowableArray data = new GrowableArray();
+        // the end offset of every field of every element, the start offset of a field being the end of the previous one
+        private int[] fieldEndOffsets = new int[32];
+        private int numElements;
+        private int element = -1;
+
+        MaterializedInvertedList(int numFields) {
+            this.numFields = numFields;
+        }
+
+        void add(ITupleReference tuple) throws HyracksDataException {
+            int offset = numElements * numFields;
+            if (offset + numFields > fieldEndOffsets.length) {
+                fieldEndOffsets =
+                        Arrays.copyOf(fieldEndOffsets, Math.max(2 * fieldEndOffsets.length, offset + numFields));
+            }
+            try {
+                for (int i = 0; i < numFields; i++) {
+                    data.append(tuple.getFieldData(i), tuple.getFieldStart(i), tuple.getFieldLength(i));
+                    fieldEndOffsets[offset + i] = data.getLength();
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            numElements++;
+        }
+
+        boolean next() {
+            if (element + 1 >= numElements) {
+                return false;
+            }
+            element++;
+            return true;
+        }
+
+        @Override
+        public int getFieldCount() {
+            return numFields;
+        }
+
+        @Override
+        public byte[] getFieldData(int fIdx) {
+            return data.getByteArray();
+        }
+
+        @Override
+        public int getFieldStart(int fIdx) {
+            int offset = element * numFields + fIdx;
+            return offset == 0 ? 0 : fieldEndOffsets[offset - 1];
+        }
+
+        @Override
+        public int getFieldLength(int fIdx) {
+            return fieldEndOffsets[element * numFields + fIdx] - getFieldStart(fIdx);
+        }
+    }
+
+    /**
+     * A document of the top k, with the copy of its primary keys, to which its score is appended once the search ends.
+     */
+    private static class Result {
+        private final int numKeyFields;
+        private final ArrayTupleBuilder builder;
+        private final ArrayTupleReference tuple = new ArrayTupleReference();
+        private double score;
+        private int component;
+
+        Result(int numKeyFields) {
+            this.numKeyFields = numKeyFields;
+            builder = new ArrayTupleBuilder(numKeyFields + 1);
+        }
+
+        void set(ITupleReference document, double score, int component) throws HyracksDataException {
+            builder.reset();
+            for (int i = 0; i < numKeyFields; i++) {
+                builder.addField(document, i);
+            }
+            this.score = score;
+            this.component = component;
+        }
+
+        void appendScore(IScoreWriter scoreWriter) throws HyracksDataException {
+            scoreWriter.writeScore(score, builder.getDataOutput());
+            builder.addFieldEndOffset();
+            tuple.reset(builder.getFieldEndOffsets(), builder.getByteArray());
+        }
+    }
+}
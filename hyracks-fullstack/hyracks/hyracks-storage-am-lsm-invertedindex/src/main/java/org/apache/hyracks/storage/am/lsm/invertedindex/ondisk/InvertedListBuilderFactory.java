@@ -23,6 +23,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.storage.am.common.api.INullIntrospector;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListBuilder;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListBuilderFactory;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedInvertedListBuilder;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.fixedsize.FixedSizeElementInvertedListBuilder;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.variablesize.VariableSizeElementInvertedListBuilder;
 import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
@@ -34,20 +35,33 @@ public class InvertedListBuilderFactory implements IInvertedListBuilderFactory {
     private final boolean isFixedSize;
     private final ITypeTraits nullTypeTraits;
     private final INullIntrospector nullIntrospector;
+    private final boolean compressInvLists;
 
     public InvertedListBuilderFactory(ITypeTraits[] tokenTypeTraits, ITypeTraits[] invListFields,
             ITypeTraits nullTypeTraits, INullIntrospector nullIntrospector) {
+        this(tokenTypeTraits, invListFields, nullTypeTraits, nullIntrospector, false);
+    }
+
+    /**
+     * @param compressInvLists
+     *            whether to build compressed inverted lists. Only lists of fixed-size elements are compressed.
+     */
+    public InvertedListBuilderFactory(ITypeTraits[] tokenTypeTraits, ITypeTraits[] invListFields,
+            ITypeTraits nullTypeTraits, INullIntrospector nullIntrospector, boolean compressInvLists) {
         this.tokenTypeTraits = tokenTypeTraits;
         this.invListFields = invListFields;
         this.nullTypeTraits = nullTypeTraits;
         this.nullIntrospector = nullIntrospector;
+        this.compressInvLists = compressInvLists;
 
         isFixedSize = InvertedIndexUtils.checkTypeTraitsAllFixed(invListFields);
     }
 
     @Override
     public IInvertedListBuilder create() throws HyracksDataException {
-        if (isFixedSize) {
+        if (isFixedSize && compressInvLists) {
+            return new CompressedInvertedListBuilder(invListFields);
+        } else if (isFixedSize) {
             return new FixedSizeElementInvertedListBuilder(invListFields);
         } else {
             return new VariableSizeElementInvertedListBuilder(tokenTypeTraits, invListFields, nullTypeTraits,
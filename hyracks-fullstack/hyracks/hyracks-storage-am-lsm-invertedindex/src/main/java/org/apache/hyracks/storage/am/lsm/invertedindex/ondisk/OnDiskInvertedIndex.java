@@ -30,6 +30,7 @@ import org.apache.hyracks.api.exceptions.HyracksDataException;
 import org.apache.hyracks.api.io.FileReference;
 import org.apache.hyracks.api.util.HyracksConstants;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
 import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
@@ -41,8 +42,11 @@ import org.apache.hyracks.storage.am.btree.impls.DiskBTree;
 import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
 import org.apache.hyracks.storage.am.btree.util.BTreeUtils;
 import org.apache.hyracks.storage.am.common.api.IIndexOperationContext;
+import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
 import org.apache.hyracks.storage.am.common.api.INullIntrospector;
+import org.apache.hyracks.storage.am.common.api.IPageManager;
 import org.apache.hyracks.storage.am.common.api.IPageManagerFactory;
+import org.apache.hyracks.storage.am.common.freepage.MutableArrayValueReference;
 import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInPlaceInvertedIndex;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
@@ -50,6 +54,8 @@ import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexSearche
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListBuilder;
 import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndexSearchCursorInitialState;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedInvertedListBuilder;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedOnDiskInvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.fixedsize.FixedSizeElementInvertedListScanCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.fixedsize.FixedSizeElementOnDiskInvertedListCursor;
 import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.variablesize.VariableSizeElementOnDiskInvertedListCursor;
@@ -99,6 +105,9 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
         // numElements
         btreeValueTypeTraits[3] = IntegerPointable.TYPE_TRAITS;
     }
+    // Key of the metadata entry of the BTree that marks the inverted lists as compressed
+    private static final MutableArrayValueReference COMPRESSED_INV_LISTS_KEY =
+            new MutableArrayValueReference("CompressedInvertedLists".getBytes());
 
     protected DiskBTree btree;
     protected int rootPageId = 0;
@@ -118,6 +127,9 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
     protected int invListsMaxPageId = -1;
     protected boolean isOpen = false;
     protected boolean wasOpen = false;
+    // Whether the inverted lists are compressed. Each index records it in its BTree metadata since the disk
+    // components of an LSM index written before compression was enabled keep the uncompressed format.
+    protected boolean compressedInvLists = false;
 
     public OnDiskInvertedIndex(IBufferCache bufferCache, IInvertedListBuilder invListBuilder,
             ITypeTraits[] invListTypeTraits, IBinaryComparatorFactory[] invListCmpFactories,
@@ -164,6 +176,7 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
         } else {
             fileId = bufferCache.openFile(invListsFile);
         }
+        compressedInvLists = readCompressedInvLists();
         isOpen = true;
         wasOpen = true;
     }
@@ -199,9 +212,37 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
         bufferCache.openFile(fileId);
     }
 
+    private boolean readCompressedInvLists() throws HyracksDataException {
+        IPageManager pageManager = btree.getPageManager();
+        if (!(pageManager instanceof IMetadataPageManager)) {
+            return false;
+        }
+        IMetadataPageManager metadataPageManager = (IMetadataPageManager) pageManager;
+        ArrayBackedValueStorage value = new ArrayBackedValueStorage();
+        metadataPageManager.get(metadataPageManager.createMetadataFrame(), COMPRESSED_INV_LISTS_KEY, value);
+        return value.getLength() > 0 && value.getByteArray()[value.getStartOffset()] != 0;
+    }
+
+    private void writeCompressedInvLists() throws HyracksDataException {
+        IPageManager pageManager = btree.getPageManager();
+        if (!(pageManager instanceof IMetadataPageManager)) {
+            throw new HyracksDataException("Cannot record the format of the compressed inverted lists");
+        }
+        IMetadataPageManager metadataPageManager = (IMetadataPageManager) pageManager;
+        metadataPageManager.put(metadataPageManager.createMetadataFrame(), COMPRESSED_INV_LISTS_KEY,
+                new MutableArrayValueReference(new byte[] { 1 }));
+    }
+
+    public boolean isCompressedInvLists() {
+        return compressedInvLists;
+    }
+
     @Override
     public IInvertedListCursor createInvertedListCursor(IHyracksTaskContext ctx) throws HyracksDataException {
-        if (InvertedIndexUtils.checkTypeTraitsAllFixed(invListTypeTraits)) {
+        if (compressedInvLists) {
+            return new CompressedOnDiskInvertedListCursor(bufferCache, fileId, invListTypeTraits, ctx,
+                    NoOpIndexCursorStats.INSTANCE, nullTypeTraits, nullIntrospector);
+        } else if (InvertedIndexUtils.checkTypeTraitsAllFixed(invListTypeTraits)) {
             return new FixedSizeElementOnDiskInvertedListCursor(bufferCache, fileId, invListTypeTraits, ctx,
                     NoOpIndexCursorStats.INSTANCE, nullTypeTraits, nullIntrospector);
         } else {
@@ -213,7 +254,10 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
     @Override
     public IInvertedListCursor createInvertedListRangeSearchCursor(IIndexCursorStats stats)
             throws HyracksDataException {
-        if (InvertedIndexUtils.checkTypeTraitsAllFixed(invListTypeTraits)) {
+        if (compressedInvLists) {
+            return new CompressedOnDiskInvertedListCursor(bufferCache, fileId, invListTypeTraits, stats,
+                    nullTypeTraits, nullIntrospector);
+        } else if (InvertedIndexUtils.checkTypeTraitsAllFixed(invListTypeTraits)) {
             return new FixedSizeElementInvertedListScanCursor(bufferCache, fileId, invListTypeTraits, stats);
         } else {
             return new VariableSizeElementOnDiskInvertedListCursor(bufferCache, fileId, invListTypeTraits, stats,
@@ -298,6 +342,7 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
             currentPage = bufferCache.confiscatePage(BufferedFileHandle.getDiskPageId(fileId, currentPageId));
             invListBuilder.setTargetBuffer(currentPage.getBuffer().array(), 0);
             queue = bufferCache.createFIFOWriter(callback, this);
+            compressedInvLists = invListBuilder instanceof CompressedInvertedListBuilder;
         }
 
         protected void pinNextPage() throws HyracksDataException {
@@ -377,6 +422,9 @@ public class OnDiskInvertedIndex implements IInPlaceInvertedIndex {
             if (btreeTupleBuilder.getSize() != 0) {
                 insertBTreeTuple();
             }
+            if (compressedInvLists) {
+                writeCompressedInvLists();
+            }
 
             btreeBulkloader.end();
 
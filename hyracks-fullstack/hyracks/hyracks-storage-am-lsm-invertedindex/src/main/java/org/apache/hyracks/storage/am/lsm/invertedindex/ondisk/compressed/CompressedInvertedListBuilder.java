@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed;
+
+import static org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedInvertedListUtils.BLOCK_SIZE;
+
+import java.util.Arrays;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.AbstractInvertedListBuilder;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
+
+/**
+ * Builds inverted lists of fixed-size elements in blocks of delta encoded, bit-packed elements
+ * (see {@link CompressedInvertedListUtils}). The current block is always kept complete in the target buffer: an
+ * appended element updates its header and its packed deltas in place, and all of them are packed again when the
+ * element needs a larger bit width. A block is closed when it is full, when the element does not fit in the page or
+ * when the element cannot be delta encoded against the previous one.
+ */
+public class CompressedInvertedListBuilder extends AbstractInvertedListBuilder {
+    private final int elementSize;
+    private final int headerSize;
+    private final byte[] element;
+    private final byte[] lastElement;
+    private final long[] deltas = new long[BLOCK_SIZE - 1];
+    // The offset of the current block in the target buffer or -1 if there is no current block
+    private int blockStart = -1;
+    private int blockCount;
+    private int bitWidth;
+
+    public CompressedInvertedListBuilder(ITypeTraits[] invListFields) throws HyracksDataException {
+        super(invListFields);
+        InvertedIndexUtils.verifyAllFixedSizeTypeTrait(invListFields);
+
+        int tmp = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            tmp += invListFields[i].getFixedLength();
+        }
+        elementSize = tmp;
+        headerSize = CompressedInvertedListUtils.getHeaderSize(elementSize);
+        element = new byte[elementSize];
+        lastElement = new byte[elementSize];
+    }
+
+    @Override
+    public void setTargetBuffer(byte[] targetBuf, int startPos) {
+        super.setTargetBuffer(targetBuf, startPos);
+        blockStart = -1;
+    }
+
+    @Override
+    public boolean startNewList(ITupleReference tuple, int numTokenFields) {
+        blockStart = -1;
+        if (!hasRoomForBlock()) {
+            return false;
+        }
+        listSize = 0;
+        return true;
+    }
+
+    @Override
+    public boolean appendElement(ITupleReference tuple, int numTokenFields, int numElementFields) {
+        int off = 0;
+        for (int i = 0; i < numElementFields; i++) {
+            int field = numTokenFields + i;
+            System.arraycopy(tuple.getFieldData(field), tuple.getFieldStart(field), element, off,
+                    tuple.getFieldLength(field));
+            off += tuple.getFieldLength(field);
+        }
+        if (!appendToBlock() && !startBlock()) {
+            return false;
+        }
+        System.arraycopy(element, 0, lastElement, 0, elementSize);
+        listSize++;
+        return true;
+    }
+
+    private boolean appendToBlock() {
+        if (blockStart < 0 || blockCount == BLOCK_SIZE
+                || !CompressedInvertedListUtils.hasSamePrefix(lastElement, 0, element, 0, elementSize)) {
+            return false;
+        }
+        long delta = CompressedInvertedListUtils.getDelta(lastElement, 0, element, 0, elementSize);
+        int newBitWidth = Math.max(bitWidth, CompressedInvertedListUtils.getBitWidth(delta));
+        int newBlockEnd =
+                blockStart + CompressedInvertedListUtils.getBlockSize(elementSize, blockCount + 1, newBitWidth);
+        if (newBlockEnd > targetBuf.length) {
+            return false;
+        }
+        int packedOff = blockStart + headerSize;
+        deltas[blockCount - 1] = delta;
+        if (newBitWidth != bitWidth) {
+            // Packs the deltas of the block again with the larger width.
+            Arrays.fill(targetBuf, packedOff, newBlockEnd, (byte) 0);
+            for (int i = 0; i < blockCount; i++) {
+                CompressedInvertedListUtils.writeDelta(targetBuf, packedOff, i, newBitWidth, deltas[i]);
+            }
+            bitWidth = newBitWidth;
+            CompressedInvertedListUtils.setBitWidth(targetBuf, blockStart, bitWidth);
+        } else {
+            Arrays.fill(targetBuf, pos, newBlockEnd, (byte) 0);
+            CompressedInvertedListUtils.writeDelta(targetBuf, packedOff, blockCount - 1, bitWidth, delta);
+        }
+        blockCount++;
+        CompressedInvertedListUtils.setCount(targetBuf, blockStart, blockCount);
+        System.arraycopy(element, 0, targetBuf, CompressedInvertedListUtils.getLastElementOff(blockStart),
+                elementSize);
+        pos = newBlockEnd;
+        return true;
+    }
+
+    private boolean startBlock() {
+        blockStart = -1;
+        if (!hasRoomForBlock()) {
+            return false;
+        }
+        blockStart = pos;
+        blockCount = 1;
+        bitWidth = 0;
+        CompressedInvertedListUtils.setCount(targetBuf, blockStart, blockCount);
+        CompressedInvertedListUtils.setBitWidth(targetBuf, blockStart, bitWidth);
+        System.arraycopy(element, 0, targetBuf, CompressedInvertedListUtils.getLastElementOff(blockStart),
+                elementSize);
+        System.arraycopy(element, 0, targetBuf,
+                CompressedInvertedListUtils.getFirstElementOff(blockStart, elementSize), elementSize);
+        pos += headerSize;
+        return true;
+    }
+
+    private boolean hasRoomForBlock() {
+        if (pos + headerSize <= targetBuf.length) {
+            return true;
+        }
+        if (pos + Short.BYTES <= targetBuf.length) {
+            // Marks the end of the blocks of this page for the cursors.
+            CompressedInvertedListUtils.setCount(targetBuf, pos, 0);
+        }
+        return false;
+    }
+
+    @Override
+    public boolean isFixedSize() {
+        return true;
+    }
+}
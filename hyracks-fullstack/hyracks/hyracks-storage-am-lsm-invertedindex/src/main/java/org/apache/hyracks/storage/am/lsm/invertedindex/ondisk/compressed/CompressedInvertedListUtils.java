@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed;
+
+/**
+ * The layout of a compressed inverted list. The elements of a list (all fixed-size) are stored in blocks of at most
+ * {@link #BLOCK_SIZE} elements which never span pages:
+ *
+ * <pre>
+ * [count (short)][bit width (byte)][last element][first element][packed deltas]
+ * </pre>
+ *
+ * The last element is the skip entry of the block: a cursor looking for a greater element skips the block without
+ * decoding it. Every element after the first one is stored as the difference between its trailing (at most
+ * {@link Long#BYTES}) bytes and those of the previous element, read as an unsigned big-endian integer, bit-packed
+ * with the width of the largest difference of the block. The leading bytes of the elements of a block (e.g. a type
+ * tag) are the same, an element with different leading bytes starts a new block. A count of 0, or too little space
+ * left for a block header, ends the blocks of a page.
+ */
+public class CompressedInvertedListUtils {
+
+    public static final int BLOCK_SIZE = 128;
+    private static final int COUNT_OFF = 0;
+    private static final int BIT_WIDTH_OFF = COUNT_OFF + Short.BYTES;
+    private static final int LAST_ELEMENT_OFF = BIT_WIDTH_OFF + 1;
+
+    private CompressedInvertedListUtils() {
+    }
+
+    public static int getHeaderSize(int elementSize) {
+        return LAST_ELEMENT_OFF + 2 * elementSize;
+    }
+
+    public static int getBlockSize(int elementSize, int count, int bitWidth) {
+        return getHeaderSize(elementSize) + getPackedSize(count - 1, bitWidth);
+    }
+
+    public static int getPackedSize(int numDeltas, int bitWidth) {
+        return (int) (((long) numDeltas * bitWidth + Byte.SIZE - 1) / Byte.SIZE);
+    }
+
+    public static int getCount(byte[] buf, int blockOff) {
+        return ((buf[blockOff + COUNT_OFF] & 0xff) << 8) | (buf[blockOff + COUNT_OFF + 1] & 0xff);
+    }
+
+    public static void setCount(byte[] buf, int blockOff, int count) {
+        buf[blockOff + COUNT_OFF] = (byte) (count >>> 8);
+        buf[blockOff + COUNT_OFF + 1] = (byte) count;
+    }
+
+    public static int getBitWidth(byte[] buf, int blockOff) {
+        return buf[blockOff + BIT_WIDTH_OFF];
+    }
+
+    public static void setBitWidth(byte[] buf, int blockOff, int bitWidth) {
+        buf[blockOff + BIT_WIDTH_OFF] = (byte) bitWidth;
+    }
+
+    public static int getLastElementOff(int blockOff) {
+        return blockOff + LAST_ELEMENT_OFF;
+    }
+
+    public static int getFirstElementOff(int blockOff, int elementSize) {
+        return blockOff + LAST_ELEMENT_OFF + elementSize;
+    }
+
+    public static int getPackedOff(int blockOff, int elementSize) {
+        return blockOff + getHeaderSize(elementSize);
+    }
+
+    /**
+     * @return whether the two elements have the same leading bytes, i.e. whether the second one can follow the first
+     *         one in a block
+     */
+    public static boolean hasSamePrefix(byte[] prev, int prevOff, byte[] element, int elementOff, int elementSize) {
+        int prefixLength = elementSize - getTailLength(elementSize);
+        for (int i = 0; i < prefixLength; i++) {
+            if (prev[prevOff + i] != element[elementOff + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the difference between the trailing bytes of the element and those of the previous one, modulo the
+     *         range of the trailing bytes
+     */
+    public static long getDelta(byte[] prev, int prevOff, byte[] element, int elementOff, int elementSize) {
+        int tailLength = getTailLength(elementSize);
+        int tailOff = elementSize - tailLength;
+        long delta = getTail(element, elementOff + tailOff, tailLength) - getTail(prev, prevOff + tailOff, tailLength);
+        return tailLength == Long.BYTES ? delta : delta & ((1L << (tailLength * Byte.SIZE)) - 1);
+    }
+
+    public static int getBitWidth(long delta) {
+        return Long.SIZE - Long.numberOfLeadingZeros(delta);
+    }
+
+    /**
+     * Writes the given delta at the given index of the packed deltas. The bytes it goes to must have been zeroed.
+     */
+    public static void writeDelta(byte[] buf, int packedOff, int index, int bitWidth, long delta) {
+        long bitPos = (long) index * bitWidth;
+        int written = 0;
+        while (written < bitWidth) {
+            int byteIx = packedOff + (int) (bitPos >>> 3);
+            int bitOff = (int) (bitPos & 7);
+            int numBits = Math.min(Byte.SIZE - bitOff, bitWidth - written);
+            int bits = (int) ((delta >>> written) & ((1 << numBits) - 1));
+            buf[byteIx] |= (byte) (bits << bitOff);
+            written += numBits;
+            bitPos += numBits;
+        }
+    }
+
+    public static long readDelta(byte[] buf, int packedOff, int index, int bitWidth) {
+        long bitPos = (long) index * bitWidth;
+        long delta = 0;
+        int read = 0;
+        while (read < bitWidth) {
+            int byteIx = packedOff + (int) (bitPos >>> 3);
+            int bitOff = (int) (bitPos & 7);
+            int numBits = Math.min(Byte.SIZE - bitOff, bitWidth - read);
+            long bits = ((buf[byteIx] & 0xff) >>> bitOff) & ((1 << numBits) - 1);
+            delta |= bits << read;
+            read += numBits;
+            bitPos += numBits;
+        }
+        return delta;
+    }
+
+    /**
+     * Decodes all the elements of the block at the given offset one after the other into the target array.
+     *
+     * @return the number of elements of the block
+     */
+    public static int decodeBlock(byte[] buf, int blockOff, int elementSize, byte[] target) {
+        int count = getCount(buf, blockOff);
+        int bitWidth = getBitWidth(buf, blockOff);
+        int packedOff = getPackedOff(blockOff, elementSize);
+        int tailLength = getTailLength(elementSize);
+        int tailOff = elementSize - tailLength;
+        System.arraycopy(buf, getFirstElementOff(blockOff, elementSize), target, 0, elementSize);
+        long tail = getTail(target, tailOff, tailLength);
+        for (int i = 1; i < count; i++) {
+            int elementOff = i * elementSize;
+            System.arraycopy(target, 0, target, elementOff, tailOff);
+            tail += readDelta(buf, packedOff, i - 1, bitWidth);
+            setTail(target, elementOff + tailOff, tailLength, tail);
+        }
+        return count;
+    }
+
+    private static int getTailLength(int elementSize) {
+        return Math.min(elementSize, Long.BYTES);
+    }
+
+    private static long getTail(byte[] buf, int off, int length) {
+        long value = 0;
+        for (int i = 0; i < length; i++) {
+            value = (value << Byte.SIZE) | (buf[off + i] & 0xff);
+        }
+        return value;
+    }
+
+    private static void setTail(byte[] buf, int off, int length, long value) {
+        for (int i = length - 1; i >= 0; i--) {
+            buf[off + i] = (byte) value;
+            value >>>= Byte.SIZE;
+        }
+    }
+}
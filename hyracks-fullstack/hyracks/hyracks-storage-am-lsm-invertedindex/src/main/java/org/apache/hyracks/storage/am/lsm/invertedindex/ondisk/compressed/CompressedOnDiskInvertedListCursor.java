@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.INullIntrospector;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListTupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.impls.AbstractOnDiskInvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.InvertedIndexUtils;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * A cursor class that traverses an inverted list built by {@link CompressedInvertedListBuilder}. The blocks of the
+ * list are decoded lazily, one at a time, when the cursor moves into them. A random traversal with
+ * {@link #containsKey(ITupleReference, MultiComparator)} only compares the search key with the last element of the
+ * following blocks (their skip entries) and decodes the first block that can contain it.
+ */
+public class CompressedOnDiskInvertedListCursor extends AbstractOnDiskInvertedListCursor {
+
+    private final int elementSize;
+    private final int headerSize;
+    // The decoded elements of the current block
+    private final byte[] blockElements;
+    private int blockCount;
+    private int blockElementIx;
+    // The position of the header of the next block in the loaded buffers
+    private int nextBlockBufferIx;
+    private int nextBlockOff;
+    // The index of the first element of the next block
+    private int nextBlockElementIx;
+    // The skip entry of the next block or the last element of the current block
+    private final IInvertedListTupleReference lastElementTuple;
+
+    public CompressedOnDiskInvertedListCursor(IBufferCache bufferCache, int fileId, ITypeTraits[] invListFields,
+            IIndexCursorStats stats, ITypeTraits nullTypeTraits, INullIntrospector nullIntrospector)
+            throws HyracksDataException {
+        super(bufferCache, fileId, invListFields, stats, nullTypeTraits, nullIntrospector);
+        InvertedIndexUtils.verifyAllFixedSizeTypeTrait(invListFields);
+        int tmpSize = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            tmpSize += invListFields[i].getFixedLength();
+        }
+        elementSize = tmpSize;
+        headerSize = CompressedInvertedListUtils.getHeaderSize(elementSize);
+        blockElements = new byte[CompressedInvertedListUtils.BLOCK_SIZE * elementSize];
+        lastElementTuple = InvertedIndexUtils.createInvertedListTupleReference(invListFields, nullTypeTraits);
+    }
+
+    public CompressedOnDiskInvertedListCursor(IBufferCache bufferCache, int fileId, ITypeTraits[] invListFields,
+            IHyracksTaskContext ctx, IIndexCursorStats stats, ITypeTraits nullTypeTraits,
+            INullIntrospector nullIntrospector) throws HyracksDataException {
+        super(bufferCache, fileId, invListFields, ctx, stats, nullTypeTraits, nullIntrospector);
+        InvertedIndexUtils.verifyAllFixedSizeTypeTrait(invListFields);
+        int tmpSize = 0;
+        for (int i = 0; i < invListFields.length; i++) {
+            tmpSize += invListFields[i].getFixedLength();
+        }
+        elementSize = tmpSize;
+        headerSize = CompressedInvertedListUtils.getHeaderSize(elementSize);
+        blockElements = new byte[CompressedInvertedListUtils.BLOCK_SIZE * elementSize];
+        lastElementTuple = InvertedIndexUtils.createInvertedListTupleReference(invListFields, nullTypeTraits);
+    }
+
+    /**
+     * Returns the next element.
+     */
+    @Override
+    public void doNext() throws HyracksDataException {
+        if (blockElementIx + 1 < blockCount) {
+            blockElementIx++;
+        } else {
+            if (!seekNextBlock()) {
+                throw new IllegalStateException("No more elements in the inverted list");
+            }
+            decodeNextBlock();
+        }
+        currentElementIxForScan++;
+        tuple.reset(blockElements, blockElementIx * elementSize);
+    }
+
+    /**
+     * Checks whether the given tuple exists on this inverted list. The search tuples must be given in ascending order.
+     */
+    @Override
+    public boolean containsKey(ITupleReference searchTuple, MultiComparator invListCmp) throws HyracksDataException {
+        while (true) {
+            if (blockCount > 0) {
+                lastElementTuple.reset(blockElements, (blockCount - 1) * elementSize);
+                if (invListCmp.compare(searchTuple, lastElementTuple) <= 0) {
+                    return searchInBlock(searchTuple, invListCmp);
+                }
+            }
+            if (!seekNextBlock()) {
+                return false;
+            }
+            byte[] page = buffers.get(nextBlockBufferIx).array();
+            lastElementTuple.reset(page, CompressedInvertedListUtils.getLastElementOff(nextBlockOff));
+            if (invListCmp.compare(searchTuple, lastElementTuple) > 0) {
+                // All the elements of the next block are smaller than the search tuple.
+                skipNextBlock(page);
+            } else {
+                decodeNextBlock();
+            }
+        }
+    }
+
+    /**
+     * Binary searches the current block from the current element, knowing that its last element is not smaller than
+     * the search tuple, and moves to the first element that is not smaller than the search tuple.
+     */
+    private boolean searchInBlock(ITupleReference searchTuple, MultiComparator invListCmp)
+            throws HyracksDataException {
+        int begin = blockElementIx;
+        int end = blockCount - 1;
+        while (begin < end) {
+            int mid = (begin + end) >>> 1;
+            tuple.reset(blockElements, mid * elementSize);
+            if (invListCmp.compare(searchTuple, tuple) > 0) {
+                begin = mid + 1;
+            } else {
+                end = mid;
+            }
+        }
+        blockElementIx = begin;
+        tuple.reset(blockElements, begin * elementSize);
+        return invListCmp.compare(searchTuple, tuple) == 0;
+    }
+
+    /**
+     * Moves to the header of the next block, loading the next pages of the list if needed.
+     *
+     * @return false if all the blocks of the list have been read
+     */
+    private boolean seekNextBlock() throws HyracksDataException {
+        if (nextBlockElementIx >= numElements) {
+            return false;
+        }
+        int pageSize = bufferCache.getPageSize();
+        while (true) {
+            if (nextBlockBufferIx < bufferNumLoadedPages) {
+                byte[] page = buffers.get(nextBlockBufferIx).array();
+                if (nextBlockOff + headerSize <= pageSize
+                        && CompressedInvertedListUtils.getCount(page, nextBlockOff) > 0) {
+                    return true;
+                }
+                // No more blocks on this page.
+                nextBlockBufferIx++;
+                nextBlockOff = 0;
+            } else if (moreBlocksToRead) {
+                loadPages();
+            } else {
+                throw new IllegalStateException(
+                        "Inverted list ended after " + nextBlockElementIx + " of its " + numElements + " elements");
+            }
+        }
+    }
+
+    private void decodeNextBlock() {
+        byte[] page = buffers.get(nextBlockBufferIx).array();
+        blockCount = CompressedInvertedListUtils.decodeBlock(page, nextBlockOff, elementSize, blockElements);
+        blockElementIx = 0;
+        nextBlockOff += CompressedInvertedListUtils.getBlockSize(elementSize, blockCount,
+                CompressedInvertedListUtils.getBitWidth(page, nextBlockOff));
+        nextBlockElementIx += blockCount;
+    }
+
+    private void skipNextBlock(byte[] page) {
+        int count = CompressedInvertedListUtils.getCount(page, nextBlockOff);
+        nextBlockOff += CompressedInvertedListUtils.getBlockSize(elementSize, count,
+                CompressedInvertedListUtils.getBitWidth(page, nextBlockOff));
+        nextBlockElementIx += count;
+        blockCount = 0;
+        blockElementIx = 0;
+    }
+
+    /**
+     * Updates the information about the loaded pages. Their first block is the next one.
+     */
+    @Override
+    protected void setBlockInfo() {
+        super.setBlockInfo();
+        nextBlockBufferIx = 0;
+        nextBlockOff = bufferStartPageId == startPageId ? startOff : 0;
+    }
+
+    @Override
+    protected void setInvListInfo(int startPageId, int endPageId, int startOff, int numElements)
+            throws HyracksDataException {
+        super.setInvListInfo(startPageId, endPageId, startOff, numElements);
+        blockCount = 0;
+        blockElementIx = 0;
+        nextBlockBufferIx = 0;
+        nextBlockOff = startOff;
+        nextBlockElementIx = 0;
+    }
+
+    /**
+     * Prints the elements of the whole inverted list (a debugging method). The pages of the list are read from the
+     * buffer cache and their blocks are decoded apart from the ones of the cursor, which keeps its position.
+     */
+    @SuppressWarnings("rawtypes")
+    @Override
+    public String printInvList(ISerializerDeserializer[] serdes) throws HyracksDataException {
+        byte[] elements = new byte[CompressedInvertedListUtils.BLOCK_SIZE * elementSize];
+        IInvertedListTupleReference elementTuple =
+                InvertedIndexUtils.createInvertedListTupleReference(invListFields, nullTypeTraits);
+        int pageSize = bufferCache.getPageSize();
+        int numDecodedElements = 0;
+        StringBuilder strBuilder = new StringBuilder();
+        for (int pageId = startPageId; pageId <= endPageId && numDecodedElements < numElements; pageId++) {
+            ICachedPage listPage = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+            try {
+                byte[] pageData = listPage.getBuffer().array();
+                int off = pageId == startPageId ? startOff : 0;
+                while (numDecodedElements < numElements && off + headerSize <= pageSize
+                        && CompressedInvertedListUtils.getCount(pageData, off) > 0) {
+                    int count = CompressedInvertedListUtils.decodeBlock(pageData, off, elementSize, elements);
+                    for (int i = 0; i < count; i++) {
+                        elementTuple.reset(elements, i * elementSize);
+                        printElement(elementTuple, serdes, strBuilder);
+                        strBuilder.append(" ");
+                    }
+                    off += CompressedInvertedListUtils.getBlockSize(elementSize, count,
+                            CompressedInvertedListUtils.getBitWidth(pageData, off));
+                    numDecodedElements += count;
+                }
+            } finally {
+                bufferCache.unpin(listPage);
+            }
+        }
+        return strBuilder.toString();
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static void printElement(ITupleReference element, ISerializerDeserializer[] serdes,
+            StringBuilder strBuilder) throws HyracksDataException {
+        for (int i = 0; i < element.getFieldCount(); i++) {
+            ByteArrayInputStream inStream = new ByteArrayInputStream(element.getFieldData(i),
+                    element.getFieldStart(i), element.getFieldLength(i));
+            DataInput dataIn = new DataInputStream(inStream);
+            Object o = serdes[i].deserialize(dataIn);
+            strBuilder.append(o.toString());
+            if (i + 1 < element.getFieldCount()) {
+                strBuilder.append(",");
+            }
+        }
+    }
+}
@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.search;
+
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.fulltext.IFullTextConfigEvaluator;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
+
+/**
+ * Searches the k documents that have the highest relevance score for the tokens of the query. The score of a document
+ * is the sum of the inverse document frequencies of the query tokens it contains (BM25 with binary term frequencies and
+ * no length normalization). The inverse document frequencies are computed against the given number of documents or,
+ * if it is unknown, against the total length of the inverted lists of the query tokens.
+ */
+public class InvertedIndexTopKSearchPredicate extends InvertedIndexSearchPredicate {
+    private static final long serialVersionUID = 1L;
+
+    private final int k;
+    private final long numDocuments;
+
+    public InvertedIndexTopKSearchPredicate(IBinaryTokenizer queryTokenizer,
+            IFullTextConfigEvaluator fullTextConfigEvaluator, int k, long numDocuments, ITupleReference minFilterTuple,
+            ITupleReference maxFilterTuple) {
+        super(queryTokenizer, fullTextConfigEvaluator, null, minFilterTuple, maxFilterTuple, false);
+        this.k = k;
+        this.numDocuments = numDocuments;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    /**
+     * @return the number of documents of the index or a non-positive value if it is unknown
+     */
+    public long getNumDocuments() {
+        return numDocuments;
+    }
+}
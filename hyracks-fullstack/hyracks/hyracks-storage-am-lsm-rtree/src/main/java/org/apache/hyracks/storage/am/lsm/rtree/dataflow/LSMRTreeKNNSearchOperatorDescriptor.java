@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.rtree.dataflow;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IMissingWriterFactory;
+import org.apache.hyracks.api.dataflow.value.IRecordDescriptorProvider;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.job.IOperatorDescriptorRegistry;
+import org.apache.hyracks.storage.am.common.api.ISearchOperationCallbackFactory;
+import org.apache.hyracks.storage.am.common.dataflow.IIndexDataflowHelperFactory;
+import org.apache.hyracks.storage.am.rtree.dataflow.RTreeSearchOperatorDescriptor;
+
+/**
+ * Searches the k nearest neighbors, in increasing distance order, of the point given by the key fields of each input
+ * tuple in an LSM R-tree with anti-matter tuples. With retainInput, every input tuple is joined with its k nearest
+ * neighbors (a kNN join).
+ */
+public class LSMRTreeKNNSearchOperatorDescriptor extends RTreeSearchOperatorDescriptor {
+    private static final long serialVersionUID = 1L;
+
+    private final int k;
+
+    public LSMRTreeKNNSearchOperatorDescriptor(IOperatorDescriptorRegistry spec, RecordDescriptor outRecDesc,
+            int[] keyFields, int k, IIndexDataflowHelperFactory indexHelperFactory, boolean retainInput,
+            boolean retainMissing, IMissingWriterFactory missingWriterFactory,
+            ISearchOperationCallbackFactory searchCallbackFactory) {
+        super(spec, outRecDesc, keyFields, true, true, indexHelperFactory, retainInput, retainMissing,
+                missingWriterFactory, searchCallbackFactory, null, null, false, null);
+        this.k = k;
+    }
+
+    @Override
+    public LSMRTreeKNNSearchOperatorNodePushable createPushRuntime(IHyracksTaskContext ctx,
+            IRecordDescriptorProvider recordDescProvider, int partition, int nPartitions) throws HyracksDataException {
+        return new LSMRTreeKNNSearchOperatorNodePushable(ctx, partition,
+                recordDescProvider.getInputRecordDescriptor(getActivityId(), 0), keyFields, k, indexHelperFactory,
+                retainInput, retainMissing, missingWriterFactory, searchCallbackFactory);
+    }
+}
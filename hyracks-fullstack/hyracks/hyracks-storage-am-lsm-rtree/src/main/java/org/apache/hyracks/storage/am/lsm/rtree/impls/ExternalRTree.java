@@ -273,7 +273,8 @@ public class ExternalRTree extends LSMRTree implements ITwoPCIndex {
                     .get(mergeOp.getMergingComponents().size() - 1) != secondDiskComponents
                             .get(secondDiskComponents.size() - 1);
         }
-        IPageWriteCallback pageWriteCallback = pageWriteCallbackFactory.createPageWriteCallback();
+        IPageWriteCallback pageWriteCallback =
+                pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType());
         if (keepDeleteTuples) {
             // Keep the deleted tuples since the oldest disk component is not
             // included in the merge operation
@@ -141,7 +141,8 @@ public class LSMRTree extends AbstractLSMRTree {
                 component = createDiskComponent(componentFactory, flushOp.getTarget(), flushOp.getBTreeTarget(),
                         flushOp.getBloomFilterTarget(), true);
                 componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, numBTreeTuples.longValue(),
-                        false, false, false, pageWriteCallbackFactory.createPageWriteCallback());
+                        false, false, false,
+                        pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
                 flushLoadRTree(isEmpty, rTreeTupleSorter, componentBulkLoader);
                 // scan the memory BTree and bulk load delete tuples
                 flushLoadBtree(memBTreeAccessor, componentBulkLoader, btreeNullPredicate);
@@ -338,12 +339,13 @@ public class LSMRTree extends AbstractLSMRTree {
                                 .getNumElements();
                     }
                     componentBulkLoader = mergedComponent.createBulkLoader(mergeOp, 1.0f, false, numElements, false,
-                            false, false, pageWriteCallbackFactory.createPageWriteCallback());
+                            false, false,
+                            pageWriteCallbackFactory.createPageWriteCallback(mergeOp.getIOOpertionType()));
                     mergeLoadBTree(mergeOp, opCtx, rtreeSearchPred, componentBulkLoader);
                 } else {
                     //no buddy-btree needed
                     componentBulkLoader = mergedComponent.createBulkLoader(mergeOp, 1.0f, false, 0L, false, false,
-                            false, pageWriteCallbackFactory.createPageWriteCallback());
+                            false, pageWriteCallbackFactory.createPageWriteCallback(mergeOp.getIOOpertionType()));
                 }
                 //search old rtree components
                 while (cursor.hasNext()) {
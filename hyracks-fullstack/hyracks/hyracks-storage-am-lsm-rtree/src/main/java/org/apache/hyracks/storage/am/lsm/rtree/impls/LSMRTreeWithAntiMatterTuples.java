@@ -114,7 +114,7 @@ public class LSMRTreeWithAntiMatterTuples extends AbstractLSMRTree {
                     memRTreeAccessor.search(rtreeScanCursor, rtreeNullPredicate);
                     component = createDiskComponent(componentFactory, flushOp.getTarget(), null, null, true);
                     componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, 0L, false, false, false,
-                            pageWriteCallbackFactory.createPageWriteCallback());
+                            pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
                     // Since the LSM-RTree is used as a secondary assumption, the
                     // primary key will be the last comparator in the BTree comparators
                     rTreeTupleSorter = new TreeTupleSorter(flushingComponent.getIndex().getFileId(), linearizerArray,
@@ -241,7 +241,7 @@ public class LSMRTreeWithAntiMatterTuples extends AbstractLSMRTree {
         ILSMDiskComponent component = createDiskComponent(componentFactory, mergeOp.getTarget(), null, null, true);
 
         ILSMDiskComponentBulkLoader componentBulkLoader = component.createBulkLoader(operation, 1.0f, false, 0L, false,
-                false, false, pageWriteCallbackFactory.createPageWriteCallback());
+                false, false, pageWriteCallbackFactory.createPageWriteCallback(operation.getIOOpertionType()));
         try {
             while (cursor.hasNext()) {
                 cursor.next();
@@ -273,6 +273,10 @@ public class LSMRTreeWithAntiMatterTuples extends AbstractLSMRTree {
         return new LSMTreeIndexAccessor(getHarness(), opCtx, cursorFactory);
     }
 
+    public LSMRTreeWithAntiMatterTuplesKNNSearchCursor createKNNSearchCursor(ILSMIndexOperationContext opCtx) {
+        return new LSMRTreeWithAntiMatterTuplesKNNSearchCursor(opCtx);
+    }
+
     @Override
     protected ILSMIOOperation createFlushOperation(AbstractLSMIndexOperationContext opCtx,
             LSMComponentFileReferences componentFileRefs, ILSMIOOperationCallback callback)
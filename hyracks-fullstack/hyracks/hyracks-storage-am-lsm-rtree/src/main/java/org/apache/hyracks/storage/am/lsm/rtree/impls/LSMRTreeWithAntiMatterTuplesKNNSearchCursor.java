@@ -0,0 +1,307 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.rtree.impls;
+
+import java.util.List;
+import java.util.PriorityQueue;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.btree.impls.BTree;
+import org.apache.hyracks.storage.am.btree.impls.RangePredicate;
+import org.apache.hyracks.storage.am.common.api.ILSMIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexAccessor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponent.LSMComponentType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMComponentFilter;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexOperationContext;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMTreeTupleReference;
+import org.apache.hyracks.storage.am.rtree.impls.KNNSearchPredicate;
+import org.apache.hyracks.storage.am.rtree.impls.RTree;
+import org.apache.hyracks.storage.am.rtree.impls.RTreeKNNSearchCursor;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.ISearchOperationCallback;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+import org.apache.hyracks.storage.common.util.IndexCursorUtils;
+
+/**
+ * Searches the k nearest neighbors of a point across the components of an {@link LSMRTreeWithAntiMatterTuples}. Every
+ * component is searched with an unbounded {@link RTreeKNNSearchCursor}, returning its tuples in (distance, key) order,
+ * and the component cursors are merged in the same order. Since the versions of an entry have the same MBR, hence the
+ * same distance, and the same key, they are polled one after the other, the newest first: the newest version is
+ * returned unless it is an anti-matter tuple or the entry was deleted in a newer memory component, and the older
+ * versions are skipped.
+ */
+public class LSMRTreeWithAntiMatterTuplesKNNSearchCursor extends EnforcedIndexCursor implements ILSMIndexCursor {
+
+    private final ILSMIndexOperationContext opCtx;
+    private final IIndexAccessParameters iap;
+    private final KNNSearchPredicate componentPredicate = new KNNSearchPredicate(null, KNNSearchPredicate.UNLIMITED);
+    private final PriorityQueue<Integer> queue = new PriorityQueue<>(this::compareCursors);
+    private ILSMHarness lsmHarness;
+    private List<ILSMComponent> operationalComponents;
+    private MultiComparator btreeCmp;
+    private RTreeKNNSearchCursor[] rtreeCursors;
+    private ITreeIndexAccessor[] btreeAccessors;
+    private ITreeIndexCursor[] btreeCursors;
+    private RangePredicate btreeRangePredicate;
+    private int numMemoryComponents;
+    private ISearchOperationCallback searchCallback;
+    private boolean resultOfSearchCallbackProceed;
+    private int k;
+    private int numResults;
+    private int outputCursor = -1;
+    private boolean foundNext;
+    private boolean open;
+
+    public LSMRTreeWithAntiMatterTuplesKNNSearchCursor(ILSMIndexOperationContext opCtx) {
+        this(opCtx, NoOpIndexCursorStats.INSTANCE);
+    }
+
+    public LSMRTreeWithAntiMatterTuplesKNNSearchCursor(ILSMIndexOperationContext opCtx, IIndexCursorStats stats) {
+        this.opCtx = opCtx;
+        this.iap = IndexAccessParameters.createNoOpParams(stats);
+    }
+
+    @Override
+    protected void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        LSMRTreeCursorInitialState lsmInitialState = (LSMRTreeCursorInitialState) initialState;
+        lsmHarness = lsmInitialState.getLSMHarness();
+        btreeCmp = lsmInitialState.getBTreeCmp();
+        operationalComponents = lsmInitialState.getOperationalComponents();
+        searchCallback = lsmInitialState.getSearchOperationCallback();
+        KNNSearchPredicate pred = (KNNSearchPredicate) searchPred;
+        k = pred.getK();
+        componentPredicate.setQueryPoint(pred.getQueryPoint());
+        componentPredicate.setTupleComparator(btreeCmp);
+        numResults = 0;
+        outputCursor = -1;
+        foundNext = false;
+        open = true;
+
+        numMemoryComponents = 0;
+        for (ILSMComponent component : operationalComponents) {
+            if (component.getType() == LSMComponentType.MEMORY) {
+                numMemoryComponents++;
+            }
+        }
+        if (numMemoryComponents > 0) {
+            btreeRangePredicate = new RangePredicate(null, null, true, true, btreeCmp, btreeCmp);
+        }
+        rtreeCursors = new RTreeKNNSearchCursor[operationalComponents.size()];
+        btreeAccessors = new ITreeIndexAccessor[numMemoryComponents];
+        btreeCursors = new ITreeIndexCursor[numMemoryComponents];
+        try {
+            for (int i = 0; i < operationalComponents.size(); i++) {
+                ILSMComponent component = operationalComponents.get(i);
+                RTree rtree;
+                RTree.RTreeAccessor rtreeAccessor;
+                if (i < numMemoryComponents) {
+                    rtree = ((LSMRTreeMemoryComponent) component).getIndex();
+                    rtreeAccessor = rtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                    BTree btree = ((LSMRTreeMemoryComponent) component).getBuddyIndex();
+                    btreeAccessors[i] = btree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+                    btreeCursors[i] = (ITreeIndexCursor) btreeAccessors[i].createSearchCursor(false);
+                } else {
+                    rtree = ((LSMRTreeWithAntimatterDiskComponent) component).getIndex();
+                    rtreeAccessor = rtree.createAccessor(iap);
+                }
+                rtreeCursors[i] = rtreeAccessor.createKNNSearchCursor();
+                rtreeAccessor.search(rtreeCursors[i], componentPredicate);
+                advance(i);
+            }
+        } catch (Throwable th) { // NOSONAR: Must catch all failures
+            IndexCursorUtils.close(rtreeCursors, th);
+            IndexCursorUtils.close(btreeCursors, th);
+            throw HyracksDataException.create(th);
+        }
+    }
+
+    @Override
+    protected boolean doHasNext() throws HyracksDataException {
+        if (foundNext) {
+            return true;
+        }
+        if (outputCursor >= 0) {
+            advance(outputCursor);
+            outputCursor = -1;
+        }
+        if (k >= 0 && numResults >= k) {
+            return false;
+        }
+        while (!queue.isEmpty()) {
+            int cursor = queue.poll();
+            ITupleReference tuple = rtreeCursors[cursor].getTuple();
+            // skip the older versions of the entry
+            while (!queue.isEmpty() && isSameEntry(cursor, queue.peek())) {
+                advance(queue.poll());
+            }
+            if (((ILSMTreeTupleReference) tuple).isAntimatter()
+                    || isDeletedInMemory(tuple, Math.min(cursor, numMemoryComponents))) {
+                advance(cursor);
+                continue;
+            }
+            resultOfSearchCallbackProceed = cursor >= numMemoryComponents || searchCallback.proceed(tuple);
+            outputCursor = cursor;
+            foundNext = true;
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void doNext() throws HyracksDataException {
+        foundNext = false;
+        numResults++;
+    }
+
+    @Override
+    protected ITupleReference doGetTuple() {
+        return rtreeCursors[outputCursor].getTuple();
+    }
+
+    /**
+     * @return the distance between the query point and the MBR of the current tuple
+     */
+    public double getDistance() {
+        return rtreeCursors[outputCursor].getDistance();
+    }
+
+    private void advance(int cursor) throws HyracksDataException {
+        if (rtreeCursors[cursor].hasNext()) {
+            rtreeCursors[cursor].next();
+            queue.add(cursor);
+        }
+    }
+
+    private boolean isSameEntry(int cursorA, int cursorB) throws HyracksDataException {
+        return rtreeCursors[cursorA].getDistance() == rtreeCursors[cursorB].getDistance()
+                && btreeCmp.compare(rtreeCursors[cursorA].getTuple(), rtreeCursors[cursorB].getTuple()) == 0;
+    }
+
+    private int compareCursors(Integer cursorA, Integer cursorB) {
+        int c = Double.compare(rtreeCursors[cursorA].getDistance(), rtreeCursors[cursorB].getDistance());
+        if (c != 0) {
+            return c;
+        }
+        try {
+            c = btreeCmp.compare(rtreeCursors[cursorA].getTuple(), rtreeCursors[cursorB].getTuple());
+        } catch (HyracksDataException e) {
+            throw new IllegalArgumentException(e);
+        }
+        // the newer component first
+        return c != 0 ? c : Integer.compare(cursorA, cursorB);
+    }
+
+    private boolean isDeletedInMemory(ITupleReference tuple, int lastBTreeToSearch) throws HyracksDataException {
+        for (int i = 0; i < lastBTreeToSearch; i++) {
+            btreeCursors[i].close();
+            btreeRangePredicate.setLowKey(tuple, true);
+            btreeRangePredicate.setHighKey(tuple, true);
+            btreeAccessors[i].search(btreeCursors[i], btreeRangePredicate);
+            try {
+                if (btreeCursors[i].hasNext()) {
+                    return true;
+                }
+            } finally {
+                btreeCursors[i].close();
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public ITupleReference getFilterMinTuple() {
+        ILSMComponentFilter filter = operationalComponents.get(outputCursor).getLSMComponentFilter();
+        return filter == null ? null : filter.getMinTuple();
+    }
+
+    @Override
+    public ITupleReference getFilterMaxTuple() {
+        ILSMComponentFilter filter = operationalComponents.get(outputCursor).getLSMComponentFilter();
+        return filter == null ? null : filter.getMaxTuple();
+    }
+
+    @Override
+    public boolean getSearchOperationCallbackProceedResult() {
+        return resultOfSearchCallbackProceed;
+    }
+
+    @Override
+    protected void doClose() throws HyracksDataException {
+        if (!open) {
+            return;
+        }
+        queue.clear();
+        outputCursor = -1;
+        foundNext = false;
+        try {
+            Throwable failure = IndexCursorUtils.close(rtreeCursors, null);
+            failure = IndexCursorUtils.close(btreeCursors, failure);
+            if (failure != null) {
+                throw HyracksDataException.create(failure);
+            }
+        } finally {
+            open = false;
+            lsmHarness.endSearch(opCtx);
+        }
+    }
+
+    @Override
+    protected void doDestroy() throws HyracksDataException {
+        try {
+            doClose();
+        } finally {
+            Throwable failure = null;
+            if (rtreeCursors != null) {
+                for (RTreeKNNSearchCursor cursor : rtreeCursors) {
+                    failure = destroy(cursor, failure);
+                }
+                for (ITreeIndexCursor cursor : btreeCursors) {
+                    failure = destroy(cursor, failure);
+                }
+                rtreeCursors = null;
+                btreeCursors = null;
+            }
+            if (failure != null) {
+                throw HyracksDataException.create(failure);
+            }
+        }
+    }
+
+    private static Throwable destroy(ITreeIndexCursor cursor, Throwable root) {
+        if (cursor != null) {
+            try {
+                cursor.destroy();
+            } catch (Throwable th) { // NOSONAR: Must catch all failures
+                root = root == null ? th : root;
+            }
+        }
+        return root;
+    }
+}
@@ -19,6 +19,7 @@
 
 package org.apache.hyracks.storage.am.rtree.api;
 
+import org.apache.hyracks.storage.am.common.api.IPrimitiveValueProvider;
 import org.apache.hyracks.storage.am.common.api.ITreeIndexFrame;
 import org.apache.hyracks.storage.common.MultiComparator;
 
@@ -36,4 +37,9 @@ public interface IRTreeFrame extends ITreeIndexFrame {
 
     public void adjustMBR();
 
+    /**
+     * @return the providers of the values of the MBR fields: the low coordinates then the high coordinates
+     */
+    public IPrimitiveValueProvider[] getKeyValueProviders();
+
 }
@@ -26,6 +26,30 @@ import org.apache.hyracks.storage.common.MultiComparator;
 
 public class RTreeComputationUtils {
 
+    /**
+     * Computes the squared MINDIST between a point and an MBR: the squared Euclidean distance between the point and
+     * the closest point of the MBR, 0 if the MBR contains the point.
+     *
+     * @param point
+     *            the coordinates of the point, one field per dimension
+     * @param mbr
+     *            the MBR: the low coordinates then the high coordinates
+     */
+    public static double squaredMinDistance(ITupleReference point, ITupleReference mbr,
+            IPrimitiveValueProvider[] keyValueProviders) {
+        int dimension = keyValueProviders.length / 2;
+        double distance = 0;
+        for (int i = 0; i < dimension; i++) {
+            int j = dimension + i;
+            double p = keyValueProviders[i].getValue(point.getFieldData(i), point.getFieldStart(i));
+            double low = keyValueProviders[i].getValue(mbr.getFieldData(i), mbr.getFieldStart(i));
+            double high = keyValueProviders[j].getValue(mbr.getFieldData(j), mbr.getFieldStart(j));
+            double d = p < low ? low - p : p > high ? p - high : 0;
+            distance += d * d;
+        }
+        return distance;
+    }
+
     public static double enlargedArea(ITupleReference tuple, ITupleReference tupleToBeInserted, MultiComparator cmp,
             IPrimitiveValueProvider[] keyValueProviders) throws HyracksDataException {
         double areaBeforeEnlarge = RTreeComputationUtils.area(tuple, cmp, keyValueProviders);
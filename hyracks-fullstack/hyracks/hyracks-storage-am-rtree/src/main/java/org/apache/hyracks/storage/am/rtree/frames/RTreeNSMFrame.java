@@ -113,6 +113,11 @@ public abstract class RTreeNSMFrame extends TreeIndexNSMFrame implements IRTreeF
         return mbrTuples;
     }
 
+    @Override
+    public IPrimitiveValueProvider[] getKeyValueProviders() {
+        return keyValueProviders;
+    }
+
     @Override
     public void split(ITreeIndexFrame rightFrame, ITupleReference tuple, ISplitKey splitKey,
             IExtraPageBlockHelper extraPageBlockHelper, IBufferCache bufferCache) throws HyracksDataException {
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.rtree.impls;
+
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.impls.AbstractSearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+
+/**
+ * A k-nearest-neighbor predicate: the entries of an R-tree are searched in ascending (Euclidean) distance between
+ * their MBR and the query point, up to {@code k} entries. The query point has one field per dimension, readable by the
+ * key value providers of the R-tree frames. Entries at the same distance are returned in the order of the optional
+ * tuple comparator, which lets the results of several R-trees be merged (see the LSM R-tree k-nearest-neighbor
+ * cursor).
+ */
+public class KNNSearchPredicate extends AbstractSearchPredicate {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Searches all the entries in ascending distance.
+     */
+    public static final int UNLIMITED = -1;
+
+    protected ITupleReference queryPoint;
+    protected int k;
+    protected MultiComparator tupleCmp;
+
+    public KNNSearchPredicate(ITupleReference queryPoint, int k) {
+        this(queryPoint, k, null);
+    }
+
+    public KNNSearchPredicate(ITupleReference queryPoint, int k, MultiComparator tupleCmp) {
+        this.queryPoint = queryPoint;
+        this.k = k;
+        this.tupleCmp = tupleCmp;
+    }
+
+    public ITupleReference getQueryPoint() {
+        return queryPoint;
+    }
+
+    public void setQueryPoint(ITupleReference queryPoint) {
+        this.queryPoint = queryPoint;
+    }
+
+    public int getK() {
+        return k;
+    }
+
+    public void setK(int k) {
+        this.k = k;
+    }
+
+    /**
+     * @return the comparator ordering the entries at the same distance or {@code null} if their order is undefined
+     */
+    public MultiComparator getTupleComparator() {
+        return tupleCmp;
+    }
+
+    public void setTupleComparator(MultiComparator tupleCmp) {
+        this.tupleCmp = tupleCmp;
+    }
+
+    @Override
+    public ITupleReference getLowKey() {
+        return queryPoint;
+    }
+
+    @Override
+    public MultiComparator getLowKeyComparator() {
+        return null;
+    }
+
+    @Override
+    public MultiComparator getHighKeyComparator() {
+        return null;
+    }
+}
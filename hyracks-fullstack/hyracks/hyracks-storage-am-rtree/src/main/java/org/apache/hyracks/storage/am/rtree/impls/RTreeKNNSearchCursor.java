@@ -0,0 +1,280 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.rtree.impls;
+
+import java.util.ArrayDeque;
+import java.util.PriorityQueue;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.common.api.IPrimitiveValueProvider;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexCursor;
+import org.apache.hyracks.storage.am.common.api.ITreeIndexTupleReference;
+import org.apache.hyracks.storage.am.rtree.api.IRTreeInteriorFrame;
+import org.apache.hyracks.storage.am.rtree.api.IRTreeLeafFrame;
+import org.apache.hyracks.storage.am.rtree.frames.RTreeComputationUtils;
+import org.apache.hyracks.storage.common.EnforcedIndexCursor;
+import org.apache.hyracks.storage.common.ICursorInitialState;
+import org.apache.hyracks.storage.common.IIndexCursorStats;
+import org.apache.hyracks.storage.common.ISearchPredicate;
+import org.apache.hyracks.storage.common.MultiComparator;
+import org.apache.hyracks.storage.common.NoOpIndexCursorStats;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+
+/**
+ * Best-first k-nearest-neighbor search (see {@link KNNSearchPredicate}): the pages and the leaf tuples seen so far are
+ * kept in a priority queue on their MINDIST to the query point. Polling a page adds its children (or its tuples, for a
+ * leaf) to the queue and polling a tuple returns it, so tuples are returned in ascending distance and only the pages
+ * that are closer than the k-th tuple are read. Every page is latched only while it is being expanded and the leaf
+ * tuples are copied into the queue. As in {@link RTreeSearchCursor}, a page split concurrently with the search is
+ * detected with the NSN of the page and its right sibling is searched as well. At the same distance, pages are expanded
+ * before tuples are returned, so that tuples at the same distance can be returned in the order of the tuple comparator
+ * of the predicate, if any.
+ */
+public class RTreeKNNSearchCursor extends EnforcedIndexCursor implements ITreeIndexCursor {
+
+    private final IRTreeInteriorFrame interiorFrame;
+    private final IRTreeLeafFrame leafFrame;
+    private final ITreeIndexTupleReference interiorTuple;
+    private final ITreeIndexTupleReference leafTuple;
+    private final ITreeIndexTupleReference resultTuple;
+    private final IPrimitiveValueProvider[] keyValueProviders;
+    private final IIndexCursorStats stats;
+    private final ITreeIndexTupleReference cmpTupleA;
+    private final ITreeIndexTupleReference cmpTupleB;
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(this::compare);
+    private final ArrayDeque<Entry> freeEntries = new ArrayDeque<>();
+    private IBufferCache bufferCache;
+    private int fileId = -1;
+    private int rootPage;
+    private ITupleReference queryPoint;
+    private int k;
+    private MultiComparator tupleCmp;
+    private int numResults;
+    private Entry next;
+    private Entry current;
+
+    public RTreeKNNSearchCursor(IRTreeInteriorFrame interiorFrame, IRTreeLeafFrame leafFrame) {
+        this(interiorFrame, leafFrame, NoOpIndexCursorStats.INSTANCE);
+    }
+
+    public RTreeKNNSearchCursor(IRTreeInteriorFrame interiorFrame, IRTreeLeafFrame leafFrame,
+            IIndexCursorStats stats) {
+        this.interiorFrame = interiorFrame;
+        this.leafFrame = leafFrame;
+        this.interiorTuple = interiorFrame.createTupleReference();
+        this.leafTuple = leafFrame.createTupleReference();
+        this.resultTuple = leafFrame.createTupleReference();
+        this.cmpTupleA = leafFrame.createTupleReference();
+        this.cmpTupleB = leafFrame.createTupleReference();
+        this.keyValueProviders = leafFrame.getKeyValueProviders();
+        this.stats = stats;
+    }
+
+    @Override
+    protected void doOpen(ICursorInitialState initialState, ISearchPredicate searchPred) throws HyracksDataException {
+        clear();
+        KNNSearchPredicate pred = (KNNSearchPredicate) searchPred;
+        queryPoint = pred.getQueryPoint();
+        k = pred.getK();
+        tupleCmp = pred.getTupleComparator();
+        numResults = 0;
+        rootPage = ((RTreeCursorInitialState) initialState).getRootPage();
+        queue.add(allocate().setPage(rootPage, -1, 0));
+    }
+
+    @Override
+    protected boolean doHasNext() throws HyracksDataException {
+        if (next != null) {
+            return true;
+        }
+        if (k >= 0 && numResults >= k) {
+            return false;
+        }
+        Entry entry;
+        while ((entry = queue.poll()) != null) {
+            if (entry.isTuple) {
+                next = entry;
+                return true;
+            }
+            try {
+                expand(entry);
+            } finally {
+                freeEntries.add(entry);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    protected void doNext() throws HyracksDataException {
+        if (current != null) {
+            freeEntries.add(current);
+        }
+        current = next;
+        next = null;
+        numResults++;
+        resultTuple.resetByTupleOffset(current.tuple, 0);
+    }
+
+    @Override
+    protected ITupleReference doGetTuple() {
+        return resultTuple;
+    }
+
+    /**
+     * @return the distance between the query point and the MBR of the current tuple
+     */
+    public double getDistance() {
+        return Math.sqrt(current.distance);
+    }
+
+    private void expand(Entry entry) throws HyracksDataException {
+        if (fileId < 0) {
+            throw new IllegalStateException();
+        }
+        ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, entry.pageId), false);
+        page.acquireReadLatch();
+        stats.getPageCounter().update(1);
+        try {
+            interiorFrame.setPage(page);
+            if (entry.pageId != rootPage && entry.parentLsn < interiorFrame.getPageNsn()) {
+                // concurrent split detected, the right page holds entries that were under the same parent entry
+                int rightPage = interiorFrame.getRightPage();
+                if (rightPage != -1) {
+                    queue.add(allocate().setPage(rightPage, entry.parentLsn, entry.distance));
+                }
+            }
+            if (!interiorFrame.isLeaf()) {
+                long pageLsn = interiorFrame.getPageLsn();
+                for (int i = 0; i < interiorFrame.getTupleCount(); i++) {
+                    interiorTuple.resetByTupleIndex(interiorFrame, i);
+                    double distance =
+                            RTreeComputationUtils.squaredMinDistance(queryPoint, interiorTuple, keyValueProviders);
+                    queue.add(allocate().setPage(interiorFrame.getChildPageId(i), pageLsn, distance));
+                }
+            } else {
+                leafFrame.setPage(page);
+                byte[] data = leafFrame.getBuffer().array();
+                for (int i = 0; i < leafFrame.getTupleCount(); i++) {
+                    leafTuple.resetByTupleIndex(leafFrame, i);
+                    double distance =
+                            RTreeComputationUtils.squaredMinDistance(queryPoint, leafTuple, keyValueProviders);
+                    queue.add(allocate().setTuple(data, leafFrame.getTupleOffset(i), leafTuple.getTupleSize(),
+                            distance));
+                }
+            }
+        } finally {
+            page.releaseReadLatch();
+            bufferCache.unpin(page);
+        }
+    }
+
+    private int compare(Entry entryA, Entry entryB) {
+        int c = Double.compare(entryA.distance, entryB.distance);
+        if (c != 0) {
+            return c;
+        }
+        if (entryA.isTuple != entryB.isTuple) {
+            return entryA.isTuple ? 1 : -1;
+        }
+        if (!entryA.isTuple || tupleCmp == null) {
+            return 0;
+        }
+        cmpTupleA.resetByTupleOffset(entryA.tuple, 0);
+        cmpTupleB.resetByTupleOffset(entryB.tuple, 0);
+        try {
+            return tupleCmp.compare(cmpTupleA, cmpTupleB);
+        } catch (HyracksDataException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    private Entry allocate() {
+        Entry entry = freeEntries.poll();
+        return entry != null ? entry : new Entry();
+    }
+
+    private void clear() {
+        freeEntries.addAll(queue);
+        queue.clear();
+        if (next != null) {
+            freeEntries.add(next);
+            next = null;
+        }
+        if (current != null) {
+            freeEntries.add(current);
+            current = null;
+        }
+    }
+
+    @Override
+    protected void doClose() throws HyracksDataException {
+        clear();
+    }
+
+    @Override
+    protected void doDestroy() throws HyracksDataException {
+        clear();
+        freeEntries.clear();
+    }
+
+    @Override
+    public void setBufferCache(IBufferCache bufferCache) {
+        this.bufferCache = bufferCache;
+    }
+
+    @Override
+    public void setFileId(int fileId) {
+        this.fileId = fileId;
+    }
+
+    @Override
+    public boolean isExclusiveLatchNodes() {
+        return false;
+    }
+
+    private static class Entry {
+        private double distance;
+        private boolean isTuple;
+        private int pageId;
+        private long parentLsn;
+        private byte[] tuple = new byte[0];
+
+        private Entry setPage(int pageId, long parentLsn, double distance) {
+            this.isTuple = false;
+            this.pageId = pageId;
+            this.parentLsn = parentLsn;
+            this.distance = distance;
+            return this;
+        }
+
+        private Entry setTuple(byte[] data, int offset, int length, double distance) {
+            this.isTuple = true;
+            if (tuple.length < length) {
+                tuple = new byte[length];
+            }
+            System.arraycopy(data, offset, tuple, 0, length);
+            this.distance = distance;
+            return this;
+        }
+    }
+}
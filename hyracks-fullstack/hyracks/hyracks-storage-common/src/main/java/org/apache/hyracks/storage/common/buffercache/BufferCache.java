@@ -583,6 +583,11 @@ public class BufferCache implements IBufferCacheInternal, ILifeCycleComponent, I
         }
     }
 
+    @Override
+    public void adviseWontNeed(ICachedPage page) {
+        pageReplacementStrategy.notifyCachePageScanned((ICachedPageInternal) page);
+    }
+
     @Override
     public void subscribe(IThreadStats stats) {
         statsSubscribers.put(Thread.currentThread(), stats);
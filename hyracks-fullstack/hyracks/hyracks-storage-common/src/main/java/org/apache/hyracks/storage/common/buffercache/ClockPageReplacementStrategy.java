@@ -112,15 +112,13 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
             if (cPage != null) {
                 /*
                  * We do two things here:
-                 * 1. If the page has been accessed, then we skip it -- The CAS would return
-                 * false if the current value is false which makes the page a possible candidate
-                 * for replacement.
+                 * 1. If the page gets a second chance, then we skip it.
                  * 2. We check with the buffer manager if it feels it's a good idea to use this
                  * page as a victim.
                  */
-                AtomicBoolean accessedFlag = getPerPageObject(cPage);
-                if (!accessedFlag.compareAndSet(true, false)) {
+                if (!secondChance(cPage, cycleCount)) {
                     if (cPage.isGoodVictim()) {
+                        victimFound(cPage);
                         return cPage;
                     }
                 }
@@ -144,6 +142,28 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         }
     }
 
+    /**
+     * Called for each page the clock hand passes while looking for a victim
+     *
+     * @param cPage
+     *            the page under the clock hand
+     * @param cycleCount
+     *            the number of full clock cycles completed without finding a victim
+     * @return true if the page must be skipped in this pass
+     */
+    protected boolean secondChance(ICachedPageInternal cPage, int cycleCount) {
+        // if the page has been accessed, then we skip it -- The CAS would return false if the current value is
+        // false which makes the page a possible candidate for replacement.
+        return getPerPageObject(cPage).compareAndSet(true, false);
+    }
+
+    /**
+     * Called when a page is chosen as a victim, before its content is replaced
+     */
+    protected void victimFound(ICachedPageInternal victim) {
+        // no op
+    }
+
     @Override
     public int getNumPages() {
         return numPages.get();
@@ -263,4 +283,9 @@ public class ClockPageReplacementStrategy implements IPageReplacementStrategy {
         getPerPageObject(cPage).set(false);
     }
 
+    @Override
+    public void notifyCachePageScanned(ICachedPageInternal cPage) {
+        // a scanned page may also be accessed repeatedly by other readers, clearing its access bit could evict it
+    }
+
 }
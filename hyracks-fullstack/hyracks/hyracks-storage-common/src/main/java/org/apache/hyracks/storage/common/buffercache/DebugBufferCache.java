@@ -89,6 +89,11 @@ public class DebugBufferCache implements IBufferCache {
         unpinCount.addAndGet(1);
     }
 
+    @Override
+    public void adviseWontNeed(ICachedPage page) {
+        bufferCache.adviseWontNeed(page);
+    }
+
     @Override
     public int getPageSize() {
         return bufferCache.getPageSize();
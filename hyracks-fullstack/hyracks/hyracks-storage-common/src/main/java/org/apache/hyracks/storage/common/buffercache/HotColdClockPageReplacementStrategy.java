@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A scan resistant variant of the clock in the spirit of CLOCK-Pro. A page starts cold and only becomes hot when it
+ * is accessed again while it is cached. Victims are only taken from the cold pages, and hot pages are demoted to cold
+ * when the clock passes them unreferenced while there are more hot pages than the cache allows. Pages read once by a
+ * scan therefore replace each other instead of the pages that are accessed repeatedly, such as the upper levels of
+ * B-trees.
+ * The share of the cache given to cold pages adapts: it grows when a page is requested shortly after it was evicted
+ * from the cold pages and shrinks when evicted pages are not requested again. Such a page is reloaded as hot.
+ */
+public class HotColdClockPageReplacementStrategy extends ClockPageReplacementStrategy {
+    private static final int REFERENCED = 0x1;
+    private static final int HOT = 0x2;
+    // the access that loads a page does not count as a reference
+    private static final int LOADED = 0x4;
+    private static final long NO_GHOST = -1L;
+    private static final double MIN_COLD_FRACTION = 0.01;
+    private static final double INITIAL_COLD_FRACTION = 0.1;
+    private static final double MAX_COLD_FRACTION = 0.5;
+
+    private final AtomicInteger numHotPages;
+    private final AtomicInteger coldTarget;
+    private final int minColdTarget;
+    private final int maxColdTarget;
+    // the disk page ids of recently evicted cold pages
+    private final AtomicLongArray ghosts;
+    private final int ghostMask;
+
+    public HotColdClockPageReplacementStrategy(ICacheMemoryAllocator allocator, int pageSize,
+            int maxAllowedNumPages) {
+        super(allocator, pageSize, maxAllowedNumPages);
+        numHotPages = new AtomicInteger();
+        minColdTarget = Math.max(1, (int) (maxAllowedNumPages * MIN_COLD_FRACTION));
+        maxColdTarget = Math.max(minColdTarget, (int) (maxAllowedNumPages * MAX_COLD_FRACTION));
+        coldTarget = new AtomicInteger(Math.max(minColdTarget, (int) (maxAllowedNumPages * INITIAL_COLD_FRACTION)));
+        final int numGhosts = Integer.highestOneBit(Math.max(1, maxAllowedNumPages - 1)) << 1;
+        ghosts = new AtomicLongArray(numGhosts);
+        ghostMask = numGhosts - 1;
+        for (int i = 0; i < numGhosts; i++) {
+            ghosts.set(i, NO_GHOST);
+        }
+    }
+
+    @Override
+    public Object createPerPageStrategyObject(int cpid) {
+        return new AtomicInteger();
+    }
+
+    @Override
+    public void notifyCachePageReset(ICachedPageInternal cPage) {
+        final long dpid = cPage.getDiskPageId();
+        int state = LOADED;
+        if (dpid >= 0 && ghosts.compareAndSet(ghostSlot(dpid), dpid, NO_GHOST)) {
+            // the page was evicted before it could prove to be hot
+            adjustColdTarget(1);
+            state |= HOT;
+        }
+        final int previous = getState(cPage).getAndSet(state);
+        final int delta = (state & HOT) - (previous & HOT);
+        if (delta != 0) {
+            numHotPages.addAndGet(Integer.signum(delta));
+        }
+    }
+
+    @Override
+    public void notifyCachePageAccess(ICachedPageInternal cPage) {
+        final AtomicInteger state = getState(cPage);
+        int s = state.get();
+        while ((s & REFERENCED) == 0) {
+            final int next = (s & LOADED) != 0 ? s & ~LOADED : s | REFERENCED;
+            if (state.compareAndSet(s, next)) {
+                return;
+            }
+            s = state.get();
+        }
+    }
+
+    @Override
+    public void adviseWontNeed(ICachedPageInternal cPage) {
+        // hot pages stay hot, the hint only keeps scanned pages from becoming hot
+        final AtomicInteger state = getState(cPage);
+        int s = state.get();
+        while ((s & HOT) == 0 && (s & (REFERENCED | LOADED)) != 0) {
+            if (state.compareAndSet(s, s & ~(REFERENCED | LOADED))) {
+                return;
+            }
+            s = state.get();
+        }
+    }
+
+    @Override
+    public void notifyCachePageScanned(ICachedPageInternal cPage) {
+        adviseWontNeed(cPage);
+    }
+
+    @Override
+    protected boolean secondChance(ICachedPageInternal cPage, int cycleCount) {
+        final AtomicInteger state = getState(cPage);
+        final int s = state.get();
+        if ((s & HOT) != 0) {
+            if ((s & REFERENCED) != 0) {
+                state.compareAndSet(s, s & ~REFERENCED);
+            } else if ((cycleCount > 0 || numHotPages.get() > getMaxAllowedNumPages() - coldTarget.get())
+                    && state.compareAndSet(s, s & ~HOT)) {
+                // demote it. if no victim was found in a full cycle, the hot pages must make room
+                numHotPages.decrementAndGet();
+            }
+            return true;
+        }
+        if ((s & REFERENCED) != 0) {
+            // accessed again while cold
+            if (state.compareAndSet(s, (s & ~REFERENCED) | HOT)) {
+                numHotPages.incrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    @Override
+    protected void victimFound(ICachedPageInternal victim) {
+        final long dpid = victim.getDiskPageId();
+        if (dpid >= 0) {
+            final long forgotten = ghosts.getAndSet(ghostSlot(dpid), dpid);
+            if (forgotten != NO_GHOST && forgotten != dpid) {
+                // an evicted page was not requested again while it was remembered
+                adjustColdTarget(-1);
+            }
+        }
+    }
+
+    private void adjustColdTarget(int delta) {
+        int target;
+        int next;
+        do {
+            target = coldTarget.get();
+            next = Math.max(minColdTarget, Math.min(maxColdTarget, target + delta));
+        } while (target != next && !coldTarget.compareAndSet(target, next));
+    }
+
+    private int ghostSlot(long dpid) {
+        return (int) ((dpid * 0x9E3779B97F4A7C15L) >>> 32) & ghostMask;
+    }
+
+    private static AtomicInteger getState(ICachedPageInternal cPage) {
+        return (AtomicInteger) cPage.getReplacementStrategyObject();
+    }
+
+    public int getNumHotPages() {
+        return numHotPages.get();
+    }
+
+    public int getColdTarget() {
+        return coldTarget.get();
+    }
+}
@@ -113,6 +113,18 @@ public interface IBufferCache {
      */
     void unpin(ICachedPage page) throws HyracksDataException;
 
+    /**
+     * Hint that a pinned page was read as part of a scan and is not expected to be accessed again soon, so that it
+     * can be replaced ahead of the pages that are accessed repeatedly. Only scan resistant replacement strategies act
+     * on it, the clock strategy ignores it.
+     *
+     * @param page
+     *            the page
+     */
+    default void adviseWontNeed(ICachedPage page) {
+        // no op
+    }
+
     /**
      * Flush the page if it is dirty
      *
@@ -33,6 +33,12 @@ public interface IPageReplacementStrategy {
 
     public void adviseWontNeed(ICachedPageInternal cPage);
 
+    /**
+     * Hint that a page was read by a scan (see {@link IBufferCache#adviseWontNeed(ICachedPage)}). Strategies that
+     * cannot tell scanned pages from the pages that are accessed repeatedly ignore it.
+     */
+    public void notifyCachePageScanned(ICachedPageInternal cPage);
+
     public ICachedPageInternal findVictim();
 
     public ICachedPageInternal findVictim(int multiplier);
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common.buffercache;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+
+/**
+ * A token bucket rate limiter. Tokens are added to the bucket at the configured rate, up to the number of tokens
+ * accumulated in {@code maxBurstSeconds}, and each request takes its permits from the bucket. When there are not
+ * enough tokens, the missing ones are first borrowed from the lender bucket, if any, and otherwise reserved from the
+ * tokens to come: the bucket goes into debt and the request sleeps until the debt is paid back.
+ *
+ * Buckets lending each other their unused tokens share a bandwidth while guaranteeing each of them its own rate, e.g.
+ * flushes always get their share of the disk bandwidth even when merges run, and either can use the bandwidth the
+ * other leaves unused.
+ */
+public class TokenBucketRateLimiter implements IRateLimiter {
+    private final double maxBurstSeconds;
+    private double ratePerSecond;
+    private double tokens;
+    private long lastRefillNanos;
+    private volatile TokenBucketRateLimiter lender;
+
+    public TokenBucketRateLimiter(double ratePerSecond, double maxBurstSeconds) {
+        if (ratePerSecond <= 0 || maxBurstSeconds <= 0) {
+            throw new IllegalArgumentException(
+                    "Invalid token bucket rate " + ratePerSecond + " or burst " + maxBurstSeconds);
+        }
+        this.ratePerSecond = ratePerSecond;
+        this.maxBurstSeconds = maxBurstSeconds;
+        // start full so that the first requests do not wait
+        tokens = ratePerSecond * maxBurstSeconds;
+        lastRefillNanos = System.nanoTime();
+    }
+
+    /**
+     * Sets the bucket whose unused tokens are borrowed when this bucket runs out of tokens
+     */
+    public void setLender(TokenBucketRateLimiter lender) {
+        this.lender = lender;
+    }
+
+    @Override
+    public synchronized void setRate(double ratePerSecond) {
+        if (ratePerSecond <= 0) {
+            throw new IllegalArgumentException("Invalid token bucket rate " + ratePerSecond);
+        }
+        refill();
+        this.ratePerSecond = ratePerSecond;
+        tokens = Math.min(tokens, getCapacity());
+    }
+
+    public synchronized double getRate() {
+        return ratePerSecond;
+    }
+
+    @Override
+    public void request(int permits) throws HyracksDataException {
+        double missing = permits - takeAvailable(permits);
+        TokenBucketRateLimiter currentLender = lender;
+        if (missing > 0 && currentLender != null) {
+            missing -= currentLender.takeAvailable(missing);
+        }
+        if (missing > 0) {
+            long waitNanos = reserve(missing);
+            try {
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw HyracksDataException.create(e);
+            }
+        }
+    }
+
+    /**
+     * Takes up to {@code permits} of the tokens available right now, without waiting
+     *
+     * @return the number of tokens taken
+     */
+    public synchronized double takeAvailable(double permits) {
+        refill();
+        double taken = Math.min(permits, Math.max(tokens, 0));
+        tokens -= taken;
+        return taken;
+    }
+
+    private synchronized long reserve(double permits) {
+        refill();
+        tokens -= permits;
+        return tokens >= 0 ? 0 : (long) (-tokens / ratePerSecond * TimeUnit.SECONDS.toNanos(1));
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (double) (now - lastRefillNanos) / TimeUnit.SECONDS.toNanos(1);
+        lastRefillNanos = now;
+        tokens = Math.min(tokens + elapsedSeconds * ratePerSecond, getCapacity());
+    }
+
+    private double getCapacity() {
+        return ratePerSecond * maxBurstSeconds;
+    }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.dataflow.common.data.partition;
+
+import java.io.DataOutput;
+import java.util.BitSet;
+
+import org.apache.hyracks.api.comm.IFrame;
+import org.apache.hyracks.api.comm.IFrameTupleAccessor;
+import org.apache.hyracks.api.comm.VSizeFrame;
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.IBinaryHashFunctionFactory;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.dataflow.value.ITupleMultiPartitionComputer;
+import org.apache.hyracks.api.dataflow.value.ITuplePartitionComputer;
+import org.apache.hyracks.api.dataflow.value.RecordDescriptor;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.data.std.accessors.PointableBinaryHashFunctionFactory;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAccessor;
+import org.apache.hyracks.dataflow.common.comm.io.FrameTupleAppender;
+import org.apache.hyracks.dataflow.common.data.marshalling.Integer64SerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.partition.FieldHashSkewPartitionComputerFactory.Mode;
+import org.apache.hyracks.test.support.TestUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class FieldHashSkewPartitionComputerFactoryTest {
+
+    private static final int FRAME_SIZE = 32768;
+    private static final int N_PARTS = 8;
+    private static final long HOT_KEY = 42L;
+    private static final int[] HASH_FIELDS = new int[] { 0, 1 };
+    private static final IBinaryHashFunctionFactory[] HASH_FUNCTION_FACTORIES =
+            new IBinaryHashFunctionFactory[] { PointableBinaryHashFunctionFactory.of(LongPointable.FACTORY),
+                    PointableBinaryHashFunctionFactory.of(LongPointable.FACTORY) };
+    @SuppressWarnings("rawtypes")
+    private final RecordDescriptor recordDesc = new RecordDescriptor(new ISerializerDeserializer[] {
+            Integer64SerializerDeserializer.INSTANCE, Integer64SerializerDeserializer.INSTANCE });
+    private final IHyracksTaskContext ctx = TestUtils.create(FRAME_SIZE);
+
+    @Test
+    public void testColdKeysAreHashPartitioned() throws HyracksDataException {
+        IFrameTupleAccessor accessor = prepareData(0L, 1000L);
+        ITuplePartitionComputer hashPartitioner =
+                new FieldHashPartitionComputerFactory(HASH_FIELDS, HASH_FUNCTION_FACTORIES).createPartitioner(ctx);
+        for (Mode mode : Mode.values()) {
+            ITupleMultiPartitionComputer skewPartitioner = createPartitioner(mode);
+            for (int i = 0; i < accessor.getTupleCount(); i++) {
+                if (i == HOT_KEY) {
+                    continue;
+                }
+                BitSet partitions = skewPartitioner.partition(accessor, i, N_PARTS);
+                Assert.assertEquals(1, partitions.cardinality());
+                Assert.assertEquals(hashPartitioner.partition(accessor, i, N_PARTS), partitions.nextSetBit(0));
+            }
+        }
+    }
+
+    @Test
+    public void testHotKeyIsSplit() throws HyracksDataException {
+        IFrameTupleAccessor accessor = prepareData(HOT_KEY, 400L);
+        ITupleMultiPartitionComputer partitioner = createPartitioner(Mode.SPLIT);
+        int[] counts = new int[N_PARTS];
+        for (int i = 0; i < accessor.getTupleCount(); i++) {
+            BitSet partitions = partitioner.partition(accessor, i, N_PARTS);
+            Assert.assertEquals(1, partitions.cardinality());
+            counts[partitions.nextSetBit(0)]++;
+        }
+        for (int p = 0; p < N_PARTS; p++) {
+            // the load of the hot key is spread evenly
+            Assert.assertEquals(400 / N_PARTS, counts[p]);
+        }
+    }
+
+    @Test
+    public void testHotKeyIsReplicated() throws HyracksDataException {
+        IFrameTupleAccessor accessor = prepareData(HOT_KEY, 1L);
+        ITupleMultiPartitionComputer partitioner = createPartitioner(Mode.REPLICATE);
+        // every split tuple meets the replicated tuples of the other input
+        Assert.assertEquals(N_PARTS, partitioner.partition(accessor, 0, N_PARTS).cardinality());
+        BitSet replicated = partitioner.partition(accessor, 0, 1);
+        Assert.assertEquals(1, replicated.cardinality());
+        Assert.assertTrue(replicated.get(0));
+    }
+
+    private ITupleMultiPartitionComputer createPartitioner(Mode mode) throws HyracksDataException {
+        byte[][] hotValues = new byte[][] { serialize(HOT_KEY) };
+        ITupleMultiPartitionComputer partitioner =
+                new FieldHashSkewPartitionComputerFactory(HASH_FIELDS, HASH_FUNCTION_FACTORIES, 1, hotValues, mode)
+                        .createPartitioner(ctx);
+        partitioner.initialize();
+        return partitioner;
+    }
+
+    private static byte[] serialize(long value) throws HyracksDataException {
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(1);
+        tb.addField(Integer64SerializerDeserializer.INSTANCE, value);
+        byte[] bytes = new byte[tb.getSize()];
+        System.arraycopy(tb.getByteArray(), 0, bytes, 0, bytes.length);
+        return bytes;
+    }
+
+    /**
+     * Prepares a frame of tuples (i, key) with the keys [from, from + count) if from is not the hot key, or with count
+     * times the hot key otherwise. The hot values are checked on the second field.
+     */
+    private IFrameTupleAccessor prepareData(long from, long count) throws HyracksDataException {
+        IFrame frame = new VSizeFrame(ctx);
+        FrameTupleAppender appender = new FrameTupleAppender();
+        ArrayTupleBuilder tb = new ArrayTupleBuilder(recordDesc.getFieldCount());
+        DataOutput dos = tb.getDataOutput();
+        appender.reset(frame, true);
+        for (long i = 0; i < count; i++) {
+            tb.reset();
+            Integer64SerializerDeserializer.INSTANCE.serialize(i % 3, dos);
+            tb.addFieldEndOffset();
+            Integer64SerializerDeserializer.INSTANCE.serialize(from == HOT_KEY ? HOT_KEY : from + i, dos);
+            tb.addFieldEndOffset();
+            Assert.assertTrue(appender.append(tb.getFieldEndOffsets(), tb.getByteArray(), 0, tb.getSize()));
+        }
+        IFrameTupleAccessor accessor = new FrameTupleAccessor(recordDesc);
+        accessor.reset(frame.getBuffer());
+        return accessor;
+    }
+}
@@ -0,0 +1,313 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree;
+
+import java.io.File;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.hyracks.api.application.INCServiceContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.TreeIndexTestUtils;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationStatus;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperationScheduler;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMPageWriteCallbackFactory;
+import org.apache.hyracks.storage.am.lsm.common.impls.LSMIndexPageWriteCallback;
+import org.apache.hyracks.storage.common.IResource;
+import org.apache.hyracks.storage.common.buffercache.DebugBufferCache;
+import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.IPageWriteCallback;
+import org.apache.hyracks.storage.common.buffercache.IRateLimiter;
+import org.apache.hyracks.storage.common.buffercache.NoOpRateLimiter;
+import org.apache.hyracks.storage.common.compression.file.ICompressedPageWriter;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+@SuppressWarnings("rawtypes")
+public class LSMBTreePartitionedMergeTest {
+    private static final int MERGE_PARALLELISM = 4;
+    // enough tuples for the bulk loaded component to span several merge ranges
+    private static final int NUM_BULK_LOADED_TUPLES = 40000;
+    private static final int NUM_INSERTED_TUPLES = 100;
+    private static final int NUM_FLUSHED_COMPONENTS = 3;
+    // the latency of a page read of the merge, as if the merging components were not cached
+    private static final long PAGE_READ_MICROS = 500;
+    // the latency of a page write of the merged component, which keeps the bulk loader behind the merge ranges
+    private static final long PAGE_WRITE_MICROS = 200;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils orderedIndexTestUtils = new OrderedIndexTestUtils();
+    private final AtomicInteger executedRanges = new AtomicInteger();
+    private final AtomicInteger runningRanges = new AtomicInteger();
+    private final AtomicInteger maxRunningRanges = new AtomicInteger();
+    private ExecutorService executor;
+    private SlowReadBufferCache bufferCache;
+
+    @Before
+    public void setUp() throws HyracksDataException {
+        harness.setUp();
+        executor = Executors.newCachedThreadPool();
+        bufferCache = new SlowReadBufferCache(harness.getDiskBufferCache());
+    }
+
+    @After
+    public void tearDown() throws HyracksDataException {
+        executor.shutdownNow();
+        harness.tearDown();
+    }
+
+    @Test
+    public void testPartitionedMerge() throws Exception {
+        merge(MERGE_PARALLELISM, false, harness.getPageWriteCallbackFactory());
+        Assert.assertTrue("The merge was not partitioned", executedRanges.get() > 1);
+        checkNoSpillFiles();
+    }
+
+    /**
+     * Merges components whose page reads are slow, as when they are read from the disk, sequentially and then with
+     * {@link #MERGE_PARALLELISM} concurrent ranges. The merged component is written by a single bulk loader, so the
+     * ranges that are not read yet must keep on running ahead of the bulk loader for all of them to run at the same
+     * time. Both merges must produce the same index.
+     */
+    @Test
+    public void testPartitionedMergeConcurrency() throws Exception {
+        merge(1, true, harness.getPageWriteCallbackFactory());
+        Assert.assertEquals(0, executedRanges.get());
+        merge(MERGE_PARALLELISM, true, harness.getPageWriteCallbackFactory());
+        Assert.assertTrue("The merge was not partitioned", executedRanges.get() > MERGE_PARALLELISM);
+        Assert.assertEquals(MERGE_PARALLELISM, maxRunningRanges.get());
+        checkNoSpillFiles();
+    }
+
+    /**
+     * Merges with a bulk loader slower than the merge ranges, so that the ranges that are not read yet spill their
+     * batches, and checks that the spilled batches are written through the rate limiter of the merge
+     */
+    @Test
+    public void testRateLimitedSpills() throws Exception {
+        SlowWriteCallbackFactory pageWriteCallbackFactory = new SlowWriteCallbackFactory();
+        merge(MERGE_PARALLELISM, false, pageWriteCallbackFactory);
+        Assert.assertEquals(MERGE_PARALLELISM, maxRunningRanges.get());
+        Assert.assertTrue("No batch was spilled", pageWriteCallbackFactory.spillRateLimiter.permits.get() > 0);
+        checkNoSpillFiles();
+    }
+
+    /**
+     * Loads an index, merges all its components with {@code parallelism} concurrent ranges, checks the merged index
+     * and destroys it
+     */
+    private void merge(int parallelism, boolean slowReads, ILSMPageWriteCallbackFactory pageWriteCallbackFactory)
+            throws Exception {
+        ISerializerDeserializer[] fieldSerdes =
+                { IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+        OrderedIndexTestContext ctx = LSMBTreeTestContext.create(harness.getIOManager(),
+                harness.getVirtualBufferCaches(), harness.getFileReference(), bufferCache, fieldSerdes, 1,
+                harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(), harness.getOperationTracker(),
+                new PartitionedMergeScheduler(harness.getIOScheduler(), parallelism),
+                harness.getIOOperationCallbackFactory(), pageWriteCallbackFactory,
+                harness.getMetadataPageManagerFactory(), false, true, false);
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        orderedIndexTestUtils.bulkLoadIntTuples(ctx, NUM_BULK_LOADED_TUPLES, harness.getRandom());
+        for (int i = 0; i < NUM_FLUSHED_COMPONENTS; i++) {
+            orderedIndexTestUtils.insertIntTuples(ctx, NUM_INSERTED_TUPLES, harness.getRandom());
+            // Deactivate and the re-activate the index to force it flush its in memory component
+            ctx.getIndex().deactivate();
+            ctx.getIndex().activate();
+        }
+
+        LSMBTree lsmBTree = (LSMBTree) ctx.getIndex();
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndexAccessor();
+        bufferCache.slowReads = slowReads;
+        ILSMIOOperation mergeOp = accessor.scheduleMerge(lsmBTree.getDiskComponents());
+        bufferCache.slowReads = false;
+        Assert.assertEquals(LSMIOOperationStatus.SUCCESS, mergeOp.getStatus());
+        mergeOp.addCompleteListener(op -> TreeIndexTestUtils.checkCursorStats(op));
+        Assert.assertEquals(1, lsmBTree.getDiskComponents().size());
+
+        orderedIndexTestUtils.checkPointSearches(ctx);
+        orderedIndexTestUtils.checkScan(ctx);
+        orderedIndexTestUtils.checkDiskOrderScan(ctx);
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+    }
+
+    private void checkNoSpillFiles() {
+        File[] spillFiles = harness.getIOManager().getWorkspacePath(0).listFiles((dir, name) -> name.startsWith(
+                "merge-range"));
+        Assert.assertEquals(0, spillFiles == null ? 0 : spillFiles.length);
+    }
+
+    private static void sleep(long micros) throws HyracksDataException {
+        long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(micros);
+        try {
+            for (long remaining = end - System.nanoTime(); remaining > 0; remaining = end - System.nanoTime()) {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw HyracksDataException.create(e);
+        }
+    }
+
+    private static class SlowReadBufferCache extends DebugBufferCache {
+        private final IBufferCache bufferCache;
+        private volatile boolean slowReads;
+
+        SlowReadBufferCache(IBufferCache bufferCache) {
+            super(bufferCache);
+            this.bufferCache = bufferCache;
+        }
+
+        @Override
+        public ICompressedPageWriter getCompressedPageWriter(int fileId) {
+            return bufferCache.getCompressedPageWriter(fileId);
+        }
+
+        @Override
+        public ICachedPage pin(long dpid, boolean newPage) throws HyracksDataException {
+            if (slowReads && !newPage) {
+                sleep(PAGE_READ_MICROS);
+            }
+            return super.pin(dpid, newPage);
+        }
+    }
+
+    /**
+     * Counts the permits requested from it and optionally makes each request wait
+     */
+    private static class CountingRateLimiter implements IRateLimiter {
+        private final AtomicLong permits = new AtomicLong();
+        private final long requestMicros;
+
+        CountingRateLimiter(long requestMicros) {
+            this.requestMicros = requestMicros;
+        }
+
+        @Override
+        public void setRate(double ratePerSecond) {
+            // the rate is not limited
+        }
+
+        @Override
+        public void request(int tokens) throws HyracksDataException {
+            permits.addAndGet(tokens);
+            if (requestMicros > 0) {
+                sleep(requestMicros);
+            }
+        }
+    }
+
+    /**
+     * Slows the page writes of merges down and counts the writes of merges that do not go through a page write
+     * callback
+     */
+    private static class SlowWriteCallbackFactory implements ILSMPageWriteCallbackFactory {
+        private static final long serialVersionUID = 1L;
+
+        private final transient CountingRateLimiter pageRateLimiter = new CountingRateLimiter(PAGE_WRITE_MICROS);
+        private final transient CountingRateLimiter spillRateLimiter = new CountingRateLimiter(0);
+
+        @Override
+        public void initialize(INCServiceContext ncCtx, IResource resource) {
+            // nothing to initialize
+        }
+
+        @Override
+        public IPageWriteCallback createPageWriteCallback() {
+            return new LSMIndexPageWriteCallback(pageRateLimiter, 0);
+        }
+
+        @Override
+        public IPageWriteCallback createPageWriteCallback(LSMIOOperationType ioOperationType) {
+            return ioOperationType == LSMIOOperationType.MERGE ? createPageWriteCallback()
+                    : new LSMIndexPageWriteCallback(NoOpRateLimiter.INSTANCE, 0);
+        }
+
+        @Override
+        public IRateLimiter getRateLimiter(LSMIOOperationType ioOperationType) {
+            return ioOperationType == LSMIOOperationType.MERGE ? spillRateLimiter : NoOpRateLimiter.INSTANCE;
+        }
+
+        @Override
+        public JsonNode toJson(IPersistedResourceRegistry registry) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private class PartitionedMergeScheduler implements ILSMIOOperationScheduler {
+        private final ILSMIOOperationScheduler scheduler;
+        private final int parallelism;
+
+        PartitionedMergeScheduler(ILSMIOOperationScheduler scheduler, int parallelism) {
+            this.scheduler = scheduler;
+            this.parallelism = parallelism;
+        }
+
+        @Override
+        public void scheduleOperation(ILSMIOOperation operation) throws HyracksDataException {
+            scheduler.scheduleOperation(operation);
+        }
+
+        @Override
+        public void completeOperation(ILSMIOOperation operation) throws HyracksDataException {
+            scheduler.completeOperation(operation);
+        }
+
+        @Override
+        public int getMergeParallelism() {
+            return parallelism;
+        }
+
+        @Override
+        public Executor getMergeRangeExecutor() {
+            return command -> {
+                executedRanges.incrementAndGet();
+                executor.execute(() -> {
+                    maxRunningRanges.accumulateAndGet(runningRanges.incrementAndGet(), Math::max);
+                    try {
+                        command.run();
+                    } finally {
+                        runningRanges.decrementAndGet();
+                    }
+                });
+            };
+        }
+    }
+}
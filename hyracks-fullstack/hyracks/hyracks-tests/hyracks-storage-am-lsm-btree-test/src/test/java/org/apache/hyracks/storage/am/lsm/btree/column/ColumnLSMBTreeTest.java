@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.column;
+
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestContext;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.lsm.btree.column.impls.ColumnBTree;
+import org.apache.hyracks.storage.am.lsm.btree.impls.LSMBTree;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestContext;
+import org.apache.hyracks.storage.am.lsm.btree.util.LSMBTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.btree.util.TestColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the searches of an LSM B-Tree with columnar disk components after flushes and merges of components that
+ * contain inserted, updated and deleted (i.e., antimatter) tuples
+ */
+@SuppressWarnings("rawtypes")
+public class ColumnLSMBTreeTest {
+    private static final ISerializerDeserializer[] FIELD_SERDES = { IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+            IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE };
+    private static final int NUM_KEYS = 1;
+
+    private final LSMBTreeTestHarness harness = new LSMBTreeTestHarness();
+    private final OrderedIndexTestUtils orderedIndexTestUtils = new OrderedIndexTestUtils();
+
+    @Before
+    public void setUp() throws Exception {
+        harness.setUp();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        harness.tearDown();
+    }
+
+    @Test
+    public void singlePageRowGroups() throws Exception {
+        runTest(1);
+    }
+
+    @Test
+    public void multiPageRowGroups() throws Exception {
+        // the values of a leaf (a few dozen tuples of four integers) span several pages
+        runTest(8);
+    }
+
+    private void runTest(int maxRowGroupPages) throws Exception {
+        OrderedIndexTestContext ctx = LSMBTreeTestContext.create(harness.getIOManager(),
+                harness.getVirtualBufferCaches(), harness.getFileReference(), harness.getDiskBufferCache(),
+                FIELD_SERDES, NUM_KEYS, harness.getBoomFilterFalsePositiveRate(), harness.getMergePolicy(),
+                harness.getOperationTracker(), harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getPageWriteCallbackFactory(), harness.getMetadataPageManagerFactory(), false, true, false,
+                new TestColumnManagerFactory(NUM_KEYS, FIELD_SERDES.length, maxRowGroupPages));
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+        try {
+            Random rnd = harness.getRandom();
+            ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndexAccessor();
+            LSMBTree lsmBTree = (LSMBTree) ctx.getIndex();
+
+            orderedIndexTestUtils.insertIntTuples(ctx, 1000, rnd);
+            accessor.scheduleFlush();
+            check(ctx);
+            for (ILSMDiskComponent component : lsmBTree.getDiskComponents()) {
+                Assert.assertTrue(component.getIndex() instanceof ColumnBTree);
+            }
+
+            // updates and deletes of the tuples of the first component
+            orderedIndexTestUtils.deleteTuples(ctx, 300, rnd);
+            orderedIndexTestUtils.upsertIntTuples(ctx, 300, rnd);
+            check(ctx);
+            accessor.scheduleFlush();
+            check(ctx);
+
+            // deletes of tuples in columnar components
+            orderedIndexTestUtils.deleteTuples(ctx, 200, rnd);
+            check(ctx);
+            accessor.scheduleFlush();
+            Assert.assertTrue(lsmBTree.getDiskComponents().size() >= 3);
+
+            accessor.scheduleMerge(lsmBTree.getDiskComponents());
+            Assert.assertEquals(1, lsmBTree.getDiskComponents().size());
+            check(ctx);
+
+            orderedIndexTestUtils.insertIntTuples(ctx, 500, rnd);
+            orderedIndexTestUtils.deleteTuples(ctx, 100, rnd);
+            accessor.scheduleFlush();
+            accessor.scheduleMerge(lsmBTree.getDiskComponents());
+            check(ctx);
+        } finally {
+            ctx.getIndex().deactivate();
+            ctx.getIndex().destroy();
+        }
+    }
+
+    private void check(OrderedIndexTestContext ctx) throws Exception {
+        orderedIndexTestUtils.checkScan(ctx);
+        orderedIndexTestUtils.checkPointSearches(ctx);
+        ITupleReference lowKey = TupleUtils.createIntegerTuple(-1000);
+        ITupleReference highKey = TupleUtils.createIntegerTuple(1000);
+        orderedIndexTestUtils.checkRangeSearch(ctx, lowKey, highKey, true, true);
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.btree.util;
+
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.hyracks.api.exceptions.HyracksDataException;
+import org.apache.hyracks.api.io.IJsonSerializable;
+import org.apache.hyracks.api.io.IPersistedResourceRegistry;
+import org.apache.hyracks.data.std.api.IValueReference;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.VoidPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnManagerFactory;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnReader;
+import org.apache.hyracks.storage.am.lsm.btree.column.api.IColumnWriter;
+import org.apache.hyracks.storage.common.projection.ITupleProjector;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+/**
+ * A column manager that stores every value field of the tuples in its own column, without any encoding. Each value
+ * of a column is prefixed by its length, which is -1 for the antimatter tuples. The schema is empty.
+ */
+public class TestColumnManagerFactory implements IColumnManagerFactory {
+    private static final long serialVersionUID = 1L;
+    private static final int ANTIMATTER_LENGTH = -1;
+
+    private final int numKeys;
+    private final int fieldCount;
+    private final int maxRowGroupPages;
+
+    public TestColumnManagerFactory(int numKeys, int fieldCount, int maxRowGroupPages) {
+        this.numKeys = numKeys;
+        this.fieldCount = fieldCount;
+        this.maxRowGroupPages = maxRowGroupPages;
+    }
+
+    @Override
+    public IColumnWriter createWriter() {
+        return new TestColumnWriter(numKeys, fieldCount - numKeys);
+    }
+
+    @Override
+    public IColumnReader createReader(ITupleProjector projector) {
+        return new TestColumnReader(fieldCount - numKeys);
+    }
+
+    @Override
+    public int getMaxRowGroupPages() {
+        return maxRowGroupPages;
+    }
+
+    @Override
+    public JsonNode toJson(IPersistedResourceRegistry registry) throws HyracksDataException {
+        return registry.getClassIdentifier(getClass(), serialVersionUID);
+    }
+
+    @SuppressWarnings("squid:S1172") // unused parameter
+    public static IJsonSerializable fromJson(IPersistedResourceRegistry registry, JsonNode json) {
+        throw new UnsupportedOperationException();
+    }
+
+    private static class TestColumnWriter implements IColumnWriter {
+        private final int numKeys;
+        private final ArrayBackedValueStorage[] columns;
+        private final ArrayBackedValueStorage schema;
+        private int rowCount;
+
+        TestColumnWriter(int numKeys, int numberOfColumns) {
+            this.numKeys = numKeys;
+            columns = new ArrayBackedValueStorage[numberOfColumns];
+            for (int i = 0; i < numberOfColumns; i++) {
+                columns[i] = new ArrayBackedValueStorage();
+            }
+            schema = new ArrayBackedValueStorage();
+        }
+
+        @Override
+        public void add(ITupleReference tuple) throws HyracksDataException {
+            try {
+                for (int i = 0; i < columns.length; i++) {
+                    DataOutput out = columns[i].getDataOutput();
+                    out.writeInt(tuple.getFieldLength(numKeys + i));
+                    out.write(tuple.getFieldData(numKeys + i), tuple.getFieldStart(numKeys + i),
+                            tuple.getFieldLength(numKeys + i));
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            rowCount++;
+        }
+
+        @Override
+        public void addAntimatter(ITupleReference tuple) throws HyracksDataException {
+            try {
+                for (ArrayBackedValueStorage column : columns) {
+                    column.getDataOutput().writeInt(ANTIMATTER_LENGTH);
+                }
+            } catch (IOException e) {
+                throw HyracksDataException.create(e);
+            }
+            rowCount++;
+        }
+
+        @Override
+        public int getRowCount() {
+            return rowCount;
+        }
+
+        @Override
+        public int getEstimatedSize() {
+            int size = 0;
+            for (ArrayBackedValueStorage column : columns) {
+                size += column.getLength();
+            }
+            return size;
+        }
+
+        @Override
+        public void finish() {
+            // The columns are not encoded
+        }
+
+        @Override
+        public IValueReference getSchema() {
+            return schema;
+        }
+
+        @Override
+        public int getNumberOfColumns() {
+            return columns.length;
+        }
+
+        @Override
+        public IValueReference getColumn(int columnIndex) {
+            return columns[columnIndex];
+        }
+
+        @Override
+        public void reset() {
+            for (ArrayBackedValueStorage column : columns) {
+                column.reset();
+            }
+            rowCount = 0;
+        }
+    }
+
+    private static class TestColumnReader implements IColumnReader {
+        private final VoidPointable[] values;
+        private final int[] columnStarts;
+        private final int[] columnEnds;
+        private final int[] positions;
+        private byte[] data;
+        private int nextRow;
+
+        TestColumnReader(int numberOfColumns) {
+            values = new VoidPointable[numberOfColumns];
+            for (int i = 0; i < numberOfColumns; i++) {
+                values[i] = new VoidPointable();
+            }
+            columnStarts = new int[numberOfColumns];
+            columnEnds = new int[numberOfColumns];
+            positions = new int[numberOfColumns];
+        }
+
+        @Override
+        public void resetSchema(byte[] schema, int offset, int length, int numberOfColumns)
+                throws HyracksDataException {
+            if (numberOfColumns != values.length) {
+                throw new IllegalStateException("Unexpected number of columns " + numberOfColumns);
+            }
+        }
+
+        @Override
+        public boolean isColumnRequired(int columnIndex) {
+            return true;
+        }
+
+        @Override
+        public void resetColumn(int columnIndex, byte[] data, int offset, int length) {
+            this.data = data;
+            columnStarts[columnIndex] = offset;
+            positions[columnIndex] = offset;
+            columnEnds[columnIndex] = offset + length;
+            values[columnIndex].set(data, offset, 0);
+            nextRow = 0;
+        }
+
+        @Override
+        public void assemble(int row) throws HyracksDataException {
+            if (row < nextRow) {
+                // going backward
+                System.arraycopy(columnStarts, 0, positions, 0, positions.length);
+                nextRow = 0;
+            }
+            for (int i = 0; i < values.length; i++) {
+                int position = positions[i];
+                for (int r = nextRow; r <= row; r++) {
+                    if (position >= columnEnds[i]) {
+                        throw new IllegalStateException("Row " + row + " is out of the column " + i);
+                    }
+                    int length = IntegerPointable.getInteger(data, position);
+                    position += Integer.BYTES;
+                    values[i].set(data, position, Math.max(length, 0));
+                    position += Math.max(length, 0);
+                }
+                positions[i] = position;
+            }
+            nextRow = row + 1;
+        }
+
+        @Override
+        public IValueReference getValue(int valueFieldIndex) {
+            return values[valueFieldIndex];
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.hyracks.api.dataflow.value.IBinaryComparator;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.util.ArrayBackedValueStorage;
+import org.apache.hyracks.storage.am.lsm.common.statistics.EquiHeightHistogram;
+import org.apache.hyracks.storage.am.lsm.common.statistics.HyperLogLog;
+import org.apache.hyracks.storage.am.lsm.common.statistics.IndexStatistics;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IndexStatisticsTest {
+
+    private static final IBinaryComparator CMP = (b1, s1, l1, b2, s2, l2) -> Integer
+            .compare(IntegerPointable.getInteger(b1, s1), IntegerPointable.getInteger(b2, s2));
+
+    @Test
+    public void testDistinctValues() {
+        for (int distinct : new int[] { 10, 1000, 100000 }) {
+            HyperLogLog hll = new HyperLogLog();
+            for (int i = 0; i < 3 * distinct; i++) {
+                hll.add(hash(i % distinct));
+            }
+            Assert.assertEquals(distinct, hll.estimate(), distinct * 0.1);
+        }
+    }
+
+    @Test
+    public void testMergeDistinctValues() {
+        HyperLogLog first = new HyperLogLog();
+        HyperLogLog second = new HyperLogLog();
+        for (int i = 0; i < 20000; i++) {
+            first.add(hash(i));
+            second.add(hash(i + 10000));
+        }
+        first.merge(second);
+        Assert.assertEquals(30000, first.estimate(), 30000 * 0.1);
+    }
+
+    @Test
+    public void testHistogram() throws Exception {
+        EquiHeightHistogram histogram = buildHistogram(0, 10000);
+        Assert.assertEquals(10000, histogram.getTotalCount());
+        Assert.assertTrue(histogram.getNumBuckets() <= EquiHeightHistogram.DEFAULT_MAX_BUCKETS);
+        Assert.assertEquals(0, histogram.estimateLessThan(CMP, value(-5), 0, 4, true), 0);
+        Assert.assertEquals(10000, histogram.estimateLessThan(CMP, value(20000), 0, 4, false), 0);
+        Assert.assertEquals(2500, histogram.estimateLessThan(CMP, value(2500), 0, 4, false), 10000 * 0.05);
+    }
+
+    @Test
+    public void testRangeSelectivity() throws Exception {
+        List<EquiHeightHistogram> histograms = new ArrayList<>();
+        histograms.add(buildHistogram(0, 1000));
+        IndexStatistics statistics = new IndexStatistics(1000, 0, 8000, new HyperLogLog[1], histograms);
+        List<EquiHeightHistogram> otherHistograms = new ArrayList<>();
+        otherHistograms.add(buildHistogram(1000, 1000));
+        statistics.merge(new IndexStatistics(1000, 0, 8000, new HyperLogLog[1], otherHistograms));
+        Assert.assertEquals(0.5, statistics.estimateRangeSelectivity(CMP, null, false, value(1000), false), 0.05);
+        Assert.assertEquals(0.25, statistics.estimateRangeSelectivity(CMP, value(500), true, value(1000), false),
+                0.05);
+        Assert.assertEquals(1, statistics.estimateRangeSelectivity(CMP, null, false, null, false), 0);
+        Assert.assertEquals(-1, new IndexStatistics(1).estimateRangeSelectivity(CMP, null, false, value(0), false),
+                0);
+    }
+
+    @Test
+    public void testMergeAndSerialize() throws Exception {
+        IndexStatistics merged = new IndexStatistics(2);
+        for (int component = 0; component < 3; component++) {
+            HyperLogLog[] distinctValues = { new HyperLogLog(), new HyperLogLog() };
+            for (int i = 0; i < 1000; i++) {
+                distinctValues[0].add(hash(component * 1000 + i));
+                distinctValues[1].add(hash(i % 10));
+            }
+            List<EquiHeightHistogram> histograms = new ArrayList<>();
+            histograms.add(buildHistogram(component * 1000, 1000));
+            merged.merge(new IndexStatistics(1000, 10, 16000, distinctValues, histograms));
+        }
+        Assert.assertEquals(3000, merged.getNumTuples());
+        Assert.assertEquals(30, merged.getNumAntimatterTuples());
+        Assert.assertEquals(2970, merged.getCardinality());
+        Assert.assertEquals(16, merged.getAverageTupleSize(), 0);
+        Assert.assertEquals(3000, merged.getDistinctValues(0), 3000 * 0.1);
+        Assert.assertEquals(10, merged.getDistinctValues(1), 1);
+
+        ArrayBackedValueStorage storage = new ArrayBackedValueStorage();
+        merged.writeFields(storage.getDataOutput());
+        IndexStatistics read = IndexStatistics.create(storage.getByteArray(), 0, storage.getLength());
+        Assert.assertEquals(merged.getNumTuples(), read.getNumTuples());
+        Assert.assertEquals(merged.getNumAntimatterTuples(), read.getNumAntimatterTuples());
+        Assert.assertEquals(merged.getAverageTupleSize(), read.getAverageTupleSize(), 0);
+        Assert.assertEquals(merged.getDistinctValues(0), read.getDistinctValues(0));
+        Assert.assertEquals(merged.getDistinctValues(1), read.getDistinctValues(1));
+        Assert.assertEquals(3, read.getHistograms().size());
+        Assert.assertEquals(merged.estimateRangeSelectivity(CMP, value(1500), true, null, false),
+                read.estimateRangeSelectivity(CMP, value(1500), true, null, false), 0);
+    }
+
+    private static EquiHeightHistogram buildHistogram(int start, int count) {
+        EquiHeightHistogram.Builder builder = new EquiHeightHistogram.Builder();
+        for (int i = start; i < start + count; i++) {
+            builder.add(value(i), 0, 4);
+        }
+        return builder.build();
+    }
+
+    private static byte[] value(int i) {
+        byte[] bytes = new byte[4];
+        IntegerPointable.setInteger(bytes, 0, i);
+        return bytes;
+    }
+
+    private static long hash(long value) {
+        // the finalizer of MurmurHash3
+        long h = value;
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb53ed1a47a2bL;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.common.test;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIOOperation.LSMIOOperationType;
+import org.apache.hyracks.storage.am.lsm.common.impls.IoBandwidthAllocator;
+import org.apache.hyracks.storage.common.buffercache.TokenBucketRateLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class IoBandwidthAllocatorTest {
+    // 1000 bytes per second, 200 of them left to queries, 200 guaranteed to flushes and 600 to merges
+    private static final long WRITE_RATE_LIMIT = 1000;
+    private static final double QUERY_RESERVE = 0.2;
+    private static final double FLUSH_SHARE = 0.25;
+
+    @Test
+    public void rateShareTest() {
+        IoBandwidthAllocator allocator = new IoBandwidthAllocator(WRITE_RATE_LIMIT, QUERY_RESERVE, FLUSH_SHARE);
+        TokenBucketRateLimiter flush = getBucket(allocator, LSMIOOperationType.FLUSH);
+        TokenBucketRateLimiter merge = getBucket(allocator, LSMIOOperationType.MERGE);
+        Assert.assertEquals(200, flush.getRate(), 1e-9);
+        Assert.assertEquals(600, merge.getRate(), 1e-9);
+        // loads write with the merge bucket
+        Assert.assertSame(merge, allocator.getRateLimiter(LSMIOOperationType.LOAD));
+    }
+
+    @Test
+    public void flushBorrowsUnusedMergeBandwidthTest() throws Exception {
+        IoBandwidthAllocator allocator = new IoBandwidthAllocator(WRITE_RATE_LIMIT, QUERY_RESERVE, FLUSH_SHARE);
+        TokenBucketRateLimiter flush = getBucket(allocator, LSMIOOperationType.FLUSH);
+        TokenBucketRateLimiter merge = getBucket(allocator, LSMIOOperationType.MERGE);
+        // 200 tokens of the flush bucket and 500 of the idle merge bucket, without waiting
+        long start = System.nanoTime();
+        flush.request(700);
+        Assert.assertTrue(elapsedMillis(start) < 500);
+        double left = merge.takeAvailable(600);
+        Assert.assertTrue("The merge bucket has " + left + " tokens left", left >= 90 && left < 400);
+    }
+
+    @Test
+    public void mergeInDebtDoesNotStarveFlushesTest() throws Exception {
+        IoBandwidthAllocator allocator = new IoBandwidthAllocator(WRITE_RATE_LIMIT, QUERY_RESERVE, FLUSH_SHARE);
+        TokenBucketRateLimiter flush = getBucket(allocator, LSMIOOperationType.FLUSH);
+        TokenBucketRateLimiter merge = getBucket(allocator, LSMIOOperationType.MERGE);
+        // the merge takes its own 600 tokens and borrows the 200 of the flush bucket
+        merge.request(800);
+        Assert.assertTrue(flush.takeAvailable(200) < 100);
+        // the merge goes into debt and waits for its own tokens to pay it back
+        long start = System.nanoTime();
+        merge.request(300);
+        long waitedMillis = elapsedMillis(start);
+        Assert.assertTrue("The merge waited " + waitedMillis + " ms", waitedMillis >= 400);
+        // meanwhile, the flush bucket was refilled at its own rate
+        double available = flush.takeAvailable(200);
+        Assert.assertTrue("The flush bucket has " + available + " tokens", available >= 50);
+    }
+
+    @Test
+    public void invalidAllocationTest() {
+        double[][] invalid = { { 0, QUERY_RESERVE, FLUSH_SHARE }, { WRITE_RATE_LIMIT, 1, FLUSH_SHARE },
+                { WRITE_RATE_LIMIT, QUERY_RESERVE, 0 }, { WRITE_RATE_LIMIT, QUERY_RESERVE, 1 } };
+        for (double[] args : invalid) {
+            try {
+                new IoBandwidthAllocator((long) args[0], args[1], args[2]);
+                Assert.fail("The allocation " + args[0] + ", " + args[1] + ", " + args[2] + " must be rejected");
+            } catch (IllegalArgumentException e) {
+                // expected
+            }
+        }
+    }
+
+    private static TokenBucketRateLimiter getBucket(IoBandwidthAllocator allocator, LSMIOOperationType type) {
+        return (TokenBucketRateLimiter) allocator.getRateLimiter(type);
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SortedSet;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.utils.TaskUtil;
+import org.apache.hyracks.dataflow.std.buffermanager.DeallocatableFramePool;
+import org.apache.hyracks.dataflow.std.buffermanager.FramePoolBackedFrameBufferManager;
+import org.apache.hyracks.dataflow.std.buffermanager.IDeallocatableFramePool;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.CheckTuple;
+import org.apache.hyracks.storage.am.common.datagen.TupleGenerator;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpIndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.config.AccessMethodTestsConfig;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMDiskComponent;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.api.IInvertedListCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.common.AbstractInvertedIndexTest;
+import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.OnDiskInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext.InvertedIndexType;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils.HyracksTaskTestContext;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Test;
+
+/**
+ * Tests an LSM inverted index whose disk components were written before its inverted lists were compressed. The
+ * index is reopened with compression enabled, which leaves the existing component uncompressed, and a compressed
+ * component is flushed next to it. The T-occurrence searches must return the same results over the mixed components
+ * and after merging them into a compressed component, whose inverted lists are also checked one by one.
+ */
+public class LSMInvertedIndexCompressedMergeTest extends AbstractInvertedIndexTest {
+
+    public LSMInvertedIndexCompressedMergeTest() {
+        super(InvertedIndexType.LSM);
+    }
+
+    @Test
+    public void wordTokensInvIndexTest() throws IOException {
+        LSMInvertedIndexTestContext uncompressedCtx =
+                LSMInvertedIndexTestUtils.createWordInvIndexTestContext(harness, invIndexType, false);
+        LSMInvertedIndexTestContext compressedCtx =
+                LSMInvertedIndexTestUtils.createWordInvIndexTestContext(harness, invIndexType, true);
+        runTest(uncompressedCtx, compressedCtx,
+                LSMInvertedIndexTestUtils.createStringDocumentTupleGen(harness.getRandom()));
+    }
+
+    @Test
+    public void ngramTokensInvIndexTest() throws IOException {
+        LSMInvertedIndexTestContext uncompressedCtx =
+                LSMInvertedIndexTestUtils.createNGramInvIndexTestContext(harness, invIndexType, false);
+        LSMInvertedIndexTestContext compressedCtx =
+                LSMInvertedIndexTestUtils.createNGramInvIndexTestContext(harness, invIndexType, true);
+        runTest(uncompressedCtx, compressedCtx,
+                LSMInvertedIndexTestUtils.createPersonNamesTupleGen(harness.getRandom()));
+    }
+
+    private void runTest(LSMInvertedIndexTestContext uncompressedCtx, LSMInvertedIndexTestContext testCtx,
+            TupleGenerator tupleGen) throws IOException {
+        LSMInvertedIndex uncompressedIndex = (LSMInvertedIndex) uncompressedCtx.getIndex();
+        uncompressedIndex.create();
+        uncompressedIndex.activate();
+        LSMInvertedIndexTestUtils.insertIntoInvIndex(uncompressedCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        LSMInvertedIndexTestUtils.deleteFromInvIndex(uncompressedCtx, harness.getRandom(), NUM_DOCS_TO_INSERT / 10);
+        // Deactivate the index to force it flush its in memory component
+        uncompressedIndex.deactivate();
+
+        // Reopen the same files with compression enabled, keeping the expected contents of the index.
+        testCtx.getCheckTuples().addAll(uncompressedCtx.getCheckTuples());
+        testCtx.getDocumentCorpus().addAll(uncompressedCtx.getDocumentCorpus());
+        testCtx.getAllTokens().addAll(uncompressedCtx.getAllTokens());
+        LSMInvertedIndex invIndex = (LSMInvertedIndex) testCtx.getIndex();
+        invIndex.activate();
+        LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        LSMInvertedIndexTestUtils.deleteFromInvIndex(testCtx, harness.getRandom(), NUM_DOCS_TO_INSERT / 10);
+        invIndex.deactivate();
+        invIndex.activate();
+
+        List<ILSMDiskComponent> diskComponents = invIndex.getDiskComponents();
+        assertEquals(2, diskComponents.size());
+        // The newest component comes first.
+        assertEquals(true, ((OnDiskInvertedIndex) diskComponents.get(0).getIndex()).isCompressedInvLists());
+        assertEquals(false, ((OnDiskInvertedIndex) diskComponents.get(1).getIndex()).isCompressedInvLists());
+        validateAndCheckIndex(testCtx);
+        runTinySearchWorkload(testCtx, tupleGen);
+
+        ILSMIndexAccessor invIndexAccessor =
+                (ILSMIndexAccessor) invIndex.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        invIndexAccessor.scheduleMerge(invIndex.getDiskComponents());
+        diskComponents = invIndex.getDiskComponents();
+        assertEquals(1, diskComponents.size());
+        OnDiskInvertedIndex mergedIndex = (OnDiskInvertedIndex) diskComponents.get(0).getIndex();
+        assertEquals(true, mergedIndex.isCompressedInvLists());
+        validateAndCheckIndex(testCtx);
+        runTinySearchWorkload(testCtx, tupleGen);
+        checkPrintedInvLists(testCtx, mergedIndex);
+
+        invIndex.deactivate();
+        invIndex.destroy();
+    }
+
+    /**
+     * Prints the inverted list of every token of a disk component that contains all the documents, in the middle of
+     * a scan of the list, and compares it with the expected list. The scan must then resume where it was.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static void checkPrintedInvLists(LSMInvertedIndexTestContext testCtx, OnDiskInvertedIndex diskIndex)
+            throws IOException {
+        IIndexAccessParameters iap =
+                new IndexAccessParameters(NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+        IHyracksTaskContext ctx = new HyracksTaskTestContext();
+        IDeallocatableFramePool framePool = new DeallocatableFramePool(ctx,
+                AccessMethodTestsConfig.LSM_INVINDEX_SEARCH_FRAME_LIMIT * ctx.getInitialFrameSize());
+        TaskUtil.put(HyracksConstants.INVERTED_INDEX_SEARCH_FRAME_MANAGER,
+                new FramePoolBackedFrameBufferManager(framePool), ctx);
+        iap.getParameters().put(HyracksConstants.HYRACKS_TASK_CONTEXT, ctx);
+        IInvertedIndexAccessor accessor = (IInvertedIndexAccessor) diskIndex.createAccessor(iap);
+        IInvertedListCursor listCursor = accessor.createInvertedListCursor();
+        ArrayTupleBuilder searchKeyBuilder = new ArrayTupleBuilder(1);
+        ArrayTupleReference searchKey = new ArrayTupleReference();
+        // The elements of the inverted lists only hold the primary key.
+        ISerializerDeserializer[] elementSerdes = new ISerializerDeserializer[] { testCtx.getFieldSerdes()[1] };
+        try {
+            for (Comparable token : testCtx.getAllTokens()) {
+                CheckTuple lowKey = new CheckTuple(1, 1);
+                lowKey.appendField(token);
+                CheckTuple highKey = new CheckTuple(1, 1);
+                highKey.appendField(token);
+                SortedSet<CheckTuple> expectedInvList =
+                        OrderedIndexTestUtils.getPrefixExpectedSubset(testCtx.getCheckTuples(), lowKey, highKey);
+                StringBuilder expected = new StringBuilder();
+                for (CheckTuple checkTuple : expectedInvList) {
+                    expected.append(checkTuple.getField(1)).append(" ");
+                }
+                OrderedIndexTestUtils.createTupleFromCheckTuple(lowKey, searchKeyBuilder, searchKey,
+                        testCtx.getFieldSerdes());
+                accessor.openInvertedListCursor(listCursor, searchKey);
+                assertEquals(expectedInvList.size(), listCursor.size());
+                listCursor.prepareLoadPages();
+                listCursor.loadPages();
+                try {
+                    int numScanned = 0;
+                    for (CheckTuple checkTuple : expectedInvList) {
+                        if (numScanned == expectedInvList.size() / 2) {
+                            assertEquals("Inverted list of token '" + token + "'", expected.toString(),
+                                    listCursor.printInvList(elementSerdes));
+                        }
+                        assertTrue(listCursor.hasNext());
+                        listCursor.next();
+                        assertEquals(checkTuple.getField(1).toString(), listCursor.printCurrentElement(elementSerdes));
+                        numScanned++;
+                    }
+                } finally {
+                    listCursor.unloadPages();
+                    listCursor.close();
+                }
+            }
+        } finally {
+            accessor.destroy();
+        }
+    }
+}
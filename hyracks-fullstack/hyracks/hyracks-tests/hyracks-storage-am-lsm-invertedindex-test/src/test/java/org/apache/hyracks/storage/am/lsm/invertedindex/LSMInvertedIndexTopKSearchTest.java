@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.hyracks.api.context.IHyracksTaskContext;
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.api.util.HyracksConstants;
+import org.apache.hyracks.data.std.primitive.DoublePointable;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.util.GrowableArray;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.PermutingTupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.DoubleSerializerDeserializer;
+import org.apache.hyracks.storage.am.btree.OrderedIndexTestUtils;
+import org.apache.hyracks.storage.am.common.CheckTuple;
+import org.apache.hyracks.storage.am.common.datagen.TupleGenerator;
+import org.apache.hyracks.storage.am.common.impls.IndexAccessParameters;
+import org.apache.hyracks.storage.am.common.impls.NoOpOperationCallback;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.common.AbstractInvertedIndexTest;
+import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndex;
+import org.apache.hyracks.storage.am.lsm.invertedindex.impls.LSMInvertedIndexTopKSearchCursor;
+import org.apache.hyracks.storage.am.lsm.invertedindex.search.InvertedIndexTopKSearchPredicate;
+import org.apache.hyracks.storage.am.lsm.invertedindex.tokenizers.IBinaryTokenizer;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestContext.InvertedIndexType;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils;
+import org.apache.hyracks.storage.am.lsm.invertedindex.util.LSMInvertedIndexTestUtils.HyracksTaskTestContext;
+import org.apache.hyracks.storage.common.IIndex;
+import org.apache.hyracks.storage.common.IIndexAccessParameters;
+import org.junit.Test;
+
+/**
+ * Tests the top-k search of an LSM inverted index having disk components, a memory component and deleted documents.
+ * The exact scores depend on the document frequencies, which include the deleted documents of the older components,
+ * so the results are checked against the matching documents: all of them are found with an unlimited k, documents
+ * matching the same query tokens have the same score, documents matching more of them have a higher score, and a
+ * search with a smaller k returns the best scores of the unlimited search.
+ */
+public class LSMInvertedIndexTopKSearchTest extends AbstractInvertedIndexTest {
+
+    private static final int NUM_QUERIES = 20;
+    private static final int SMALL_K = 10;
+    private static final double EPSILON = 1e-9;
+
+    public LSMInvertedIndexTopKSearchTest() {
+        super(InvertedIndexType.LSM);
+    }
+
+    @Test
+    public void wordTokensTopKSearchTest() throws IOException {
+        LSMInvertedIndexTestContext testCtx =
+                LSMInvertedIndexTestUtils.createWordInvIndexTestContext(harness, invIndexType);
+        TupleGenerator tupleGen = LSMInvertedIndexTestUtils.createStringDocumentTupleGen(harness.getRandom());
+        IIndex invIndex = testCtx.getIndex();
+        invIndex.create();
+        invIndex.activate();
+        LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        // Deactivate and the re-activate the index to force it flush its in memory component
+        invIndex.deactivate();
+        invIndex.activate();
+        LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        LSMInvertedIndexTestUtils.deleteFromInvIndex(testCtx, harness.getRandom(), NUM_DOCS_TO_INSERT / 10);
+        invIndex.deactivate();
+        invIndex.activate();
+        LSMInvertedIndexTestUtils.insertIntoInvIndex(testCtx, tupleGen, NUM_DOCS_TO_INSERT);
+        LSMInvertedIndexTestUtils.deleteFromInvIndex(testCtx, harness.getRandom(), NUM_DOCS_TO_INSERT / 10);
+
+        List<ITupleReference> documentCorpus = testCtx.getDocumentCorpus();
+        PermutingTupleReference searchDocument = new PermutingTupleReference(new int[] { 0 });
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            searchDocument.reset(documentCorpus.get(harness.getRandom().nextInt(documentCorpus.size())));
+            Map<Integer, Set<Comparable>> expected = getMatchingDocuments(testCtx, searchDocument);
+            List<double[]> all = search(testCtx, searchDocument, Integer.MAX_VALUE);
+            assertEquals(expected.size(), all.size());
+            Map<Set<Comparable>, Double> scores = new HashMap<>();
+            for (int j = 0; j < all.size(); j++) {
+                Set<Comparable> tokens = expected.get((int) all.get(j)[0]);
+                assertTrue("Unexpected document " + (int) all.get(j)[0], tokens != null);
+                if (j > 0) {
+                    assertTrue(all.get(j)[1] <= all.get(j - 1)[1]);
+                }
+                Double score = scores.putIfAbsent(tokens, all.get(j)[1]);
+                assertTrue(score == null || Math.abs(score - all.get(j)[1]) < EPSILON);
+            }
+            for (Map.Entry<Set<Comparable>, Double> a : scores.entrySet()) {
+                for (Map.Entry<Set<Comparable>, Double> b : scores.entrySet()) {
+                    if (a.getKey().size() < b.getKey().size() && b.getKey().containsAll(a.getKey())) {
+                        assertTrue(a.getValue() < b.getValue());
+                    }
+                }
+            }
+            List<double[]> topK = search(testCtx, searchDocument, SMALL_K);
+            assertEquals(Math.min(SMALL_K, all.size()), topK.size());
+            for (int j = 0; j < topK.size(); j++) {
+                assertEquals(all.get(j)[1], topK.get(j)[1], EPSILON);
+            }
+        }
+        invIndex.deactivate();
+        invIndex.destroy();
+    }
+
+    /**
+     * @return the (primary key, score) pairs returned by a top-k search, in the order of the cursor
+     */
+    private static List<double[]> search(LSMInvertedIndexTestContext testCtx, ITupleReference searchDocument, int k)
+            throws IOException {
+        IHyracksTaskContext ctx = new HyracksTaskTestContext();
+        IIndexAccessParameters iap =
+                new IndexAccessParameters(NoOpOperationCallback.INSTANCE, NoOpOperationCallback.INSTANCE);
+        iap.getParameters().put(HyracksConstants.HYRACKS_TASK_CONTEXT, ctx);
+        LSMInvertedIndex invIndex = (LSMInvertedIndex) testCtx.getIndex();
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) invIndex.createAccessor(iap);
+        InvertedIndexTopKSearchPredicate searchPred = new InvertedIndexTopKSearchPredicate(
+                testCtx.getTokenizerFactory().createTokenizer(),
+                LSMInvertedIndexTestUtils.fullTextConfigEvaluatorFactory.createFullTextConfigEvaluator(), k, 0, null,
+                null);
+        searchPred.setQueryTuple(searchDocument);
+        searchPred.setQueryFieldIndex(0);
+        List<double[]> results = new ArrayList<>();
+        LSMInvertedIndexTopKSearchCursor cursor =
+                invIndex.createTopKSearchCursor(accessor.getOpContext(), DoubleSerializerDeserializer::write);
+        try {
+            accessor.search(cursor, searchPred);
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    ITupleReference tuple = cursor.getTuple();
+                    assertEquals(2, tuple.getFieldCount());
+                    double score = DoublePointable.getDouble(tuple.getFieldData(1), tuple.getFieldStart(1));
+                    assertEquals(cursor.getScore(), score, 0);
+                    results.add(new double[] {
+                            IntegerPointable.getInteger(tuple.getFieldData(0), tuple.getFieldStart(0)), score });
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+            accessor.destroy();
+        }
+        return results;
+    }
+
+    /**
+     * @return the live documents containing some of the tokens of the query, with the query tokens they contain
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<Integer, Set<Comparable>> getMatchingDocuments(LSMInvertedIndexTestContext testCtx,
+            ITupleReference searchDocument) throws IOException {
+        ISerializerDeserializer tokenSerde = testCtx.getFieldSerdes()[0];
+        IBinaryTokenizer tokenizer = testCtx.getTokenizerFactory().createTokenizer();
+        GrowableArray tokenData = new GrowableArray();
+        Map<Integer, Set<Comparable>> matches = new HashMap<>();
+        tokenizer.reset(searchDocument.getFieldData(0), searchDocument.getFieldStart(0),
+                searchDocument.getFieldLength(0));
+        while (tokenizer.hasNext()) {
+            tokenizer.next();
+            tokenData.reset();
+            tokenizer.getToken().serializeToken(tokenData);
+            Comparable token = (Comparable) tokenSerde.deserialize(new DataInputStream(
+                    new ByteArrayInputStream(tokenData.getByteArray(), 0, tokenData.getLength())));
+            CheckTuple lowKey = new CheckTuple(1, 1);
+            lowKey.appendField(token);
+            CheckTuple highKey = new CheckTuple(1, 1);
+            highKey.appendField(token);
+            for (CheckTuple checkTuple : OrderedIndexTestUtils
+                    .getPrefixExpectedSubset((TreeSet<CheckTuple>) testCtx.getCheckTuples(), lowKey, highKey)) {
+                matches.computeIfAbsent((Integer) checkTuple.getField(1), key -> new HashSet<>()).add(token);
+            }
+        }
+        return matches;
+    }
+}
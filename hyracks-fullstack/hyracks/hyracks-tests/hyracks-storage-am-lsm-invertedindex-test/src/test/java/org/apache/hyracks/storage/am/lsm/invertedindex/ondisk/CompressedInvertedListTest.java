@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.invertedindex.ondisk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.ITypeTraits;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.data.std.primitive.LongPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedInvertedListBuilder;
+import org.apache.hyracks.storage.am.lsm.invertedindex.ondisk.compressed.CompressedInvertedListUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class CompressedInvertedListTest {
+
+    private static final int PAGE_SIZE = 512;
+
+    private final Random rnd = new Random(50);
+
+    /**
+     * Builds an inverted list of ascending integers, with small and large gaps and across the sign boundary, over
+     * several pages the way the bulk loader does and verifies the decoded blocks and their skip entries.
+     */
+    @Test
+    public void integerListTest() throws Exception {
+        ITypeTraits[] fields = new ITypeTraits[] { IntegerPointable.TYPE_TRAITS };
+        List<byte[]> elements = new ArrayList<>();
+        long value = Integer.MIN_VALUE;
+        for (int i = 0; i < 5000 && value <= Integer.MAX_VALUE; i++) {
+            byte[] element = new byte[Integer.BYTES];
+            IntegerPointable.setInteger(element, 0, (int) value);
+            elements.add(element);
+            value += i % 100 == 0 ? rnd.nextInt(1 << 24) + 1 : rnd.nextInt(16) + 1;
+            if (i == 2500) {
+                value = -3;
+            }
+        }
+        buildAndVerify(fields, elements);
+    }
+
+    /**
+     * Builds an inverted list of two-field elements whose leading field changes from time to time, which starts new
+     * blocks since only the trailing bytes of the elements are delta encoded.
+     */
+    @Test
+    public void prefixedLongListTest() throws Exception {
+        ITypeTraits[] fields = new ITypeTraits[] { IntegerPointable.TYPE_TRAITS, LongPointable.TYPE_TRAITS };
+        List<byte[]> elements = new ArrayList<>();
+        int prefix = 0;
+        long value = -1000;
+        for (int i = 0; i < 3000; i++) {
+            if (rnd.nextInt(200) == 0) {
+                prefix++;
+            }
+            byte[] element = new byte[Integer.BYTES + Long.BYTES];
+            IntegerPointable.setInteger(element, 0, prefix);
+            LongPointable.setLong(element, Integer.BYTES, value);
+            elements.add(element);
+            value += rnd.nextInt(1000) + 1;
+        }
+        buildAndVerify(fields, elements);
+    }
+
+    private void buildAndVerify(ITypeTraits[] fields, List<byte[]> elements) throws Exception {
+        int elementSize = elements.get(0).length;
+        CompressedInvertedListBuilder builder = new CompressedInvertedListBuilder(fields);
+        List<byte[]> pages = new ArrayList<>();
+        pages.add(new byte[PAGE_SIZE]);
+        // Some garbage before the list and on the pages to check that the builder does not rely on zeroed pages.
+        rnd.nextBytes(pages.get(0));
+        int startOff = 37;
+        builder.setTargetBuffer(pages.get(0), startOff);
+        Assert.assertTrue(builder.startNewList(null, 0));
+        ArrayTupleBuilder tupleBuilder = new ArrayTupleBuilder(fields.length);
+        ArrayTupleReference tuple = new ArrayTupleReference();
+        for (byte[] element : elements) {
+            tupleBuilder.reset();
+            int off = 0;
+            for (ITypeTraits field : fields) {
+                tupleBuilder.addField(element, off, field.getFixedLength());
+                off += field.getFixedLength();
+            }
+            tuple.reset(tupleBuilder.getFieldEndOffsets(), tupleBuilder.getByteArray());
+            if (!builder.appendElement(tuple, 0, fields.length)) {
+                byte[] page = new byte[PAGE_SIZE];
+                rnd.nextBytes(page);
+                pages.add(page);
+                builder.setTargetBuffer(page, 0);
+                Assert.assertTrue(builder.appendElement(tuple, 0, fields.length));
+            }
+        }
+        Assert.assertEquals(elements.size(), builder.getListSize());
+        // Compressed, the list takes less space than its elements.
+        Assert.assertTrue(pages.size() * PAGE_SIZE < elements.size() * elementSize);
+
+        int headerSize = CompressedInvertedListUtils.getHeaderSize(elementSize);
+        byte[] decoded = new byte[CompressedInvertedListUtils.BLOCK_SIZE * elementSize];
+        int elementIx = 0;
+        int pageIx = 0;
+        int blockOff = startOff;
+        while (elementIx < elements.size()) {
+            byte[] page = pages.get(pageIx);
+            if (blockOff + headerSize > PAGE_SIZE || CompressedInvertedListUtils.getCount(page, blockOff) == 0) {
+                pageIx++;
+                blockOff = 0;
+                continue;
+            }
+            int count = CompressedInvertedListUtils.decodeBlock(page, blockOff, elementSize, decoded);
+            Assert.assertTrue(count > 0 && count <= CompressedInvertedListUtils.BLOCK_SIZE);
+            for (int i = 0; i < count; i++) {
+                assertElement(elements.get(elementIx + i), decoded, i * elementSize);
+            }
+            assertElement(elements.get(elementIx + count - 1), page,
+                    CompressedInvertedListUtils.getLastElementOff(blockOff));
+            elementIx += count;
+            blockOff += CompressedInvertedListUtils.getBlockSize(elementSize, count,
+                    CompressedInvertedListUtils.getBitWidth(page, blockOff));
+            Assert.assertTrue(blockOff <= PAGE_SIZE);
+        }
+        Assert.assertEquals(elements.size(), elementIx);
+        Assert.assertEquals(pages.size() - 1, pageIx);
+    }
+
+    private static void assertElement(byte[] expected, byte[] actual, int off) {
+        for (int i = 0; i < expected.length; i++) {
+            Assert.assertEquals(expected[i], actual[off + i]);
+        }
+    }
+}
@@ -132,6 +132,21 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
             int[] invertedIndexFields, ITypeTraits[] filterTypeTraits, IBinaryComparatorFactory[] filterCmpFactories,
             int[] filterFields, int[] filterFieldsForNonBulkLoadOps, int[] invertedIndexFieldsForNonBulkLoadOps)
             throws HyracksDataException {
+        return create(harness, fieldSerdes, tokenFieldCount, tokenizerFactory, fullTextConfigEvaluatorFactory,
+                invIndexType, invertedIndexFields, filterTypeTraits, filterCmpFactories, filterFields,
+                filterFieldsForNonBulkLoadOps, invertedIndexFieldsForNonBulkLoadOps, false);
+    }
+
+    /**
+     * @param compressInvLists
+     *            whether the disk components of an LSM inverted index are built with compressed inverted lists
+     */
+    public static LSMInvertedIndexTestContext create(LSMInvertedIndexTestHarness harness,
+            ISerializerDeserializer[] fieldSerdes, int tokenFieldCount, IBinaryTokenizerFactory tokenizerFactory,
+            IFullTextConfigEvaluatorFactory fullTextConfigEvaluatorFactory, InvertedIndexType invIndexType,
+            int[] invertedIndexFields, ITypeTraits[] filterTypeTraits, IBinaryComparatorFactory[] filterCmpFactories,
+            int[] filterFields, int[] filterFieldsForNonBulkLoadOps, int[] invertedIndexFieldsForNonBulkLoadOps,
+            boolean compressInvLists) throws HyracksDataException {
         ITypeTraits[] allTypeTraits = SerdeUtils.serdesToTypeTraits(fieldSerdes);
         IOManager ioManager = harness.getIOManager();
         IBinaryComparatorFactory[] allCmpFactories =
@@ -198,7 +213,7 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                                 harness.getMetadataPageManagerFactory(),
                                 new Tracer(LSMInvertedIndexTestContext.class.getSimpleName(),
                                         ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()),
-                                null, null);
+                                null, null, compressInvLists);
                 break;
             }
             case PARTITIONED_LSM: {
@@ -214,7 +229,7 @@ public class LSMInvertedIndexTestContext extends OrderedIndexTestContext {
                                 harness.getMetadataPageManagerFactory(),
                                 new Tracer(LSMInvertedIndexTestContext.class.getSimpleName(),
                                         ITraceCategoryRegistry.CATEGORIES_ALL, new TraceCategoryRegistry()),
-                                null, null);
+                                null, null, compressInvLists);
                 break;
             }
             default: {
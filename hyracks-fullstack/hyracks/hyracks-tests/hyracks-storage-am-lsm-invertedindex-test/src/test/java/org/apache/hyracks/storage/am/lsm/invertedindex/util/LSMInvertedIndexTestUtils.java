@@ -200,13 +200,18 @@ public class LSMInvertedIndexTestUtils {
 
     public static LSMInvertedIndexTestContext createWordInvIndexTestContext(LSMInvertedIndexTestHarness harness,
             InvertedIndexType invIndexType) throws IOException, HyracksDataException {
+        return createWordInvIndexTestContext(harness, invIndexType, false);
+    }
+
+    public static LSMInvertedIndexTestContext createWordInvIndexTestContext(LSMInvertedIndexTestHarness harness,
+            InvertedIndexType invIndexType, boolean compressInvLists) throws IOException, HyracksDataException {
         ISerializerDeserializer[] fieldSerdes = getNonHashedIndexFieldSerdes(invIndexType);
         ITokenFactory tokenFactory = new UTF8WordTokenFactory();
         IBinaryTokenizerFactory tokenizerFactory =
                 new DelimitedUTF8StringBinaryTokenizerFactory(true, false, tokenFactory);
-        LSMInvertedIndexTestContext testCtx =
-                LSMInvertedIndexTestContext.create(harness, fieldSerdes, fieldSerdes.length - 1, tokenizerFactory,
-                        fullTextConfigEvaluatorFactory, invIndexType, null, null, null, null, null, null);
+        LSMInvertedIndexTestContext testCtx = LSMInvertedIndexTestContext.create(harness, fieldSerdes,
+                fieldSerdes.length - 1, tokenizerFactory, fullTextConfigEvaluatorFactory, invIndexType, null, null,
+                null, null, null, null, compressInvLists);
         return testCtx;
     }
 
@@ -224,13 +229,18 @@ public class LSMInvertedIndexTestUtils {
 
     public static LSMInvertedIndexTestContext createNGramInvIndexTestContext(LSMInvertedIndexTestHarness harness,
             InvertedIndexType invIndexType) throws IOException, HyracksDataException {
+        return createNGramInvIndexTestContext(harness, invIndexType, false);
+    }
+
+    public static LSMInvertedIndexTestContext createNGramInvIndexTestContext(LSMInvertedIndexTestHarness harness,
+            InvertedIndexType invIndexType, boolean compressInvLists) throws IOException, HyracksDataException {
         ISerializerDeserializer[] fieldSerdes = getNonHashedIndexFieldSerdes(invIndexType);
         ITokenFactory tokenFactory = new UTF8NGramTokenFactory();
         IBinaryTokenizerFactory tokenizerFactory =
                 new NGramUTF8StringBinaryTokenizerFactory(TEST_GRAM_LENGTH, true, true, false, tokenFactory);
-        LSMInvertedIndexTestContext testCtx =
-                LSMInvertedIndexTestContext.create(harness, fieldSerdes, fieldSerdes.length - 1, tokenizerFactory,
-                        fullTextConfigEvaluatorFactory, invIndexType, null, null, null, null, null, null);
+        LSMInvertedIndexTestContext testCtx = LSMInvertedIndexTestContext.create(harness, fieldSerdes,
+                fieldSerdes.length - 1, tokenizerFactory, fullTextConfigEvaluatorFactory, invIndexType, null, null,
+                null, null, null, null, compressInvLists);
         return testCtx;
     }
 
@@ -0,0 +1,212 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.am.lsm.rtree;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.apache.hyracks.api.dataflow.value.ISerializerDeserializer;
+import org.apache.hyracks.data.std.primitive.IntegerPointable;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
+import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
+import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
+import org.apache.hyracks.dataflow.common.utils.TupleUtils;
+import org.apache.hyracks.storage.am.common.api.IPrimitiveValueProviderFactory;
+import org.apache.hyracks.storage.am.lsm.common.api.ILSMIndexAccessor;
+import org.apache.hyracks.storage.am.lsm.rtree.impls.LSMRTreeWithAntiMatterTuples;
+import org.apache.hyracks.storage.am.lsm.rtree.impls.LSMRTreeWithAntiMatterTuplesKNNSearchCursor;
+import org.apache.hyracks.storage.am.lsm.rtree.util.LSMRTreeTestHarness;
+import org.apache.hyracks.storage.am.lsm.rtree.util.LSMRTreeWithAntiMatterTuplesTestContext;
+import org.apache.hyracks.storage.am.rtree.RTreeCheckTuple;
+import org.apache.hyracks.storage.am.rtree.RTreeTestUtils;
+import org.apache.hyracks.storage.am.rtree.frames.RTreePolicyType;
+import org.apache.hyracks.storage.am.rtree.impls.KNNSearchPredicate;
+import org.apache.hyracks.storage.am.rtree.util.RTreeUtils;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Checks the k-nearest-neighbor search of {@link LSMRTreeWithAntiMatterTuples} against a brute force search of the
+ * check tuples, with entries deleted and inserted again across memory and disk components.
+ */
+@SuppressWarnings("rawtypes")
+public class LSMRTreeWithAntiMatterTuplesKNNSearchTest {
+
+    private static final int NUM_KEY_FIELDS = 4;
+    private static final ISerializerDeserializer[] FIELD_SERDES =
+            { IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+                    IntegerSerializerDeserializer.INSTANCE, IntegerSerializerDeserializer.INSTANCE,
+                    IntegerSerializerDeserializer.INSTANCE };
+    private static final int NUM_QUERIES = 10;
+    private static final int K = 50;
+
+    private final LSMRTreeTestHarness harness = new LSMRTreeTestHarness();
+    private final RTreeTestUtils rTreeTestUtils = new RTreeTestUtils();
+    private LSMRTreeWithAntiMatterTuplesTestContext ctx;
+
+    @Before
+    public void setUp() throws Exception {
+        harness.setUp();
+        IPrimitiveValueProviderFactory[] valueProviderFactories =
+                RTreeUtils.createPrimitiveValueProviderFactories(NUM_KEY_FIELDS, IntegerPointable.FACTORY);
+        ctx = LSMRTreeWithAntiMatterTuplesTestContext.create(harness.getIOManager(), harness.getVirtualBufferCaches(),
+                harness.getFileReference(), harness.getDiskBufferCache(), FIELD_SERDES, valueProviderFactories,
+                NUM_KEY_FIELDS, RTreePolicyType.RTREE, harness.getMergePolicy(), harness.getOperationTracker(),
+                harness.getIOScheduler(), harness.getIOOperationCallbackFactory(),
+                harness.getPageWriteCallbackFactory(), harness.getMetadataPageManagerFactory());
+        ctx.getIndex().create();
+        ctx.getIndex().activate();
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        ctx.getIndex().deactivate();
+        ctx.getIndex().destroy();
+        harness.tearDown();
+    }
+
+    @Test
+    public void knnSearchWithFlushesAndDeletes() throws Exception {
+        Random rnd = harness.getRandom();
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndexAccessor();
+
+        // a disk component
+        rTreeTestUtils.insertIntTuples(ctx, 1000, rnd);
+        accessor.scheduleFlush();
+        checkKNNSearch(rnd);
+
+        // a disk component with anti-matter entries of the older disk component and of its own entries
+        rTreeTestUtils.insertIntTuples(ctx, 1000, rnd);
+        List<RTreeCheckTuple> deleted = delete(300, rnd);
+        checkKNNSearch(rnd);
+        accessor.scheduleFlush();
+        checkKNNSearch(rnd);
+
+        // a memory component with entries that were deleted in a disk component and deletes of disk entries
+        for (RTreeCheckTuple checkTuple : deleted.subList(0, 100)) {
+            insert(checkTuple);
+        }
+        rTreeTestUtils.insertIntTuples(ctx, 500, rnd);
+        delete(200, rnd);
+        checkKNNSearch(rnd);
+        accessor.scheduleFlush();
+        checkKNNSearch(rnd);
+    }
+
+    private List<RTreeCheckTuple> delete(int numTuples, Random rnd) throws Exception {
+        List<RTreeCheckTuple> before = new ArrayList<>(ctx.getCheckTuples());
+        rTreeTestUtils.deleteTuples(ctx, numTuples, rnd);
+        before.removeAll(ctx.getCheckTuples());
+        return before;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void insert(RTreeCheckTuple checkTuple) throws Exception {
+        int[] fieldValues = new int[FIELD_SERDES.length];
+        for (int i = 0; i < fieldValues.length; i++) {
+            fieldValues[i] = (Integer) checkTuple.getField(i);
+        }
+        TupleUtils.createIntegerTuple(ctx.getTupleBuilder(), ctx.getTuple(), fieldValues);
+        ctx.getIndexAccessor().insert(ctx.getTuple());
+        ctx.insertCheckTuple(checkTuple, ctx.getCheckTuples());
+    }
+
+    private void checkKNNSearch(Random rnd) throws Exception {
+        // the check tuples' coordinates are in a small range around 0
+        for (int i = 0; i < NUM_QUERIES; i++) {
+            checkKNNSearch(rnd.nextInt(21) - 10, rnd.nextInt(21) - 10, i == 0 ? KNNSearchPredicate.UNLIMITED : K);
+        }
+    }
+
+    private void checkKNNSearch(int x, int y, int k) throws Exception {
+        // brute force: the distances of all the entries, in ascending order
+        List<RTreeCheckTuple> remaining = new ArrayList<>(ctx.getCheckTuples());
+        double[] expected = new double[remaining.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = distance(x, y, getFields(remaining.get(i)));
+        }
+        Arrays.sort(expected);
+        int expectedCount = k == KNNSearchPredicate.UNLIMITED ? expected.length : Math.min(k, expected.length);
+
+        ILSMIndexAccessor accessor = (ILSMIndexAccessor) ctx.getIndexAccessor();
+        LSMRTreeWithAntiMatterTuplesKNNSearchCursor cursor =
+                ((LSMRTreeWithAntiMatterTuples) ctx.getIndex()).createKNNSearchCursor(accessor.getOpContext());
+        ArrayTupleBuilder pointTb = new ArrayTupleBuilder(2);
+        ArrayTupleReference point = new ArrayTupleReference();
+        TupleUtils.createIntegerTuple(pointTb, point, x, y);
+        int count = 0;
+        try {
+            accessor.search(cursor, new KNNSearchPredicate(point, k));
+            try {
+                while (cursor.hasNext()) {
+                    cursor.next();
+                    int[] fields = getFields(cursor.getTuple());
+                    double distance = distance(x, y, fields);
+                    Assert.assertEquals(distance, cursor.getDistance(), 1e-9);
+                    Assert.assertTrue(count < expectedCount);
+                    Assert.assertEquals(expected[count], distance, 1e-9);
+                    // every entry is returned once and only if it was not deleted
+                    Assert.assertTrue(remaining.remove(createCheckTuple(fields)));
+                    count++;
+                }
+            } finally {
+                cursor.close();
+            }
+        } finally {
+            cursor.destroy();
+        }
+        Assert.assertEquals(expectedCount, count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RTreeCheckTuple createCheckTuple(int[] fields) {
+        RTreeCheckTuple checkTuple = new RTreeCheckTuple(fields.length, NUM_KEY_FIELDS);
+        for (int field : fields) {
+            checkTuple.appendField(field);
+        }
+        return checkTuple;
+    }
+
+    private static int[] getFields(RTreeCheckTuple checkTuple) {
+        int[] fields = new int[FIELD_SERDES.length];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = (Integer) checkTuple.getField(i);
+        }
+        return fields;
+    }
+
+    private static int[] getFields(ITupleReference tuple) {
+        int[] fields = new int[FIELD_SERDES.length];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = IntegerPointable.getInteger(tuple.getFieldData(i), tuple.getFieldStart(i));
+        }
+        return fields;
+    }
+
+    private static double distance(int x, int y, int[] mbr) {
+        double dx = x < mbr[0] ? mbr[0] - x : x > mbr[2] ? x - mbr[2] : 0;
+        double dy = y < mbr[1] ? mbr[1] - y : y > mbr[3] ? y - mbr[3] : 0;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+}
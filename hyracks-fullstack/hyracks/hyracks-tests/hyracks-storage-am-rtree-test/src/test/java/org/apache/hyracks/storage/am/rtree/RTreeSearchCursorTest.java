@@ -20,6 +20,7 @@
 package org.apache.hyracks.storage.am.rtree;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
 import org.apache.hyracks.api.dataflow.value.IBinaryComparatorFactory;
@@ -31,6 +32,7 @@ import org.apache.hyracks.data.std.accessors.IntegerBinaryComparatorFactory;
 import org.apache.hyracks.data.std.primitive.IntegerPointable;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleBuilder;
 import org.apache.hyracks.dataflow.common.comm.io.ArrayTupleReference;
+import org.apache.hyracks.dataflow.common.data.accessors.ITupleReference;
 import org.apache.hyracks.dataflow.common.data.marshalling.IntegerSerializerDeserializer;
 import org.apache.hyracks.dataflow.common.utils.TupleUtils;
 import org.apache.hyracks.storage.am.common.api.IMetadataPageManager;
@@ -48,7 +50,9 @@ import org.apache.hyracks.storage.am.rtree.api.IRTreeLeafFrame;
 import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMInteriorFrameFactory;
 import org.apache.hyracks.storage.am.rtree.frames.RTreeNSMLeafFrameFactory;
 import org.apache.hyracks.storage.am.rtree.frames.RTreePolicyType;
+import org.apache.hyracks.storage.am.rtree.impls.KNNSearchPredicate;
 import org.apache.hyracks.storage.am.rtree.impls.RTree;
+import org.apache.hyracks.storage.am.rtree.impls.RTreeKNNSearchCursor;
 import org.apache.hyracks.storage.am.rtree.impls.RTreeSearchCursor;
 import org.apache.hyracks.storage.am.rtree.impls.SearchPredicate;
 import org.apache.hyracks.storage.am.rtree.tuples.RTreeTypeAwareTupleWriterFactory;
@@ -56,6 +60,7 @@ import org.apache.hyracks.storage.am.rtree.util.RTreeUtils;
 import org.apache.hyracks.storage.am.rtree.utils.AbstractRTreeTest;
 import org.apache.hyracks.storage.common.MultiComparator;
 import org.apache.hyracks.storage.common.buffercache.IBufferCache;
+import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -140,6 +145,72 @@ public class RTreeSearchCursorTest extends AbstractRTreeTest {
         rtree.destroy();
     }
 
+    @Test
+    public void knnSearchTest() throws Exception {
+        if (LOGGER.isInfoEnabled()) {
+            LOGGER.info("TESTING KNN SEARCH CURSOR FOR RTREE");
+        }
+        IBufferCache bufferCache = harness.getBufferCache();
+        IMetadataPageManager freePageManager = new LinkedMetaDataPageManager(bufferCache, META_FRAME_FACTORY);
+        RTree rtree = new RTree(bufferCache, freePageManager, INTERIOR_FRAME_FACTORY, LEAF_FRAME_FACTORY, CMP_FACTORIES,
+                FIELD_COUNT, harness.getFileReference(), false);
+        rtree.create();
+        rtree.activate();
+        ArrayList<RTreeCheckTuple> checkTuples = insert(rtree);
+        RTree.RTreeAccessor indexAccessor = rtree.createAccessor(NoOpIndexAccessParameters.INSTANCE);
+        try {
+            int k = 100;
+            int x = RND.nextInt();
+            int y = RND.nextInt();
+            // brute force: the distances of all the entries, in ascending order
+            double[] expected = new double[checkTuples.size()];
+            for (int i = 0; i < expected.length; i++) {
+                RTreeCheckTuple checkTuple = checkTuples.get(i);
+                expected[i] = distance(x, y, (Integer) checkTuple.getField(0), (Integer) checkTuple.getField(1),
+                        (Integer) checkTuple.getField(2), (Integer) checkTuple.getField(3));
+            }
+            Arrays.sort(expected);
+            ArrayTupleBuilder pointTb = new ArrayTupleBuilder(2);
+            ArrayTupleReference point = new ArrayTupleReference();
+            TupleUtils.createIntegerTuple(pointTb, point, x, y);
+            RTreeKNNSearchCursor searchCursor = indexAccessor.createKNNSearchCursor();
+            try {
+                indexAccessor.search(searchCursor, new KNNSearchPredicate(point, k));
+                try {
+                    int count = 0;
+                    while (searchCursor.hasNext()) {
+                        searchCursor.next();
+                        ITupleReference tuple = searchCursor.getTuple();
+                        double distance = distance(x, y, getInt(tuple, 0), getInt(tuple, 1), getInt(tuple, 2),
+                                getInt(tuple, 3));
+                        Assert.assertEquals(distance, searchCursor.getDistance(), 1e-6 * distance);
+                        Assert.assertEquals(expected[count], distance, 1e-6 * distance);
+                        count++;
+                    }
+                    Assert.assertEquals(k, count);
+                } finally {
+                    searchCursor.close();
+                }
+            } finally {
+                searchCursor.destroy();
+            }
+        } finally {
+            indexAccessor.destroy();
+        }
+        rtree.deactivate();
+        rtree.destroy();
+    }
+
+    private static int getInt(ITupleReference tuple, int field) {
+        return IntegerPointable.getInteger(tuple.getFieldData(field), tuple.getFieldStart(field));
+    }
+
+    private static double distance(long x, long y, long lowX, long lowY, long highX, long highY) {
+        double dx = x < lowX ? lowX - x : x > highX ? x - highX : 0;
+        double dy = y < lowY ? lowY - y : y > highY ? y - highY : 0;
+        return Math.sqrt(dx * dx + dy * dy);
+    }
+
     public static SearchPredicate createSearchPredicate(ArrayTupleReference key, int first, int second, int third,
             int fourth) throws HyracksDataException {
         ArrayTupleBuilder keyTb = new ArrayTupleBuilder(KEY_FIELD_COUNT);
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.commons.io.FileUtils;
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.api.io.IFileHandle;
+import org.apache.hyracks.api.io.IIOManager;
+import org.apache.hyracks.api.io.IODeviceHandle;
+import org.apache.hyracks.api.util.IoUtil;
+import org.apache.hyracks.control.nc.io.DefaultDeviceResolver;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.control.nc.io.IoRequest;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+public class BatchedIoBackendTest {
+
+    private static final File DEVICE_ROOT = new File("/tmp/tst/batched");
+    private static final int PAGE_SIZE = 4096;
+    private static final int NUM_PAGES = 64;
+
+    @Test
+    public void adjacentRequestsTest() throws Exception {
+        final IODeviceHandle device = new IODeviceHandle(DEVICE_ROOT, "storage");
+        final IOManager ioManager = new IOManager(Collections.singletonList(device), new DefaultDeviceResolver(), 1,
+                NUM_PAGES, IOManager.BATCHED_IO_BACKEND);
+        try {
+            final FileReference fileRef = ioManager.resolve("file");
+            IoUtil.create(fileRef);
+            final IFileHandle fHandle = ioManager.open(fileRef, IIOManager.FileReadWriteMode.READ_WRITE,
+                    IIOManager.FileSyncMode.METADATA_ASYNC_DATA_ASYNC);
+            // queue all the pages at once so that the handler can combine them
+            final List<IoRequest> writes = new ArrayList<>();
+            for (int i = NUM_PAGES - 1; i >= 0; i--) {
+                final ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+                while (page.hasRemaining()) {
+                    page.putInt(i);
+                }
+                page.flip();
+                writes.add(ioManager.asyncWrite(fHandle, (long) i * PAGE_SIZE, page));
+            }
+            for (IoRequest write : writes) {
+                write.await();
+                Assert.assertEquals(IoRequest.State.OPERATION_SUCCEEDED, write.getState());
+                Assert.assertEquals(PAGE_SIZE, write.getWrite());
+            }
+            Assert.assertEquals((long) NUM_PAGES * PAGE_SIZE, ioManager.getSize(fHandle));
+
+            // the last read starts at the end of the file
+            final List<IoRequest> reads = new ArrayList<>();
+            final List<ByteBuffer> pages = new ArrayList<>();
+            for (int i = 0; i <= NUM_PAGES; i++) {
+                final ByteBuffer page = ByteBuffer.allocate(PAGE_SIZE);
+                pages.add(page);
+                reads.add(ioManager.asyncRead(fHandle, (long) i * PAGE_SIZE, page));
+            }
+            for (int i = 0; i < NUM_PAGES; i++) {
+                reads.get(i).await();
+                Assert.assertEquals(PAGE_SIZE, reads.get(i).getRead());
+                final ByteBuffer page = pages.get(i);
+                page.flip();
+                while (page.hasRemaining()) {
+                    Assert.assertEquals(i, page.getInt());
+                }
+            }
+            reads.get(NUM_PAGES).await();
+            Assert.assertEquals(-1, reads.get(NUM_PAGES).getRead());
+            ioManager.close(fHandle);
+        } finally {
+            ioManager.close();
+        }
+    }
+
+    @After
+    @Before
+    public void cleanup() throws IOException {
+        FileUtils.deleteDirectory(DEVICE_ROOT);
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+
+import org.apache.hyracks.api.io.FileReference;
+import org.apache.hyracks.control.nc.io.IOManager;
+import org.apache.hyracks.storage.common.buffercache.BufferCache;
+import org.apache.hyracks.storage.common.buffercache.DelayPageCleanerPolicy;
+import org.apache.hyracks.storage.common.buffercache.HeapBufferAllocator;
+import org.apache.hyracks.storage.common.buffercache.HotColdClockPageReplacementStrategy;
+import org.apache.hyracks.storage.common.buffercache.ICachedPage;
+import org.apache.hyracks.storage.common.buffercache.ICachedPageInternal;
+import org.apache.hyracks.storage.common.file.BufferedFileHandle;
+import org.apache.hyracks.storage.common.file.FileMapManager;
+import org.apache.hyracks.test.support.TestStorageManagerComponentHolder;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class HotColdClockPageReplacementStrategyTest {
+    private static final int PAGE_SIZE = 256;
+    private static final int NUM_PAGES = 20;
+    private static final int NUM_FILE_PAGES = 10 * NUM_PAGES;
+    private static final int NUM_HOT_PAGES = 4;
+
+    @Test
+    public void scanResistanceTest() throws Exception {
+        final IOManager ioManager = TestStorageManagerComponentHolder.getIOManager();
+        final HotColdClockPageReplacementStrategy strategy =
+                new HotColdClockPageReplacementStrategy(new HeapBufferAllocator(), PAGE_SIZE, NUM_PAGES);
+        final BufferCache bufferCache = new BufferCache(ioManager, strategy, new DelayPageCleanerPolicy(1000),
+                new FileMapManager(), 10, 10, Executors.defaultThreadFactory());
+        final FileReference fileRef = ioManager.resolve("hotColdTestFile");
+        final int fileId = bufferCache.createFile(fileRef);
+        bufferCache.openFile(fileId);
+        try {
+            for (int i = 0; i < NUM_FILE_PAGES; i++) {
+                final ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, i), true);
+                page.acquireWriteLatch();
+                page.getBuffer().putInt(0, i);
+                page.releaseWriteLatch(true);
+                bufferCache.flush(page);
+                bufferCache.unpin(page);
+            }
+            // the hot pages are accessed repeatedly while the clock moves
+            for (int round = 0; round < 3; round++) {
+                for (int i = 0; i < NUM_HOT_PAGES; i++) {
+                    read(bufferCache, fileId, i);
+                }
+                for (int i = 0; i < NUM_PAGES; i++) {
+                    read(bufferCache, fileId, NUM_HOT_PAGES + round * NUM_PAGES + i);
+                }
+            }
+            Assert.assertEquals(NUM_HOT_PAGES, strategy.getNumHotPages());
+            // a scan over all the pages that is larger than the cache
+            for (int i = NUM_HOT_PAGES; i < NUM_FILE_PAGES; i++) {
+                final ICachedPage page = read(bufferCache, fileId, i);
+                bufferCache.adviseWontNeed(page);
+            }
+            final Set<Long> cached = new HashSet<>();
+            for (int cpid = 0; cpid < NUM_PAGES; cpid++) {
+                final ICachedPageInternal page = bufferCache.getPage(cpid);
+                if (page != null) {
+                    cached.add(page.getDiskPageId());
+                }
+            }
+            for (int i = 0; i < NUM_HOT_PAGES; i++) {
+                Assert.assertTrue("hot page " + i + " was evicted by the scan",
+                        cached.contains(BufferedFileHandle.getDiskPageId(fileId, i)));
+            }
+        } finally {
+            bufferCache.closeFile(fileId);
+            bufferCache.deleteFile(fileId);
+            bufferCache.close();
+        }
+    }
+
+    private static ICachedPage read(BufferCache bufferCache, int fileId, int pageId) throws Exception {
+        final ICachedPage page = bufferCache.pin(BufferedFileHandle.getDiskPageId(fileId, pageId), false);
+        try {
+            Assert.assertEquals(pageId, page.getBuffer().getInt(0));
+        } finally {
+            bufferCache.unpin(page);
+        }
+        return page;
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.hyracks.storage.common;
+
+import java.util.concurrent.TimeUnit;
+
+import org.apache.hyracks.storage.common.buffercache.TokenBucketRateLimiter;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class TokenBucketRateLimiterTest {
+
+    @Test
+    public void burstIsNotThrottledTest() throws Exception {
+        TokenBucketRateLimiter bucket = new TokenBucketRateLimiter(1000, 1);
+        long start = System.nanoTime();
+        bucket.request(1000);
+        Assert.assertTrue(elapsedMillis(start) < 500);
+        // the burst took all the tokens, only the ones added since then are left
+        Assert.assertTrue(bucket.takeAvailable(1000) < 500);
+    }
+
+    @Test
+    public void debtIsPaidBackTest() throws Exception {
+        TokenBucketRateLimiter bucket = new TokenBucketRateLimiter(1000, 0.1);
+        bucket.request(100);
+        // 300 tokens more than the bucket has, the request waits until they are added
+        long start = System.nanoTime();
+        bucket.request(300);
+        Assert.assertTrue(elapsedMillis(start) >= 250);
+        // the tokens added while waiting paid the debt back
+        Assert.assertTrue(bucket.takeAvailable(100) < 50);
+    }
+
+    @Test
+    public void lendingTest() throws Exception {
+        TokenBucketRateLimiter borrower = new TokenBucketRateLimiter(10, 1);
+        TokenBucketRateLimiter lender = new TokenBucketRateLimiter(1000, 1);
+        borrower.setLender(lender);
+        // 10 tokens of the borrower and 500 borrowed from the lender, without waiting
+        long start = System.nanoTime();
+        borrower.request(510);
+        Assert.assertTrue(elapsedMillis(start) < 500);
+        double left = lender.takeAvailable(1000);
+        Assert.assertTrue("The lender has " + left + " tokens left", left >= 490 && left < 700);
+    }
+
+    @Test
+    public void lenderInDebtDoesNotLendTest() throws Exception {
+        TokenBucketRateLimiter borrower = new TokenBucketRateLimiter(1000, 0.1);
+        TokenBucketRateLimiter lender = new TokenBucketRateLimiter(1000, 0.1);
+        borrower.setLender(lender);
+        lender.request(100);
+        borrower.request(100);
+        // neither bucket has tokens left, so the borrower goes into debt instead of taking the lender's
+        long start = System.nanoTime();
+        borrower.request(300);
+        Assert.assertTrue(elapsedMillis(start) >= 250);
+    }
+
+    @Test
+    public void setRateTest() {
+        TokenBucketRateLimiter bucket = new TokenBucketRateLimiter(1000, 1);
+        bucket.setRate(100);
+        Assert.assertEquals(100, bucket.getRate(), 0);
+        // the tokens beyond the burst of the new rate are dropped
+        Assert.assertTrue(bucket.takeAvailable(1000) <= 100);
+    }
+
+    @Test
+    public void invalidRateTest() {
+        try {
+            new TokenBucketRateLimiter(0, 1);
+            Assert.fail("A zero rate must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+        try {
+            new TokenBucketRateLimiter(1000, 1).setRate(-1);
+            Assert.fail("A negative rate must be rejected");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    private static long elapsedMillis(long startNanos) {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}